@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.jobgen;
+
+import java.util.List;
+
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.functions.IExternalFunctionInfo;
+import org.apache.asterix.om.typecomputer.impl.TypeComputeUtils;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.AUnionType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.runtime.evaluators.fusion.FusedPredicateEvaluatorFactory;
+import org.apache.asterix.runtime.evaluators.fusion.FusedPredicateFactories;
+import org.apache.asterix.runtime.evaluators.fusion.FusedPredicateFactories.ComparisonKind;
+import org.apache.asterix.runtime.evaluators.fusion.FusedValueFactories;
+import org.apache.asterix.runtime.evaluators.fusion.IFusedPredicateFactory;
+import org.apache.asterix.runtime.evaluators.fusion.IFusedValueFactory;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.IVariableTypeEnvironment;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.IOperatorSchema;
+import org.apache.hyracks.algebricks.core.jobgen.impl.JobGenContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.ConstantEvalFactory;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+
+/**
+ * Compiles a selection condition made of value comparisons, logical connectives, field accesses, variables and
+ * constants into a single {@link FusedPredicateEvaluatorFactory}. The sub-expressions that cannot be fused are
+ * evaluated by their regular evaluators and their results are fed into the fused tree.
+ */
+class ExpressionFusionCompiler {
+
+    private final QueryLogicalExpressionJobGen jobGen;
+    private final IVariableTypeEnvironment env;
+    private final IOperatorSchema[] inputSchemas;
+    private final JobGenContext context;
+
+    ExpressionFusionCompiler(QueryLogicalExpressionJobGen jobGen, IVariableTypeEnvironment env,
+            IOperatorSchema[] inputSchemas, JobGenContext context) {
+        this.jobGen = jobGen;
+        this.env = env;
+        this.inputSchemas = inputSchemas;
+        this.context = context;
+    }
+
+    static boolean isFusable(AbstractFunctionCallExpression expr) {
+        return isPredicate(expr);
+    }
+
+    IScalarEvaluatorFactory compile(AbstractFunctionCallExpression expr) throws AlgebricksException {
+        return new FusedPredicateEvaluatorFactory(compilePredicate(expr));
+    }
+
+    private static boolean isPredicate(ILogicalExpression expr) {
+        if (expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return false;
+        }
+        AbstractFunctionCallExpression funExpr = (AbstractFunctionCallExpression) expr;
+        if (funExpr.getFunctionInfo() instanceof IExternalFunctionInfo) {
+            return false;
+        }
+        FunctionIdentifier fid = funExpr.getFunctionIdentifier();
+        int arity = funExpr.getArguments().size();
+        if (fid.equals(BuiltinFunctions.AND) || fid.equals(BuiltinFunctions.OR)) {
+            return arity > 0;
+        }
+        if (fid.equals(BuiltinFunctions.NOT)) {
+            return arity == 1;
+        }
+        return arity == 2 && getComparisonKind(fid) != null;
+    }
+
+    private static ComparisonKind getComparisonKind(FunctionIdentifier fid) {
+        if (fid.equals(BuiltinFunctions.EQ)) {
+            return ComparisonKind.EQ;
+        } else if (fid.equals(BuiltinFunctions.NEQ)) {
+            return ComparisonKind.NEQ;
+        } else if (fid.equals(BuiltinFunctions.LT)) {
+            return ComparisonKind.LT;
+        } else if (fid.equals(BuiltinFunctions.LE)) {
+            return ComparisonKind.LE;
+        } else if (fid.equals(BuiltinFunctions.GT)) {
+            return ComparisonKind.GT;
+        } else if (fid.equals(BuiltinFunctions.GE)) {
+            return ComparisonKind.GE;
+        }
+        return null;
+    }
+
+    private IFusedPredicateFactory compilePredicate(AbstractFunctionCallExpression expr) throws AlgebricksException {
+        FunctionIdentifier fid = expr.getFunctionIdentifier();
+        SourceLocation sourceLoc = expr.getSourceLocation();
+        List<Mutable<ILogicalExpression>> args = expr.getArguments();
+        if (fid.equals(BuiltinFunctions.AND) || fid.equals(BuiltinFunctions.OR)) {
+            IFusedPredicateFactory[] argFactories = new IFusedPredicateFactory[args.size()];
+            for (int i = 0; i < argFactories.length; i++) {
+                argFactories[i] = compileBooleanArgument(args.get(i).getValue(), fid, i, sourceLoc);
+            }
+            return fid.equals(BuiltinFunctions.AND) ? new FusedPredicateFactories.AndFactory(argFactories)
+                    : new FusedPredicateFactories.OrFactory(argFactories);
+        }
+        if (fid.equals(BuiltinFunctions.NOT)) {
+            return new FusedPredicateFactories.NotFactory(
+                    compileBooleanArgument(args.get(0).getValue(), fid, 0, sourceLoc));
+        }
+        ILogicalExpression left = args.get(0).getValue();
+        ILogicalExpression right = args.get(1).getValue();
+        return new FusedPredicateFactories.ComparisonFactory(getComparisonKind(fid), compileValue(left),
+                getActualType(left), compileValue(right), getActualType(right), sourceLoc);
+    }
+
+    private IFusedPredicateFactory compileBooleanArgument(ILogicalExpression arg, FunctionIdentifier fid, int argIndex,
+            SourceLocation sourceLoc) throws AlgebricksException {
+        if (isPredicate(arg)) {
+            return compilePredicate((AbstractFunctionCallExpression) arg);
+        }
+        return new FusedPredicateFactories.BooleanValueFactory(compileValue(arg), fid, argIndex, sourceLoc);
+    }
+
+    private IFusedValueFactory compileValue(ILogicalExpression expr) throws AlgebricksException {
+        switch (expr.getExpressionTag()) {
+            case VARIABLE:
+                int pos = findVariable((VariableReferenceExpression) expr);
+                if (pos >= 0) {
+                    return new FusedValueFactories.ColumnFactory(pos);
+                }
+                break;
+            case CONSTANT:
+                byte[] value = getConstantValue(expr);
+                if (value != null) {
+                    return new FusedValueFactories.ConstantFactory(value);
+                }
+                break;
+            case FUNCTION_CALL:
+                if (isPredicate(expr)) {
+                    return new FusedValueFactories.PredicateFactory(
+                            compilePredicate((AbstractFunctionCallExpression) expr));
+                }
+                IFusedValueFactory fieldAccess = compileFieldAccess((AbstractFunctionCallExpression) expr);
+                if (fieldAccess != null) {
+                    return fieldAccess;
+                }
+                break;
+            default:
+                break;
+        }
+        return new FusedValueFactories.InterpretedFactory(
+                jobGen.createEvaluatorFactory(expr, env, inputSchemas, context));
+    }
+
+    private IFusedValueFactory compileFieldAccess(AbstractFunctionCallExpression expr) throws AlgebricksException {
+        FunctionIdentifier fid = expr.getFunctionIdentifier();
+        List<Mutable<ILogicalExpression>> args = expr.getArguments();
+        if (expr.getFunctionInfo() instanceof IExternalFunctionInfo || args.size() != 2) {
+            return null;
+        }
+        ILogicalExpression record = args.get(0).getValue();
+        if (fid.equals(BuiltinFunctions.FIELD_ACCESS_BY_NAME)) {
+            byte[] fieldName = getConstantValue(args.get(1).getValue());
+            if (fieldName == null || fieldName[0] != ATypeTag.SERIALIZED_STRING_TYPE_TAG) {
+                return null;
+            }
+            return new FusedValueFactories.FieldAccessByNameFactory(compileValue(record), fieldName,
+                    expr.getSourceLocation());
+        }
+        if (fid.equals(BuiltinFunctions.FIELD_ACCESS_BY_INDEX)) {
+            byte[] fieldIndex = getConstantValue(args.get(1).getValue());
+            if (fieldIndex == null || fieldIndex[0] != ATypeTag.SERIALIZED_INT32_TYPE_TAG) {
+                return null;
+            }
+            return new FusedValueFactories.FieldAccessByIndexFactory(compileValue(record),
+                    IntegerPointable.getInteger(fieldIndex, 1), getRecordType(record), expr.getSourceLocation());
+        }
+        return null;
+    }
+
+    private int findVariable(VariableReferenceExpression expr) {
+        for (IOperatorSchema schema : inputSchemas) {
+            int pos = schema.findVariable(expr.getVariableReference());
+            if (pos >= 0) {
+                return pos;
+            }
+        }
+        return -1;
+    }
+
+    private byte[] getConstantValue(ILogicalExpression expr) throws AlgebricksException {
+        if (expr.getExpressionTag() != LogicalExpressionTag.CONSTANT) {
+            return null;
+        }
+        IScalarEvaluatorFactory factory = jobGen.createEvaluatorFactory(expr, env, inputSchemas, context);
+        return factory instanceof ConstantEvalFactory ? ((ConstantEvalFactory) factory).getValue() : null;
+    }
+
+    private IAType getActualType(ILogicalExpression expr) throws AlgebricksException {
+        return TypeComputeUtils.getActualType((IAType) env.getType(expr));
+    }
+
+    // same as FunctionTypeInferers.FieldAccessByIndexTypeInferer
+    private ARecordType getRecordType(ILogicalExpression record) throws AlgebricksException {
+        IAType t = (IAType) env.getType(record);
+        switch (t.getTypeTag()) {
+            case OBJECT:
+                return (ARecordType) t;
+            case UNION:
+                AUnionType unionT = (AUnionType) t;
+                if (unionT.isUnknownableType()) {
+                    IAType t2 = unionT.getActualType();
+                    if (t2.getTypeTag() == ATypeTag.OBJECT) {
+                        return (ARecordType) t2;
+                    }
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+}
@@ -112,8 +112,11 @@ public class QueryLogicalExpressionJobGen implements ILogicalExpressionJobGen {
                 return copyEvaluatorFactory;
             }
             case FUNCTION_CALL: {
-                copyEvaluatorFactory = createScalarFunctionEvaluatorFactory((AbstractFunctionCallExpression) expr, env,
-                        inputSchemas, context);
+                AbstractFunctionCallExpression funExpr = (AbstractFunctionCallExpression) expr;
+                if (isExpressionFusion(context) && ExpressionFusionCompiler.isFusable(funExpr)) {
+                    return new ExpressionFusionCompiler(this, env, inputSchemas, context).compile(funExpr);
+                }
+                copyEvaluatorFactory = createScalarFunctionEvaluatorFactory(funExpr, env, inputSchemas, context);
                 return copyEvaluatorFactory;
             }
             default:
@@ -122,6 +125,12 @@ public class QueryLogicalExpressionJobGen implements ILogicalExpressionJobGen {
 
     }
 
+    private static boolean isExpressionFusion(JobGenContext context) {
+        MetadataProvider metadataProvider = (MetadataProvider) context.getMetadataProvider();
+        return metadataProvider.getBooleanProperty(CompilerProperties.COMPILER_EXPRESSION_FUSION_KEY,
+                ((IApplicationContext) context.getAppContext()).getCompilerProperties().isExpressionFusion());
+    }
+
     private IScalarEvaluatorFactory createVariableEvaluatorFactory(VariableReferenceExpression expr,
             IOperatorSchema[] inputSchemas) throws AlgebricksException {
         LogicalVariable variable = expr.getVariableReference();
@@ -38,6 +38,7 @@ import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCa
 import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractDataSourceOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractLogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AggregateOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnnestMapOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.WindowOperator;
@@ -203,6 +204,30 @@ public class AnalysisUtil {
         return true;
     }
 
+    /**
+     * Checks whether all aggregates in a trivial aggregate subplan ( aggregate + nts ) can remove values,
+     * so the subplan can be evaluated over sliding window frames
+     */
+    public static boolean isInvertibleAggregateSubplan(ILogicalPlan subplan) {
+        if (!isTrivialAggregateSubplan(subplan)) {
+            return false;
+        }
+        for (Mutable<ILogicalOperator> rootOpRef : subplan.getRoots()) {
+            AggregateOperator aggOp = (AggregateOperator) rootOpRef.getValue();
+            for (Mutable<ILogicalExpression> exprRef : aggOp.getExpressions()) {
+                ILogicalExpression expr = exprRef.getValue();
+                if (expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+                    return false;
+                }
+                FunctionIdentifier fi = ((AbstractFunctionCallExpression) expr).getFunctionIdentifier();
+                if (!BuiltinFunctions.isInvertibleAggregateFunction(fi)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     private static List<FunctionIdentifier> fieldAccessFunctions = new ArrayList<>();
 
     static {
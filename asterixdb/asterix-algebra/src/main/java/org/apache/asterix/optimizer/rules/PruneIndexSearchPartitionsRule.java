@@ -0,0 +1,292 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.asterix.common.config.DatasetConfig.DatasetType;
+import org.apache.asterix.formats.nontagged.BinaryHashFunctionFactoryProvider;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.metadata.declared.MetadataProvider;
+import org.apache.asterix.metadata.entities.Dataset;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.constants.AsterixConstantValue;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.optimizer.rules.am.BTreeJobGenParams;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.IPhysicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.base.OperatorAnnotations;
+import org.apache.hyracks.algebricks.core.algebra.base.PhysicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ConstantExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.IAlgebricksConstantValue;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractLogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AssignOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnnestMapOperator;
+import org.apache.hyracks.algebricks.core.rewriter.base.IAlgebraicRewriteRule;
+import org.apache.hyracks.api.comm.FixedSizeFrame;
+import org.apache.hyracks.api.comm.FrameHelper;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.partition.FieldHashPartitionComputerFactory;
+
+/**
+ * Restricts primary index point searches with constant keys to the only partition that can hold the searched keys.
+ * <pre>
+ * Pattern:
+ * DISTRIBUTE_RESULT -> ... -> UNNEST_MAP (primary index, key = constant) -> (ASSIGN | EXCHANGE | ...)* -> ETS
+ * </pre>
+ * The partition is computed the same way the records were partitioned when they were stored, i.e. by hashing their
+ * primary keys, and is set as the {@link OperatorAnnotations#TARGET_PARTITION} annotation of the search. The search
+ * then runs on that partition only, and so do the operators that are connected to it through one-to-one exchanges.
+ * Searches are only pruned when none of these operators has other inputs or partition constraints of its own.
+ */
+public class PruneIndexSearchPartitionsRule implements IAlgebraicRewriteRule {
+
+    @Override
+    public boolean rewritePre(Mutable<ILogicalOperator> opRef, IOptimizationContext context)
+            throws AlgebricksException {
+        ILogicalOperator op = opRef.getValue();
+        if (op.getOperatorTag() != LogicalOperatorTag.DISTRIBUTE_RESULT || context.checkIfInDontApplySet(this, op)) {
+            return false;
+        }
+        context.addToDontApplySet(this, op);
+        Map<ILogicalOperator, List<ILogicalOperator>> parents = new HashMap<>();
+        List<UnnestMapOperator> searches = new ArrayList<>();
+        collectSearches(op, parents, searches);
+        for (UnnestMapOperator search : searches) {
+            BTreeJobGenParams jobGenParams = getPrimaryPointSearchParams(search);
+            if (jobGenParams == null) {
+                continue;
+            }
+            List<IAObject> keys = getConstantKeys(search, jobGenParams.getLowKeyVarList(), parents);
+            if (keys == null || !isPrunable(search, parents)) {
+                continue;
+            }
+            MetadataProvider metadataProvider = (MetadataProvider) context.getMetadataProvider();
+            Dataset dataset =
+                    metadataProvider.findDataset(jobGenParams.getDataverseName(), jobGenParams.getDatasetName());
+            if (dataset == null || dataset.getDatasetType() != DatasetType.INTERNAL
+                    || keys.size() != dataset.getPrimaryKeys().size()) {
+                continue;
+            }
+            int numPartitions = metadataProvider.getSplitProviderAndConstraints(dataset, jobGenParams.getIndexName())
+                    .first.getFileSplits().length;
+            if (numPartitions > 1) {
+                search.getAnnotations().put(OperatorAnnotations.TARGET_PARTITION,
+                        getPartition(keys, numPartitions, context.getPhysicalOptimizationConfig().getFrameSize()));
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean rewritePost(Mutable<ILogicalOperator> opRef, IOptimizationContext context) {
+        return false;
+    }
+
+    private static void collectSearches(ILogicalOperator op, Map<ILogicalOperator, List<ILogicalOperator>> parents,
+            List<UnnestMapOperator> searches) {
+        for (Mutable<ILogicalOperator> inputRef : op.getInputs()) {
+            ILogicalOperator input = inputRef.getValue();
+            List<ILogicalOperator> inputParents = parents.get(input);
+            boolean visited = inputParents != null;
+            if (!visited) {
+                inputParents = new ArrayList<>(1);
+                parents.put(input, inputParents);
+            }
+            inputParents.add(op);
+            if (!visited) {
+                if (input.getOperatorTag() == LogicalOperatorTag.UNNEST_MAP) {
+                    searches.add((UnnestMapOperator) input);
+                }
+                collectSearches(input, parents, searches);
+            }
+        }
+    }
+
+    private static BTreeJobGenParams getPrimaryPointSearchParams(UnnestMapOperator search) {
+        IPhysicalOperator physOp = search.getPhysicalOperator();
+        if (physOp == null || physOp.getOperatorTag() != PhysicalOperatorTag.BTREE_SEARCH) {
+            return null;
+        }
+        ILogicalExpression unnestExpr = search.getExpressionRef().getValue();
+        if (unnestExpr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL || !BuiltinFunctions.INDEX_SEARCH
+                .equals(((AbstractFunctionCallExpression) unnestExpr).getFunctionIdentifier())) {
+            return null;
+        }
+        BTreeJobGenParams jobGenParams = new BTreeJobGenParams();
+        jobGenParams.readFromFuncArgs(((AbstractFunctionCallExpression) unnestExpr).getArguments());
+        boolean pointSearch = jobGenParams.isPrimaryIndex() && jobGenParams.isEqCondition()
+                && jobGenParams.isLowKeyInclusive() && jobGenParams.isHighKeyInclusive()
+                && !jobGenParams.getLowKeyVarList().isEmpty()
+                && jobGenParams.getLowKeyVarList().equals(jobGenParams.getHighKeyVarList());
+        return pointSearch ? jobGenParams : null;
+    }
+
+    /**
+     * @return the constant values of the search keys if the input of the search is a single tuple that only holds
+     *         constants. Otherwise null.
+     */
+    private static List<IAObject> getConstantKeys(ILogicalOperator search, List<LogicalVariable> keyVars,
+            Map<ILogicalOperator, List<ILogicalOperator>> parents) {
+        Map<LogicalVariable, IAObject> constants = new HashMap<>();
+        ILogicalOperator op = search.getInputs().get(0).getValue();
+        while (op.getOperatorTag() != LogicalOperatorTag.EMPTYTUPLESOURCE) {
+            if (op.getInputs().size() != 1 || parents.get(op).size() != 1) {
+                return null;
+            }
+            switch (op.getOperatorTag()) {
+                case ASSIGN:
+                    AssignOperator assign = (AssignOperator) op;
+                    for (int i = 0; i < assign.getVariables().size(); i++) {
+                        ILogicalExpression expr = assign.getExpressions().get(i).getValue();
+                        if (expr.getExpressionTag() == LogicalExpressionTag.CONSTANT) {
+                            IAlgebricksConstantValue value = ((ConstantExpression) expr).getValue();
+                            if (value instanceof AsterixConstantValue) {
+                                constants.putIfAbsent(assign.getVariables().get(i),
+                                        ((AsterixConstantValue) value).getObject());
+                            }
+                        }
+                    }
+                    break;
+                case EXCHANGE:
+                case ORDER:
+                case PROJECT:
+                    break;
+                default:
+                    return null;
+            }
+            op = op.getInputs().get(0).getValue();
+        }
+        List<IAObject> keys = new ArrayList<>(keyVars.size());
+        for (LogicalVariable keyVar : keyVars) {
+            IAObject key = constants.get(keyVar);
+            if (key == null || key.getType().getTypeTag().isDerivedType()) {
+                return null;
+            }
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    /**
+     * Checks that the operators that would run with the same partitions as the search, i.e. those above it that are
+     * not separated from it by an exchange that repartitions the data, can run on a single partition.
+     */
+    private static boolean isPrunable(ILogicalOperator search, Map<ILogicalOperator, List<ILogicalOperator>> parents) {
+        Set<ILogicalOperator> visited = new HashSet<>();
+        Deque<ILogicalOperator> toVisit = new ArrayDeque<>(parents.get(search));
+        while (!toVisit.isEmpty()) {
+            ILogicalOperator op = toVisit.pop();
+            if (!visited.add(op)) {
+                continue;
+            }
+            if (op.getInputs().size() != 1) {
+                return false;
+            }
+            switch (op.getOperatorTag()) {
+                case DATASOURCESCAN:
+                case UNNEST_MAP:
+                case LEFT_OUTER_UNNEST_MAP:
+                case INSERT_DELETE_UPSERT:
+                case INDEX_INSERT_DELETE_UPSERT:
+                case DELEGATE_OPERATOR:
+                case WRITE:
+                case WRITE_RESULT:
+                case SINK:
+                    return false;
+                case EXCHANGE:
+                    IPhysicalOperator physOp = ((AbstractLogicalOperator) op).getPhysicalOperator();
+                    if (physOp == null) {
+                        return false;
+                    }
+                    if (physOp.getOperatorTag() != PhysicalOperatorTag.ONE_TO_ONE_EXCHANGE) {
+                        // the consumers of a repartitioning exchange do not depend on the partitions of the producers
+                        continue;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            List<ILogicalOperator> opParents = parents.get(op);
+            if (opParents != null) {
+                toVisit.addAll(opParents);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the partition the records with the given primary keys are stored in, see
+     *         {@link FieldHashPartitionComputerFactory}
+     */
+    private static int getPartition(List<IAObject> keys, int numPartitions, int frameSize)
+            throws AlgebricksException {
+        int numKeys = keys.size();
+        int[] keyFields = new int[numKeys];
+        IBinaryHashFunctionFactory[] hashFunctionFactories = new IBinaryHashFunctionFactory[numKeys];
+        @SuppressWarnings("unchecked")
+        ISerializerDeserializer<IAObject> serde =
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ANY);
+        ArrayTupleBuilder tupleBuilder = new ArrayTupleBuilder(numKeys);
+        try {
+            for (int i = 0; i < numKeys; i++) {
+                IAObject key = keys.get(i);
+                keyFields[i] = i;
+                hashFunctionFactories[i] =
+                        BinaryHashFunctionFactoryProvider.INSTANCE.getBinaryHashFunctionFactory(key.getType());
+                tupleBuilder.addField(serde, key);
+            }
+            FixedSizeFrame frame = new FixedSizeFrame(ByteBuffer.allocate(
+                    FrameHelper.calcAlignedFrameSizeToStore(numKeys, tupleBuilder.getSize(), frameSize)));
+            FrameTupleAppender appender = new FrameTupleAppender(frame, true);
+            appender.append(tupleBuilder.getFieldEndOffsets(), tupleBuilder.getByteArray(), 0,
+                    tupleBuilder.getSize());
+            FrameTupleAccessor accessor =
+                    new FrameTupleAccessor(new RecordDescriptor(new ISerializerDeserializer[numKeys]));
+            accessor.reset(frame.getBuffer());
+            return new FieldHashPartitionComputerFactory(keyFields, hashFunctionFactories).createPartitioner(null)
+                    .partition(accessor, 0, numPartitions);
+        } catch (HyracksDataException e) {
+            throw new AlgebricksException(e);
+        }
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.asterix.common.config.CompilerProperties;
+import org.apache.asterix.common.config.DatasetConfig.DatasetType;
+import org.apache.asterix.common.dataflow.ICcApplicationContext;
+import org.apache.asterix.external.util.ExternalDataUtils;
+import org.apache.asterix.lang.common.util.FunctionUtil;
+import org.apache.asterix.metadata.declared.DataSource;
+import org.apache.asterix.metadata.declared.DatasetDataSource;
+import org.apache.asterix.metadata.declared.FieldNamesProjectionInfo;
+import org.apache.asterix.metadata.declared.MetadataProvider;
+import org.apache.asterix.metadata.entities.Dataset;
+import org.apache.asterix.metadata.entities.ExternalDatasetDetails;
+import org.apache.asterix.om.base.AString;
+import org.apache.asterix.om.constants.AsterixConstantValue;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.om.utils.ConstantExpressionUtil;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalPlan;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ConstantExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ScalarFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractOperatorWithNestedPlans;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.DataSourceScanOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.visitors.VariableUtilities;
+import org.apache.hyracks.algebricks.core.rewriter.base.IAlgebraicRewriteRule;
+
+/**
+ * Pushes the top-level fields of the scanned records that a query needs into the DATASOURCE_SCAN of a dataset,
+ * so that the scan only outputs records with those fields. This is only done if every use of the record variable of
+ * the scan is a field access with a constant field name or index, e.g.
+ * <pre>
+ * assign [$$3] <- [field-access-by-index($$1, 2)]
+ * data-scan []<-[$$0, $$1] <- ds
+ * </pre>
+ * becomes
+ * <pre>
+ * assign [$$3] <- [field-access-by-name($$1, "name")]
+ * data-scan []<-[$$0, $$1] <- ds project ({name})
+ * </pre>
+ * The projected records are open records, so accesses by index are replaced by accesses by name.
+ * The rule processes the whole plan when it is applied to the root operator.
+ */
+public class PushFieldAccessIntoDataScanRule implements IAlgebraicRewriteRule {
+
+    private final boolean scanProjectionDefault;
+
+    public PushFieldAccessIntoDataScanRule(ICcApplicationContext appCtx) {
+        scanProjectionDefault = appCtx.getCompilerProperties().isScanProjection();
+    }
+
+    @Override
+    public boolean rewritePre(Mutable<ILogicalOperator> opRef, IOptimizationContext context)
+            throws AlgebricksException {
+        ILogicalOperator op = opRef.getValue();
+        if (context.checkIfInDontApplySet(this, op)) {
+            return false;
+        }
+        Set<ILogicalOperator> operators = new LinkedHashSet<>();
+        collectOperators(op, operators);
+        for (ILogicalOperator operator : operators) {
+            context.addToDontApplySet(this, operator);
+        }
+        MetadataProvider metadataProvider = (MetadataProvider) context.getMetadataProvider();
+        if (!metadataProvider.getBooleanProperty(CompilerProperties.COMPILER_SCAN_PROJECTION_KEY,
+                scanProjectionDefault)) {
+            return false;
+        }
+
+        Map<LogicalVariable, ScanProjection> projections = new HashMap<>();
+        for (ILogicalOperator operator : operators) {
+            if (operator.getOperatorTag() == LogicalOperatorTag.DATASOURCESCAN) {
+                DataSourceScanOperator scan = (DataSourceScanOperator) operator;
+                ARecordType recordType = getProjectableRecordType(scan);
+                if (recordType != null) {
+                    DataSource dataSource = (DataSource) scan.getDataSource();
+                    LogicalVariable recordVar = dataSource.getDataRecordVariable(scan.getVariables());
+                    projections.put(recordVar, new ScanProjection(scan, recordType));
+                }
+            }
+        }
+        if (projections.isEmpty()) {
+            return false;
+        }
+
+        Set<LogicalVariable> usedVars = new HashSet<>();
+        for (ILogicalOperator operator : operators) {
+            if (operator.getOperatorTag() == LogicalOperatorTag.PROJECT || isProjectionScan(operator, projections)) {
+                // a scan evaluates its pushed down condition on the whole record
+                continue;
+            }
+            usedVars.clear();
+            VariableUtilities.getUsedVariables(operator, usedVars);
+            usedVars.retainAll(projections.keySet());
+            if (usedVars.isEmpty()) {
+                continue;
+            }
+            Set<LogicalVariable> referencedVars = new HashSet<>();
+            operator.acceptExpressionTransform(exprRef -> {
+                collectFieldAccesses(exprRef, projections, referencedVars);
+                return false;
+            });
+            if (!(operator instanceof AbstractOperatorWithNestedPlans)) {
+                // the record is used by the operator without an expression, e.g. by a union
+                usedVars.removeAll(referencedVars);
+                for (LogicalVariable usedVar : usedVars) {
+                    projections.get(usedVar).valid = false;
+                }
+            }
+        }
+
+        boolean changed = false;
+        for (ScanProjection projection : projections.values()) {
+            if (!projection.valid || projection.isProjectingAllFields()) {
+                continue;
+            }
+            for (Mutable<ILogicalExpression> exprRef : projection.fieldAccessesByIndex) {
+                AbstractFunctionCallExpression byIndex = (AbstractFunctionCallExpression) exprRef.getValue();
+                int fieldIndex = ConstantExpressionUtil.getIntArgument(byIndex, 1);
+                ConstantExpression fieldName = new ConstantExpression(
+                        new AsterixConstantValue(new AString(projection.recordType.getFieldNames()[fieldIndex])));
+                ScalarFunctionCallExpression byName = new ScalarFunctionCallExpression(
+                        FunctionUtil.getFunctionInfo(BuiltinFunctions.FIELD_ACCESS_BY_NAME),
+                        byIndex.getArguments().get(0), new MutableObject<>(fieldName));
+                byName.setSourceLocation(byIndex.getSourceLocation());
+                exprRef.setValue(byName);
+            }
+            projection.scan.setProjectionInfo(new FieldNamesProjectionInfo(projection.fieldNames));
+            changed = true;
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean rewritePost(Mutable<ILogicalOperator> opRef, IOptimizationContext context) {
+        return false;
+    }
+
+    private static void collectOperators(ILogicalOperator op, Set<ILogicalOperator> operators) {
+        if (!operators.add(op)) {
+            return;
+        }
+        if (op instanceof AbstractOperatorWithNestedPlans) {
+            for (ILogicalPlan nestedPlan : ((AbstractOperatorWithNestedPlans) op).getNestedPlans()) {
+                for (Mutable<ILogicalOperator> root : nestedPlan.getRoots()) {
+                    collectOperators(root.getValue(), operators);
+                }
+            }
+        }
+        for (Mutable<ILogicalOperator> input : op.getInputs()) {
+            collectOperators(input.getValue(), operators);
+        }
+    }
+
+    private static boolean isProjectionScan(ILogicalOperator op, Map<LogicalVariable, ScanProjection> projections) {
+        if (op.getOperatorTag() != LogicalOperatorTag.DATASOURCESCAN) {
+            return false;
+        }
+        for (ScanProjection projection : projections.values()) {
+            if (projection.scan == op) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ARecordType getProjectableRecordType(DataSourceScanOperator scan) {
+        if (scan.getProjectionInfo() != null || !(scan.getDataSource() instanceof DatasetDataSource)) {
+            return null;
+        }
+        DatasetDataSource dataSource = (DatasetDataSource) scan.getDataSource();
+        IAType itemType = dataSource.getItemType();
+        if (dataSource.hasMeta() || itemType.getTypeTag() != ATypeTag.OBJECT) {
+            return null;
+        }
+        Dataset dataset = dataSource.getDataset();
+        if (dataset.getDatasetType() == DatasetType.EXTERNAL && !ExternalDataUtils
+                .supportsProjection(((ExternalDatasetDetails) dataset.getDatasetDetails()).getProperties())) {
+            return null;
+        }
+        return (ARecordType) itemType;
+    }
+
+    // Records the fields accessed through the scanned record variables and invalidates the projection of the
+    // scans whose record variable is used in any other way.
+    private static void collectFieldAccesses(Mutable<ILogicalExpression> exprRef,
+            Map<LogicalVariable, ScanProjection> projections, Set<LogicalVariable> referencedVars) {
+        ILogicalExpression expr = exprRef.getValue();
+        switch (expr.getExpressionTag()) {
+            case VARIABLE:
+                LogicalVariable var = ((VariableReferenceExpression) expr).getVariableReference();
+                ScanProjection projection = projections.get(var);
+                if (projection != null) {
+                    referencedVars.add(var);
+                    projection.valid = false;
+                }
+                break;
+            case FUNCTION_CALL:
+                AbstractFunctionCallExpression funcExpr = (AbstractFunctionCallExpression) expr;
+                List<Mutable<ILogicalExpression>> args = funcExpr.getArguments();
+                LogicalVariable recordVar = getFieldAccessRecordVariable(funcExpr);
+                projection = recordVar != null ? projections.get(recordVar) : null;
+                if (projection == null) {
+                    for (Mutable<ILogicalExpression> arg : args) {
+                        collectFieldAccesses(arg, projections, referencedVars);
+                    }
+                    break;
+                }
+                referencedVars.add(recordVar);
+                if (!projection.addFieldAccess(exprRef)) {
+                    projection.valid = false;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static LogicalVariable getFieldAccessRecordVariable(AbstractFunctionCallExpression funcExpr) {
+        FunctionIdentifier fid = funcExpr.getFunctionIdentifier();
+        if (!fid.equals(BuiltinFunctions.FIELD_ACCESS_BY_NAME) && !fid.equals(BuiltinFunctions.FIELD_ACCESS_BY_INDEX)
+                || funcExpr.getArguments().size() != 2) {
+            return null;
+        }
+        ILogicalExpression record = funcExpr.getArguments().get(0).getValue();
+        return record.getExpressionTag() == LogicalExpressionTag.VARIABLE
+                ? ((VariableReferenceExpression) record).getVariableReference() : null;
+    }
+
+    private static class ScanProjection {
+        private final DataSourceScanOperator scan;
+        private final ARecordType recordType;
+        private final Set<String> fieldNames = new HashSet<>();
+        private final List<Mutable<ILogicalExpression>> fieldAccessesByIndex = new ArrayList<>();
+        private boolean valid = true;
+
+        private ScanProjection(DataSourceScanOperator scan, ARecordType recordType) {
+            this.scan = scan;
+            this.recordType = recordType;
+        }
+
+        private boolean addFieldAccess(Mutable<ILogicalExpression> exprRef) {
+            AbstractFunctionCallExpression funcExpr = (AbstractFunctionCallExpression) exprRef.getValue();
+            if (funcExpr.getFunctionIdentifier().equals(BuiltinFunctions.FIELD_ACCESS_BY_NAME)) {
+                String fieldName = ConstantExpressionUtil.getStringArgument(funcExpr, 1);
+                if (fieldName == null) {
+                    return false;
+                }
+                fieldNames.add(fieldName);
+                return true;
+            }
+            Integer fieldIndex = ConstantExpressionUtil.getIntArgument(funcExpr, 1);
+            if (fieldIndex == null || fieldIndex < 0 || fieldIndex >= recordType.getFieldNames().length) {
+                return false;
+            }
+            fieldNames.add(recordType.getFieldNames()[fieldIndex]);
+            fieldAccessesByIndex.add(exprRef);
+            return true;
+        }
+
+        private boolean isProjectingAllFields() {
+            if (recordType.isOpen()) {
+                return false;
+            }
+            for (String fieldName : recordType.getFieldNames()) {
+                if (!fieldNames.contains(fieldName)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
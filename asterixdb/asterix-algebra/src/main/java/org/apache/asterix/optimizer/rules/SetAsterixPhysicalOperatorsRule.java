@@ -247,12 +247,16 @@ public final class SetAsterixPhysicalOperatorsRule extends SetAlgebricksPhysical
                         winOp.getFrameEndExpressions(), winOp.getFrameValueExpressions());
                 boolean nestedTrivialAggregates =
                         winOp.getNestedPlans().stream().allMatch(AnalysisUtil::isTrivialAggregateSubplan);
+                boolean nestedInvertibleAggregates =
+                        nestedTrivialAggregates && context.getPhysicalOptimizationConfig().isWindowSliding()
+                        && winOp.getNestedPlans().stream().allMatch(AnalysisUtil::isInvertibleAggregateSubplan);
                 return new WindowPOperator(winOp.getPartitionVarList(), winOp.getOrderColumnList(),
-                        frameStartIsMonotonic, frameEndIsMonotonic, nestedTrivialAggregates);
+                        frameStartIsMonotonic, frameEndIsMonotonic, nestedTrivialAggregates,
+                        nestedInvertibleAggregates);
             } else if (AnalysisUtil.hasFunctionWithProperty(winOp,
                     BuiltinFunctions.WindowFunctionProperty.MATERIALIZE_PARTITION)) {
                 return new WindowPOperator(winOp.getPartitionVarList(), winOp.getOrderColumnList(), false, false,
-                        false);
+                        false, false);
             } else {
                 return new WindowStreamPOperator(winOp.getPartitionVarList(), winOp.getOrderColumnList());
             }
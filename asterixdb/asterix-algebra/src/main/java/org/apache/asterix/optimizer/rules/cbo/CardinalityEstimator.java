@@ -0,0 +1,306 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules.cbo;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.asterix.common.config.DatasetConfig.IndexType;
+import org.apache.asterix.metadata.declared.DataSource;
+import org.apache.asterix.metadata.declared.DatasetDataSource;
+import org.apache.asterix.metadata.declared.MetadataProvider;
+import org.apache.asterix.metadata.entities.Dataset;
+import org.apache.asterix.metadata.entities.DatasetStatistics;
+import org.apache.asterix.metadata.entities.Index;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.om.utils.ConstantExpressionUtil;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.AlgebricksBuiltinFunctions;
+import org.apache.hyracks.algebricks.core.algebra.functions.AlgebricksBuiltinFunctions.ComparisonKind;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.core.algebra.metadata.IDataSource;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AssignOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.DataSourceScanOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.SelectOperator;
+import org.apache.hyracks.algebricks.core.algebra.util.OperatorPropertiesUtil;
+
+/**
+ * Estimates the number of tuples produced by the inputs of a join graph and the selectivity of predicates.
+ * The number of records and the number of distinct values of index keys come from the statistics the disk components
+ * of the indexes keep (see {@link DatasetStatistics}). A field that is not the first key of an index, a dataset
+ * without statistics and predicates that the estimator does not understand fall back to fixed defaults, so the
+ * estimates are deterministic even when no statistics are available.
+ */
+public class CardinalityEstimator {
+
+    static final double DEFAULT_CARDINALITY = 1_000_000d;
+    static final double DEFAULT_EQ_SELECTIVITY = 0.1d;
+    static final double DEFAULT_RANGE_SELECTIVITY = 1d / 3;
+    static final double DEFAULT_UNKNOWN_SELECTIVITY = 0.05d;
+    static final double DEFAULT_SELECTIVITY = 0.5d;
+    static final double GROUP_BY_REDUCTION = 0.1d;
+    static final double UNNEST_FAN_OUT = 10d;
+
+    private final MetadataProvider metadataProvider;
+    private final Map<Dataset, DatasetStatistics> statistics = new HashMap<>();
+    // the key fields of indexes that variables are bound to
+    private final Map<LogicalVariable, Column> columns = new HashMap<>();
+    // the record variables of dataset scans
+    private final Map<LogicalVariable, DatasetDataSource> records = new HashMap<>();
+
+    public CardinalityEstimator(MetadataProvider metadataProvider) {
+        this.metadataProvider = metadataProvider;
+    }
+
+    /**
+     * @return the estimated number of tuples produced by the given operator, at least 1
+     */
+    public double getCardinality(ILogicalOperator op) throws AlgebricksException {
+        switch (op.getOperatorTag()) {
+            case EMPTYTUPLESOURCE:
+            case NESTEDTUPLESOURCE:
+            case AGGREGATE:
+            case RUNNINGAGGREGATE:
+                return op.getInputs().isEmpty() ? 1 : Math.max(1, getInputCardinality(op, 0));
+            case DATASOURCESCAN:
+                return getScanCardinality((DataSourceScanOperator) op);
+            case SELECT:
+                double inputCardinality = getInputCardinality(op, 0);
+                return Math.max(1, inputCardinality * getSelectivity(((SelectOperator) op).getCondition().getValue()));
+            case ASSIGN:
+                inputCardinality = getInputCardinality(op, 0);
+                addColumns((AssignOperator) op);
+                return inputCardinality;
+            case GROUP:
+            case DISTINCT:
+                return Math.max(1, getInputCardinality(op, 0) * GROUP_BY_REDUCTION);
+            case UNNEST:
+                return getInputCardinality(op, 0) * UNNEST_FAN_OUT;
+            case INNERJOIN:
+                return Math.max(getInputCardinality(op, 0), getInputCardinality(op, 1));
+            case UNIONALL:
+                return getInputCardinality(op, 0) + getInputCardinality(op, 1);
+            default:
+                // left outer joins, projections, orders, limits and the like
+                return op.getInputs().isEmpty() ? 1 : getInputCardinality(op, 0);
+        }
+    }
+
+    private double getInputCardinality(ILogicalOperator op, int input) throws AlgebricksException {
+        return getCardinality(op.getInputs().get(input).getValue());
+    }
+
+    private double getScanCardinality(DataSourceScanOperator scan) throws AlgebricksException {
+        IDataSource<?> dataSource = scan.getDataSource();
+        if (!(dataSource instanceof DatasetDataSource)
+                || ((DataSource) dataSource).getDatasourceType() != DataSource.Type.INTERNAL_DATASET) {
+            return DEFAULT_CARDINALITY;
+        }
+        DatasetDataSource datasetDataSource = (DatasetDataSource) dataSource;
+        Dataset dataset = datasetDataSource.getDataset();
+        DatasetStatistics datasetStatistics = getStatistics(dataset);
+        List<LogicalVariable> variables = scan.getVariables();
+        int numPrimaryKeys = dataset.getPrimaryKeys().size();
+        for (int i = 0; i < numPrimaryKeys; i++) {
+            columns.put(variables.get(i), new Column(datasetStatistics, dataset.getDatasetName(), i));
+        }
+        records.put(variables.get(numPrimaryKeys), datasetDataSource);
+        long cardinality = datasetStatistics == null ? DatasetStatistics.UNKNOWN : datasetStatistics.getCardinality();
+        return cardinality == DatasetStatistics.UNKNOWN ? DEFAULT_CARDINALITY : Math.max(1, cardinality);
+    }
+
+    private DatasetStatistics getStatistics(Dataset dataset) throws AlgebricksException {
+        if (!statistics.containsKey(dataset)) {
+            statistics.put(dataset, metadataProvider.getDatasetStatistics(dataset));
+        }
+        return statistics.get(dataset);
+    }
+
+    private void addColumns(AssignOperator assign) throws AlgebricksException {
+        List<LogicalVariable> variables = assign.getVariables();
+        List<Mutable<ILogicalExpression>> expressions = assign.getExpressions();
+        for (int i = 0; i < variables.size(); i++) {
+            Column column = getColumn(expressions.get(i).getValue());
+            if (column != null) {
+                columns.put(variables.get(i), column);
+            }
+        }
+    }
+
+    private Column getColumn(ILogicalExpression expr) throws AlgebricksException {
+        if (expr.getExpressionTag() == LogicalExpressionTag.VARIABLE) {
+            return columns.get(((VariableReferenceExpression) expr).getVariableReference());
+        }
+        if (expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return null;
+        }
+        AbstractFunctionCallExpression f = (AbstractFunctionCallExpression) expr;
+        FunctionIdentifier fid = f.getFunctionIdentifier();
+        if (!fid.equals(BuiltinFunctions.FIELD_ACCESS_BY_NAME) && !fid.equals(BuiltinFunctions.FIELD_ACCESS_BY_INDEX)) {
+            return null;
+        }
+        ILogicalExpression recordExpr = f.getArguments().get(0).getValue();
+        if (recordExpr.getExpressionTag() != LogicalExpressionTag.VARIABLE) {
+            return null;
+        }
+        DatasetDataSource dataSource = records.get(((VariableReferenceExpression) recordExpr).getVariableReference());
+        if (dataSource == null) {
+            return null;
+        }
+        String fieldName;
+        if (fid.equals(BuiltinFunctions.FIELD_ACCESS_BY_NAME)) {
+            fieldName = ConstantExpressionUtil.getStringArgument(f, 1);
+        } else {
+            Integer fieldIndex = ConstantExpressionUtil.getIntArgument(f, 1);
+            IAType itemType = dataSource.getItemType();
+            if (fieldIndex == null || !(itemType instanceof ARecordType)
+                    || fieldIndex >= ((ARecordType) itemType).getFieldNames().length) {
+                return null;
+            }
+            fieldName = ((ARecordType) itemType).getFieldNames()[fieldIndex];
+        }
+        return fieldName == null ? null : findColumn(dataSource.getDataset(), fieldName);
+    }
+
+    /**
+     * @return the index whose first key is the given top level field of a dataset or null if there is none
+     */
+    private Column findColumn(Dataset dataset, String fieldName) throws AlgebricksException {
+        DatasetStatistics datasetStatistics = getStatistics(dataset);
+        List<List<String>> primaryKeys = dataset.getPrimaryKeys();
+        for (int i = 0; i < primaryKeys.size(); i++) {
+            if (isField(primaryKeys.get(i), fieldName)) {
+                return new Column(datasetStatistics, dataset.getDatasetName(), i);
+            }
+        }
+        for (Index index : metadataProvider.getDatasetIndexes(dataset.getDataverseName(),
+                dataset.getDatasetName())) {
+            if (!index.isPrimaryIndex() && index.getIndexType() == IndexType.BTREE
+                    && !index.getKeyFieldNames().isEmpty() && isField(index.getKeyFieldNames().get(0), fieldName)) {
+                return new Column(datasetStatistics, index.getIndexName(), 0);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isField(List<String> fieldPath, String fieldName) {
+        return fieldPath.size() == 1 && fieldPath.get(0).equals(fieldName);
+    }
+
+    /**
+     * @return the estimated number of distinct values of a variable or {@link DatasetStatistics#UNKNOWN}
+     */
+    public long getDistinctCount(LogicalVariable var) {
+        Column column = columns.get(var);
+        if (column == null || column.statistics == null) {
+            return DatasetStatistics.UNKNOWN;
+        }
+        long distinctCount = column.statistics.getDistinctCount(column.indexName, column.field);
+        return distinctCount == DatasetStatistics.UNKNOWN ? distinctCount : Math.max(1, distinctCount);
+    }
+
+    /**
+     * @return the name of the index that can be searched with the values of a variable or null if there is none.
+     *         Only variables bound to the first key of an index qualify.
+     */
+    public String getIndexName(LogicalVariable var) {
+        Column column = columns.get(var);
+        return column == null || column.field != 0 ? null : column.indexName;
+    }
+
+    /**
+     * @return the estimated fraction of the tuples that satisfy a predicate
+     */
+    public double getSelectivity(ILogicalExpression expr) {
+        if (expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return OperatorPropertiesUtil.isAlwaysTrueCond(expr) ? 1d : DEFAULT_SELECTIVITY;
+        }
+        AbstractFunctionCallExpression f = (AbstractFunctionCallExpression) expr;
+        FunctionIdentifier fid = f.getFunctionIdentifier();
+        List<Mutable<ILogicalExpression>> args = f.getArguments();
+        if (fid.equals(AlgebricksBuiltinFunctions.AND)) {
+            double selectivity = 1d;
+            for (Mutable<ILogicalExpression> arg : args) {
+                selectivity *= getSelectivity(arg.getValue());
+            }
+            return selectivity;
+        } else if (fid.equals(AlgebricksBuiltinFunctions.OR)) {
+            double selectivity = 0d;
+            for (Mutable<ILogicalExpression> arg : args) {
+                selectivity += getSelectivity(arg.getValue());
+            }
+            return Math.min(1d, selectivity);
+        } else if (fid.equals(AlgebricksBuiltinFunctions.NOT)) {
+            return 1d - getSelectivity(args.get(0).getValue());
+        } else if (fid.equals(BuiltinFunctions.IS_UNKNOWN) || fid.equals(BuiltinFunctions.IS_NULL)
+                || fid.equals(BuiltinFunctions.IS_MISSING)) {
+            return DEFAULT_UNKNOWN_SELECTIVITY;
+        }
+        ComparisonKind kind = AlgebricksBuiltinFunctions.getComparisonType(fid);
+        if (kind == null) {
+            return DEFAULT_SELECTIVITY;
+        }
+        switch (kind) {
+            case EQ:
+                return getEqualitySelectivity(args.get(0).getValue(), args.get(1).getValue());
+            case NEQ:
+                return 1d - getEqualitySelectivity(args.get(0).getValue(), args.get(1).getValue());
+            default:
+                return DEFAULT_RANGE_SELECTIVITY;
+        }
+    }
+
+    /**
+     * The selectivity of an equality is 1 / the number of distinct values of its variables. A join of two variables
+     * uses the larger of their numbers of distinct values, assuming that the values of one side are contained in the
+     * other.
+     */
+    private double getEqualitySelectivity(ILogicalExpression arg1, ILogicalExpression arg2) {
+        long distinctCount = Math.max(getDistinctCount(arg1), getDistinctCount(arg2));
+        return distinctCount == DatasetStatistics.UNKNOWN ? DEFAULT_EQ_SELECTIVITY : 1d / distinctCount;
+    }
+
+    private long getDistinctCount(ILogicalExpression expr) {
+        return expr.getExpressionTag() == LogicalExpressionTag.VARIABLE
+                ? getDistinctCount(((VariableReferenceExpression) expr).getVariableReference())
+                : DatasetStatistics.UNKNOWN;
+    }
+
+    private static final class Column {
+        private final DatasetStatistics statistics;
+        private final String indexName;
+        private final int field;
+
+        private Column(DatasetStatistics statistics, String indexName, int field) {
+            this.statistics = statistics;
+            this.indexName = indexName;
+            this.field = field;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules.cbo;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.asterix.lang.common.util.FunctionUtil;
+import org.apache.asterix.metadata.declared.DataSource;
+import org.apache.asterix.metadata.declared.DatasetDataSource;
+import org.apache.asterix.metadata.declared.MetadataProvider;
+import org.apache.asterix.optimizer.rules.cbo.JoinEnumerator.JoinMethod;
+import org.apache.asterix.optimizer.rules.cbo.JoinEnumerator.JoinPlan;
+import org.apache.asterix.optimizer.rules.cbo.JoinEnumerator.JoinPredicate;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.BroadcastExpressionAnnotation;
+import org.apache.hyracks.algebricks.core.algebra.expressions.BroadcastExpressionAnnotation.BroadcastSide;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ConstantExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.IExpressionAnnotation;
+import org.apache.hyracks.algebricks.core.algebra.expressions.IndexedNLJoinExpressionAnnotation;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ScalarFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.AlgebricksBuiltinFunctions;
+import org.apache.hyracks.algebricks.core.algebra.functions.AlgebricksBuiltinFunctions.ComparisonKind;
+import org.apache.hyracks.algebricks.core.algebra.metadata.IDataSource;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.DataSourceScanOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.InnerJoinOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.visitors.VariableUtilities;
+import org.apache.hyracks.algebricks.core.algebra.util.OperatorPropertiesUtil;
+import org.apache.hyracks.algebricks.core.rewriter.base.IAlgebraicRewriteRule;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+
+/**
+ * Reorders a tree of inner joins and chooses the algorithm of each join based on estimated costs when the
+ * {@code compiler.cbo} option is enabled.
+ *
+ * The rule takes the largest tree of inner joins that are directly connected to each other and considers the
+ * operators below it as the inputs of a join graph whose edges are the conjuncts of the join conditions. The
+ * cardinalities of the inputs and the selectivities of the conjuncts are estimated by a {@link CardinalityEstimator}
+ * and the cheapest plan is found by a {@link JoinEnumerator}. The join tree is then rebuilt with each conjunct at the
+ * lowest join that has all of its variables. The smaller (build) input of a hash join is put on the right and the
+ * chosen algorithm is passed on to the later rules as hints: broadcast joins get a
+ * {@link BroadcastExpressionAnnotation} and index nested loop joins an {@link IndexedNLJoinExpressionAnnotation} on
+ * their equi-join conjunct.
+ *
+ * Join trees that already carry such hints are left as they are, so hand-tuned queries keep their plans.
+ */
+public class JoinEnumerationRule implements IAlgebraicRewriteRule {
+
+    @Override
+    public boolean rewritePre(Mutable<ILogicalOperator> opRef, IOptimizationContext context)
+            throws AlgebricksException {
+        ILogicalOperator op = opRef.getValue();
+        if (!context.getPhysicalOptimizationConfig().isCBO() || op.getOperatorTag() != LogicalOperatorTag.INNERJOIN
+                || context.checkIfInDontApplySet(this, op)) {
+            return false;
+        }
+        List<InnerJoinOperator> joins = new ArrayList<>();
+        List<ILogicalOperator> inputs = new ArrayList<>();
+        collectJoinTree(op, joins, inputs);
+        for (InnerJoinOperator join : joins) {
+            context.addToDontApplySet(this, join);
+        }
+        if (inputs.size() > Long.SIZE - 1) {
+            return false;
+        }
+        List<Mutable<ILogicalExpression>> conjuncts = new ArrayList<>();
+        for (InnerJoinOperator join : joins) {
+            ILogicalExpression condition = join.getCondition().getValue();
+            if (!condition.splitIntoConjuncts(conjuncts)) {
+                if (!OperatorPropertiesUtil.isAlwaysTrueCond(condition)) {
+                    conjuncts.add(new MutableObject<>(condition));
+                }
+            }
+        }
+        if (hasJoinHints(conjuncts)) {
+            return false;
+        }
+        List<Set<LogicalVariable>> inputVars = new ArrayList<>(inputs.size());
+        for (ILogicalOperator input : inputs) {
+            Set<LogicalVariable> liveVars = new HashSet<>();
+            VariableUtilities.getLiveVariables(input, liveVars);
+            inputVars.add(liveVars);
+        }
+
+        MetadataProvider metadataProvider = (MetadataProvider) context.getMetadataProvider();
+        CardinalityEstimator estimator = new CardinalityEstimator(metadataProvider);
+        double[] cardinalities = new double[inputs.size()];
+        for (int i = 0; i < cardinalities.length; i++) {
+            cardinalities[i] = estimator.getCardinality(inputs.get(i));
+        }
+        List<JoinPredicate> predicates = new ArrayList<>(conjuncts.size());
+        for (Mutable<ILogicalExpression> conjunct : conjuncts) {
+            JoinPredicate predicate = createPredicate(conjunct, inputs, inputVars, estimator);
+            if (predicate == null) {
+                // the conjunct uses variables of an outer scope
+                return false;
+            }
+            predicates.add(predicate);
+        }
+        int numPartitions = metadataProvider.getClusterLocations().getLocations().length;
+        JoinPlan plan = new JoinEnumerator(cardinalities, predicates, numPartitions).enumerate();
+        ILogicalOperator newOp = buildPlan(plan, inputs, predicates, new boolean[predicates.size()],
+                op.getSourceLocation(), context);
+        opRef.setValue(newOp);
+        return true;
+    }
+
+    private static void collectJoinTree(ILogicalOperator op, List<InnerJoinOperator> joins,
+            List<ILogicalOperator> inputs) {
+        if (op.getOperatorTag() != LogicalOperatorTag.INNERJOIN) {
+            inputs.add(op);
+            return;
+        }
+        joins.add((InnerJoinOperator) op);
+        for (Mutable<ILogicalOperator> inputRef : op.getInputs()) {
+            collectJoinTree(inputRef.getValue(), joins, inputs);
+        }
+    }
+
+    private static boolean hasJoinHints(List<Mutable<ILogicalExpression>> conjuncts) {
+        for (Mutable<ILogicalExpression> conjunct : conjuncts) {
+            ILogicalExpression expr = conjunct.getValue();
+            if (expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+                continue;
+            }
+            for (IExpressionAnnotation annotation : ((AbstractFunctionCallExpression) expr).getAnnotations()
+                    .values()) {
+                if (annotation instanceof BroadcastExpressionAnnotation
+                        || annotation instanceof IndexedNLJoinExpressionAnnotation) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static JoinPredicate createPredicate(Mutable<ILogicalExpression> conjunct, List<ILogicalOperator> inputs,
+            List<Set<LogicalVariable>> inputVars, CardinalityEstimator estimator) {
+        ILogicalExpression expr = conjunct.getValue();
+        List<LogicalVariable> usedVars = new ArrayList<>();
+        expr.getUsedVariables(usedVars);
+        long predicateInputs = 0;
+        for (LogicalVariable var : usedVars) {
+            int input = findInput(var, inputVars);
+            if (input < 0) {
+                return null;
+            }
+            predicateInputs |= 1L << input;
+        }
+        double selectivity = estimator.getSelectivity(expr);
+        if (expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL || Long.bitCount(predicateInputs) != 2) {
+            return new JoinPredicate(conjunct, predicateInputs, selectivity);
+        }
+        AbstractFunctionCallExpression f = (AbstractFunctionCallExpression) expr;
+        if (AlgebricksBuiltinFunctions.getComparisonType(f.getFunctionIdentifier()) != ComparisonKind.EQ) {
+            return new JoinPredicate(conjunct, predicateInputs, selectivity);
+        }
+        int[] equiJoinInputs = new int[2];
+        String[] indexNames = new String[2];
+        for (int i = 0; i < 2; i++) {
+            ILogicalExpression arg = f.getArguments().get(i).getValue();
+            if (arg.getExpressionTag() != LogicalExpressionTag.VARIABLE) {
+                return new JoinPredicate(conjunct, predicateInputs, selectivity);
+            }
+            LogicalVariable var = ((VariableReferenceExpression) arg).getVariableReference();
+            equiJoinInputs[i] = findInput(var, inputVars);
+            indexNames[i] = isIndexSearchable(inputs.get(equiJoinInputs[i])) ? estimator.getIndexName(var) : null;
+        }
+        return new JoinPredicate(conjunct, predicateInputs, selectivity, equiJoinInputs, indexNames);
+    }
+
+    private static int findInput(LogicalVariable var, List<Set<LogicalVariable>> inputVars) {
+        for (int i = 0; i < inputVars.size(); i++) {
+            if (inputVars.get(i).contains(var)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return true if the input is a scan of an internal dataset, possibly followed by selections and assignments,
+     *         which the access method rules can turn into an index search
+     */
+    private static boolean isIndexSearchable(ILogicalOperator input) {
+        ILogicalOperator op = input;
+        while (op.getOperatorTag() == LogicalOperatorTag.SELECT || op.getOperatorTag() == LogicalOperatorTag.ASSIGN) {
+            op = op.getInputs().get(0).getValue();
+        }
+        if (op.getOperatorTag() != LogicalOperatorTag.DATASOURCESCAN
+                || op.getInputs().get(0).getValue().getOperatorTag() != LogicalOperatorTag.EMPTYTUPLESOURCE) {
+            return false;
+        }
+        IDataSource<?> dataSource = ((DataSourceScanOperator) op).getDataSource();
+        return dataSource instanceof DatasetDataSource
+                && ((DataSource) dataSource).getDatasourceType() == DataSource.Type.INTERNAL_DATASET;
+    }
+
+    private ILogicalOperator buildPlan(JoinPlan plan, List<ILogicalOperator> inputs, List<JoinPredicate> predicates,
+            boolean[] applied, SourceLocation sourceLoc, IOptimizationContext context) throws AlgebricksException {
+        if (plan.getInput() >= 0) {
+            return inputs.get(plan.getInput());
+        }
+        ILogicalOperator left = buildPlan(plan.getLeft(), inputs, predicates, applied, sourceLoc, context);
+        ILogicalOperator right = buildPlan(plan.getRight(), inputs, predicates, applied, sourceLoc, context);
+        List<Mutable<ILogicalExpression>> conjuncts = new ArrayList<>();
+        for (int i = 0; i < predicates.size(); i++) {
+            JoinPredicate predicate = predicates.get(i);
+            if (applied[i] || (predicate.getInputs() & ~plan.getInputs()) != 0) {
+                continue;
+            }
+            applied[i] = true;
+            ILogicalExpression expr = predicate.getExpressionRef().getValue();
+            if (plan.getMethod() == JoinMethod.BROADCAST && predicate.isEquiJoin()) {
+                BroadcastExpressionAnnotation broadcast = new BroadcastExpressionAnnotation();
+                broadcast.setObject(BroadcastSide.RIGHT);
+                ((AbstractFunctionCallExpression) expr).getAnnotations().put(broadcast, broadcast);
+            } else if (plan.getMethod() == JoinMethod.INDEX_NESTED_LOOP && predicate == plan.getIndexPredicate()) {
+                ((AbstractFunctionCallExpression) expr).getAnnotations().put(IndexedNLJoinExpressionAnnotation.INSTANCE,
+                        IndexedNLJoinExpressionAnnotation.INSTANCE);
+            }
+            conjuncts.add(new MutableObject<>(expr));
+        }
+        ILogicalExpression condition;
+        if (conjuncts.size() > 1) {
+            ScalarFunctionCallExpression andExpr = new ScalarFunctionCallExpression(
+                    FunctionUtil.getFunctionInfo(AlgebricksBuiltinFunctions.AND), conjuncts);
+            andExpr.setSourceLocation(sourceLoc);
+            condition = andExpr;
+        } else {
+            condition = conjuncts.isEmpty() ? ConstantExpression.TRUE : conjuncts.get(0).getValue();
+        }
+        InnerJoinOperator join = new InnerJoinOperator(new MutableObject<>(condition), new MutableObject<>(left),
+                new MutableObject<>(right));
+        join.setSourceLocation(sourceLoc);
+        context.computeAndSetTypeEnvironmentForOperator(join);
+        context.addToDontApplySet(this, join);
+        return join;
+    }
+
+    @Override
+    public boolean rewritePost(Mutable<ILogicalOperator> opRef, IOptimizationContext context) {
+        return false;
+    }
+}
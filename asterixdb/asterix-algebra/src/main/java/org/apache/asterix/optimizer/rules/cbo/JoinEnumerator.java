@@ -0,0 +1,335 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules.cbo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+
+/**
+ * Finds the cheapest order and the physical algorithm of a graph of inner joins. Graphs of up to
+ * {@link #MAX_DP_INPUTS} inputs are enumerated exhaustively (dynamic programming over the subsets of the inputs,
+ * bushy trees included), larger graphs are ordered greedily by repeatedly joining the pair of plans that is cheapest
+ * to join. Cartesian products are only considered when the inputs are not connected by the predicates.
+ *
+ * The cost of a plan is the number of tuples its operators process, where moving a tuple over the network and
+ * inserting a tuple into a hash table are more expensive than scanning or probing. The right input of a join is the
+ * build side of a hash join, the broadcast side of a broadcast join and the indexed side of an index nested loop join.
+ */
+public class JoinEnumerator {
+
+    static final int MAX_DP_INPUTS = 10;
+    static final double NETWORK_COST = 2d;
+    static final double BUILD_COST = 1.5d;
+    static final double PROBE_COST = 1d;
+    static final double INDEX_LOOKUP_COST = 4d;
+
+    public enum JoinMethod {
+        HASH,
+        BROADCAST,
+        INDEX_NESTED_LOOP,
+        NESTED_LOOP
+    }
+
+    private final double[] inputCardinalities;
+    private final List<JoinPredicate> predicates;
+    private final int numPartitions;
+
+    /**
+     * @param inputCardinalities the estimated cardinality of each input
+     * @param predicates the conjuncts of the join conditions
+     * @param numPartitions the number of partitions a broadcast input is sent to
+     */
+    public JoinEnumerator(double[] inputCardinalities, List<JoinPredicate> predicates, int numPartitions) {
+        this.inputCardinalities = inputCardinalities;
+        this.predicates = predicates;
+        this.numPartitions = Math.max(1, numPartitions);
+    }
+
+    public JoinPlan enumerate() {
+        int n = inputCardinalities.length;
+        if (n <= MAX_DP_INPUTS) {
+            JoinPlan plan = enumerateExhaustively(n, false);
+            // the graph is not connected, products are unavoidable
+            return plan != null ? plan : enumerateExhaustively(n, true);
+        }
+        return enumerateGreedily(n);
+    }
+
+    private JoinPlan enumerateExhaustively(int n, boolean allowProducts) {
+        JoinPlan[] plans = new JoinPlan[1 << n];
+        for (int i = 0; i < n; i++) {
+            plans[1 << i] = createInputPlan(i);
+        }
+        for (int set = 1; set < plans.length; set++) {
+            if (Integer.bitCount(set) < 2) {
+                continue;
+            }
+            double cardinality = getCardinality(set);
+            for (int left = (set - 1) & set; left > 0; left = (left - 1) & set) {
+                int right = set ^ left;
+                if (plans[left] == null || plans[right] == null || (!allowProducts && !isConnected(left, right))) {
+                    continue;
+                }
+                JoinPlan plan = createJoinPlan(plans[left], plans[right], cardinality);
+                if (plans[set] == null || plan.cost < plans[set].cost) {
+                    plans[set] = plan;
+                }
+            }
+        }
+        return plans[plans.length - 1];
+    }
+
+    private JoinPlan enumerateGreedily(int n) {
+        List<JoinPlan> plans = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            plans.add(createInputPlan(i));
+        }
+        while (plans.size() > 1) {
+            JoinPlan best = null;
+            for (boolean allowProducts : new boolean[] { false, true }) {
+                for (JoinPlan left : plans) {
+                    for (JoinPlan right : plans) {
+                        if (left == right || (!allowProducts && !isConnected(left.inputs, right.inputs))) {
+                            continue;
+                        }
+                        JoinPlan plan = createJoinPlan(left, right, getCardinality(left.inputs | right.inputs));
+                        if (best == null || plan.cost < best.cost) {
+                            best = plan;
+                        }
+                    }
+                }
+                if (best != null) {
+                    break;
+                }
+            }
+            plans.remove(best.left);
+            plans.remove(best.right);
+            plans.add(best);
+        }
+        return plans.get(0);
+    }
+
+    private JoinPlan createInputPlan(int input) {
+        double cardinality = inputCardinalities[input];
+        return new JoinPlan(1L << input, input, null, null, null, null, cardinality, cardinality);
+    }
+
+    private JoinPlan createJoinPlan(JoinPlan left, JoinPlan right, double cardinality) {
+        double l = left.cardinality;
+        double r = right.cardinality;
+        JoinPlan best;
+        if (hasEquiPredicate(left.inputs, right.inputs)) {
+            double hashCost = NETWORK_COST * (l + r) + BUILD_COST * r + PROBE_COST * l;
+            double broadcastCost = (NETWORK_COST + BUILD_COST) * r * numPartitions + PROBE_COST * l;
+            best = broadcastCost < hashCost
+                    ? new JoinPlan(left, right, JoinMethod.BROADCAST, null, cardinality, left.cost + right.cost
+                            + broadcastCost)
+                    : new JoinPlan(left, right, JoinMethod.HASH, null, cardinality, left.cost + right.cost + hashCost);
+            JoinPredicate indexPredicate = right.input < 0 ? null : findIndexPredicate(left.inputs, right.input);
+            if (indexPredicate != null) {
+                // the right input is not scanned, each left tuple is looked up in the index
+                double indexCost = (NETWORK_COST + INDEX_LOOKUP_COST) * l + PROBE_COST * cardinality;
+                if (left.cost + indexCost < best.cost) {
+                    best = new JoinPlan(left, right, JoinMethod.INDEX_NESTED_LOOP, indexPredicate, cardinality,
+                            left.cost + indexCost);
+                }
+            }
+        } else {
+            double nestedLoopCost = NETWORK_COST * r * numPartitions + PROBE_COST * l * r;
+            best = new JoinPlan(left, right, JoinMethod.NESTED_LOOP, null, cardinality,
+                    left.cost + right.cost + nestedLoopCost);
+        }
+        return best;
+    }
+
+    private JoinPredicate findIndexPredicate(long leftInputs, int rightInput) {
+        for (JoinPredicate predicate : predicates) {
+            if (!predicate.isEquiJoin()) {
+                continue;
+            }
+            for (int i = 0; i < 2; i++) {
+                if (predicate.getInput(i) == rightInput && ((1L << predicate.getInput(1 - i)) & leftInputs) != 0
+                        && predicate.getIndexName(i) != null) {
+                    return predicate;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the estimated cardinality of the join of a set of inputs, independent of the order of the joins
+     */
+    private double getCardinality(long inputs) {
+        double cardinality = 1d;
+        for (int i = 0; i < inputCardinalities.length; i++) {
+            if ((inputs & (1L << i)) != 0) {
+                cardinality *= inputCardinalities[i];
+            }
+        }
+        for (JoinPredicate predicate : predicates) {
+            if (predicate.inputs != 0 && (predicate.inputs & ~inputs) == 0) {
+                cardinality *= predicate.selectivity;
+            }
+        }
+        return Math.max(1d, cardinality);
+    }
+
+    private boolean isConnected(long left, long right) {
+        for (JoinPredicate predicate : predicates) {
+            if ((predicate.inputs & left) != 0 && (predicate.inputs & right) != 0
+                    && (predicate.inputs & ~(left | right)) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasEquiPredicate(long left, long right) {
+        for (JoinPredicate predicate : predicates) {
+            if (predicate.isEquiJoin() && (predicate.inputs & left) != 0 && (predicate.inputs & right) != 0
+                    && (predicate.inputs & ~(left | right)) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A conjunct of the join conditions of the graph.
+     */
+    public static class JoinPredicate {
+        private final Mutable<ILogicalExpression> exprRef;
+        private final long inputs;
+        private final double selectivity;
+        // for a predicate of the form $x = $y over two inputs, the inputs of $x and $y and the indexes that can be
+        // searched with the values of $x and $y
+        private final int[] equiJoinInputs;
+        private final String[] indexNames;
+
+        public JoinPredicate(Mutable<ILogicalExpression> exprRef, long inputs, double selectivity) {
+            this(exprRef, inputs, selectivity, null, null);
+        }
+
+        public JoinPredicate(Mutable<ILogicalExpression> exprRef, long inputs, double selectivity,
+                int[] equiJoinInputs, String[] indexNames) {
+            this.exprRef = exprRef;
+            this.inputs = inputs;
+            this.selectivity = selectivity;
+            this.equiJoinInputs = equiJoinInputs;
+            this.indexNames = indexNames;
+        }
+
+        public Mutable<ILogicalExpression> getExpressionRef() {
+            return exprRef;
+        }
+
+        public long getInputs() {
+            return inputs;
+        }
+
+        public boolean isEquiJoin() {
+            return equiJoinInputs != null;
+        }
+
+        public int getInput(int side) {
+            return equiJoinInputs[side];
+        }
+
+        /**
+         * @return the name of the index of the input of one side of an equi-join predicate that can be searched with
+         *         the values of the other side or null if there is none
+         */
+        public String getIndexName(int side) {
+            return indexNames[side];
+        }
+    }
+
+    /**
+     * A plan for a subset of the inputs, either a single input or a join of two plans.
+     */
+    public static class JoinPlan {
+        private final long inputs;
+        private final int input;
+        private final JoinPlan left;
+        private final JoinPlan right;
+        private final JoinMethod method;
+        private final JoinPredicate indexPredicate;
+        private final double cardinality;
+        private final double cost;
+
+        private JoinPlan(JoinPlan left, JoinPlan right, JoinMethod method, JoinPredicate indexPredicate,
+                double cardinality, double cost) {
+            this(left.inputs | right.inputs, -1, left, right, method, indexPredicate, cardinality, cost);
+        }
+
+        private JoinPlan(long inputs, int input, JoinPlan left, JoinPlan right, JoinMethod method,
+                JoinPredicate indexPredicate, double cardinality, double cost) {
+            this.inputs = inputs;
+            this.input = input;
+            this.left = left;
+            this.right = right;
+            this.method = method;
+            this.indexPredicate = indexPredicate;
+            this.cardinality = cardinality;
+            this.cost = cost;
+        }
+
+        public long getInputs() {
+            return inputs;
+        }
+
+        /**
+         * @return the input of a plan that does not join or -1
+         */
+        public int getInput() {
+            return input;
+        }
+
+        public JoinPlan getLeft() {
+            return left;
+        }
+
+        public JoinPlan getRight() {
+            return right;
+        }
+
+        public JoinMethod getMethod() {
+            return method;
+        }
+
+        /**
+         * @return the equi-join predicate whose right variable is searched in an index by an index nested loop join
+         */
+        public JoinPredicate getIndexPredicate() {
+            return indexPredicate;
+        }
+
+        public double getCardinality() {
+            return cardinality;
+        }
+
+        public double getCost() {
+            return cost;
+        }
+    }
+}
@@ -136,6 +136,9 @@ public class SessionConfig implements Serializable {
     private final boolean generateJobSpec;
     private final boolean optimize;
     private long maxWarnings;
+    // Workload management.
+    private String jobQueue;
+    private String user;
 
     // Flags.
     private final Map<String, Boolean> flags;
@@ -209,6 +212,28 @@ public class SessionConfig implements Serializable {
         this.maxWarnings = maxWarnings;
     }
 
+    /**
+     * Retrieve the name of the job queue resource pool the jobs of this session should run in, if any.
+     */
+    public String getJobQueue() {
+        return jobQueue;
+    }
+
+    public void setJobQueue(String jobQueue) {
+        this.jobQueue = jobQueue;
+    }
+
+    /**
+     * Retrieve the user that submitted the requests of this session, if known.
+     */
+    public String getUser() {
+        return user;
+    }
+
+    public void setUser(String user) {
+        this.user = user;
+    }
+
     /**
      * Retrieve the value of the "execute query" flag.
      */
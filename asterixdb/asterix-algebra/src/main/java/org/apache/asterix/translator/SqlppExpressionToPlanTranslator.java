@@ -91,6 +91,7 @@ import org.apache.asterix.om.base.IAObject;
 import org.apache.asterix.om.constants.AsterixConstantValue;
 import org.apache.asterix.om.functions.BuiltinFunctions;
 import org.apache.asterix.om.typecomputer.base.TypeCastUtils;
+import org.apache.asterix.om.types.ATypeTag;
 import org.apache.asterix.om.types.BuiltinType;
 import org.apache.asterix.om.types.IAType;
 import org.apache.commons.lang3.mutable.Mutable;
@@ -149,15 +150,23 @@ public class SqlppExpressionToPlanTranslator extends LangExpressionToPlanTransla
     public static final String REWRITE_IN_AS_OR_OPTION = "rewrite_in_as_or";
     private static final boolean REWRITE_IN_AS_OR_OPTION_DEFAULT = true;
 
+    /**
+     * When set, scalar statement parameters are not inlined as constants but are read from the job parameters at
+     * runtime, so that the job can be deployed once and started with different parameter values.
+     */
+    public static final String JOB_PARAMETERS_OPTION = "_internal_job_parameters";
+
     private Deque<Mutable<ILogicalOperator>> uncorrelatedLeftBranchStack = new ArrayDeque<>();
     private final Map<VarIdentifier, IAObject> externalVars;
     private final boolean translateInAsOr;
+    private final boolean useJobParameters;
 
     public SqlppExpressionToPlanTranslator(MetadataProvider metadataProvider, int currentVarCounter,
             Map<VarIdentifier, IAObject> externalVars) throws AlgebricksException {
         super(metadataProvider, currentVarCounter);
         this.externalVars = externalVars != null ? externalVars : Collections.emptyMap();
         translateInAsOr = metadataProvider.getBooleanProperty(REWRITE_IN_AS_OR_OPTION, REWRITE_IN_AS_OR_OPTION_DEFAULT);
+        useJobParameters = metadataProvider.getBooleanProperty(JOB_PARAMETERS_OPTION, false);
     }
 
     @Override
@@ -686,12 +695,41 @@ public class SqlppExpressionToPlanTranslator extends LangExpressionToPlanTransla
         if (SqlppVariableUtil.isExternalVariableIdentifier(varId)) {
             SourceLocation sourceLoc = varExpr.getSourceLocation();
             IAObject value = getExternalVariableValue(varId, sourceLoc);
+            if (useJobParameters && isJobParameter(value)) {
+                return translateJobParameter(varId, value.getType(), sourceLoc);
+            }
             return translateConstantValue(value, sourceLoc);
         }
 
         return super.translateVariableRef(varExpr);
     }
 
+    /**
+     * @return true if the given parameter value can be passed as a job parameter, i.e. it is a scalar value.
+     */
+    public static boolean isJobParameter(IAObject value) {
+        ATypeTag typeTag = value.getType().getTypeTag();
+        return !typeTag.isDerivedType() && typeTag != ATypeTag.NULL && typeTag != ATypeTag.MISSING;
+    }
+
+    // cast(get-job-parameter("<name>")) with the type of the parameter value the query was compiled with
+    private ILogicalExpression translateJobParameter(VarIdentifier varId, IAType valueType,
+            SourceLocation sourceLoc) {
+        ConstantExpression nameExpr =
+                new ConstantExpression(new AsterixConstantValue(new AString(varId.getValue())));
+        nameExpr.setSourceLocation(sourceLoc);
+        ScalarFunctionCallExpression paramExpr =
+                new ScalarFunctionCallExpression(FunctionUtil.getFunctionInfo(BuiltinFunctions.GET_JOB_PARAMETER));
+        paramExpr.setSourceLocation(sourceLoc);
+        paramExpr.getArguments().add(new MutableObject<>(nameExpr));
+        ScalarFunctionCallExpression castExpr =
+                new ScalarFunctionCallExpression(FunctionUtil.getFunctionInfo(BuiltinFunctions.CAST_TYPE));
+        castExpr.setSourceLocation(sourceLoc);
+        castExpr.getArguments().add(new MutableObject<>(paramExpr));
+        TypeCastUtils.setRequiredAndInputTypes(castExpr, valueType, BuiltinType.ANY);
+        return castExpr;
+    }
+
     private IAObject getExternalVariableValue(VarIdentifier varId, SourceLocation sourceLoc)
             throws CompilationException {
         IAObject value = externalVars.get(varId);
@@ -1006,19 +1044,20 @@ public class SqlppExpressionToPlanTranslator extends LangExpressionToPlanTransla
             case LIST_CONSTRUCTOR_EXPRESSION:
                 ListConstructor listExpr = (ListConstructor) inExpr;
                 for (Expression itemExpr : listExpr.getExprList()) {
-                    IAObject inValue;
+                    ILogicalExpression inValueExpr;
                     switch (itemExpr.getKind()) {
                         case LITERAL_EXPRESSION:
-                            inValue = ConstantHelper.objectFromLiteral(((LiteralExpr) itemExpr).getValue());
+                            IAObject inValue = ConstantHelper.objectFromLiteral(((LiteralExpr) itemExpr).getValue());
+                            inValueExpr = translateConstantValue(inValue, sourceLoc);
                             break;
                         case VARIABLE_EXPRESSION:
-                            inValue = getExternalVariableValue(((VariableExpr) itemExpr).getVar(), sourceLoc);
+                            inValueExpr = translateVariableRef((VariableExpr) itemExpr);
                             break;
                         default:
                             throw new CompilationException(ErrorCode.COMPILATION_ILLEGAL_STATE, sourceLoc,
                                     itemExpr.getKind());
                     }
-                    ILogicalExpression eqExpr = createEqExpr(operandVar, inValue, sourceLoc);
+                    ILogicalExpression eqExpr = createEqExpr(operandVar, inValueExpr, sourceLoc);
                     disjuncts.add(new MutableObject<>(eqExpr));
                 }
                 break;
@@ -1029,7 +1068,8 @@ public class SqlppExpressionToPlanTranslator extends LangExpressionToPlanTransla
                 inVarCursor.reset();
                 while (inVarCursor.next()) {
                     IAObject inValue = inVarCursor.get();
-                    ILogicalExpression eqExpr = createEqExpr(operandVar, inValue, sourceLoc);
+                    ILogicalExpression eqExpr =
+                            createEqExpr(operandVar, translateConstantValue(inValue, sourceLoc), sourceLoc);
                     disjuncts.add(new MutableObject<>(eqExpr));
                 }
                 break;
@@ -1054,11 +1094,10 @@ public class SqlppExpressionToPlanTranslator extends LangExpressionToPlanTransla
         return new Pair<>(assignOp, assignVar);
     }
 
-    private ILogicalExpression createEqExpr(LogicalVariable lhsVar, IAObject rhsValue, SourceLocation sourceLoc)
-            throws CompilationException {
+    private ILogicalExpression createEqExpr(LogicalVariable lhsVar, ILogicalExpression rhsExpr,
+            SourceLocation sourceLoc) {
         VariableReferenceExpression lhsExpr = new VariableReferenceExpression(lhsVar);
         lhsExpr.setSourceLocation(sourceLoc);
-        ILogicalExpression rhsExpr = translateConstantValue(rhsValue, sourceLoc);
         AbstractFunctionCallExpression opExpr =
                 createFunctionCallExpressionForBuiltinOperator(OperatorType.EQ, sourceLoc);
         opExpr.getArguments().add(new MutableObject<>(lhsExpr));
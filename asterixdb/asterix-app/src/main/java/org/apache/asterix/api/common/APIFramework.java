@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import org.apache.asterix.algebra.base.ILangExpressionToPlanTranslator;
 import org.apache.asterix.algebra.base.ILangExpressionToPlanTranslatorFactory;
@@ -42,6 +43,7 @@ import org.apache.asterix.common.exceptions.ACIDException;
 import org.apache.asterix.common.exceptions.AsterixException;
 import org.apache.asterix.common.exceptions.CompilationException;
 import org.apache.asterix.common.exceptions.ErrorCode;
+import org.apache.asterix.common.metadata.DataverseName;
 import org.apache.asterix.common.transactions.TxnId;
 import org.apache.asterix.common.utils.Job;
 import org.apache.asterix.common.utils.Job.SubmissionMode;
@@ -67,11 +69,14 @@ import org.apache.asterix.lang.common.statement.StartFeedStatement;
 import org.apache.asterix.lang.common.struct.VarIdentifier;
 import org.apache.asterix.lang.common.util.FunctionUtil;
 import org.apache.asterix.lang.sqlpp.rewrites.SqlppQueryRewriter;
+import org.apache.asterix.metadata.declared.DataSource;
 import org.apache.asterix.metadata.declared.MetadataProvider;
 import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.functions.BuiltinFunctions;
 import org.apache.asterix.optimizer.base.AsterixOptimizationContext;
 import org.apache.asterix.optimizer.base.FuzzyUtils;
 import org.apache.asterix.optimizer.rules.DisjunctivePredicateToJoinRule;
+import org.apache.asterix.optimizer.rules.am.BTreeJobGenParams;
 import org.apache.asterix.runtime.job.listener.JobEventListenerFactory;
 import org.apache.asterix.translator.CompiledStatements.ICompiledDmlStatement;
 import org.apache.asterix.translator.ExecutionPlans;
@@ -79,6 +84,8 @@ import org.apache.asterix.translator.SessionConfig;
 import org.apache.asterix.translator.SessionOutput;
 import org.apache.asterix.translator.SqlppExpressionToPlanTranslator;
 import org.apache.asterix.utils.ResourceUtils;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.commons.lang3.mutable.MutableBoolean;
 import org.apache.hyracks.algebricks.common.constraints.AlgebricksAbsolutePartitionConstraint;
 import org.apache.hyracks.algebricks.common.constraints.AlgebricksPartitionConstraint;
 import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
@@ -86,14 +93,26 @@ import org.apache.hyracks.algebricks.common.utils.Pair;
 import org.apache.hyracks.algebricks.compiler.api.HeuristicCompilerFactoryBuilder;
 import org.apache.hyracks.algebricks.compiler.api.ICompiler;
 import org.apache.hyracks.algebricks.compiler.api.ICompilerFactory;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
 import org.apache.hyracks.algebricks.core.algebra.base.ILogicalPlan;
 import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.IPhysicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.PhysicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
 import org.apache.hyracks.algebricks.core.algebra.expressions.ExpressionRuntimeProvider;
 import org.apache.hyracks.algebricks.core.algebra.expressions.IConflictingTypeResolver;
 import org.apache.hyracks.algebricks.core.algebra.expressions.IExpressionEvalSizeComputer;
 import org.apache.hyracks.algebricks.core.algebra.expressions.IExpressionTypeComputer;
 import org.apache.hyracks.algebricks.core.algebra.expressions.IMergeAggregationExpressionFactory;
 import org.apache.hyracks.algebricks.core.algebra.expressions.IMissableTypeComputer;
+import org.apache.hyracks.algebricks.core.algebra.metadata.IDataSource;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractLogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractOperatorWithNestedPlans;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractUnnestMapOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.DataSourceScanOperator;
 import org.apache.hyracks.algebricks.core.algebra.prettyprint.AlgebricksStringBuilderWriter;
 import org.apache.hyracks.algebricks.core.algebra.prettyprint.IPlanPrettyPrinter;
 import org.apache.hyracks.algebricks.core.algebra.prettyprint.PlanPrettyPrinter;
@@ -111,6 +130,7 @@ import org.apache.hyracks.api.exceptions.SourceLocation;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobSpecification;
 import org.apache.hyracks.api.job.resource.IClusterCapacity;
+import org.apache.hyracks.control.cc.scheduler.MultiQueueJobQueue;
 import org.apache.hyracks.control.common.config.OptionTypes;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -127,18 +147,34 @@ public class APIFramework {
 
     public static final String PREFIX_INTERNAL_PARAMETERS = "_internal";
 
+    /**
+     * Set by {@link #compileQuery} when the query is compiled with job parameters. It tells whether the job of the
+     * optimized plan is worth keeping deployed, i.e. whether the plan is a short index lookup or, if
+     * {@link CompilerProperties#COMPILER_PLAN_CACHE_KEY} is set, whether it only reads internal datasets.
+     */
+    public static final String CACHEABLE_PROPERTY = PREFIX_INTERNAL_PARAMETERS + "_cacheable";
+
     // A white list of supported configurable parameters.
     private static final Set<String> CONFIGURABLE_PARAMETER_NAMES =
             ImmutableSet.of(CompilerProperties.COMPILER_JOINMEMORY_KEY, CompilerProperties.COMPILER_GROUPMEMORY_KEY,
                     CompilerProperties.COMPILER_SORTMEMORY_KEY, CompilerProperties.COMPILER_WINDOWMEMORY_KEY,
                     CompilerProperties.COMPILER_TEXTSEARCHMEMORY_KEY, CompilerProperties.COMPILER_PARALLELISM_KEY,
                     CompilerProperties.COMPILER_SORT_PARALLEL_KEY, CompilerProperties.COMPILER_SORT_SAMPLES_KEY,
-                    CompilerProperties.COMPILER_INDEXONLY_KEY, FunctionUtil.IMPORT_PRIVATE_FUNCTIONS,
-                    FuzzyUtils.SIM_FUNCTION_PROP_NAME, FuzzyUtils.SIM_THRESHOLD_PROP_NAME,
-                    StartFeedStatement.WAIT_FOR_COMPLETION, FeedActivityDetails.FEED_POLICY_NAME,
-                    FeedActivityDetails.COLLECT_LOCATIONS, SqlppQueryRewriter.INLINE_WITH_OPTION,
-                    SqlppExpressionToPlanTranslator.REWRITE_IN_AS_OR_OPTION, "hash_merge", "output-record-type",
-                    DisjunctivePredicateToJoinRule.REWRITE_OR_AS_JOIN_OPTION);
+                    CompilerProperties.COMPILER_SORT_THREADS_KEY, CompilerProperties.COMPILER_DISTINCT_HASH_KEY,
+                    CompilerProperties.COMPILER_DISTINCT_DEDUP_KEY, CompilerProperties.COMPILER_JOIN_SKEW_KEY,
+                    CompilerProperties.COMPILER_HASH_OPEN_ADDRESSING_KEY,
+                    CompilerProperties.COMPILER_GROUPBY_PASSTHROUGH_FRAMES_KEY,
+                    CompilerProperties.COMPILER_GROUPBY_PASSTHROUGH_RATIO_KEY,
+                    CompilerProperties.COMPILER_WINDOW_SLIDING_KEY,
+                    CompilerProperties.COMPILER_INDEXONLY_KEY, CompilerProperties.COMPILER_CBO_KEY,
+                    CompilerProperties.COMPILER_EXPRESSION_FUSION_KEY,
+                    CompilerProperties.COMPILER_SCAN_PROJECTION_KEY, CompilerProperties.COMPILER_MEMORY_ESTIMATES_KEY,
+                    CompilerProperties.COMPILER_PLAN_CACHE_KEY,
+                    FunctionUtil.IMPORT_PRIVATE_FUNCTIONS, FuzzyUtils.SIM_FUNCTION_PROP_NAME,
+                    FuzzyUtils.SIM_THRESHOLD_PROP_NAME, StartFeedStatement.WAIT_FOR_COMPLETION,
+                    FeedActivityDetails.FEED_POLICY_NAME, FeedActivityDetails.COLLECT_LOCATIONS,
+                    SqlppQueryRewriter.INLINE_WITH_OPTION, SqlppExpressionToPlanTranslator.REWRITE_IN_AS_OR_OPTION,
+                    "hash_merge", "output-record-type", DisjunctivePredicateToJoinRule.REWRITE_OR_AS_JOIN_OPTION);
 
     private final IRewriterFactory rewriterFactory;
     private final IAstPrintVisitorFactory astPrintVisitorFactory;
@@ -265,6 +301,12 @@ public class APIFramework {
                 }
             }
         }
+        if (metadataProvider.getBooleanProperty(SqlppExpressionToPlanTranslator.JOB_PARAMETERS_OPTION, false)) {
+            boolean planCache = metadataProvider.getBooleanProperty(CompilerProperties.COMPILER_PLAN_CACHE_KEY,
+                    compilerProperties.isPlanCache());
+            boolean cacheable = planCache ? readsInternalDatasetsOnly(plan) : isShortLookup(plan);
+            metadataProvider.setProperty(CACHEABLE_PROPERTY, Boolean.toString(cacheable));
+        }
         if (isExplainOnly) {
             printPlanAsResult(metadataProvider, output, printer);
             if (!conf.is(SessionConfig.OOB_OPTIMIZED_LOGICAL_PLAN)) {
@@ -294,6 +336,7 @@ public class APIFramework {
         JobEventListenerFactory jobEventListenerFactory =
                 new JobEventListenerFactory(txnId, metadataProvider.isWriteTransaction());
         JobSpecification spec = compiler.createJob(metadataProvider.getApplicationContext(), jobEventListenerFactory);
+        setJobQueueProperties(spec, conf, metadataProvider);
 
         if (isQuery) {
             // Sets a required capacity, only for read-only queries.
@@ -312,6 +355,102 @@ public class APIFramework {
         return spec;
     }
 
+    // a short lookup reads its data only through B-Tree searches that have search keys
+    private static boolean isShortLookup(ILogicalPlan plan) {
+        MutableBoolean hasSearch = new MutableBoolean(false);
+        return allMatch(plan, op -> isShortLookup(op, hasSearch)) && hasSearch.booleanValue();
+    }
+
+    private static boolean isShortLookup(AbstractLogicalOperator op, MutableBoolean hasSearch) {
+        IPhysicalOperator physOp = op.getPhysicalOperator();
+        PhysicalOperatorTag tag = physOp != null ? physOp.getOperatorTag() : null;
+        if (tag == PhysicalOperatorTag.BTREE_SEARCH) {
+            ILogicalExpression unnestExpr = ((AbstractUnnestMapOperator) op).getExpressionRef().getValue();
+            if (unnestExpr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL
+                    || !BuiltinFunctions.INDEX_SEARCH
+                            .equals(((AbstractFunctionCallExpression) unnestExpr).getFunctionIdentifier())) {
+                return false;
+            }
+            BTreeJobGenParams jobGenParams = new BTreeJobGenParams();
+            jobGenParams.readFromFuncArgs(((AbstractFunctionCallExpression) unnestExpr).getArguments());
+            if (jobGenParams.getLowKeyVarList().isEmpty() && jobGenParams.getHighKeyVarList().isEmpty()) {
+                return false;
+            }
+            hasSearch.setTrue();
+        } else if (tag != null) {
+            switch (tag) {
+                case DATASOURCE_SCAN:
+                case EXTERNAL_LOOKUP:
+                case RTREE_SEARCH:
+                case LENGTH_PARTITIONED_INVERTED_INDEX_SEARCH:
+                case SINGLE_PARTITION_INVERTED_INDEX_SEARCH:
+                    return false;
+                default:
+                    break;
+            }
+        }
+        return true;
+    }
+
+    // the data of external datasets, feeds and function data sources can change without a metadata change
+    private static boolean readsInternalDatasetsOnly(ILogicalPlan plan) {
+        return allMatch(plan, op -> {
+            IPhysicalOperator physOp = op.getPhysicalOperator();
+            if (physOp != null && physOp.getOperatorTag() == PhysicalOperatorTag.EXTERNAL_LOOKUP) {
+                return false;
+            }
+            if (op.getOperatorTag() != LogicalOperatorTag.DATASOURCESCAN) {
+                return true;
+            }
+            IDataSource<?> dataSource = ((DataSourceScanOperator) op).getDataSource();
+            return dataSource instanceof DataSource
+                    && ((DataSource) dataSource).getDatasourceType() == DataSource.Type.INTERNAL_DATASET;
+        });
+    }
+
+    private static boolean allMatch(ILogicalPlan plan, Predicate<AbstractLogicalOperator> predicate) {
+        for (Mutable<ILogicalOperator> root : plan.getRoots()) {
+            if (!allMatch(root.getValue(), predicate)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean allMatch(ILogicalOperator op, Predicate<AbstractLogicalOperator> predicate) {
+        if (!predicate.test((AbstractLogicalOperator) op)) {
+            return false;
+        }
+        if (((AbstractLogicalOperator) op).hasNestedPlans()) {
+            for (ILogicalPlan nestedPlan : ((AbstractOperatorWithNestedPlans) op).getNestedPlans()) {
+                if (!allMatch(nestedPlan, predicate)) {
+                    return false;
+                }
+            }
+        }
+        for (Mutable<ILogicalOperator> input : op.getInputs()) {
+            if (!allMatch(input.getValue(), predicate)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void setJobQueueProperties(JobSpecification spec, SessionConfig conf,
+            MetadataProvider metadataProvider) {
+        // used by the multi-queue job queue to route the job to a resource pool
+        if (conf.getJobQueue() != null) {
+            spec.setProperty(MultiQueueJobQueue.POOL, conf.getJobQueue());
+        }
+        if (conf.getUser() != null) {
+            spec.setProperty(MultiQueueJobQueue.USER, conf.getUser());
+        }
+        DataverseName dataverseName = metadataProvider.getDefaultDataverseName();
+        if (dataverseName != null) {
+            spec.setProperty(MultiQueueJobQueue.DATAVERSE, dataverseName.getCanonicalForm());
+        }
+    }
+
     private void printPlanAsResult(MetadataProvider metadataProvider, SessionOutput output, IResponsePrinter printer)
             throws AlgebricksException {
         try {
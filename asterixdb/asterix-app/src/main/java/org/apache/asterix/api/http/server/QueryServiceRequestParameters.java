@@ -73,7 +73,9 @@ public class QueryServiceRequestParameters {
         PROFILE("profile"),
         SIGNATURE("signature"),
         MULTI_STATEMENT("multi-statement"),
-        MAX_WARNINGS("max-warnings");
+        MAX_WARNINGS("max-warnings"),
+        JOB_QUEUE("job-queue"),
+        USER("user");
 
         private final String str;
 
@@ -132,6 +134,8 @@ public class QueryServiceRequestParameters {
     private long timeout = TimeUnit.MILLISECONDS.toMillis(Long.MAX_VALUE);
     private long maxResultReads = 1L;
     private long maxWarnings = 0L;
+    private String jobQueue;
+    private String user;
 
     public String getHost() {
         return host;
@@ -321,6 +325,22 @@ public class QueryServiceRequestParameters {
         return maxWarnings;
     }
 
+    public String getJobQueue() {
+        return jobQueue;
+    }
+
+    public void setJobQueue(String jobQueue) {
+        this.jobQueue = jobQueue;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public void setUser(String user) {
+        this.user = user;
+    }
+
     public ObjectNode asJson() {
         ObjectNode object = OBJECT_MAPPER.createObjectNode();
         object.put("host", host);
@@ -344,6 +364,8 @@ public class QueryServiceRequestParameters {
         object.put("parseOnly", parseOnly);
         object.put("readOnly", readOnly);
         object.put("maxWarnings", maxWarnings);
+        object.put("jobQueue", jobQueue);
+        object.put("user", user);
         if (statementParams != null) {
             for (Map.Entry<String, JsonNode> statementParam : statementParams.entrySet()) {
                 object.set('$' + statementParam.getKey(), statementParam.getValue());
@@ -397,6 +419,8 @@ public class QueryServiceRequestParameters {
             throws HyracksDataException {
         setStatement(valGetter.apply(req, Parameter.STATEMENT.str()));
         setClientContextID(valGetter.apply(req, Parameter.CLIENT_ID.str()));
+        setJobQueue(valGetter.apply(req, Parameter.JOB_QUEUE.str()));
+        setUser(valGetter.apply(req, Parameter.USER.str()));
 
         setFormatIfExists(req, acceptHeader, Parameter.FORMAT.str(), valGetter);
         setMode(parseIfExists(req, Parameter.MODE.str(), valGetter, getMode(), ResultDelivery::fromName));
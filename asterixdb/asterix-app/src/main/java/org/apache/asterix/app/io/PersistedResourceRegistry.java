@@ -36,6 +36,7 @@ import org.apache.asterix.common.transactions.Checkpoint;
 import org.apache.asterix.dataflow.data.common.AListElementTokenFactory;
 import org.apache.asterix.dataflow.data.common.AOrderedListBinaryTokenizerFactory;
 import org.apache.asterix.dataflow.data.common.AUnorderedListBinaryTokenizerFactory;
+import org.apache.asterix.dataflow.data.nontagged.column.ARecordColumnShredderFactory;
 import org.apache.asterix.dataflow.data.nontagged.comparators.ACirclePartialBinaryComparatorFactory;
 import org.apache.asterix.dataflow.data.nontagged.comparators.ADurationPartialBinaryComparatorFactory;
 import org.apache.asterix.dataflow.data.nontagged.comparators.AGenericAscBinaryComparatorFactory;
@@ -54,6 +55,7 @@ import org.apache.asterix.dataflow.data.nontagged.valueproviders.PrimitiveValueP
 import org.apache.asterix.formats.nontagged.AnyBinaryComparatorFactory;
 import org.apache.asterix.formats.nontagged.OrderedBinaryComparatorFactory;
 import org.apache.asterix.formats.nontagged.OrderedLinearizeComparatorFactory;
+import org.apache.asterix.metadata.utils.AStatisticsValueClassifier;
 import org.apache.asterix.metadata.utils.SecondaryCorrelatedTreeIndexOperationsHelper;
 import org.apache.asterix.om.pointables.nonvisitor.AIntervalPointable;
 import org.apache.asterix.om.pointables.nonvisitor.AListPointable;
@@ -289,6 +291,12 @@ public class PersistedResourceRegistry implements IPersistedResourceRegistry {
 
         //ICompressorDecompressorFactory
         CompressionManager.registerCompressorDecompressorsFactoryClasses(registeredClasses);
+
+        //IColumnShredderFactory
+        registeredClasses.put("ARecordColumnShredderFactory", ARecordColumnShredderFactory.class);
+
+        //IStatisticsValueClassifier
+        registeredClasses.put("AStatisticsValueClassifier", AStatisticsValueClassifier.class);
     }
 
     @Override
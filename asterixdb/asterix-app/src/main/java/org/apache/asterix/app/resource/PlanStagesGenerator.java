@@ -348,6 +348,7 @@ public class PlanStagesGenerator implements ILogicalOperatorVisitor<Void, Void>
                 newStageOperator.accept(this, null);
                 break;
             case GROUP:
+            case DISTINCT:
             case ORDER:
                 visitInputs(multiStageOp);
                 break;
@@ -385,6 +386,14 @@ public class PlanStagesGenerator implements ILogicalOperatorVisitor<Void, Void>
                 // continue on the same stage
                 visitInputs(op);
                 break;
+            case DISTINCT:
+                if (isBlockingDistinct((DistinctOperator) op)) {
+                    pendingMultiStageOperators.add(op);
+                    return;
+                }
+                // continue on the same stage
+                visitInputs(op);
+                break;
             case ORDER:
                 pendingMultiStageOperators.add(op);
                 break;
@@ -416,6 +425,10 @@ public class PlanStagesGenerator implements ILogicalOperatorVisitor<Void, Void>
                 || op.getPhysicalOperator().getOperatorTag() == PhysicalOperatorTag.SORT_GROUP_BY;
     }
 
+    private boolean isBlockingDistinct(DistinctOperator op) {
+        return op.getPhysicalOperator().getOperatorTag() == PhysicalOperatorTag.EXTERNAL_DISTINCT_BY;
+    }
+
     /**
      * Checks whether the operator {@code op} is supposed to be materialized
      * due to a replicate/split operators.
@@ -260,7 +260,11 @@ public class RequiredCapacityVisitor implements ILogicalOperatorVisitor<Void, Vo
 
     @Override
     public Void visitDistinctOperator(DistinctOperator op, Void arg) throws AlgebricksException {
-        visitInternal(op, true);
+        if (op.getPhysicalOperator().getOperatorTag() == PhysicalOperatorTag.EXTERNAL_DISTINCT_BY) {
+            calculateMemoryUsageForBlockingOperators(op, groupByMemorySize);
+        } else {
+            visitInternal(op, true);
+        }
         return null;
     }
 
@@ -18,6 +18,8 @@
  */
 package org.apache.asterix.app.translator;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
@@ -37,6 +39,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ExecutorService;
 
 import org.apache.asterix.active.ActivityState;
@@ -58,7 +61,9 @@ import org.apache.asterix.app.result.fields.ErrorsPrinter;
 import org.apache.asterix.app.result.fields.ResultHandlePrinter;
 import org.apache.asterix.app.result.fields.ResultsPrinter;
 import org.apache.asterix.app.result.fields.StatusPrinter;
+import org.apache.asterix.common.api.DeployedQuery;
 import org.apache.asterix.common.api.IClientRequest;
+import org.apache.asterix.common.api.IDeployedQueryCache;
 import org.apache.asterix.common.api.IMetadataLockManager;
 import org.apache.asterix.common.api.IRequestTracker;
 import org.apache.asterix.common.api.IResponsePrinter;
@@ -81,7 +86,9 @@ import org.apache.asterix.common.exceptions.WarningUtil;
 import org.apache.asterix.common.functions.FunctionSignature;
 import org.apache.asterix.common.messaging.api.ICCMessageBroker;
 import org.apache.asterix.common.metadata.DataverseName;
+import org.apache.asterix.common.metadata.IMetadataLock;
 import org.apache.asterix.common.metadata.IMetadataLockUtil;
+import org.apache.asterix.common.transactions.TxnId;
 import org.apache.asterix.common.utils.JobUtils;
 import org.apache.asterix.common.utils.JobUtils.ProgressState;
 import org.apache.asterix.common.utils.StorageConstants;
@@ -92,6 +99,7 @@ import org.apache.asterix.external.indexing.ExternalFile;
 import org.apache.asterix.external.indexing.IndexingConstants;
 import org.apache.asterix.external.operators.FeedIntakeOperatorNodePushable;
 import org.apache.asterix.external.util.ExternalDataConstants;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
 import org.apache.asterix.formats.nontagged.TypeTraitProvider;
 import org.apache.asterix.lang.common.base.IReturningStatement;
 import org.apache.asterix.lang.common.base.IRewriterFactory;
@@ -136,6 +144,7 @@ import org.apache.asterix.lang.common.statement.WriteStatement;
 import org.apache.asterix.lang.common.struct.Identifier;
 import org.apache.asterix.lang.common.struct.VarIdentifier;
 import org.apache.asterix.lang.common.util.FunctionUtil;
+import org.apache.asterix.lang.sqlpp.util.SqlppStatementUtil;
 import org.apache.asterix.metadata.IDatasetDetails;
 import org.apache.asterix.metadata.MetadataManager;
 import org.apache.asterix.metadata.MetadataTransactionContext;
@@ -176,6 +185,7 @@ import org.apache.asterix.om.types.AUnionType;
 import org.apache.asterix.om.types.BuiltinType;
 import org.apache.asterix.om.types.IAType;
 import org.apache.asterix.om.types.TypeSignature;
+import org.apache.asterix.runtime.job.listener.JobEventListenerFactory;
 import org.apache.asterix.transaction.management.service.transaction.DatasetIdFactory;
 import org.apache.asterix.translator.AbstractLangTranslator;
 import org.apache.asterix.translator.ClientRequest;
@@ -191,6 +201,7 @@ import org.apache.asterix.translator.IStatementExecutor;
 import org.apache.asterix.translator.SchedulableClientRequest;
 import org.apache.asterix.translator.SessionConfig;
 import org.apache.asterix.translator.SessionOutput;
+import org.apache.asterix.translator.SqlppExpressionToPlanTranslator;
 import org.apache.asterix.translator.TypeTranslator;
 import org.apache.asterix.translator.util.ValidateUtil;
 import org.apache.asterix.utils.DataverseUtil;
@@ -210,12 +221,14 @@ import org.apache.hyracks.algebricks.runtime.serializer.ResultSerializerFactoryP
 import org.apache.hyracks.algebricks.runtime.writers.PrinterBasedWriterFactory;
 import org.apache.hyracks.api.client.IClusterInfoCollector;
 import org.apache.hyracks.api.client.IHyracksClientConnection;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
 import org.apache.hyracks.api.dataflow.value.ITypeTraits;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.exceptions.SourceLocation;
 import org.apache.hyracks.api.exceptions.Warning;
 import org.apache.hyracks.api.io.FileSplit;
 import org.apache.hyracks.api.io.UnmanagedFileSplit;
+import org.apache.hyracks.api.job.DeployedJobSpecId;
 import org.apache.hyracks.api.job.JobFlag;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobSpecification;
@@ -224,6 +237,7 @@ import org.apache.hyracks.api.result.ResultSetId;
 import org.apache.hyracks.control.cc.ClusterControllerService;
 import org.apache.hyracks.control.common.controllers.CCConfig;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMMergePolicyFactory;
+import org.apache.hyracks.util.string.UTF8StringUtil;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -273,6 +287,9 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
         if (appCtx.getServiceContext().getAppConfig().getBoolean(CCConfig.Option.ENFORCE_FRAME_WRITER_PROTOCOL)) {
             this.jobFlags.add(JobFlag.ENFORCE_CONTRACT);
         }
+        if (appCtx.getCompilerProperties().isFrameCompression()) {
+            this.jobFlags.add(JobFlag.COMPRESS_FRAMES);
+        }
     }
 
     public SessionOutput getSessionOutput() {
@@ -2712,6 +2729,14 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
 
     private interface IStatementCompiler {
         JobSpecification compile() throws AlgebricksException, RemoteException, ACIDException;
+
+        default JobId startJob(IHyracksClientConnection hcc, JobSpecification jobSpec, EnumSet<JobFlag> jobFlags)
+                throws Exception {
+            return JobUtils.runJob(hcc, jobSpec, jobFlags, false);
+        }
+
+        default void failed() {
+        }
     }
 
     protected void handleQuery(MetadataProvider metadataProvider, Query query, IHyracksClientConnection hcc,
@@ -2751,10 +2776,179 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
                 throw e;
             }
         };
+        final String deployedQueryKey = getDeployedQueryKey(metadataProvider, query, requestParameters, stmtParams);
+        if (deployedQueryKey != null) {
+            final DeployedQueryCompiler deployedQueryCompiler = new DeployedQueryCompiler(deployedQueryKey,
+                    metadataProvider, hcc, compiler, stmtParams, stmtRewriter);
+            final IMetadataLocker deployedQueryLocker = new IMetadataLocker() {
+                @Override
+                public void lock() {
+                }
+
+                @Override
+                public void unlock() throws AlgebricksException {
+                    try {
+                        locker.unlock();
+                    } finally {
+                        deployedQueryCompiler.release();
+                    }
+                }
+            };
+            deliverResult(hcc, resultSet, deployedQueryCompiler, metadataProvider, deployedQueryLocker,
+                    resultDelivery, outMetadata, stats, requestParameters, true);
+            return;
+        }
         deliverResult(hcc, resultSet, compiler, metadataProvider, locker, resultDelivery, outMetadata, stats,
                 requestParameters, true);
     }
 
+    /**
+     * @return the key of the query in the deployed query cache, or null if the query should not be deployed
+     */
+    private String getDeployedQueryKey(MetadataProvider metadataProvider, Query query,
+            IRequestParameters requestParameters, Map<String, IAObject> stmtParams) {
+        IDeployedQueryCache deployedQueryCache = appCtx.getDeployedQueryCache();
+        String statement = requestParameters.getStatement();
+        // deployed jobs are started without job flags, e.g. without frame compression or runtime profiling
+        if (!deployedQueryCache.isEnabled() || statement == null || query.isExplain()
+                || !sessionConfig.isExecuteQuery() || !sessionConfig.isOptimize() || !sessionConfig.isGenerateJobSpec()
+                || !jobFlags.isEmpty() || sessionConfig.is(SessionConfig.OOB_EXPR_TREE)
+                || sessionConfig.is(SessionConfig.OOB_REWRITTEN_EXPR_TREE)
+                || sessionConfig.is(SessionConfig.OOB_LOGICAL_PLAN)
+                || sessionConfig.is(SessionConfig.OOB_OPTIMIZED_LOGICAL_PLAN)
+                || sessionConfig.is(SessionConfig.OOB_HYRACKS_JOB)) {
+            return null;
+        }
+        // the job only depends on the types of the parameters, their values are passed as job parameters
+        Map<String, ATypeTag> paramTypes = new TreeMap<>();
+        if (stmtParams != null) {
+            for (Map.Entry<String, IAObject> param : stmtParams.entrySet()) {
+                if (!SqlppExpressionToPlanTranslator.isJobParameter(param.getValue())) {
+                    return null;
+                }
+                paramTypes.put(param.getKey(), param.getValue().getType().getTypeTag());
+            }
+        }
+        // statements that only differ in their formatting share the same job
+        StringBuilder key = new StringBuilder(SqlppStatementUtil.normalize(statement));
+        key.append('\n').append(metadataProvider.getResultSetId()).append('\n')
+                .append(metadataProvider.getDefaultDataverseName()).append('\n')
+                .append(new TreeMap<>(metadataProvider.getConfig())).append('\n').append(paramTypes).append('\n')
+                .append(sessionConfig.fmt()).append('\n').append(metadataProvider.getResultAsyncMode()).append('\n')
+                .append(metadataProvider.getMaxResultReads()).append('\n').append(sessionConfig.getJobQueue())
+                .append('\n').append(sessionConfig.getUser());
+        String deployedQueryKey = key.toString();
+        return deployedQueryCache.isRejected(deployedQueryKey, MetadataManager.INSTANCE.getVersion()) ? null
+                : deployedQueryKey;
+    }
+
+    /**
+     * Runs a query with a job that is deployed on the cluster. The first execution of the query compiles it with its
+     * parameters read from the job parameters and deploys its job. If the plan is cacheable the job is cached, and
+     * later executions of the query only start the deployed job with their own parameter values as long as the
+     * metadata does not change.
+     */
+    private final class DeployedQueryCompiler implements IStatementCompiler {
+        private final String key;
+        private final MetadataProvider metadataProvider;
+        private final IHyracksClientConnection hcc;
+        private final IStatementCompiler compiler;
+        private final Map<String, IAObject> stmtParams;
+        private final IStatementRewriter stmtRewriter;
+        private DeployedQuery deployedQuery;
+
+        private DeployedQueryCompiler(String key, MetadataProvider metadataProvider, IHyracksClientConnection hcc,
+                IStatementCompiler compiler, Map<String, IAObject> stmtParams, IStatementRewriter stmtRewriter) {
+            this.key = key;
+            this.metadataProvider = metadataProvider;
+            this.hcc = hcc;
+            this.compiler = compiler;
+            this.stmtParams = stmtParams;
+            this.stmtRewriter = stmtRewriter;
+        }
+
+        @Override
+        public JobSpecification compile() throws AlgebricksException, RemoteException, ACIDException {
+            IDeployedQueryCache deployedQueryCache = appCtx.getDeployedQueryCache();
+            deployedQuery = deployedQueryCache.acquire(key, MetadataManager.INSTANCE.getVersion());
+            if (deployedQuery != null) {
+                // the locks keep DDLs from modifying the metadata the query depends on until it completes
+                for (org.apache.commons.lang3.tuple.Pair<IMetadataLock, IMetadataLock.Mode> lock : deployedQuery
+                        .getLocks()) {
+                    metadataProvider.getLocks().add(lock.getRight(), lock.getLeft());
+                }
+                if (deployedQueryCache.isValid(deployedQuery, MetadataManager.INSTANCE.getVersion())) {
+                    return deployedQuery.getJobSpecification();
+                }
+                release();
+            }
+            long startVersion = MetadataManager.INSTANCE.getVersion();
+            metadataProvider.setProperty(SqlppExpressionToPlanTranslator.JOB_PARAMETERS_OPTION,
+                    Boolean.TRUE.toString());
+            JobSpecification jobSpec = compiler.compile();
+            if (jobSpec == null) {
+                return null;
+            }
+            // a failed attempt invalidates the query instead
+            jobSpec.setMaxReattempts(0);
+            DeployedJobSpecId deployedJobSpecId;
+            try {
+                deployedJobSpecId = hcc.deployJobSpec(jobSpec);
+            } catch (Exception e) {
+                throw new CompilationException(ErrorCode.COMPILATION_ERROR, e, e.getMessage());
+            }
+            // the locks acquired during the compilation keep the metadata the query depends on from changing, but any
+            // metadata change since the compilation started means that the query may have been compiled against it
+            long metadataVersion = MetadataManager.INSTANCE.getVersion();
+            deployedQuery = new DeployedQuery(deployedJobSpecId, jobSpec, metadataProvider.getResultSetId(),
+                    metadataProvider.getLocks().getLocks(), startVersion);
+            if (metadataProvider.getBooleanProperty(APIFramework.CACHEABLE_PROPERTY, false)) {
+                deployedQueryCache.put(key, deployedQuery, metadataVersion);
+            } else {
+                // runs the job once and undeploys it, the query will be compiled as usual until the metadata changes
+                deployedQueryCache.reject(key, startVersion);
+            }
+            return jobSpec;
+        }
+
+        @Override
+        public JobId startJob(IHyracksClientConnection hcc, JobSpecification jobSpec, EnumSet<JobFlag> jobFlags)
+                throws Exception {
+            Map<byte[], byte[]> jobParameters = new HashMap<>();
+            TxnId txnId = metadataProvider.getTxnIdFactory().create();
+            jobParameters.put(JobEventListenerFactory.TRANSACTION_ID_PARAMETER_NAME,
+                    String.valueOf(txnId.getId()).getBytes());
+            if (stmtParams != null) {
+                ISerializerDeserializer<IAObject> serde =
+                        SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ANY);
+                for (Map.Entry<String, IAObject> param : stmtParams.entrySet()) {
+                    String extVarName = stmtRewriter.toExternalVariableName(param.getKey());
+                    if (extVarName != null) {
+                        ByteArrayOutputStream value = new ByteArrayOutputStream();
+                        serde.serialize(param.getValue(), new DataOutputStream(value));
+                        jobParameters.put(UTF8StringUtil.writeStringToBytes(extVarName), value.toByteArray());
+                    }
+                }
+            }
+            return hcc.startJob(deployedQuery.getDeployedJobSpecId(), jobParameters);
+        }
+
+        @Override
+        public void failed() {
+            if (deployedQuery != null) {
+                // e.g. a node was restarted and lost the deployed job, the next execution redeploys the query
+                appCtx.getDeployedQueryCache().invalidate(key, deployedQuery);
+            }
+        }
+
+        private void release() {
+            if (deployedQuery != null) {
+                appCtx.getDeployedQueryCache().release(deployedQuery);
+                deployedQuery = null;
+            }
+        }
+    }
+
     private void deliverResult(IHyracksClientConnection hcc, IResultSet resultSet, IStatementCompiler compiler,
             MetadataProvider metadataProvider, IMetadataLocker locker, ResultDelivery resultDelivery,
             ResultMetadata outMetadata, Stats stats, IRequestParameters requestParameters, boolean cancellable)
@@ -2878,7 +3072,7 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
             final SchedulableClientRequest schedulableRequest =
                     SchedulableClientRequest.of(clientRequest, requestParameters, metadataProvider, jobSpec);
             appCtx.getReceptionist().ensureSchedulable(schedulableRequest);
-            final JobId jobId = JobUtils.runJob(hcc, jobSpec, jobFlags, false);
+            final JobId jobId = compiler.startJob(hcc, jobSpec, jobFlags);
             clientRequest.setJobId(jobId);
             if (jId != null) {
                 jId.setValue(jobId);
@@ -2896,6 +3090,7 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
                 Thread.currentThread().interrupt();
                 throw new RuntimeDataException(ErrorCode.REQUEST_CANCELLED, clientRequest.getId());
             }
+            compiler.failed();
             throw e;
         } finally {
             // complete async jobs after their job completes
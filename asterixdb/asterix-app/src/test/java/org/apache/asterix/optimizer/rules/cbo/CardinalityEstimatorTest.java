@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules.cbo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.asterix.lang.common.util.FunctionUtil;
+import org.apache.asterix.metadata.entities.DatasetStatistics;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.constants.AsterixConstantValue;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ConstantExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ScalarFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.AlgebricksBuiltinFunctions;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.core.algebra.metadata.IDataSource;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AssignOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.DataSourceScanOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.DistinctOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.EmptyTupleSourceOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.GroupByOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.InnerJoinOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.SelectOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnionAllOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnnestOperator;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class CardinalityEstimatorTest {
+
+    private static final double DELTA = 1e-9;
+
+    private final CardinalityEstimator estimator = new CardinalityEstimator(null);
+    private final LogicalVariable x = new LogicalVariable(1);
+    private final LogicalVariable y = new LogicalVariable(2);
+
+    @Test
+    public void testComparisons() {
+        Assert.assertEquals(CardinalityEstimator.DEFAULT_EQ_SELECTIVITY,
+                estimator.getSelectivity(call(AlgebricksBuiltinFunctions.EQ, var(x), constant(5))), DELTA);
+        Assert.assertEquals(CardinalityEstimator.DEFAULT_EQ_SELECTIVITY,
+                estimator.getSelectivity(call(AlgebricksBuiltinFunctions.EQ, var(x), var(y))), DELTA);
+        Assert.assertEquals(1 - CardinalityEstimator.DEFAULT_EQ_SELECTIVITY,
+                estimator.getSelectivity(call(AlgebricksBuiltinFunctions.NEQ, var(x), constant(5))), DELTA);
+        for (FunctionIdentifier fid : Arrays.asList(AlgebricksBuiltinFunctions.LT, AlgebricksBuiltinFunctions.LE,
+                AlgebricksBuiltinFunctions.GT, AlgebricksBuiltinFunctions.GE)) {
+            Assert.assertEquals(CardinalityEstimator.DEFAULT_RANGE_SELECTIVITY,
+                    estimator.getSelectivity(call(fid, var(x), constant(5))), DELTA);
+        }
+    }
+
+    @Test
+    public void testBooleanOperators() {
+        ILogicalExpression eq = call(AlgebricksBuiltinFunctions.EQ, var(x), constant(5));
+        ILogicalExpression lt = call(AlgebricksBuiltinFunctions.LT, var(y), constant(5));
+        double eqSelectivity = CardinalityEstimator.DEFAULT_EQ_SELECTIVITY;
+        double ltSelectivity = CardinalityEstimator.DEFAULT_RANGE_SELECTIVITY;
+        Assert.assertEquals(eqSelectivity * ltSelectivity,
+                estimator.getSelectivity(call(AlgebricksBuiltinFunctions.AND, eq, lt)), DELTA);
+        Assert.assertEquals(eqSelectivity + ltSelectivity,
+                estimator.getSelectivity(call(AlgebricksBuiltinFunctions.OR, eq, lt)), DELTA);
+        // a disjunction cannot select more than all tuples
+        Assert.assertEquals(1, estimator.getSelectivity(call(AlgebricksBuiltinFunctions.OR, lt, lt, lt, lt)), DELTA);
+        Assert.assertEquals(1 - CardinalityEstimator.DEFAULT_EQ_SELECTIVITY,
+                estimator.getSelectivity(call(AlgebricksBuiltinFunctions.NOT, eq)), DELTA);
+    }
+
+    @Test
+    public void testOtherPredicates() {
+        for (FunctionIdentifier fid : Arrays.asList(BuiltinFunctions.IS_UNKNOWN, BuiltinFunctions.IS_NULL,
+                BuiltinFunctions.IS_MISSING)) {
+            Assert.assertEquals(CardinalityEstimator.DEFAULT_UNKNOWN_SELECTIVITY,
+                    estimator.getSelectivity(call(fid, var(x))), DELTA);
+        }
+        Assert.assertEquals(CardinalityEstimator.DEFAULT_SELECTIVITY,
+                estimator.getSelectivity(call(BuiltinFunctions.STRING_LENGTH, var(x))), DELTA);
+        Assert.assertEquals(CardinalityEstimator.DEFAULT_SELECTIVITY, estimator.getSelectivity(var(x)), DELTA);
+        Assert.assertEquals(1, estimator.getSelectivity(ConstantExpression.TRUE), DELTA);
+    }
+
+    @Test
+    public void testVariablesWithoutIndexes() {
+        Assert.assertEquals(DatasetStatistics.UNKNOWN, estimator.getDistinctCount(x));
+        Assert.assertNull(estimator.getIndexName(x));
+    }
+
+    @Test
+    public void testScan() throws AlgebricksException {
+        // only internal datasets have statistics
+        DataSourceScanOperator scan =
+                new DataSourceScanOperator(Collections.singletonList(x), Mockito.mock(IDataSource.class));
+        scan.getInputs().add(new MutableObject<>(new EmptyTupleSourceOperator()));
+        Assert.assertEquals(CardinalityEstimator.DEFAULT_CARDINALITY, estimator.getCardinality(scan), DELTA);
+    }
+
+    @Test
+    public void testOperators() throws AlgebricksException {
+        ILogicalOperator ets = new EmptyTupleSourceOperator();
+        Assert.assertEquals(1, estimator.getCardinality(ets), DELTA);
+        ILogicalOperator unnest = unnest(unnest(ets));
+        double cardinality = CardinalityEstimator.UNNEST_FAN_OUT * CardinalityEstimator.UNNEST_FAN_OUT;
+        Assert.assertEquals(cardinality, estimator.getCardinality(unnest), DELTA);
+
+        AssignOperator assign = new AssignOperator(y, new MutableObject<>(var(x)));
+        assign.getInputs().add(new MutableObject<>(unnest));
+        Assert.assertEquals(cardinality, estimator.getCardinality(assign), DELTA);
+
+        SelectOperator select =
+                new SelectOperator(new MutableObject<>(call(AlgebricksBuiltinFunctions.LT, var(x), constant(5))),
+                        false, null);
+        select.getInputs().add(new MutableObject<>(unnest));
+        Assert.assertEquals(cardinality * CardinalityEstimator.DEFAULT_RANGE_SELECTIVITY,
+                estimator.getCardinality(select), DELTA);
+        // a selection produces at least one tuple
+        select = new SelectOperator(new MutableObject<>(call(AlgebricksBuiltinFunctions.EQ, var(x), constant(5))),
+                false, null);
+        select.getInputs().add(new MutableObject<>(ets));
+        Assert.assertEquals(1, estimator.getCardinality(select), DELTA);
+
+        GroupByOperator group = new GroupByOperator();
+        group.getInputs().add(new MutableObject<>(unnest));
+        Assert.assertEquals(cardinality * CardinalityEstimator.GROUP_BY_REDUCTION, estimator.getCardinality(group),
+                DELTA);
+        DistinctOperator distinct = new DistinctOperator(Collections.singletonList(new MutableObject<>(var(x))));
+        distinct.getInputs().add(new MutableObject<>(unnest));
+        Assert.assertEquals(cardinality * CardinalityEstimator.GROUP_BY_REDUCTION,
+                estimator.getCardinality(distinct), DELTA);
+
+        UnionAllOperator union = new UnionAllOperator(new ArrayList<>());
+        union.getInputs().add(new MutableObject<>(unnest));
+        union.getInputs().add(new MutableObject<>(group));
+        Assert.assertEquals(cardinality + cardinality * CardinalityEstimator.GROUP_BY_REDUCTION,
+                estimator.getCardinality(union), DELTA);
+
+        // the cardinality of a join that is not reordered is the one of its larger input
+        InnerJoinOperator join = new InnerJoinOperator(new MutableObject<>(ConstantExpression.TRUE),
+                new MutableObject<>(group), new MutableObject<>(unnest));
+        Assert.assertEquals(cardinality, estimator.getCardinality(join), DELTA);
+    }
+
+    private ILogicalOperator unnest(ILogicalOperator input) {
+        UnnestOperator unnest = new UnnestOperator(y,
+                new MutableObject<>(call(BuiltinFunctions.SCAN_COLLECTION, var(x))));
+        unnest.getInputs().add(new MutableObject<>(input));
+        return unnest;
+    }
+
+    private static ILogicalExpression call(FunctionIdentifier fid, ILogicalExpression... args) {
+        List<Mutable<ILogicalExpression>> argRefs = new ArrayList<>(args.length);
+        for (ILogicalExpression arg : args) {
+            argRefs.add(new MutableObject<>(arg));
+        }
+        return new ScalarFunctionCallExpression(FunctionUtil.getFunctionInfo(fid), argRefs);
+    }
+
+    private static ILogicalExpression var(LogicalVariable var) {
+        return new VariableReferenceExpression(var);
+    }
+
+    private static ILogicalExpression constant(long value) {
+        return new ConstantExpression(new AsterixConstantValue(new AInt64(value)));
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules.cbo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.asterix.optimizer.rules.cbo.JoinEnumerator.JoinMethod;
+import org.apache.asterix.optimizer.rules.cbo.JoinEnumerator.JoinPlan;
+import org.apache.asterix.optimizer.rules.cbo.JoinEnumerator.JoinPredicate;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JoinEnumeratorTest {
+
+    private static final int NUM_PARTITIONS = 4;
+    private static final double DELTA = 1e-6;
+
+    @Test
+    public void testBuildOnSmallerInput() {
+        JoinPlan plan = enumerate(new double[] { 1000, 500 }, equiJoin(0, 1));
+        assertJoin(plan, JoinMethod.HASH, 0, 1);
+        Assert.assertEquals(1000 * 500 * CardinalityEstimator.DEFAULT_EQ_SELECTIVITY, plan.getCardinality(), DELTA);
+        // 1000 + 500 to scan the inputs, 2 * 1500 to partition them, 1.5 * 500 to build and 1000 to probe
+        Assert.assertEquals(6250, plan.getCost(), DELTA);
+
+        // the order of the inputs in the query does not matter
+        plan = enumerate(new double[] { 500, 1000 }, equiJoin(0, 1));
+        assertJoin(plan, JoinMethod.HASH, 1, 0);
+    }
+
+    @Test
+    public void testBroadcastSmallInput() {
+        // broadcasting the right input to 4 partitions is cheaper than partitioning both inputs when the right input
+        // has less than 2 / (3.5 * (4 - 1)) = 19% of the tuples of the left input
+        assertJoin(enumerate(new double[] { 1_000_000, 100_000 }, equiJoin(0, 1)), JoinMethod.BROADCAST, 0, 1);
+        assertJoin(enumerate(new double[] { 1_000_000, 200_000 }, equiJoin(0, 1)), JoinMethod.HASH, 0, 1);
+        // a single partition always prefers broadcasting
+        JoinPlan plan = new JoinEnumerator(new double[] { 1_000_000, 1_000_000 }, equiJoin(0, 1), 1).enumerate();
+        Assert.assertEquals(JoinMethod.BROADCAST, plan.getMethod());
+    }
+
+    @Test
+    public void testIndexNestedLoop() {
+        // each of the 10 tuples of the left input finds a single tuple in the index of the right input
+        List<JoinPredicate> predicates = Collections.singletonList(new JoinPredicate(null, 0b11, 1e-6,
+                new int[] { 0, 1 }, new String[] { null, "idx" }));
+        JoinPlan plan = enumerate(new double[] { 10, 1_000_000 }, predicates);
+        assertJoin(plan, JoinMethod.INDEX_NESTED_LOOP, 0, 1);
+        Assert.assertSame(predicates.get(0), plan.getIndexPredicate());
+        // the right input is not scanned: 10 to scan the left input, 6 * 10 to look up the index and 10 results
+        Assert.assertEquals(80, plan.getCost(), DELTA);
+
+        // without an index on the large input the index of the small input does not help
+        predicates = Collections.singletonList(new JoinPredicate(null, 0b11, 1e-6, new int[] { 0, 1 },
+                new String[] { "idx", null }));
+        plan = enumerate(new double[] { 10, 1_000_000 }, predicates);
+        assertJoin(plan, JoinMethod.BROADCAST, 1, 0);
+        Assert.assertNull(plan.getIndexPredicate());
+    }
+
+    @Test
+    public void testNestedLoop() {
+        List<JoinPredicate> predicates = Collections
+                .singletonList(new JoinPredicate(null, 0b11, CardinalityEstimator.DEFAULT_RANGE_SELECTIVITY));
+        JoinPlan plan = enumerate(new double[] { 100, 10 }, predicates);
+        assertJoin(plan, JoinMethod.NESTED_LOOP, 0, 1);
+        Assert.assertEquals(1000 * CardinalityEstimator.DEFAULT_RANGE_SELECTIVITY, plan.getCardinality(), DELTA);
+    }
+
+    @Test
+    public void testProduct() {
+        // input 2 is not connected to the other inputs, the product is taken with the smaller of them
+        JoinPlan plan = enumerate(new double[] { 100, 10, 1000 }, equiJoin(0, 1));
+        assertPlan(plan, 3);
+        assertJoin(plan.getLeft(), JoinMethod.NESTED_LOOP, 2, 1);
+        Assert.assertEquals(0, plan.getRight().getInput());
+        Assert.assertEquals(100 * 10 * 1000 * CardinalityEstimator.DEFAULT_EQ_SELECTIVITY, plan.getCardinality(),
+                DELTA);
+        Assert.assertEquals(1, countJoins(plan, JoinMethod.NESTED_LOOP));
+    }
+
+    @Test
+    public void testChain() {
+        // the small input joins the input it is connected to first
+        JoinPlan plan = enumerate(new double[] { 1_000_000, 1_000_000, 100 }, equiJoin(0, 1, 1, 2));
+        Assert.assertEquals(JoinMethod.BROADCAST, plan.getMethod());
+        assertJoin(plan.getLeft(), JoinMethod.BROADCAST, 1, 2);
+        Assert.assertEquals(0, plan.getRight().getInput());
+    }
+
+    @Test
+    public void testStar() {
+        // the dimensions are joined with the fact table from the smallest to the largest one
+        JoinPlan plan = enumerate(new double[] { 10_000, 1000, 100, 10 }, equiJoin(0, 1, 0, 2, 0, 3));
+        Assert.assertEquals(1, plan.getRight().getInput());
+        Assert.assertEquals(2, plan.getLeft().getRight().getInput());
+        assertJoin(plan.getLeft().getLeft(), JoinMethod.BROADCAST, 0, 3);
+        Assert.assertEquals(0, countJoins(plan, JoinMethod.NESTED_LOOP));
+    }
+
+    @Test
+    public void testDynamicProgrammingLimit() {
+        double[] cardinalities = new double[JoinEnumerator.MAX_DP_INPUTS];
+        for (int i = 0; i < cardinalities.length; i++) {
+            cardinalities[i] = Math.pow(10, 2 + i % 4);
+        }
+        JoinPlan plan = enumerate(cardinalities, chain(cardinalities.length));
+        assertPlan(plan, cardinalities.length);
+        Assert.assertEquals(0, countJoins(plan, JoinMethod.NESTED_LOOP));
+        Assert.assertEquals(getCardinality(cardinalities, CardinalityEstimator.DEFAULT_EQ_SELECTIVITY),
+                plan.getCardinality(), plan.getCardinality() * DELTA);
+    }
+
+    @Test
+    public void testGreedy() {
+        double[] cardinalities = new double[JoinEnumerator.MAX_DP_INPUTS + 1];
+        for (int i = 0; i < cardinalities.length; i++) {
+            cardinalities[i] = Math.pow(10, 2 + i % 4);
+        }
+        JoinPlan plan = enumerate(cardinalities, chain(cardinalities.length));
+        assertPlan(plan, cardinalities.length);
+        Assert.assertEquals(0, countJoins(plan, JoinMethod.NESTED_LOOP));
+        Assert.assertEquals(getCardinality(cardinalities, CardinalityEstimator.DEFAULT_EQ_SELECTIVITY),
+                plan.getCardinality(), plan.getCardinality() * DELTA);
+    }
+
+    @Test
+    public void testGreedyProduct() {
+        // two chains of 6 inputs that are not connected to each other
+        double[] cardinalities = new double[12];
+        Arrays.fill(cardinalities, 1000);
+        List<JoinPredicate> predicates = new ArrayList<>(chain(6));
+        for (int i = 6; i < 11; i++) {
+            predicates.add(new JoinPredicate(null, 0b11L << i, CardinalityEstimator.DEFAULT_EQ_SELECTIVITY,
+                    new int[] { i, i + 1 }, new String[2]));
+        }
+        JoinPlan plan = enumerate(cardinalities, predicates);
+        assertPlan(plan, cardinalities.length);
+        Assert.assertEquals(JoinMethod.NESTED_LOOP, plan.getMethod());
+        Assert.assertEquals(1, countJoins(plan, JoinMethod.NESTED_LOOP));
+        long leftInputs = plan.getLeft().getInputs();
+        Assert.assertTrue(leftInputs == 0b111111L || leftInputs == 0b111111L << 6);
+    }
+
+    private static JoinPlan enumerate(double[] cardinalities, List<JoinPredicate> predicates) {
+        return new JoinEnumerator(cardinalities, predicates, NUM_PARTITIONS).enumerate();
+    }
+
+    /**
+     * @return equi-join predicates between the given pairs of inputs, without indexes
+     */
+    private static List<JoinPredicate> equiJoin(int... inputs) {
+        List<JoinPredicate> predicates = new ArrayList<>();
+        for (int i = 0; i < inputs.length; i += 2) {
+            predicates.add(new JoinPredicate(null, (1L << inputs[i]) | (1L << inputs[i + 1]),
+                    CardinalityEstimator.DEFAULT_EQ_SELECTIVITY, new int[] { inputs[i], inputs[i + 1] },
+                    new String[2]));
+        }
+        return predicates;
+    }
+
+    private static List<JoinPredicate> chain(int numInputs) {
+        int[] inputs = new int[2 * (numInputs - 1)];
+        for (int i = 0; i < numInputs - 1; i++) {
+            inputs[2 * i] = i;
+            inputs[2 * i + 1] = i + 1;
+        }
+        return equiJoin(inputs);
+    }
+
+    private static double getCardinality(double[] cardinalities, double selectivity) {
+        double cardinality = 1;
+        for (double inputCardinality : cardinalities) {
+            cardinality *= inputCardinality;
+        }
+        return cardinality * Math.pow(selectivity, cardinalities.length - 1);
+    }
+
+    private static void assertJoin(JoinPlan plan, JoinMethod method, int leftInput, int rightInput) {
+        Assert.assertEquals(method, plan.getMethod());
+        Assert.assertEquals(leftInput, plan.getLeft().getInput());
+        Assert.assertEquals(rightInput, plan.getRight().getInput());
+        Assert.assertEquals((1L << leftInput) | (1L << rightInput), plan.getInputs());
+    }
+
+    /**
+     * Verifies that every input is joined exactly once.
+     */
+    private static void assertPlan(JoinPlan plan, int numInputs) {
+        Assert.assertEquals((1L << numInputs) - 1, plan.getInputs());
+        assertPlan(plan);
+    }
+
+    private static void assertPlan(JoinPlan plan) {
+        if (plan.getInput() >= 0) {
+            Assert.assertEquals(1L << plan.getInput(), plan.getInputs());
+            return;
+        }
+        Assert.assertEquals(0, plan.getLeft().getInputs() & plan.getRight().getInputs());
+        Assert.assertEquals(plan.getLeft().getInputs() | plan.getRight().getInputs(), plan.getInputs());
+        Assert.assertTrue(plan.getCost() > plan.getLeft().getCost());
+        assertPlan(plan.getLeft());
+        assertPlan(plan.getRight());
+    }
+
+    private static int countJoins(JoinPlan plan, JoinMethod method) {
+        if (plan.getInput() >= 0) {
+            return 0;
+        }
+        return (plan.getMethod() == method ? 1 : 0) + countJoins(plan.getLeft(), method)
+                + countJoins(plan.getRight(), method);
+    }
+}
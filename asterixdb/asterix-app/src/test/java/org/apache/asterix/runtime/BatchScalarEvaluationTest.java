@@ -0,0 +1,493 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.asterix.common.exceptions.WarningCollector;
+import org.apache.asterix.dataflow.data.nontagged.MissingWriterFactory;
+import org.apache.asterix.dataflow.data.nontagged.serde.AObjectSerializerDeserializer;
+import org.apache.asterix.formats.nontagged.BinaryBooleanInspector;
+import org.apache.asterix.om.base.ABoolean;
+import org.apache.asterix.om.base.ADouble;
+import org.apache.asterix.om.base.AInt32;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.AInt8;
+import org.apache.asterix.om.base.AMissing;
+import org.apache.asterix.om.base.ANull;
+import org.apache.asterix.om.base.AString;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.functions.IFunctionDescriptor;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.runtime.evaluators.comparisons.EqualsDescriptor;
+import org.apache.asterix.runtime.evaluators.comparisons.GreaterThanOrEqualsDescriptor;
+import org.apache.asterix.runtime.evaluators.comparisons.LessThanDescriptor;
+import org.apache.asterix.runtime.evaluators.comparisons.NotEqualsDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.AndDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.NumericAddDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.NumericMultiplyDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.OrDescriptor;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchScalarEvaluators;
+import org.apache.hyracks.algebricks.runtime.evaluators.ColumnAccessEvalFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.ConstantEvalFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.SelectionVector;
+import org.apache.hyracks.algebricks.runtime.evaluators.ValueVector;
+import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputOneFramePushRuntime;
+import org.apache.hyracks.algebricks.runtime.operators.std.AssignRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.operators.std.StreamSelectRuntimeFactory;
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
+import org.apache.hyracks.test.support.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the frame-at-a-time evaluation of scalar expressions gives the same values, and issues the same
+ * warnings, as the tuple-at-a-time evaluation, both for the evaluators and for the assign and select runtimes.
+ */
+public class BatchScalarEvaluationTest {
+    private static final int FRAME_SIZE = 32768;
+    private static final AObjectSerializerDeserializer SERDE = AObjectSerializerDeserializer.INSTANCE;
+    private static final RecordDescriptor INPUT_RD =
+            new RecordDescriptor(new ISerializerDeserializer[] { SERDE, SERDE });
+
+    // pairs of arguments: same types, mixed numeric types, NULL and MISSING on either side and incomparable types
+    private static final IAObject[][] ARGUMENTS = { { new AInt32(1), new AInt32(1) },
+            { new AInt32(1), new AInt64(2) }, { new AInt64(3), new ADouble(3.0) },
+            { new ADouble(2.5), new AInt8((byte) 2) }, { ANull.NULL, new AInt32(1) },
+            { AMissing.MISSING, new AInt32(1) }, { new AInt32(1), ANull.NULL }, { new AInt32(1), AMissing.MISSING },
+            { ANull.NULL, AMissing.MISSING }, { AMissing.MISSING, ANull.NULL }, { new AString("a"), new AString("b") },
+            { new AString("a"), new AInt32(1) }, { ABoolean.TRUE, new ADouble(1.0) },
+            { ABoolean.FALSE, ABoolean.TRUE } };
+
+    @Test
+    public void selectionVector() {
+        SelectionVector selection = new SelectionVector();
+        selection.selectAll(3);
+        Assert.assertEquals(3, selection.size());
+        Assert.assertEquals(2, selection.get(2));
+        selection.reset();
+        Assert.assertEquals(0, selection.size());
+        for (int i = 0; i < 200; i += 2) {
+            selection.add(i);
+        }
+        Assert.assertEquals(100, selection.size());
+        Assert.assertEquals(198, selection.get(99));
+        selection.selectAll(150);
+        Assert.assertEquals(150, selection.size());
+        Assert.assertEquals(149, selection.get(149));
+    }
+
+    @Test
+    public void valueVector() throws IOException {
+        byte[] frameBytes = { 1, 2, 3, 4 };
+        ValueVector values = new ValueVector();
+        values.reset(300);
+        for (int t = 0; t < 300; t++) {
+            if (t % 2 == 0) {
+                values.setReference(t, frameBytes, 1, 2);
+            } else {
+                // enough copied values for the storage of the vector to be reallocated
+                values.set(t, new byte[] { (byte) t, (byte) (t + 1), (byte) (t + 2) }, 1, 2);
+            }
+        }
+        IPointable value = VoidPointable.FACTORY.createPointable();
+        for (int t = 0; t < 300; t++) {
+            values.get(t, value);
+            Assert.assertEquals(t % 2 == 0, values.isReference(t));
+            Assert.assertEquals(2, value.getLength());
+            if (t % 2 == 0) {
+                Assert.assertSame(frameBytes, value.getByteArray());
+                Assert.assertEquals(1, value.getStartOffset());
+            } else {
+                Assert.assertEquals((byte) (t + 1), value.getByteArray()[value.getStartOffset()]);
+                Assert.assertEquals((byte) (t + 2), value.getByteArray()[value.getStartOffset() + 1]);
+            }
+        }
+
+        // a value serialized into the vector replaces the reference of the previous frame
+        values.reset(2);
+        values.beginValue().writeByte(42);
+        values.endValue(0);
+        values.get(0, value);
+        Assert.assertFalse(values.isReference(0));
+        Assert.assertEquals(1, value.getLength());
+        Assert.assertEquals(42, value.getByteArray()[value.getStartOffset()]);
+    }
+
+    @Test
+    public void functionsMatchTupleAtATimeEvaluation() throws HyracksDataException {
+        FrameTupleAccessor accessor = createFrame(ARGUMENTS, 5);
+        IScalarEvaluatorFactory[] args = columns();
+        List<IScalarEvaluatorFactory> factories = new ArrayList<>();
+        factories.add(comparison(new EqualsDescriptor(), args));
+        factories.add(comparison(new NotEqualsDescriptor(), args));
+        factories.add(comparison(new LessThanDescriptor(), args));
+        factories.add(comparison(new GreaterThanOrEqualsDescriptor(), args));
+        factories.add(new NumericAddDescriptor().createEvaluatorFactory(args));
+        factories.add(new NumericMultiplyDescriptor().createEvaluatorFactory(args));
+        // a nested expression with a constant argument
+        IScalarEvaluatorFactory plusOne = new NumericAddDescriptor()
+                .createEvaluatorFactory(new IScalarEvaluatorFactory[] { args[0], constant(new AInt64(1)) });
+        factories.add(comparison(new LessThanDescriptor(), new IScalarEvaluatorFactory[] { plusOne, args[1] }));
+        // a batch function whose argument can only be evaluated a tuple at a time
+        factories.add(new NumericAddDescriptor()
+                .createEvaluatorFactory(new IScalarEvaluatorFactory[] { tupleAtATime(args[0]), args[1] }));
+        // a function that can only be evaluated a tuple at a time
+        factories.add(tupleAtATime(comparison(new EqualsDescriptor(), args)));
+
+        SelectionVector all = new SelectionVector();
+        all.selectAll(accessor.getTupleCount());
+        SelectionVector odd = new SelectionVector();
+        for (int t = 1; t < accessor.getTupleCount(); t += 2) {
+            odd.add(t);
+        }
+        for (IScalarEvaluatorFactory factory : factories) {
+            assertSameValues(factory, accessor, all);
+            assertSameValues(factory, accessor, odd);
+        }
+    }
+
+    @Test
+    public void connectivesMatchTupleAtATimeEvaluation() throws HyracksDataException {
+        FrameTupleAccessor accessor = createFrame(ARGUMENTS, 5);
+        IScalarEvaluatorFactory[] args = columns();
+        // the comparisons are TRUE, FALSE, NULL or MISSING
+        IScalarEvaluatorFactory eq = comparison(new EqualsDescriptor(), args);
+        IScalarEvaluatorFactory lt = comparison(new LessThanDescriptor(), args);
+        IScalarEvaluatorFactory ge = comparison(new GreaterThanOrEqualsDescriptor(), args);
+        List<IScalarEvaluatorFactory> factories = new ArrayList<>();
+        factories.add(and(lt, eq));
+        factories.add(and(ge, eq, lt));
+        factories.add(or(eq, lt));
+        factories.add(or(ge, lt, eq));
+        factories.add(and(or(eq, lt), ge));
+        factories.add(or(and(eq, ge), tupleAtATime(lt)));
+        factories.add(and(tupleAtATime(or(eq, lt)), ge));
+
+        SelectionVector all = new SelectionVector();
+        all.selectAll(accessor.getTupleCount());
+        SelectionVector odd = new SelectionVector();
+        for (int t = 1; t < accessor.getTupleCount(); t += 2) {
+            odd.add(t);
+        }
+        for (IScalarEvaluatorFactory factory : factories) {
+            assertSameValues(factory, accessor, all);
+            assertSameValues(factory, accessor, odd);
+        }
+    }
+
+    @Test
+    public void connectivesNarrowSelection() throws HyracksDataException {
+        FrameTupleAccessor accessor = createFrame(ARGUMENTS, 5);
+        IScalarEvaluatorFactory[] args = columns();
+        IScalarEvaluatorFactory lt = comparison(new LessThanDescriptor(), args);
+        IScalarEvaluatorFactory eq = comparison(new EqualsDescriptor(), args);
+        // the number of tuples the first argument decides, FALSE for AND and TRUE for OR
+        int falseCount = 0;
+        int trueCount = 0;
+        IScalarEvaluator ltEval = lt.createScalarEvaluator(evaluatorContext(new WarningCollector()));
+        FrameTupleReference tuple = new FrameTupleReference();
+        IPointable value = VoidPointable.FACTORY.createPointable();
+        for (int t = 0; t < accessor.getTupleCount(); t++) {
+            tuple.reset(accessor, t);
+            ltEval.evaluate(tuple, value);
+            if (value.getByteArray()[value.getStartOffset()] == ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG) {
+                if (value.getByteArray()[value.getStartOffset() + 1] != 0) {
+                    trueCount++;
+                } else {
+                    falseCount++;
+                }
+            }
+        }
+        Assert.assertTrue(falseCount > 0 && trueCount > 0);
+
+        SelectionVector all = new SelectionVector();
+        all.selectAll(accessor.getTupleCount());
+        ValueVector values = new ValueVector();
+        CountingFactory counter = new CountingFactory(eq);
+        BatchScalarEvaluators.create(and(lt, counter), evaluatorContext(new WarningCollector()))
+                .evaluate(accessor, all, values);
+        Assert.assertEquals(accessor.getTupleCount() - falseCount, counter.count);
+        counter = new CountingFactory(eq);
+        BatchScalarEvaluators.create(or(lt, counter), evaluatorContext(new WarningCollector()))
+                .evaluate(accessor, all, values);
+        Assert.assertEquals(accessor.getTupleCount() - trueCount, counter.count);
+    }
+
+    @Test
+    public void assignReportsBatchErrorsLikeTupleErrors() throws HyracksDataException {
+        // AND of integers is a type mismatch
+        IScalarEvaluatorFactory[] args = columns();
+        IScalarEvaluatorFactory[] evals = { and(args[0], args[1]) };
+        RecordDescriptor outRd = new RecordDescriptor(new ISerializerDeserializer[] { SERDE, SERDE, SERDE });
+        HyracksDataException tupleError = null;
+        try {
+            run(new AssignRuntimeFactory(new int[] { 2 }, new IScalarEvaluatorFactory[] { tupleAtATime(evals[0]) },
+                    new int[] { 0, 1, 2 }).createOneOutputPushRuntime(task()), outRd);
+        } catch (HyracksDataException e) {
+            tupleError = e;
+        }
+        HyracksDataException batchError = null;
+        try {
+            run(new AssignRuntimeFactory(new int[] { 2 }, evals, new int[] { 0, 1, 2 })
+                    .createOneOutputPushRuntime(task()), outRd);
+        } catch (HyracksDataException e) {
+            batchError = e;
+        }
+        Assert.assertNotNull(tupleError);
+        Assert.assertNotNull(batchError);
+        Assert.assertEquals(ErrorCode.ERROR_PROCESSING_TUPLE, tupleError.getErrorCode());
+        Assert.assertEquals(tupleError.getErrorCode(), batchError.getErrorCode());
+        Assert.assertEquals(tupleError.getMessage(), batchError.getMessage());
+    }
+
+    @Test
+    public void assignMatchesTupleAtATimeEvaluation() throws HyracksDataException {
+        IScalarEvaluatorFactory[] args = columns();
+        IScalarEvaluatorFactory[] evals = { new NumericAddDescriptor().createEvaluatorFactory(args),
+                comparison(new LessThanDescriptor(), args), comparison(new EqualsDescriptor(), args) };
+        IScalarEvaluatorFactory[] tupleEvals = new IScalarEvaluatorFactory[evals.length];
+        for (int i = 0; i < evals.length; i++) {
+            tupleEvals[i] = tupleAtATime(evals[i]);
+        }
+        // the last assigned column is projected away
+        int[] outColumns = { 2, 3, 4 };
+        int[] projection = { 0, 2, 3 };
+        RecordDescriptor outRd = new RecordDescriptor(new ISerializerDeserializer[] { SERDE, SERDE, SERDE });
+        List<String> expected =
+                run(new AssignRuntimeFactory(outColumns, tupleEvals, projection).createOneOutputPushRuntime(task()),
+                        outRd);
+        List<String> actual =
+                run(new AssignRuntimeFactory(outColumns, evals, projection).createOneOutputPushRuntime(task()),
+                        outRd);
+        Assert.assertEquals(ARGUMENTS.length * 5, expected.size());
+        Assert.assertEquals(expected, actual);
+    }
+
+    @Test
+    public void selectMatchesTupleAtATimeEvaluation() throws HyracksDataException {
+        IScalarEvaluatorFactory[] args = columns();
+        IScalarEvaluatorFactory lt = comparison(new LessThanDescriptor(), args);
+        IScalarEvaluatorFactory ne = comparison(new NotEqualsDescriptor(), args);
+        IScalarEvaluatorFactory ge = comparison(new GreaterThanOrEqualsDescriptor(), args);
+        for (IScalarEvaluatorFactory cond : Arrays.asList(lt, and(ne, lt), or(and(ne, ge), lt))) {
+            assertSameSelection(cond);
+        }
+    }
+
+    private static void assertSameSelection(IScalarEvaluatorFactory cond) throws HyracksDataException {
+        int[] projection = { 0, 1 };
+        for (boolean retainMissing : new boolean[] { false, true }) {
+            List<String> expected = run(
+                    new StreamSelectRuntimeFactory(tupleAtATime(cond), projection, BinaryBooleanInspector.FACTORY,
+                            retainMissing, 1, MissingWriterFactory.INSTANCE).createOneOutputPushRuntime(task()),
+                    INPUT_RD);
+            List<String> actual = run(new StreamSelectRuntimeFactory(cond, projection, BinaryBooleanInspector.FACTORY,
+                    retainMissing, 1, MissingWriterFactory.INSTANCE).createOneOutputPushRuntime(task()), INPUT_RD);
+            if (retainMissing) {
+                Assert.assertEquals(ARGUMENTS.length * 5, expected.size());
+            } else {
+                Assert.assertTrue(expected.size() > 0 && expected.size() < ARGUMENTS.length * 5);
+            }
+            Assert.assertEquals(expected, actual);
+        }
+    }
+
+    private static void assertSameValues(IScalarEvaluatorFactory factory, FrameTupleAccessor accessor,
+            SelectionVector selection) throws HyracksDataException {
+        WarningCollector tupleWarnings = new WarningCollector();
+        IScalarEvaluator eval = factory.createScalarEvaluator(evaluatorContext(tupleWarnings));
+        WarningCollector batchWarnings = new WarningCollector();
+        IBatchScalarEvaluator batchEval = BatchScalarEvaluators.create(factory, evaluatorContext(batchWarnings));
+
+        ValueVector values = new ValueVector();
+        batchEval.evaluate(accessor, selection, values);
+        FrameTupleReference tuple = new FrameTupleReference();
+        IPointable expected = VoidPointable.FACTORY.createPointable();
+        IPointable actual = VoidPointable.FACTORY.createPointable();
+        for (int i = 0; i < selection.size(); i++) {
+            int t = selection.get(i);
+            tuple.reset(accessor, t);
+            eval.evaluate(tuple, expected);
+            values.get(t, actual);
+            Assert.assertEquals("tuple " + t, toString(expected), toString(actual));
+        }
+        Assert.assertEquals(tupleWarnings.getTotalWarningsCount(), batchWarnings.getTotalWarningsCount());
+    }
+
+    private static List<String> run(AbstractOneInputOneOutputOneFramePushRuntime runtime, RecordDescriptor outRd)
+            throws HyracksDataException {
+        List<String> tuples = new ArrayList<>();
+        FrameTupleAccessor outAccessor = new FrameTupleAccessor(outRd);
+        runtime.setInputRecordDescriptor(0, INPUT_RD);
+        runtime.setOutputFrameWriter(0, new IFrameWriter() {
+            @Override
+            public void open() throws HyracksDataException {
+            }
+
+            @Override
+            public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+                outAccessor.reset(buffer);
+                for (int t = 0; t < outAccessor.getTupleCount(); t++) {
+                    StringBuilder sb = new StringBuilder();
+                    for (int f = 0; f < outAccessor.getFieldCount(); f++) {
+                        int start = outAccessor.getAbsoluteFieldStartOffset(t, f);
+                        sb.append(Arrays.toString(Arrays.copyOfRange(buffer.array(), start,
+                                start + outAccessor.getFieldLength(t, f))));
+                    }
+                    tuples.add(sb.toString());
+                }
+            }
+
+            @Override
+            public void fail() throws HyracksDataException {
+            }
+
+            @Override
+            public void close() throws HyracksDataException {
+            }
+        }, outRd);
+        runtime.open();
+        runtime.nextFrame(createFrame(ARGUMENTS, 5).getBuffer());
+        runtime.close();
+        return tuples;
+    }
+
+    private static FrameTupleAccessor createFrame(IAObject[][] arguments, int copies) throws HyracksDataException {
+        VSizeFrame frame = new VSizeFrame(task());
+        FrameTupleAppender appender = new FrameTupleAppender(frame, true);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(2);
+        for (int c = 0; c < copies; c++) {
+            for (IAObject[] pair : arguments) {
+                tb.reset();
+                tb.addField(SERDE, pair[0]);
+                tb.addField(SERDE, pair[1]);
+                Assert.assertTrue(appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize()));
+            }
+        }
+        FrameTupleAccessor accessor = new FrameTupleAccessor(INPUT_RD);
+        accessor.reset(frame.getBuffer());
+        return accessor;
+    }
+
+    private static IHyracksTaskContext task() {
+        return TestUtils.create(FRAME_SIZE);
+    }
+
+    private static IEvaluatorContext evaluatorContext(WarningCollector warningCollector) {
+        IEvaluatorContext ctx = mock(IEvaluatorContext.class);
+        when(ctx.getWarningCollector()).thenReturn(warningCollector);
+        return ctx;
+    }
+
+    private static IScalarEvaluatorFactory[] columns() {
+        return new IScalarEvaluatorFactory[] { new ColumnAccessEvalFactory(0), new ColumnAccessEvalFactory(1) };
+    }
+
+    private static IScalarEvaluatorFactory constant(IAObject value) throws HyracksDataException {
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(1);
+        tb.addField(SERDE, value);
+        return new ConstantEvalFactory(Arrays.copyOf(tb.getByteArray(), tb.getSize()));
+    }
+
+    private static IScalarEvaluatorFactory comparison(IFunctionDescriptor comparison, IScalarEvaluatorFactory[] args)
+            throws HyracksDataException {
+        comparison.setImmutableStates(BuiltinType.ANY, BuiltinType.ANY);
+        return comparison.createEvaluatorFactory(args);
+    }
+
+    private static IScalarEvaluatorFactory and(IScalarEvaluatorFactory... args) {
+        return new AndDescriptor().createEvaluatorFactory(args);
+    }
+
+    private static IScalarEvaluatorFactory or(IScalarEvaluatorFactory... args) {
+        return new OrDescriptor().createEvaluatorFactory(args);
+    }
+
+    /**
+     * Counts the tuples a batch evaluator is called for.
+     */
+    private static class CountingFactory implements IBatchScalarEvaluatorFactory {
+        private static final long serialVersionUID = 1L;
+        private final IScalarEvaluatorFactory factory;
+        private int count;
+
+        private CountingFactory(IScalarEvaluatorFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public IScalarEvaluator createScalarEvaluator(IEvaluatorContext ctx) throws HyracksDataException {
+            return factory.createScalarEvaluator(ctx);
+        }
+
+        @Override
+        public IBatchScalarEvaluator createBatchScalarEvaluator(IEvaluatorContext ctx) throws HyracksDataException {
+            IBatchScalarEvaluator eval = BatchScalarEvaluators.create(factory, ctx);
+            return (accessor, selection, result) -> {
+                count += selection.size();
+                eval.evaluate(accessor, selection, result);
+            };
+        }
+    }
+
+    /**
+     * Hides the batch evaluators of a factory, so that it is evaluated a tuple at a time.
+     */
+    private static IScalarEvaluatorFactory tupleAtATime(IScalarEvaluatorFactory factory) {
+        return new IScalarEvaluatorFactory() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public IScalarEvaluator createScalarEvaluator(IEvaluatorContext ctx) throws HyracksDataException {
+                return factory.createScalarEvaluator(ctx);
+            }
+        };
+    }
+
+    private static String toString(IPointable value) {
+        return Arrays.toString(Arrays.copyOfRange(value.getByteArray(), value.getStartOffset(),
+                value.getStartOffset() + value.getLength()));
+    }
+}
@@ -0,0 +1,379 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.asterix.common.exceptions.WarningCollector;
+import org.apache.asterix.dataflow.data.nontagged.serde.AObjectSerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.ARecordSerializerDeserializer;
+import org.apache.asterix.om.base.ABoolean;
+import org.apache.asterix.om.base.ADouble;
+import org.apache.asterix.om.base.AInt32;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.AInt8;
+import org.apache.asterix.om.base.AMissing;
+import org.apache.asterix.om.base.ANull;
+import org.apache.asterix.om.base.ARecord;
+import org.apache.asterix.om.base.AString;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.functions.IFunctionDescriptor;
+import org.apache.asterix.om.functions.IFunctionDescriptorFactory;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.AUnionType;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.om.utils.RecordUtil;
+import org.apache.asterix.runtime.evaluators.comparisons.EqualsDescriptor;
+import org.apache.asterix.runtime.evaluators.comparisons.GreaterThanDescriptor;
+import org.apache.asterix.runtime.evaluators.comparisons.GreaterThanOrEqualsDescriptor;
+import org.apache.asterix.runtime.evaluators.comparisons.LessThanDescriptor;
+import org.apache.asterix.runtime.evaluators.comparisons.LessThanOrEqualsDescriptor;
+import org.apache.asterix.runtime.evaluators.comparisons.NotEqualsDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.AndDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.NotDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.NumericAddDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.OrDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.records.FieldAccessByIndexDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.records.FieldAccessByNameEvalFactory;
+import org.apache.asterix.runtime.evaluators.fusion.FusedPredicateEvaluatorFactory;
+import org.apache.asterix.runtime.evaluators.fusion.FusedPredicateFactories.AndFactory;
+import org.apache.asterix.runtime.evaluators.fusion.FusedPredicateFactories.BooleanValueFactory;
+import org.apache.asterix.runtime.evaluators.fusion.FusedPredicateFactories.ComparisonFactory;
+import org.apache.asterix.runtime.evaluators.fusion.FusedPredicateFactories.ComparisonKind;
+import org.apache.asterix.runtime.evaluators.fusion.FusedPredicateFactories.NotFactory;
+import org.apache.asterix.runtime.evaluators.fusion.FusedPredicateFactories.OrFactory;
+import org.apache.asterix.runtime.evaluators.fusion.FusedValueFactories.ColumnFactory;
+import org.apache.asterix.runtime.evaluators.fusion.FusedValueFactories.ConstantFactory;
+import org.apache.asterix.runtime.evaluators.fusion.FusedValueFactories.FieldAccessByIndexFactory;
+import org.apache.asterix.runtime.evaluators.fusion.FusedValueFactories.FieldAccessByNameFactory;
+import org.apache.asterix.runtime.evaluators.fusion.FusedValueFactories.InterpretedFactory;
+import org.apache.asterix.runtime.evaluators.fusion.FusedValueFactories.PredicateFactory;
+import org.apache.asterix.runtime.evaluators.fusion.IFusedPredicateFactory;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.ColumnAccessEvalFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.ConstantEvalFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.SelectionVector;
+import org.apache.hyracks.algebricks.runtime.evaluators.ValueVector;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
+import org.apache.hyracks.test.support.TestUtils;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Checks that fused expression trees give the same values, and issue the same warnings and errors, as the
+ * interpreted evaluators of the functions they replace.
+ */
+public class FusedEvaluatorTest {
+    private static final AObjectSerializerDeserializer SERDE = AObjectSerializerDeserializer.INSTANCE;
+    private static final RecordDescriptor INPUT_RD =
+            new RecordDescriptor(new ISerializerDeserializer[] { SERDE, SERDE, SERDE, SERDE, SERDE });
+    private static final ARecordType OPEN_TYPE =
+            new ARecordType("open", new String[] { "a" }, new IAType[] { BuiltinType.ANY }, true);
+    private static final ARecordType CLOSED_TYPE = new ARecordType("closed", new String[] { "x" },
+            new IAType[] { AUnionType.createUnknownableType(BuiltinType.AINT64) }, false);
+
+    // the fields of the tuples are:
+    // 0 and 1: the compared values, same types, mixed numeric types, NULL and MISSING and incomparable types
+    // 2: a boolean, NULL or MISSING argument of the logical connectives
+    // 3: an open record {"a": field 0}, without the field when field 0 is MISSING
+    // 4: a closed record {"x": int64?}
+    private static final IAObject[][] ARGUMENTS = { { new AInt32(1), new AInt32(1) },
+            { new AInt32(1), new AInt64(2) }, { new AInt64(3), new ADouble(3.0) },
+            { new ADouble(2.5), new AInt8((byte) 2) }, { ANull.NULL, new AInt32(1) },
+            { AMissing.MISSING, new AInt32(1) }, { new AInt32(1), ANull.NULL }, { new AInt32(1), AMissing.MISSING },
+            { ANull.NULL, AMissing.MISSING }, { AMissing.MISSING, ANull.NULL }, { new AString("a"), new AString("b") },
+            { new AString("a"), new AInt32(1) }, { ABoolean.TRUE, new ADouble(1.0) },
+            { ABoolean.FALSE, ABoolean.TRUE } };
+    private static final IAObject[] BOOLEANS = { ABoolean.TRUE, ABoolean.FALSE, ANull.NULL, AMissing.MISSING };
+
+    private static FrameTupleAccessor accessor;
+
+    @BeforeClass
+    public static void createFrame() throws HyracksDataException {
+        VSizeFrame frame = new VSizeFrame(TestUtils.create(32768));
+        FrameTupleAppender appender = new FrameTupleAppender(frame, true);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(INPUT_RD.getFieldCount());
+        ARecordSerializerDeserializer closedSerde = new ARecordSerializerDeserializer(CLOSED_TYPE);
+        int row = 0;
+        for (IAObject[] pair : ARGUMENTS) {
+            for (IAObject bool : BOOLEANS) {
+                tb.reset();
+                tb.addField(SERDE, pair[0]);
+                tb.addField(SERDE, pair[1]);
+                tb.addField(SERDE, bool);
+                boolean hasField = pair[0].getType().getTypeTag() != ATypeTag.MISSING;
+                tb.addField(SERDE, hasField ? new ARecord(OPEN_TYPE, new IAObject[] { pair[0] })
+                        : new ARecord(RecordUtil.FULLY_OPEN_RECORD_TYPE, new IAObject[0]));
+                IAObject x = row % 3 == 0 ? ANull.NULL : new AInt64(row % 5);
+                DataOutput out = tb.getDataOutput();
+                try {
+                    out.writeByte(ATypeTag.SERIALIZED_RECORD_TYPE_TAG);
+                } catch (IOException e) {
+                    throw HyracksDataException.create(e);
+                }
+                closedSerde.serialize(new ARecord(CLOSED_TYPE, new IAObject[] { x }), out);
+                tb.addFieldEndOffset();
+                Assert.assertTrue(appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize()));
+                row++;
+            }
+        }
+        accessor = new FrameTupleAccessor(INPUT_RD);
+        accessor.reset(frame.getBuffer());
+    }
+
+    @Test
+    public void comparisons() throws HyracksDataException {
+        assertSame(fusedComparison(ComparisonKind.EQ), comparison(EqualsDescriptor.FACTORY));
+        assertSame(fusedComparison(ComparisonKind.NEQ), comparison(NotEqualsDescriptor.FACTORY));
+        assertSame(fusedComparison(ComparisonKind.LT), comparison(LessThanDescriptor.FACTORY));
+        assertSame(fusedComparison(ComparisonKind.LE), comparison(LessThanOrEqualsDescriptor.FACTORY));
+        assertSame(fusedComparison(ComparisonKind.GT), comparison(GreaterThanDescriptor.FACTORY));
+        assertSame(fusedComparison(ComparisonKind.GE), comparison(GreaterThanOrEqualsDescriptor.FACTORY));
+    }
+
+    @Test
+    public void mixedNumericComparisonsWithConstants() throws HyracksDataException {
+        byte[] doubleConstant = serialize(new ADouble(1.5));
+        byte[] bigintConstant = serialize(new AInt64(1));
+        assertSame(
+                new ComparisonFactory(ComparisonKind.LT, new ColumnFactory(0), BuiltinType.ANY,
+                        new ConstantFactory(doubleConstant), BuiltinType.ADOUBLE, null),
+                comparison(LessThanDescriptor.FACTORY, BuiltinType.ANY, BuiltinType.ADOUBLE, column(0),
+                        new ConstantEvalFactory(doubleConstant)));
+        assertSame(
+                new ComparisonFactory(ComparisonKind.EQ, new ConstantFactory(bigintConstant), BuiltinType.AINT64,
+                        new ColumnFactory(1), BuiltinType.ANY, null),
+                comparison(EqualsDescriptor.FACTORY, BuiltinType.AINT64, BuiltinType.ANY,
+                        new ConstantEvalFactory(bigintConstant), column(1)));
+    }
+
+    @Test
+    public void connectives() throws HyracksDataException {
+        // AND: FALSE wins over MISSING, which wins over NULL
+        assertSame(new AndFactory(new IFusedPredicateFactory[] { fusedComparison(ComparisonKind.EQ), and(2, 1) }),
+                function(AndDescriptor.FACTORY, comparison(EqualsDescriptor.FACTORY), column(2)));
+        // OR: TRUE wins over NULL, which wins over MISSING
+        assertSame(new OrFactory(new IFusedPredicateFactory[] { fusedComparison(ComparisonKind.LT), or(2, 1) }),
+                function(OrDescriptor.FACTORY, comparison(LessThanDescriptor.FACTORY), column(2)));
+        assertSame(new NotFactory(not(2)), function(NotDescriptor.FACTORY, column(2)));
+        assertSame(
+                new AndFactory(new IFusedPredicateFactory[] { and(2, 0),
+                        new NotFactory(new OrFactory(new IFusedPredicateFactory[] {
+                                fusedComparison(ComparisonKind.GE), new NotFactory(not(2)) })),
+                        fusedComparison(ComparisonKind.NEQ) }),
+                function(AndDescriptor.FACTORY, column(2),
+                        function(NotDescriptor.FACTORY,
+                                function(OrDescriptor.FACTORY, comparison(GreaterThanOrEqualsDescriptor.FACTORY),
+                                        function(NotDescriptor.FACTORY, column(2)))),
+                        comparison(NotEqualsDescriptor.FACTORY)));
+        // a predicate used as a boolean value
+        assertSame(
+                new ComparisonFactory(ComparisonKind.EQ, new PredicateFactory(fusedComparison(ComparisonKind.LT)),
+                        BuiltinType.ANY, new ColumnFactory(2), BuiltinType.ANY, null),
+                comparison(EqualsDescriptor.FACTORY, BuiltinType.ANY, BuiltinType.ANY,
+                        comparison(LessThanDescriptor.FACTORY), column(2)));
+    }
+
+    @Test
+    public void fieldAccesses() throws HyracksDataException {
+        byte[] fieldName = serialize(new AString("a"));
+        assertSame(
+                new ComparisonFactory(ComparisonKind.EQ,
+                        new FieldAccessByNameFactory(new ColumnFactory(3), fieldName, null), BuiltinType.ANY,
+                        new ColumnFactory(1), BuiltinType.ANY, null),
+                comparison(EqualsDescriptor.FACTORY, BuiltinType.ANY, BuiltinType.ANY,
+                        new FieldAccessByNameEvalFactory(column(3), new ConstantEvalFactory(fieldName), null),
+                        column(1)));
+        IFunctionDescriptor byIndex = FieldAccessByIndexDescriptor.FACTORY.createFunctionDescriptor();
+        byIndex.setImmutableStates(CLOSED_TYPE);
+        assertSame(
+                new ComparisonFactory(ComparisonKind.LT,
+                        new FieldAccessByIndexFactory(new ColumnFactory(4), 0, CLOSED_TYPE, null), BuiltinType.ANY,
+                        new ColumnFactory(1), BuiltinType.ANY, null),
+                comparison(LessThanDescriptor.FACTORY, BuiltinType.ANY, BuiltinType.ANY,
+                        byIndex.createEvaluatorFactory(new IScalarEvaluatorFactory[] { column(4),
+                                new ConstantEvalFactory(serialize(new AInt32(0))) }),
+                        column(1)));
+    }
+
+    @Test
+    public void nonFusableArguments() throws HyracksDataException {
+        IScalarEvaluatorFactory add =
+                NumericAddDescriptor.FACTORY.createFunctionDescriptor().createEvaluatorFactory(columns());
+        byte[] two = serialize(new AInt32(2));
+        assertSame(
+                new ComparisonFactory(ComparisonKind.GT, new InterpretedFactory(add), BuiltinType.ANY,
+                        new ConstantFactory(two), BuiltinType.AINT32, null),
+                comparison(GreaterThanDescriptor.FACTORY, BuiltinType.ANY, BuiltinType.AINT32, add,
+                        new ConstantEvalFactory(two)));
+    }
+
+    @Test
+    public void typeMismatch() throws HyracksDataException {
+        // the first tuple has an integer in field 0, which is not a valid argument of AND
+        IScalarEvaluatorFactory fused = new FusedPredicateEvaluatorFactory(new AndFactory(
+                new IFusedPredicateFactory[] { fusedComparison(ComparisonKind.EQ), and(0, 1) }));
+        IScalarEvaluatorFactory interpreted =
+                function(AndDescriptor.FACTORY, comparison(EqualsDescriptor.FACTORY), column(0));
+        FrameTupleReference tuple = new FrameTupleReference();
+        tuple.reset(accessor, 0);
+        IPointable result = VoidPointable.FACTORY.createPointable();
+        int expected = errorCode(interpreted.createScalarEvaluator(context(new WarningCollector())), tuple, result);
+        int actual = errorCode(fused.createScalarEvaluator(context(new WarningCollector())), tuple, result);
+        Assert.assertEquals(expected, actual);
+    }
+
+    private static int errorCode(IScalarEvaluator eval, FrameTupleReference tuple, IPointable result) {
+        try {
+            eval.evaluate(tuple, result);
+        } catch (HyracksDataException e) {
+            return e.getErrorCode();
+        }
+        Assert.fail("expected a type mismatch");
+        return -1;
+    }
+
+    /**
+     * Evaluates the fused predicate and the interpreted expression for every tuple, a tuple at a time and a frame at
+     * a time, and checks that the values and the number of warnings are the same.
+     */
+    private static void assertSame(IFusedPredicateFactory predicate, IScalarEvaluatorFactory interpreted)
+            throws HyracksDataException {
+        FusedPredicateEvaluatorFactory fused = new FusedPredicateEvaluatorFactory(predicate);
+        WarningCollector expectedWarnings = new WarningCollector();
+        WarningCollector actualWarnings = new WarningCollector();
+        WarningCollector batchWarnings = new WarningCollector();
+        IScalarEvaluator expectedEval = interpreted.createScalarEvaluator(context(expectedWarnings));
+        IScalarEvaluator actualEval = fused.createScalarEvaluator(context(actualWarnings));
+        IBatchScalarEvaluator batchEval = fused.createBatchScalarEvaluator(context(batchWarnings));
+
+        SelectionVector selection = new SelectionVector();
+        selection.selectAll(accessor.getTupleCount());
+        ValueVector batchValues = new ValueVector();
+        batchEval.evaluate(accessor, selection, batchValues);
+
+        FrameTupleReference tuple = new FrameTupleReference();
+        IPointable expected = VoidPointable.FACTORY.createPointable();
+        IPointable actual = VoidPointable.FACTORY.createPointable();
+        for (int t = 0; t < accessor.getTupleCount(); t++) {
+            tuple.reset(accessor, t);
+            expectedEval.evaluate(tuple, expected);
+            String message = predicate + ", tuple " + t;
+            actualEval.evaluate(tuple, actual);
+            Assert.assertEquals(message, toString(expected), toString(actual));
+            batchValues.get(t, actual);
+            Assert.assertEquals(message, toString(expected), toString(actual));
+        }
+        Assert.assertEquals(predicate.toString(), expectedWarnings.getTotalWarningsCount(),
+                actualWarnings.getTotalWarningsCount());
+        Assert.assertEquals(predicate.toString(), expectedWarnings.getTotalWarningsCount(),
+                batchWarnings.getTotalWarningsCount());
+    }
+
+    private static IFusedPredicateFactory fusedComparison(ComparisonKind kind) {
+        return new ComparisonFactory(kind, new ColumnFactory(0), BuiltinType.ANY, new ColumnFactory(1),
+                BuiltinType.ANY, null);
+    }
+
+    private static IFusedPredicateFactory and(int fieldIndex, int argIndex) {
+        return bool(fieldIndex, BuiltinFunctions.AND, argIndex);
+    }
+
+    private static IFusedPredicateFactory or(int fieldIndex, int argIndex) {
+        return bool(fieldIndex, BuiltinFunctions.OR, argIndex);
+    }
+
+    private static IFusedPredicateFactory not(int fieldIndex) {
+        return bool(fieldIndex, BuiltinFunctions.NOT, 0);
+    }
+
+    /**
+     * A boolean column as the argument {@code argIndex} of a logical connective.
+     */
+    private static IFusedPredicateFactory bool(int fieldIndex, FunctionIdentifier funId, int argIndex) {
+        return new BooleanValueFactory(new ColumnFactory(fieldIndex), funId, argIndex, null);
+    }
+
+    private static IScalarEvaluatorFactory comparison(IFunctionDescriptorFactory factory)
+            throws HyracksDataException {
+        return comparison(factory, BuiltinType.ANY, BuiltinType.ANY, column(0), column(1));
+    }
+
+    private static IScalarEvaluatorFactory comparison(IFunctionDescriptorFactory factory, IAType leftType,
+            IAType rightType, IScalarEvaluatorFactory left, IScalarEvaluatorFactory right)
+            throws HyracksDataException {
+        IFunctionDescriptor comparison = factory.createFunctionDescriptor();
+        comparison.setImmutableStates(leftType, rightType);
+        return comparison.createEvaluatorFactory(new IScalarEvaluatorFactory[] { left, right });
+    }
+
+    private static IScalarEvaluatorFactory function(IFunctionDescriptorFactory factory,
+            IScalarEvaluatorFactory... args) throws HyracksDataException {
+        return factory.createFunctionDescriptor().createEvaluatorFactory(args);
+    }
+
+    private static IScalarEvaluatorFactory column(int fieldIndex) {
+        return new ColumnAccessEvalFactory(fieldIndex);
+    }
+
+    private static IScalarEvaluatorFactory[] columns() {
+        return new IScalarEvaluatorFactory[] { column(0), column(1) };
+    }
+
+    private static byte[] serialize(IAObject value) throws HyracksDataException {
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        SERDE.serialize(value, storage.getDataOutput());
+        return Arrays.copyOfRange(storage.getByteArray(), storage.getStartOffset(),
+                storage.getStartOffset() + storage.getLength());
+    }
+
+    private static IEvaluatorContext context(WarningCollector warningCollector) {
+        IEvaluatorContext ctx = mock(IEvaluatorContext.class);
+        when(ctx.getWarningCollector()).thenReturn(warningCollector);
+        return ctx;
+    }
+
+    private static String toString(IPointable value) {
+        return Arrays.toString(Arrays.copyOfRange(value.getByteArray(), value.getStartOffset(),
+                value.getStartOffset() + value.getLength()));
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.test.optimizer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.asterix.om.base.AInt32;
+import org.apache.asterix.om.constants.AsterixConstantValue;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.algebricks.common.constraints.AlgebricksAbsolutePartitionConstraint;
+import org.apache.hyracks.algebricks.common.utils.Pair;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.base.OperatorAnnotations;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ConstantExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.DataSourceScanOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.EmptyTupleSourceOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.LimitOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.SelectOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.visitors.LogicalPropertiesVisitor;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.AbstractStableSortPOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.DataSourceScanPOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.EmptyTupleSourcePOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.StableSortPOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.StreamLimitPOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.StreamSelectPOperator;
+import org.apache.hyracks.algebricks.core.algebra.properties.ILogicalPropertiesVector;
+import org.apache.hyracks.algebricks.core.rewriter.base.AlgebricksOptimizationContext;
+import org.apache.hyracks.algebricks.core.rewriter.base.PhysicalOptimizationConfig;
+import org.apache.hyracks.algebricks.rewriter.rules.SetMemoryRequirementsRule;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the memory budgets that {@link SetMemoryRequirementsRule} computes from the cardinality annotations
+ * propagated by {@link LogicalPropertiesVisitor} when compiler.memory.estimates is enabled.
+ */
+public class MemoryEstimatesTest {
+
+    private static final int MAX_SORT_FRAMES = 64;
+    private static final int MIN_SORT_FRAMES = AbstractStableSortPOperator.MIN_FRAME_LIMIT_FOR_SORT;
+
+    @Test
+    public void budgetIsConfiguredMaximumWhenDisabled() throws Exception {
+        OrderOperator sort = createPlan(1000, 5);
+        Assert.assertEquals(MAX_SORT_FRAMES, computeSortBudget(sort, false));
+    }
+
+    @Test
+    public void budgetIsReducedToEstimatedInputSize() throws Exception {
+        // the sort only needs the 5 frames of its input on top of its minimum budget
+        OrderOperator sort = createPlan(1000, 5);
+        Assert.assertEquals(5 + MIN_SORT_FRAMES, computeSortBudget(sort, true));
+    }
+
+    @Test
+    public void budgetNeverDropsBelowMinimum() throws Exception {
+        OrderOperator sort = createPlan(1, 1);
+        int budget = computeSortBudget(sort, true);
+        Assert.assertEquals(1 + MIN_SORT_FRAMES, budget);
+        Assert.assertTrue(budget >= MIN_SORT_FRAMES);
+    }
+
+    @Test
+    public void budgetNeverExceedsConfiguredMaximum() throws Exception {
+        OrderOperator sort = createPlan(1_000_000, 10_000);
+        Assert.assertEquals(MAX_SORT_FRAMES, computeSortBudget(sort, true));
+    }
+
+    @Test
+    public void budgetIsConfiguredMaximumWhenInputSizeIsUnknown() throws Exception {
+        // only the number of tuples is annotated
+        OrderOperator sort = createPlan(1000, -1);
+        Assert.assertEquals(MAX_SORT_FRAMES, computeSortBudget(sort, true));
+        // no annotation at all
+        sort = createPlan(-1, -1);
+        Assert.assertEquals(MAX_SORT_FRAMES, computeSortBudget(sort, true));
+    }
+
+    @Test
+    public void annotatedCardinalityIsPropagated() throws Exception {
+        OrderOperator sort = createPlan(1000, 5);
+        IOptimizationContext context = createContext(true);
+        LogicalPropertiesVisitor.computeLogicalPropertiesDFS(sort, context);
+        // limit <- select <- annotated data scan
+        ILogicalOperator limit = sort.getInputs().get(0).getValue();
+        ILogicalOperator select = limit.getInputs().get(0).getValue();
+        ILogicalOperator scan = select.getInputs().get(0).getValue();
+        for (ILogicalOperator op : new ILogicalOperator[] { scan, select, limit, sort }) {
+            ILogicalPropertiesVector v = context.getLogicalPropertiesVector(op);
+            Assert.assertNotNull(op.getOperatorTag().toString(), v);
+            Assert.assertEquals(Integer.valueOf(1000), v.getNumberOfTuples());
+            Assert.assertEquals(Integer.valueOf(5), v.getMaxOutputFrames());
+        }
+    }
+
+    /**
+     * Creates sort <- limit <- select <- data scan <- empty tuple source, where the data scan is annotated with the
+     * given number of tuples and frames (if they are not negative).
+     */
+    private static OrderOperator createPlan(int numTuples, int numFrames) {
+        LogicalVariable var = new LogicalVariable(1);
+        EmptyTupleSourceOperator ets = new EmptyTupleSourceOperator();
+        ets.setPhysicalOperator(new EmptyTupleSourcePOperator());
+
+        DataSourceScanOperator scan = new DataSourceScanOperator(new ArrayList<>(Collections.singletonList(var)), null);
+        if (numTuples >= 0) {
+            scan.getAnnotations().put(OperatorAnnotations.CARDINALITY, numTuples);
+        }
+        if (numFrames >= 0) {
+            scan.getAnnotations().put(OperatorAnnotations.MAX_NUMBER_FRAMES, numFrames);
+        }
+        scan.getInputs().add(new MutableObject<>(ets));
+        scan.setPhysicalOperator(new DataSourceScanPOperator(null));
+
+        SelectOperator select = new SelectOperator(new MutableObject<>(ConstantExpression.TRUE), false, null);
+        select.getInputs().add(new MutableObject<>(scan));
+        select.setPhysicalOperator(new StreamSelectPOperator());
+
+        LimitOperator limit = new LimitOperator(new ConstantExpression(new AsterixConstantValue(new AInt32(10))));
+        limit.getInputs().add(new MutableObject<>(select));
+        limit.setPhysicalOperator(new StreamLimitPOperator());
+
+        List<Pair<OrderOperator.IOrder, Mutable<ILogicalExpression>>> orderExprs = new ArrayList<>();
+        orderExprs.add(new Pair<>(OrderOperator.ASC_ORDER, new MutableObject<>(new VariableReferenceExpression(var))));
+        OrderOperator sort = new OrderOperator(orderExprs);
+        sort.getInputs().add(new MutableObject<>(limit));
+        sort.setPhysicalOperator(new StableSortPOperator());
+        return sort;
+    }
+
+    private static int computeSortBudget(OrderOperator sort, boolean memoryEstimates) throws Exception {
+        new SetMemoryRequirementsRule().rewritePre(new MutableObject<>(sort), createContext(memoryEstimates));
+        return sort.getPhysicalOperator().getLocalMemoryRequirements()
+                .getMemoryBudgetInFrames();
+    }
+
+    private static IOptimizationContext createContext(boolean memoryEstimates) {
+        PhysicalOptimizationConfig physConfig = new PhysicalOptimizationConfig();
+        physConfig.setMaxFramesExternalSort(MAX_SORT_FRAMES);
+        physConfig.setMemoryEstimates(memoryEstimates);
+        return new AlgebricksOptimizationContext(0, null, null, null, null, null, physConfig,
+                new AlgebricksAbsolutePartitionConstraint(new String[] { "nc1" }), null, null);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.test.storage;
+
+import org.apache.asterix.api.common.AsterixHyracksIntegrationUtil;
+import org.apache.asterix.common.api.IDatasetLifecycleManager;
+import org.apache.asterix.common.api.INcApplicationContext;
+import org.apache.asterix.common.config.GlobalConfig;
+import org.apache.asterix.common.config.StorageProperties;
+import org.apache.asterix.common.dataflow.ICcApplicationContext;
+import org.apache.asterix.metadata.MetadataManager;
+import org.apache.asterix.metadata.MetadataTransactionContext;
+import org.apache.asterix.metadata.bootstrap.MetadataBuiltinEntities;
+import org.apache.asterix.metadata.declared.MetadataProvider;
+import org.apache.asterix.metadata.entities.Dataset;
+import org.apache.asterix.metadata.entities.DatasetStatistics;
+import org.apache.asterix.runtime.utils.StatisticsManager;
+import org.apache.asterix.test.common.TestExecutor;
+import org.apache.asterix.testframework.context.TestCaseContext;
+import org.apache.hyracks.control.nc.NodeControllerService;
+import org.apache.hyracks.storage.am.lsm.common.statistics.ComponentStatistics;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DatasetStatisticsTest {
+
+    protected static final String TEST_CONFIG_FILE_NAME = "src/main/resources/cc.conf";
+    private static final TestExecutor testExecutor = new TestExecutor();
+    private static final AsterixHyracksIntegrationUtil integrationUtil = new AsterixHyracksIntegrationUtil();
+    private static final TestCaseContext.OutputFormat FORMAT = TestCaseContext.OutputFormat.CLEAN_JSON;
+    private static final String DATASET = "ds";
+    private static final String INDEX = "idx_g";
+    // the distinct counts are HyperLogLog estimates
+    private static final double DISTINCT_ERROR = 0.1;
+
+    @Before
+    public void setUp() throws Exception {
+        System.setProperty(GlobalConfig.CONFIG_FILE_PROPERTY, TEST_CONFIG_FILE_NAME);
+        integrationUtil.addOption(StorageProperties.Option.STORAGE_STATISTICS, true);
+        integrationUtil.init(true, TEST_CONFIG_FILE_NAME);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        integrationUtil.deinit(true);
+        integrationUtil.clearOptions();
+    }
+
+    @Test
+    public void statisticsOfFlushedAndMergedComponents() throws Exception {
+        testExecutor.executeSqlppUpdateOrDdl("CREATE TYPE T AS { id: int };", FORMAT);
+        testExecutor.executeSqlppUpdateOrDdl("CREATE DATASET " + DATASET + "(T) PRIMARY KEY id;", FORMAT);
+        testExecutor.executeSqlppUpdateOrDdl("INSERT INTO " + DATASET
+                + " (FROM range(1, 1000) AS x SELECT VALUE { \"id\": x, \"g\": x % 10 });", FORMAT);
+        Dataset dataset = getDataset();
+        flush(dataset);
+        // the secondary index is bulk loaded from the flushed component
+        testExecutor.executeSqlppUpdateOrDdl("CREATE INDEX " + INDEX + " ON " + DATASET + "(g: int);", FORMAT);
+        testExecutor.executeSqlppUpdateOrDdl("DELETE FROM " + DATASET + " AS d WHERE d.id > 900;", FORMAT);
+        testExecutor.executeSqlppUpdateOrDdl("INSERT INTO " + DATASET
+                + " (FROM range(1001, 1200) AS x SELECT VALUE { \"id\": x, \"g\": x % 10 });", FORMAT);
+        flush(dataset);
+
+        // statistics are cached on the CC, a new manager reads the flushed components before they are merged
+        ICcApplicationContext appCtx =
+                (ICcApplicationContext) integrationUtil.getClusterControllerService().getApplicationContext();
+        DatasetStatistics flushed = new DatasetStatistics(dataset.getDataverseName(), DATASET,
+                new StatisticsManager(appCtx).getStatistics(dataset.getDatasetId()));
+        ComponentStatistics primary = flushed.getIndexStatistics(DATASET);
+        Assert.assertNotNull(primary);
+        Assert.assertEquals(1200, primary.getTupleCount());
+        Assert.assertEquals(100, primary.getAntimatterCount());
+        Assert.assertEquals(1200, primary.getHistogram().getTotalCount());
+        // the deleted keys are still counted as distinct keys until they are merged away
+        assertDistinct(1200, primary.getDistinctKeyCount());
+        assertDistinct(1100, flushed.getCardinality());
+        assertDistinct(1200, flushed.getDistinctCount(DATASET, 0));
+        Assert.assertEquals(0, flushed.getUnknownCount(DATASET, 0));
+        ComponentStatistics secondary = flushed.getIndexStatistics(INDEX);
+        Assert.assertNotNull(secondary);
+        Assert.assertEquals(1200, secondary.getTupleCount());
+        Assert.assertEquals(100, secondary.getAntimatterCount());
+        assertDistinct(10, flushed.getDistinctCount(INDEX, 0));
+
+        // a full merge drops the deleted records and their antimatter
+        testExecutor.executeSqlppUpdateOrDdl("COMPACT DATASET " + DATASET + ";", FORMAT);
+        waitForIO(dataset);
+        DatasetStatistics merged = getDatasetStatistics(dataset);
+        primary = merged.getIndexStatistics(DATASET);
+        Assert.assertNotNull(primary);
+        Assert.assertEquals(1100, primary.getTupleCount());
+        Assert.assertEquals(0, primary.getAntimatterCount());
+        Assert.assertEquals(1100, primary.getHistogram().getTotalCount());
+        assertDistinct(1100, merged.getCardinality());
+        Assert.assertEquals(0, merged.getUnknownCount(DATASET, 0));
+        secondary = merged.getIndexStatistics(INDEX);
+        Assert.assertNotNull(secondary);
+        Assert.assertEquals(1100, secondary.getTupleCount());
+        Assert.assertEquals(0, secondary.getAntimatterCount());
+        assertDistinct(10, merged.getDistinctCount(INDEX, 0));
+        Assert.assertEquals(DatasetStatistics.UNKNOWN, merged.getDistinctCount("no_such_index", 0));
+    }
+
+    private static void assertDistinct(long expected, long actual) {
+        Assert.assertTrue("expected about " + expected + " but was " + actual,
+                Math.abs(actual - expected) <= Math.max(1, expected * DISTINCT_ERROR));
+    }
+
+    private static Dataset getDataset() throws Exception {
+        ICcApplicationContext appCtx =
+                (ICcApplicationContext) integrationUtil.getClusterControllerService().getApplicationContext();
+        MetadataProvider metadataProvider = MetadataProvider.create(appCtx, null);
+        MetadataTransactionContext mdTxnCtx = MetadataManager.INSTANCE.beginTransaction();
+        metadataProvider.setMetadataTxnContext(mdTxnCtx);
+        try {
+            return metadataProvider.findDataset(MetadataBuiltinEntities.DEFAULT_DATAVERSE_NAME, DATASET);
+        } finally {
+            MetadataManager.INSTANCE.commitTransaction(mdTxnCtx);
+            metadataProvider.getLocks().unlock();
+        }
+    }
+
+    private static DatasetStatistics getDatasetStatistics(Dataset dataset) throws Exception {
+        ICcApplicationContext appCtx =
+                (ICcApplicationContext) integrationUtil.getClusterControllerService().getApplicationContext();
+        MetadataProvider metadataProvider = MetadataProvider.create(appCtx, null);
+        MetadataTransactionContext mdTxnCtx = MetadataManager.INSTANCE.beginTransaction();
+        metadataProvider.setMetadataTxnContext(mdTxnCtx);
+        try {
+            return metadataProvider.getDatasetStatistics(dataset);
+        } finally {
+            MetadataManager.INSTANCE.commitTransaction(mdTxnCtx);
+            metadataProvider.getLocks().unlock();
+        }
+    }
+
+    private static void flush(Dataset dataset) throws Exception {
+        for (NodeControllerService nc : integrationUtil.ncs) {
+            IDatasetLifecycleManager dlcm = ((INcApplicationContext) nc.getApplicationContext())
+                    .getDatasetLifecycleManager();
+            dlcm.flushDataset(dataset.getDatasetId(), false);
+        }
+        waitForIO(dataset);
+    }
+
+    private static void waitForIO(Dataset dataset) throws Exception {
+        for (NodeControllerService nc : integrationUtil.ncs) {
+            IDatasetLifecycleManager dlcm = ((INcApplicationContext) nc.getApplicationContext())
+                    .getDatasetLifecycleManager();
+            dlcm.getDatasetInfo(dataset.getDatasetId()).waitForIO();
+        }
+    }
+}
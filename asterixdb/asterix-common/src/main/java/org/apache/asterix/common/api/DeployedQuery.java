@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.common.api;
+
+import java.util.List;
+
+import org.apache.asterix.common.metadata.IMetadataLock;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hyracks.api.job.DeployedJobSpecId;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.api.result.ResultSetId;
+
+/**
+ * A query whose job is deployed on the cluster, see {@link IDeployedQueryCache}
+ */
+public class DeployedQuery {
+
+    private final DeployedJobSpecId deployedJobSpecId;
+    private final JobSpecification jobSpec;
+    private final ResultSetId resultSetId;
+    private final List<Pair<IMetadataLock, IMetadataLock.Mode>> locks;
+    private final long metadataVersion;
+    // guarded by the cache
+    private int users = 1;
+    private boolean cached;
+
+    public DeployedQuery(DeployedJobSpecId deployedJobSpecId, JobSpecification jobSpec, ResultSetId resultSetId,
+            List<Pair<IMetadataLock, IMetadataLock.Mode>> locks, long metadataVersion) {
+        this.deployedJobSpecId = deployedJobSpecId;
+        this.jobSpec = jobSpec;
+        this.resultSetId = resultSetId;
+        this.locks = locks;
+        this.metadataVersion = metadataVersion;
+    }
+
+    public DeployedJobSpecId getDeployedJobSpecId() {
+        return deployedJobSpecId;
+    }
+
+    /**
+     * @return the job specification the query was deployed with. It is used to schedule the query, not to run it.
+     */
+    public JobSpecification getJobSpecification() {
+        return jobSpec;
+    }
+
+    public ResultSetId getResultSetId() {
+        return resultSetId;
+    }
+
+    /**
+     * @return the metadata locks that were acquired to compile the query
+     */
+    public List<Pair<IMetadataLock, IMetadataLock.Mode>> getLocks() {
+        return locks;
+    }
+
+    /**
+     * @return the version of the metadata the query was compiled against
+     */
+    public long getMetadataVersion() {
+        return metadataVersion;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public void setUsers(int users) {
+        this.users = users;
+    }
+
+    public boolean isCached() {
+        return cached;
+    }
+
+    public void setCached(boolean cached) {
+        this.cached = cached;
+    }
+
+    @Override
+    public String toString() {
+        return "{\"deployedJobSpecId\" : \"" + deployedJobSpecId + "\", \"metadataVersion\" : " + metadataVersion
+                + ", \"users\" : " + users + ", \"cached\" : " + cached + "}";
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.common.api;
+
+/**
+ * Keeps the jobs of compiled queries deployed on the cluster so that later executions of the same query skip the
+ * parsing, the optimization and the distribution of the job. The statement parameters of a cached query are passed to
+ * its job as job parameters. Every query is tagged with the version of the metadata it was compiled against, see
+ * {@code IMetadataManager#getVersion()}, and is dropped once the metadata changes.
+ */
+public interface IDeployedQueryCache {
+
+    /**
+     * @return true if queries may be cached
+     */
+    boolean isEnabled();
+
+    /**
+     * Gets a cached query and registers the caller as one of its users. The caller must {@link #release} the query
+     * once its job completes.
+     *
+     * @param key
+     * @param metadataVersion
+     *            the current version of the metadata
+     * @return the cached query if found and compiled against {@code metadataVersion}. Otherwise null.
+     */
+    DeployedQuery acquire(String key, long metadataVersion);
+
+    /**
+     * Checks that a query has not been invalidated. Callers acquire the metadata locks of the query before checking
+     * it, so that the metadata it depends on cannot change until they release them.
+     *
+     * @param query
+     * @param metadataVersion
+     *            the version of the metadata read after acquiring the locks
+     * @return true if the query can still be executed
+     */
+    boolean isValid(DeployedQuery query, long metadataVersion);
+
+    /**
+     * Caches a query that was deployed by the caller, who remains one of its users.
+     *
+     * @param key
+     * @param query
+     * @param metadataVersion
+     *            the current version of the metadata
+     * @return true if the query was cached, false if the metadata changed since its compilation started
+     */
+    boolean put(String key, DeployedQuery query, long metadataVersion);
+
+    /**
+     * Unregisters a user of a query. The job of a query that is no longer cached is undeployed by its last user.
+     *
+     * @param query
+     */
+    void release(DeployedQuery query);
+
+    /**
+     * Removes a query, e.g. after its job failed.
+     *
+     * @param key
+     * @param query
+     */
+    void invalidate(String key, DeployedQuery query);
+
+    /**
+     * Remembers that the plan of the query with key {@code key} cannot be cached so that it is not compiled for
+     * deployment again until the metadata changes.
+     *
+     * @param key
+     * @param metadataVersion
+     *            the version of the metadata the query was compiled against
+     */
+    void reject(String key, long metadataVersion);
+
+    /**
+     * @param key
+     * @param metadataVersion
+     *            the current version of the metadata
+     * @return true if the query with key {@code key} was {@link #reject}ed since the metadata last changed
+     */
+    boolean isRejected(String key, long metadataVersion);
+}
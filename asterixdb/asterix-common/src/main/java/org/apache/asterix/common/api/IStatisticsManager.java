@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.common.api;
+
+import java.util.Map;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.lsm.common.statistics.ComponentStatistics;
+
+/**
+ * Reads the statistics that flushes, merges and bulk loads keep in the disk components of the indexes of a dataset
+ * (see {@link ComponentStatistics}) and merges them over the components of all the partitions of the dataset.
+ * Statistics are collected as the data is written, so there is no separate scan to run. They may be stale by the
+ * contents of the memory components and components written before statistics were collected are left out.
+ */
+public interface IStatisticsManager {
+
+    /**
+     * @param datasetId
+     * @return the statistics of the indexes of the dataset by index name. Indexes without statistics are left out.
+     *         The returned statistics must not be modified.
+     * @throws HyracksDataException
+     */
+    Map<String, ComponentStatistics> getStatistics(int datasetId) throws HyracksDataException;
+}
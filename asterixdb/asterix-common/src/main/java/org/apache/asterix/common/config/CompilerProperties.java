@@ -19,10 +19,12 @@
 package org.apache.asterix.common.config;
 
 import static org.apache.hyracks.control.common.config.OptionTypes.BOOLEAN;
+import static org.apache.hyracks.control.common.config.OptionTypes.DOUBLE;
 import static org.apache.hyracks.control.common.config.OptionTypes.INTEGER;
 import static org.apache.hyracks.control.common.config.OptionTypes.INTEGER_BYTE_UNIT;
 import static org.apache.hyracks.control.common.config.OptionTypes.LONG_BYTE_UNIT;
 import static org.apache.hyracks.control.common.config.OptionTypes.POSITIVE_INTEGER;
+import static org.apache.hyracks.control.common.config.OptionTypes.UNSIGNED_INTEGER;
 import static org.apache.hyracks.util.StorageUtil.StorageUnit.KILOBYTE;
 import static org.apache.hyracks.util.StorageUtil.StorageUnit.MEGABYTE;
 
@@ -72,7 +74,77 @@ public class CompilerProperties extends AbstractProperties {
                 POSITIVE_INTEGER,
                 AlgebricksConfig.SORT_SAMPLES,
                 "The number of samples which parallel sorting should take from each partition"),
-        COMPILER_INDEXONLY(BOOLEAN, AlgebricksConfig.INDEX_ONLY_DEFAULT, "Enabling/disabling index-only plans");
+        COMPILER_SORT_THREADS(
+                POSITIVE_INTEGER,
+                AlgebricksConfig.SORT_THREADS_DEFAULT,
+                "The maximum number of threads a sort operator instance uses to sort its in-memory data"),
+        COMPILER_DISTINCT_HASH(
+                BOOLEAN,
+                AlgebricksConfig.HASH_DISTINCT_DEFAULT,
+                "Enabling/disabling hash-based (instead of sort-based) duplicate elimination for DISTINCT"),
+        COMPILER_DISTINCT_DEDUP(
+                BOOLEAN,
+                AlgebricksConfig.DISTINCT_DEDUP_DEFAULT,
+                "Enabling/disabling the elimination of recently seen duplicates before they are hash partitioned "
+                        + "for DISTINCT"),
+        COMPILER_JOIN_SKEW(
+                BOOLEAN,
+                AlgebricksConfig.JOIN_SKEW_DEFAULT,
+                "Enabling/disabling the detection of skewed join keys at run time and the spreading of their "
+                        + "tuples over several partitions in hash joins"),
+        COMPILER_HASH_OPEN_ADDRESSING(
+                BOOLEAN,
+                AlgebricksConfig.OPEN_ADDRESSING_DEFAULT,
+                "Enabling/disabling open addressing (instead of chained) hash tables in in-memory hash joins and "
+                        + "hash group-bys"),
+        COMPILER_GROUPBY_PASSTHROUGH_FRAMES(
+                UNSIGNED_INTEGER,
+                AlgebricksConfig.GROUP_BY_PASS_THROUGH_FRAMES_DEFAULT,
+                "The number of input frames a local hash group-by samples before it decides whether to pass its "
+                        + "input through ungrouped. The decision is only taken once the group-by has started "
+                        + "spilling. 0 disables the pass-through"),
+        COMPILER_GROUPBY_PASSTHROUGH_RATIO(
+                DOUBLE,
+                AlgebricksConfig.GROUP_BY_PASS_THROUGH_RATIO_DEFAULT,
+                "The ratio of groups to sampled input tuples above which a local hash group-by passes its input "
+                        + "through ungrouped"),
+        COMPILER_WINDOW_SLIDING(
+                BOOLEAN,
+                AlgebricksConfig.WINDOW_SLIDING_DEFAULT,
+                "Enabling/disabling the evaluation of bounded window frames by adding the rows that enter the frame "
+                        + "and removing the rows that leave it (instead of recomputing the frame for each row)"),
+        COMPILER_INDEXONLY(BOOLEAN, AlgebricksConfig.INDEX_ONLY_DEFAULT, "Enabling/disabling index-only plans"),
+        COMPILER_CBO(
+                BOOLEAN,
+                AlgebricksConfig.CBO_DEFAULT,
+                "Enabling/disabling cost-based join ordering and join algorithm selection"),
+        COMPILER_EXPRESSION_FUSION(
+                BOOLEAN,
+                false,
+                "Enabling/disabling the fusion of selection conditions into a single evaluator"),
+        COMPILER_SCAN_PROJECTION(
+                BOOLEAN,
+                false,
+                "Enabling/disabling the pushdown of field projections into dataset scans"),
+        COMPILER_MEMORY_ESTIMATES(
+                BOOLEAN,
+                AlgebricksConfig.MEMORY_ESTIMATES_DEFAULT,
+                "Enabling/disabling the sizing of operator memory budgets from estimated input sizes"),
+        COMPILER_DEPLOYED_QUERIES(
+                UNSIGNED_INTEGER,
+                0,
+                "The maximum number of short index lookup queries whose jobs are kept deployed on the cluster to be "
+                        + "reused by later executions of the same query. 0 disables the reuse of deployed queries. "
+                        + "Queries are not deployed when frame compression or runtime profiling is enabled"),
+        COMPILER_PLAN_CACHE(
+                BOOLEAN,
+                false,
+                "Enabling/disabling the reuse of the deployed jobs of all the queries over internal datasets, not only "
+                        + "of short index lookup queries. It requires compiler.deployed.queries to be positive"),
+        COMPILER_FRAME_COMPRESSION(
+                BOOLEAN,
+                false,
+                "Enabling/disabling the compression of the frames exchanged over the network and spilled to disk");
 
         private final IOptionType type;
         private final Object defaultValue;
@@ -121,8 +193,39 @@ public class CompilerProperties extends AbstractProperties {
 
     public static final String COMPILER_SORT_SAMPLES_KEY = Option.COMPILER_SORT_SAMPLES.ini();
 
+    public static final String COMPILER_SORT_THREADS_KEY = Option.COMPILER_SORT_THREADS.ini();
+
+    public static final String COMPILER_DISTINCT_HASH_KEY = Option.COMPILER_DISTINCT_HASH.ini();
+
+    public static final String COMPILER_DISTINCT_DEDUP_KEY = Option.COMPILER_DISTINCT_DEDUP.ini();
+
+    public static final String COMPILER_JOIN_SKEW_KEY = Option.COMPILER_JOIN_SKEW.ini();
+
+    public static final String COMPILER_HASH_OPEN_ADDRESSING_KEY = Option.COMPILER_HASH_OPEN_ADDRESSING.ini();
+
+    public static final String COMPILER_GROUPBY_PASSTHROUGH_FRAMES_KEY =
+            Option.COMPILER_GROUPBY_PASSTHROUGH_FRAMES.ini();
+
+    public static final String COMPILER_GROUPBY_PASSTHROUGH_RATIO_KEY = Option.COMPILER_GROUPBY_PASSTHROUGH_RATIO.ini();
+
+    public static final String COMPILER_WINDOW_SLIDING_KEY = Option.COMPILER_WINDOW_SLIDING.ini();
+
     public static final String COMPILER_INDEXONLY_KEY = Option.COMPILER_INDEXONLY.ini();
 
+    public static final String COMPILER_CBO_KEY = Option.COMPILER_CBO.ini();
+
+    public static final String COMPILER_EXPRESSION_FUSION_KEY = Option.COMPILER_EXPRESSION_FUSION.ini();
+
+    public static final String COMPILER_SCAN_PROJECTION_KEY = Option.COMPILER_SCAN_PROJECTION.ini();
+
+    public static final String COMPILER_MEMORY_ESTIMATES_KEY = Option.COMPILER_MEMORY_ESTIMATES.ini();
+
+    public static final String COMPILER_DEPLOYED_QUERIES_KEY = Option.COMPILER_DEPLOYED_QUERIES.ini();
+
+    public static final String COMPILER_PLAN_CACHE_KEY = Option.COMPILER_PLAN_CACHE.ini();
+
+    public static final String COMPILER_FRAME_COMPRESSION_KEY = Option.COMPILER_FRAME_COMPRESSION.ini();
+
     public static final int COMPILER_PARALLELISM_AS_STORAGE = 0;
 
     public CompilerProperties(PropertiesAccessor accessor) {
@@ -165,7 +268,67 @@ public class CompilerProperties extends AbstractProperties {
         return accessor.getInt(Option.COMPILER_SORT_SAMPLES);
     }
 
+    public int getSortThreads() {
+        return accessor.getInt(Option.COMPILER_SORT_THREADS);
+    }
+
+    public boolean isHashDistinct() {
+        return accessor.getBoolean(Option.COMPILER_DISTINCT_HASH);
+    }
+
+    public boolean isDistinctDedup() {
+        return accessor.getBoolean(Option.COMPILER_DISTINCT_DEDUP);
+    }
+
+    public boolean isJoinSkew() {
+        return accessor.getBoolean(Option.COMPILER_JOIN_SKEW);
+    }
+
+    public boolean isHashOpenAddressing() {
+        return accessor.getBoolean(Option.COMPILER_HASH_OPEN_ADDRESSING);
+    }
+
+    public int getGroupByPassThroughFrames() {
+        return accessor.getInt(Option.COMPILER_GROUPBY_PASSTHROUGH_FRAMES);
+    }
+
+    public double getGroupByPassThroughRatio() {
+        return accessor.getDouble(Option.COMPILER_GROUPBY_PASSTHROUGH_RATIO);
+    }
+
+    public boolean isWindowSliding() {
+        return accessor.getBoolean(Option.COMPILER_WINDOW_SLIDING);
+    }
+
     public boolean isIndexOnly() {
         return accessor.getBoolean(Option.COMPILER_INDEXONLY);
     }
+
+    public boolean isCBO() {
+        return accessor.getBoolean(Option.COMPILER_CBO);
+    }
+
+    public boolean isExpressionFusion() {
+        return accessor.getBoolean(Option.COMPILER_EXPRESSION_FUSION);
+    }
+
+    public boolean isScanProjection() {
+        return accessor.getBoolean(Option.COMPILER_SCAN_PROJECTION);
+    }
+
+    public boolean isMemoryEstimates() {
+        return accessor.getBoolean(Option.COMPILER_MEMORY_ESTIMATES);
+    }
+
+    public int getDeployedQueries() {
+        return accessor.getInt(Option.COMPILER_DEPLOYED_QUERIES);
+    }
+
+    public boolean isPlanCache() {
+        return accessor.getBoolean(Option.COMPILER_PLAN_CACHE);
+    }
+
+    public boolean isFrameCompression() {
+        return accessor.getBoolean(Option.COMPILER_FRAME_COMPRESSION);
+    }
 }
@@ -58,8 +58,18 @@ public class OptimizationConfUtil {
                 compilerProperties.getWindowMemorySize(), frameSize, MIN_FRAME_LIMIT_FOR_WINDOW, sourceLoc);
         int textSearchFrameLimit = getTextSearchNumFrames(compilerProperties, querySpecificConfig, sourceLoc);
         int sortNumSamples = getSortSamples(compilerProperties, querySpecificConfig, sourceLoc);
+        int sortThreads = getSortThreads(compilerProperties, querySpecificConfig, sourceLoc);
         boolean fullParallelSort = getSortParallel(compilerProperties, querySpecificConfig);
+        boolean hashDistinct = isHashDistinct(compilerProperties, querySpecificConfig);
+        boolean distinctDedup = isDistinctDedup(compilerProperties, querySpecificConfig);
+        boolean joinSkew = isJoinSkew(compilerProperties, querySpecificConfig);
+        boolean openAddressing = isHashOpenAddressing(compilerProperties, querySpecificConfig);
+        int groupByPassThroughFrames = getGroupByPassThroughFrames(compilerProperties, querySpecificConfig, sourceLoc);
+        double groupByPassThroughRatio = getGroupByPassThroughRatio(compilerProperties, querySpecificConfig, sourceLoc);
+        boolean windowSliding = isWindowSliding(compilerProperties, querySpecificConfig);
         boolean indexOnly = isIndexOnly(compilerProperties, querySpecificConfig);
+        boolean cbo = isCBO(compilerProperties, querySpecificConfig);
+        boolean memoryEstimates = isMemoryEstimates(compilerProperties, querySpecificConfig);
 
         PhysicalOptimizationConfig physOptConf = new PhysicalOptimizationConfig();
         physOptConf.setFrameSize(frameSize);
@@ -70,7 +80,17 @@ public class OptimizationConfUtil {
         physOptConf.setMaxFramesForTextSearch(textSearchFrameLimit);
         physOptConf.setSortParallel(fullParallelSort);
         physOptConf.setSortSamples(sortNumSamples);
+        physOptConf.setSortThreads(sortThreads);
+        physOptConf.setHashDistinct(hashDistinct);
+        physOptConf.setDistinctDedup(distinctDedup);
+        physOptConf.setJoinSkew(joinSkew);
+        physOptConf.setOpenAddressing(openAddressing);
+        physOptConf.setGroupByPassThroughFrames(groupByPassThroughFrames);
+        physOptConf.setGroupByPassThroughRatio(groupByPassThroughRatio);
+        physOptConf.setWindowSliding(windowSliding);
         physOptConf.setIndexOnly(indexOnly);
+        physOptConf.setCBO(cbo);
+        physOptConf.setMemoryEstimates(memoryEstimates);
         return physOptConf;
     }
 
@@ -131,6 +151,96 @@ public class OptimizationConfUtil {
         }
     }
 
+    @SuppressWarnings("squid:S1166") // Either log or rethrow this exception
+    private static int getSortThreads(CompilerProperties compilerProperties, Map<String, Object> querySpecificConfig,
+            SourceLocation sourceLoc) throws AsterixException {
+        String valueInQuery = (String) querySpecificConfig.get(CompilerProperties.COMPILER_SORT_THREADS_KEY);
+        try {
+            return valueInQuery == null ? compilerProperties.getSortThreads()
+                    : OptionTypes.POSITIVE_INTEGER.parse(valueInQuery);
+        } catch (IllegalArgumentException e) {
+            throw AsterixException.create(ErrorCode.COMPILATION_BAD_QUERY_PARAMETER_VALUE, sourceLoc,
+                    CompilerProperties.COMPILER_SORT_THREADS_KEY, 1, "threads");
+        }
+    }
+
+    @SuppressWarnings("squid:S1166") // Either log or rethrow this exception
+    private static int getGroupByPassThroughFrames(CompilerProperties compilerProperties,
+            Map<String, Object> querySpecificConfig, SourceLocation sourceLoc) throws AsterixException {
+        String valueInQuery =
+                (String) querySpecificConfig.get(CompilerProperties.COMPILER_GROUPBY_PASSTHROUGH_FRAMES_KEY);
+        try {
+            return valueInQuery == null ? compilerProperties.getGroupByPassThroughFrames()
+                    : OptionTypes.UNSIGNED_INTEGER.parse(valueInQuery);
+        } catch (IllegalArgumentException e) {
+            throw AsterixException.create(ErrorCode.COMPILATION_BAD_QUERY_PARAMETER_VALUE, sourceLoc,
+                    CompilerProperties.COMPILER_GROUPBY_PASSTHROUGH_FRAMES_KEY, 0, "frames");
+        }
+    }
+
+    @SuppressWarnings("squid:S1166") // Either log or rethrow this exception
+    private static double getGroupByPassThroughRatio(CompilerProperties compilerProperties,
+            Map<String, Object> querySpecificConfig, SourceLocation sourceLoc) throws AsterixException {
+        String valueInQuery =
+                (String) querySpecificConfig.get(CompilerProperties.COMPILER_GROUPBY_PASSTHROUGH_RATIO_KEY);
+        double ratio;
+        try {
+            ratio = valueInQuery == null ? compilerProperties.getGroupByPassThroughRatio()
+                    : OptionTypes.DOUBLE.parse(valueInQuery);
+        } catch (IllegalArgumentException e) {
+            ratio = -1;
+        }
+        if (ratio < 0) {
+            throw AsterixException.create(ErrorCode.COMPILATION_BAD_QUERY_PARAMETER_VALUE, sourceLoc,
+                    CompilerProperties.COMPILER_GROUPBY_PASSTHROUGH_RATIO_KEY, 0, "groups per tuple");
+        }
+        return ratio;
+    }
+
+    private static boolean isHashDistinct(CompilerProperties compilerProperties,
+            Map<String, Object> querySpecificConfig) {
+        String valueInQuery = (String) querySpecificConfig.get(CompilerProperties.COMPILER_DISTINCT_HASH_KEY);
+        if (valueInQuery != null) {
+            return OptionTypes.BOOLEAN.parse(valueInQuery);
+        }
+        return compilerProperties.isHashDistinct();
+    }
+
+    private static boolean isDistinctDedup(CompilerProperties compilerProperties,
+            Map<String, Object> querySpecificConfig) {
+        String valueInQuery = (String) querySpecificConfig.get(CompilerProperties.COMPILER_DISTINCT_DEDUP_KEY);
+        if (valueInQuery != null) {
+            return OptionTypes.BOOLEAN.parse(valueInQuery);
+        }
+        return compilerProperties.isDistinctDedup();
+    }
+
+    private static boolean isJoinSkew(CompilerProperties compilerProperties, Map<String, Object> querySpecificConfig) {
+        String valueInQuery = (String) querySpecificConfig.get(CompilerProperties.COMPILER_JOIN_SKEW_KEY);
+        if (valueInQuery != null) {
+            return OptionTypes.BOOLEAN.parse(valueInQuery);
+        }
+        return compilerProperties.isJoinSkew();
+    }
+
+    private static boolean isHashOpenAddressing(CompilerProperties compilerProperties,
+            Map<String, Object> querySpecificConfig) {
+        String valueInQuery = (String) querySpecificConfig.get(CompilerProperties.COMPILER_HASH_OPEN_ADDRESSING_KEY);
+        if (valueInQuery != null) {
+            return OptionTypes.BOOLEAN.parse(valueInQuery);
+        }
+        return compilerProperties.isHashOpenAddressing();
+    }
+
+    private static boolean isWindowSliding(CompilerProperties compilerProperties,
+            Map<String, Object> querySpecificConfig) {
+        String valueInQuery = (String) querySpecificConfig.get(CompilerProperties.COMPILER_WINDOW_SLIDING_KEY);
+        if (valueInQuery != null) {
+            return OptionTypes.BOOLEAN.parse(valueInQuery);
+        }
+        return compilerProperties.isWindowSliding();
+    }
+
     private static boolean isIndexOnly(CompilerProperties compilerProperties, Map<String, Object> querySpecificConfig) {
         String valueInQuery = (String) querySpecificConfig.get(CompilerProperties.COMPILER_INDEXONLY_KEY);
         if (valueInQuery != null) {
@@ -138,4 +248,21 @@ public class OptimizationConfUtil {
         }
         return compilerProperties.isIndexOnly();
     }
+
+    private static boolean isCBO(CompilerProperties compilerProperties, Map<String, Object> querySpecificConfig) {
+        String valueInQuery = (String) querySpecificConfig.get(CompilerProperties.COMPILER_CBO_KEY);
+        if (valueInQuery != null) {
+            return OptionTypes.BOOLEAN.parse(valueInQuery);
+        }
+        return compilerProperties.isCBO();
+    }
+
+    private static boolean isMemoryEstimates(CompilerProperties compilerProperties,
+            Map<String, Object> querySpecificConfig) {
+        String valueInQuery = (String) querySpecificConfig.get(CompilerProperties.COMPILER_MEMORY_ESTIMATES_KEY);
+        if (valueInQuery != null) {
+            return OptionTypes.BOOLEAN.parse(valueInQuery);
+        }
+        return compilerProperties.isMemoryEstimates();
+    }
 }
@@ -18,6 +18,7 @@
  */
 package org.apache.asterix.common.config;
 
+import static org.apache.hyracks.control.common.config.OptionTypes.BOOLEAN;
 import static org.apache.hyracks.control.common.config.OptionTypes.DOUBLE;
 import static org.apache.hyracks.control.common.config.OptionTypes.INTEGER_BYTE_UNIT;
 import static org.apache.hyracks.control.common.config.OptionTypes.LONG_BYTE_UNIT;
@@ -39,6 +40,9 @@ import org.apache.hyracks.util.StorageUtil;
 
 public class StorageProperties extends AbstractProperties {
 
+    public static final String STORAGE_FORMAT_ROW = "row";
+    public static final String STORAGE_FORMAT_COLUMN = "column";
+
     public enum Option implements IOption {
         STORAGE_BUFFERCACHE_PAGESIZE(INTEGER_BYTE_UNIT, StorageUtil.getIntSizeInBytes(128, KILOBYTE)),
         // By default, uses 1/4 of the maximum heap size for read cache, i.e., disk buffer cache.
@@ -52,7 +56,9 @@ public class StorageProperties extends AbstractProperties {
         STORAGE_LSM_BLOOMFILTER_FALSEPOSITIVERATE(DOUBLE, 0.01d),
         STORAGE_COMPRESSION_BLOCK(STRING, "snappy"),
         STORAGE_DISK_FORCE_BYTES(LONG_BYTE_UNIT, StorageUtil.getLongSizeInBytes(16, MEGABYTE)),
-        STORAGE_IO_SCHEDULER(STRING, "greedy");
+        STORAGE_IO_SCHEDULER(STRING, "greedy"),
+        STORAGE_FORMAT(STRING, STORAGE_FORMAT_ROW),
+        STORAGE_STATISTICS(BOOLEAN, false);
 
         private final IOptionType interpreter;
         private final Object defaultValue;
@@ -97,6 +103,13 @@ public class StorageProperties extends AbstractProperties {
                     return "The number of bytes before each disk force (fsync)";
                 case STORAGE_IO_SCHEDULER:
                     return "The I/O scheduler for LSM flush and merge operations";
+                case STORAGE_FORMAT:
+                    return "The layout of the disk components of the primary indexes of new datasets (row or "
+                            + "column). The column layout stores the closed fields of the records of a leaf page in "
+                            + "columns";
+                case STORAGE_STATISTICS:
+                    return "Whether the disk components of the indexes of new datasets keep statistics of their "
+                            + "keys, collected when they are flushed or merged, for the query optimizer";
                 default:
                     throw new IllegalStateException("NYI: " + this);
             }
@@ -186,6 +199,14 @@ public class StorageProperties extends AbstractProperties {
         return accessor.getString(Option.STORAGE_IO_SCHEDULER);
     }
 
+    public boolean isColumnarStorageFormat() {
+        return STORAGE_FORMAT_COLUMN.equalsIgnoreCase(accessor.getString(Option.STORAGE_FORMAT));
+    }
+
+    public boolean isStatisticsEnabled() {
+        return accessor.getBoolean(Option.STORAGE_STATISTICS);
+    }
+
     protected int getMetadataDatasets() {
         return MetadataIndexImmutableProperties.METADATA_DATASETS_COUNT;
     }
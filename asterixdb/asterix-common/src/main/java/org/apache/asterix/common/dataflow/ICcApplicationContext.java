@@ -19,9 +19,11 @@
 package org.apache.asterix.common.dataflow;
 
 import org.apache.asterix.common.api.IApplicationContext;
+import org.apache.asterix.common.api.IDeployedQueryCache;
 import org.apache.asterix.common.api.IMetadataLockManager;
 import org.apache.asterix.common.api.INodeJobTracker;
 import org.apache.asterix.common.api.IRequestTracker;
+import org.apache.asterix.common.api.IStatisticsManager;
 import org.apache.asterix.common.cluster.IClusterStateManager;
 import org.apache.asterix.common.cluster.IGlobalRecoveryManager;
 import org.apache.asterix.common.config.ExtensionProperties;
@@ -133,4 +135,18 @@ public interface ICcApplicationContext extends IApplicationContext {
      * @return the request tracker.
      */
     IRequestTracker getRequestTracker();
+
+    /**
+     * Gets the cache of deployed queries.
+     *
+     * @return the deployed query cache.
+     */
+    IDeployedQueryCache getDeployedQueryCache();
+
+    /**
+     * Gets the manager of the statistics of the datasets.
+     *
+     * @return the statistics manager.
+     */
+    IStatisticsManager getStatisticsManager();
 }
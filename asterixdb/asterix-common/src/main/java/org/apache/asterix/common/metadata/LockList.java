@@ -26,7 +26,9 @@ import java.util.Map;
 import org.apache.asterix.common.exceptions.AsterixException;
 import org.apache.asterix.common.exceptions.ErrorCode;
 import org.apache.asterix.common.metadata.IMetadataLock.Mode;
+import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.MutablePair;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
 
 /**
@@ -100,6 +102,17 @@ public class LockList {
         pair.setRight(mode);
     }
 
+    /**
+     * @return a copy of the acquired locks and their modes, in the order they were acquired
+     */
+    public List<Pair<IMetadataLock, Mode>> getLocks() {
+        List<Pair<IMetadataLock, Mode>> acquired = new ArrayList<>(locks.size());
+        for (MutablePair<IMetadataLock, Mode> pair : locks) {
+            acquired.add(ImmutablePair.of(pair.getLeft(), pair.getRight()));
+        }
+        return acquired;
+    }
+
     /**
      * Once unlock() is called, no caller can call add(IMetadataLock.Mode mode, IMetadataLock lock),
      * except that reset() is called.
@@ -24,6 +24,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.BitSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.asterix.builders.AbvsBuilderFactory;
 import org.apache.asterix.builders.IARecordBuilder;
@@ -62,6 +63,9 @@ import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
 public class ADMDataParser extends AbstractDataParser implements IStreamDataParser, IRecordDataParser<char[]> {
     private AdmLexer admLexer;
     private final ARecordType recordType;
+    // the top-level fields to keep in the parsed records, null if all fields are kept
+    private final Set<String> projectedFields;
+    private boolean projectRecord;
 
     private final ArrayBackedValueStorage castBuffer = new ArrayBackedValueStorage();
 
@@ -82,8 +86,17 @@ public class ADMDataParser extends AbstractDataParser implements IStreamDataPars
     }
 
     public ADMDataParser(String filename, ARecordType recordType, boolean isStream) {
+        this(filename, recordType, isStream, null);
+    }
+
+    /**
+     * @param projectedFields the names of the top-level fields to keep. The other fields are still parsed and
+     *            validated but they are not written, and the parsed records are written as open records.
+     */
+    public ADMDataParser(String filename, ARecordType recordType, boolean isStream, Set<String> projectedFields) {
         this.filename = filename;
         this.recordType = recordType;
+        this.projectedFields = projectedFields;
         if (!isStream) {
             this.admLexer = new AdmLexer();
         }
@@ -126,7 +139,12 @@ public class ADMDataParser extends AbstractDataParser implements IStreamDataPars
         if (token == AdmLexer.TOKEN_EOF) {
             return false;
         } else {
-            admFromLexerStream(token, objectType, out);
+            projectRecord = projectedFields != null;
+            try {
+                admFromLexerStream(token, objectType, out);
+            } finally {
+                projectRecord = false;
+            }
             return true;
         }
     }
@@ -430,6 +448,14 @@ public class ADMDataParser extends AbstractDataParser implements IStreamDataPars
         ArrayBackedValueStorage fieldValueBuffer = getTempBuffer();
         ArrayBackedValueStorage fieldNameBuffer = getTempBuffer();
         IARecordBuilder recBuilder = getRecordBuilder();
+        // only the top-level record is projected
+        IARecordBuilder projectedRecBuilder = null;
+        if (projectRecord) {
+            projectRecord = false;
+            projectedRecBuilder = getRecordBuilder();
+            projectedRecBuilder.reset(null);
+            projectedRecBuilder.init();
+        }
 
         BitSet nulls = null;
         if (recType != null) {
@@ -465,9 +491,10 @@ public class ADMDataParser extends AbstractDataParser implements IStreamDataPars
                     fieldValueBuffer.reset();
                     expectingRecordField = false;
 
+                    String fldName = null;
                     if (recType != null) {
                         admLexer.getLastTokenImage(tmpTokenImage);
-                        String fldName = new String(tmpTokenImage.getBuffer(), tmpTokenImage.getBegin() + 1,
+                        fldName = new String(tmpTokenImage.getBuffer(), tmpTokenImage.getBegin() + 1,
                                 tmpTokenImage.getLength() - 2);
                         fieldId = recBuilder.getFieldId(fldName);
                         if ((fieldId < 0) && !recType.isOpen()) {
@@ -483,9 +510,18 @@ public class ADMDataParser extends AbstractDataParser implements IStreamDataPars
                             nulls.set(fieldId);
                             fieldType = recType.getFieldTypes()[fieldId];
                             openRecordField = false;
+                            if (projectedRecBuilder != null) {
+                                // the projected record is open, keep the name in case the field is projected
+                                parseString(tmpTokenImage.getBuffer(), tmpTokenImage.getBegin() + 1,
+                                        tmpTokenImage.getLength() - 2, fieldNameBuffer.getDataOutput());
+                            }
                         }
                     } else {
                         admLexer.getLastTokenImage(tmpTokenImage);
+                        if (projectedRecBuilder != null) {
+                            fldName = new String(tmpTokenImage.getBuffer(), tmpTokenImage.getBegin() + 1,
+                                    tmpTokenImage.getLength() - 2);
+                        }
                         parseString(tmpTokenImage.getBuffer(), tmpTokenImage.getBegin() + 1,
                                 tmpTokenImage.getLength() - 2, fieldNameBuffer.getDataOutput());
                         openRecordField = true;
@@ -500,7 +536,11 @@ public class ADMDataParser extends AbstractDataParser implements IStreamDataPars
 
                     token = admLexer.next();
                     this.admFromLexerStream(token, fieldType, fieldValueBuffer.getDataOutput());
-                    if (openRecordField) {
+                    if (projectedRecBuilder != null) {
+                        if (projectedFields.contains(fldName)) {
+                            projectedRecBuilder.addField(fieldNameBuffer, fieldValueBuffer);
+                        }
+                    } else if (openRecordField) {
                         recBuilder.addField(fieldNameBuffer, fieldValueBuffer);
                     } else {
                         recBuilder.addField(fieldId, fieldValueBuffer);
@@ -530,7 +570,11 @@ public class ADMDataParser extends AbstractDataParser implements IStreamDataPars
                         recType.getFieldNames()[nullableFieldId]);
             }
         }
-        recBuilder.write(out, true);
+        if (projectedRecBuilder != null) {
+            projectedRecBuilder.write(out, true);
+        } else {
+            recBuilder.write(out, true);
+        }
     }
 
     private int checkOptionalConstraints(ARecordType recType, BitSet nulls) {
@@ -22,6 +22,7 @@ import java.io.DataOutput;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.BitSet;
+import java.util.Set;
 
 import org.apache.asterix.builders.IARecordBuilder;
 import org.apache.asterix.builders.IAsterixListBuilder;
@@ -63,6 +64,8 @@ public class JSONDataParser extends AbstractNestedDataParser<ADMToken>
     protected final JsonFactory jsonFactory;
     protected final ARecordType rootType;
     protected final GeometryCoParser geometryCoParser;
+    // the top-level fields to keep in the parsed records, null if all fields are kept
+    protected final Set<String> projectedFields;
 
     protected JsonParser jsonParser;
 
@@ -75,12 +78,27 @@ public class JSONDataParser extends AbstractNestedDataParser<ADMToken>
      *            Jackson JSON parser factory.
      */
     public JSONDataParser(ARecordType recordType, JsonFactory jsonFactory) {
+        this(recordType, jsonFactory, null);
+    }
+
+    /**
+     * Initialize JSONDataParser with GeometryCoParser
+     *
+     * @param recordType
+     *            defined type.
+     * @param jsonFactory
+     *            Jackson JSON parser factory.
+     * @param projectedFields
+     *            the names of the top-level fields to keep, null to keep all of them.
+     */
+    public JSONDataParser(ARecordType recordType, JsonFactory jsonFactory, Set<String> projectedFields) {
         // recordType currently cannot be null, however this is to guarantee for any future changes.
         this.rootType = recordType != null ? recordType : RecordUtil.FULLY_OPEN_RECORD_TYPE;
         this.jsonFactory = jsonFactory;
         //GeometyCoParser to parse GeoJSON objects to AsterixDB internal spatial types.
         geometryCoParser = new GeometryCoParser(jsonParser);
         parserContext = new ParserContext();
+        this.projectedFields = projectedFields;
     }
 
     /*
@@ -96,7 +114,7 @@ public class JSONDataParser extends AbstractNestedDataParser<ADMToken>
             jsonParser = jsonFactory.createParser(record.get(), 0, record.size());
             geometryCoParser.reset(jsonParser);
             nextToken();
-            parseObject(rootType, out);
+            parseRootObject(out);
         } catch (IOException e) {
             throw new RuntimeDataException(ErrorCode.RECORD_READER_MALFORMED_INPUT_STREAM, e);
         }
@@ -122,7 +140,7 @@ public class JSONDataParser extends AbstractNestedDataParser<ADMToken>
             if (nextToken() == ADMToken.EOF) {
                 return false;
             }
-            parseObject(rootType, out);
+            parseRootObject(out);
             return true;
         } catch (IOException e) {
             throw new RuntimeDataException(ErrorCode.RECORD_READER_MALFORMED_INPUT_STREAM, e);
@@ -277,6 +295,55 @@ public class JSONDataParser extends AbstractNestedDataParser<ADMToken>
         objectBuilder.write(out, true);
     }
 
+    private void parseRootObject(DataOutput out) throws IOException {
+        if (projectedFields == null) {
+            parseObject(rootType, out);
+        } else {
+            parseProjectedObject(rootType, out);
+        }
+    }
+
+    /**
+     * Parses an object into an open object that only has the projected fields. The values of the other fields are
+     * skipped without being parsed, hence they are not type checked.
+     */
+    private void parseProjectedObject(ARecordType recordType, DataOutput out) throws IOException {
+        final IMutableValueStorage valueBuffer = parserContext.enterObject();
+        final IARecordBuilder objectBuilder = parserContext.getObjectBuilder(RecordUtil.FULLY_OPEN_RECORD_TYPE);
+        final BitSet nullBitMap = parserContext.getNullBitmap(recordType.getFieldTypes().length);
+        while (nextToken() != ADMToken.OBJECT_END) {
+            final String fieldName = jsonParser.getCurrentName();
+            final int fieldIndex = recordType.getFieldIndex(fieldName);
+            if (!recordType.isOpen() && fieldIndex < 0) {
+                throw new RuntimeDataException(ErrorCode.PARSER_ADM_DATA_PARSER_EXTRA_FIELD_IN_CLOSED_RECORD,
+                        fieldName);
+            }
+            nextToken();
+
+            IAType fieldType = BuiltinType.ANY;
+            if (fieldIndex >= 0) {
+                fieldType = recordType.getFieldTypes()[fieldIndex];
+                if (currentToken() == ADMToken.NULL && !isNullableType(fieldType)) {
+                    throw new RuntimeDataException(ErrorCode.PARSER_TWEET_PARSER_CLOSED_FIELD_NULL, fieldName);
+                }
+                nullBitMap.set(fieldIndex);
+            }
+            if (projectedFields.contains(fieldName)) {
+                valueBuffer.reset();
+                parseValue(fieldType, valueBuffer.getDataOutput());
+                objectBuilder.addField(parserContext.getSerializedFieldName(fieldName), valueBuffer);
+            } else {
+                jsonParser.skipChildren();
+            }
+        }
+
+        if (nullBitMap != null) {
+            checkOptionalConstraints(recordType, nullBitMap);
+        }
+        parserContext.exitObject(valueBuffer, nullBitMap, objectBuilder);
+        objectBuilder.write(out, true);
+    }
+
     /**
      * Geometry in GeoJSON is an object
      *
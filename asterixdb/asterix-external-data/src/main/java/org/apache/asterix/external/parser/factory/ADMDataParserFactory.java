@@ -38,13 +38,14 @@ public class ADMDataParserFactory extends AbstractRecordStreamParserFactory<char
             Collections.unmodifiableList(Arrays.asList("adm", "semi-structured"));
 
     @Override
-    public IRecordDataParser<char[]> createRecordParser(IHyracksTaskContext ctx) {
+    public IRecordDataParser<char[]> createRecordParser(IHyracksTaskContext ctx) throws HyracksDataException {
         return createParser();
     }
 
-    private ADMDataParser createParser() {
-        return new ADMDataParser(recordType,
-                ExternalDataUtils.getDataSourceType(configuration).equals(DataSourceType.STREAM));
+    private ADMDataParser createParser() throws HyracksDataException {
+        return new ADMDataParser(null, recordType,
+                ExternalDataUtils.getDataSourceType(configuration).equals(DataSourceType.STREAM),
+                ExternalDataUtils.getProjectedFields(configuration));
     }
 
     @Override
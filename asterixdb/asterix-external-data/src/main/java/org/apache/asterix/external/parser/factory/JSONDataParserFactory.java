@@ -28,6 +28,7 @@ import org.apache.asterix.external.api.IRecordDataParser;
 import org.apache.asterix.external.api.IStreamDataParser;
 import org.apache.asterix.external.parser.JSONDataParser;
 import org.apache.asterix.external.util.ExternalDataConstants;
+import org.apache.asterix.external.util.ExternalDataUtils;
 import org.apache.asterix.om.types.AOrderedListType;
 import org.apache.asterix.om.types.ARecordType;
 import org.apache.asterix.om.types.ATypeTag;
@@ -84,7 +85,7 @@ public class JSONDataParserFactory extends AbstractRecordStreamParserFactory<cha
     }
 
     private JSONDataParser createParser() throws HyracksDataException {
-        return new JSONDataParser(recordType, jsonFactory);
+        return new JSONDataParser(recordType, jsonFactory, ExternalDataUtils.getProjectedFields(configuration));
     }
 
     /*
@@ -90,6 +90,8 @@ public class ExternalDataConstants {
     public static final String KEY_IS_INSERT_FEED = "insert-feed";
     // an integer representing the number of keys in a change feed
     public static final String KEY_KEY_SIZE = "key-size";
+    // a JSON array with the names of the top-level fields to keep in the parsed records, all fields are kept if absent
+    public static final String KEY_PROJECTED_FIELDS = "projected-fields";
     // a boolean indicating whether the feed produces records with metadata
     public static final String FORMAT_RECORD_WITH_METADATA = "record-with-metadata";
     // a string representing the format of the record (for adapters which produces records with additional information like pk or metadata)
@@ -18,8 +18,13 @@
  */
 package org.apache.asterix.external.util;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.asterix.common.exceptions.AsterixException;
 import org.apache.asterix.common.exceptions.ErrorCode;
@@ -42,6 +47,9 @@ import org.apache.hyracks.dataflow.common.data.parsers.IntegerParserFactory;
 import org.apache.hyracks.dataflow.common.data.parsers.LongParserFactory;
 import org.apache.hyracks.dataflow.common.data.parsers.UTF8StringParserFactory;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 public class ExternalDataUtils {
 
     // Get a delimiter from the given configuration
@@ -160,6 +168,43 @@ public class ExternalDataUtils {
         }
     }
 
+    /**
+     * @return true if the parser of the given configuration can drop the fields that are not in
+     *         {@link ExternalDataConstants#KEY_PROJECTED_FIELDS}
+     */
+    public static boolean supportsProjection(Map<String, String> configuration) {
+        String format = getRecordFormat(configuration);
+        return ExternalDataConstants.FORMAT_ADM.equals(format)
+                || ExternalDataConstants.FORMAT_SEMISTRUCTURED.equals(format)
+                || ExternalDataConstants.FORMAT_JSON_LOWER_CASE.equals(format)
+                || ExternalDataConstants.FORMAT_JSON_UPPER_CASE.equals(format);
+    }
+
+    public static void setProjectedFields(Map<String, String> configuration, Collection<String> fieldNames)
+            throws HyracksDataException {
+        try {
+            configuration.put(ExternalDataConstants.KEY_PROJECTED_FIELDS,
+                    new ObjectMapper().writeValueAsString(fieldNames));
+        } catch (JsonProcessingException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    /**
+     * @return the names of the top-level fields to keep in the parsed records, or null if all fields are needed
+     */
+    public static Set<String> getProjectedFields(Map<String, String> configuration) throws HyracksDataException {
+        String projectedFields = configuration.get(ExternalDataConstants.KEY_PROJECTED_FIELDS);
+        if (projectedFields == null) {
+            return null;
+        }
+        try {
+            return new HashSet<>(Arrays.asList(new ObjectMapper().readValue(projectedFields, String[].class)));
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
     private static Map<ATypeTag, IValueParserFactory> valueParserFactoryMap = initializeValueParserFactoryMap();
 
     private static Map<ATypeTag, IValueParserFactory> initializeValueParserFactoryMap() {
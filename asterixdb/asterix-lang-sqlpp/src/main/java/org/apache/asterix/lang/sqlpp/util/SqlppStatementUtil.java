@@ -165,4 +165,57 @@ public class SqlppStatementUtil {
     public static String quote(String text) {
         return QUOTE + text + QUOTE;
     }
+
+    /**
+     * Normalizes the text of a statement so that statements that only differ in their formatting have the same text.
+     * Comments are removed and runs of white space are replaced by a single space outside of string literals and
+     * delimited identifiers. Hints, i.e. comments that start with {@code /*+}, are kept since they change the plan.
+     *
+     * @param statement the text of a statement
+     * @return the normalized text
+     */
+    public static String normalize(String statement) {
+        StringBuilder sb = new StringBuilder(statement.length());
+        int length = statement.length();
+        boolean space = false;
+        int i = 0;
+        while (i < length) {
+            char c = statement.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = true;
+                i++;
+                continue;
+            }
+            int end;
+            if (c == '\'' || c == QUOTE || c == BACK_TICK) {
+                end = i + 1;
+                while (end < length && statement.charAt(end) != c) {
+                    end += statement.charAt(end) == '\\' ? 2 : 1;
+                }
+                end = Math.min(end + 1, length);
+            } else if (statement.startsWith("--", i) || statement.startsWith("//", i)) {
+                end = statement.indexOf('\n', i);
+                i = end < 0 ? length : end;
+                space = true;
+                continue;
+            } else if (statement.startsWith("/*", i)) {
+                end = statement.indexOf("*/", i + 2);
+                end = end < 0 ? length : end + 2;
+                if (!statement.startsWith("/*+", i)) {
+                    i = end;
+                    space = true;
+                    continue;
+                }
+            } else {
+                end = i + 1;
+            }
+            if (space && sb.length() > 0) {
+                sb.append(' ');
+            }
+            space = false;
+            sb.append(statement, i, end);
+            i = end;
+        }
+        return sb.toString();
+    }
 }
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.lang.sqlpp.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SqlppStatementUtilTest {
+
+    @Test
+    public void testNormalizeWhiteSpace() {
+        Assert.assertEquals("SELECT VALUE x FROM ds x WHERE x.id = $1;",
+                SqlppStatementUtil.normalize("  SELECT VALUE x\n\tFROM   ds x\r\n WHERE x.id = $1; \n"));
+    }
+
+    @Test
+    public void testNormalizeComments() {
+        Assert.assertEquals("SELECT VALUE x FROM ds x WHERE x.id = ?;",
+                SqlppStatementUtil.normalize("-- find x\nSELECT VALUE x /* all of it */ FROM ds x // by id\n"
+                        + "WHERE x.id = ?;"));
+        Assert.assertEquals("SELECT 1", SqlppStatementUtil.normalize("SELECT 1 /* unterminated;"));
+    }
+
+    @Test
+    public void testNormalizeKeepsHints() {
+        Assert.assertEquals("SELECT VALUE x FROM ds x, ds y WHERE x.id /*+ hash */ = y.id;",
+                SqlppStatementUtil.normalize("SELECT VALUE x FROM ds x, ds y WHERE x.id   /*+ hash */ =  y.id;"));
+    }
+
+    @Test
+    public void testNormalizeKeepsLiterals() {
+        String statement = "SELECT VALUE 'a  -- b' || \"/* c */\" || `d  e` || 'it\\'s  //';";
+        Assert.assertEquals(statement, SqlppStatementUtil.normalize(statement));
+        Assert.assertNotEquals(SqlppStatementUtil.normalize("SELECT 'a  b';"),
+                SqlppStatementUtil.normalize("SELECT 'a b';"));
+    }
+}
@@ -24,6 +24,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.asterix.common.config.MetadataProperties;
 import org.apache.asterix.common.dataflow.ICcApplicationContext;
@@ -98,6 +99,8 @@ import org.apache.logging.log4j.Logger;
 public abstract class MetadataManager implements IMetadataManager {
     private static final Logger LOGGER = LogManager.getLogger();
     private final MetadataCache cache = new MetadataCache();
+    // incremented whenever a transaction that modified the metadata commits
+    private final AtomicLong version = new AtomicLong();
     protected final Collection<IAsterixStateProxy> proxies;
     protected IMetadataNode metadataNode;
     protected boolean rebindMetadataNode = false;
@@ -139,8 +142,12 @@ public abstract class MetadataManager implements IMetadataManager {
     @Override
     public void commitTransaction(MetadataTransactionContext ctx) {
         try {
+            boolean modified = ctx.isModified();
             metadataNode.commitTransaction(ctx.getTxnId());
             cache.commit(ctx);
+            if (modified) {
+                version.incrementAndGet();
+            }
         } catch (Throwable th) {
             // Metadata node should abort all transactions on re-joining the new CC
             LOGGER.fatal("Failure committing a metadata transaction", th);
@@ -148,6 +155,11 @@ public abstract class MetadataManager implements IMetadataManager {
         }
     }
 
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
     @SuppressWarnings("squid:S1181")
     @Override
     public void abortTransaction(MetadataTransactionContext ctx) {
@@ -883,6 +895,7 @@ public abstract class MetadataManager implements IMetadataManager {
         } catch (RemoteException e) {
             throw new MetadataException(ErrorCode.REMOTE_EXCEPTION_WHEN_CALLING_METADATA_NODE, e);
         }
+        ctx.setModified();
     }
 
     @Override
@@ -893,6 +906,7 @@ public abstract class MetadataManager implements IMetadataManager {
         } catch (RemoteException e) {
             throw new MetadataException(ErrorCode.REMOTE_EXCEPTION_WHEN_CALLING_METADATA_NODE, e);
         }
+        ctx.setModified();
     }
 
     @Override
@@ -914,6 +928,7 @@ public abstract class MetadataManager implements IMetadataManager {
         } catch (RemoteException e) {
             throw new MetadataException(ErrorCode.REMOTE_EXCEPTION_WHEN_CALLING_METADATA_NODE, e);
         }
+        ctx.setModified();
     }
 
     @Override
@@ -924,6 +939,7 @@ public abstract class MetadataManager implements IMetadataManager {
         } catch (RemoteException e) {
             throw new MetadataException(ErrorCode.REMOTE_EXCEPTION_WHEN_CALLING_METADATA_NODE, e);
         }
+        ctx.setModified();
     }
 
     @Override
@@ -955,6 +971,7 @@ public abstract class MetadataManager implements IMetadataManager {
         } catch (RemoteException e) {
             throw new MetadataException(ErrorCode.REMOTE_EXCEPTION_WHEN_CALLING_METADATA_NODE, e);
         }
+        mdTxnCtx.setModified();
     }
 
     @Override
@@ -977,6 +994,7 @@ public abstract class MetadataManager implements IMetadataManager {
         } catch (RemoteException e) {
             throw new MetadataException(ErrorCode.REMOTE_EXCEPTION_WHEN_CALLING_METADATA_NODE, e);
         }
+        mdTxnCtx.setModified();
     }
 
     @Override
@@ -987,6 +1005,7 @@ public abstract class MetadataManager implements IMetadataManager {
         } catch (RemoteException e) {
             throw new MetadataException(ErrorCode.REMOTE_EXCEPTION_WHEN_CALLING_METADATA_NODE, e);
         }
+        mdTxnCtx.setModified();
     }
 
     @Override
@@ -997,6 +1016,7 @@ public abstract class MetadataManager implements IMetadataManager {
         } catch (RemoteException e) {
             throw new MetadataException(ErrorCode.REMOTE_EXCEPTION_WHEN_CALLING_METADATA_NODE, e);
         }
+        mdTxnCtx.setModified();
     }
 
     @Override
@@ -71,6 +71,8 @@ public class MetadataTransactionContext extends MetadataCache {
 
     protected ArrayList<MetadataLogicalOperation> opLog = new ArrayList<>();
     private final TxnId txnId;
+    // set when the transaction modifies metadata entities that are not cached, e.g. synonyms
+    private boolean modified;
 
     public MetadataTransactionContext(TxnId txnId) {
         this.txnId = txnId;
@@ -217,6 +219,17 @@ public class MetadataTransactionContext extends MetadataCache {
         return droppedCache.getFunction(functionSignature) != null;
     }
 
+    public void setModified() {
+        modified = true;
+    }
+
+    /**
+     * @return true if the transaction modified any metadata entity
+     */
+    public boolean isModified() {
+        return modified || !opLog.isEmpty();
+    }
+
     public List<MetadataLogicalOperation> getOpLog() {
         return opLog;
     }
@@ -254,5 +267,6 @@ public class MetadataTransactionContext extends MetadataCache {
         super.clear();
         droppedCache.clear();
         opLog.clear();
+        modified = false;
     }
 }
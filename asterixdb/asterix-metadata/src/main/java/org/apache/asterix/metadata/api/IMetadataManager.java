@@ -87,6 +87,12 @@ public interface IMetadataManager extends IMetadataBootstrap {
      */
     void abortTransaction(MetadataTransactionContext ctx) throws ACIDException, RemoteException;
 
+    /**
+     * @return a number that is incremented whenever a transaction that modified the metadata commits. It can be used
+     *         to find out whether anything derived from the metadata, e.g. a compiled job, might be stale.
+     */
+    long getVersion();
+
     /**
      * Inserts a new dataverse into the metadata.
      *
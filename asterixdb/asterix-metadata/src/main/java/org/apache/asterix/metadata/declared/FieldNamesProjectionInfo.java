@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.metadata.declared;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.hyracks.algebricks.core.algebra.metadata.IProjectionInfo;
+
+/**
+ * The names of the top-level fields of the scanned records that are needed by a query.
+ */
+public class FieldNamesProjectionInfo implements IProjectionInfo<Set<String>> {
+    private final Set<String> fieldNames;
+
+    public FieldNamesProjectionInfo(Set<String> fieldNames) {
+        this.fieldNames = Collections.unmodifiableSet(new TreeSet<>(fieldNames));
+    }
+
+    @Override
+    public Set<String> getProjectionInfo() {
+        return fieldNames;
+    }
+
+    @Override
+    public FieldNamesProjectionInfo createCopy() {
+        return new FieldNamesProjectionInfo(fieldNames);
+    }
+
+    @Override
+    public int hashCode() {
+        return fieldNames.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof FieldNamesProjectionInfo)) {
+            return false;
+        }
+        return fieldNames.equals(((FieldNamesProjectionInfo) object).fieldNames);
+    }
+
+    @Override
+    public String toString() {
+        return fieldNames.toString();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.metadata.entities;
+
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.asterix.common.metadata.DataverseName;
+import org.apache.hyracks.storage.am.lsm.common.statistics.ComponentStatistics;
+import org.apache.hyracks.storage.am.lsm.common.statistics.FieldStatistics;
+
+/**
+ * The statistics of a dataset and of its secondary indexes as seen by the compiler. They are aggregated from the
+ * statistics the disk components of its indexes keep (see {@link ComponentStatistics}) over all the partitions of the
+ * dataset, so they are not stored in a metadata dataset and are not cached with the other metadata entities.
+ */
+public class DatasetStatistics {
+
+    public static final long UNKNOWN = -1L;
+
+    private final DataverseName dataverseName;
+    private final String datasetName;
+    private final Map<String, ComponentStatistics> indexStatistics;
+
+    public DatasetStatistics(DataverseName dataverseName, String datasetName,
+            Map<String, ComponentStatistics> indexStatistics) {
+        this.dataverseName = Objects.requireNonNull(dataverseName);
+        this.datasetName = Objects.requireNonNull(datasetName);
+        this.indexStatistics = Objects.requireNonNull(indexStatistics);
+    }
+
+    public DataverseName getDataverseName() {
+        return dataverseName;
+    }
+
+    public String getDatasetName() {
+        return datasetName;
+    }
+
+    /**
+     * @return the statistics of the key fields of an index or null if the index has none
+     */
+    public ComponentStatistics getIndexStatistics(String indexName) {
+        return indexStatistics.get(indexName);
+    }
+
+    /**
+     * @return the estimated number of records of the dataset or {@link #UNKNOWN}. Older versions of updated and
+     *         deleted records remain in the disk components until they are merged away, so the number of tuples of
+     *         the primary index is capped by its number of distinct keys.
+     */
+    public long getCardinality() {
+        ComponentStatistics primary = indexStatistics.get(datasetName);
+        if (primary == null) {
+            return UNKNOWN;
+        }
+        long liveTuples = Math.max(0, primary.getTupleCount() - primary.getAntimatterCount());
+        return Math.min(liveTuples, primary.getDistinctKeyCount());
+    }
+
+    /**
+     * @return the estimated number of distinct non-null values of a key field of an index or {@link #UNKNOWN}
+     */
+    public long getDistinctCount(String indexName, int field) {
+        FieldStatistics fieldStatistics = getFieldStatistics(indexName, field);
+        return fieldStatistics == null ? UNKNOWN : fieldStatistics.getDistinctCount();
+    }
+
+    /**
+     * @return the number of null and missing values of a key field of an index or {@link #UNKNOWN}
+     */
+    public long getUnknownCount(String indexName, int field) {
+        FieldStatistics fieldStatistics = getFieldStatistics(indexName, field);
+        return fieldStatistics == null ? UNKNOWN
+                : fieldStatistics.getNullCount() + fieldStatistics.getMissingCount();
+    }
+
+    private FieldStatistics getFieldStatistics(String indexName, int field) {
+        ComponentStatistics statistics = indexStatistics.get(indexName);
+        return statistics == null || field >= statistics.getFieldCount() ? null : statistics.getField(field);
+    }
+
+    @Override
+    public String toString() {
+        return "statistics of " + dataverseName + "." + datasetName + ": " + indexStatistics.keySet();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.metadata.utils;
+
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IJsonSerializable;
+import org.apache.hyracks.api.io.IPersistedResourceRegistry;
+import org.apache.hyracks.storage.am.lsm.common.statistics.IStatisticsValueClassifier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Tells null and missing index keys apart by their type tag.
+ */
+public class AStatisticsValueClassifier implements IStatisticsValueClassifier {
+
+    private static final long serialVersionUID = 1L;
+    public static final AStatisticsValueClassifier INSTANCE = new AStatisticsValueClassifier();
+
+    private AStatisticsValueClassifier() {
+    }
+
+    @Override
+    public boolean isNull(byte[] bytes, int start, int length) {
+        return length > 0 && bytes[start] == ATypeTag.SERIALIZED_NULL_TYPE_TAG;
+    }
+
+    @Override
+    public boolean isMissing(byte[] bytes, int start, int length) {
+        return length > 0 && bytes[start] == ATypeTag.SERIALIZED_MISSING_TYPE_TAG;
+    }
+
+    @Override
+    public JsonNode toJson(IPersistedResourceRegistry registry) throws HyracksDataException {
+        return registry.getClassIdentifier(getClass(), serialVersionUID);
+    }
+
+    @SuppressWarnings("squid:S1172") // unused parameter
+    public static IJsonSerializable fromJson(IPersistedResourceRegistry registry, JsonNode json) {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.dataflow.data.nontagged.column;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.asterix.dataflow.data.nontagged.serde.AInt32SerializerDeserializer;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.utils.NonTaggedFormatUtil;
+import org.apache.asterix.om.utils.RecordUtil;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.storage.am.common.api.IColumnShredder;
+
+/**
+ * Splits a serialized record of a known type into the columns [header, closed field 0, ..., closed field n - 1,
+ * open part]. The header is everything that precedes the closed field offsets (tag, length, open part offset,
+ * number of closed fields and null bitmap). A closed field that is null or missing gets an empty column value since
+ * its state is kept in the null bitmap of the header. The closed field offsets are not stored, they are recomputed
+ * when the record is assembled.
+ * A record can also be assembled from a subset of its columns (see {@link #getColumnMask(ARecordType, int[])}): the
+ * closed fields that are left out are empty and the open part of an expanded record has no fields.
+ */
+public class ARecordColumnShredder implements IColumnShredder {
+    private static final int HEADER_COLUMN = 0;
+    // tag (1) + record length (4)
+    private static final int LENGTH_OFFSET = 1;
+    private static final int EXPANDED_OFFSET = 5;
+    private static final int OPEN_PART_OFFSET_OFFSET = 6;
+
+    private final boolean isOpen;
+    private final int numberOfSchemaFields;
+    private final int nullBitmapSize;
+    private final int openColumn;
+    // (offset << 32 | field id) of the present closed fields, sorted to find where each value ends
+    private final long[] sortedOffsets;
+
+    public ARecordColumnShredder(ARecordType recordType) {
+        isOpen = recordType.isOpen();
+        numberOfSchemaFields = recordType.getFieldTypes().length;
+        nullBitmapSize = RecordUtil.computeNullBitmapSize(NonTaggedFormatUtil.hasOptionalField(recordType), recordType);
+        openColumn = numberOfSchemaFields + 1;
+        sortedOffsets = new long[numberOfSchemaFields];
+    }
+
+    /**
+     * Computes the columns needed to read some of the top-level fields of a record: the header, the column of each
+     * closed field and the open part if any of the fields is not closed.
+     *
+     * @param recordType
+     *            the record type the shredder was created with
+     * @param closedFieldIds
+     *            the position of each field in the closed part of the record, -1 if the field is not closed
+     * @return one flag per column, set for the columns to read
+     */
+    public static boolean[] getColumnMask(ARecordType recordType, int[] closedFieldIds) {
+        int numberOfSchemaFields = recordType.getFieldTypes().length;
+        boolean[] mask = new boolean[numberOfSchemaFields + 2];
+        mask[HEADER_COLUMN] = true;
+        for (int fieldId : closedFieldIds) {
+            if (fieldId >= 0) {
+                mask[fieldId + 1] = true;
+            } else if (recordType.isOpen()) {
+                mask[numberOfSchemaFields + 1] = true;
+            }
+        }
+        return mask;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return numberOfSchemaFields + 2;
+    }
+
+    @Override
+    public void shred(byte[] bytes, int start, int length, IPointable[] columns) throws HyracksDataException {
+        if (length == 0 || bytes[start] != ATypeTag.SERIALIZED_RECORD_TYPE_TAG) {
+            // not a record of the dataset type (e.g. null), keep it as is
+            columns[HEADER_COLUMN].set(bytes, start, length);
+            for (int i = 1; i < columns.length; i++) {
+                columns[i].set(bytes, start, 0);
+            }
+            return;
+        }
+        int recordEnd = start + AInt32SerializerDeserializer.getInt(bytes, start + LENGTH_OFFSET);
+        boolean isExpanded = isOpen && bytes[start + EXPANDED_OFFSET] == 1;
+        int openPartStart =
+                isExpanded ? start + AInt32SerializerDeserializer.getInt(bytes, start + OPEN_PART_OFFSET_OFFSET)
+                        : recordEnd;
+        int headerLength = getHeaderLength(isExpanded);
+        int nullBitmapStart = start + headerLength - nullBitmapSize;
+        int fieldOffsetsStart = start + headerLength;
+
+        columns[HEADER_COLUMN].set(bytes, start, headerLength);
+        int numberOfPresentFields = 0;
+        for (int i = 0; i < numberOfSchemaFields; i++) {
+            columns[i + 1].set(bytes, start, 0);
+            if (isPresent(bytes, nullBitmapStart, i)) {
+                long fieldOffset = AInt32SerializerDeserializer.getInt(bytes, fieldOffsetsStart + 4 * i);
+                sortedOffsets[numberOfPresentFields++] = fieldOffset << 32 | i;
+            }
+        }
+        Arrays.sort(sortedOffsets, 0, numberOfPresentFields);
+        for (int i = 0; i < numberOfPresentFields; i++) {
+            int fieldStart = start + (int) (sortedOffsets[i] >>> 32);
+            int fieldEnd = i + 1 < numberOfPresentFields ? start + (int) (sortedOffsets[i + 1] >>> 32) : openPartStart;
+            columns[(int) sortedOffsets[i] + 1].set(bytes, fieldStart, fieldEnd - fieldStart);
+        }
+        columns[openColumn].set(bytes, openPartStart, recordEnd - openPartStart);
+    }
+
+    @Override
+    public void assemble(IPointable[] columns, DataOutput out) throws HyracksDataException {
+        IPointable header = columns[HEADER_COLUMN];
+        byte[] headerBytes = header.getByteArray();
+        int headerStart = header.getStartOffset();
+        try {
+            if (header.getLength() == 0 || headerBytes[headerStart] != ATypeTag.SERIALIZED_RECORD_TYPE_TAG) {
+                out.write(headerBytes, headerStart, header.getLength());
+                return;
+            }
+            boolean isExpanded = isOpen && headerBytes[headerStart + EXPANDED_OFFSET] == 1;
+            int closedPartLength = 0;
+            for (int i = 1; i <= numberOfSchemaFields; i++) {
+                closedPartLength += columns[i].getLength();
+            }
+            int closedPartStart = header.getLength() + 4 * numberOfSchemaFields;
+            int openPartOffset = closedPartStart + closedPartLength;
+            IPointable openPart = columns[openColumn];
+            // an expanded record always has the number of open fields, the open column is empty if it was not read
+            boolean hasOpenFields = openPart.getLength() > 0;
+            int recordLength = openPartOffset + (isExpanded && !hasOpenFields ? 4 : openPart.getLength());
+
+            out.writeByte(ATypeTag.SERIALIZED_RECORD_TYPE_TAG);
+            out.writeInt(recordLength);
+            int headerPos = headerStart + EXPANDED_OFFSET;
+            int oldOpenPartOffset = 0;
+            if (isExpanded) {
+                oldOpenPartOffset =
+                        AInt32SerializerDeserializer.getInt(headerBytes, headerStart + OPEN_PART_OFFSET_OFFSET);
+                out.writeByte(1);
+                out.writeInt(openPartOffset);
+                headerPos = headerStart + OPEN_PART_OFFSET_OFFSET + 4;
+            }
+            out.write(headerBytes, headerPos, headerStart + header.getLength() - headerPos);
+
+            // null and missing fields are marked in the null bitmap, their offset is never read
+            int fieldOffset = closedPartStart;
+            for (int i = 1; i <= numberOfSchemaFields; i++) {
+                out.writeInt(fieldOffset);
+                fieldOffset += columns[i].getLength();
+            }
+            for (int i = 1; i <= numberOfSchemaFields; i++) {
+                out.write(columns[i].getByteArray(), columns[i].getStartOffset(), columns[i].getLength());
+            }
+
+            if (isExpanded && !hasOpenFields) {
+                out.writeInt(0);
+            } else if (isExpanded) {
+                // the open field offsets are relative to the record start, shift them to the new open part
+                byte[] openBytes = openPart.getByteArray();
+                int openStart = openPart.getStartOffset();
+                int delta = openPartOffset - oldOpenPartOffset;
+                int numberOfOpenFields = AInt32SerializerDeserializer.getInt(openBytes, openStart);
+                out.writeInt(numberOfOpenFields);
+                int pos = openStart + 4;
+                for (int i = 0; i < numberOfOpenFields; i++, pos += 8) {
+                    out.writeInt(AInt32SerializerDeserializer.getInt(openBytes, pos));
+                    out.writeInt(AInt32SerializerDeserializer.getInt(openBytes, pos + 4) + delta);
+                }
+                out.write(openBytes, pos, openStart + openPart.getLength() - pos);
+            }
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    private int getHeaderLength(boolean isExpanded) {
+        int headerLength = 5;
+        if (isOpen) {
+            headerLength += isExpanded ? 5 : 1;
+        }
+        if (numberOfSchemaFields > 0) {
+            headerLength += 4 + nullBitmapSize;
+        }
+        return headerLength;
+    }
+
+    private boolean isPresent(byte[] bytes, int nullBitmapStart, int fieldId) {
+        if (nullBitmapSize == 0) {
+            return true;
+        }
+        byte nullMissingBits = bytes[nullBitmapStart + fieldId / 4];
+        return !RecordUtil.isNull(nullMissingBits, fieldId) && !RecordUtil.isMissing(nullMissingBits, fieldId);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.dataflow.data.nontagged.projection;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.asterix.builders.RecordBuilder;
+import org.apache.asterix.dataflow.data.nontagged.column.ARecordColumnShredder;
+import org.apache.asterix.dataflow.data.nontagged.serde.ARecordSerializerDeserializer;
+import org.apache.asterix.formats.nontagged.BinaryComparatorFactoryProvider;
+import org.apache.asterix.formats.nontagged.BinaryHashFunctionFactoryProvider;
+import org.apache.asterix.om.pointables.nonvisitor.ARecordPointable;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.EnumDeserializer;
+import org.apache.asterix.om.utils.NonTaggedFormatUtil;
+import org.apache.asterix.om.utils.RecordUtil;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunction;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.common.api.IColumnarTupleReference;
+import org.apache.hyracks.storage.am.common.api.ITupleProjector;
+import org.apache.hyracks.util.string.UTF8StringWriter;
+
+/**
+ * Replaces the record of a tuple with an open record that only contains the projected top-level fields of the
+ * original record. Closed fields are looked up by their position in the record type and open fields by name, the
+ * other fields of the tuple are copied as they are. When the record is stored in columns
+ * (see {@link ARecordColumnShredder}), only the columns of the projected fields are read.
+ */
+class ARecordTupleProjector implements ITupleProjector {
+    private final ARecordType recordType;
+    private final int recordField;
+    // the position of each projected field in the closed part of the record, -1 if the field is not closed
+    private final int[] closedFieldIds;
+    private final ArrayBackedValueStorage[] fieldNames;
+    private final boolean[] columnMask;
+    private final VoidPointable recordValue = new VoidPointable();
+    private final RecordBuilder recordBuilder = new RecordBuilder();
+    private final ARecordPointable recordPointable = ARecordPointable.FACTORY.createPointable();
+    private final ArrayBackedValueStorage fieldValue = new ArrayBackedValueStorage();
+    private final VoidPointable openFieldValue = new VoidPointable();
+    private final IBinaryHashFunction fieldNameHashFunction =
+            BinaryHashFunctionFactoryProvider.UTF8STRING_POINTABLE_INSTANCE.createBinaryHashFunction();
+    private final IBinaryComparator fieldNameComparator =
+            BinaryComparatorFactoryProvider.UTF8STRING_POINTABLE_INSTANCE.createBinaryComparator();
+
+    ARecordTupleProjector(ARecordType recordType, int recordField, String[] projectedFieldNames)
+            throws HyracksDataException {
+        this.recordType = recordType;
+        this.recordField = recordField;
+        closedFieldIds = new int[projectedFieldNames.length];
+        fieldNames = new ArrayBackedValueStorage[projectedFieldNames.length];
+        UTF8StringWriter utf8Writer = new UTF8StringWriter();
+        try {
+            for (int i = 0; i < projectedFieldNames.length; i++) {
+                closedFieldIds[i] = recordType.getFieldIndex(projectedFieldNames[i]);
+                fieldNames[i] = new ArrayBackedValueStorage();
+                DataOutput out = fieldNames[i].getDataOutput();
+                out.writeByte(ATypeTag.SERIALIZED_STRING_TYPE_TAG);
+                utf8Writer.writeUTF8(projectedFieldNames[i], out);
+            }
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        columnMask = ARecordColumnShredder.getColumnMask(recordType, closedFieldIds);
+    }
+
+    @Override
+    public void project(ITupleReference tuple, ArrayTupleBuilder tb) throws HyracksDataException {
+        DataOutput dos = tb.getDataOutput();
+        try {
+            for (int i = 0; i < tuple.getFieldCount(); i++) {
+                if (i == recordField && tuple instanceof IColumnarTupleReference) {
+                    ((IColumnarTupleReference) tuple).getFieldColumns(i, columnMask, recordValue);
+                    writeProjectedRecord(recordValue.getByteArray(), recordValue.getStartOffset(),
+                            recordValue.getLength(), dos);
+                } else if (i == recordField) {
+                    writeProjectedRecord(tuple.getFieldData(i), tuple.getFieldStart(i), tuple.getFieldLength(i),
+                            dos);
+                } else {
+                    dos.write(tuple.getFieldData(i), tuple.getFieldStart(i), tuple.getFieldLength(i));
+                }
+                tb.addFieldEndOffset();
+            }
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    private void writeProjectedRecord(byte[] data, int start, int length, DataOutput out) throws IOException {
+        recordBuilder.reset(RecordUtil.FULLY_OPEN_RECORD_TYPE);
+        recordBuilder.init();
+        recordPointable.set(data, start, length);
+        for (int i = 0; i < fieldNames.length; i++) {
+            int fieldId = closedFieldIds[i];
+            if (fieldId >= 0) {
+                fieldValue.reset();
+                // a missing closed field is written as MISSING and is dropped by the record builder
+                recordPointable.getClosedFieldValue(recordType, fieldId, fieldValue.getDataOutput());
+                recordBuilder.addField(fieldNames[i], fieldValue);
+            } else if (recordType.isOpen()) {
+                ArrayBackedValueStorage name = fieldNames[i];
+                int valueOffset = ARecordSerializerDeserializer.getFieldOffsetByName(data, start, length,
+                        name.getByteArray(), name.getStartOffset(), fieldNameHashFunction, fieldNameComparator);
+                if (valueOffset >= 0) {
+                    ATypeTag tag = EnumDeserializer.ATYPETAGDESERIALIZER.deserialize(data[valueOffset]);
+                    int valueLength = NonTaggedFormatUtil.getFieldValueLength(data, valueOffset, tag, true) + 1;
+                    openFieldValue.set(data, valueOffset, valueLength);
+                    recordBuilder.addField(name, openFieldValue);
+                }
+            }
+        }
+        recordBuilder.write(out, true);
+    }
+}
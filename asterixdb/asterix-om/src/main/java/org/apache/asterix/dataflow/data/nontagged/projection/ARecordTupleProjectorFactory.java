@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.dataflow.data.nontagged.projection;
+
+import java.util.Set;
+
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.common.api.ITupleProjector;
+import org.apache.hyracks.storage.am.common.api.ITupleProjectorFactory;
+
+public class ARecordTupleProjectorFactory implements ITupleProjectorFactory {
+    private static final long serialVersionUID = 1L;
+    private final ARecordType recordType;
+    private final int recordField;
+    private final String[] projectedFieldNames;
+
+    /**
+     * @param recordType the type of the records
+     * @param recordField the index of the record in the tuples
+     * @param projectedFieldNames the names of the top-level fields to keep
+     */
+    public ARecordTupleProjectorFactory(ARecordType recordType, int recordField, Set<String> projectedFieldNames) {
+        this.recordType = recordType;
+        this.recordField = recordField;
+        this.projectedFieldNames = projectedFieldNames.toArray(new String[0]);
+    }
+
+    @Override
+    public ITupleProjector createTupleProjector(IHyracksTaskContext ctx) throws HyracksDataException {
+        return new ARecordTupleProjector(recordType, recordField, projectedFieldNames);
+    }
+}
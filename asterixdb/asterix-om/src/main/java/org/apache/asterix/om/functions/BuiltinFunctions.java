@@ -166,6 +166,7 @@ public class BuiltinFunctions {
     private static final Map<IFunctionInfo, IFunctionToDataSourceRewriter> datasourceFunctions = new HashMap<>();
     private static final Set<IFunctionInfo> similarityFunctions = new HashSet<>();
     private static final Set<IFunctionInfo> globalAggregateFunctions = new HashSet<>();
+    private static final Set<IFunctionInfo> invertibleAggregateFunctions = new HashSet<>();
     private static final Map<IFunctionInfo, IFunctionInfo> aggregateToLocalAggregate = new HashMap<>();
     private static final Map<IFunctionInfo, IFunctionInfo> aggregateToIntermediateAggregate = new HashMap<>();
     private static final Map<IFunctionInfo, IFunctionInfo> aggregateToGlobalAggregate = new HashMap<>();
@@ -572,6 +573,10 @@ public class BuiltinFunctions {
             new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-local-sampling", FunctionIdentifier.VARARGS);
     public static final FunctionIdentifier RANGE_MAP =
             new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-range-map", FunctionIdentifier.VARARGS);
+    public static final FunctionIdentifier LOCAL_HEAVY_HITTERS = new FunctionIdentifier(FunctionConstants.ASTERIX_NS,
+            "agg-local-heavy-hitters", FunctionIdentifier.VARARGS);
+    public static final FunctionIdentifier HEAVY_HITTER_MAP =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-heavy-hitter-map", 1);
     public static final FunctionIdentifier STDDEV_POP =
             new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-stddev_pop", 1);
     public static final FunctionIdentifier GLOBAL_STDDEV_POP =
@@ -981,6 +986,48 @@ public class BuiltinFunctions {
     public static final FunctionIdentifier SCALAR_SQL_KURTOSIS_DISTINCT =
             new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "sql-kurtosis-distinct", 1);
 
+    // approximate aggregates
+    public static final FunctionIdentifier APPROX_COUNT_DISTINCT =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-approx_count_distinct", 1);
+    public static final FunctionIdentifier GLOBAL_APPROX_COUNT_DISTINCT =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-global-approx_count_distinct", 1);
+    public static final FunctionIdentifier INTERMEDIATE_APPROX_COUNT_DISTINCT =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-intermediate-approx_count_distinct", 1);
+    public static final FunctionIdentifier LOCAL_APPROX_COUNT_DISTINCT =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-local-approx_count_distinct", 1);
+    public static final FunctionIdentifier SCALAR_APPROX_COUNT_DISTINCT =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "approx_count_distinct", 1);
+    public static final FunctionIdentifier SQL_APPROX_COUNT_DISTINCT =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-sql-approx_count_distinct", 1);
+    public static final FunctionIdentifier GLOBAL_SQL_APPROX_COUNT_DISTINCT =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-global-sql-approx_count_distinct", 1);
+    public static final FunctionIdentifier INTERMEDIATE_SQL_APPROX_COUNT_DISTINCT =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "intermediate-agg-sql-approx_count_distinct", 1);
+    public static final FunctionIdentifier LOCAL_SQL_APPROX_COUNT_DISTINCT =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-local-sql-approx_count_distinct", 1);
+    public static final FunctionIdentifier SCALAR_SQL_APPROX_COUNT_DISTINCT =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "sql-approx_count_distinct", 1);
+    public static final FunctionIdentifier APPROX_MEDIAN =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-approx_median", 1);
+    public static final FunctionIdentifier GLOBAL_APPROX_MEDIAN =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-global-approx_median", 1);
+    public static final FunctionIdentifier INTERMEDIATE_APPROX_MEDIAN =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-intermediate-approx_median", 1);
+    public static final FunctionIdentifier LOCAL_APPROX_MEDIAN =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-local-approx_median", 1);
+    public static final FunctionIdentifier SCALAR_APPROX_MEDIAN =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "approx_median", 1);
+    public static final FunctionIdentifier SQL_APPROX_MEDIAN =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-sql-approx_median", 1);
+    public static final FunctionIdentifier GLOBAL_SQL_APPROX_MEDIAN =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-global-sql-approx_median", 1);
+    public static final FunctionIdentifier INTERMEDIATE_SQL_APPROX_MEDIAN =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "intermediate-agg-sql-approx_median", 1);
+    public static final FunctionIdentifier LOCAL_SQL_APPROX_MEDIAN =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-local-sql-approx_median", 1);
+    public static final FunctionIdentifier SCALAR_SQL_APPROX_MEDIAN =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "sql-approx_median", 1);
+
     // window functions
     public static final FunctionIdentifier CUME_DIST =
             new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "cume_dist", 0);
@@ -1874,6 +1921,8 @@ public class BuiltinFunctions {
         addPrivateFunction(GLOBAL_STDDEV_SAMP, NullableDoubleTypeComputer.INSTANCE, true);
         addPrivateFunction(LOCAL_SAMPLING, ABinaryTypeComputer.INSTANCE, true);
         addPrivateFunction(RANGE_MAP, ABinaryTypeComputer.INSTANCE, true);
+        addPrivateFunction(LOCAL_HEAVY_HITTERS, ABinaryTypeComputer.INSTANCE, true);
+        addPrivateFunction(HEAVY_HITTER_MAP, ABinaryTypeComputer.INSTANCE, true);
         addPrivateFunction(LOCAL_STDDEV_POP, LocalSingleVarStatisticsTypeComputer.INSTANCE, true);
         addFunction(STDDEV_POP, NullableDoubleTypeComputer.INSTANCE, true);
         addPrivateFunction(GLOBAL_STDDEV_POP, NullableDoubleTypeComputer.INSTANCE, true);
@@ -2100,6 +2149,32 @@ public class BuiltinFunctions {
         addFunction(SQL_KURTOSIS_DISTINCT, NullableDoubleTypeComputer.INSTANCE, true);
         addFunction(SCALAR_SQL_KURTOSIS_DISTINCT, NullableDoubleTypeComputer.INSTANCE, true);
 
+        // Approximate aggregates
+
+        addFunction(APPROX_COUNT_DISTINCT, AInt64TypeComputer.INSTANCE_NULLABLE, true);
+        addPrivateFunction(GLOBAL_APPROX_COUNT_DISTINCT, AInt64TypeComputer.INSTANCE_NULLABLE, true);
+        addPrivateFunction(LOCAL_APPROX_COUNT_DISTINCT, ABinaryTypeComputer.INSTANCE, true);
+        addPrivateFunction(INTERMEDIATE_APPROX_COUNT_DISTINCT, ABinaryTypeComputer.INSTANCE, true);
+        addFunction(SCALAR_APPROX_COUNT_DISTINCT, AInt64TypeComputer.INSTANCE_NULLABLE, true);
+
+        addFunction(SQL_APPROX_COUNT_DISTINCT, AInt64TypeComputer.INSTANCE, true);
+        addPrivateFunction(GLOBAL_SQL_APPROX_COUNT_DISTINCT, AInt64TypeComputer.INSTANCE, true);
+        addPrivateFunction(LOCAL_SQL_APPROX_COUNT_DISTINCT, ABinaryTypeComputer.INSTANCE, true);
+        addPrivateFunction(INTERMEDIATE_SQL_APPROX_COUNT_DISTINCT, ABinaryTypeComputer.INSTANCE, true);
+        addFunction(SCALAR_SQL_APPROX_COUNT_DISTINCT, AInt64TypeComputer.INSTANCE, true);
+
+        addFunction(APPROX_MEDIAN, NullableDoubleTypeComputer.INSTANCE, true);
+        addPrivateFunction(GLOBAL_APPROX_MEDIAN, NullableDoubleTypeComputer.INSTANCE, true);
+        addPrivateFunction(LOCAL_APPROX_MEDIAN, ABinaryTypeComputer.INSTANCE, true);
+        addPrivateFunction(INTERMEDIATE_APPROX_MEDIAN, ABinaryTypeComputer.INSTANCE, true);
+        addFunction(SCALAR_APPROX_MEDIAN, NullableDoubleTypeComputer.INSTANCE, true);
+
+        addFunction(SQL_APPROX_MEDIAN, NullableDoubleTypeComputer.INSTANCE, true);
+        addPrivateFunction(GLOBAL_SQL_APPROX_MEDIAN, NullableDoubleTypeComputer.INSTANCE, true);
+        addPrivateFunction(LOCAL_SQL_APPROX_MEDIAN, ABinaryTypeComputer.INSTANCE, true);
+        addPrivateFunction(INTERMEDIATE_SQL_APPROX_MEDIAN, ABinaryTypeComputer.INSTANCE, true);
+        addFunction(SCALAR_SQL_APPROX_MEDIAN, NullableDoubleTypeComputer.INSTANCE, true);
+
         // Window functions
 
         addFunction(CUME_DIST, ADoubleTypeComputer.INSTANCE, false);
@@ -2665,6 +2740,12 @@ public class BuiltinFunctions {
         addIntermediateAgg(RANGE_MAP, RANGE_MAP);
         addGlobalAgg(RANGE_MAP, RANGE_MAP);
 
+        // HEAVY_HITTER_MAP
+        addAgg(HEAVY_HITTER_MAP);
+        addAgg(LOCAL_HEAVY_HITTERS);
+        addLocalAgg(HEAVY_HITTER_MAP, LOCAL_HEAVY_HITTERS);
+        addGlobalAgg(HEAVY_HITTER_MAP, HEAVY_HITTER_MAP);
+
         addAgg(NULL_WRITER);
         addLocalAgg(NULL_WRITER, NULL_WRITER);
         addIntermediateAgg(NULL_WRITER, NULL_WRITER);
@@ -2935,6 +3016,58 @@ public class BuiltinFunctions {
         addDistinctAgg(SQL_KURTOSIS_DISTINCT, SQL_KURTOSIS);
         addScalarAgg(SQL_KURTOSIS_DISTINCT, SCALAR_SQL_KURTOSIS_DISTINCT);
 
+        // APPROX_COUNT_DISTINCT
+
+        addAgg(APPROX_COUNT_DISTINCT);
+        addAgg(LOCAL_APPROX_COUNT_DISTINCT);
+        addAgg(GLOBAL_APPROX_COUNT_DISTINCT);
+        addLocalAgg(APPROX_COUNT_DISTINCT, LOCAL_APPROX_COUNT_DISTINCT);
+        addIntermediateAgg(APPROX_COUNT_DISTINCT, INTERMEDIATE_APPROX_COUNT_DISTINCT);
+        addIntermediateAgg(LOCAL_APPROX_COUNT_DISTINCT, INTERMEDIATE_APPROX_COUNT_DISTINCT);
+        addIntermediateAgg(GLOBAL_APPROX_COUNT_DISTINCT, INTERMEDIATE_APPROX_COUNT_DISTINCT);
+        addGlobalAgg(APPROX_COUNT_DISTINCT, GLOBAL_APPROX_COUNT_DISTINCT);
+
+        addScalarAgg(APPROX_COUNT_DISTINCT, SCALAR_APPROX_COUNT_DISTINCT);
+
+        // SQL APPROX_COUNT_DISTINCT
+
+        addAgg(SQL_APPROX_COUNT_DISTINCT);
+        addAgg(LOCAL_SQL_APPROX_COUNT_DISTINCT);
+        addAgg(GLOBAL_SQL_APPROX_COUNT_DISTINCT);
+        addLocalAgg(SQL_APPROX_COUNT_DISTINCT, LOCAL_SQL_APPROX_COUNT_DISTINCT);
+        addIntermediateAgg(SQL_APPROX_COUNT_DISTINCT, INTERMEDIATE_SQL_APPROX_COUNT_DISTINCT);
+        addIntermediateAgg(LOCAL_SQL_APPROX_COUNT_DISTINCT, INTERMEDIATE_SQL_APPROX_COUNT_DISTINCT);
+        addIntermediateAgg(GLOBAL_SQL_APPROX_COUNT_DISTINCT, INTERMEDIATE_SQL_APPROX_COUNT_DISTINCT);
+        addGlobalAgg(SQL_APPROX_COUNT_DISTINCT, GLOBAL_SQL_APPROX_COUNT_DISTINCT);
+
+        addScalarAgg(SQL_APPROX_COUNT_DISTINCT, SCALAR_SQL_APPROX_COUNT_DISTINCT);
+
+        // APPROX_MEDIAN
+
+        addAgg(APPROX_MEDIAN);
+        addAgg(LOCAL_APPROX_MEDIAN);
+        addAgg(GLOBAL_APPROX_MEDIAN);
+        addLocalAgg(APPROX_MEDIAN, LOCAL_APPROX_MEDIAN);
+        addIntermediateAgg(APPROX_MEDIAN, INTERMEDIATE_APPROX_MEDIAN);
+        addIntermediateAgg(LOCAL_APPROX_MEDIAN, INTERMEDIATE_APPROX_MEDIAN);
+        addIntermediateAgg(GLOBAL_APPROX_MEDIAN, INTERMEDIATE_APPROX_MEDIAN);
+        addGlobalAgg(APPROX_MEDIAN, GLOBAL_APPROX_MEDIAN);
+
+        addScalarAgg(APPROX_MEDIAN, SCALAR_APPROX_MEDIAN);
+
+        // SQL APPROX_MEDIAN
+
+        addAgg(SQL_APPROX_MEDIAN);
+        addAgg(LOCAL_SQL_APPROX_MEDIAN);
+        addAgg(GLOBAL_SQL_APPROX_MEDIAN);
+        addLocalAgg(SQL_APPROX_MEDIAN, LOCAL_SQL_APPROX_MEDIAN);
+        addIntermediateAgg(SQL_APPROX_MEDIAN, INTERMEDIATE_SQL_APPROX_MEDIAN);
+        addIntermediateAgg(LOCAL_SQL_APPROX_MEDIAN, INTERMEDIATE_SQL_APPROX_MEDIAN);
+        addIntermediateAgg(GLOBAL_SQL_APPROX_MEDIAN, INTERMEDIATE_SQL_APPROX_MEDIAN);
+        addGlobalAgg(SQL_APPROX_MEDIAN, GLOBAL_SQL_APPROX_MEDIAN);
+
+        addScalarAgg(SQL_APPROX_MEDIAN, SCALAR_SQL_APPROX_MEDIAN);
+
         // SQL COUNT
 
         addAgg(SQL_COUNT);
@@ -3033,6 +3166,20 @@ public class BuiltinFunctions {
         addScalarAgg(ST_UNION_SQL_AGG_DISTINCT, SCALAR_ST_UNION_SQL_AGG_DISTINCT);
     }
 
+    static {
+        // Aggregates whose evaluators can remove values (used to slide window frames)
+        addInvertibleAgg(AVG);
+        addInvertibleAgg(COUNT);
+        addInvertibleAgg(MAX);
+        addInvertibleAgg(MIN);
+        addInvertibleAgg(SUM);
+        addInvertibleAgg(SQL_AVG);
+        addInvertibleAgg(SQL_COUNT);
+        addInvertibleAgg(SQL_MAX);
+        addInvertibleAgg(SQL_MIN);
+        addInvertibleAgg(SQL_SUM);
+    }
+
     interface BuiltinFunctionProperty {
     }
 
@@ -3258,6 +3405,14 @@ public class BuiltinFunctions {
         globalAggregateFunctions.add(getAsterixFunctionInfo(globalfi));
     }
 
+    public static void addInvertibleAgg(FunctionIdentifier fi) {
+        invertibleAggregateFunctions.add(getAsterixFunctionInfo(fi));
+    }
+
+    public static boolean isInvertibleAggregateFunction(FunctionIdentifier fi) {
+        return invertibleAggregateFunctions.contains(getAsterixFunctionInfo(fi));
+    }
+
     public static void addUnnestFun(FunctionIdentifier fi, boolean returnsUniqueValues) {
         builtinUnnestingFunctions.put(getAsterixFunctionInfo(fi), returnsUniqueValues);
     }
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.dataflow.data.nontagged.column;
+
+import java.util.Arrays;
+
+import org.apache.asterix.builders.RecordBuilder;
+import org.apache.asterix.dataflow.data.nontagged.serde.ARecordSerializerDeserializer;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.AMutableString;
+import org.apache.asterix.om.base.ANull;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.pointables.nonvisitor.ARecordPointable;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.AUnionType;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.storage.am.common.api.IColumnShredder;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ARecordColumnShredderTest {
+
+    private static final ARecordType RECORD_TYPE = new ARecordType("shredded",
+            new String[] { "id", "name", "nickname" }, new IAType[] { BuiltinType.AINT64, BuiltinType.ASTRING,
+                    AUnionType.createUnknownableType(BuiltinType.ASTRING) },
+            true);
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        assertRoundTrip(record(1, "alice", "al", null));
+        assertRoundTrip(record(2, "bob", null, null));
+        assertRoundTrip(record(3, "carol", ANull.NULL, "street"));
+        assertRoundTrip(record(4, "", "", "x"));
+    }
+
+    @Test
+    public void testPartialAssembly() throws Exception {
+        // only the name is read, the id and the open part are left out
+        boolean[] nameOnly = ARecordColumnShredder.getColumnMask(RECORD_TYPE, new int[] { 1 });
+        Assert.assertArrayEquals(new boolean[] { true, false, true, false, false }, nameOnly);
+        ArrayBackedValueStorage record = record(5, "dave", "d", "road");
+        ARecordPointable assembled = ARecordPointable.FACTORY.createPointable();
+        ArrayBackedValueStorage partial = assemble(record, nameOnly);
+        assembled.set(partial.getByteArray(), partial.getStartOffset(), partial.getLength());
+        assertClosedField(record, assembled, 1);
+        Assert.assertEquals(0, assembled.getOpenFieldCount(RECORD_TYPE));
+
+        // an open field needs the open part
+        boolean[] nicknameAndOpen = ARecordColumnShredder.getColumnMask(RECORD_TYPE, new int[] { 2, -1 });
+        Assert.assertArrayEquals(new boolean[] { true, false, false, true, true }, nicknameAndOpen);
+        partial = assemble(record, nicknameAndOpen);
+        assembled.set(partial.getByteArray(), partial.getStartOffset(), partial.getLength());
+        assertClosedField(record, assembled, 2);
+        Assert.assertEquals(1, assembled.getOpenFieldCount(RECORD_TYPE));
+        Assert.assertEquals("address", assembled.getOpenFieldName(RECORD_TYPE, 0));
+        int valueOffset = assembled.getOpenFieldValueOffset(RECORD_TYPE, 0);
+        int valueLength = assembled.getOpenFieldValueSize(RECORD_TYPE, 0) + 1;
+        Assert.assertArrayEquals(string("road"),
+                Arrays.copyOfRange(partial.getByteArray(), valueOffset, valueOffset + valueLength));
+    }
+
+    private static void assertClosedField(ArrayBackedValueStorage record, ARecordPointable assembled, int fieldId)
+            throws Exception {
+        ARecordPointable original = ARecordPointable.FACTORY.createPointable();
+        original.set(record.getByteArray(), record.getStartOffset(), record.getLength());
+        ArrayBackedValueStorage expected = new ArrayBackedValueStorage();
+        ArrayBackedValueStorage actual = new ArrayBackedValueStorage();
+        original.getClosedFieldValue(RECORD_TYPE, fieldId, expected.getDataOutput());
+        assembled.getClosedFieldValue(RECORD_TYPE, fieldId, actual.getDataOutput());
+        Assert.assertArrayEquals(Arrays.copyOf(expected.getByteArray(), expected.getLength()),
+                Arrays.copyOf(actual.getByteArray(), actual.getLength()));
+    }
+
+    private static void assertRoundTrip(ArrayBackedValueStorage record) throws Exception {
+        ArrayBackedValueStorage assembled = assemble(record, null);
+        byte[] expected = Arrays.copyOfRange(record.getByteArray(), record.getStartOffset(),
+                record.getStartOffset() + record.getLength());
+        byte[] actual = Arrays.copyOf(assembled.getByteArray(), assembled.getLength());
+        Assert.assertArrayEquals(maskAbsentFieldOffsets(expected), maskAbsentFieldOffsets(actual));
+    }
+
+    private static ArrayBackedValueStorage assemble(ArrayBackedValueStorage record, boolean[] requestedColumns)
+            throws Exception {
+        IColumnShredder shredder = new ARecordColumnShredderFactory(RECORD_TYPE).createShredder();
+        IPointable[] columns = new IPointable[shredder.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new VoidPointable();
+        }
+        shredder.shred(record.getByteArray(), record.getStartOffset(), record.getLength(), columns);
+        // the columns are stored separately, so give each of them its own copy
+        for (int i = 0; i < columns.length; i++) {
+            IPointable column = columns[i];
+            byte[] copy = requestedColumns == null || requestedColumns[i] ? Arrays.copyOfRange(
+                    column.getByteArray(), column.getStartOffset(), column.getStartOffset() + column.getLength())
+                    : new byte[0];
+            column.set(copy, 0, copy.length);
+        }
+        ArrayBackedValueStorage assembled = new ArrayBackedValueStorage();
+        shredder.assemble(columns, assembled.getDataOutput());
+        return assembled;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static byte[] string(String value) throws Exception {
+        ISerializerDeserializer<IAObject> serde =
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ANY);
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        serde.serialize(new AMutableString(value), storage.getDataOutput());
+        return Arrays.copyOf(storage.getByteArray(), storage.getLength());
+    }
+
+    // the offsets of null and missing closed fields are never read and are not preserved
+    private static byte[] maskAbsentFieldOffsets(byte[] record) {
+        // tag (1) + length (4) + isExpanded (1) + [openPartOffset (4)] + number of closed fields (4) + null bitmap (1)
+        int fieldOffsetsStart = record[5] == 1 ? 15 : 11;
+        for (int i = 0; i < RECORD_TYPE.getFieldTypes().length; i++) {
+            if (ARecordSerializerDeserializer.getFieldOffsetById(record, 0, i, 1, true) <= 0) {
+                Arrays.fill(record, fieldOffsetsStart + 4 * i, fieldOffsetsStart + 4 * i + 4, (byte) 0);
+            }
+        }
+        return record;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayBackedValueStorage record(long id, String name, Object nickname, String openValue)
+            throws Exception {
+        ISerializerDeserializer<IAObject> serde =
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ANY);
+        RecordBuilder builder = new RecordBuilder();
+        builder.reset(RECORD_TYPE);
+        builder.init();
+        ArrayBackedValueStorage value = new ArrayBackedValueStorage();
+        serde.serialize(new AInt64(id), value.getDataOutput());
+        builder.addField(0, value);
+        value.reset();
+        serde.serialize(new AMutableString(name), value.getDataOutput());
+        builder.addField(1, value);
+        if (nickname != null) {
+            value.reset();
+            serde.serialize(nickname instanceof String ? new AMutableString((String) nickname) : (IAObject) nickname,
+                    value.getDataOutput());
+            builder.addField(2, value);
+        }
+        if (openValue != null) {
+            ArrayBackedValueStorage fieldName = new ArrayBackedValueStorage();
+            serde.serialize(new AMutableString("address"), fieldName.getDataOutput());
+            value.reset();
+            serde.serialize(new AMutableString(openValue), value.getDataOutput());
+            builder.addField(fieldName, value);
+        }
+        ArrayBackedValueStorage record = new ArrayBackedValueStorage();
+        builder.write(record.getDataOutput(), true);
+        return record;
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.aggregates.std;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.ABinary;
+import org.apache.asterix.om.base.AMutableBinary;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.om.types.EnumDeserializer;
+import org.apache.asterix.runtime.exceptions.UnsupportedItemTypeException;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.ByteArrayPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+
+/**
+ * Base class of the approximate aggregates whose state is a mergeable sketch. The complete and local steps add the
+ * input values to the sketch, the intermediate and global steps merge the sketches that the local steps produced.
+ * A partial result is the serialized sketch as a binary value, NULL if the (strict) aggregate saw a NULL or MISSING
+ * input, or SYSTEM_NULL if there was no input at all.
+ */
+public abstract class AbstractApproxAggregateFunction extends AbstractAggregateFunction {
+
+    public enum Step {
+        COMPLETE(false, false),
+        LOCAL(false, true),
+        INTERMEDIATE(true, true),
+        GLOBAL(true, false);
+
+        private final boolean partialInput;
+        private final boolean partialOutput;
+
+        Step(boolean partialInput, boolean partialOutput) {
+            this.partialInput = partialInput;
+            this.partialOutput = partialOutput;
+        }
+    }
+
+    private final IScalarEvaluator eval;
+    protected final boolean strict;
+    private final Step step;
+    private final IPointable inputVal = new VoidPointable();
+    private final ByteArrayPointable sketchVal = new ByteArrayPointable();
+    private final ArrayBackedValueStorage resultStorage = new ArrayBackedValueStorage();
+    private final ArrayBackedValueStorage sketchStorage = new ArrayBackedValueStorage();
+    private final AMutableBinary binary = new AMutableBinary(null, 0, 0);
+    @SuppressWarnings("unchecked")
+    private final ISerializerDeserializer<ABinary> binarySerde =
+            SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ABINARY);
+    // SYSTEM_NULL: no input yet, NULL: a strict aggregate saw NULL or MISSING, ANY: the sketch has values
+    private ATypeTag aggType;
+
+    protected AbstractApproxAggregateFunction(IScalarEvaluatorFactory[] args, IEvaluatorContext context,
+            boolean strict, Step step, SourceLocation sourceLoc) throws HyracksDataException {
+        super(sourceLoc);
+        this.eval = args[0].createScalarEvaluator(context);
+        this.strict = strict;
+        this.step = step;
+    }
+
+    @Override
+    public void init() throws HyracksDataException {
+        aggType = ATypeTag.SYSTEM_NULL;
+        resetSketch();
+    }
+
+    @Override
+    public void step(IFrameTupleReference tuple) throws HyracksDataException {
+        if (aggType == ATypeTag.NULL) {
+            return;
+        }
+        eval.evaluate(tuple, inputVal);
+        byte[] data = inputVal.getByteArray();
+        int offset = inputVal.getStartOffset();
+        ATypeTag typeTag = EnumDeserializer.ATYPETAGDESERIALIZER.deserialize(data[offset]);
+        if (typeTag == ATypeTag.MISSING || typeTag == ATypeTag.NULL) {
+            if (strict) {
+                aggType = ATypeTag.NULL;
+            }
+        } else if (!step.partialInput) {
+            addValue(typeTag, data, offset, inputVal.getLength());
+            aggType = ATypeTag.ANY;
+        } else if (typeTag == ATypeTag.BINARY) {
+            sketchVal.set(data, offset + 1, inputVal.getLength() - 1);
+            mergeSketch(sketchVal.getByteArray(), sketchVal.getContentStartOffset(), sketchVal.getContentLength());
+            aggType = ATypeTag.ANY;
+        } else if (typeTag != ATypeTag.SYSTEM_NULL) {
+            throw new UnsupportedItemTypeException(sourceLoc, getFunctionIdentifier(), data[offset]);
+        }
+    }
+
+    @Override
+    public void finish(IPointable result) throws HyracksDataException {
+        if (step.partialOutput) {
+            finishPartial(result);
+            return;
+        }
+        resultStorage.reset();
+        try {
+            if (aggType == ATypeTag.NULL) {
+                resultStorage.getDataOutput().writeByte(ATypeTag.SERIALIZED_NULL_TYPE_TAG);
+            } else {
+                writeResult(resultStorage.getDataOutput());
+            }
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        result.set(resultStorage);
+    }
+
+    @Override
+    public void finishPartial(IPointable result) throws HyracksDataException {
+        resultStorage.reset();
+        try {
+            if (aggType == ATypeTag.SYSTEM_NULL) {
+                resultStorage.getDataOutput().writeByte(ATypeTag.SERIALIZED_SYSTEM_NULL_TYPE_TAG);
+            } else if (aggType == ATypeTag.NULL) {
+                resultStorage.getDataOutput().writeByte(ATypeTag.SERIALIZED_NULL_TYPE_TAG);
+            } else {
+                sketchStorage.reset();
+                writeSketch(sketchStorage.getDataOutput());
+                binary.setValue(sketchStorage.getByteArray(), sketchStorage.getStartOffset(),
+                        sketchStorage.getLength());
+                binarySerde.serialize(binary, resultStorage.getDataOutput());
+            }
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        result.set(resultStorage);
+    }
+
+    protected abstract FunctionIdentifier getFunctionIdentifier();
+
+    protected abstract void resetSketch();
+
+    /**
+     * Adds a non-null input value to the sketch.
+     */
+    protected abstract void addValue(ATypeTag typeTag, byte[] data, int offset, int length)
+            throws HyracksDataException;
+
+    protected abstract void mergeSketch(byte[] data, int offset, int length) throws HyracksDataException;
+
+    protected abstract void writeSketch(DataOutput out) throws IOException;
+
+    /**
+     * Writes the final result of a sketch that has no NULL input (for strict aggregates), which might be empty.
+     */
+    protected abstract void writeResult(DataOutput out) throws IOException;
+}
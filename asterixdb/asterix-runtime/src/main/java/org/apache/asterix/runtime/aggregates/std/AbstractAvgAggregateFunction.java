@@ -47,6 +47,7 @@ import org.apache.asterix.runtime.evaluators.common.ClosedRecordConstructorEvalF
 import org.apache.asterix.runtime.exceptions.IncompatibleTypeException;
 import org.apache.asterix.runtime.exceptions.UnsupportedItemTypeException;
 import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IInvertibleAggregateEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
 import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
@@ -58,9 +59,12 @@ import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
 import org.apache.hyracks.data.std.util.ByteArrayAccessibleOutputStream;
 import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
 
-public abstract class AbstractAvgAggregateFunction extends AbstractAggregateFunction {
+public abstract class AbstractAvgAggregateFunction extends AbstractAggregateFunction
+        implements IInvertibleAggregateEvaluator {
     private static final int SUM_FIELD_ID = 0;
     private static final int COUNT_FIELD_ID = 1;
+    // integers up to this magnitude are exact in the double sum
+    private static final long MAX_EXACT_SUM = 1L << 53;
 
     private final ARecordType recType;
 
@@ -70,6 +74,8 @@ public abstract class AbstractAvgAggregateFunction extends AbstractAggregateFunc
     protected ATypeTag aggType;
     private double sum;
     private long count;
+    // whether the sum only has integer values and can be exactly updated when values are removed
+    private boolean exactSum;
     private AMutableDouble aDouble = new AMutableDouble(0);
     private AMutableInt64 aInt64 = new AMutableInt64(0);
 
@@ -106,6 +112,7 @@ public abstract class AbstractAvgAggregateFunction extends AbstractAggregateFunc
         aggType = ATypeTag.SYSTEM_NULL;
         sum = 0.0;
         count = 0;
+        exactSum = true;
     }
 
     @Override
@@ -162,16 +169,21 @@ public abstract class AbstractAvgAggregateFunction extends AbstractAggregateFunc
             case BIGINT: {
                 long val = AInt64SerializerDeserializer.getLong(data, offset + 1);
                 sum += val;
+                if (val > MAX_EXACT_SUM || val < -MAX_EXACT_SUM) {
+                    exactSum = false;
+                }
                 break;
             }
             case FLOAT: {
                 float val = AFloatSerializerDeserializer.getFloat(data, offset + 1);
                 sum += val;
+                exactSum = false;
                 break;
             }
             case DOUBLE: {
                 double val = ADoubleSerializerDeserializer.getDouble(data, offset + 1);
                 sum += val;
+                exactSum = false;
                 break;
             }
             default: {
@@ -180,6 +192,50 @@ public abstract class AbstractAvgAggregateFunction extends AbstractAggregateFunc
         }
     }
 
+    @Override
+    public void enableRemove() {
+        // the sum and the count do not need additional state to remove values
+    }
+
+    @Override
+    public boolean remove(IFrameTupleReference tuple) throws HyracksDataException {
+        // NULL cannot be taken back,
+        // floating point sums would accumulate rounding errors if values were subtracted from them
+        if (aggType == ATypeTag.NULL || !exactSum || sum > MAX_EXACT_SUM || sum < -MAX_EXACT_SUM) {
+            return false;
+        }
+        eval.evaluate(tuple, inputVal);
+        byte[] data = inputVal.getByteArray();
+        int offset = inputVal.getStartOffset();
+        ATypeTag typeTag = EnumDeserializer.ATYPETAGDESERIALIZER.deserialize(data[offset]);
+        long val;
+        switch (typeTag) {
+            case MISSING:
+            case NULL:
+                // skipped by step()
+                return true;
+            case TINYINT:
+                val = AInt8SerializerDeserializer.getByte(data, offset + 1);
+                break;
+            case SMALLINT:
+                val = AInt16SerializerDeserializer.getShort(data, offset + 1);
+                break;
+            case INTEGER:
+                val = AInt32SerializerDeserializer.getInt(data, offset + 1);
+                break;
+            case BIGINT:
+                val = AInt64SerializerDeserializer.getLong(data, offset + 1);
+                break;
+            default:
+                return false;
+        }
+        sum -= val;
+        if (--count == 0) {
+            aggType = ATypeTag.SYSTEM_NULL;
+        }
+        return true;
+    }
+
     protected void finishPartialResults(IPointable result) throws HyracksDataException {
         resultStorage.reset();
         try {
@@ -225,6 +281,7 @@ public abstract class AbstractAvgAggregateFunction extends AbstractAggregateFunc
             case OBJECT: {
                 // Expected.
                 aggType = ATypeTag.DOUBLE;
+                exactSum = false;
                 int nullBitmapSize = 0;
                 int offset1 = ARecordSerializerDeserializer.getFieldOffsetById(serBytes, offset, SUM_FIELD_ID,
                         nullBitmapSize, false);
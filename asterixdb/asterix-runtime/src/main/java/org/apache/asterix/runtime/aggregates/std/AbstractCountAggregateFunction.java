@@ -27,6 +27,7 @@ import org.apache.asterix.om.types.ATypeTag;
 import org.apache.asterix.om.types.BuiltinType;
 import org.apache.asterix.om.types.EnumDeserializer;
 import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IInvertibleAggregateEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
 import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
@@ -40,7 +41,8 @@ import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
 /**
  * COUNT returns the number of items in the given list. Note that COUNT(NULL) is not allowed.
  */
-public abstract class AbstractCountAggregateFunction extends AbstractAggregateFunction {
+public abstract class AbstractCountAggregateFunction extends AbstractAggregateFunction
+        implements IInvertibleAggregateEvaluator {
     private AMutableInt64 result = new AMutableInt64(-1);
     @SuppressWarnings("unchecked")
     private ISerializerDeserializer<AInt64> int64Serde =
@@ -75,6 +77,24 @@ public abstract class AbstractCountAggregateFunction extends AbstractAggregateFu
         }
     }
 
+    @Override
+    public void enableRemove() {
+        // the count does not need additional state to remove values
+    }
+
+    @Override
+    public boolean remove(IFrameTupleReference tuple) throws HyracksDataException {
+        eval.evaluate(tuple, inputVal);
+        ATypeTag typeTag =
+                EnumDeserializer.ATYPETAGDESERIALIZER.deserialize(inputVal.getByteArray()[inputVal.getStartOffset()]);
+        if (typeTag == ATypeTag.NULL || typeTag == ATypeTag.MISSING) {
+            removeNull();
+        } else if (typeTag != ATypeTag.SYSTEM_NULL) {
+            cnt--;
+        }
+        return true;
+    }
+
     @Override
     public void finish(IPointable resultPointable) throws HyracksDataException {
         resultStorage.reset();
@@ -93,4 +113,6 @@ public abstract class AbstractCountAggregateFunction extends AbstractAggregateFu
     }
 
     protected abstract void processNull();
+
+    protected abstract void removeNull();
 }
@@ -33,6 +33,7 @@ import org.apache.asterix.om.types.hierachy.ATypeHierarchy;
 import org.apache.asterix.om.types.hierachy.ITypeConvertComputer;
 import org.apache.asterix.runtime.exceptions.UnsupportedItemTypeException;
 import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IInvertibleAggregateEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -42,7 +43,8 @@ import org.apache.hyracks.data.std.primitive.VoidPointable;
 import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
 import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
 
-public abstract class AbstractMinMaxAggregateFunction extends AbstractAggregateFunction {
+public abstract class AbstractMinMaxAggregateFunction extends AbstractAggregateFunction
+        implements IInvertibleAggregateEvaluator {
     private static final String FUN_NAME = "min/max";
     private final ArrayBackedValueStorage resultStorage = new ArrayBackedValueStorage();
     private final IPointable inputVal = new VoidPointable();
@@ -57,6 +59,16 @@ public abstract class AbstractMinMaxAggregateFunction extends AbstractAggregateF
     protected final IEvaluatorContext context;
     protected ATypeTag aggType;
     private ILogicalBinaryComparator cmp;
+    // values that can become the min/max when older values are removed (monotonic deque), used by sliding windows.
+    // the deque is only maintained while all values have the same type
+    private boolean removeEnabled;
+    private boolean invertible;
+    private ArrayBackedValueStorage[] dequeValues;
+    private long[] dequeSeqs;
+    private int dequeHead;
+    private int dequeSize;
+    private long addedCount;
+    private long removedCount;
 
     AbstractMinMaxAggregateFunction(IScalarEvaluatorFactory[] args, IEvaluatorContext context, boolean isMin,
             SourceLocation sourceLoc, Type type, IAType aggFieldType) throws HyracksDataException {
@@ -72,10 +84,16 @@ public abstract class AbstractMinMaxAggregateFunction extends AbstractAggregateF
     public void init() throws HyracksDataException {
         aggType = ATypeTag.SYSTEM_NULL;
         tempValForCasting.reset();
+        invertible = true;
+        dequeHead = 0;
+        dequeSize = 0;
+        addedCount = 0;
+        removedCount = 0;
     }
 
     @Override
     public void step(IFrameTupleReference tuple) throws HyracksDataException {
+        long seq = addedCount++;
         if (skipStep()) {
             return;
         }
@@ -98,14 +116,22 @@ public abstract class AbstractMinMaxAggregateFunction extends AbstractAggregateF
             aggType = typeTag;
             cmp = ComparatorUtil.createLogicalComparator(aggFieldType, aggFieldType, false);
             outputVal.assign(inputVal);
+            if (removeEnabled && invertible) {
+                dequeAdd(inputVal, seq);
+            }
         } else if (!ATypeHierarchy.isCompatible(typeTag, aggType)) {
             handleIncompatibleInput(typeTag);
         } else {
             // the two values are compatible non-null/non-missing values
             if (aggType == typeTag) {
                 compareAndUpdate(cmp, inputVal, outputVal, typeTag);
+                if (removeEnabled && invertible && aggType != ATypeTag.NULL) {
+                    dequeAdd(inputVal, seq);
+                }
                 return;
             }
+            // the min/max of the remaining values might have to be cast back when values are removed
+            invertible = false;
             if (ATypeHierarchy.canPromote(aggType, typeTag)) {
                 // switch to new comp & aggregation type (i.e. current min/max is int and new input is double)
                 castValue(ATypeHierarchy.getTypePromoteComputer(aggType, typeTag), outputVal, tempValForCasting);
@@ -119,6 +145,81 @@ public abstract class AbstractMinMaxAggregateFunction extends AbstractAggregateF
         }
     }
 
+    @Override
+    public void enableRemove() {
+        removeEnabled = true;
+        dequeValues = new ArrayBackedValueStorage[16];
+        dequeSeqs = new long[dequeValues.length];
+    }
+
+    @Override
+    public boolean remove(IFrameTupleReference tuple) throws HyracksDataException {
+        long seq = removedCount++;
+        if (!invertible || aggType == ATypeTag.NULL) {
+            return false;
+        }
+        // values that are not in the deque were skipped or can no longer become the min/max
+        if (dequeSize > 0 && dequeSeqs[dequeHead] == seq) {
+            dequeHead = (dequeHead + 1) % dequeValues.length;
+            dequeSize--;
+        }
+        if (dequeSize == 0) {
+            aggType = ATypeTag.SYSTEM_NULL;
+        } else {
+            outputVal.assign(dequeValues[dequeHead]);
+        }
+        return true;
+    }
+
+    /**
+     * Adds a value to the back of the deque after removing the values that it makes obsolete,
+     * i.e. the ones that are not less (min) or greater (max) than the new value and will be removed before it
+     */
+    private void dequeAdd(IPointable newVal, long seq) throws HyracksDataException {
+        byte[] newValByteArray = newVal.getByteArray();
+        int newValStartOffset = newVal.getStartOffset();
+        value1.set(newValByteArray, newValStartOffset + 1, newVal.getLength() - 1,
+                VALUE_TYPE_MAPPING[newValByteArray[newValStartOffset]]);
+        while (dequeSize > 0) {
+            ArrayBackedValueStorage lastVal = dequeValues[(dequeHead + dequeSize - 1) % dequeValues.length];
+            value2.set(lastVal.getByteArray(), lastVal.getStartOffset() + 1, lastVal.getLength() - 1,
+                    VALUE_TYPE_MAPPING[newValByteArray[newValStartOffset]]);
+            ILogicalBinaryComparator.Result result = cmp.compare(value1, value2);
+            if (result == ILogicalBinaryComparator.Result.EQ || result == (isMin ? ILogicalBinaryComparator.Result.LT
+                    : ILogicalBinaryComparator.Result.GT)) {
+                dequeSize--;
+            } else if (result == (isMin ? ILogicalBinaryComparator.Result.GT : ILogicalBinaryComparator.Result.LT)) {
+                break;
+            } else {
+                invertible = false;
+                return;
+            }
+        }
+        if (dequeSize == dequeValues.length) {
+            growDeque();
+        }
+        int tail = (dequeHead + dequeSize) % dequeValues.length;
+        if (dequeValues[tail] == null) {
+            dequeValues[tail] = new ArrayBackedValueStorage();
+        }
+        dequeValues[tail].assign(newVal);
+        dequeSeqs[tail] = seq;
+        dequeSize++;
+    }
+
+    private void growDeque() {
+        ArrayBackedValueStorage[] newValues = new ArrayBackedValueStorage[dequeValues.length * 2];
+        long[] newSeqs = new long[newValues.length];
+        for (int i = 0; i < dequeSize; i++) {
+            int idx = (dequeHead + i) % dequeValues.length;
+            newValues[i] = dequeValues[idx];
+            newSeqs[i] = dequeSeqs[idx];
+        }
+        dequeValues = newValues;
+        dequeSeqs = newSeqs;
+        dequeHead = 0;
+    }
+
     @Override
     public void finish(IPointable result) throws HyracksDataException {
         finish(result, false);
@@ -37,6 +37,7 @@ import org.apache.asterix.om.types.EnumDeserializer;
 import org.apache.asterix.runtime.exceptions.OverflowException;
 import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
 import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IInvertibleAggregateEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
 import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
@@ -47,7 +48,8 @@ import org.apache.hyracks.data.std.primitive.VoidPointable;
 import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
 import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
 
-public abstract class AbstractSumAggregateFunction extends AbstractAggregateFunction {
+public abstract class AbstractSumAggregateFunction extends AbstractAggregateFunction
+        implements IInvertibleAggregateEvaluator {
 
     private final IEvaluatorContext context;
 
@@ -65,12 +67,18 @@ public abstract class AbstractSumAggregateFunction extends AbstractAggregateFunc
     // Result holders
     private long sumInt64;
     private double sumDouble;
+    private long count; // number of values in sumInt64
     private AMutableInt64 aInt64 = new AMutableInt64(0);
     private AMutableDouble aDouble = new AMutableDouble(0);
 
     // Flags for output type (If all output flags are false, double output is used)
     private boolean isUseInt64ForResult = true;
 
+    // A sliding window frame adds the values that enter it before removing the ones that leave it, so a sum that
+    // overflows might fit again after the removals. The error is only raised if the sum is output that way.
+    private boolean removeEnabled;
+    private boolean overflowed;
+
     // Serializer/Deserializer
     @SuppressWarnings("rawtypes")
     private ISerializerDeserializer aInt64Serde =
@@ -104,7 +112,9 @@ public abstract class AbstractSumAggregateFunction extends AbstractAggregateFunc
         aggType = ATypeTag.SYSTEM_NULL;
         sumInt64 = 0;
         sumDouble = 0.0;
+        count = 0;
         isWarned = false;
+        overflowed = false;
     }
 
     // Called for each incoming tuple
@@ -187,6 +197,60 @@ public abstract class AbstractSumAggregateFunction extends AbstractAggregateFunc
         isUseInt64ForResult = false;
     }
 
+    @Override
+    public void enableRemove() {
+        removeEnabled = true;
+    }
+
+    // Called for each tuple that leaves a sliding window frame
+    @Override
+    public boolean remove(IFrameTupleReference tuple) throws HyracksDataException {
+        // NULL and unsupported values cannot be taken back,
+        // floating point sums would accumulate rounding errors if values were subtracted from them
+        if (aggType == ATypeTag.NULL || !isUseInt64ForResult || isWarned || overflowed) {
+            return false;
+        }
+
+        eval.evaluate(tuple, inputVal);
+        byte[] data = inputVal.getByteArray();
+        int offset = inputVal.getStartOffset();
+        ATypeTag typeTag = EnumDeserializer.ATYPETAGDESERIALIZER.deserialize(data[offset]);
+
+        long val;
+        switch (typeTag) {
+            case MISSING:
+            case NULL:
+            case SYSTEM_NULL:
+                // skipped by step()
+                return true;
+            case TINYINT:
+                val = AInt8SerializerDeserializer.getByte(data, offset + 1);
+                break;
+            case SMALLINT:
+                val = AInt16SerializerDeserializer.getShort(data, offset + 1);
+                break;
+            case INTEGER:
+                val = AInt32SerializerDeserializer.getInt(data, offset + 1);
+                break;
+            case BIGINT:
+                val = AInt64SerializerDeserializer.getLong(data, offset + 1);
+                break;
+            default:
+                return false;
+        }
+        try {
+            sumInt64 = Math.subtractExact(sumInt64, val);
+        } catch (ArithmeticException e) {
+            // the sum of the remaining values will be computed again
+            return false;
+        }
+        sumDouble = sumInt64;
+        if (--count == 0) {
+            aggType = ATypeTag.SYSTEM_NULL;
+        }
+        return true;
+    }
+
     // Process int64 value
     private void processInt64Value(long value) throws HyracksDataException {
         // Check the output flag first
@@ -194,12 +258,16 @@ public abstract class AbstractSumAggregateFunction extends AbstractAggregateFunc
             processFloatValue(value);
         }
         // Int64 output, watch out for overflow exception
-        else {
+        else if (!overflowed) {
             try {
                 sumInt64 = Math.addExact(sumInt64, value);
                 sumDouble = sumInt64; // Keep the sumDouble variable up-to-date as well
+                count++;
             } catch (ArithmeticException ignored) {
-                throw new OverflowException(sourceLoc, getIdentifier());
+                if (!removeEnabled) {
+                    throw new OverflowException(sourceLoc, getIdentifier());
+                }
+                overflowed = true;
             }
         }
     }
@@ -230,6 +298,9 @@ public abstract class AbstractSumAggregateFunction extends AbstractAggregateFunc
     // Called for final calculations
     @SuppressWarnings("unchecked")
     private void finishFinal(IPointable result) throws HyracksDataException {
+        if (overflowed) {
+            throw new OverflowException(sourceLoc, getIdentifier());
+        }
         // Reset the result storage
         resultStorage.reset();
 
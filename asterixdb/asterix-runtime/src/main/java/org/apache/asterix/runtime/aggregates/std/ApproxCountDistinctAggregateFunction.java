@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.aggregates.std;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.asterix.formats.nontagged.BinaryHashFunctionFactoryProvider;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.AMutableInt64;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.runtime.aggregates.utils.HyperLogLogSketch;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunction;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+
+/**
+ * Estimates the number of distinct values with a {@link HyperLogLogSketch} of the value hashes.
+ */
+public class ApproxCountDistinctAggregateFunction extends AbstractApproxAggregateFunction {
+
+    private final HyperLogLogSketch sketch = new HyperLogLogSketch();
+    private final IBinaryHashFunction hashFunction = BinaryHashFunctionFactoryProvider.INSTANCE
+            .getBinaryHashFunctionFactory(BuiltinType.ANY).createBinaryHashFunction();
+    private final AMutableInt64 aInt64 = new AMutableInt64(0);
+    @SuppressWarnings("unchecked")
+    private final ISerializerDeserializer<AInt64> int64Serde =
+            SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.AINT64);
+
+    public ApproxCountDistinctAggregateFunction(IScalarEvaluatorFactory[] args, IEvaluatorContext context,
+            boolean strict, Step step, SourceLocation sourceLoc) throws HyracksDataException {
+        super(args, context, strict, step, sourceLoc);
+    }
+
+    @Override
+    protected FunctionIdentifier getFunctionIdentifier() {
+        return strict ? BuiltinFunctions.APPROX_COUNT_DISTINCT : BuiltinFunctions.SQL_APPROX_COUNT_DISTINCT;
+    }
+
+    @Override
+    protected void resetSketch() {
+        sketch.reset();
+    }
+
+    @Override
+    protected void addValue(ATypeTag typeTag, byte[] data, int offset, int length) throws HyracksDataException {
+        sketch.add(hashFunction.hash(data, offset, length));
+    }
+
+    @Override
+    protected void mergeSketch(byte[] data, int offset, int length) {
+        sketch.merge(data, offset, length);
+    }
+
+    @Override
+    protected void writeSketch(DataOutput out) throws IOException {
+        sketch.write(out);
+    }
+
+    @Override
+    protected void writeResult(DataOutput out) throws IOException {
+        aInt64.setValue(sketch.estimate());
+        int64Serde.serialize(aInt64, out);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.aggregates.std;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.ADouble;
+import org.apache.asterix.om.base.AMutableDouble;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.om.types.hierachy.ATypeHierarchy;
+import org.apache.asterix.runtime.aggregates.utils.QuantileSketch;
+import org.apache.asterix.runtime.exceptions.UnsupportedItemTypeException;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+
+/**
+ * Estimates the median of numeric values with a {@link QuantileSketch}. The result is NULL if there is no value.
+ */
+public class ApproxMedianAggregateFunction extends AbstractApproxAggregateFunction {
+
+    private static final double MEDIAN = 0.5;
+
+    private final QuantileSketch sketch = new QuantileSketch();
+    private final AMutableDouble aDouble = new AMutableDouble(0);
+    @SuppressWarnings("unchecked")
+    private final ISerializerDeserializer<ADouble> doubleSerde =
+            SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ADOUBLE);
+
+    public ApproxMedianAggregateFunction(IScalarEvaluatorFactory[] args, IEvaluatorContext context, boolean strict,
+            Step step, SourceLocation sourceLoc) throws HyracksDataException {
+        super(args, context, strict, step, sourceLoc);
+    }
+
+    @Override
+    protected FunctionIdentifier getFunctionIdentifier() {
+        return strict ? BuiltinFunctions.APPROX_MEDIAN : BuiltinFunctions.SQL_APPROX_MEDIAN;
+    }
+
+    @Override
+    protected void resetSketch() {
+        sketch.reset();
+    }
+
+    @Override
+    protected void addValue(ATypeTag typeTag, byte[] data, int offset, int length) throws HyracksDataException {
+        switch (typeTag) {
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+            case FLOAT:
+            case DOUBLE:
+                double value = ATypeHierarchy.getDoubleValue(getFunctionIdentifier().getName(), 0, data, offset);
+                // NaN has no rank
+                if (!Double.isNaN(value)) {
+                    sketch.add(value);
+                }
+                break;
+            default:
+                throw new UnsupportedItemTypeException(sourceLoc, getFunctionIdentifier(), data[offset]);
+        }
+    }
+
+    @Override
+    protected void mergeSketch(byte[] data, int offset, int length) {
+        sketch.merge(data, offset, length);
+    }
+
+    @Override
+    protected void writeSketch(DataOutput out) throws IOException {
+        sketch.write(out);
+    }
+
+    @Override
+    protected void writeResult(DataOutput out) throws IOException {
+        if (sketch.isEmpty()) {
+            out.writeByte(ATypeTag.SERIALIZED_NULL_TYPE_TAG);
+        } else {
+            aDouble.setValue(sketch.getQuantile(MEDIAN));
+            doubleSerde.serialize(aDouble, out);
+        }
+    }
+}
@@ -38,4 +38,8 @@ public class CountAggregateFunction extends AbstractCountAggregateFunction {
         cnt++;
     }
 
+    @Override
+    protected void removeNull() {
+        cnt--;
+    }
 }
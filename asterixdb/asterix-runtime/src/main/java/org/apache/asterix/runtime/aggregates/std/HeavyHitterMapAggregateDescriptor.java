@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.aggregates.std;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.ABinary;
+import org.apache.asterix.om.base.AMutableBinary;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.functions.IFunctionDescriptor;
+import org.apache.asterix.om.functions.IFunctionDescriptorFactory;
+import org.apache.asterix.om.functions.IFunctionTypeInferer;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.runtime.aggregates.base.AbstractAggregateFunctionDynamicDescriptor;
+import org.apache.asterix.runtime.functions.FunctionTypeInferers;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.runtime.base.IAggregateEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IAggregateEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.ByteArrayPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+import org.apache.hyracks.dataflow.common.data.partition.skew.HeavyHitterMap;
+import org.apache.hyracks.dataflow.common.data.partition.skew.HeavyHitterSketch;
+
+/**
+ * Merges the {@link HeavyHitterSketch}es produced by {@link LocalHeavyHittersAggregateDescriptor} on every partition
+ * and turns the merged sketch into the {@link HeavyHitterMap} that the skew-aware hash exchanges of a join use to
+ * spread the tuples of the skewed keys over several partitions.
+ */
+public class HeavyHitterMapAggregateDescriptor extends AbstractAggregateFunctionDynamicDescriptor {
+    private static final long serialVersionUID = 1L;
+    private int numPartitions;
+    private double threshold;
+    private int capacity;
+
+    public static final IFunctionDescriptorFactory FACTORY = new IFunctionDescriptorFactory() {
+        @Override
+        public IFunctionDescriptor createFunctionDescriptor() {
+            return new HeavyHitterMapAggregateDescriptor();
+        }
+
+        @Override
+        public IFunctionTypeInferer createFunctionTypeInferer() {
+            return FunctionTypeInferers.SET_HEAVY_HITTER_MAP_PARAMETERS;
+        }
+    };
+
+    @Override
+    public FunctionIdentifier getIdentifier() {
+        return BuiltinFunctions.HEAVY_HITTER_MAP;
+    }
+
+    /**
+     * @param states states[0]: number of partitions, states[1]: the minimum share of the input of a heavy hitter,
+     *            states[2]: capacity of the merged sketch
+     */
+    @Override
+    public void setImmutableStates(Object... states) {
+        numPartitions = (int) states[0];
+        threshold = (double) states[1];
+        capacity = (int) states[2];
+    }
+
+    @Override
+    public IAggregateEvaluatorFactory createAggregateEvaluatorFactory(final IScalarEvaluatorFactory[] args) {
+        return new IAggregateEvaluatorFactory() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public IAggregateEvaluator createAggregateEvaluator(final IEvaluatorContext ctx)
+                    throws HyracksDataException {
+                return new HeavyHitterMapFunction(args, ctx, numPartitions, threshold, capacity, sourceLoc);
+            }
+        };
+    }
+
+    private static class HeavyHitterMapFunction extends AbstractAggregateFunction {
+        @SuppressWarnings("unchecked")
+        private ISerializerDeserializer<ABinary> binarySerde =
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ABINARY);
+        private final AMutableBinary binary = new AMutableBinary(null, 0, 0);
+        private final ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        private final ArrayBackedValueStorage mapBits = new ArrayBackedValueStorage();
+        private final IPointable input = new VoidPointable();
+        private final ByteArrayPointable sketchPointable = new ByteArrayPointable();
+        private final IScalarEvaluator localSketchEval;
+        private final HeavyHitterSketch sketch;
+        private final int numPartitions;
+        private final double threshold;
+
+        private HeavyHitterMapFunction(IScalarEvaluatorFactory[] args, IEvaluatorContext context, int numPartitions,
+                double threshold, int capacity, SourceLocation sourceLocation) throws HyracksDataException {
+            super(sourceLocation);
+            this.localSketchEval = args[0].createScalarEvaluator(context);
+            this.sketch = new HeavyHitterSketch(capacity);
+            this.numPartitions = numPartitions;
+            this.threshold = threshold;
+        }
+
+        @Override
+        public void init() throws HyracksDataException {
+            sketch.reset();
+        }
+
+        /**
+         * Receives the sketch of one partition and merges it into the global sketch.
+         * @param tuple the partition's sketch
+         * @throws HyracksDataException IO Exception
+         */
+        @Override
+        public void step(IFrameTupleReference tuple) throws HyracksDataException {
+            localSketchEval.evaluate(tuple, input);
+            sketchPointable.set(input.getByteArray(), input.getStartOffset() + 1, input.getLength() - 1);
+            try {
+                sketch.merge(HeavyHitterSketch.read(new DataInputStream(new ByteArrayInputStream(
+                        sketchPointable.getByteArray(), sketchPointable.getContentStartOffset(),
+                        sketchPointable.getContentLength()))));
+            } catch (IOException e) {
+                throw HyracksDataException.create(e);
+            }
+        }
+
+        /**
+         * Produces the heavy hitter map out of the merged sketch.
+         * @param result contains the serialized heavy hitter map
+         * @throws HyracksDataException IO Exception
+         */
+        @Override
+        public void finish(IPointable result) throws HyracksDataException {
+            mapBits.reset();
+            storage.reset();
+            try {
+                sketch.computeHeavyHitterMap(threshold, numPartitions).write(mapBits.getDataOutput());
+            } catch (IOException e) {
+                throw HyracksDataException.create(e);
+            }
+            binary.setValue(mapBits.getByteArray(), mapBits.getStartOffset(), mapBits.getLength());
+            binarySerde.serialize(binary, storage.getDataOutput());
+            result.set(storage);
+        }
+
+        @Override
+        public void finishPartial(IPointable result) throws HyracksDataException {
+            finish(result);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.aggregates.std;
+
+import java.io.IOException;
+
+import org.apache.asterix.formats.nontagged.BinaryHashFunctionFactoryProvider;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.ABinary;
+import org.apache.asterix.om.base.AMutableBinary;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.functions.IFunctionDescriptor;
+import org.apache.asterix.om.functions.IFunctionDescriptorFactory;
+import org.apache.asterix.om.functions.IFunctionTypeInferer;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.runtime.aggregates.base.AbstractAggregateFunctionDynamicDescriptor;
+import org.apache.asterix.runtime.functions.FunctionTypeInferers;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.runtime.base.IAggregateEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IAggregateEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunction;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+import org.apache.hyracks.dataflow.common.data.partition.skew.HeavyHitterSketch;
+import org.apache.hyracks.dataflow.common.data.partition.skew.SkewAwareHashUtil;
+
+/**
+ * Counts the most frequent join keys of a partition in a {@link HeavyHitterSketch}. The keys are hashed with the hash
+ * functions of the hash exchange that follows, so that the global {@link HeavyHitterMapAggregateDescriptor} can
+ * describe the skewed keys by their hashes. Only every {@code sampleRate}-th tuple is counted.
+ */
+public class LocalHeavyHittersAggregateDescriptor extends AbstractAggregateFunctionDynamicDescriptor {
+    private static final long serialVersionUID = 1L;
+    private int capacity;
+    private int sampleRate;
+    private IAType[] argsTypes;
+
+    public static final IFunctionDescriptorFactory FACTORY = new IFunctionDescriptorFactory() {
+        @Override
+        public IFunctionDescriptor createFunctionDescriptor() {
+            return new LocalHeavyHittersAggregateDescriptor();
+        }
+
+        @Override
+        public IFunctionTypeInferer createFunctionTypeInferer() {
+            return FunctionTypeInferers.SET_HEAVY_HITTER_PARAMETERS;
+        }
+    };
+
+    @Override
+    public FunctionIdentifier getIdentifier() {
+        return BuiltinFunctions.LOCAL_HEAVY_HITTERS;
+    }
+
+    /**
+     * @param states states[0]: sketch capacity, states[1]: sampling rate, states[2]: types of the hashed fields
+     */
+    @Override
+    public void setImmutableStates(Object... states) {
+        capacity = (int) states[0];
+        sampleRate = (int) states[1];
+        argsTypes = (IAType[]) states[2];
+    }
+
+    @Override
+    public IAggregateEvaluatorFactory createAggregateEvaluatorFactory(final IScalarEvaluatorFactory[] args) {
+        return new IAggregateEvaluatorFactory() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public IAggregateEvaluator createAggregateEvaluator(final IEvaluatorContext ctx)
+                    throws HyracksDataException {
+                return new LocalHeavyHittersFunction(args, ctx, capacity, sampleRate, argsTypes, sourceLoc);
+            }
+        };
+    }
+
+    private static class LocalHeavyHittersFunction extends AbstractAggregateFunction {
+        @SuppressWarnings("unchecked")
+        private ISerializerDeserializer<ABinary> binarySerde =
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ABINARY);
+        private final AMutableBinary binary = new AMutableBinary(null, 0, 0);
+        private final ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        private final ArrayBackedValueStorage sketchBits = new ArrayBackedValueStorage();
+        private final IPointable inputFieldValue = new VoidPointable();
+        private final IScalarEvaluator[] keyEvals;
+        private final IBinaryHashFunction[] hashFunctions;
+        private final HeavyHitterSketch sketch;
+        private final int sampleRate;
+        private int count;
+
+        private LocalHeavyHittersFunction(IScalarEvaluatorFactory[] args, IEvaluatorContext context, int capacity,
+                int sampleRate, IAType[] argsTypes, SourceLocation srcLoc) throws HyracksDataException {
+            super(srcLoc);
+            keyEvals = new IScalarEvaluator[args.length];
+            hashFunctions = new IBinaryHashFunction[args.length];
+            for (int i = 0; i < args.length; i++) {
+                keyEvals[i] = args[i].createScalarEvaluator(context);
+                hashFunctions[i] = BinaryHashFunctionFactoryProvider.INSTANCE
+                        .getBinaryHashFunctionFactory(argsTypes[i]).createBinaryHashFunction();
+            }
+            this.sketch = new HeavyHitterSketch(capacity);
+            this.sampleRate = Math.max(1, sampleRate);
+        }
+
+        @Override
+        public void init() throws HyracksDataException {
+            sketch.reset();
+            count = 0;
+        }
+
+        @Override
+        public void step(IFrameTupleReference tuple) throws HyracksDataException {
+            if (count++ % sampleRate != 0) {
+                return;
+            }
+            int h = 0;
+            for (int i = 0; i < keyEvals.length; i++) {
+                keyEvals[i].evaluate(tuple, inputFieldValue);
+                h = SkewAwareHashUtil.combine(h, hashFunctions[i].hash(inputFieldValue.getByteArray(),
+                        inputFieldValue.getStartOffset(), inputFieldValue.getLength()));
+            }
+            sketch.add(SkewAwareHashUtil.normalize(h));
+        }
+
+        /**
+         * Sends the sketch of this partition, possibly empty, to the global heavy hitter map generator.
+         * @param result will store the serialized sketch
+         * @throws HyracksDataException IO exception
+         */
+        @Override
+        public void finish(IPointable result) throws HyracksDataException {
+            sketchBits.reset();
+            storage.reset();
+            try {
+                sketch.write(sketchBits.getDataOutput());
+            } catch (IOException e) {
+                throw HyracksDataException.create(e);
+            }
+            binary.setValue(sketchBits.getByteArray(), sketchBits.getStartOffset(), sketchBits.getLength());
+            binarySerde.serialize(binary, storage.getDataOutput());
+            result.set(storage);
+        }
+
+        @Override
+        public void finishPartial(IPointable result) throws HyracksDataException {
+            finish(result);
+        }
+    }
+}
@@ -36,4 +36,8 @@ public class SqlCountAggregateFunction extends AbstractCountAggregateFunction {
     @Override
     protected void processNull() {
     }
+
+    @Override
+    protected void removeNull() {
+    }
 }
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.aggregates.utils;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.hyracks.data.std.primitive.DoublePointable;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.data.std.primitive.LongPointable;
+
+/**
+ * A KLL sketch (Karnin, Lang and Liberty, "Optimal Quantile Approximation in Streams", 2016) for approximate
+ * quantiles of a stream of doubles. Items are kept in levels, an item at level h stands for 2^h input values. When a
+ * level is full it is sorted and every other item, starting at a random offset, is promoted to the next level.
+ * Level capacities shrink geometrically (by 2/3) from the top level down, so the sketch keeps O(k) items in total.
+ * Sketches are merged by concatenating their levels and compacting, which makes them suitable for distributed
+ * (local/global) aggregation. With the default k the rank of a returned quantile is typically within 1% of the
+ * requested one.
+ */
+public class QuantileSketch {
+
+    public static final int DEFAULT_K = 256;
+    private static final int MIN_LEVEL_CAPACITY = 8;
+
+    private final int k;
+    private double[][] levels = new double[1][];
+    private int[] levelSizes = new int[1];
+    private int numLevels;
+    private long count;
+    private long random;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    public QuantileSketch(int k) {
+        if (k < MIN_LEVEL_CAPACITY) {
+            throw new IllegalArgumentException("k must be at least " + MIN_LEVEL_CAPACITY + ": " + k);
+        }
+        this.k = k;
+        reset();
+    }
+
+    public void reset() {
+        Arrays.fill(levelSizes, 0);
+        numLevels = 1;
+        count = 0;
+        // compaction offsets are pseudo random but deterministic for the same input
+        random = 0x9E3779B97F4A7C15L;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void add(double value) {
+        append(0, value);
+        count++;
+        compress();
+    }
+
+    /**
+     * @param fraction the rank of the quantile, between 0 and 1
+     * @return the smallest kept value whose estimated rank is at least {@code fraction}, NaN if the sketch is empty
+     */
+    public double getQuantile(double fraction) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        // walk the sorted levels in value order, an item at level h weighs 2^h
+        int[] positions = new int[numLevels];
+        for (int h = 0; h < numLevels; h++) {
+            Arrays.sort(levels[h], 0, levelSizes[h]);
+        }
+        long rank = (long) Math.ceil(Math.min(1.0, Math.max(0.0, fraction)) * count);
+        long weight = 0;
+        double value = Double.NaN;
+        while (true) {
+            int minLevel = -1;
+            for (int h = 0; h < numLevels; h++) {
+                if (positions[h] < levelSizes[h]
+                        && (minLevel < 0 || levels[h][positions[h]] < levels[minLevel][positions[minLevel]])) {
+                    minLevel = h;
+                }
+            }
+            if (minLevel < 0) {
+                return value;
+            }
+            value = levels[minLevel][positions[minLevel]++];
+            weight += 1L << minLevel;
+            if (weight >= rank) {
+                return value;
+            }
+        }
+    }
+
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(k);
+        out.writeLong(count);
+        out.writeInt(numLevels);
+        for (int h = 0; h < numLevels; h++) {
+            out.writeInt(levelSizes[h]);
+            for (int i = 0; i < levelSizes[h]; i++) {
+                out.writeDouble(levels[h][i]);
+            }
+        }
+    }
+
+    /**
+     * Merges a sketch written by {@link #write(DataOutput)} into this one.
+     */
+    public void merge(byte[] bytes, int offset, int length) {
+        int pos = offset + Integer.BYTES;
+        count += LongPointable.getLong(bytes, pos);
+        pos += Long.BYTES;
+        int otherLevels = IntegerPointable.getInteger(bytes, pos);
+        pos += Integer.BYTES;
+        for (int h = 0; h < otherLevels; h++) {
+            int size = IntegerPointable.getInteger(bytes, pos);
+            pos += Integer.BYTES;
+            for (int i = 0; i < size; i++, pos += Double.BYTES) {
+                append(h, DoublePointable.getDouble(bytes, pos));
+            }
+        }
+        compress();
+    }
+
+    private void append(int level, double value) {
+        ensureLevels(level + 1);
+        double[] items = levels[level];
+        if (items == null) {
+            items = levels[level] = new double[Math.max(MIN_LEVEL_CAPACITY, capacity(level)) + 1];
+        } else if (levelSizes[level] == items.length) {
+            items = levels[level] = Arrays.copyOf(items, items.length * 2);
+        }
+        items[levelSizes[level]++] = value;
+    }
+
+    private void ensureLevels(int n) {
+        if (n > levels.length) {
+            levels = Arrays.copyOf(levels, n);
+            levelSizes = Arrays.copyOf(levelSizes, n);
+        }
+        numLevels = Math.max(numLevels, n);
+    }
+
+    private int capacity(int level) {
+        int depth = numLevels - 1 - level;
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(2.0 / 3.0, depth)));
+    }
+
+    private void compress() {
+        while (true) {
+            int size = 0;
+            int capacity = 0;
+            for (int h = 0; h < numLevels; h++) {
+                size += levelSizes[h];
+                capacity += capacity(h);
+            }
+            if (size <= capacity) {
+                return;
+            }
+            for (int h = 0; h < numLevels; h++) {
+                if (levelSizes[h] >= capacity(h)) {
+                    compact(h);
+                    break;
+                }
+            }
+        }
+    }
+
+    private void compact(int level) {
+        double[] items = levels[level];
+        int size = levelSizes[level];
+        Arrays.sort(items, 0, size);
+        // an odd item out stays at this level so that the total weight is preserved
+        int promoted = size & ~1;
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        for (int i = (int) (random & 1); i < promoted; i += 2) {
+            append(level + 1, items[i]);
+        }
+        items = levels[level];
+        if ((size & 1) == 1) {
+            items[0] = items[size - 1];
+            levelSizes[level] = 1;
+        } else {
+            levelSizes[level] = 0;
+        }
+    }
+}
@@ -46,9 +46,9 @@ import org.apache.asterix.om.types.ATypeTag;
 import org.apache.asterix.om.types.BuiltinType;
 import org.apache.asterix.om.types.EnumDeserializer;
 import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.runtime.evaluators.functions.AbstractBinaryBatchScalarEvaluator;
 import org.apache.asterix.runtime.evaluators.functions.PointableHelper;
 import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
-import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
 import org.apache.hyracks.algebricks.runtime.evaluators.ConstantEvalFactory;
 import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
@@ -57,9 +57,8 @@ import org.apache.hyracks.api.exceptions.SourceLocation;
 import org.apache.hyracks.data.std.api.IPointable;
 import org.apache.hyracks.data.std.primitive.TaggedValuePointable;
 import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
-import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
 
-public abstract class AbstractComparisonEvaluator implements IScalarEvaluator {
+public abstract class AbstractComparisonEvaluator extends AbstractBinaryBatchScalarEvaluator<TaggedValuePointable> {
 
     @SuppressWarnings("unchecked")
     protected final ISerializerDeserializer<AMissing> missingSerde =
@@ -69,14 +68,9 @@ public abstract class AbstractComparisonEvaluator implements IScalarEvaluator {
             SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ANULL);
     protected final ArrayBackedValueStorage resultStorage = new ArrayBackedValueStorage();
     protected final DataOutput out = resultStorage.getDataOutput();
-    protected final TaggedValuePointable argLeft = TaggedValuePointable.FACTORY.createPointable();
-    protected final TaggedValuePointable argRight = TaggedValuePointable.FACTORY.createPointable();
     protected final SourceLocation sourceLoc;
-    protected final IEvaluatorContext ctx;
     private final TaggedValueReference leftVal = new TaggedValueReference();
     private final TaggedValueReference rightVal = new TaggedValueReference();
-    private final IScalarEvaluator evalLeft;
-    private final IScalarEvaluator evalRight;
     private final ILogicalBinaryComparator logicalComparator;
     private final IAObject leftConstant;
     private final IAObject rightConstant;
@@ -84,9 +78,8 @@ public abstract class AbstractComparisonEvaluator implements IScalarEvaluator {
     AbstractComparisonEvaluator(IScalarEvaluatorFactory evalLeftFactory, IAType leftType,
             IScalarEvaluatorFactory evalRightFactory, IAType rightType, IEvaluatorContext ctx, SourceLocation sourceLoc,
             boolean isEquality) throws HyracksDataException {
-        this.ctx = ctx;
-        this.evalLeft = evalLeftFactory.createScalarEvaluator(ctx);
-        this.evalRight = evalRightFactory.createScalarEvaluator(ctx);
+        super(ctx, evalLeftFactory, evalRightFactory, TaggedValuePointable.FACTORY.createPointable(),
+                TaggedValuePointable.FACTORY.createPointable());
         this.sourceLoc = sourceLoc;
         logicalComparator = ComparatorUtil.createLogicalComparator(leftType, rightType, isEquality);
         leftConstant = getValueOfConstantEval(evalLeftFactory);
@@ -98,18 +91,14 @@ public abstract class AbstractComparisonEvaluator implements IScalarEvaluator {
     }
 
     @Override
-    public void evaluate(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
-        // Evaluates input args.
-        evalLeft.evaluate(tuple, argLeft);
-        evalRight.evaluate(tuple, argRight);
-
-        if (PointableHelper.checkAndSetMissingOrNull(result, argLeft, argRight)) {
+    protected void evaluateArguments(IPointable result) throws HyracksDataException {
+        if (PointableHelper.checkAndSetMissingOrNull(result, argPtr0, argPtr1)) {
             return;
         }
-        leftVal.set(argLeft.getByteArray(), argLeft.getStartOffset() + 1, argLeft.getLength() - 1,
-                VALUE_TYPE_MAPPING[argLeft.getTag()]);
-        rightVal.set(argRight.getByteArray(), argRight.getStartOffset() + 1, argRight.getLength() - 1,
-                VALUE_TYPE_MAPPING[argRight.getTag()]);
+        leftVal.set(argPtr0.getByteArray(), argPtr0.getStartOffset() + 1, argPtr0.getLength() - 1,
+                VALUE_TYPE_MAPPING[argPtr0.getTag()]);
+        rightVal.set(argPtr1.getByteArray(), argPtr1.getStartOffset() + 1, argPtr1.getLength() - 1,
+                VALUE_TYPE_MAPPING[argPtr1.getTag()]);
         evaluateImpl(result);
     }
 
@@ -137,7 +126,11 @@ public abstract class AbstractComparisonEvaluator implements IScalarEvaluator {
         result.set(resultStorage);
     }
 
-    private static IAObject getConstant(byte[] bytes) {
+    /**
+     * @return the numeric constant that the comparator can compare without deserializing it again for every tuple,
+     *         {@code null} for any other type
+     */
+    public static IAObject getConstant(byte[] bytes) {
         int start = 0;
         ATypeTag typeTag = EnumDeserializer.ATYPETAGDESERIALIZER.deserialize(bytes[start]);
         if (typeTag == null) {
@@ -50,7 +50,7 @@ public abstract class AbstractIfEqualsEvaluator extends AbstractComparisonEvalua
                 result.set(resultStorage);
                 break;
             default:
-                result.set(argLeft);
+                result.set(argPtr0);
         }
     }
 
@@ -56,8 +56,8 @@ public abstract class AbstractValueComparisonEvaluator extends AbstractCompariso
                 writeNull(result);
                 break;
             case INCOMPARABLE:
-                ExceptionUtil.warnIncomparableTypes(ctx, sourceLoc, VALUE_TYPE_MAPPING[argLeft.getTag()],
-                        VALUE_TYPE_MAPPING[argRight.getTag()]);
+                ExceptionUtil.warnIncomparableTypes(ctx, sourceLoc, VALUE_TYPE_MAPPING[argPtr0.getTag()],
+                        VALUE_TYPE_MAPPING[argPtr1.getTag()]);
                 writeNull(result);
                 break;
             default:
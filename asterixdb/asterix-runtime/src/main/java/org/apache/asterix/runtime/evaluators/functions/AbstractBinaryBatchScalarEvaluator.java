@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators.functions;
+
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchScalarEvaluators;
+import org.apache.hyracks.algebricks.runtime.evaluators.SelectionVector;
+import org.apache.hyracks.algebricks.runtime.evaluators.ValueVector;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+
+/**
+ * An evaluator of a function with two arguments that can be evaluated both a tuple at a time and a frame at a time.
+ * Subclasses only compute the result from the already evaluated arguments, {@link #argPtr0} and {@link #argPtr1}.
+ * A frame at a time, the arguments are evaluated for the whole frame first, then the function is computed in a tight
+ * loop over the argument vectors. The argument evaluators are created on first use, so that an instance only
+ * creates the ones of the mode it is used in.
+ */
+public abstract class AbstractBinaryBatchScalarEvaluator<P extends IPointable>
+        implements IScalarEvaluator, IBatchScalarEvaluator {
+
+    protected final IEvaluatorContext ctx;
+    protected final P argPtr0;
+    protected final P argPtr1;
+    private final IScalarEvaluatorFactory argEvalFactory0;
+    private final IScalarEvaluatorFactory argEvalFactory1;
+    private final IPointable resultPtr = new VoidPointable();
+    private IScalarEvaluator eval0;
+    private IScalarEvaluator eval1;
+    private IBatchScalarEvaluator batchEval0;
+    private IBatchScalarEvaluator batchEval1;
+    private ValueVector argValues0;
+    private ValueVector argValues1;
+
+    protected AbstractBinaryBatchScalarEvaluator(IEvaluatorContext ctx, IScalarEvaluatorFactory argEvalFactory0,
+            IScalarEvaluatorFactory argEvalFactory1, P argPtr0, P argPtr1) {
+        this.ctx = ctx;
+        this.argEvalFactory0 = argEvalFactory0;
+        this.argEvalFactory1 = argEvalFactory1;
+        this.argPtr0 = argPtr0;
+        this.argPtr1 = argPtr1;
+    }
+
+    @Override
+    public void evaluate(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
+        if (eval0 == null) {
+            eval0 = argEvalFactory0.createScalarEvaluator(ctx);
+            eval1 = argEvalFactory1.createScalarEvaluator(ctx);
+        }
+        eval0.evaluate(tuple, argPtr0);
+        eval1.evaluate(tuple, argPtr1);
+        evaluateArguments(result);
+    }
+
+    @Override
+    public void evaluate(IFrameTupleAccessor accessor, SelectionVector selection, ValueVector result)
+            throws HyracksDataException {
+        if (batchEval0 == null) {
+            batchEval0 = BatchScalarEvaluators.create(argEvalFactory0, ctx);
+            batchEval1 = BatchScalarEvaluators.create(argEvalFactory1, ctx);
+            argValues0 = new ValueVector();
+            argValues1 = new ValueVector();
+        }
+        batchEval0.evaluate(accessor, selection, argValues0);
+        batchEval1.evaluate(accessor, selection, argValues1);
+        result.reset(accessor.getTupleCount());
+        for (int i = 0, size = selection.size(); i < size; i++) {
+            int t = selection.get(i);
+            argValues0.get(t, argPtr0);
+            argValues1.get(t, argPtr1);
+            evaluateArguments(resultPtr);
+            byte[] bytes = resultPtr.getByteArray();
+            if (bytes == argPtr0.getByteArray() && argValues0.isReference(t)
+                    || bytes == argPtr1.getByteArray() && argValues1.isReference(t)) {
+                // e.g. a field of a record in the frame, no need to copy it
+                result.setReference(t, bytes, resultPtr.getStartOffset(), resultPtr.getLength());
+            } else {
+                result.set(t, resultPtr);
+            }
+        }
+    }
+
+    /**
+     * Computes the result of the function from {@link #argPtr0} and {@link #argPtr1}.
+     *
+     * @param result the pointable to set to the result, it only needs to be valid until the next call
+     */
+    protected abstract void evaluateArguments(IPointable result) throws HyracksDataException;
+}
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators.functions;
+
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * A factory whose evaluators work both a tuple at a time and a frame at a time.
+ */
+public abstract class AbstractBinaryBatchScalarEvaluatorFactory implements IBatchScalarEvaluatorFactory {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public IScalarEvaluator createScalarEvaluator(IEvaluatorContext ctx) throws HyracksDataException {
+        return createEvaluator(ctx);
+    }
+
+    @Override
+    public IBatchScalarEvaluator createBatchScalarEvaluator(IEvaluatorContext ctx) throws HyracksDataException {
+        return createEvaluator(ctx);
+    }
+
+    protected abstract AbstractBinaryBatchScalarEvaluator<?> createEvaluator(IEvaluatorContext ctx)
+            throws HyracksDataException;
+}
@@ -54,14 +54,12 @@ import org.apache.asterix.runtime.exceptions.OverflowException;
 import org.apache.asterix.runtime.exceptions.UnderflowException;
 import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
 import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
-import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
 import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.api.IPointable;
 import org.apache.hyracks.data.std.primitive.VoidPointable;
 import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
-import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
 
 public abstract class AbstractNumericArithmeticEval extends AbstractScalarFunctionDynamicDescriptor {
     private static final long serialVersionUID = 527445160961348706L;
@@ -115,19 +113,17 @@ public abstract class AbstractNumericArithmeticEval extends AbstractScalarFuncti
 
     @Override
     public IScalarEvaluatorFactory createEvaluatorFactory(final IScalarEvaluatorFactory[] args) {
-        return new IScalarEvaluatorFactory() {
+        return new AbstractBinaryBatchScalarEvaluatorFactory() {
             private static final long serialVersionUID = 1L;
 
             @Override
-            public IScalarEvaluator createScalarEvaluator(IEvaluatorContext ctx) throws HyracksDataException {
+            protected AbstractBinaryBatchScalarEvaluator<?> createEvaluator(IEvaluatorContext ctx)
+                    throws HyracksDataException {
 
-                return new IScalarEvaluator() {
+                return new AbstractBinaryBatchScalarEvaluator<IPointable>(ctx, args[0], args[1], new VoidPointable(),
+                        new VoidPointable()) {
                     private final ArrayBackedValueStorage resultStorage = new ArrayBackedValueStorage();
                     private final DataOutput out = resultStorage.getDataOutput();
-                    private final IPointable argPtr0 = new VoidPointable();
-                    private final IPointable argPtr1 = new VoidPointable();
-                    private final IScalarEvaluator evalLeft = args[0].createScalarEvaluator(ctx);
-                    private final IScalarEvaluator evalRight = args[1].createScalarEvaluator(ctx);
                     private final double[] operandsFloating = new double[args.length];
                     private final long[] operandsInteger = new long[args.length];
 
@@ -189,10 +185,7 @@ public abstract class AbstractNumericArithmeticEval extends AbstractScalarFuncti
 
                     @Override
                     @SuppressWarnings("unchecked")
-                    public void evaluate(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
-                        evalLeft.evaluate(tuple, argPtr0);
-                        evalRight.evaluate(tuple, argPtr1);
-
+                    protected void evaluateArguments(IPointable result) throws HyracksDataException {
                         resultStorage.reset();
 
                         if (PointableHelper.checkAndSetMissingOrNull(result, argPtr0, argPtr1)) {
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators.functions;
+
+import org.apache.asterix.dataflow.data.nontagged.serde.ABooleanSerializerDeserializer;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.runtime.exceptions.TypeMismatchException;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchScalarEvaluators;
+import org.apache.hyracks.algebricks.runtime.evaluators.SelectionVector;
+import org.apache.hyracks.algebricks.runtime.evaluators.ValueVector;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+
+/**
+ * Evaluates AND or OR a frame at a time. Each argument is only evaluated for the tuples whose result is not decided
+ * by the previous arguments yet, i.e. the tuples for which no argument was FALSE (AND) or TRUE (OR), so the selection
+ * of a conjunctive filter narrows down from one conjunct to the next. This is the same short-circuiting as the
+ * tuple-at-a-time evaluators, so the same arguments are evaluated for the same tuples and the MISSING/NULL
+ * semantics are the same.
+ */
+public class AndOrBatchScalarEvaluator implements IBatchScalarEvaluator {
+
+    private static final byte[] TRUE = { ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG, 1 };
+    private static final byte[] FALSE = { ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG, 0 };
+    private static final byte[] NULL = { ATypeTag.SERIALIZED_NULL_TYPE_TAG };
+    private static final byte[] MISSING = { ATypeTag.SERIALIZED_MISSING_TYPE_TAG };
+
+    private static final byte MET_NULL = 1;
+    private static final byte MET_MISSING = 2;
+
+    private final boolean isAnd;
+    private final FunctionIdentifier funId;
+    private final SourceLocation sourceLoc;
+    private final IBatchScalarEvaluator[] evals;
+    private final ValueVector argValues = new ValueVector();
+    private SelectionVector undecided = new SelectionVector();
+    private SelectionVector nextUndecided = new SelectionVector();
+    // whether a MISSING or NULL argument was met, per tuple
+    private byte[] unknowns = new byte[0];
+
+    public AndOrBatchScalarEvaluator(IEvaluatorContext ctx, IScalarEvaluatorFactory[] args, boolean isAnd,
+            FunctionIdentifier funId, SourceLocation sourceLoc) throws HyracksDataException {
+        this.isAnd = isAnd;
+        this.funId = funId;
+        this.sourceLoc = sourceLoc;
+        evals = new IBatchScalarEvaluator[args.length];
+        for (int i = 0; i < args.length; i++) {
+            evals[i] = BatchScalarEvaluators.create(args[i], ctx);
+        }
+    }
+
+    @Override
+    public void evaluate(IFrameTupleAccessor accessor, SelectionVector selection, ValueVector result)
+            throws HyracksDataException {
+        int tupleCount = accessor.getTupleCount();
+        result.reset(tupleCount);
+        if (unknowns.length < tupleCount) {
+            unknowns = new byte[Math.max(tupleCount, unknowns.length * 2)];
+        }
+        undecided.reset();
+        for (int i = 0, size = selection.size(); i < size; i++) {
+            int t = selection.get(i);
+            unknowns[t] = 0;
+            undecided.add(t);
+        }
+        // AND is decided by a FALSE argument, OR by a TRUE argument
+        boolean decisiveValue = !isAnd;
+        for (int a = 0; a < evals.length && undecided.size() > 0; a++) {
+            evals[a].evaluate(accessor, undecided, argValues);
+            nextUndecided.reset();
+            for (int i = 0, size = undecided.size(); i < size; i++) {
+                int t = undecided.get(i);
+                byte[] bytes = argValues.getByteArray(t);
+                int offset = argValues.getStartOffset(t);
+                byte tag = bytes[offset];
+                if (tag == ATypeTag.SERIALIZED_MISSING_TYPE_TAG) {
+                    unknowns[t] |= MET_MISSING;
+                } else if (tag == ATypeTag.SERIALIZED_NULL_TYPE_TAG) {
+                    unknowns[t] |= MET_NULL;
+                } else if (tag != ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG) {
+                    throw new TypeMismatchException(sourceLoc, funId, a, tag, ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG);
+                } else if (ABooleanSerializerDeserializer.getBoolean(bytes, offset + 1) == decisiveValue) {
+                    setResult(result, t, decisiveValue ? TRUE : FALSE);
+                    continue;
+                }
+                nextUndecided.add(t);
+            }
+            SelectionVector tmp = undecided;
+            undecided = nextUndecided;
+            nextUndecided = tmp;
+        }
+        for (int i = 0, size = undecided.size(); i < size; i++) {
+            int t = undecided.get(i);
+            byte[] value;
+            if ((unknowns[t] & MET_MISSING) != 0 && (isAnd || (unknowns[t] & MET_NULL) == 0)) {
+                // MISSING AND NULL = MISSING, but NULL OR MISSING = NULL
+                value = MISSING;
+            } else if (unknowns[t] != 0) {
+                value = NULL;
+            } else {
+                value = isAnd ? TRUE : FALSE;
+            }
+            setResult(result, t, value);
+        }
+    }
+
+    private static void setResult(ValueVector result, int t, byte[] value) {
+        result.setReference(t, value, 0, value.length);
+    }
+}
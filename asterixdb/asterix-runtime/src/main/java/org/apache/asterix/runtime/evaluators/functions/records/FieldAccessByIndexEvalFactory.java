@@ -28,11 +28,12 @@ import org.apache.asterix.om.types.AUnionType;
 import org.apache.asterix.om.types.IAType;
 import org.apache.asterix.om.utils.NonTaggedFormatUtil;
 import org.apache.asterix.om.utils.RecordUtil;
+import org.apache.asterix.runtime.evaluators.functions.AbstractBinaryBatchScalarEvaluator;
+import org.apache.asterix.runtime.evaluators.functions.AbstractBinaryBatchScalarEvaluatorFactory;
 import org.apache.asterix.runtime.evaluators.functions.PointableHelper;
 import org.apache.asterix.runtime.exceptions.TypeMismatchException;
 import org.apache.hyracks.algebricks.common.exceptions.NotImplementedException;
 import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
-import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.exceptions.SourceLocation;
@@ -40,9 +41,8 @@ import org.apache.hyracks.data.std.api.IPointable;
 import org.apache.hyracks.data.std.primitive.IntegerPointable;
 import org.apache.hyracks.data.std.primitive.VoidPointable;
 import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
-import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
 
-public class FieldAccessByIndexEvalFactory implements IScalarEvaluatorFactory {
+public class FieldAccessByIndexEvalFactory extends AbstractBinaryBatchScalarEvaluatorFactory {
 
     private static final long serialVersionUID = 1L;
     private final IScalarEvaluatorFactory recordEvalFactory;
@@ -61,36 +61,32 @@ public class FieldAccessByIndexEvalFactory implements IScalarEvaluatorFactory {
     }
 
     @Override
-    public IScalarEvaluator createScalarEvaluator(final IEvaluatorContext ctx) throws HyracksDataException {
-        return new IScalarEvaluator() {
+    protected AbstractBinaryBatchScalarEvaluator<?> createEvaluator(final IEvaluatorContext ctx)
+            throws HyracksDataException {
+        return new AbstractBinaryBatchScalarEvaluator<IPointable>(ctx, recordEvalFactory, fieldIndexEvalFactory,
+                new VoidPointable(), new VoidPointable()) {
             private final ArrayBackedValueStorage resultStorage = new ArrayBackedValueStorage();
             private final DataOutput out = resultStorage.getDataOutput();
-            private final IPointable inputArg0 = new VoidPointable();
-            private final IPointable inputArg1 = new VoidPointable();
-            private final IScalarEvaluator eval0 = recordEvalFactory.createScalarEvaluator(ctx);
-            private final IScalarEvaluator eval1 = fieldIndexEvalFactory.createScalarEvaluator(ctx);
             private int fieldIndex;
             private int fieldValueOffset;
             private int fieldValueLength;
             private IAType fieldValueType;
             private ATypeTag fieldValueTypeTag;
 
-            // inputArg0: the record, inputArg1: the index
+            // argPtr0: the record, argPtr1: the index
             @Override
-            public void evaluate(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
+            protected void evaluateArguments(IPointable result) throws HyracksDataException {
                 try {
                     resultStorage.reset();
-                    eval0.evaluate(tuple, inputArg0);
-                    eval1.evaluate(tuple, inputArg1);
 
-                    if (PointableHelper.checkAndSetMissingOrNull(result, inputArg0, inputArg1)) {
+                    if (PointableHelper.checkAndSetMissingOrNull(result, argPtr0, argPtr1)) {
                         return;
                     }
 
-                    byte[] serRecord = inputArg0.getByteArray();
-                    int offset = inputArg0.getStartOffset();
-                    byte[] indexBytes = inputArg1.getByteArray();
-                    int indexOffset = inputArg1.getStartOffset();
+                    byte[] serRecord = argPtr0.getByteArray();
+                    int offset = argPtr0.getStartOffset();
+                    byte[] indexBytes = argPtr1.getByteArray();
+                    int indexOffset = argPtr1.getStartOffset();
 
                     if (serRecord[offset] != ATypeTag.SERIALIZED_RECORD_TYPE_TAG || recordType == null) {
                         // recordType = null should only mean first arg was not a record and compiler couldn't set it
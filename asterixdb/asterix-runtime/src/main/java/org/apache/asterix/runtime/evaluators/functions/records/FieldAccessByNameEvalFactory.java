@@ -27,10 +27,11 @@ import org.apache.asterix.formats.nontagged.BinaryHashFunctionFactoryProvider;
 import org.apache.asterix.om.types.ATypeTag;
 import org.apache.asterix.om.types.EnumDeserializer;
 import org.apache.asterix.om.utils.NonTaggedFormatUtil;
+import org.apache.asterix.runtime.evaluators.functions.AbstractBinaryBatchScalarEvaluator;
+import org.apache.asterix.runtime.evaluators.functions.AbstractBinaryBatchScalarEvaluatorFactory;
 import org.apache.asterix.runtime.evaluators.functions.PointableHelper;
 import org.apache.asterix.runtime.exceptions.TypeMismatchException;
 import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
-import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
 import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
 import org.apache.hyracks.api.dataflow.value.IBinaryHashFunction;
@@ -39,9 +40,8 @@ import org.apache.hyracks.api.exceptions.SourceLocation;
 import org.apache.hyracks.data.std.api.IPointable;
 import org.apache.hyracks.data.std.primitive.VoidPointable;
 import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
-import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
 
-public class FieldAccessByNameEvalFactory implements IScalarEvaluatorFactory {
+public class FieldAccessByNameEvalFactory extends AbstractBinaryBatchScalarEvaluatorFactory {
 
     private static final long serialVersionUID = 1L;
 
@@ -57,8 +57,10 @@ public class FieldAccessByNameEvalFactory implements IScalarEvaluatorFactory {
     }
 
     @Override
-    public IScalarEvaluator createScalarEvaluator(final IEvaluatorContext ctx) throws HyracksDataException {
-        return new IScalarEvaluator() {
+    protected AbstractBinaryBatchScalarEvaluator<?> createEvaluator(final IEvaluatorContext ctx)
+            throws HyracksDataException {
+        return new AbstractBinaryBatchScalarEvaluator<IPointable>(ctx, recordEvalFactory, fldNameEvalFactory,
+                new VoidPointable(), new VoidPointable()) {
 
             private final IBinaryHashFunction fieldNameHashFunction =
                     BinaryHashFunctionFactoryProvider.UTF8STRING_POINTABLE_INSTANCE.createBinaryHashFunction();
@@ -66,36 +68,29 @@ public class FieldAccessByNameEvalFactory implements IScalarEvaluatorFactory {
                     BinaryComparatorFactoryProvider.UTF8STRING_POINTABLE_INSTANCE.createBinaryComparator();
             private ArrayBackedValueStorage resultStorage = new ArrayBackedValueStorage();
             private DataOutput out = resultStorage.getDataOutput();
-
-            private IPointable inputArg0 = new VoidPointable();
-            private IPointable inputArg1 = new VoidPointable();
-            private IScalarEvaluator eval0 = recordEvalFactory.createScalarEvaluator(ctx);
-            private IScalarEvaluator eval1 = fldNameEvalFactory.createScalarEvaluator(ctx);
             private int fieldValueOffset;
             private int fieldValueLength;
             private ATypeTag fieldValueTypeTag;
 
             @Override
-            public void evaluate(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
+            protected void evaluateArguments(IPointable result) throws HyracksDataException {
                 try {
                     resultStorage.reset();
-                    eval0.evaluate(tuple, inputArg0);
-                    eval1.evaluate(tuple, inputArg1);
 
-                    if (PointableHelper.checkAndSetMissingOrNull(result, inputArg0, inputArg1)) {
+                    if (PointableHelper.checkAndSetMissingOrNull(result, argPtr0, argPtr1)) {
                         return;
                     }
 
-                    byte[] serRecord = inputArg0.getByteArray();
-                    int serRecordOffset = inputArg0.getStartOffset();
-                    int serRecordLen = inputArg0.getLength();
+                    byte[] serRecord = argPtr0.getByteArray();
+                    int serRecordOffset = argPtr0.getStartOffset();
+                    int serRecordLen = argPtr0.getLength();
 
                     if (serRecord[serRecordOffset] != ATypeTag.SERIALIZED_RECORD_TYPE_TAG) {
                         throw new TypeMismatchException(sourceLoc, serRecord[serRecordOffset],
                                 ATypeTag.SERIALIZED_RECORD_TYPE_TAG);
                     }
-                    byte[] serFldName = inputArg1.getByteArray();
-                    int serFldNameOffset = inputArg1.getStartOffset();
+                    byte[] serFldName = argPtr1.getByteArray();
+                    int serFldNameOffset = argPtr1.getStartOffset();
                     fieldValueOffset = ARecordSerializerDeserializer.getFieldOffsetByName(serRecord, serRecordOffset,
                             serRecordLen, serFldName, serFldNameOffset, fieldNameHashFunction, fieldNameComparator);
                     if (fieldValueOffset < 0) {
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators.fusion;
+
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.evaluators.SelectionVector;
+import org.apache.hyracks.algebricks.runtime.evaluators.ValueVector;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
+
+/**
+ * The evaluator factory of a fused predicate tree, e.g. a whole selection condition made of comparisons of fields
+ * with constants and logical connectives. All the nodes of the tree are evaluated by a single evaluator that
+ * exchanges no serialized values between the nodes: fields are compared in place and booleans are not serialized
+ * until the root returns its result.
+ */
+public class FusedPredicateEvaluatorFactory implements IBatchScalarEvaluatorFactory {
+    private static final long serialVersionUID = 1L;
+
+    private static final byte[] FALSE_BYTES = new byte[] { ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG, 0 };
+    private static final byte[] TRUE_BYTES = new byte[] { ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG, 1 };
+    private static final byte[] NULL_BYTES = new byte[] { ATypeTag.SERIALIZED_NULL_TYPE_TAG };
+    private static final byte[] MISSING_BYTES = new byte[] { ATypeTag.SERIALIZED_MISSING_TYPE_TAG };
+
+    private final IFusedPredicateFactory predicateFactory;
+
+    public FusedPredicateEvaluatorFactory(IFusedPredicateFactory predicateFactory) {
+        this.predicateFactory = predicateFactory;
+    }
+
+    static byte[] toBytes(int result) {
+        switch (result) {
+            case IFusedPredicate.TRUE:
+                return TRUE_BYTES;
+            case IFusedPredicate.FALSE:
+                return FALSE_BYTES;
+            case IFusedPredicate.NULL:
+                return NULL_BYTES;
+            default:
+                return MISSING_BYTES;
+        }
+    }
+
+    @Override
+    public IScalarEvaluator createScalarEvaluator(IEvaluatorContext ctx) throws HyracksDataException {
+        IFusedPredicate predicate = predicateFactory.createPredicate(ctx);
+        return (tuple, result) -> {
+            byte[] bytes = toBytes(predicate.evaluate(tuple));
+            result.set(bytes, 0, bytes.length);
+        };
+    }
+
+    @Override
+    public IBatchScalarEvaluator createBatchScalarEvaluator(IEvaluatorContext ctx) throws HyracksDataException {
+        IFusedPredicate predicate = predicateFactory.createPredicate(ctx);
+        FrameTupleReference tRef = new FrameTupleReference();
+        return (IFrameTupleAccessor accessor, SelectionVector selection, ValueVector result) -> {
+            result.reset(accessor.getTupleCount());
+            for (int i = 0, size = selection.size(); i < size; i++) {
+                int t = selection.get(i);
+                tRef.reset(accessor, t);
+                byte[] bytes = toBytes(predicate.evaluate(tRef));
+                result.setReference(t, bytes, 0, bytes.length);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "fused " + predicateFactory;
+    }
+}
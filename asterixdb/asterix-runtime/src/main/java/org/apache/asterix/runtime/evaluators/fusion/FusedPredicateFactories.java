@@ -0,0 +1,329 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators.fusion;
+
+import java.util.Arrays;
+
+import org.apache.asterix.dataflow.data.common.ILogicalBinaryComparator;
+import org.apache.asterix.dataflow.data.common.ILogicalBinaryComparator.Result;
+import org.apache.asterix.dataflow.data.common.TaggedValueReference;
+import org.apache.asterix.dataflow.data.nontagged.comparators.ComparatorUtil;
+import org.apache.asterix.dataflow.data.nontagged.serde.ABooleanSerializerDeserializer;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.exceptions.ExceptionUtil;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.runtime.evaluators.comparisons.AbstractComparisonEvaluator;
+import org.apache.asterix.runtime.exceptions.TypeMismatchException;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+
+/**
+ * The predicate nodes of fused expression trees: the value comparisons and the logical connectives. They have the
+ * same semantics, including the handling of MISSING and NULL, the warnings and the errors, as the evaluators of the
+ * functions they replace.
+ */
+public class FusedPredicateFactories {
+
+    private FusedPredicateFactories() {
+    }
+
+    public enum ComparisonKind {
+        EQ(true),
+        NEQ(true),
+        LT(false),
+        LE(false),
+        GT(false),
+        GE(false);
+
+        private final boolean isEquality;
+
+        ComparisonKind(boolean isEquality) {
+            this.isEquality = isEquality;
+        }
+
+        private boolean test(Result r) {
+            switch (this) {
+                case EQ:
+                    return r == Result.EQ;
+                case NEQ:
+                    return r != Result.EQ;
+                case LT:
+                    return r == Result.LT;
+                case LE:
+                    return r == Result.LT || r == Result.EQ;
+                case GT:
+                    return r == Result.GT;
+                case GE:
+                    return r == Result.GT || r == Result.EQ;
+                default:
+                    throw new IllegalStateException(String.valueOf(this));
+            }
+        }
+    }
+
+    /**
+     * Same as the {@link org.apache.asterix.runtime.evaluators.comparisons.AbstractValueComparisonEvaluator}s.
+     */
+    public static class ComparisonFactory implements IFusedPredicateFactory {
+        private static final long serialVersionUID = 1L;
+        private final ComparisonKind kind;
+        private final IFusedValueFactory leftFactory;
+        private final IAType leftType;
+        private final IFusedValueFactory rightFactory;
+        private final IAType rightType;
+        private final SourceLocation sourceLoc;
+
+        public ComparisonFactory(ComparisonKind kind, IFusedValueFactory leftFactory, IAType leftType,
+                IFusedValueFactory rightFactory, IAType rightType, SourceLocation sourceLoc) {
+            this.kind = kind;
+            this.leftFactory = leftFactory;
+            this.leftType = leftType;
+            this.rightFactory = rightFactory;
+            this.rightType = rightType;
+            this.sourceLoc = sourceLoc;
+        }
+
+        @Override
+        public IFusedPredicate createPredicate(IEvaluatorContext ctx) throws HyracksDataException {
+            IFusedValue left = leftFactory.createValue(ctx);
+            IFusedValue right = rightFactory.createValue(ctx);
+            ILogicalBinaryComparator comparator =
+                    ComparatorUtil.createLogicalComparator(leftType, rightType, kind.isEquality);
+            IAObject leftConstant = getConstant(leftFactory);
+            IAObject rightConstant = getConstant(rightFactory);
+            TaggedValueReference leftVal = new TaggedValueReference();
+            TaggedValueReference rightVal = new TaggedValueReference();
+            return tuple -> {
+                left.evaluate(tuple, leftVal);
+                right.evaluate(tuple, rightVal);
+                if (leftVal.getTag() == ATypeTag.MISSING || rightVal.getTag() == ATypeTag.MISSING) {
+                    return IFusedPredicate.MISSING;
+                }
+                if (leftVal.getTag() == ATypeTag.NULL || rightVal.getTag() == ATypeTag.NULL) {
+                    return IFusedPredicate.NULL;
+                }
+                Result r;
+                if (leftConstant != null) {
+                    r = rightConstant != null ? comparator.compare(leftConstant, rightConstant)
+                            : comparator.compare(leftConstant, rightVal);
+                } else {
+                    r = rightConstant != null ? comparator.compare(leftVal, rightConstant)
+                            : comparator.compare(leftVal, rightVal);
+                }
+                switch (r) {
+                    case MISSING:
+                        return IFusedPredicate.MISSING;
+                    case NULL:
+                        return IFusedPredicate.NULL;
+                    case INCOMPARABLE:
+                        ExceptionUtil.warnIncomparableTypes(ctx, sourceLoc, leftVal.getTag(), rightVal.getTag());
+                        return IFusedPredicate.NULL;
+                    default:
+                        return kind.test(r) ? IFusedPredicate.TRUE : IFusedPredicate.FALSE;
+                }
+            };
+        }
+
+        private static IAObject getConstant(IFusedValueFactory factory) {
+            return factory instanceof FusedValueFactories.ConstantFactory
+                    ? AbstractComparisonEvaluator.getConstant(((FusedValueFactories.ConstantFactory) factory).getValue())
+                    : null;
+        }
+
+        @Override
+        public String toString() {
+            return kind + "(" + leftFactory + ", " + rightFactory + ")";
+        }
+    }
+
+    /**
+     * Same as {@link org.apache.asterix.runtime.evaluators.functions.AndDescriptor}: FALSE wins over MISSING, which
+     * wins over NULL. The arguments after the first FALSE one are not evaluated.
+     */
+    public static class AndFactory implements IFusedPredicateFactory {
+        private static final long serialVersionUID = 1L;
+        private final IFusedPredicateFactory[] argFactories;
+
+        public AndFactory(IFusedPredicateFactory[] argFactories) {
+            this.argFactories = argFactories;
+        }
+
+        @Override
+        public IFusedPredicate createPredicate(IEvaluatorContext ctx) throws HyracksDataException {
+            IFusedPredicate[] args = createPredicates(argFactories, ctx);
+            return tuple -> {
+                boolean metNull = false;
+                boolean metMissing = false;
+                for (IFusedPredicate arg : args) {
+                    switch (arg.evaluate(tuple)) {
+                        case IFusedPredicate.FALSE:
+                            return IFusedPredicate.FALSE;
+                        case IFusedPredicate.MISSING:
+                            metMissing = true;
+                            break;
+                        case IFusedPredicate.NULL:
+                            metNull = true;
+                            break;
+                        default:
+                            break;
+                    }
+                }
+                return metMissing ? IFusedPredicate.MISSING : metNull ? IFusedPredicate.NULL : IFusedPredicate.TRUE;
+            };
+        }
+
+        @Override
+        public String toString() {
+            return "and" + Arrays.toString(argFactories);
+        }
+    }
+
+    /**
+     * Same as {@link org.apache.asterix.runtime.evaluators.functions.OrDescriptor}: TRUE wins over NULL, which wins
+     * over MISSING. The arguments after the first TRUE one are not evaluated.
+     */
+    public static class OrFactory implements IFusedPredicateFactory {
+        private static final long serialVersionUID = 1L;
+        private final IFusedPredicateFactory[] argFactories;
+
+        public OrFactory(IFusedPredicateFactory[] argFactories) {
+            this.argFactories = argFactories;
+        }
+
+        @Override
+        public IFusedPredicate createPredicate(IEvaluatorContext ctx) throws HyracksDataException {
+            IFusedPredicate[] args = createPredicates(argFactories, ctx);
+            return tuple -> {
+                boolean metNull = false;
+                boolean metMissing = false;
+                for (IFusedPredicate arg : args) {
+                    switch (arg.evaluate(tuple)) {
+                        case IFusedPredicate.TRUE:
+                            return IFusedPredicate.TRUE;
+                        case IFusedPredicate.MISSING:
+                            metMissing = true;
+                            break;
+                        case IFusedPredicate.NULL:
+                            metNull = true;
+                            break;
+                        default:
+                            break;
+                    }
+                }
+                return metNull ? IFusedPredicate.NULL : metMissing ? IFusedPredicate.MISSING : IFusedPredicate.FALSE;
+            };
+        }
+
+        @Override
+        public String toString() {
+            return "or" + Arrays.toString(argFactories);
+        }
+    }
+
+    /**
+     * Same as {@link org.apache.asterix.runtime.evaluators.functions.NotDescriptor}.
+     */
+    public static class NotFactory implements IFusedPredicateFactory {
+        private static final long serialVersionUID = 1L;
+        private final IFusedPredicateFactory argFactory;
+
+        public NotFactory(IFusedPredicateFactory argFactory) {
+            this.argFactory = argFactory;
+        }
+
+        @Override
+        public IFusedPredicate createPredicate(IEvaluatorContext ctx) throws HyracksDataException {
+            IFusedPredicate arg = argFactory.createPredicate(ctx);
+            return tuple -> {
+                int result = arg.evaluate(tuple);
+                switch (result) {
+                    case IFusedPredicate.TRUE:
+                        return IFusedPredicate.FALSE;
+                    case IFusedPredicate.FALSE:
+                        return IFusedPredicate.TRUE;
+                    default:
+                        return result;
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return "not(" + argFactory + ")";
+        }
+    }
+
+    /**
+     * Reads a boolean value, e.g. a boolean field, as an argument of a logical connective. Anything that is not a
+     * boolean, MISSING or NULL is a type mismatch for the argument {@code argIndex} of the connective.
+     */
+    public static class BooleanValueFactory implements IFusedPredicateFactory {
+        private static final long serialVersionUID = 1L;
+        private final IFusedValueFactory valueFactory;
+        private final FunctionIdentifier funId;
+        private final int argIndex;
+        private final SourceLocation sourceLoc;
+
+        public BooleanValueFactory(IFusedValueFactory valueFactory, FunctionIdentifier funId, int argIndex,
+                SourceLocation sourceLoc) {
+            this.valueFactory = valueFactory;
+            this.funId = funId;
+            this.argIndex = argIndex;
+            this.sourceLoc = sourceLoc;
+        }
+
+        @Override
+        public IFusedPredicate createPredicate(IEvaluatorContext ctx) throws HyracksDataException {
+            IFusedValue value = valueFactory.createValue(ctx);
+            TaggedValueReference val = new TaggedValueReference();
+            return tuple -> {
+                value.evaluate(tuple, val);
+                switch (val.getTag()) {
+                    case MISSING:
+                        return IFusedPredicate.MISSING;
+                    case NULL:
+                        return IFusedPredicate.NULL;
+                    case BOOLEAN:
+                        return ABooleanSerializerDeserializer.getBoolean(val.getByteArray(), val.getStartOffset())
+                                ? IFusedPredicate.TRUE : IFusedPredicate.FALSE;
+                    default:
+                        throw new TypeMismatchException(sourceLoc, funId, argIndex, val.getTag().serialize(),
+                                ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG);
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return valueFactory.toString();
+        }
+    }
+
+    private static IFusedPredicate[] createPredicates(IFusedPredicateFactory[] factories, IEvaluatorContext ctx)
+            throws HyracksDataException {
+        IFusedPredicate[] predicates = new IFusedPredicate[factories.length];
+        for (int i = 0; i < factories.length; i++) {
+            predicates[i] = factories[i].createPredicate(ctx);
+        }
+        return predicates;
+    }
+}
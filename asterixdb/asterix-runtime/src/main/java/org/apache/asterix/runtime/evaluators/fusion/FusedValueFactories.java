@@ -0,0 +1,369 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators.fusion;
+
+import static org.apache.asterix.om.types.ATypeTag.VALUE_TYPE_MAPPING;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.asterix.dataflow.data.common.TaggedValueReference;
+import org.apache.asterix.dataflow.data.nontagged.serde.ARecordSerializerDeserializer;
+import org.apache.asterix.formats.nontagged.BinaryComparatorFactoryProvider;
+import org.apache.asterix.formats.nontagged.BinaryHashFunctionFactoryProvider;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.AUnionType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.om.utils.NonTaggedFormatUtil;
+import org.apache.asterix.om.utils.RecordUtil;
+import org.apache.asterix.runtime.exceptions.TypeMismatchException;
+import org.apache.hyracks.algebricks.common.exceptions.NotImplementedException;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunction;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+
+/**
+ * The value nodes of fused expression trees. Each of them has the same semantics as the evaluator of the function it
+ * replaces, but it returns references to the input bytes instead of copies whenever it can.
+ */
+public class FusedValueFactories {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private FusedValueFactories() {
+    }
+
+    private static void set(TaggedValueReference result, byte[] bytes, int start, int length) {
+        result.set(bytes, start + 1, length - 1, VALUE_TYPE_MAPPING[bytes[start]]);
+    }
+
+    private static boolean isMissingOrNull(TaggedValueReference value) {
+        return value.getTag() == ATypeTag.MISSING || value.getTag() == ATypeTag.NULL;
+    }
+
+    /**
+     * Reads a column of the input tuple.
+     */
+    public static class ColumnFactory implements IFusedValueFactory {
+        private static final long serialVersionUID = 1L;
+        private final int fieldIndex;
+
+        public ColumnFactory(int fieldIndex) {
+            this.fieldIndex = fieldIndex;
+        }
+
+        @Override
+        public IFusedValue createValue(IEvaluatorContext ctx) {
+            return (tuple, result) -> set(result, tuple.getFieldData(fieldIndex), tuple.getFieldStart(fieldIndex),
+                    tuple.getFieldLength(fieldIndex));
+        }
+
+        @Override
+        public boolean isTagPrefixed() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "column(" + fieldIndex + ")";
+        }
+    }
+
+    /**
+     * A serialized constant.
+     */
+    public static class ConstantFactory implements IFusedValueFactory {
+        private static final long serialVersionUID = 1L;
+        private final byte[] value;
+
+        public ConstantFactory(byte[] value) {
+            this.value = value;
+        }
+
+        public byte[] getValue() {
+            return value;
+        }
+
+        @Override
+        public IFusedValue createValue(IEvaluatorContext ctx) {
+            return (tuple, result) -> set(result, value, 0, value.length);
+        }
+
+        @Override
+        public boolean isTagPrefixed() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "constant";
+        }
+    }
+
+    /**
+     * Falls back to the interpreted evaluator of an expression that cannot be fused.
+     */
+    public static class InterpretedFactory implements IFusedValueFactory {
+        private static final long serialVersionUID = 1L;
+        private final IScalarEvaluatorFactory evalFactory;
+
+        public InterpretedFactory(IScalarEvaluatorFactory evalFactory) {
+            this.evalFactory = evalFactory;
+        }
+
+        @Override
+        public IFusedValue createValue(IEvaluatorContext ctx) throws HyracksDataException {
+            IScalarEvaluator eval = evalFactory.createScalarEvaluator(ctx);
+            IPointable value = VoidPointable.FACTORY.createPointable();
+            return (tuple, result) -> {
+                eval.evaluate(tuple, value);
+                set(result, value.getByteArray(), value.getStartOffset(), value.getLength());
+            };
+        }
+
+        @Override
+        public boolean isTagPrefixed() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return evalFactory.toString();
+        }
+    }
+
+    /**
+     * Turns the result of a predicate into a boolean value, e.g. when a comparison is compared to another value.
+     */
+    public static class PredicateFactory implements IFusedValueFactory {
+        private static final long serialVersionUID = 1L;
+        private final IFusedPredicateFactory predicateFactory;
+
+        public PredicateFactory(IFusedPredicateFactory predicateFactory) {
+            this.predicateFactory = predicateFactory;
+        }
+
+        @Override
+        public IFusedValue createValue(IEvaluatorContext ctx) throws HyracksDataException {
+            IFusedPredicate predicate = predicateFactory.createPredicate(ctx);
+            return (tuple, result) -> {
+                byte[] bytes = FusedPredicateEvaluatorFactory.toBytes(predicate.evaluate(tuple));
+                set(result, bytes, 0, bytes.length);
+            };
+        }
+
+        @Override
+        public boolean isTagPrefixed() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return predicateFactory.toString();
+        }
+    }
+
+    /**
+     * Same as {@link org.apache.asterix.runtime.evaluators.functions.records.FieldAccessByNameEvalFactory} with a
+     * constant field name. The field value is returned in place.
+     */
+    public static class FieldAccessByNameFactory implements IFusedValueFactory {
+        private static final long serialVersionUID = 1L;
+        private final IFusedValueFactory recordFactory;
+        private final byte[] fieldName;
+        private final SourceLocation sourceLoc;
+
+        /**
+         * @param fieldName the serialized field name, including its type tag
+         */
+        public FieldAccessByNameFactory(IFusedValueFactory recordFactory, byte[] fieldName, SourceLocation sourceLoc) {
+            this.recordFactory = recordFactory;
+            this.fieldName = fieldName;
+            this.sourceLoc = sourceLoc;
+        }
+
+        @Override
+        public IFusedValue createValue(IEvaluatorContext ctx) throws HyracksDataException {
+            IFusedValue recordValue = recordFactory.createValue(ctx);
+            TaggedRecord record = new TaggedRecord(recordFactory.isTagPrefixed());
+            IBinaryHashFunction fieldNameHashFunction =
+                    BinaryHashFunctionFactoryProvider.UTF8STRING_POINTABLE_INSTANCE.createBinaryHashFunction();
+            IBinaryComparator fieldNameComparator =
+                    BinaryComparatorFactoryProvider.UTF8STRING_POINTABLE_INSTANCE.createBinaryComparator();
+            return (tuple, result) -> {
+                recordValue.evaluate(tuple, record.value);
+                if (isMissingOrNull(record.value)) {
+                    result.set(EMPTY, 0, 0, record.value.getTag());
+                    return;
+                }
+                if (record.value.getTag() != ATypeTag.OBJECT) {
+                    throw new TypeMismatchException(sourceLoc, record.value.getTag().serialize(),
+                            ATypeTag.SERIALIZED_RECORD_TYPE_TAG);
+                }
+                record.tag();
+                int fieldValueOffset = ARecordSerializerDeserializer.getFieldOffsetByName(record.bytes, record.start,
+                        record.length, fieldName, 0, fieldNameHashFunction, fieldNameComparator);
+                if (fieldValueOffset < 0) {
+                    result.set(EMPTY, 0, 0, ATypeTag.MISSING);
+                    return;
+                }
+                ATypeTag fieldValueTypeTag = VALUE_TYPE_MAPPING[record.bytes[fieldValueOffset]];
+                int fieldValueLength =
+                        NonTaggedFormatUtil.getFieldValueLength(record.bytes, fieldValueOffset, fieldValueTypeTag, true);
+                result.set(record.bytes, fieldValueOffset + 1, fieldValueLength, fieldValueTypeTag);
+            };
+        }
+
+        @Override
+        public boolean isTagPrefixed() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "field-access-by-name(" + recordFactory + ")";
+        }
+    }
+
+    /**
+     * Same as {@link org.apache.asterix.runtime.evaluators.functions.records.FieldAccessByIndexEvalFactory} with a
+     * constant field index. Values of closed fields are not tagged, so they are returned in place without their tag.
+     */
+    public static class FieldAccessByIndexFactory implements IFusedValueFactory {
+        private static final long serialVersionUID = 1L;
+        private final IFusedValueFactory recordFactory;
+        private final int fieldIndex;
+        private final ARecordType recordType;
+        private final int nullBitmapSize;
+        private final SourceLocation sourceLoc;
+
+        public FieldAccessByIndexFactory(IFusedValueFactory recordFactory, int fieldIndex, ARecordType recordType,
+                SourceLocation sourceLoc) {
+            this.recordFactory = recordFactory;
+            this.fieldIndex = fieldIndex;
+            this.recordType = recordType;
+            this.nullBitmapSize = recordType != null ? RecordUtil.computeNullBitmapSize(recordType) : 0;
+            this.sourceLoc = sourceLoc;
+        }
+
+        @Override
+        public IFusedValue createValue(IEvaluatorContext ctx) throws HyracksDataException {
+            IFusedValue recordValue = recordFactory.createValue(ctx);
+            TaggedRecord record = new TaggedRecord(recordFactory.isTagPrefixed());
+            return (tuple, result) -> {
+                recordValue.evaluate(tuple, record.value);
+                if (isMissingOrNull(record.value)) {
+                    result.set(EMPTY, 0, 0, record.value.getTag());
+                    return;
+                }
+                if (record.value.getTag() != ATypeTag.OBJECT || recordType == null) {
+                    throw new TypeMismatchException(sourceLoc, record.value.getTag().serialize(),
+                            ATypeTag.SERIALIZED_RECORD_TYPE_TAG);
+                }
+                record.tag();
+                IAType fieldValueType = recordType.getFieldTypes()[fieldIndex];
+                int fieldValueOffset = ARecordSerializerDeserializer.getFieldOffsetById(record.bytes, record.start,
+                        fieldIndex, nullBitmapSize, recordType.isOpen());
+                if (fieldValueOffset == 0) {
+                    // the field is null, we checked the null bit map
+                    result.set(EMPTY, 0, 0, ATypeTag.NULL);
+                    return;
+                }
+                if (fieldValueOffset < 0) {
+                    // the field is missing, we checked the missing bit map
+                    result.set(EMPTY, 0, 0, ATypeTag.MISSING);
+                    return;
+                }
+                ATypeTag fieldValueTypeTag;
+                if (fieldValueType.getTypeTag().equals(ATypeTag.UNION)) {
+                    if (((AUnionType) fieldValueType).isUnknownableType()) {
+                        fieldValueTypeTag = ((AUnionType) fieldValueType).getActualType().getTypeTag();
+                    } else {
+                        // union .. the general case
+                        throw new NotImplementedException();
+                    }
+                } else {
+                    fieldValueTypeTag = fieldValueType.getTypeTag();
+                }
+                int fieldValueLength =
+                        NonTaggedFormatUtil.getFieldValueLength(record.bytes, fieldValueOffset, fieldValueTypeTag, false);
+                result.set(record.bytes, fieldValueOffset, fieldValueLength, fieldValueTypeTag);
+            };
+        }
+
+        @Override
+        public boolean isTagPrefixed() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "field-access-by-index(" + recordFactory + ", " + fieldIndex + ")";
+        }
+    }
+
+    /**
+     * The record functions work on tagged records. A record that is stored in a closed field has no tag, it is copied
+     * together with its tag, like the interpreted field access does.
+     */
+    private static class TaggedRecord {
+        private final TaggedValueReference value = new TaggedValueReference();
+        private final boolean tagPrefixed;
+        private ArrayBackedValueStorage storage;
+        private byte[] bytes;
+        private int start;
+        private int length;
+
+        private TaggedRecord(boolean tagPrefixed) {
+            this.tagPrefixed = tagPrefixed;
+        }
+
+        private void tag() throws HyracksDataException {
+            if (tagPrefixed) {
+                bytes = value.getByteArray();
+                start = value.getStartOffset() - 1;
+                length = value.getLength() + 1;
+                return;
+            }
+            if (storage == null) {
+                storage = new ArrayBackedValueStorage();
+            }
+            try {
+                storage.reset();
+                DataOutput out = storage.getDataOutput();
+                out.writeByte(ATypeTag.SERIALIZED_RECORD_TYPE_TAG);
+                out.write(value.getByteArray(), value.getStartOffset(), value.getLength());
+            } catch (IOException e) {
+                throw HyracksDataException.create(e);
+            }
+            bytes = storage.getByteArray();
+            start = storage.getStartOffset();
+            length = storage.getLength();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators.fusion;
+
+import org.apache.asterix.dataflow.data.common.TaggedValueReference;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+
+/**
+ * A node of a fused expression tree that produces a value. Unlike {@link
+ * org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator}, the value is returned as a reference to its untagged
+ * bytes and its type, so that the parent node can use it without re-parsing or copying it.
+ */
+public interface IFusedValue {
+    /**
+     * @param tuple the input tuple
+     * @param result set to the value. MISSING and NULL values have a length of 0.
+     */
+    void evaluate(IFrameTupleReference tuple, TaggedValueReference result) throws HyracksDataException;
+}
@@ -31,6 +31,8 @@ import org.apache.asterix.runtime.aggregates.collections.LastElementAggregateDes
 import org.apache.asterix.runtime.aggregates.collections.ListifyAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.collections.LocalFirstElementAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.collections.NullWriterAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.scalar.ScalarApproxCountDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.scalar.ScalarApproxMedianAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.scalar.ScalarArrayAggAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.scalar.ScalarArrayAggDistinctAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.scalar.ScalarAvgAggregateDescriptor;
@@ -45,6 +47,8 @@ import org.apache.asterix.runtime.aggregates.scalar.ScalarMinAggregateDescriptor
 import org.apache.asterix.runtime.aggregates.scalar.ScalarMinDistinctAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.scalar.ScalarSkewnessAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.scalar.ScalarSkewnessDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.scalar.ScalarSqlApproxCountDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.scalar.ScalarSqlApproxMedianAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.scalar.ScalarSqlAvgAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.scalar.ScalarSqlAvgDistinctAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.scalar.ScalarSqlCountAggregateDescriptor;
@@ -143,13 +147,19 @@ import org.apache.asterix.runtime.aggregates.serializable.std.SerializableStddev
 import org.apache.asterix.runtime.aggregates.serializable.std.SerializableSumAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.serializable.std.SerializableVarAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.serializable.std.SerializableVarPopAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.ApproxCountDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.ApproxMedianAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.AvgAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.CountAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.GlobalApproxCountDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.GlobalApproxMedianAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.GlobalAvgAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.GlobalKurtosisAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.GlobalMaxAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.GlobalMinAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.GlobalSkewnessAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.GlobalSqlApproxCountDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.GlobalSqlApproxMedianAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.GlobalSqlAvgAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.GlobalSqlKurtosisAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.GlobalSqlMaxAggregateDescriptor;
@@ -165,11 +175,16 @@ import org.apache.asterix.runtime.aggregates.std.GlobalStddevPopAggregateDescrip
 import org.apache.asterix.runtime.aggregates.std.GlobalSumAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.GlobalVarAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.GlobalVarPopAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.HeavyHitterMapAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.IntermediateApproxCountDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.IntermediateApproxMedianAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.IntermediateAvgAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.IntermediateKurtosisAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.IntermediateMaxAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.IntermediateMinAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.IntermediateSkewnessAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.IntermediateSqlApproxCountDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.IntermediateSqlApproxMedianAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.IntermediateSqlAvgAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.IntermediateSqlKurtosisAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.IntermediateSqlMaxAggregateDescriptor;
@@ -186,12 +201,17 @@ import org.apache.asterix.runtime.aggregates.std.IntermediateSumAggregateDescrip
 import org.apache.asterix.runtime.aggregates.std.IntermediateVarAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.IntermediateVarPopAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.KurtosisAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.LocalApproxCountDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.LocalApproxMedianAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.LocalAvgAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.LocalHeavyHittersAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.LocalKurtosisAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.LocalMaxAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.LocalMinAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.LocalSamplingAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.LocalSkewnessAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.LocalSqlApproxCountDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.LocalSqlApproxMedianAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.LocalSqlAvgAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.LocalSqlKurtosisAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.LocalSqlMaxAggregateDescriptor;
@@ -211,6 +231,8 @@ import org.apache.asterix.runtime.aggregates.std.MaxAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.MinAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.RangeMapAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.SkewnessAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.SqlApproxCountDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.SqlApproxMedianAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.SqlAvgAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.SqlCountAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.SqlKurtosisAggregateDescriptor;
@@ -654,6 +676,8 @@ public final class FunctionCollection implements IFunctionCollection {
         fc.add(GlobalStddevAggregateDescriptor.FACTORY);
         fc.add(LocalSamplingAggregateDescriptor.FACTORY);
         fc.add(RangeMapAggregateDescriptor.FACTORY);
+        fc.add(LocalHeavyHittersAggregateDescriptor.FACTORY);
+        fc.add(HeavyHitterMapAggregateDescriptor.FACTORY);
         fc.add(StddevPopAggregateDescriptor.FACTORY);
         fc.add(LocalStddevPopAggregateDescriptor.FACTORY);
         fc.add(IntermediateStddevPopAggregateDescriptor.FACTORY);
@@ -841,6 +865,28 @@ public final class FunctionCollection implements IFunctionCollection {
         fc.add(ScalarSqlSkewnessAggregateDescriptor.FACTORY);
         fc.add(ScalarSqlSkewnessDistinctAggregateDescriptor.FACTORY);
 
+        // approximate aggregates
+        fc.add(ApproxCountDistinctAggregateDescriptor.FACTORY);
+        fc.add(LocalApproxCountDistinctAggregateDescriptor.FACTORY);
+        fc.add(IntermediateApproxCountDistinctAggregateDescriptor.FACTORY);
+        fc.add(GlobalApproxCountDistinctAggregateDescriptor.FACTORY);
+        fc.add(SqlApproxCountDistinctAggregateDescriptor.FACTORY);
+        fc.add(LocalSqlApproxCountDistinctAggregateDescriptor.FACTORY);
+        fc.add(IntermediateSqlApproxCountDistinctAggregateDescriptor.FACTORY);
+        fc.add(GlobalSqlApproxCountDistinctAggregateDescriptor.FACTORY);
+        fc.add(ApproxMedianAggregateDescriptor.FACTORY);
+        fc.add(LocalApproxMedianAggregateDescriptor.FACTORY);
+        fc.add(IntermediateApproxMedianAggregateDescriptor.FACTORY);
+        fc.add(GlobalApproxMedianAggregateDescriptor.FACTORY);
+        fc.add(SqlApproxMedianAggregateDescriptor.FACTORY);
+        fc.add(LocalSqlApproxMedianAggregateDescriptor.FACTORY);
+        fc.add(IntermediateSqlApproxMedianAggregateDescriptor.FACTORY);
+        fc.add(GlobalSqlApproxMedianAggregateDescriptor.FACTORY);
+        fc.add(ScalarApproxCountDistinctAggregateDescriptor.FACTORY);
+        fc.add(ScalarSqlApproxCountDistinctAggregateDescriptor.FACTORY);
+        fc.add(ScalarApproxMedianAggregateDescriptor.FACTORY);
+        fc.add(ScalarSqlApproxMedianAggregateDescriptor.FACTORY);
+
         // window functions
         fc.add(DenseRankRunningAggregateDescriptor.FACTORY);
         fc.add(NtileRunningAggregateDescriptor.FACTORY);
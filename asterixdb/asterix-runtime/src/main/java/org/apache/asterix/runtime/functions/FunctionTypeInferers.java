@@ -92,6 +92,32 @@ public final class FunctionTypeInferers {
         }
     };
 
+    public static final IFunctionTypeInferer SET_HEAVY_HITTER_PARAMETERS = new IFunctionTypeInferer() {
+        @Override
+        public void infer(ILogicalExpression expr, IFunctionDescriptor fd, IVariableTypeEnvironment ctx,
+                CompilerProperties compilerProps) throws AlgebricksException {
+            // sets the sketch capacity, the sampling rate and the declared types of the hashed fields. The types are
+            // not reduced to their actual types so that the keys hash exactly like in the following hash exchange
+            AbstractFunctionCallExpression funExp = (AbstractFunctionCallExpression) expr;
+            Object[] sketchParameters = funExp.getOpaqueParameters();
+            IAType[] argsTypes = new IAType[funExp.getArguments().size()];
+            for (int i = 0; i < argsTypes.length; i++) {
+                argsTypes[i] = (IAType) ctx.getType(funExp.getArguments().get(i).getValue());
+            }
+            fd.setImmutableStates(sketchParameters[0], sketchParameters[1], argsTypes);
+        }
+    };
+
+    public static final IFunctionTypeInferer SET_HEAVY_HITTER_MAP_PARAMETERS = new IFunctionTypeInferer() {
+        @Override
+        public void infer(ILogicalExpression expr, IFunctionDescriptor fd, IVariableTypeEnvironment ctx,
+                CompilerProperties compilerProps) throws AlgebricksException {
+            // sets the number of partitions & the minimum input share of a heavy hitter
+            AbstractFunctionCallExpression funExp = (AbstractFunctionCallExpression) expr;
+            fd.setImmutableStates(funExp.getOpaqueParameters());
+        }
+    };
+
     public static final IFunctionTypeInferer SET_NUM_SAMPLES = new IFunctionTypeInferer() {
         @Override
         public void infer(ILogicalExpression expr, IFunctionDescriptor fd, IVariableTypeEnvironment context,
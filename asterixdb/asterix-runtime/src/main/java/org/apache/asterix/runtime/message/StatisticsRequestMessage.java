@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.message;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.asterix.common.api.INcApplicationContext;
+import org.apache.asterix.common.context.IndexInfo;
+import org.apache.asterix.common.messaging.CcIdentifiedMessage;
+import org.apache.asterix.common.messaging.api.INCMessageBroker;
+import org.apache.asterix.common.messaging.api.INcAddressedMessage;
+import org.apache.asterix.common.storage.ResourceReference;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.storage.am.common.api.ITreeIndex;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.statistics.ComponentStatistics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Asks a node for the statistics of the indexes of a dataset, merged over the disk components of all the partitions
+ * of the dataset on the node.
+ */
+public class StatisticsRequestMessage extends CcIdentifiedMessage implements INcAddressedMessage {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LogManager.getLogger();
+    private final long reqId;
+    private final int datasetId;
+
+    public StatisticsRequestMessage(long reqId, int datasetId) {
+        this.reqId = reqId;
+        this.datasetId = datasetId;
+    }
+
+    @Override
+    public void handle(INcApplicationContext appCtx) throws HyracksDataException, InterruptedException {
+        INCMessageBroker broker = (INCMessageBroker) appCtx.getServiceContext().getMessageBroker();
+        StatisticsResponseMessage response;
+        try {
+            response = collect(appCtx);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to read the statistics of dataset {}", datasetId, e);
+            response = new StatisticsResponseMessage(reqId, null, null, e);
+        }
+        try {
+            broker.sendMessageToCC(getCcId(), response);
+        } catch (Exception e) {
+            LOGGER.error("Unable to send the statistics of dataset {} to CC", datasetId, e);
+        }
+    }
+
+    private StatisticsResponseMessage collect(INcApplicationContext appCtx) throws HyracksDataException {
+        Map<String, ComponentStatistics> statistics = new HashMap<>();
+        Map<String, IBinaryComparatorFactory> comparatorFactories = new HashMap<>();
+        Map<String, IBinaryComparator> comparators = new HashMap<>();
+        ArrayBackedValueStorage buffer = new ArrayBackedValueStorage();
+        for (IndexInfo indexInfo : appCtx.getDatasetLifecycleManager().getOpenIndexesInfo()) {
+            ILSMIndex index = indexInfo.getIndex();
+            if (indexInfo.getDatasetId() != datasetId || !(index instanceof ITreeIndex)) {
+                continue;
+            }
+            String indexName = ResourceReference.of(indexInfo.getLocalResource().getPath()).getIndex();
+            IBinaryComparatorFactory comparatorFactory = ((ITreeIndex) index).getComparatorFactories()[0];
+            IBinaryComparator comparator =
+                    comparators.computeIfAbsent(indexName, name -> comparatorFactory.createBinaryComparator());
+            // the components of the index must not change while their metadata is read
+            synchronized (index.getOperationTracker()) {
+                List<ILSMDiskComponent> diskComponents = index.getDiskComponents();
+                for (ILSMDiskComponent component : diskComponents) {
+                    ComponentStatistics componentStatistics = ComponentStatistics.get(component.getMetadata(), buffer);
+                    if (componentStatistics == null) {
+                        continue;
+                    }
+                    ComponentStatistics indexStatistics = statistics.get(indexName);
+                    if (indexStatistics == null) {
+                        statistics.put(indexName, componentStatistics);
+                        comparatorFactories.put(indexName, comparatorFactory);
+                    } else {
+                        indexStatistics.merge(componentStatistics, comparator);
+                    }
+                }
+            }
+        }
+        Map<String, byte[]> serializedStatistics = new HashMap<>();
+        for (Map.Entry<String, ComponentStatistics> entry : statistics.entrySet()) {
+            buffer.reset();
+            try {
+                entry.getValue().write(buffer.getDataOutput());
+            } catch (IOException e) {
+                throw HyracksDataException.create(e);
+            }
+            serializedStatistics.put(entry.getKey(), buffer.toByteArray());
+        }
+        return new StatisticsResponseMessage(reqId, serializedStatistics, comparatorFactories, null);
+    }
+
+    @Override
+    public String toString() {
+        return StatisticsRequestMessage.class.getSimpleName() + "{datasetId=" + datasetId + "}";
+    }
+}
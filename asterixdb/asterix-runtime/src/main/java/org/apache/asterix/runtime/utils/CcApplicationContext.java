@@ -24,11 +24,13 @@ import java.util.function.Supplier;
 import org.apache.asterix.common.api.IConfigValidator;
 import org.apache.asterix.common.api.IConfigValidatorFactory;
 import org.apache.asterix.common.api.ICoordinationService;
+import org.apache.asterix.common.api.IDeployedQueryCache;
 import org.apache.asterix.common.api.IMetadataLockManager;
 import org.apache.asterix.common.api.INodeJobTracker;
 import org.apache.asterix.common.api.IReceptionist;
 import org.apache.asterix.common.api.IReceptionistFactory;
 import org.apache.asterix.common.api.IRequestTracker;
+import org.apache.asterix.common.api.IStatisticsManager;
 import org.apache.asterix.common.cluster.IClusterStateManager;
 import org.apache.asterix.common.cluster.IGlobalRecoveryManager;
 import org.apache.asterix.common.config.ActiveProperties;
@@ -100,6 +102,8 @@ public class CcApplicationContext implements ICcApplicationContext {
     private final IReceptionist receptionist;
     private final IRequestTracker requestTracker;
     private final IConfigValidator configValidator;
+    private final IDeployedQueryCache deployedQueryCache;
+    private final IStatisticsManager statisticsManager;
 
     public CcApplicationContext(ICCServiceContext ccServiceCtx, IHyracksClientConnection hcc,
             ILibraryManager libraryManager, Supplier<IMetadataBootstrap> metadataBootstrapSupplier,
@@ -142,6 +146,8 @@ public class CcApplicationContext implements ICcApplicationContext {
         receptionist = receptionistFactory.create();
         requestTracker = new RequestTracker(this);
         configValidator = configValidatorFactory.create();
+        deployedQueryCache = new DeployedQueryCache(this, compilerProperties.getDeployedQueries());
+        statisticsManager = new StatisticsManager(this);
     }
 
     @Override
@@ -314,4 +320,14 @@ public class CcApplicationContext implements ICcApplicationContext {
     public IRequestTracker getRequestTracker() {
         return requestTracker;
     }
+
+    @Override
+    public IDeployedQueryCache getDeployedQueryCache() {
+        return deployedQueryCache;
+    }
+
+    @Override
+    public IStatisticsManager getStatisticsManager() {
+        return statisticsManager;
+    }
 }
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.asterix.common.api.DeployedQuery;
+import org.apache.asterix.common.api.IDeployedQueryCache;
+import org.apache.asterix.common.dataflow.ICcApplicationContext;
+import org.apache.hyracks.api.job.DeployedJobSpecId;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A least recently used cache of deployed queries. All the queries are dropped as soon as a newer version of the
+ * metadata is seen. Queries that are evicted or invalidated while they are running are undeployed by their last user.
+ */
+public class DeployedQueryCache implements IDeployedQueryCache {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private final ICcApplicationContext appCtx;
+    private final int capacity;
+    // access ordered, the eldest entry is the least recently used query
+    private final Map<String, DeployedQuery> queries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Boolean> rejected = new LinkedHashMap<>(16, 0.75f, true);
+    // the latest metadata version seen, all the cached queries were compiled against it
+    private long metadataVersion = -1;
+
+    public DeployedQueryCache(ICcApplicationContext appCtx, int capacity) {
+        this.appCtx = appCtx;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    @Override
+    public DeployedQuery acquire(String key, long metadataVersion) {
+        List<DeployedJobSpecId> undeployed = new ArrayList<>();
+        DeployedQuery query;
+        synchronized (this) {
+            query = advance(metadataVersion, undeployed) ? queries.get(key) : null;
+            if (query != null) {
+                query.setUsers(query.getUsers() + 1);
+            }
+        }
+        undeploy(undeployed);
+        return query;
+    }
+
+    @Override
+    public synchronized boolean isValid(DeployedQuery query, long metadataVersion) {
+        return query.isCached() && query.getMetadataVersion() == metadataVersion;
+    }
+
+    @Override
+    public boolean put(String key, DeployedQuery query, long metadataVersion) {
+        List<DeployedJobSpecId> undeployed = new ArrayList<>();
+        boolean cached;
+        synchronized (this) {
+            cached = isEnabled() && advance(metadataVersion, undeployed)
+                    && query.getMetadataVersion() == metadataVersion;
+            if (cached) {
+                query.setCached(true);
+                DeployedQuery previous = queries.put(key, query);
+                if (previous != null && previous != query) {
+                    retire(previous, undeployed);
+                }
+                Iterator<DeployedQuery> eldest = queries.values().iterator();
+                while (queries.size() > capacity) {
+                    retire(eldest.next(), undeployed);
+                    eldest.remove();
+                }
+            }
+        }
+        undeploy(undeployed);
+        return cached;
+    }
+
+    @Override
+    public void release(DeployedQuery query) {
+        boolean undeploy;
+        synchronized (this) {
+            query.setUsers(query.getUsers() - 1);
+            undeploy = query.getUsers() == 0 && !query.isCached();
+        }
+        if (undeploy) {
+            undeploy(query.getDeployedJobSpecId());
+        }
+    }
+
+    @Override
+    public void invalidate(String key, DeployedQuery query) {
+        List<DeployedJobSpecId> undeployed = new ArrayList<>();
+        synchronized (this) {
+            if (queries.get(key) == query) {
+                queries.remove(key);
+                retire(query, undeployed);
+            }
+        }
+        undeploy(undeployed);
+    }
+
+    @Override
+    public void reject(String key, long metadataVersion) {
+        List<DeployedJobSpecId> undeployed = new ArrayList<>();
+        synchronized (this) {
+            if (isEnabled() && advance(metadataVersion, undeployed)) {
+                rejected.put(key, Boolean.TRUE);
+                Iterator<String> eldest = rejected.keySet().iterator();
+                while (rejected.size() > capacity) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        undeploy(undeployed);
+    }
+
+    @Override
+    public boolean isRejected(String key, long metadataVersion) {
+        List<DeployedJobSpecId> undeployed = new ArrayList<>();
+        boolean isRejected;
+        synchronized (this) {
+            isRejected = advance(metadataVersion, undeployed) && rejected.get(key) != null;
+        }
+        undeploy(undeployed);
+        return isRejected;
+    }
+
+    /**
+     * Drops all the queries if {@code metadataVersion} is newer than the version they were compiled against.
+     *
+     * @return false if {@code metadataVersion} is older than the latest version seen
+     */
+    private boolean advance(long metadataVersion, List<DeployedJobSpecId> undeployed) {
+        if (metadataVersion < this.metadataVersion) {
+            return false;
+        }
+        if (metadataVersion > this.metadataVersion) {
+            this.metadataVersion = metadataVersion;
+            for (DeployedQuery query : queries.values()) {
+                retire(query, undeployed);
+            }
+            queries.clear();
+            rejected.clear();
+        }
+        return true;
+    }
+
+    private static void retire(DeployedQuery query, List<DeployedJobSpecId> undeployed) {
+        query.setCached(false);
+        if (query.getUsers() == 0) {
+            undeployed.add(query.getDeployedJobSpecId());
+        }
+    }
+
+    private void undeploy(List<DeployedJobSpecId> deployedJobSpecIds) {
+        for (DeployedJobSpecId deployedJobSpecId : deployedJobSpecIds) {
+            undeploy(deployedJobSpecId);
+        }
+    }
+
+    private void undeploy(DeployedJobSpecId deployedJobSpecId) {
+        try {
+            appCtx.getHcc().undeployJobSpec(deployedJobSpecId);
+        } catch (Exception e) {
+            LOGGER.warn("failed to undeploy query job {}", deployedJobSpecId, e);
+        }
+    }
+}
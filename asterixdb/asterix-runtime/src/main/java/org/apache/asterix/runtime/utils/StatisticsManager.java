@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.asterix.common.api.IStatisticsManager;
+import org.apache.asterix.common.dataflow.ICcApplicationContext;
+import org.apache.asterix.common.messaging.api.ICCMessageBroker;
+import org.apache.asterix.common.messaging.api.INcAddressedMessage;
+import org.apache.asterix.runtime.message.StatisticsRequestMessage;
+import org.apache.asterix.runtime.message.StatisticsResponseMessage;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.lsm.common.statistics.ComponentStatistics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Fetches the statistics of a dataset from all the nodes and keeps them for a short while, so that compiling several
+ * queries over the same dataset does not ask the nodes every time. Statistics are optional for the compiler: when a
+ * node does not answer in time, the dataset is considered to have none.
+ */
+public class StatisticsManager implements IStatisticsManager {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final long REQUEST_TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+    private static final long EXPIRATION = TimeUnit.SECONDS.toMillis(30);
+    private final ICcApplicationContext appCtx;
+    private final Map<Integer, CachedStatistics> cache = new ConcurrentHashMap<>();
+
+    public StatisticsManager(ICcApplicationContext appCtx) {
+        this.appCtx = appCtx;
+    }
+
+    @Override
+    public Map<String, ComponentStatistics> getStatistics(int datasetId) throws HyracksDataException {
+        long now = System.currentTimeMillis();
+        CachedStatistics cached = cache.get(datasetId);
+        if (cached != null && now - cached.timestamp < EXPIRATION) {
+            return cached.statistics;
+        }
+        Map<String, ComponentStatistics> statistics = Collections.unmodifiableMap(fetch(datasetId));
+        cache.put(datasetId, new CachedStatistics(statistics, now));
+        return statistics;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, ComponentStatistics> fetch(int datasetId) throws HyracksDataException {
+        Map<String, ComponentStatistics> statistics = new HashMap<>();
+        List<String> ncs = new ArrayList<>(appCtx.getClusterStateManager().getParticipantNodes());
+        if (ncs.isEmpty()) {
+            return statistics;
+        }
+        ICCMessageBroker broker = (ICCMessageBroker) appCtx.getServiceContext().getMessageBroker();
+        long reqId = broker.newRequestId();
+        List<INcAddressedMessage> requests = new ArrayList<>();
+        for (int i = 0; i < ncs.size(); i++) {
+            requests.add(new StatisticsRequestMessage(reqId, datasetId));
+        }
+        List<StatisticsResponseMessage> responses;
+        try {
+            responses = (List<StatisticsResponseMessage>) broker.sendSyncRequestToNCs(reqId, ncs, requests,
+                    REQUEST_TIMEOUT);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to get the statistics of dataset {}", datasetId, e);
+            return statistics;
+        }
+        Map<String, IBinaryComparator> comparators = new HashMap<>();
+        for (StatisticsResponseMessage response : responses) {
+            for (Map.Entry<String, byte[]> entry : response.getStatistics().entrySet()) {
+                String indexName = entry.getKey();
+                byte[] bytes = entry.getValue();
+                ComponentStatistics nodeStatistics = ComponentStatistics.read(bytes, 0, bytes.length);
+                ComponentStatistics indexStatistics = statistics.get(indexName);
+                if (indexStatistics == null) {
+                    statistics.put(indexName, nodeStatistics);
+                    comparators.put(indexName,
+                            response.getComparatorFactories().get(indexName).createBinaryComparator());
+                } else {
+                    indexStatistics.merge(nodeStatistics, comparators.get(indexName));
+                }
+            }
+        }
+        return statistics;
+    }
+
+    private static class CachedStatistics {
+        private final Map<String, ComponentStatistics> statistics;
+        private final long timestamp;
+
+        CachedStatistics(Map<String, ComponentStatistics> statistics, long timestamp) {
+            this.statistics = statistics;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.aggregates.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ApproxSketchTest {
+
+    private static final int PARTITIONS = 4;
+
+    @Test
+    public void countDistinctTest() throws IOException {
+        Random random = new Random(17);
+        for (int n : new int[] { 0, 1, 100, 10000, 1000000 }) {
+            HyperLogLogSketch[] partials = new HyperLogLogSketch[PARTITIONS];
+            for (int i = 0; i < PARTITIONS; i++) {
+                partials[i] = new HyperLogLogSketch();
+            }
+            // every value is added twice, to random partitions
+            for (int i = 0; i < n; i++) {
+                int hash = Integer.hashCode(i) * 0x9E3779B9;
+                partials[random.nextInt(PARTITIONS)].add(hash);
+                partials[random.nextInt(PARTITIONS)].add(hash);
+            }
+            HyperLogLogSketch merged = new HyperLogLogSketch();
+            for (HyperLogLogSketch partial : partials) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                partial.write(new DataOutputStream(bytes));
+                merged.merge(bytes.toByteArray(), 0, bytes.size());
+            }
+            long estimate = merged.estimate();
+            Assert.assertEquals("n=" + n, n, estimate, Math.max(1, n * 0.02));
+        }
+    }
+
+    @Test
+    public void medianTest() throws IOException {
+        Random random = new Random(17);
+        for (int n : new int[] { 1, 10, 1000, 100000 }) {
+            double[] values = new double[n];
+            QuantileSketch[] partials = new QuantileSketch[PARTITIONS];
+            for (int i = 0; i < PARTITIONS; i++) {
+                partials[i] = new QuantileSketch();
+            }
+            for (int i = 0; i < n; i++) {
+                values[i] = random.nextGaussian();
+                partials[random.nextInt(PARTITIONS)].add(values[i]);
+            }
+            QuantileSketch merged = new QuantileSketch();
+            for (QuantileSketch partial : partials) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                partial.write(new DataOutputStream(bytes));
+                merged.merge(bytes.toByteArray(), 0, bytes.size());
+            }
+            Assert.assertEquals(n, merged.getCount());
+            Arrays.sort(values);
+            int rank = Arrays.binarySearch(values, merged.getQuantile(0.5));
+            Assert.assertTrue("n=" + n, rank >= 0);
+            Assert.assertEquals("n=" + n, (n - 1) / 2, rank, n * 0.02);
+        }
+    }
+
+    @Test
+    public void emptyTest() {
+        Assert.assertEquals(0, new HyperLogLogSketch().estimate());
+        Assert.assertTrue(Double.isNaN(new QuantileSketch().getQuantile(0.5)));
+    }
+}
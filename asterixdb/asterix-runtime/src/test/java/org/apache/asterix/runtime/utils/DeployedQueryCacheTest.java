@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.utils;
+
+import java.util.Collections;
+
+import org.apache.asterix.common.api.DeployedQuery;
+import org.apache.asterix.common.dataflow.ICcApplicationContext;
+import org.apache.hyracks.api.client.IHyracksClientConnection;
+import org.apache.hyracks.api.job.DeployedJobSpecId;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class DeployedQueryCacheTest {
+
+    private static final String KEY = "select value t from T t where t.id = $1";
+    private static final String OTHER_KEY = "select value t from T t where t.id = $2";
+
+    private IHyracksClientConnection hcc;
+    private DeployedQueryCache cache;
+    private long nextId;
+
+    @Before
+    public void setUp() {
+        hcc = Mockito.mock(IHyracksClientConnection.class);
+        ICcApplicationContext appCtx = Mockito.mock(ICcApplicationContext.class);
+        Mockito.when(appCtx.getHcc()).thenReturn(hcc);
+        cache = new DeployedQueryCache(appCtx, 2);
+    }
+
+    @Test
+    public void cacheHit() throws Exception {
+        DeployedQuery query = deploy(1);
+        Assert.assertTrue(cache.put(KEY, query, 1));
+        cache.release(query);
+
+        DeployedQuery hit = cache.acquire(KEY, 1);
+        Assert.assertSame(query, hit);
+        Assert.assertTrue(cache.isValid(hit, 1));
+        Assert.assertEquals(1, hit.getUsers());
+        cache.release(hit);
+        Assert.assertSame(query, cache.acquire(KEY, 1));
+        // a cached query stays deployed when it is not used
+        cache.release(query);
+        Mockito.verify(hcc, Mockito.never()).undeployJobSpec(Mockito.any());
+        Assert.assertNull(cache.acquire(OTHER_KEY, 1));
+    }
+
+    @Test
+    public void metadataChangeInvalidatesCache() throws Exception {
+        DeployedQuery idle = deploy(1);
+        cache.put(KEY, idle, 1);
+        cache.release(idle);
+        DeployedQuery running = deploy(1);
+        cache.put(OTHER_KEY, running, 1);
+
+        // e.g. a DDL was executed
+        Assert.assertNull(cache.acquire(KEY, 2));
+        Assert.assertNull(cache.acquire(OTHER_KEY, 2));
+        Mockito.verify(hcc).undeployJobSpec(idle.getDeployedJobSpecId());
+        // the running query is undeployed by its last user
+        Assert.assertFalse(cache.isValid(running, 2));
+        Mockito.verify(hcc, Mockito.never()).undeployJobSpec(running.getDeployedJobSpecId());
+        cache.release(running);
+        Mockito.verify(hcc).undeployJobSpec(running.getDeployedJobSpecId());
+
+        // a query compiled against the old metadata is not cached
+        DeployedQuery stale = deploy(1);
+        Assert.assertFalse(cache.put(KEY, stale, 1));
+        Assert.assertFalse(stale.isCached());
+        cache.release(stale);
+        Mockito.verify(hcc).undeployJobSpec(stale.getDeployedJobSpecId());
+        Assert.assertNull(cache.acquire(KEY, 2));
+    }
+
+    @Test
+    public void failedQueryIsRedeployed() throws Exception {
+        DeployedQuery query = deploy(1);
+        cache.put(KEY, query, 1);
+        cache.release(query);
+
+        DeployedQuery hit = cache.acquire(KEY, 1);
+        Assert.assertSame(query, hit);
+        // e.g. a node was restarted and lost the deployed job
+        cache.invalidate(KEY, hit);
+        Assert.assertFalse(cache.isValid(hit, 1));
+        Mockito.verify(hcc, Mockito.never()).undeployJobSpec(query.getDeployedJobSpecId());
+        cache.release(hit);
+        Mockito.verify(hcc).undeployJobSpec(query.getDeployedJobSpecId());
+
+        // the next execution deploys the query again
+        Assert.assertNull(cache.acquire(KEY, 1));
+        DeployedQuery redeployed = deploy(1);
+        Assert.assertTrue(cache.put(KEY, redeployed, 1));
+        cache.release(redeployed);
+        Assert.assertSame(redeployed, cache.acquire(KEY, 1));
+        cache.release(redeployed);
+
+        // invalidating a query that was already replaced keeps the new one
+        cache.invalidate(KEY, query);
+        Assert.assertSame(redeployed, cache.acquire(KEY, 1));
+    }
+
+    @Test
+    public void leastRecentlyUsedQueryIsEvicted() throws Exception {
+        DeployedQuery first = deploy(1);
+        cache.put(KEY, first, 1);
+        cache.release(first);
+        DeployedQuery second = deploy(1);
+        cache.put(OTHER_KEY, second, 1);
+        cache.release(second);
+        cache.release(cache.acquire(KEY, 1));
+
+        DeployedQuery third = deploy(1);
+        cache.put("select 1", third, 1);
+        cache.release(third);
+        Mockito.verify(hcc).undeployJobSpec(second.getDeployedJobSpecId());
+        Assert.assertNull(cache.acquire(OTHER_KEY, 1));
+        Assert.assertSame(first, cache.acquire(KEY, 1));
+    }
+
+    @Test
+    public void rejectedQueryIsNotDeployedUntilMetadataChanges() {
+        cache.reject(KEY, 1);
+        Assert.assertTrue(cache.isRejected(KEY, 1));
+        Assert.assertFalse(cache.isRejected(OTHER_KEY, 1));
+        Assert.assertFalse(cache.isRejected(KEY, 2));
+    }
+
+    private DeployedQuery deploy(long metadataVersion) {
+        return new DeployedQuery(new DeployedJobSpecId(nextId++), null, null, Collections.emptyList(),
+                metadataVersion);
+    }
+}
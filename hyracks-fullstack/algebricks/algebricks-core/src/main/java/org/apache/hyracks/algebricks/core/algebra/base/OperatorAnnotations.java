@@ -29,4 +29,6 @@ public interface OperatorAnnotations {
     // Integer
     public static final String MAX_NUMBER_FRAMES = "MAX_NUMBER_FRAMES"; // -->
     // Integer
+    public static final String TARGET_PARTITION = "TARGET_PARTITION"; // -->
+    // Integer, the only partition an operator needs to run on
 }
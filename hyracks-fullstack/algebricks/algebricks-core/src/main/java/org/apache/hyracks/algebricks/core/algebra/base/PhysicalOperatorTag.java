@@ -28,6 +28,7 @@ public enum PhysicalOperatorTag {
     DISTRIBUTE_RESULT,
     EMPTY_TUPLE_SOURCE,
     DELEGATE_OPERATOR,
+    EXTERNAL_DISTINCT_BY,
     EXTERNAL_GROUP_BY,
     EXTERNAL_LOOKUP,
     FORWARD,
@@ -59,6 +60,7 @@ public enum PhysicalOperatorTag {
     RTREE_SEARCH,
     RUNNING_AGGREGATE,
     SINGLE_PARTITION_INVERTED_INDEX_SEARCH,
+    SKEW_AWARE_HASH_PARTITION_EXCHANGE,
     SINK,
     SINK_WRITE,
     SORT_GROUP_BY,
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.core.algebra.metadata;
+
+/**
+ * Describes which parts of the records produced by a data source scan are needed by the rest of the plan. The
+ * information is opaque to Algebricks and is handed to the data source when its scan runtime is generated.
+ *
+ * @param <T> the type of the projection information
+ */
+public interface IProjectionInfo<T> {
+
+    /**
+     * @return the projection information
+     */
+    T getProjectionInfo();
+
+    /**
+     * @return a copy of this projection information
+     */
+    IProjectionInfo<T> createCopy();
+}
@@ -29,6 +29,7 @@ import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
 import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
 import org.apache.hyracks.algebricks.core.algebra.expressions.IVariableTypeEnvironment;
 import org.apache.hyracks.algebricks.core.algebra.metadata.IDataSource;
+import org.apache.hyracks.algebricks.core.algebra.metadata.IProjectionInfo;
 import org.apache.hyracks.algebricks.core.algebra.properties.VariablePropagationPolicy;
 import org.apache.hyracks.algebricks.core.algebra.typing.ITypingContext;
 import org.apache.hyracks.algebricks.core.algebra.visitors.ILogicalExpressionReferenceTransform;
@@ -48,6 +49,8 @@ public class DataSourceScanOperator extends AbstractDataSourceOperator {
     private Mutable<ILogicalExpression> selectCondition;
     // the maximum of number of results output by this operator
     private long outputLimit = -1;
+    // the parts of the scanned records needed by the plan, null if the whole records are needed
+    private IProjectionInfo<?> projectionInfo;
 
     public DataSourceScanOperator(List<LogicalVariable> variables, IDataSource<?> dataSource) {
         this(variables, dataSource, null, -1);
@@ -162,4 +165,12 @@ public class DataSourceScanOperator extends AbstractDataSourceOperator {
     public void setOutputLimit(long outputLimit) {
         this.outputLimit = outputLimit;
     }
+
+    public IProjectionInfo<?> getProjectionInfo() {
+        return projectionInfo;
+    }
+
+    public void setProjectionInfo(IProjectionInfo<?> projectionInfo) {
+        this.projectionInfo = projectionInfo;
+    }
 }
@@ -465,7 +465,8 @@ public class IsomorphismOperatorVisitor implements ILogicalOperatorVisitor<Boole
         }
         DataSourceScanOperator scanOpArg = (DataSourceScanOperator) copyAndSubstituteVar(op, arg);
         boolean isomorphic = VariableUtilities.varListEqualUnordered(op.getVariables(), scanOpArg.getVariables())
-                && op.getDataSource().toString().equals(scanOpArg.getDataSource().toString());
+                && op.getDataSource().toString().equals(scanOpArg.getDataSource().toString())
+                && Objects.equals(op.getProjectionInfo(), scanOpArg.getProjectionInfo());
         return isomorphic;
     }
 
@@ -328,6 +328,9 @@ public class LogicalOperatorDeepCopyWithNewVariablesVisitor
                 ? exprDeepCopyVisitor.deepCopyExpressionReference(op.getSelectCondition()) : null;
         DataSourceScanOperator opCopy = new DataSourceScanOperator(deepCopyVariableList(op.getVariables()),
                 op.getDataSource(), newSelectCondition, op.getOutputLimit());
+        if (op.getProjectionInfo() != null) {
+            opCopy.setProjectionInfo(op.getProjectionInfo().createCopy());
+        }
         deepCopyInputsAnnotationsAndExecutionMode(op, arg, opCopy);
         return opCopy;
     }
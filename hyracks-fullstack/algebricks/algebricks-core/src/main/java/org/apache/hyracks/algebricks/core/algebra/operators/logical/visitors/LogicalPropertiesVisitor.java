@@ -103,7 +103,7 @@ public class LogicalPropertiesVisitor implements ILogicalOperatorVisitor<Void, I
 
     @Override
     public Void visitDataScanOperator(DataSourceScanOperator op, IOptimizationContext arg) throws AlgebricksException {
-        // TODO Auto-generated method stub
+        visitAnnotatedCardinality(op, arg);
         return null;
     }
 
@@ -147,7 +147,8 @@ public class LogicalPropertiesVisitor implements ILogicalOperatorVisitor<Void, I
 
     @Override
     public Void visitLimitOperator(LimitOperator op, IOptimizationContext arg) throws AlgebricksException {
-        // TODO Auto-generated method stub
+        // the input size is an upper bound of the output size
+        propagateCardinalityAndFrameNumber(op, arg);
         return null;
     }
 
@@ -160,9 +161,16 @@ public class LogicalPropertiesVisitor implements ILogicalOperatorVisitor<Void, I
 
     @Override
     public Void visitOrderOperator(OrderOperator op, IOptimizationContext arg) throws AlgebricksException {
+        if (!visitAnnotatedCardinality(op, arg)) {
+            propagateCardinalityAndFrameNumber(op, arg);
+        }
+        return null;
+    }
+
+    private static boolean visitAnnotatedCardinality(ILogicalOperator op, IOptimizationContext arg) {
         Object annot1 = op.getAnnotations().get(OperatorAnnotations.CARDINALITY);
         if (annot1 == null) {
-            return null;
+            return false;
         }
         Integer m = (Integer) annot1;
         LogicalPropertiesVectorImpl v = new LogicalPropertiesVectorImpl();
@@ -173,7 +181,7 @@ public class LogicalPropertiesVisitor implements ILogicalOperatorVisitor<Void, I
             v.setMaxOutputFrames(f);
         }
         arg.putLogicalPropertiesVector(op, v);
-        return null;
+        return true;
     }
 
     @Override
@@ -220,7 +228,8 @@ public class LogicalPropertiesVisitor implements ILogicalOperatorVisitor<Void, I
 
     @Override
     public Void visitSelectOperator(SelectOperator op, IOptimizationContext arg) throws AlgebricksException {
-        // TODO Auto-generated method stub
+        // the input size is an upper bound of the output size
+        propagateCardinalityAndFrameNumber(op, arg);
         return null;
     }
 
@@ -330,7 +339,7 @@ public class LogicalPropertiesVisitor implements ILogicalOperatorVisitor<Void, I
             if (evalSize != null) {
                 ILogicalOperator op0 = op.getInputs().get(0).getValue();
                 ILogicalPropertiesVector v0 = context.getLogicalPropertiesVector(op0);
-                if (v0 != null) {
+                if (v0 != null && v0.getMaxOutputFrames() != null) {
                     long frames0 = v0.getMaxOutputFrames();
                     long overhead = 0; // added per tuple
                     for (Mutable<ILogicalExpression> exprRef : exprList) {
@@ -360,7 +369,7 @@ public class LogicalPropertiesVisitor implements ILogicalOperatorVisitor<Void, I
         // propagate also max number of frames (conservatively)
         ILogicalOperator op0 = op.getInputs().get(0).getValue();
         ILogicalPropertiesVector v0 = context.getLogicalPropertiesVector(op0);
-        if (v0 != null) {
+        if (v != null && v0 != null) {
             v.setMaxOutputFrames(v0.getMaxOutputFrames());
         }
     }
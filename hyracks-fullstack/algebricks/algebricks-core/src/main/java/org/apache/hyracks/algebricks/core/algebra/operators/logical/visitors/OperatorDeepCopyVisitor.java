@@ -257,6 +257,9 @@ public class OperatorDeepCopyVisitor implements ILogicalOperatorVisitor<ILogical
                 op.getSelectCondition() != null ? deepCopyExpressionRef(op.getSelectCondition()) : null;
         DataSourceScanOperator newOp =
                 new DataSourceScanOperator(newInputList, op.getDataSource(), newSelectCondition, op.getOutputLimit());
+        if (op.getProjectionInfo() != null) {
+            newOp.setProjectionInfo(op.getProjectionInfo().createCopy());
+        }
         return newOp;
     }
 
@@ -75,6 +75,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.physical.HashPartiti
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.HashPartitionMergeExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.RangePartitionExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.RangePartitionMergeExchangePOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.SkewAwareHashPartitionExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.SortMergeExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.properties.OrderColumn;
 import org.apache.hyracks.algebricks.core.algebra.visitors.ILogicalOperatorVisitor;
@@ -149,6 +150,11 @@ public class UsedVariableVisitor implements ILogicalOperatorVisitor<Void, Void>
                     HashPartitionExchangePOperator hashPartitionPOp = (HashPartitionExchangePOperator) physOp;
                     usedVariables.addAll(hashPartitionPOp.getHashFields());
                     break;
+                case SKEW_AWARE_HASH_PARTITION_EXCHANGE:
+                    SkewAwareHashPartitionExchangePOperator skewHashPOp =
+                            (SkewAwareHashPartitionExchangePOperator) physOp;
+                    usedVariables.addAll(skewHashPOp.getHashFields());
+                    break;
                 case HASH_PARTITION_MERGE_EXCHANGE:
                     HashPartitionMergeExchangePOperator hashMergePOp = (HashPartitionMergeExchangePOperator) physOp;
                     usedVariables.addAll(hashMergePOp.getPartitionFields());
@@ -118,7 +118,8 @@ public class DataSourceScanPOperator extends AbstractScanPOperator {
 
         Pair<IOperatorDescriptor, AlgebricksPartitionConstraint> p = mp.getScannerRuntime(dataSource, vars, projectVars,
                 scan.isProjectPushed(), scan.getMinFilterVars(), scan.getMaxFilterVars(), tupleFilterFactory,
-                scan.getOutputLimit(), opSchema, typeEnv, context, builder.getJobSpec(), implConfig);
+                scan.getOutputLimit(), scan.getProjectionInfo(), opSchema, typeEnv, context, builder.getJobSpec(),
+                implConfig);
         IOperatorDescriptor opDesc = p.first;
         opDesc.setSourceLocation(scan.getSourceLocation());
         builder.contributeHyracksOperator(scan, opDesc);
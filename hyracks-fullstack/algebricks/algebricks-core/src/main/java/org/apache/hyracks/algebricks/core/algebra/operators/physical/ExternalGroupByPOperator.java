@@ -50,6 +50,7 @@ import org.apache.hyracks.algebricks.core.algebra.properties.LocalGroupingProper
 import org.apache.hyracks.algebricks.core.algebra.properties.PhysicalRequirements;
 import org.apache.hyracks.algebricks.core.algebra.properties.StructuralPropertiesVector;
 import org.apache.hyracks.algebricks.core.algebra.properties.UnorderedPartitionedProperty;
+import org.apache.hyracks.algebricks.core.config.AlgebricksConfig;
 import org.apache.hyracks.algebricks.core.jobgen.impl.JobGenContext;
 import org.apache.hyracks.algebricks.core.jobgen.impl.JobGenHelper;
 import org.apache.hyracks.algebricks.core.jobgen.impl.OperatorSchemaImpl;
@@ -66,10 +67,29 @@ import org.apache.hyracks.dataflow.std.group.external.ExternalGroupOperatorDescr
 
 public class ExternalGroupByPOperator extends AbstractGroupByPOperator {
 
+    private boolean openAddressing;
+    private int passThroughFrames = AlgebricksConfig.GROUP_BY_PASS_THROUGH_FRAMES_DEFAULT;
+    private double passThroughRatio = AlgebricksConfig.GROUP_BY_PASS_THROUGH_RATIO_DEFAULT;
+
     public ExternalGroupByPOperator(List<LogicalVariable> columnList) {
         super(columnList);
     }
 
+    public void setOpenAddressing(boolean openAddressing) {
+        this.openAddressing = openAddressing;
+    }
+
+    /**
+     * Sets when a local group-by stops grouping and passes its input through to the global one.
+     *
+     * @param passThroughFrames the number of input frames to sample, 0 to always group
+     * @param passThroughRatio the ratio of groups to sampled tuples above which grouping stops
+     */
+    public void setPassThrough(int passThroughFrames, double passThroughRatio) {
+        this.passThroughFrames = passThroughFrames;
+        this.passThroughRatio = passThroughRatio;
+    }
+
     @Override
     public PhysicalOperatorTag getOperatorTag() {
         return PhysicalOperatorTag.EXTERNAL_GROUP_BY;
@@ -234,8 +254,13 @@ public class ExternalGroupByPOperator extends AbstractGroupByPOperator {
         long inputSize = framesLimit * (long) frameSize;
         ExternalGroupOperatorDescriptor gbyOpDesc = new ExternalGroupOperatorDescriptor(spec, hashTableSize, inputSize,
                 keyAndDecFields, framesLimit, comparatorFactories, normalizedKeyFactory, aggregatorFactory,
-                mergeFactory, recordDescriptor, recordDescriptor, new HashSpillableTableFactory(hashFunctionFactories));
+                mergeFactory, recordDescriptor, recordDescriptor,
+                new HashSpillableTableFactory(hashFunctionFactories, openAddressing));
         gbyOpDesc.setSourceLocation(gby.getSourceLocation());
+        if (!gby.isGlobal() && passThroughFrames > 0) {
+            // a local group-by is followed by a global one, so it can stop grouping when it does not reduce its input
+            gbyOpDesc.setPassThrough(passThroughFrames, passThroughRatio);
+        }
         contributeOpDesc(builder, gby, gbyOpDesc);
         ILogicalOperator src = op.getInputs().get(0).getValue();
         builder.contributeGraphEdge(src, 0, op, 0);
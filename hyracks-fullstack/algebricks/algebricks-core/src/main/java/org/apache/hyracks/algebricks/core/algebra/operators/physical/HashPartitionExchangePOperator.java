@@ -43,12 +43,14 @@ import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFactory;
 import org.apache.hyracks.api.dataflow.value.ITuplePartitionComputerFactory;
 import org.apache.hyracks.api.job.IConnectorDescriptorRegistry;
 import org.apache.hyracks.dataflow.common.data.partition.FieldHashPartitionComputerFactory;
+import org.apache.hyracks.dataflow.std.connectors.MToNDedupPartitioningConnectorDescriptor;
 import org.apache.hyracks.dataflow.std.connectors.MToNPartitioningConnectorDescriptor;
 
 public class HashPartitionExchangePOperator extends AbstractExchangePOperator {
 
     private List<LogicalVariable> hashFields;
     private INodeDomain domain;
+    private boolean localDedup;
 
     public HashPartitionExchangePOperator(List<LogicalVariable> hashFields, INodeDomain domain) {
         this.hashFields = hashFields;
@@ -68,6 +70,18 @@ public class HashPartitionExchangePOperator extends AbstractExchangePOperator {
         return domain;
     }
 
+    public boolean isLocalDedup() {
+        return localDedup;
+    }
+
+    /**
+     * @param localDedup whether the producers may drop tuples whose hash fields repeat the ones of a recently sent
+     *            tuple. Only valid when the consumer eliminates duplicates on exactly the hash fields.
+     */
+    public void setLocalDedup(boolean localDedup) {
+        this.localDedup = localDedup;
+    }
+
     @Override
     public void computeDeliveredProperties(ILogicalOperator op, IOptimizationContext context) {
         IPartitioningProperty p = new UnorderedPartitionedProperty(new ListSet<LogicalVariable>(hashFields), domain);
@@ -82,7 +96,7 @@ public class HashPartitionExchangePOperator extends AbstractExchangePOperator {
 
     @Override
     public String toString() {
-        return getOperatorTag().toString() + " " + hashFields;
+        return getOperatorTag().toString() + " " + hashFields + (localDedup ? " DEDUP" : "");
     }
 
     @Override
@@ -99,7 +113,8 @@ public class HashPartitionExchangePOperator extends AbstractExchangePOperator {
             ++i;
         }
         ITuplePartitionComputerFactory tpcf = new FieldHashPartitionComputerFactory(keys, hashFunctionFactories);
-        IConnectorDescriptor conn = new MToNPartitioningConnectorDescriptor(spec, tpcf);
+        IConnectorDescriptor conn = localDedup ? new MToNDedupPartitioningConnectorDescriptor(spec, tpcf, keys)
+                : new MToNPartitioningConnectorDescriptor(spec, tpcf);
         return new Pair<>(conn, null);
     }
 
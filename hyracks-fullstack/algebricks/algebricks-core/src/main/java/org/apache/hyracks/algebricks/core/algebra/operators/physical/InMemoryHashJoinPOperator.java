@@ -40,7 +40,6 @@ import org.apache.hyracks.algebricks.core.jobgen.impl.JobGenContext;
 import org.apache.hyracks.algebricks.core.jobgen.impl.JobGenHelper;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
 import org.apache.hyracks.algebricks.runtime.evaluators.TuplePairEvaluatorFactory;
-import org.apache.hyracks.api.dataflow.IOperatorDescriptor;
 import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFactory;
 import org.apache.hyracks.api.dataflow.value.IMissingWriterFactory;
 import org.apache.hyracks.api.dataflow.value.IPredicateEvaluatorFactory;
@@ -53,6 +52,7 @@ import org.apache.hyracks.dataflow.std.join.InMemoryHashJoinOperatorDescriptor;
 public class InMemoryHashJoinPOperator extends AbstractHashJoinPOperator {
 
     private final int tableSize;
+    private boolean openAddressing;
 
     /**
      * builds on the first operator and probes on the second.
@@ -64,6 +64,10 @@ public class InMemoryHashJoinPOperator extends AbstractHashJoinPOperator {
         this.tableSize = tableSize;
     }
 
+    public void setOpenAddressing(boolean openAddressing) {
+        this.openAddressing = openAddressing;
+    }
+
     @Override
     public PhysicalOperatorTag getOperatorTag() {
         return PhysicalOperatorTag.IN_MEMORY_HASH_JOIN;
@@ -108,7 +112,7 @@ public class InMemoryHashJoinPOperator extends AbstractHashJoinPOperator {
         ITuplePairComparatorFactory comparatorFactory =
                 new TuplePairEvaluatorFactory(cond, false, context.getBinaryBooleanInspectorFactory());
         IOperatorDescriptorRegistry spec = builder.getJobSpec();
-        IOperatorDescriptor opDesc;
+        InMemoryHashJoinOperatorDescriptor opDesc;
 
         int memSizeInFrames = localMemoryRequirements.getMemoryBudgetInFrames();
 
@@ -131,6 +135,7 @@ public class InMemoryHashJoinPOperator extends AbstractHashJoinPOperator {
                 throw new NotImplementedException();
         }
 
+        opDesc.setOpenAddressingTable(openAddressing);
         opDesc.setSourceLocation(op.getSourceLocation());
         contributeOpDesc(builder, (AbstractLogicalOperator) op, opDesc);
 
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.core.algebra.operators.physical;
+
+import java.util.List;
+
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.common.utils.Pair;
+import org.apache.hyracks.algebricks.core.algebra.base.IHyracksJobBuilder.TargetConstraint;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.base.PhysicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.expressions.IVariableTypeEnvironment;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.IOperatorSchema;
+import org.apache.hyracks.algebricks.core.algebra.properties.INodeDomain;
+import org.apache.hyracks.algebricks.core.algebra.properties.IPhysicalPropertiesVector;
+import org.apache.hyracks.algebricks.core.algebra.properties.PhysicalRequirements;
+import org.apache.hyracks.algebricks.core.algebra.properties.RandomPartitioningProperty;
+import org.apache.hyracks.algebricks.core.algebra.properties.StructuralPropertiesVector;
+import org.apache.hyracks.algebricks.core.jobgen.impl.JobGenContext;
+import org.apache.hyracks.algebricks.data.IBinaryHashFunctionFactoryProvider;
+import org.apache.hyracks.api.dataflow.IConnectorDescriptor;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFactory;
+import org.apache.hyracks.api.job.IConnectorDescriptorRegistry;
+import org.apache.hyracks.dataflow.common.data.partition.skew.DynamicHeavyHitterMapSupplier;
+import org.apache.hyracks.dataflow.common.data.partition.skew.SkewAwareHashPartitionComputerFactory;
+import org.apache.hyracks.dataflow.common.data.partition.skew.SkewAwareHashReplicatePartitionComputerFactory;
+import org.apache.hyracks.dataflow.std.connectors.MToNPartialBroadcastConnectorDescriptor;
+import org.apache.hyracks.dataflow.std.connectors.MToNPartitioningConnectorDescriptor;
+
+/**
+ * Hash partitions the tuples like {@link HashPartitionExchangePOperator} except for the keys that the heavy hitter map
+ * computed at run time (and found in the task context under {@code heavyHitterMapKey}) marks as skewed. The tuples of
+ * such a key are either spread round-robin over the key's fan-out partitions ({@code replicate == false}, used for
+ * the probe side of a join) or sent to all of them ({@code replicate == true}, used for the build side).
+ * Since a skewed key is no longer found in a single partition, the exchange only delivers a random partitioning.
+ */
+public class SkewAwareHashPartitionExchangePOperator extends AbstractExchangePOperator {
+
+    private final List<LogicalVariable> hashFields;
+    private final String heavyHitterMapKey;
+    private final boolean replicate;
+    private final INodeDomain domain;
+
+    public SkewAwareHashPartitionExchangePOperator(List<LogicalVariable> hashFields, String heavyHitterMapKey,
+            boolean replicate, INodeDomain domain) {
+        this.hashFields = hashFields;
+        this.heavyHitterMapKey = heavyHitterMapKey;
+        this.replicate = replicate;
+        this.domain = domain;
+    }
+
+    @Override
+    public PhysicalOperatorTag getOperatorTag() {
+        return PhysicalOperatorTag.SKEW_AWARE_HASH_PARTITION_EXCHANGE;
+    }
+
+    public List<LogicalVariable> getHashFields() {
+        return hashFields;
+    }
+
+    public String getHeavyHitterMapKey() {
+        return heavyHitterMapKey;
+    }
+
+    public boolean isReplicate() {
+        return replicate;
+    }
+
+    public INodeDomain getDomain() {
+        return domain;
+    }
+
+    @Override
+    public void computeDeliveredProperties(ILogicalOperator op, IOptimizationContext context) {
+        this.deliveredProperties = new StructuralPropertiesVector(new RandomPartitioningProperty(domain), null);
+    }
+
+    @Override
+    public PhysicalRequirements getRequiredPropertiesForChildren(ILogicalOperator op,
+            IPhysicalPropertiesVector reqdByParent, IOptimizationContext context) {
+        return emptyUnaryRequirements();
+    }
+
+    @Override
+    public String toString() {
+        return getOperatorTag().toString() + " " + hashFields + (replicate ? " REPLICATE" : " SPLIT");
+    }
+
+    @Override
+    public Pair<IConnectorDescriptor, TargetConstraint> createConnectorDescriptor(IConnectorDescriptorRegistry spec,
+            ILogicalOperator op, IOperatorSchema opSchema, JobGenContext context) throws AlgebricksException {
+        int[] keys = new int[hashFields.size()];
+        IBinaryHashFunctionFactory[] hashFunctionFactories = new IBinaryHashFunctionFactory[hashFields.size()];
+        int i = 0;
+        IBinaryHashFunctionFactoryProvider hashFunProvider = context.getBinaryHashFunctionFactoryProvider();
+        IVariableTypeEnvironment env = context.getTypeEnvironment(op);
+        for (LogicalVariable v : hashFields) {
+            keys[i] = opSchema.findVariable(v);
+            hashFunctionFactories[i] = hashFunProvider.getBinaryHashFunctionFactory(env.getVarType(v));
+            ++i;
+        }
+        DynamicHeavyHitterMapSupplier mapSupplier = new DynamicHeavyHitterMapSupplier(heavyHitterMapKey);
+        IConnectorDescriptor conn;
+        if (replicate) {
+            conn = new MToNPartialBroadcastConnectorDescriptor(spec, new SkewAwareHashReplicatePartitionComputerFactory(
+                    keys, hashFunctionFactories, mapSupplier, op.getSourceLocation()));
+        } else {
+            conn = new MToNPartitioningConnectorDescriptor(spec, new SkewAwareHashPartitionComputerFactory(keys,
+                    hashFunctionFactories, mapSupplier, op.getSourceLocation()));
+        }
+        return new Pair<>(conn, null);
+    }
+}
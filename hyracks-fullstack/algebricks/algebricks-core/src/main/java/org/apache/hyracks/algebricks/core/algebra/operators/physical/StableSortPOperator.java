@@ -38,6 +38,7 @@ import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputerFactory;
 import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
 import org.apache.hyracks.api.job.IOperatorDescriptorRegistry;
 import org.apache.hyracks.dataflow.std.sort.AbstractSorterOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.sort.Algorithm;
 import org.apache.hyracks.dataflow.std.sort.ExternalSortOperatorDescriptor;
 import org.apache.hyracks.dataflow.std.sort.TopKSorterOperatorDescriptor;
 
@@ -48,6 +49,7 @@ import org.apache.hyracks.dataflow.std.sort.TopKSorterOperatorDescriptor;
 public class StableSortPOperator extends AbstractStableSortPOperator {
 
     private final int topK;
+    private int sortThreads = 1;
 
     public StableSortPOperator() {
         this(-1);
@@ -57,6 +59,10 @@ public class StableSortPOperator extends AbstractStableSortPOperator {
         this.topK = topK;
     }
 
+    public void setSortThreads(int sortThreads) {
+        this.sortThreads = sortThreads;
+    }
+
     @Override
     public PhysicalOperatorTag getOperatorTag() {
         return PhysicalOperatorTag.STABLE_SORT;
@@ -101,8 +107,13 @@ public class StableSortPOperator extends AbstractStableSortPOperator {
         AbstractSorterOperatorDescriptor sortOpDesc;
         // topK == -1 means that a topK value is not provided.
         if (topK == -1) {
-            sortOpDesc =
-                    new ExternalSortOperatorDescriptor(spec, maxNumberOfFrames, sortFields, nkcf, comps, recDescriptor);
+            // radix sort the normalized keys unless the data is merge sorted on several threads
+            Algorithm alg = nkcf != null && sortThreads == 1 ? Algorithm.RADIX_SORT : Algorithm.MERGE_SORT;
+            INormalizedKeyComputerFactory[] nkcfs = nkcf != null ? new INormalizedKeyComputerFactory[] { nkcf } : null;
+            ExternalSortOperatorDescriptor externalSortOpDesc = new ExternalSortOperatorDescriptor(spec,
+                    maxNumberOfFrames, sortFields, nkcfs, comps, recDescriptor, alg);
+            externalSortOpDesc.setSortThreads(sortThreads);
+            sortOpDesc = externalSortOpDesc;
         } else {
             // Since topK value is provided, topK optimization is possible.
             // We call topKSorter instead of calling ExternalSortOperator.
@@ -35,6 +35,7 @@ import org.apache.hyracks.algebricks.runtime.operators.win.WindowAggregatorDescr
 import org.apache.hyracks.algebricks.runtime.operators.win.WindowMaterializingRuntimeFactory;
 import org.apache.hyracks.algebricks.runtime.operators.win.WindowNestedPlansRunningRuntimeFactory;
 import org.apache.hyracks.algebricks.runtime.operators.win.WindowNestedPlansRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.operators.win.WindowNestedPlansSlidingRuntimeFactory;
 import org.apache.hyracks.algebricks.runtime.operators.win.WindowNestedPlansUnboundedRuntimeFactory;
 import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
 
@@ -50,12 +51,16 @@ public final class WindowPOperator extends AbstractWindowPOperator {
 
     private final boolean nestedTrivialAggregates;
 
+    private final boolean nestedInvertibleAggregates;
+
     public WindowPOperator(List<LogicalVariable> partitionColumns, List<OrderColumn> orderColumns,
-            boolean frameStartIsMonotonic, boolean frameEndIsMonotonic, boolean nestedTrivialAggregates) {
+            boolean frameStartIsMonotonic, boolean frameEndIsMonotonic, boolean nestedTrivialAggregates,
+            boolean nestedInvertibleAggregates) {
         super(partitionColumns, orderColumns);
         this.frameStartIsMonotonic = frameStartIsMonotonic;
         this.frameEndIsMonotonic = frameEndIsMonotonic;
         this.nestedTrivialAggregates = nestedTrivialAggregates;
+        this.nestedInvertibleAggregates = nestedInvertibleAggregates;
     }
 
     @Override
@@ -113,6 +118,19 @@ public final class WindowPOperator extends AbstractWindowPOperator {
                         runningAggOutColumns, runningAggFactories, nestedAggOutSchemaSize, nestedAggFactory,
                         memSizeInFrames);
             }
+        } else if (hasFrameStart && hasFrameEnd && !hasFrameExclude && !hasFrameExcludeUnary && !hasFrameOffset
+                && winOp.getFrameMaxObjects() == WindowOperator.FRAME_MAX_OBJECTS_UNLIMITED && frameStartIsMonotonic
+                && frameEndIsMonotonic && nestedTrivialAggregates && nestedInvertibleAggregates) {
+            // special case #3: sliding frame, no exclusions, no offset, no frame limit,
+            //                  trivial aggregate subplan ( aggregate + nts ) with invertible aggregates
+            nestedAggFactory.setPartialOutputEnabled(true);
+            nestedAggFactory.setRemoveEnabled(true);
+            return new WindowNestedPlansSlidingRuntimeFactory(partitionColumnsList, partitionComparatorFactories,
+                    orderComparatorFactories, frameValueExprEvals, frameValueComparatorFactories, frameStartExprEvals,
+                    frameStartValidationExprEvals, frameEndExprEvals, frameEndValidationExprEvals,
+                    context.getBinaryBooleanInspectorFactory(), projectionColumnsExcludingSubplans,
+                    runningAggOutColumns, runningAggFactories, nestedAggOutSchemaSize, nestedAggFactory,
+                    memSizeInFrames);
         }
 
         // default case
@@ -30,6 +30,7 @@ import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
 import org.apache.hyracks.algebricks.core.algebra.base.ILogicalPlan;
 import org.apache.hyracks.algebricks.core.algebra.base.IPhysicalOperator;
 import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.metadata.IProjectionInfo;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractLogicalOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractOperatorWithNestedPlans;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractUnnestMapOperator;
@@ -333,9 +334,16 @@ public class LogicalOperatorPrettyPrintVisitor extends AbstractLogicalOperatorPr
         appendFilterInformation(plan, op.getMinFilterVars(), op.getMaxFilterVars());
         appendSelectConditionInformation(plan, op.getSelectCondition(), indent);
         appendLimitInformation(plan, op.getOutputLimit());
+        appendProjectionInformation(plan, op.getProjectionInfo());
         return null;
     }
 
+    private void appendProjectionInformation(AlgebricksStringBuilderWriter plan, IProjectionInfo<?> projectionInfo) {
+        if (projectionInfo != null) {
+            plan.append(" project (").append(String.valueOf(projectionInfo)).append(")");
+        }
+    }
+
     private void appendSelectConditionInformation(AlgebricksStringBuilderWriter plan,
             Mutable<ILogicalExpression> selectCondition, Integer indent) throws AlgebricksException {
         if (selectCondition != null) {
@@ -488,6 +488,9 @@ public class LogicalOperatorPrettyPrintVisitorJson extends AbstractLogicalOperat
             }
             writeFilterInformation(op.getMinFilterVars(), op.getMaxFilterVars());
             writeSelectLimitInformation(op.getSelectCondition(), op.getOutputLimit(), indent);
+            if (op.getProjectionInfo() != null) {
+                jsonGenerator.writeStringField("projection", String.valueOf(op.getProjectionInfo()));
+            }
             return null;
         } catch (IOException e) {
             throw new AlgebricksException(e, ErrorCode.ERROR_PRINTING_PLAN);
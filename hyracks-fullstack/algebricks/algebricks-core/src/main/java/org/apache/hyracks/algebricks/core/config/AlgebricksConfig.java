@@ -27,5 +27,15 @@ public class AlgebricksConfig {
     public static final Logger ALGEBRICKS_LOGGER = LogManager.getLogger(ALGEBRICKS_LOGGER_NAME);
     public static final int SORT_SAMPLES = 100;
     public static final boolean SORT_PARALLEL = true;
+    public static final int SORT_THREADS_DEFAULT = 1;
+    public static final boolean HASH_DISTINCT_DEFAULT = false;
+    public static final boolean DISTINCT_DEDUP_DEFAULT = false;
+    public static final boolean JOIN_SKEW_DEFAULT = false;
+    public static final boolean OPEN_ADDRESSING_DEFAULT = false;
+    public static final int GROUP_BY_PASS_THROUGH_FRAMES_DEFAULT = 32;
+    public static final double GROUP_BY_PASS_THROUGH_RATIO_DEFAULT = 0.8;
+    public static final boolean WINDOW_SLIDING_DEFAULT = true;
     public static final boolean INDEX_ONLY_DEFAULT = true;
+    public static final boolean CBO_DEFAULT = false;
+    public static final boolean MEMORY_ESTIMATES_DEFAULT = false;
 }
@@ -39,7 +39,17 @@ public class PhysicalOptimizationConfig {
     private static final String DEFAULT_IN_MEM_HASH_JOIN_TABLE_SIZE = "DEFAULT_IN_MEM_HASH_JOIN_TABLE_SIZE";
     private static final String SORT_PARALLEL = "SORT_PARALLEL";
     private static final String SORT_SAMPLES = "SORT_SAMPLES";
+    private static final String SORT_THREADS = "SORT_THREADS";
+    private static final String HASH_DISTINCT = "HASH_DISTINCT";
+    private static final String DISTINCT_DEDUP = "DISTINCT_DEDUP";
+    private static final String JOIN_SKEW = "JOIN_SKEW";
+    private static final String OPEN_ADDRESSING = "OPEN_ADDRESSING";
+    private static final String GROUP_BY_PASS_THROUGH_FRAMES = "GROUP_BY_PASS_THROUGH_FRAMES";
+    private static final String GROUP_BY_PASS_THROUGH_RATIO = "GROUP_BY_PASS_THROUGH_RATIO";
+    private static final String WINDOW_SLIDING = "WINDOW_SLIDING";
     private static final String INDEX_ONLY = "INDEX_ONLY";
+    private static final String CBO = "CBO";
+    private static final String MEMORY_ESTIMATES = "MEMORY_ESTIMATES";
 
     private Properties properties = new Properties();
 
@@ -173,6 +183,78 @@ public class PhysicalOptimizationConfig {
         setInt(SORT_SAMPLES, sortSamples);
     }
 
+    public int getSortThreads() {
+        return getInt(SORT_THREADS, AlgebricksConfig.SORT_THREADS_DEFAULT);
+    }
+
+    public void setSortThreads(int sortThreads) {
+        setInt(SORT_THREADS, sortThreads);
+    }
+
+    public boolean isHashDistinct() {
+        return getBoolean(HASH_DISTINCT, AlgebricksConfig.HASH_DISTINCT_DEFAULT);
+    }
+
+    public void setHashDistinct(boolean hashDistinct) {
+        setBoolean(HASH_DISTINCT, hashDistinct);
+    }
+
+    public boolean isDistinctDedup() {
+        return getBoolean(DISTINCT_DEDUP, AlgebricksConfig.DISTINCT_DEDUP_DEFAULT);
+    }
+
+    public void setDistinctDedup(boolean distinctDedup) {
+        setBoolean(DISTINCT_DEDUP, distinctDedup);
+    }
+
+    public boolean isJoinSkew() {
+        return getBoolean(JOIN_SKEW, AlgebricksConfig.JOIN_SKEW_DEFAULT);
+    }
+
+    public void setJoinSkew(boolean joinSkew) {
+        setBoolean(JOIN_SKEW, joinSkew);
+    }
+
+    public boolean isOpenAddressing() {
+        return getBoolean(OPEN_ADDRESSING, AlgebricksConfig.OPEN_ADDRESSING_DEFAULT);
+    }
+
+    public void setOpenAddressing(boolean openAddressing) {
+        setBoolean(OPEN_ADDRESSING, openAddressing);
+    }
+
+    public int getGroupByPassThroughFrames() {
+        return getInt(GROUP_BY_PASS_THROUGH_FRAMES, AlgebricksConfig.GROUP_BY_PASS_THROUGH_FRAMES_DEFAULT);
+    }
+
+    public void setGroupByPassThroughFrames(int passThroughFrames) {
+        setInt(GROUP_BY_PASS_THROUGH_FRAMES, passThroughFrames);
+    }
+
+    public double getGroupByPassThroughRatio() {
+        return getDouble(GROUP_BY_PASS_THROUGH_RATIO, AlgebricksConfig.GROUP_BY_PASS_THROUGH_RATIO_DEFAULT);
+    }
+
+    public void setGroupByPassThroughRatio(double passThroughRatio) {
+        setDouble(GROUP_BY_PASS_THROUGH_RATIO, passThroughRatio);
+    }
+
+    public boolean isWindowSliding() {
+        return getBoolean(WINDOW_SLIDING, AlgebricksConfig.WINDOW_SLIDING_DEFAULT);
+    }
+
+    public void setWindowSliding(boolean windowSliding) {
+        setBoolean(WINDOW_SLIDING, windowSliding);
+    }
+
+    public boolean isCBO() {
+        return getBoolean(CBO, AlgebricksConfig.CBO_DEFAULT);
+    }
+
+    public void setCBO(boolean cbo) {
+        setBoolean(CBO, cbo);
+    }
+
     public void setIndexOnly(boolean indexOnly) {
         setBoolean(INDEX_ONLY, indexOnly);
     }
@@ -181,6 +263,14 @@ public class PhysicalOptimizationConfig {
         return getBoolean(INDEX_ONLY, AlgebricksConfig.INDEX_ONLY_DEFAULT);
     }
 
+    public void setMemoryEstimates(boolean memoryEstimates) {
+        setBoolean(MEMORY_ESTIMATES, memoryEstimates);
+    }
+
+    public boolean isMemoryEstimates() {
+        return getBoolean(MEMORY_ESTIMATES, AlgebricksConfig.MEMORY_ESTIMATES_DEFAULT);
+    }
+
     private void setInt(String property, int value) {
         properties.setProperty(property, Integer.toString(value));
     }
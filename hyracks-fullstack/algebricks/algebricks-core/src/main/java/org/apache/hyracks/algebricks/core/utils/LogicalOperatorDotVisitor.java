@@ -392,6 +392,9 @@ public class LogicalOperatorDotVisitor implements ILogicalOperatorVisitor<String
         appendFilterInformation(op.getMinFilterVars(), op.getMaxFilterVars());
         appendSelectConditionInformation(op.getSelectCondition());
         appendLimitInformation(op.getOutputLimit());
+        if (op.getProjectionInfo() != null) {
+            stringBuilder.append(" project:").append(op.getProjectionInfo());
+        }
         appendSchema(op, showDetails);
         appendAnnotations(op, showDetails);
         appendPhysicalOperatorInfo(op, showDetails);
@@ -21,6 +21,7 @@ package org.apache.hyracks.algebricks.rewriter.rules;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -60,7 +61,11 @@ import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperato
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator.IOrder.OrderKind;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.ReplicateOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.visitors.FDsAndEquivClassesVisitor;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.AbstractDistinctByPOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.AbstractForwardPOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.AbstractGroupByPOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.AbstractHashJoinPOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.AbstractJoinPOperator.JoinPartitioningType;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.AbstractPreSortedDistinctByPOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.AbstractStableSortPOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.AggregatePOperator;
@@ -68,6 +73,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.physical.AssignPOper
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.BroadcastExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.HashPartitionExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.HashPartitionMergeExchangePOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.HashSkewForwardPOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.MicroStableSortPOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.OneToOneExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.RandomMergeExchangePOperator;
@@ -75,6 +81,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.physical.RandomParti
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.RangePartitionExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.ReplicatePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.SequentialMergeExchangePOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.SkewAwareHashPartitionExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.SortForwardPOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.SortMergeExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.StableSortPOperator;
@@ -108,15 +115,36 @@ public class EnforceStructuralPropertiesRule implements IAlgebraicRewriteRule {
 
     private static final String HASH_MERGE = "hash_merge";
     private static final String TRUE_CONSTANT = "true";
+    // the number of keys each partition keeps counts for when looking for the skewed keys of a hash join
+    private static final int HEAVY_HITTER_SKETCH_CAPACITY = 256;
+    // only every n-th tuple of the probe input is counted
+    private static final int HEAVY_HITTER_SAMPLE_RATE = 4;
+    // the minimum share of the probe input a key needs to have to be spread over several partitions
+    private static final double HEAVY_HITTER_THRESHOLD = 0.05;
     private final FunctionIdentifier rangeMapFunction;
     private final FunctionIdentifier localSamplingFun;
     private final FunctionIdentifier typePropagatingFun;
+    private final FunctionIdentifier localHeavyHittersFun;
+    private final FunctionIdentifier heavyHitterMapFun;
 
     public EnforceStructuralPropertiesRule(FunctionIdentifier rangeMapFunction, FunctionIdentifier localSamplingFun,
             FunctionIdentifier typePropagatingFun) {
+        this(rangeMapFunction, localSamplingFun, typePropagatingFun, null, null);
+    }
+
+    /**
+     * @param localHeavyHittersFun the aggregate function counting the join keys of a partition
+     * @param heavyHitterMapFun the aggregate function merging the counts of all partitions into a heavy hitter map.
+     *            Skew-aware hash joins are only planned when both functions are given.
+     */
+    public EnforceStructuralPropertiesRule(FunctionIdentifier rangeMapFunction, FunctionIdentifier localSamplingFun,
+            FunctionIdentifier typePropagatingFun, FunctionIdentifier localHeavyHittersFun,
+            FunctionIdentifier heavyHitterMapFun) {
         this.rangeMapFunction = rangeMapFunction;
         this.localSamplingFun = localSamplingFun;
         this.typePropagatingFun = typePropagatingFun;
+        this.localHeavyHittersFun = localHeavyHittersFun;
+        this.heavyHitterMapFun = heavyHitterMapFun;
     }
 
     @Override
@@ -211,8 +239,14 @@ public class EnforceStructuralPropertiesRule implements IAlgebraicRewriteRule {
         // The child index of the child operator to optimize first.
         int startChildIndex = getStartChildIndex(op, pr, nestedPlan);
         IPartitioningProperty firstDeliveredPartitioning = null;
+        // A hash join whose inputs both need to be hash partitioned may partition them in a skew-aware way instead.
+        boolean skewAwareJoin = isSkewAwareHashJoin(op, reqdProperties, nestedPlan, context);
+        if (skewAwareJoin) {
+            changed = true;
+            addSkewAwareHashJoinEnforcers(op, reqdProperties[0].getPartitioningProperty().getNodeDomain(), context);
+        }
         // Enforce data properties in a top-down manner.
-        for (j = 0; j < op.getInputs().size(); j++) {
+        for (j = 0; !skewAwareJoin && j < op.getInputs().size(); j++) {
             // Starts from a partitioning-compatible child if any to loop over all children.
             int childIndex = (j + startChildIndex) % op.getInputs().size();
             IPhysicalPropertiesVector requiredProperty = reqdProperties[childIndex];
@@ -396,6 +430,11 @@ public class EnforceStructuralPropertiesRule implements IAlgebraicRewriteRule {
                 preSortedDistinct.setDistinctByColumns(d.getDistinctByVarList());
                 break;
             }
+            case EXTERNAL_DISTINCT_BY: {
+                DistinctOperator d = (DistinctOperator) op;
+                ((AbstractDistinctByPOperator) pOp).setDistinctByColumns(d.getDistinctByVarList());
+                break;
+            }
             default:
         }
     }
@@ -642,8 +681,9 @@ public class EnforceStructuralPropertiesRule implements IAlgebraicRewriteRule {
         List<LogicalVariable> vars = new ArrayList<>(((UnorderedPartitionedProperty) rqdPartitioning).getColumnSet());
         String hashMergeHint = (String) ctx.getMetadataProvider().getConfig().get(HASH_MERGE);
         if (hashMergeHint == null || !hashMergeHint.equalsIgnoreCase(TRUE_CONSTANT)) {
-            hashConnector = new HashPartitionExchangePOperator(vars, domain);
-            return hashConnector;
+            HashPartitionExchangePOperator hashExchange = new HashPartitionExchangePOperator(vars, domain);
+            hashExchange.setLocalDedup(canDedupBeforeExchange(ctx, parentOp, vars));
+            return hashExchange;
         }
         List<ILocalStructuralProperty> cldLocals = deliveredByChild.getLocalProperties();
         List<ILocalStructuralProperty> reqdLocals = requiredAtChild.getLocalProperties();
@@ -665,6 +705,22 @@ public class EnforceStructuralPropertiesRule implements IAlgebraicRewriteRule {
         return hashConnector;
     }
 
+    /**
+     * Duplicates can be dropped before a hash exchange when the operator above it eliminates the duplicates on
+     * exactly the hash partitioning variables.
+     */
+    private static boolean canDedupBeforeExchange(IOptimizationContext ctx, ILogicalOperator parentOp,
+            List<LogicalVariable> hashVars) {
+        if (!ctx.getPhysicalOptimizationConfig().isDistinctDedup()
+                || parentOp.getOperatorTag() != LogicalOperatorTag.DISTINCT) {
+            return false;
+        }
+        DistinctOperator distinct = (DistinctOperator) parentOp;
+        List<LogicalVariable> distinctVars = distinct.getDistinctByVarList();
+        return distinctVars.size() == distinct.getExpressions().size()
+                && new HashSet<>(distinctVars).equals(new HashSet<>(hashVars));
+    }
+
     /**
      * Creates a range-based exchange operator.
      * @param parentOp the operator requiring range-based partitioner to have input tuples repartitioned using a range
@@ -725,7 +781,8 @@ public class EnforceStructuralPropertiesRule implements IAlgebraicRewriteRule {
         // #3. create the forward operator
         String rangeMapKey = UUID.randomUUID().toString();
         LogicalVariable rangeMapVar = rangeMapResultVar.get(0);
-        ForwardOperator forward = createForward(rangeMapKey, rangeMapVar, exchToForwardRef, globalAgg, ctx, srcLoc);
+        ForwardOperator forward = createForward(rangeMapKey, rangeMapVar, exchToForwardRef, globalAgg,
+                new SortForwardPOperator(), ctx, srcLoc);
         MutableObject<ILogicalOperator> forwardRef = new MutableObject<>(forward);
 
         // replace the old input of parentOp requiring the range partitioning with the new forward op
@@ -735,6 +792,157 @@ public class EnforceStructuralPropertiesRule implements IAlgebraicRewriteRule {
         return new RangePartitionExchangePOperator(partitioningColumns, rangeMapKey, targetDomain);
     }
 
+    private boolean isSkewAwareHashJoin(AbstractLogicalOperator op, IPhysicalPropertiesVector[] reqdProperties,
+            boolean nestedPlan, IOptimizationContext context) {
+        if (nestedPlan || localHeavyHittersFun == null || heavyHitterMapFun == null
+                || !context.getPhysicalOptimizationConfig().isJoinSkew()
+                || op.getExecutionMode() != AbstractLogicalOperator.ExecutionMode.PARTITIONED) {
+            return false;
+        }
+        if (op.getOperatorTag() != LogicalOperatorTag.INNERJOIN
+                && op.getOperatorTag() != LogicalOperatorTag.LEFTOUTERJOIN) {
+            return false;
+        }
+        PhysicalOperatorTag physicalTag = op.getPhysicalOperator().getOperatorTag();
+        if ((physicalTag != PhysicalOperatorTag.HYBRID_HASH_JOIN
+                && physicalTag != PhysicalOperatorTag.IN_MEMORY_HASH_JOIN)
+                || ((AbstractHashJoinPOperator) op.getPhysicalOperator())
+                        .getPartitioningType() != JoinPartitioningType.PAIRWISE) {
+            return false;
+        }
+        // both inputs must be hash partitioned by an exchange. Otherwise, the cheaper plan is to only repartition one
+        for (int i = 0; i < op.getInputs().size(); i++) {
+            IPartitioningProperty reqdPartitioning = reqdProperties[i].getPartitioningProperty();
+            List<ILocalStructuralProperty> reqdLocals = reqdProperties[i].getLocalProperties();
+            if (reqdPartitioning == null || reqdPartitioning.getNodeDomain() == null
+                    || reqdPartitioning.getNodeDomain().cardinality() == null
+                    || reqdPartitioning.getPartitioningType() != PartitioningType.UNORDERED_PARTITIONED
+                    || (reqdLocals != null && !reqdLocals.isEmpty())) {
+                return false;
+            }
+            AbstractLogicalOperator child = (AbstractLogicalOperator) op.getInputs().get(i).getValue();
+            IPhysicalPropertiesVector rqd =
+                    new StructuralPropertiesVector(reqdPartitioning.clonePartitioningProperty(), null);
+            if (child.getDeliveredPhysicalProperties().getUnsatisfiedPropertiesFrom(rqd, true,
+                    context.getEquivalenceClassMap(child), context.getFDList(child)) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Partitions the inputs of a pairwise hash join on the join keys while spreading the tuples of the keys found to be
+     * skewed at run time over several partitions. The probe (left) input is counted by the heavy hitter aggregates.
+     * A probe tuple of a skewed key is sent to one of the key's partitions and a build tuple to all of them:
+     * <pre>
+     *                                      join
+     *                        /                                \
+     *     skew-aware hash exchange (split)      skew-aware hash exchange (replicate)
+     *                       |                                  |
+     *                    forward                            forward
+     *                   /       \                          /        \
+     *                 1:1    broadcast             right input    broadcast
+     *                  |           \___________________________/
+     *                  |                           |
+     *                  |                       replicate
+     *                  |                           |
+     *                  |           global agg [heavy-hitter-map($s)]
+     *                  |                           |
+     *                  |                      random merge
+     *                  |                           |
+     *                  |          local agg [$s = local-heavy-hitters(keys)]
+     *                  |                           |
+     *                  |                          1:1
+     *                   \_________________________/
+     *                                 |
+     *                   replicate (output 0 materialized)
+     *                                 |
+     *                            left input
+     * </pre>
+     */
+    private void addSkewAwareHashJoinEnforcers(AbstractLogicalOperator join, INodeDomain domain,
+            IOptimizationContext ctx) throws AlgebricksException {
+        SourceLocation srcLoc = join.getSourceLocation();
+        AbstractHashJoinPOperator joinPOp = (AbstractHashJoinPOperator) join.getPhysicalOperator();
+        // #1. replicate the probe input to count its keys. The data is materialized until the counting is done
+        ReplicateOperator replicateOp = createReplicateOperator(join.getInputs().get(0), ctx, srcLoc);
+        MutableObject<ILogicalOperator> replicateOpRef = new MutableObject<>(replicateOp);
+        MutableObject<ILogicalOperator> exchToForwardRef =
+                new MutableObject<>(createOneToOneExchangeOp(replicateOpRef, ctx));
+        MutableObject<ILogicalOperator> exchToLocalAggRef =
+                new MutableObject<>(createOneToOneExchangeOp(replicateOpRef, ctx));
+        replicateOp.getOutputs().add(exchToForwardRef);
+        replicateOp.getOutputs().add(exchToLocalAggRef);
+        replicateOp.getOutputMaterializationFlags()[0] = true;
+
+        // #2. count the keys of each partition and merge the counts into the heavy hitter map
+        IFunctionInfo localFun = ctx.getMetadataProvider().lookupFunction(localHeavyHittersFun);
+        IFunctionInfo globalFun = ctx.getMetadataProvider().lookupFunction(heavyHitterMapFun);
+        List<Mutable<ILogicalExpression>> keys = new ArrayList<>(joinPOp.getKeysLeftBranch().size());
+        for (LogicalVariable key : joinPOp.getKeysLeftBranch()) {
+            keys.add(new MutableObject<>(new VariableReferenceExpression(key, srcLoc)));
+        }
+        AggregateFunctionCallExpression localExpr = new AggregateFunctionCallExpression(localFun, false, keys);
+        localExpr.setSourceLocation(srcLoc);
+        localExpr.setOpaqueParameters(new Object[] { HEAVY_HITTER_SKETCH_CAPACITY, HEAVY_HITTER_SAMPLE_RATE });
+        LogicalVariable sketchVar = ctx.newVar();
+        List<LogicalVariable> localVars = new ArrayList<>(Collections.singletonList(sketchVar));
+        List<Mutable<ILogicalExpression>> localFuns = new ArrayList<>(1);
+        localFuns.add(new MutableObject<>(localExpr));
+        AggregateOperator localAggOp = createAggregate(localVars, false, localFuns, exchToLocalAggRef, ctx, srcLoc);
+        MutableObject<ILogicalOperator> exchToGlobalAggRef = new MutableObject<>(
+                createExchangeOp(new RandomMergeExchangePOperator(), new MutableObject<>(localAggOp), ctx));
+
+        List<Mutable<ILogicalExpression>> sketchArg = new ArrayList<>(1);
+        sketchArg.add(new MutableObject<>(new VariableReferenceExpression(sketchVar, srcLoc)));
+        AggregateFunctionCallExpression globalExpr = new AggregateFunctionCallExpression(globalFun, true, sketchArg);
+        globalExpr.setStepOneAggregate(localFun);
+        globalExpr.setStepTwoAggregate(globalFun);
+        globalExpr.setSourceLocation(srcLoc);
+        globalExpr.setOpaqueParameters(
+                new Object[] { domain.cardinality(), HEAVY_HITTER_THRESHOLD, HEAVY_HITTER_SKETCH_CAPACITY });
+        LogicalVariable mapVar = ctx.newVar();
+        List<LogicalVariable> globalVars = new ArrayList<>(Collections.singletonList(mapVar));
+        List<Mutable<ILogicalExpression>> globalFuns = new ArrayList<>(1);
+        globalFuns.add(new MutableObject<>(globalExpr));
+        AggregateOperator globalAggOp = createAggregate(globalVars, true, globalFuns, exchToGlobalAggRef, ctx, srcLoc);
+
+        // #3. broadcast the heavy hitter map to the forward operators of both inputs
+        ReplicateOperator mapReplicateOp = createReplicateOperator(new MutableObject<>(globalAggOp), ctx, srcLoc);
+        MutableObject<ILogicalOperator> mapReplicateOpRef = new MutableObject<>(mapReplicateOp);
+        MutableObject<ILogicalOperator> leftMapRef = new MutableObject<>(
+                createExchangeOp(new BroadcastExchangePOperator(domain), mapReplicateOpRef, ctx));
+        MutableObject<ILogicalOperator> rightMapRef = new MutableObject<>(
+                createExchangeOp(new BroadcastExchangePOperator(domain), mapReplicateOpRef, ctx));
+        mapReplicateOp.getOutputs().add(leftMapRef);
+        mapReplicateOp.getOutputs().add(rightMapRef);
+
+        // #4. create the forward operators and the skew-aware exchanges on top of them
+        String mapKey = UUID.randomUUID().toString();
+        ForwardOperator leftForward = createForward(mapKey, mapVar, exchToForwardRef, leftMapRef,
+                new HashSkewForwardPOperator(), ctx, srcLoc);
+        ForwardOperator rightForward = createForward(mapKey, mapVar, join.getInputs().get(1), rightMapRef,
+                new HashSkewForwardPOperator(), ctx, srcLoc);
+        addSkewAwareHashExchange(join, 0, leftForward,
+                new SkewAwareHashPartitionExchangePOperator(joinPOp.getKeysLeftBranch(), mapKey, false, domain), ctx);
+        addSkewAwareHashExchange(join, 1, rightForward,
+                new SkewAwareHashPartitionExchangePOperator(joinPOp.getKeysRightBranch(), mapKey, true, domain), ctx);
+        join.recomputeSchema();
+        ctx.computeAndSetTypeEnvironmentForOperator(join);
+        if (AlgebricksConfig.ALGEBRICKS_LOGGER.isTraceEnabled()) {
+            AlgebricksConfig.ALGEBRICKS_LOGGER.trace(">>>> Added skew-aware hash join enforcers.\n");
+            printOp(join, ctx);
+        }
+    }
+
+    private static void addSkewAwareHashExchange(AbstractLogicalOperator join, int childIndex, ForwardOperator forward,
+            SkewAwareHashPartitionExchangePOperator exchangePOp, IOptimizationContext ctx) throws AlgebricksException {
+        ExchangeOperator exchg = createExchangeOp(exchangePOp, new MutableObject<>(forward), ctx);
+        join.getInputs().set(childIndex, new MutableObject<>(exchg));
+        OperatorPropertiesUtil.computeSchemaAndPropertiesRecIfNull(exchg, ctx);
+    }
+
     private static ReplicateOperator createReplicateOperator(Mutable<ILogicalOperator> inputOperator,
             IOptimizationContext context, SourceLocation sourceLocation) throws AlgebricksException {
         ReplicateOperator replicateOperator = new ReplicateOperator(2);
@@ -842,8 +1050,13 @@ public class EnforceStructuralPropertiesRule implements IAlgebraicRewriteRule {
 
     private static ExchangeOperator createOneToOneExchangeOp(MutableObject<ILogicalOperator> inputOperator,
             IOptimizationContext context) throws AlgebricksException {
+        return createExchangeOp(new OneToOneExchangePOperator(), inputOperator, context);
+    }
+
+    private static ExchangeOperator createExchangeOp(IPhysicalOperator exchangePOp,
+            MutableObject<ILogicalOperator> inputOperator, IOptimizationContext context) throws AlgebricksException {
         ExchangeOperator exchangeOperator = new ExchangeOperator();
-        exchangeOperator.setPhysicalOperator(new OneToOneExchangePOperator());
+        exchangeOperator.setPhysicalOperator(exchangePOp);
         exchangeOperator.getInputs().add(inputOperator);
         exchangeOperator.setExecutionMode(AbstractLogicalOperator.ExecutionMode.PARTITIONED);
         exchangeOperator.recomputeSchema();
@@ -852,12 +1065,13 @@ public class EnforceStructuralPropertiesRule implements IAlgebraicRewriteRule {
     }
 
     private static ForwardOperator createForward(String rangeMapKey, LogicalVariable rangeMapVariable,
-            MutableObject<ILogicalOperator> exchangeOpFromReplicate, MutableObject<ILogicalOperator> globalAggInput,
-            IOptimizationContext context, SourceLocation sourceLoc) throws AlgebricksException {
+            Mutable<ILogicalOperator> exchangeOpFromReplicate, MutableObject<ILogicalOperator> globalAggInput,
+            AbstractForwardPOperator forwardPOp, IOptimizationContext context, SourceLocation sourceLoc)
+            throws AlgebricksException {
         AbstractLogicalExpression rangeMapExpression = new VariableReferenceExpression(rangeMapVariable, sourceLoc);
         ForwardOperator forwardOperator = new ForwardOperator(rangeMapKey, new MutableObject<>(rangeMapExpression));
         forwardOperator.setSourceLocation(sourceLoc);
-        forwardOperator.setPhysicalOperator(new SortForwardPOperator());
+        forwardOperator.setPhysicalOperator(forwardPOp);
         forwardOperator.getInputs().add(exchangeOpFromReplicate);
         forwardOperator.getInputs().add(globalAggInput);
         OperatorManipulationUtil.setOperatorMode(forwardOperator);
@@ -87,6 +87,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.physical.BulkloadPOp
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.DataSourceScanPOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.DistributeResultPOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.EmptyTupleSourcePOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.ExternalDistinctByPOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.ExternalGroupByPOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.IndexBulkloadPOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.IndexInsertDeleteUpsertPOperator;
@@ -196,7 +197,9 @@ public class SetAlgebricksPhysicalOperatorsRule implements IAlgebraicRewriteRule
 
         @Override
         public IPhysicalOperator visitDistinctOperator(DistinctOperator distinct, Boolean topLevelOp) {
-            if (topLevelOp) {
+            if (topLevelOp && physConfig.isHashDistinct()) {
+                return new ExternalDistinctByPOperator(distinct.getDistinctByVarList());
+            } else if (topLevelOp) {
                 return new PreSortedDistinctByPOperator(distinct.getDistinctByVarList());
             } else {
                 return new MicroPreSortedDistinctByPOperator(distinct.getDistinctByVarList());
@@ -482,7 +485,7 @@ public class SetAlgebricksPhysicalOperatorsRule implements IAlgebraicRewriteRule
         }
 
         protected AbstractWindowPOperator createWindowPOperator(WindowOperator op) throws AlgebricksException {
-            return new WindowPOperator(op.getPartitionVarList(), op.getOrderColumnList(), false, false, false);
+            return new WindowPOperator(op.getPartitionVarList(), op.getOrderColumnList(), false, false, false, false);
         }
 
         // Physical operators for these operators must have been set already by rules that introduced them
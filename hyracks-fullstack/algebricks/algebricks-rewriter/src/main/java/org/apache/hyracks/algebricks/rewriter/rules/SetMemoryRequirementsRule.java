@@ -66,6 +66,11 @@ import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnnestOperat
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.WindowOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.WriteOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.WriteResultOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.visitors.LogicalPropertiesVisitor;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.ExternalGroupByPOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.InMemoryHashJoinPOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.StableSortPOperator;
+import org.apache.hyracks.algebricks.core.algebra.properties.ILogicalPropertiesVector;
 import org.apache.hyracks.algebricks.core.algebra.properties.LocalMemoryRequirements;
 import org.apache.hyracks.algebricks.core.algebra.visitors.ILogicalOperatorVisitor;
 import org.apache.hyracks.algebricks.core.rewriter.base.IAlgebraicRewriteRule;
@@ -80,6 +85,10 @@ import org.apache.hyracks.api.exceptions.ErrorCode;
  *     that operator</li>
  * <li>Then increase memory requirements for certain operators as specified by {@link PhysicalOptimizationConfig}</li>
  * </ol>
+ * If {@link PhysicalOptimizationConfig#isMemoryEstimates()} is enabled and the size of the input that an operator
+ * needs to keep in memory can be estimated, the operator only gets the memory needed to hold that input
+ * (but never more than the configured maximum). This tightens the job's required capacity so that more jobs can be
+ * admitted concurrently.
  */
 public class SetMemoryRequirementsRule implements IAlgebraicRewriteRule {
 
@@ -156,24 +165,61 @@ public class SetMemoryRequirementsRule implements IAlgebraicRewriteRule {
             memoryReqs.setMemoryBudgetInFrames(memBudgetInFrames);
         }
 
+        /**
+         * Computes the memory budget for an operator whose memory needs grow with the size of one of its inputs.
+         *
+         * @param op the operator
+         * @param inputIndex the input that the operator keeps in memory
+         * @param maxBudgetInFrames the configured memory budget for the operator
+         * @param fudgeFactor the expected overhead of the operator's in-memory data structures
+         * @return the configured budget or, if memory estimates are enabled and the input size is known, the budget
+         *         needed to hold the input in memory, whichever is smaller
+         */
+        protected int getEstimatedMemoryBudget(AbstractLogicalOperator op, int inputIndex, int maxBudgetInFrames,
+                double fudgeFactor) throws AlgebricksException {
+            if (!physConfig.isMemoryEstimates() || op.getInputs().size() <= inputIndex) {
+                return maxBudgetInFrames;
+            }
+            ILogicalOperator input = op.getInputs().get(inputIndex).getValue();
+            LogicalPropertiesVisitor.computeLogicalPropertiesDFS(input, context);
+            ILogicalPropertiesVector v = context.getLogicalPropertiesVector(input);
+            if (v == null || v.getMaxOutputFrames() == null || v.getMaxOutputFrames() <= 0) {
+                return maxBudgetInFrames;
+            }
+            int minBudgetInFrames =
+                    op.getPhysicalOperator().getLocalMemoryRequirements().getMinMemoryBudgetInFrames();
+            long estimatedFrames = (long) Math.ceil(v.getMaxOutputFrames() * fudgeFactor) + minBudgetInFrames;
+            return (int) Math.min(maxBudgetInFrames, estimatedFrames);
+        }
+
         // variable memory operators
 
         @Override
         public Void visitOrderOperator(OrderOperator op, Void arg) throws AlgebricksException {
-            setOperatorMemoryBudget(op, physConfig.getMaxFramesExternalSort());
+            setOperatorMemoryBudget(op, getEstimatedMemoryBudget(op, 0, physConfig.getMaxFramesExternalSort(), 1));
+            if (op.getPhysicalOperator().getOperatorTag() == PhysicalOperatorTag.STABLE_SORT) {
+                ((StableSortPOperator) op.getPhysicalOperator()).setSortThreads(physConfig.getSortThreads());
+            }
             return null;
         }
 
         @Override
         public Void visitGroupByOperator(GroupByOperator op, Void arg) throws AlgebricksException {
-            setOperatorMemoryBudget(op, physConfig.getMaxFramesForGroupBy());
+            setOperatorMemoryBudget(op,
+                    getEstimatedMemoryBudget(op, 0, physConfig.getMaxFramesForGroupBy(), physConfig.getFudgeFactor()));
+            if (op.getPhysicalOperator().getOperatorTag() == PhysicalOperatorTag.EXTERNAL_GROUP_BY) {
+                ExternalGroupByPOperator physOp = (ExternalGroupByPOperator) op.getPhysicalOperator();
+                physOp.setOpenAddressing(physConfig.isOpenAddressing());
+                physOp.setPassThrough(physConfig.getGroupByPassThroughFrames(),
+                        physConfig.getGroupByPassThroughRatio());
+            }
             return null;
         }
 
         @Override
         public Void visitWindowOperator(WindowOperator op, Void arg) throws AlgebricksException {
             if (op.getPhysicalOperator().getOperatorTag() == PhysicalOperatorTag.WINDOW) {
-                setOperatorMemoryBudget(op, physConfig.getMaxFramesForWindow());
+                setOperatorMemoryBudget(op, getEstimatedMemoryBudget(op, 0, physConfig.getMaxFramesForWindow(), 1));
             }
             return null;
         }
@@ -189,7 +235,12 @@ public class SetMemoryRequirementsRule implements IAlgebraicRewriteRule {
         }
 
         protected Void visitJoinOperator(AbstractBinaryJoinOperator op, Void arg) throws AlgebricksException {
-            setOperatorMemoryBudget(op, physConfig.getMaxFramesForJoin());
+            // the build side is the right input, see JoinUtils
+            setOperatorMemoryBudget(op,
+                    getEstimatedMemoryBudget(op, 1, physConfig.getMaxFramesForJoin(), physConfig.getFudgeFactor()));
+            if (op.getPhysicalOperator().getOperatorTag() == PhysicalOperatorTag.IN_MEMORY_HASH_JOIN) {
+                ((InMemoryHashJoinPOperator) op.getPhysicalOperator()).setOpenAddressing(physConfig.isOpenAddressing());
+            }
             return null;
         }
 
@@ -318,6 +369,10 @@ public class SetMemoryRequirementsRule implements IAlgebraicRewriteRule {
 
         @Override
         public Void visitDistinctOperator(DistinctOperator op, Void arg) throws AlgebricksException {
+            if (op.getPhysicalOperator().getOperatorTag() == PhysicalOperatorTag.EXTERNAL_DISTINCT_BY) {
+                setOperatorMemoryBudget(op, getEstimatedMemoryBudget(op, 0, physConfig.getMaxFramesForGroupBy(),
+                        physConfig.getFudgeFactor()));
+            }
             return null;
         }
 
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.base;
+
+import org.apache.hyracks.algebricks.runtime.evaluators.SelectionVector;
+import org.apache.hyracks.algebricks.runtime.evaluators.ValueVector;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Evaluates a scalar expression over a whole frame at a time instead of once per tuple.
+ */
+public interface IBatchScalarEvaluator {
+    /**
+     * Evaluates the expression for the selected tuples of a frame.
+     *
+     * @param accessor the accessor of the frame, already reset to it
+     * @param selection the indexes of the tuples of the frame to evaluate the expression for
+     * @param result reset by the evaluator, then receives the value of tuple t at position t. Positions of the
+     *            tuples that are not selected are left undefined.
+     */
+    public void evaluate(IFrameTupleAccessor accessor, SelectionVector selection, ValueVector result)
+            throws HyracksDataException;
+}
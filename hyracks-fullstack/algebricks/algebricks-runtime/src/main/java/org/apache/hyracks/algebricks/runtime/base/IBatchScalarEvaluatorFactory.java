@@ -0,0 +1,30 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.base;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * An evaluator factory that can also create frame-at-a-time evaluators. Implementing this interface is optional,
+ * runtimes use {@link org.apache.hyracks.algebricks.runtime.evaluators.BatchScalarEvaluators} to fall back to
+ * the tuple-at-a-time evaluator for the factories that do not.
+ */
+public interface IBatchScalarEvaluatorFactory extends IScalarEvaluatorFactory {
+    public IBatchScalarEvaluator createBatchScalarEvaluator(IEvaluatorContext ctx) throws HyracksDataException;
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.base;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+
+/**
+ * An aggregate evaluator that can also take values out of its aggregate. Window operators use it to slide
+ * a window frame by adding the tuples that enter the frame and removing the ones that leave it,
+ * instead of computing the aggregate over the whole frame for each row.
+ */
+public interface IInvertibleAggregateEvaluator extends IAggregateEvaluator {
+    /**
+     * Called once after the evaluator is created if {@link #remove(IFrameTupleReference)} is going to be used,
+     * so that the evaluator can keep the additional state it needs to remove values.
+     */
+    void enableRemove();
+
+    /**
+     * Removes the value of the given tuple from the aggregate. Values are removed in the same order
+     * in which they were added by {@link #step(IFrameTupleReference)}.
+     *
+     * @return {@code false} if the aggregate could not be updated. The aggregate must then be computed again from
+     * the values that remain after the removal.
+     */
+    boolean remove(IFrameTupleReference tuple) throws HyracksDataException;
+}
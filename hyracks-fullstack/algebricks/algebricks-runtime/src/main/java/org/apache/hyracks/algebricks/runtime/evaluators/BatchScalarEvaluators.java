@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.evaluators;
+
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
+
+public class BatchScalarEvaluators {
+
+    private BatchScalarEvaluators() {
+    }
+
+    public static boolean isBatchable(IScalarEvaluatorFactory factory) {
+        return factory instanceof IBatchScalarEvaluatorFactory;
+    }
+
+    /**
+     * Creates a frame-at-a-time evaluator for any evaluator factory. Factories that do not support batch evaluation
+     * get an evaluator that calls their tuple-at-a-time evaluator for every selected tuple and copies its results.
+     */
+    public static IBatchScalarEvaluator create(IScalarEvaluatorFactory factory, IEvaluatorContext ctx)
+            throws HyracksDataException {
+        if (isBatchable(factory)) {
+            return ((IBatchScalarEvaluatorFactory) factory).createBatchScalarEvaluator(ctx);
+        }
+        return new TupleAtATimeEvaluator(factory.createScalarEvaluator(ctx));
+    }
+
+    private static class TupleAtATimeEvaluator implements IBatchScalarEvaluator {
+        private final IScalarEvaluator eval;
+        private final FrameTupleReference tRef = new FrameTupleReference();
+        private final IPointable value = VoidPointable.FACTORY.createPointable();
+
+        private TupleAtATimeEvaluator(IScalarEvaluator eval) {
+            this.eval = eval;
+        }
+
+        @Override
+        public void evaluate(IFrameTupleAccessor accessor, SelectionVector selection, ValueVector result)
+                throws HyracksDataException {
+            result.reset(accessor.getTupleCount());
+            for (int i = 0, size = selection.size(); i < size; i++) {
+                int t = selection.get(i);
+                tRef.reset(accessor, t);
+                eval.evaluate(tRef, value);
+                // the evaluator may reuse its result storage for the next tuple
+                result.set(t, value);
+            }
+        }
+    }
+}
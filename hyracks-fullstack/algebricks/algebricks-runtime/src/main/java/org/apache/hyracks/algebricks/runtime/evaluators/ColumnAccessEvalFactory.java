@@ -18,14 +18,16 @@
  */
 package org.apache.hyracks.algebricks.runtime.evaluators;
 
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluatorFactory;
 import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
-import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.api.IPointable;
 import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
 
-public class ColumnAccessEvalFactory implements IScalarEvaluatorFactory {
+public class ColumnAccessEvalFactory implements IBatchScalarEvaluatorFactory {
 
     private static final long serialVersionUID = 1L;
 
@@ -54,4 +56,23 @@ public class ColumnAccessEvalFactory implements IScalarEvaluatorFactory {
         };
     }
 
+    @Override
+    public IBatchScalarEvaluator createBatchScalarEvaluator(IEvaluatorContext ctx) throws HyracksDataException {
+        return new IBatchScalarEvaluator() {
+
+            @Override
+            public void evaluate(IFrameTupleAccessor accessor, SelectionVector selection, ValueVector result)
+                    throws HyracksDataException {
+                result.reset(accessor.getTupleCount());
+                byte[] buffer = accessor.getBuffer().array();
+                int fieldSlotsLength = accessor.getFieldSlotsLength();
+                for (int i = 0, size = selection.size(); i < size; i++) {
+                    int t = selection.get(i);
+                    int start = accessor.getTupleStartOffset(t) + fieldSlotsLength
+                            + accessor.getFieldStartOffset(t, fieldIndex);
+                    result.setReference(t, buffer, start, accessor.getFieldLength(t, fieldIndex));
+                }
+            }
+        };
+    }
 }
@@ -18,14 +18,16 @@
  */
 package org.apache.hyracks.algebricks.runtime.evaluators;
 
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluatorFactory;
 import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
-import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.api.IPointable;
 import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
 
-public class ConstantEvalFactory implements IScalarEvaluatorFactory {
+public class ConstantEvalFactory implements IBatchScalarEvaluatorFactory {
     private static final long serialVersionUID = 1L;
 
     private byte[] value;
@@ -54,4 +56,18 @@ public class ConstantEvalFactory implements IScalarEvaluatorFactory {
         };
     }
 
+    @Override
+    public IBatchScalarEvaluator createBatchScalarEvaluator(IEvaluatorContext ctx) throws HyracksDataException {
+        return new IBatchScalarEvaluator() {
+
+            @Override
+            public void evaluate(IFrameTupleAccessor accessor, SelectionVector selection, ValueVector result)
+                    throws HyracksDataException {
+                result.reset(accessor.getTupleCount());
+                for (int i = 0, size = selection.size(); i < size; i++) {
+                    result.setReference(selection.get(i), value, 0, value.length);
+                }
+            }
+        };
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.evaluators;
+
+import java.util.Arrays;
+
+/**
+ * The indexes of the tuples of a frame that an {@link org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator}
+ * needs to evaluate its expression for, in ascending order.
+ */
+public class SelectionVector {
+    private int[] tuples = new int[ValueVector.INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Selects all the tuples of a frame.
+     *
+     * @param tupleCount the number of tuples in the frame
+     */
+    public void selectAll(int tupleCount) {
+        ensureCapacity(tupleCount);
+        for (int i = 0; i < tupleCount; i++) {
+            tuples[i] = i;
+        }
+        size = tupleCount;
+    }
+
+    public void reset() {
+        size = 0;
+    }
+
+    public void add(int tupleIndex) {
+        ensureCapacity(size + 1);
+        tuples[size++] = tupleIndex;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(int i) {
+        return tuples[i];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (tuples.length < capacity) {
+            tuples = Arrays.copyOf(tuples, Math.max(capacity, tuples.length * 2));
+        }
+    }
+}
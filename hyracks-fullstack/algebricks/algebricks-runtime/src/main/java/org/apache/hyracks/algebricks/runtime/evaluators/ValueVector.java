@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.evaluators;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.util.GrowableArray;
+
+/**
+ * The column-like output of an {@link org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator}: one
+ * serialized value per tuple of the frame, indexed by the tuple index. A value either references bytes that outlive
+ * the evaluation of the frame (the frame itself or a constant), in which case nothing is copied, or it is copied into
+ * the storage owned by the vector.
+ */
+public class ValueVector {
+    static final int INITIAL_CAPACITY = 64;
+
+    private final GrowableArray storage = new GrowableArray();
+    // null means that the value is in the storage of the vector, which might be reallocated while it grows
+    private byte[][] arrays = new byte[INITIAL_CAPACITY][];
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int valueStart = -1;
+
+    /**
+     * Prepares the vector for the values of a new frame.
+     *
+     * @param tupleCount the number of tuples in the frame
+     */
+    public void reset(int tupleCount) {
+        if (arrays.length < tupleCount) {
+            int capacity = Math.max(tupleCount, arrays.length * 2);
+            arrays = new byte[capacity][];
+            starts = new int[capacity];
+            lengths = new int[capacity];
+        } else {
+            Arrays.fill(arrays, 0, tupleCount, null);
+        }
+        storage.reset();
+        valueStart = -1;
+    }
+
+    /**
+     * Sets the value of a tuple to bytes that stay valid until the next frame, without copying them.
+     */
+    public void setReference(int tupleIndex, byte[] bytes, int start, int length) {
+        arrays[tupleIndex] = bytes;
+        starts[tupleIndex] = start;
+        lengths[tupleIndex] = length;
+    }
+
+    /**
+     * Sets the value of a tuple to a copy of the given bytes.
+     */
+    public void set(int tupleIndex, byte[] bytes, int start, int length) throws HyracksDataException {
+        try {
+            DataOutput out = beginValue();
+            out.write(bytes, start, length);
+            endValue(tupleIndex);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    public void set(int tupleIndex, IValueReference value) throws HyracksDataException {
+        set(tupleIndex, value.getByteArray(), value.getStartOffset(), value.getLength());
+    }
+
+    /**
+     * Starts serializing the value of a tuple directly into the storage of the vector. The value is assigned to its
+     * tuple by {@link #endValue(int)}.
+     *
+     * @return the output to serialize the value to
+     */
+    public DataOutput beginValue() {
+        valueStart = storage.getLength();
+        return storage.getDataOutput();
+    }
+
+    public void endValue(int tupleIndex) {
+        arrays[tupleIndex] = null;
+        starts[tupleIndex] = valueStart;
+        lengths[tupleIndex] = storage.getLength() - valueStart;
+        valueStart = -1;
+    }
+
+    /**
+     * @return whether the value of the tuple references bytes outside of the storage of the vector
+     */
+    public boolean isReference(int tupleIndex) {
+        return arrays[tupleIndex] != null;
+    }
+
+    public void get(int tupleIndex, IPointable value) {
+        value.set(getByteArray(tupleIndex), starts[tupleIndex], lengths[tupleIndex]);
+    }
+
+    public byte[] getByteArray(int tupleIndex) {
+        byte[] bytes = arrays[tupleIndex];
+        return bytes != null ? bytes : storage.getByteArray();
+    }
+
+    public int getStartOffset(int tupleIndex) {
+        return starts[tupleIndex];
+    }
+
+    public int getLength(int tupleIndex) {
+        return lengths[tupleIndex];
+    }
+}
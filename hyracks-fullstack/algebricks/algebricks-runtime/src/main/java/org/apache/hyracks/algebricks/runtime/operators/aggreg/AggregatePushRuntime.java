@@ -24,6 +24,7 @@ import java.nio.ByteBuffer;
 import org.apache.hyracks.algebricks.runtime.base.IAggregateEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IAggregateEvaluatorFactory;
 import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IInvertibleAggregateEvaluator;
 import org.apache.hyracks.algebricks.runtime.evaluators.EvaluatorContext;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputOneFramePushRuntime;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
@@ -50,6 +51,12 @@ public class AggregatePushRuntime extends AbstractOneInputOneOutputOneFramePushR
 
     private boolean first;
 
+    private boolean removeEnabled;
+
+    private boolean removeMode;
+
+    private boolean removeFailed;
+
     AggregatePushRuntime(IAggregateEvaluatorFactory[] aggFactories, IHyracksTaskContext ctx) {
         this.aggFactories = aggFactories;
         this.ctx = new EvaluatorContext(ctx);
@@ -66,11 +73,19 @@ public class AggregatePushRuntime extends AbstractOneInputOneOutputOneFramePushR
             initAccessAppendRef(ctx.getTaskContext());
             for (int i = 0; i < aggFactories.length; i++) {
                 aggEvals[i] = aggFactories[i].createAggregateEvaluator(ctx);
+                if (removeEnabled) {
+                    if (!(aggEvals[i] instanceof IInvertibleAggregateEvaluator)) {
+                        throw new IllegalStateException("aggregate does not support removal: " + aggFactories[i]);
+                    }
+                    ((IInvertibleAggregateEvaluator) aggEvals[i]).enableRemove();
+                }
             }
         }
         for (int i = 0; i < aggFactories.length; i++) {
             aggEvals[i].init();
         }
+        removeMode = false;
+        removeFailed = false;
         super.open();
     }
 
@@ -104,9 +119,52 @@ public class AggregatePushRuntime extends AbstractOneInputOneOutputOneFramePushR
         appendToFrameFromTupleBuilder(tupleBuilder, flushFrame);
     }
 
+    /**
+     * Must be called before the first {@link #open()}. All aggregate evaluators must then implement
+     * {@link IInvertibleAggregateEvaluator}
+     */
+    public void setRemoveEnabled(boolean removeEnabled) {
+        this.removeEnabled = removeEnabled;
+    }
+
+    /**
+     * In remove mode incoming tuples are removed from the aggregates instead of being added to them
+     */
+    public void setRemoveMode(boolean removeMode) {
+        if (removeMode && !removeEnabled) {
+            throw new IllegalStateException();
+        }
+        this.removeMode = removeMode;
+    }
+
+    /**
+     * @return whether an aggregate failed to remove a tuple since the last {@link #open()},
+     * in which case the aggregates have to be computed again
+     */
+    public boolean isRemoveFailed() {
+        return removeFailed;
+    }
+
     private void processTuple(FrameTupleReference tupleRef) throws HyracksDataException {
+        if (removeMode) {
+            removeTuple(tupleRef);
+            return;
+        }
         for (IAggregateEvaluator aggEval : aggEvals) {
             aggEval.step(tupleRef);
         }
     }
+
+    private void removeTuple(FrameTupleReference tupleRef) throws HyracksDataException {
+        if (removeFailed) {
+            // the aggregates will be computed again
+            return;
+        }
+        for (IAggregateEvaluator aggEval : aggEvals) {
+            if (!((IInvertibleAggregateEvaluator) aggEval).remove(tupleRef)) {
+                removeFailed = true;
+                return;
+            }
+        }
+    }
 }
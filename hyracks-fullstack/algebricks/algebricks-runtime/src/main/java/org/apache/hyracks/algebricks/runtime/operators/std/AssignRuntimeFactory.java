@@ -21,10 +21,14 @@ package org.apache.hyracks.algebricks.runtime.operators.std;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchScalarEvaluators;
 import org.apache.hyracks.algebricks.runtime.evaluators.EvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.evaluators.SelectionVector;
+import org.apache.hyracks.algebricks.runtime.evaluators.ValueVector;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputOneFramePushRuntime;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputRuntimeFactory;
 import org.apache.hyracks.api.comm.IFrameTupleAccessor;
@@ -90,13 +94,22 @@ public class AssignRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
             throws HyracksDataException {
         IEvaluatorContext evalCtx = new EvaluatorContext(ctx);
         final int[] projectionToOutColumns = new int[projectionList.length];
+        final boolean[] projectedOutColumns = new boolean[outColumns.length];
         for (int j = 0; j < projectionList.length; j++) {
             projectionToOutColumns[j] = Arrays.binarySearch(outColumns, projectionList[j]);
+            if (projectionToOutColumns[j] >= 0) {
+                projectedOutColumns[projectionToOutColumns[j]] = true;
+            }
         }
 
         return new AbstractOneInputOneOutputOneFramePushRuntime() {
             private IPointable result = VoidPointable.FACTORY.createPointable();
             private IScalarEvaluator[] eval = new IScalarEvaluator[evalFactories.length];
+            // the expressions that can be evaluated a frame at a time get a batch evaluator instead of an evaluator
+            private IBatchScalarEvaluator[] batchEval = new IBatchScalarEvaluator[evalFactories.length];
+            private ValueVector[] batchResults = new ValueVector[evalFactories.length];
+            private final SelectionVector selection = new SelectionVector();
+            private boolean hasBatchEval = false;
             private ArrayTupleBuilder tupleBuilder = new ArrayTupleBuilder(projectionList.length);
             private boolean first = true;
             private int tupleIndex = 0;
@@ -108,7 +121,15 @@ public class AssignRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
                     first = false;
                     int n = evalFactories.length;
                     for (int i = 0; i < n; i++) {
-                        eval[i] = evalFactories[i].createScalarEvaluator(evalCtx);
+                        // batch evaluation evaluates all the tuples up front, so it is only used for the
+                        // expressions whose result is projected, like the tuple-at-a-time evaluation
+                        if (projectedOutColumns[i] && BatchScalarEvaluators.isBatchable(evalFactories[i])) {
+                            batchEval[i] = BatchScalarEvaluators.create(evalFactories[i], evalCtx);
+                            batchResults[i] = new ValueVector();
+                            hasBatchEval = true;
+                        } else {
+                            eval[i] = evalFactories[i].createScalarEvaluator(evalCtx);
+                        }
                     }
                 }
                 super.open();
@@ -152,13 +173,30 @@ public class AssignRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
                 tupleIndex = 0;
             }
 
+            private void evaluateBatch(int nTuple) throws HyracksDataException {
+                selection.selectAll(nTuple);
+                for (int k = 0; k < batchEval.length; k++) {
+                    if (batchEval[k] != null) {
+                        batchEval[k].evaluate(tAccess, selection, batchResults[k]);
+                    }
+                }
+            }
+
             private void produceTuple(ArrayTupleBuilder tb, IFrameTupleAccessor accessor, int tIndex,
                     FrameTupleReference tupleRef) throws HyracksDataException {
                 try {
+                    if (tIndex == 0 && hasBatchEval) {
+                        // the errors of the batch evaluation are reported like the ones of the first tuple
+                        evaluateBatch(accessor.getTupleCount());
+                    }
                     tb.reset();
                     for (int f = 0; f < projectionList.length; f++) {
                         int k = projectionToOutColumns[f];
-                        if (k >= 0) {
+                        if (k >= 0 && batchEval[k] != null) {
+                            ValueVector values = batchResults[k];
+                            tb.addField(values.getByteArray(tIndex), values.getStartOffset(tIndex),
+                                    values.getLength(tIndex));
+                        } else if (k >= 0) {
                             eval[k].evaluate(tupleRef, result);
                             tb.addField(result.getByteArray(), result.getStartOffset(), result.getLength());
                         } else {
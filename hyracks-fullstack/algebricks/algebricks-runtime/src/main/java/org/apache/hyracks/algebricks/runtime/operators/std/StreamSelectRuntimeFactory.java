@@ -23,10 +23,14 @@ import java.nio.ByteBuffer;
 
 import org.apache.hyracks.algebricks.data.IBinaryBooleanInspector;
 import org.apache.hyracks.algebricks.data.IBinaryBooleanInspectorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchScalarEvaluators;
 import org.apache.hyracks.algebricks.runtime.evaluators.EvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.evaluators.SelectionVector;
+import org.apache.hyracks.algebricks.runtime.evaluators.ValueVector;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputOneFieldFramePushRuntime;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputOneFramePushRuntime;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputRuntimeFactory;
@@ -106,6 +110,10 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
         protected final IEvaluatorContext ctx;
         protected final IBinaryBooleanInspector bbi;
         protected IScalarEvaluator eval;
+        // set instead of eval when the condition can be evaluated a frame at a time
+        protected IBatchScalarEvaluator batchEval;
+        protected SelectionVector selection;
+        protected ValueVector condValues;
         protected IMissingWriter missingWriter;
         protected ArrayTupleBuilder missingTupleBuilder;
 
@@ -116,9 +124,15 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
 
         @Override
         public void open() throws HyracksDataException {
-            if (eval == null) {
+            if (eval == null && batchEval == null) {
                 initAccessAppendFieldRef(ctx.getTaskContext());
-                eval = cond.createScalarEvaluator(ctx);
+                if (BatchScalarEvaluators.isBatchable(cond)) {
+                    batchEval = BatchScalarEvaluators.create(cond, ctx);
+                    selection = new SelectionVector();
+                    condValues = new ValueVector();
+                } else {
+                    eval = cond.createScalarEvaluator(ctx);
+                }
             }
             super.open();
             if (retainMissing && missingWriter == null) {
@@ -134,9 +148,17 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
         public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
             tAccess.reset(buffer);
             int nTuple = tAccess.getTupleCount();
+            if (batchEval != null) {
+                selection.selectAll(nTuple);
+                batchEval.evaluate(tAccess, selection, condValues);
+            }
             for (int t = 0; t < nTuple; t++) {
-                tRef.reset(tAccess, t);
-                eval.evaluate(tRef, p);
+                if (batchEval != null) {
+                    condValues.get(t, p);
+                } else {
+                    tRef.reset(tAccess, t);
+                    eval.evaluate(tRef, p);
+                }
                 if (bbi.getBooleanValue(p.getByteArray(), p.getStartOffset(), p.getLength())) {
                     if (projectionList != null) {
                         appendProjectionToFrame(t, projectionList);
@@ -157,7 +179,7 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
         }
 
         protected void retainMissingTuple(int t) throws HyracksDataException {
-            for (int i = 0; i < tRef.getFieldCount(); i++) {
+            for (int i = 0; i < tAccess.getFieldCount(); i++) {
                 if (i == missingPlaceholderVariableIndex) {
                     appendField(missingTupleBuilder.getByteArray(), 0, missingTupleBuilder.getSize());
                 } else {
@@ -102,6 +102,14 @@ abstract class AbstractWindowNestedPlansPushRuntime extends WindowMaterializingP
         nestedAgg.aggregate(tAccess, tIndex, null, -1, null);
     }
 
+    final void nestedAggRemove(FrameTupleAccessor tAccess, int tIndex) throws HyracksDataException {
+        nestedAgg.remove(tAccess, tIndex);
+    }
+
+    final boolean nestedAggCompleteRemovals() throws HyracksDataException {
+        return nestedAgg.completeRemovals();
+    }
+
     final void nestedAggOutputFinalResult(ArrayTupleBuilder outTupleBuilder) throws HyracksDataException {
         nestedAggOutputFinalResult(nestedAgg, outTupleBuilder);
     }
@@ -33,4 +33,20 @@ interface IWindowAggregatorDescriptor extends IAggregatorDescriptor {
      * {@link #outputPartialResult(ArrayTupleBuilder, IFrameTupleAccessor, int, AggregateState)}
      */
     void discardFinalResult() throws HyracksDataException;
+
+    /**
+     * This method is called when evaluating sliding window frames.
+     * It removes a tuple from the aggregates. Tuples must be removed in the same order in which they were added by
+     * {@link #aggregate(IFrameTupleAccessor, int, IFrameTupleAccessor, int, AggregateState)}.
+     * {@link #completeRemovals()} must be called before the next result is emitted.
+     */
+    void remove(IFrameTupleAccessor accessor, int tIndex) throws HyracksDataException;
+
+    /**
+     * Completes the removals requested by {@link #remove(IFrameTupleAccessor, int)}.
+     *
+     * @return {@code false} if the aggregates could not remove a tuple. The pipelines must then be closed and
+     * the aggregates computed again over the current window frame
+     */
+    boolean completeRemovals() throws HyracksDataException;
 }
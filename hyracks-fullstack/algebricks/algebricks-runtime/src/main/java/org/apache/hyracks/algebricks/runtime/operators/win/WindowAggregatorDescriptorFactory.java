@@ -49,6 +49,8 @@ public final class WindowAggregatorDescriptorFactory extends AbstractAccumulatin
 
     private boolean partialOutputEnabled;
 
+    private boolean removeEnabled;
+
     public WindowAggregatorDescriptorFactory(AlgebricksPipeline[] subplans) {
         this.subplans = subplans;
     }
@@ -57,6 +59,10 @@ public final class WindowAggregatorDescriptorFactory extends AbstractAccumulatin
         partialOutputEnabled = value;
     }
 
+    public void setRemoveEnabled(boolean value) {
+        removeEnabled = value;
+    }
+
     @Override
     public IWindowAggregatorDescriptor createAggregator(IHyracksTaskContext ctx, RecordDescriptor inRecordDesc,
             RecordDescriptor outRecordDescriptor, int[] keys, int[] partialKeys, long memoryBudget)
@@ -65,8 +71,9 @@ public final class WindowAggregatorDescriptorFactory extends AbstractAccumulatin
                 new NestedPlansAccumulatingAggregatorFactory.AggregatorOutput(subplans, 0);
         NestedTupleSourceRuntime[] pipelines = new NestedTupleSourceRuntime[subplans.length];
 
-        Map<IPushRuntimeFactory, IPushRuntime> pipelineRuntimeMap = partialOutputEnabled ? new HashMap<>() : null;
-        AggregatePushRuntime[] aggs = partialOutputEnabled ? new AggregatePushRuntime[subplans.length] : null;
+        boolean aggsRequired = partialOutputEnabled || removeEnabled;
+        Map<IPushRuntimeFactory, IPushRuntime> pipelineRuntimeMap = aggsRequired ? new HashMap<>() : null;
+        AggregatePushRuntime[] aggs = aggsRequired ? new AggregatePushRuntime[subplans.length] : null;
 
         for (int i = 0; i < subplans.length; i++) {
             AlgebricksPipeline subplan = subplans[i];
@@ -82,15 +89,19 @@ public final class WindowAggregatorDescriptorFactory extends AbstractAccumulatin
                 if (agg == null) {
                     throw new IllegalStateException();
                 }
+                agg.setRemoveEnabled(removeEnabled);
                 aggs[i] = agg;
             }
         }
 
         return new IWindowAggregatorDescriptor() {
 
+            private boolean removeMode;
+
             @Override
             public void init(ArrayTupleBuilder tupleBuilder, IFrameTupleAccessor accessor, int tIndex,
                     AggregateState state) throws HyracksDataException {
+                removeMode = false;
                 outputWriter.getTupleBuilder().reset();
                 for (NestedTupleSourceRuntime pipeline : pipelines) {
                     pipeline.open();
@@ -101,11 +112,56 @@ public final class WindowAggregatorDescriptorFactory extends AbstractAccumulatin
             public void aggregate(IFrameTupleAccessor accessor, int tIndex, IFrameTupleAccessor stateAccessor,
                     int stateTupleIndex, AggregateState state) throws HyracksDataException {
                 memoryUsageCheck();
+                if (removeMode) {
+                    setRemoveMode(false);
+                }
                 for (NestedTupleSourceRuntime pipeline : pipelines) {
                     pipeline.writeTuple(accessor.getBuffer(), tIndex);
                 }
             }
 
+            @Override
+            public void remove(IFrameTupleAccessor accessor, int tIndex) throws HyracksDataException {
+                if (!removeEnabled) {
+                    throw new UnsupportedOperationException();
+                }
+                if (!removeMode) {
+                    setRemoveMode(true);
+                }
+                for (NestedTupleSourceRuntime pipeline : pipelines) {
+                    pipeline.writeTuple(accessor.getBuffer(), tIndex);
+                }
+            }
+
+            @Override
+            public boolean completeRemovals() throws HyracksDataException {
+                if (!removeEnabled) {
+                    throw new UnsupportedOperationException();
+                }
+                if (removeMode) {
+                    setRemoveMode(false);
+                }
+                for (AggregatePushRuntime agg : aggs) {
+                    if (agg.isRemoveFailed()) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            /**
+             * Tuples that were written to the pipelines before the mode switch
+             * must reach the aggregates in the previous mode
+             */
+            private void setRemoveMode(boolean value) throws HyracksDataException {
+                for (int i = 0; i < pipelines.length; i++) {
+                    outputWriter.setInputIdx(i);
+                    pipelines[i].flush();
+                    aggs[i].setRemoveMode(value);
+                }
+                removeMode = value;
+            }
+
             @Override
             public boolean outputFinalResult(ArrayTupleBuilder tupleBuilder, IFrameTupleAccessor stateAccessor,
                     int tIndex, AggregateState state) throws HyracksDataException {
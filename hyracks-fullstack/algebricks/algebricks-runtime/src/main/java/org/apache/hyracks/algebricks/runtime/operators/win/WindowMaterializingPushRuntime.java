@@ -59,9 +59,12 @@ class WindowMaterializingPushRuntime extends AbstractWindowPushRuntime {
     @Override
     protected void init() throws HyracksDataException {
         super.init();
+        IHyracksTaskContext taskCtx = ctx.getTaskContext();
         String runFilePrefix = getClass().getName();
-        partitionWriter = new WindowPartitionWriter(ctx.getTaskContext(), memSizeInFrames - getReservedFrameCount(),
-                runFilePrefix, getPartitionReaderSlotCount(), sourceLoc);
+        String counterPrefix =
+                taskCtx.getTaskAttemptId().getTaskId().getActivityId().getOperatorDescriptorId().toString();
+        partitionWriter = new WindowPartitionWriter(taskCtx, memSizeInFrames - getReservedFrameCount(), runFilePrefix,
+                counterPrefix, getPartitionReaderSlotCount(), sourceLoc);
         partitionReader = partitionWriter.getReader();
         chunkEndIdx = new IntArrayList(128, 128);
     }
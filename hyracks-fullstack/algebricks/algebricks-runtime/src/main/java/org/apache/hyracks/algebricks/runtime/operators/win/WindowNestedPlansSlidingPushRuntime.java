@@ -0,0 +1,386 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.operators.win;
+
+import org.apache.hyracks.algebricks.data.IBinaryBooleanInspector;
+import org.apache.hyracks.algebricks.data.IBinaryBooleanInspectorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IRunningAggregateEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.comm.IFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.PointableTupleReference;
+import org.apache.hyracks.storage.common.MultiComparator;
+
+/**
+ * Optimized runtime for window operators that performs partition materialization and can evaluate running aggregates
+ * as well as regular aggregates (in nested plans) over sliding window frames
+ * (N preceding / current row / N following to N preceding / current row / N following).
+ * Both frame boundaries must be monotonic, so the frame of each row is obtained from the frame of the previous row
+ * by adding the tuples that enter it and removing the ones that leave it. This requires aggregates that
+ * can remove values ({@link org.apache.hyracks.algebricks.runtime.base.IInvertibleAggregateEvaluator}).
+ * If an aggregate cannot remove a value then the aggregates are computed again over the current frame.
+ */
+final class WindowNestedPlansSlidingPushRuntime extends AbstractWindowNestedPlansPushRuntime {
+
+    private static final int PARTITION_POSITION_SLOT = 0;
+
+    private static final int FRAME_START_POSITION_SLOT = 1;
+
+    private static final int FRAME_END_POSITION_SLOT = 2;
+
+    private static final int TMP_POSITION_SLOT = 3;
+
+    private static final int PARTITION_READER_SLOT_COUNT = TMP_POSITION_SLOT + 1;
+
+    private final IScalarEvaluatorFactory[] frameValueEvalFactories;
+
+    private IScalarEvaluator[] frameValueEvals;
+
+    private PointableTupleReference frameValuePointables;
+
+    private final IBinaryComparatorFactory[] frameValueComparatorFactories;
+
+    private MultiComparator frameValueComparators;
+
+    private final IScalarEvaluatorFactory[] frameStartEvalFactories;
+
+    private IScalarEvaluator[] frameStartEvals;
+
+    private PointableTupleReference frameStartPointables;
+
+    private final boolean frameStartValidationExists;
+
+    private final IScalarEvaluatorFactory[] frameStartValidationEvalFactories;
+
+    private IScalarEvaluator[] frameStartValidationEvals;
+
+    private PointableTupleReference frameStartValidationPointables;
+
+    private final IScalarEvaluatorFactory[] frameEndEvalFactories;
+
+    private IScalarEvaluator[] frameEndEvals;
+
+    private PointableTupleReference frameEndPointables;
+
+    private final boolean frameEndValidationExists;
+
+    private final IScalarEvaluatorFactory[] frameEndValidationEvalFactories;
+
+    private IScalarEvaluator[] frameEndValidationEvals;
+
+    private PointableTupleReference frameEndValidationPointables;
+
+    private IWindowAggregatorDescriptor nestedAggForInvalidFrame;
+
+    private final IBinaryBooleanInspectorFactory booleanAccessorFactory;
+
+    private IBinaryBooleanInspector booleanAccessor;
+
+    private FrameTupleAccessor tAccess2;
+
+    private FrameTupleReference tRef2;
+
+    // position of the first tuple in the aggregates
+    private int chunkIdxFrameStartGlobal;
+
+    private int tBeginIdxFrameStartGlobal;
+
+    // position of the first tuple after the aggregated ones
+    private int chunkIdxFrameEndGlobal;
+
+    private int tBeginIdxFrameEndGlobal;
+
+    // number of tuples in the aggregates
+    private long frameSize;
+
+    WindowNestedPlansSlidingPushRuntime(int[] partitionColumns, IBinaryComparatorFactory[] partitionComparatorFactories,
+            IBinaryComparatorFactory[] orderComparatorFactories, IScalarEvaluatorFactory[] frameValueEvalFactories,
+            IBinaryComparatorFactory[] frameValueComparatorFactories, IScalarEvaluatorFactory[] frameStartEvalFactories,
+            IScalarEvaluatorFactory[] frameStartValidationEvalFactories, IScalarEvaluatorFactory[] frameEndEvalFactories,
+            IScalarEvaluatorFactory[] frameEndValidationEvalFactories,
+            IBinaryBooleanInspectorFactory booleanAccessorFactory, int[] projectionColumns, int[] runningAggOutColumns,
+            IRunningAggregateEvaluatorFactory[] runningAggFactories, int nestedAggOutSchemaSize,
+            WindowAggregatorDescriptorFactory nestedAggFactory, IHyracksTaskContext ctx, int memSizeInFrames,
+            SourceLocation sourceLoc) {
+        super(partitionColumns, partitionComparatorFactories, orderComparatorFactories, projectionColumns,
+                runningAggOutColumns, runningAggFactories, nestedAggOutSchemaSize, nestedAggFactory, ctx,
+                memSizeInFrames, sourceLoc);
+        this.frameValueEvalFactories = frameValueEvalFactories;
+        this.frameValueComparatorFactories = frameValueComparatorFactories;
+        this.frameStartEvalFactories = frameStartEvalFactories;
+        this.frameStartValidationEvalFactories = frameStartValidationEvalFactories;
+        this.frameStartValidationExists =
+                frameStartValidationEvalFactories != null && frameStartValidationEvalFactories.length > 0;
+        this.frameEndEvalFactories = frameEndEvalFactories;
+        this.frameEndValidationEvalFactories = frameEndValidationEvalFactories;
+        this.frameEndValidationExists =
+                frameEndValidationEvalFactories != null && frameEndValidationEvalFactories.length > 0;
+        this.booleanAccessorFactory = booleanAccessorFactory;
+    }
+
+    @Override
+    protected void init() throws HyracksDataException {
+        super.init();
+        frameValueEvals = createEvaluators(frameValueEvalFactories, ctx);
+        frameValueComparators = MultiComparator.create(frameValueComparatorFactories);
+        frameValuePointables = PointableTupleReference.create(frameValueEvalFactories.length, VoidPointable.FACTORY);
+        frameStartEvals = createEvaluators(frameStartEvalFactories, ctx);
+        frameStartPointables = PointableTupleReference.create(frameStartEvalFactories.length, VoidPointable.FACTORY);
+        frameEndEvals = createEvaluators(frameEndEvalFactories, ctx);
+        frameEndPointables = PointableTupleReference.create(frameEndEvalFactories.length, VoidPointable.FACTORY);
+        if (frameStartValidationExists) {
+            frameStartValidationEvals = createEvaluators(frameStartValidationEvalFactories, ctx);
+            frameStartValidationPointables =
+                    PointableTupleReference.create(frameStartValidationEvalFactories.length, VoidPointable.FACTORY);
+        }
+        if (frameEndValidationExists) {
+            frameEndValidationEvals = createEvaluators(frameEndValidationEvalFactories, ctx);
+            frameEndValidationPointables =
+                    PointableTupleReference.create(frameEndValidationEvalFactories.length, VoidPointable.FACTORY);
+        }
+        if (frameStartValidationExists || frameEndValidationExists) {
+            booleanAccessor = booleanAccessorFactory.createBinaryBooleanInspector(ctx.getTaskContext());
+            nestedAggForInvalidFrame = nestedAggCreate();
+        }
+        tAccess2 = new FrameTupleAccessor(inputRecordDesc);
+        tRef2 = new FrameTupleReference();
+    }
+
+    @Override
+    protected void beginPartitionImpl() throws HyracksDataException {
+        super.beginPartitionImpl();
+        nestedAggInit();
+        if (nestedAggForInvalidFrame != null) {
+            nestedAggInit(nestedAggForInvalidFrame);
+        }
+        chunkIdxFrameStartGlobal = 0;
+        tBeginIdxFrameStartGlobal = -1;
+        chunkIdxFrameEndGlobal = 0;
+        tBeginIdxFrameEndGlobal = -1;
+        frameSize = 0;
+    }
+
+    @Override
+    protected void producePartitionTuples(int chunkIdx, IFrame chunkFrame) throws HyracksDataException {
+        partitionReader.savePosition(PARTITION_POSITION_SLOT);
+
+        int nChunks = getPartitionChunkCount();
+        boolean isFirstChunkInPartition = chunkIdx == 0;
+        boolean isLastChunkInPartition = chunkIdx == nChunks - 1;
+
+        tAccess.reset(chunkFrame.getBuffer());
+        int tBeginIdx = getTupleBeginIdx(chunkIdx);
+        int tEndIdx = getTupleEndIdx(chunkIdx);
+
+        for (int tIdx = tBeginIdx; tIdx <= tEndIdx; tIdx++) {
+            boolean isFirstTupleInPartition = isFirstChunkInPartition && tIdx == tBeginIdx;
+            boolean isLastTupleInPartition = isLastChunkInPartition && tIdx == tEndIdx;
+
+            tRef.reset(tAccess, tIdx);
+
+            // running aggregates
+            produceTuple(tupleBuilder, tAccess, tIdx, tRef);
+
+            if (isFirstTupleInPartition) {
+                partitionReader.rewind();
+                partitionReader.savePosition(FRAME_START_POSITION_SLOT);
+                partitionReader.savePosition(FRAME_END_POSITION_SLOT);
+            }
+
+            // frame boundaries
+            boolean frameValid = true;
+            if (frameStartValidationExists) {
+                evaluate(frameStartValidationEvals, tRef, frameStartValidationPointables);
+                frameValid = allTrue(frameStartValidationPointables, booleanAccessor);
+            }
+            if (frameValid && frameEndValidationExists) {
+                evaluate(frameEndValidationEvals, tRef, frameEndValidationPointables);
+                frameValid = allTrue(frameEndValidationPointables, booleanAccessor);
+            }
+
+            if (frameValid) {
+                evaluate(frameStartEvals, tRef, frameStartPointables);
+                evaluate(frameEndEvals, tRef, frameEndPointables);
+
+                // add tuples that entered the frame, then remove tuples that left it
+                advanceFrameEnd(nChunks);
+                advanceFrameStart(nChunks);
+
+                if (!nestedAggCompleteRemovals()) {
+                    recomputeFrame(nChunks);
+                }
+
+                nestedAggOutputPartialResult(tupleBuilder);
+            } else {
+                nestedAggOutputPartialResult(nestedAggForInvalidFrame, tupleBuilder);
+            }
+
+            if (isLastTupleInPartition) {
+                // we've already emitted partial results for this tuple, so discard the final ones
+                nestAggDiscardFinalResult();
+                if (nestedAggForInvalidFrame != null) {
+                    nestAggDiscardFinalResult(nestedAggForInvalidFrame);
+                }
+            }
+
+            appendToFrameFromTupleBuilder(tupleBuilder);
+        }
+
+        partitionReader.restorePosition(PARTITION_POSITION_SLOT);
+    }
+
+    /**
+     * Adds tuples to the aggregates until the frame end is reached
+     */
+    private void advanceFrameEnd(int nChunks) throws HyracksDataException {
+        int chunkIdxInnerStart = chunkIdxFrameEndGlobal;
+        int tBeginIdxInnerStart = tBeginIdxFrameEndGlobal;
+        if (chunkIdxInnerStart >= nChunks) {
+            return;
+        }
+        partitionReader.restorePosition(FRAME_END_POSITION_SLOT);
+        for (int chunkIdxInner = chunkIdxInnerStart; chunkIdxInner < nChunks; chunkIdxInner++) {
+            partitionReader.savePosition(TMP_POSITION_SLOT);
+            IFrame frameInner = partitionReader.nextFrame(false);
+            tAccess2.reset(frameInner.getBuffer());
+
+            int tBeginIdxInner;
+            if (tBeginIdxInnerStart >= 0) {
+                tBeginIdxInner = tBeginIdxInnerStart;
+                tBeginIdxInnerStart = -1;
+            } else {
+                tBeginIdxInner = getTupleBeginIdx(chunkIdxInner);
+            }
+            int tEndIdxInner = getTupleEndIdx(chunkIdxInner);
+
+            for (int tIdxInner = tBeginIdxInner; tIdxInner <= tEndIdxInner; tIdxInner++) {
+                tRef2.reset(tAccess2, tIdxInner);
+                evaluate(frameValueEvals, tRef2, frameValuePointables);
+                if (frameValueComparators.compare(frameValuePointables, frameEndPointables) > 0) {
+                    // value > end => beyond the frame end
+                    // save position of the current tuple, will continue from it for the next row
+                    chunkIdxFrameEndGlobal = chunkIdxInner;
+                    tBeginIdxFrameEndGlobal = tIdxInner;
+                    partitionReader.copyPosition(TMP_POSITION_SLOT, FRAME_END_POSITION_SLOT);
+                    return;
+                }
+                // tuples that precede the frame start will be removed by advanceFrameStart()
+                nestedAggAggregate(tAccess2, tIdxInner);
+                frameSize++;
+            }
+        }
+        // frame end not found, set it beyond the last chunk
+        chunkIdxFrameEndGlobal = nChunks;
+        tBeginIdxFrameEndGlobal = 0;
+    }
+
+    /**
+     * Removes tuples from the aggregates until the frame start is reached
+     */
+    private void advanceFrameStart(int nChunks) throws HyracksDataException {
+        int chunkIdxInnerStart = chunkIdxFrameStartGlobal;
+        int tBeginIdxInnerStart = tBeginIdxFrameStartGlobal;
+        if (frameSize == 0 || chunkIdxInnerStart >= nChunks) {
+            return;
+        }
+        partitionReader.restorePosition(FRAME_START_POSITION_SLOT);
+        for (int chunkIdxInner = chunkIdxInnerStart; chunkIdxInner < nChunks; chunkIdxInner++) {
+            partitionReader.savePosition(TMP_POSITION_SLOT);
+            IFrame frameInner = partitionReader.nextFrame(false);
+            tAccess2.reset(frameInner.getBuffer());
+
+            int tBeginIdxInner;
+            if (tBeginIdxInnerStart >= 0) {
+                tBeginIdxInner = tBeginIdxInnerStart;
+                tBeginIdxInnerStart = -1;
+            } else {
+                tBeginIdxInner = getTupleBeginIdx(chunkIdxInner);
+            }
+            int tEndIdxInner = getTupleEndIdx(chunkIdxInner);
+
+            for (int tIdxInner = tBeginIdxInner; tIdxInner <= tEndIdxInner; tIdxInner++) {
+                boolean frameStartFound = frameSize == 0;
+                if (!frameStartFound) {
+                    tRef2.reset(tAccess2, tIdxInner);
+                    evaluate(frameValueEvals, tRef2, frameValuePointables);
+                    frameStartFound = frameValueComparators.compare(frameValuePointables, frameStartPointables) >= 0;
+                }
+                if (frameStartFound) {
+                    // save position of the current tuple, it is the first one in the frame
+                    chunkIdxFrameStartGlobal = chunkIdxInner;
+                    tBeginIdxFrameStartGlobal = tIdxInner;
+                    partitionReader.copyPosition(TMP_POSITION_SLOT, FRAME_START_POSITION_SLOT);
+                    return;
+                }
+                // value < start => remove
+                nestedAggRemove(tAccess2, tIdxInner);
+                frameSize--;
+            }
+        }
+        // all tuples were removed
+        chunkIdxFrameStartGlobal = nChunks;
+        tBeginIdxFrameStartGlobal = 0;
+    }
+
+    /**
+     * Computes the aggregates again over the tuples of the current frame
+     */
+    private void recomputeFrame(int nChunks) throws HyracksDataException {
+        nestAggDiscardFinalResult();
+        nestedAggInit();
+        long toAdd = frameSize;
+        if (toAdd == 0) {
+            return;
+        }
+        int tBeginIdxInnerStart = tBeginIdxFrameStartGlobal;
+        partitionReader.restorePosition(FRAME_START_POSITION_SLOT);
+        for (int chunkIdxInner = chunkIdxFrameStartGlobal; chunkIdxInner < nChunks; chunkIdxInner++) {
+            IFrame frameInner = partitionReader.nextFrame(false);
+            tAccess2.reset(frameInner.getBuffer());
+
+            int tBeginIdxInner;
+            if (tBeginIdxInnerStart >= 0) {
+                tBeginIdxInner = tBeginIdxInnerStart;
+                tBeginIdxInnerStart = -1;
+            } else {
+                tBeginIdxInner = getTupleBeginIdx(chunkIdxInner);
+            }
+            int tEndIdxInner = getTupleEndIdx(chunkIdxInner);
+
+            for (int tIdxInner = tBeginIdxInner; tIdxInner <= tEndIdxInner; tIdxInner++) {
+                nestedAggAggregate(tAccess2, tIdxInner);
+                if (--toAdd == 0) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    protected int getPartitionReaderSlotCount() {
+        return PARTITION_READER_SLOT_COUNT;
+    }
+}
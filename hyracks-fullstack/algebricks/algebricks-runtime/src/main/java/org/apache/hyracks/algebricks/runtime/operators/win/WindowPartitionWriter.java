@@ -29,12 +29,17 @@ import org.apache.hyracks.api.exceptions.ErrorCode;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.exceptions.SourceLocation;
 import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.job.profiling.counters.ICounter;
+import org.apache.hyracks.api.job.profiling.counters.ICounterContext;
 import org.apache.hyracks.dataflow.common.comm.util.FrameUtils;
 import org.apache.hyracks.dataflow.common.io.GeneratedRunFileReader;
 import org.apache.hyracks.dataflow.common.io.RunFileWriter;
 
 final class WindowPartitionWriter {
 
+    // share of the memory budget used by the seekable reader to keep recently read run file frames
+    private static final int READER_CACHE_FRACTION = 4;
+
     private final IHyracksTaskContext ctx;
 
     private final String fileNamePrefix;
@@ -53,13 +58,21 @@ final class WindowPartitionWriter {
 
     private final AbstractWindowPartitionReader partitionReader;
 
+    private final ICounter fileBytesRead;
+
+    private final ICounter fileBytesReread;
+
     WindowPartitionWriter(IHyracksTaskContext ctx, int memSizeInFrames, String fileNamePrefix,
-            int readerPositionStoreSize, SourceLocation sourceLoc) throws HyracksDataException {
+            String counterPrefix, int readerPositionStoreSize, SourceLocation sourceLoc) throws HyracksDataException {
         this.ctx = ctx;
         this.fileNamePrefix = fileNamePrefix;
         this.sourceLoc = sourceLoc;
+        ICounterContext counters = ctx.getCounterContext();
+        fileBytesRead = counters.getCounter(counterPrefix + ".win.runFileBytesRead", true);
+        fileBytesReread = counters.getCounter(counterPrefix + ".win.runFileBytesReread", true);
         partitionReader = readerPositionStoreSize < 1 ? new WindowPartitionForwardReader()
-                : new WindowPartitionSeekableReader(readerPositionStoreSize);
+                : new WindowPartitionSeekableReader(readerPositionStoreSize,
+                        Math.max(1, memSizeInFrames / READER_CACHE_FRACTION));
         int writerFrameBudget = memSizeInFrames - partitionReader.getReservedFrameCount();
         if (writerFrameBudget < 1) {
             throw new IllegalArgumentException(String.valueOf(memSizeInFrames));
@@ -144,6 +157,9 @@ final class WindowPartitionWriter {
 
         int readerFrameIdx = -1;
 
+        // number of partition frames that have been read from the run file at least once
+        int fileFrameReadCount;
+
         GeneratedRunFileReader fileReader;
 
         @Override
@@ -152,6 +168,7 @@ final class WindowPartitionWriter {
                 throw new IllegalStateException(String.valueOf(readerFrameIdx));
             }
             readerFrameIdx = 0;
+            fileFrameReadCount = writerFrames.length;
 
             if (writerFrameCount > writerFrames.length) {
                 openFileReader();
@@ -192,9 +209,17 @@ final class WindowPartitionWriter {
         }
 
         void readFromFileReader(IFrame outFrame) throws HyracksDataException {
+            long filePosition = fileReader.position();
             if (!fileReader.nextFrame(outFrame)) {
                 throw HyracksDataException.create(ErrorCode.EOF, sourceLoc);
             }
+            long bytesRead = fileReader.position() - filePosition;
+            fileBytesRead.update(bytesRead);
+            if (readerFrameIdx < fileFrameReadCount) {
+                fileBytesReread.update(bytesRead);
+            } else {
+                fileFrameReadCount = readerFrameIdx + 1;
+            }
         }
 
         @Override
@@ -268,23 +293,36 @@ final class WindowPartitionWriter {
         }
     }
 
+    /**
+     * A reader that supports position manipulation. Run file frames are read into a small direct mapped cache, so
+     * the cursors that follow the primary scan within the extent of the cache (e.g. the start and the end of a
+     * bounded window frame) do not re-read the run file. The primary scan gets its own frame because cached frames
+     * can be replaced by non-primary reads while the primary frame is still in use.
+     */
     private final class WindowPartitionSeekableReader extends AbstractWindowPartitionReader {
 
-        private final IFrame[] fileFrames;
+        private IFrame primaryFrame;
+
+        private long primaryFrameIdx;
+
+        private long primaryFrameSize;
 
-        private final long[] fileFrameIdxs;
+        private final IFrame[] cacheFrames;
 
-        private final long[] fileFrameSizes;
+        private final long[] cacheFrameIdxs;
+
+        private final long[] cacheFrameSizes;
 
         private final long[] filePositionStore;
 
         private final int[] readerFrameIdxStore;
 
-        private WindowPartitionSeekableReader(int positionStoreSize) throws HyracksDataException {
-            fileFrames = new IFrame[2]; // run file frames: one for primary scan, another for non-primary
-            allocateFrames(fileFrames, fileFrames.length);
-            fileFrameIdxs = new long[fileFrames.length];
-            fileFrameSizes = new long[fileFrames.length];
+        private WindowPartitionSeekableReader(int positionStoreSize, int cacheSize) throws HyracksDataException {
+            primaryFrame = new VSizeFrame(ctx);
+            // cache frames are allocated lazily, small partitions never read from the run file
+            cacheFrames = new IFrame[cacheSize];
+            cacheFrameIdxs = new long[cacheSize];
+            cacheFrameSizes = new long[cacheSize];
             filePositionStore = new long[positionStoreSize];
             readerFrameIdxStore = new int[positionStoreSize];
         }
@@ -292,7 +330,8 @@ final class WindowPartitionWriter {
         @Override
         public void open() throws HyracksDataException {
             super.open();
-            Arrays.fill(fileFrameIdxs, -1);
+            primaryFrameIdx = -1;
+            Arrays.fill(cacheFrameIdxs, -1);
             Arrays.fill(filePositionStore, -1);
             Arrays.fill(readerFrameIdxStore, -1);
         }
@@ -301,27 +340,41 @@ final class WindowPartitionWriter {
         IFrame nextFrameImpl(boolean primaryScan) throws HyracksDataException {
             if (readerFrameIdx < writerFrames.length) {
                 return writerFrames[readerFrameIdx];
+            }
+            long filePosition = fileReader.position();
+            if (primaryScan && readerFrameIdx == primaryFrameIdx) {
+                fileReader.seek(filePosition + primaryFrameSize);
+                return primaryFrame;
+            }
+            int cacheSlot = (readerFrameIdx - writerFrames.length) % cacheFrames.length;
+            IFrame cacheFrame = cacheFrames[cacheSlot];
+            if (cacheFrame == null) {
+                cacheFrames[cacheSlot] = cacheFrame = new VSizeFrame(ctx);
+            }
+            if (readerFrameIdx == cacheFrameIdxs[cacheSlot]) {
+                fileReader.seek(filePosition + cacheFrameSizes[cacheSlot]);
             } else {
-                int fileFrameSlot = primaryScan ? 0 : 1;
-                IFrame fileFrameRef = fileFrames[fileFrameSlot];
-                long filePosition = fileReader.position();
-                if (readerFrameIdx == fileFrameIdxs[fileFrameSlot]) {
-                    fileReader.seek(filePosition + fileFrameSizes[fileFrameSlot]);
-                } else {
-                    readFromFileReader(fileFrameRef);
-                    fileFrameSizes[fileFrameSlot] = fileReader.position() - filePosition;
-                    fileFrameIdxs[fileFrameSlot] = readerFrameIdx;
-                }
-                return fileFrameRef;
+                readFromFileReader(cacheFrame);
+                cacheFrameSizes[cacheSlot] = fileReader.position() - filePosition;
+                cacheFrameIdxs[cacheSlot] = readerFrameIdx;
             }
+            if (!primaryScan) {
+                return cacheFrame;
+            }
+            copyToFrame(cacheFrame.getBuffer(), primaryFrame);
+            primaryFrameIdx = readerFrameIdx;
+            primaryFrameSize = cacheFrameSizes[cacheSlot];
+            return primaryFrame;
         }
 
         @Override
         public void closeImpl() {
             int endFrameIdx = readerFrameIdx - 1;
             if (endFrameIdx >= writerFrames.length) {
-                // last partition frame was in the run file -> get contents from the file frame
-                swap(writerFrames, 0, fileFrames, 0);
+                // last partition frame was in the run file -> get contents from the primary frame
+                IFrame writerFrame0 = writerFrames[0];
+                writerFrames[0] = primaryFrame;
+                primaryFrame = writerFrame0;
             } else if (endFrameIdx > 0) {
                 // last partition frame is in writerFrames -> make it the first one
                 swap(writerFrames, 0, writerFrames, endFrameIdx);
@@ -359,7 +412,7 @@ final class WindowPartitionWriter {
 
         @Override
         int getReservedFrameCount() {
-            return fileFrames.length;
+            return 1 + cacheFrames.length;
         }
     }
 }
@@ -38,4 +38,13 @@ public interface IBufferFactory {
      * @return the number of created buffers
      */
     int getCreatedBuffersCount();
+
+    /**
+     * Gets the maximum number of buffers this factory creates
+     *
+     * @return the maximum number of buffers
+     */
+    default int getLimit() {
+        return Integer.MAX_VALUE;
+    }
 }
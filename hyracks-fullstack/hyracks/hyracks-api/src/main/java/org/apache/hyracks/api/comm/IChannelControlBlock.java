@@ -47,6 +47,15 @@ public interface IChannelControlBlock {
      */
     public int getChannelId();
 
+    /**
+     * Estimates how many bytes the remote side must be allowed to send ahead to keep this channel busy, i.e. the
+     * product of the rate at which data arrives on the channel and the time it takes for read credits to turn into
+     * data.
+     *
+     * @return the estimated bandwidth-delay product in bytes, 0 if it is not known yet
+     */
+    public long getBandwidthDelayProduct();
+
     /**
      * Add pending credit.
      *
@@ -18,10 +18,13 @@
  */
 package org.apache.hyracks.api.context;
 
+import java.util.Set;
+
 import org.apache.hyracks.api.application.INCServiceContext;
 import org.apache.hyracks.api.exceptions.HyracksException;
 import org.apache.hyracks.api.io.IWorkspaceFileFactory;
 import org.apache.hyracks.api.job.IJobletEventListenerFactory;
+import org.apache.hyracks.api.job.JobFlag;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.profiling.counters.ICounterContext;
 import org.apache.hyracks.api.resources.IDeallocatableRegistry;
@@ -33,6 +36,8 @@ public interface IHyracksJobletContext extends IWorkspaceFileFactory, IDeallocat
 
     long getJobStartTime();
 
+    Set<JobFlag> getJobFlags();
+
     ICounterContext getCounterContext();
 
     Object getGlobalJobData();
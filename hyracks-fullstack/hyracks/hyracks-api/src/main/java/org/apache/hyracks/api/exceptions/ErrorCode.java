@@ -157,6 +157,9 @@ public class ErrorCode {
     public static final int NUMERIC_PROMOTION_ERROR = 121;
     public static final int ERROR_PRINTING_PLAN = 122;
     public static final int INSUFFICIENT_MEMORY = 123;
+    public static final int ONE_TUPLE_HEAVY_HITTER_MAP_EXPECTED = 124;
+    public static final int NO_HEAVY_HITTER_MAP_PRODUCED = 125;
+    public static final int HEAVY_HITTER_MAP_NOT_FOUND = 126;
 
     // Compilation error codes.
     public static final int RULECOLLECTION_NOT_INSTANCE_OF_LIST = 10000;
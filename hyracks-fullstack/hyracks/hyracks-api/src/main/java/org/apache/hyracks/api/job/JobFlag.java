@@ -20,5 +20,10 @@ package org.apache.hyracks.api.job;
 
 public enum JobFlag {
     PROFILE_RUNTIME,
-    ENFORCE_CONTRACT
+    ENFORCE_CONTRACT,
+    /**
+     * Compresses the frames that are sent over the network between tasks and the frames that are spilled to run
+     * files. Trades CPU for network bandwidth and disk I/O.
+     */
+    COMPRESS_FRAMES
 }
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.comm.channels;
+
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+
+/**
+ * The sending side of a channel a partition is written to once its consumer requested it.
+ */
+public interface IOutputChannel extends IFrameWriter {
+
+    /**
+     * Sets the size of the buffers the frames are sent in, i.e. the initial frame size of the producer.
+     */
+    void setFrameSize(int frameSize);
+
+    /**
+     * Sets the compressor the frames are compressed with before they are sent, {@code null} to send them as they are.
+     * Channels that do not go through the network may ignore it.
+     */
+    void setCompressor(ICompressorDecompressor compressor);
+
+    /**
+     * Aborts the channel and notifies the consumer with the given error code.
+     */
+    void abort(int ecode);
+}
@@ -21,6 +21,9 @@ package org.apache.hyracks.comm.channels;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Queue;
 
 import org.apache.hyracks.api.channels.IInputChannel;
@@ -28,12 +31,20 @@ import org.apache.hyracks.api.channels.IInputChannelMonitor;
 import org.apache.hyracks.api.comm.IBufferAcceptor;
 import org.apache.hyracks.api.comm.IChannelControlBlock;
 import org.apache.hyracks.api.comm.ICloseableBufferAcceptor;
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
 import org.apache.hyracks.api.context.IHyracksCommonContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.partitions.PartitionId;
+import org.apache.hyracks.net.protocols.muxdemux.AbstractChannelWriteInterface;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+/**
+ * Reads a partition from the network. When a decompressor is set, the buffers received from the network hold blocks
+ * of compressed frames (see {@link NetworkOutputChannel}). They are decompressed as soon as they are received, and
+ * handed back to the network layer while the consumer keeps up with the decompressed buffers, so that the producer
+ * cannot get further ahead than it can without compression.
+ */
 public class NetworkInputChannel implements IInputChannel {
     private static final Logger LOGGER = LogManager.getLogger();
 
@@ -49,19 +60,51 @@ public class NetworkInputChannel implements IInputChannel {
 
     private final int nBuffers;
 
+    // the read window of the channel starts with nBuffers buffers and grows up to this many buffers
+    private final int maxBuffers;
+
+    private final ICompressorDecompressor decompressor;
+
     private IChannelControlBlock ccb;
 
     private IInputChannelMonitor monitor;
 
     private Object attachment;
 
+    // the decompressed buffers that are not in use
+    private final Deque<ByteBuffer> emptyStack = new ArrayDeque<>();
+
+    // the network buffers that are held back until the consumer catches up
+    private final Queue<ByteBuffer> heldBuffers = new ArrayDeque<>();
+
+    // the number of decompressed buffers that were not recycled yet
+    private int pendingBuffers;
+
+    private ByteBuffer compressedBlock;
+
+    private int uncompressedLength;
+
+    private int frameSize;
+
     public NetworkInputChannel(IChannelConnectionFactory netManager, SocketAddress remoteAddress,
             PartitionId partitionId, int nBuffers) {
+        this(netManager, remoteAddress, partitionId, nBuffers, nBuffers, null);
+    }
+
+    public NetworkInputChannel(IChannelConnectionFactory netManager, SocketAddress remoteAddress,
+            PartitionId partitionId, int nBuffers, ICompressorDecompressor decompressor) {
+        this(netManager, remoteAddress, partitionId, nBuffers, nBuffers, decompressor);
+    }
+
+    public NetworkInputChannel(IChannelConnectionFactory netManager, SocketAddress remoteAddress,
+            PartitionId partitionId, int nBuffers, int maxBuffers, ICompressorDecompressor decompressor) {
         this.netManager = netManager;
         this.remoteAddress = remoteAddress;
         this.partitionId = partitionId;
         fullQueue = new ArrayDeque<ByteBuffer>(nBuffers);
         this.nBuffers = nBuffers;
+        this.maxBuffers = Math.max(nBuffers, maxBuffers);
+        this.decompressor = decompressor;
     }
 
     @Override
@@ -87,11 +130,32 @@ public class NetworkInputChannel implements IInputChannel {
     @Override
     public void recycleBuffer(ByteBuffer buffer) {
         buffer.clear();
-        ccb.getReadInterface().getEmptyBufferAcceptor().accept(buffer);
+        if (decompressor == null) {
+            ccb.getReadInterface().getEmptyBufferAcceptor().accept(buffer);
+            return;
+        }
+        List<ByteBuffer> released = null;
+        synchronized (this) {
+            emptyStack.push(buffer);
+            pendingBuffers--;
+            while (pendingBuffers <= nBuffers && !heldBuffers.isEmpty()) {
+                if (released == null) {
+                    released = new ArrayList<>(heldBuffers.size());
+                }
+                released.add(heldBuffers.poll());
+            }
+        }
+        // outside of the lock, the network layer calls back into this channel while holding its own locks
+        if (released != null) {
+            for (ByteBuffer networkBuffer : released) {
+                ccb.getReadInterface().getEmptyBufferAcceptor().accept(networkBuffer);
+            }
+        }
     }
 
     @Override
     public void open(IHyracksCommonContext ctx) throws HyracksDataException {
+        frameSize = ctx.getInitialFrameSize();
         try {
             ccb = netManager.connect(remoteAddress);
         } catch (Exception e) {
@@ -99,7 +163,7 @@ public class NetworkInputChannel implements IInputChannel {
         }
         ccb.getReadInterface().setFullBufferAcceptor(new ReadFullBufferAcceptor());
         ccb.getWriteInterface().setEmptyBufferAcceptor(new WriteEmptyBufferAcceptor());
-        ccb.getReadInterface().setBufferFactory(new ReadBufferFactory(nBuffers, ctx), nBuffers,
+        ccb.getReadInterface().setBufferFactory(new ReadBufferFactory(maxBuffers, ctx), nBuffers,
                 ctx.getInitialFrameSize());
         ByteBuffer writeBuffer = ByteBuffer.allocate(INITIAL_MESSAGE_SIZE);
         writeBuffer.putLong(partitionId.getJobId().getId());
@@ -119,11 +183,82 @@ public class NetworkInputChannel implements IInputChannel {
 
     }
 
+    /**
+     * Decompresses the blocks of a buffer received from the network. A block that continues in the next buffer is
+     * collected in {@link #compressedBlock}.
+     */
+    private void decompress(ByteBuffer buffer) throws HyracksDataException {
+        while (buffer.hasRemaining()) {
+            if (compressedBlock == null || !compressedBlock.hasRemaining()) {
+                if (buffer.remaining() < NetworkOutputChannel.BLOCK_HEADER_SIZE) {
+                    break;
+                }
+                int compressedLength = buffer.getInt();
+                if (compressedLength == 0) {
+                    // the rest of the buffer is unused
+                    break;
+                }
+                uncompressedLength = buffer.getInt();
+                if (compressedBlock == null || compressedBlock.capacity() < compressedLength) {
+                    compressedBlock = ByteBuffer.allocate(
+                            Math.max(compressedLength, decompressor.computeCompressedBufferSize(frameSize)));
+                }
+                compressedBlock.clear();
+                compressedBlock.limit(compressedLength);
+            }
+            int length = Math.min(compressedBlock.remaining(), buffer.remaining());
+            int limit = buffer.limit();
+            buffer.limit(buffer.position() + length);
+            compressedBlock.put(buffer);
+            buffer.limit(limit);
+            if (!compressedBlock.hasRemaining()) {
+                compressedBlock.flip();
+                ByteBuffer destBuffer;
+                synchronized (this) {
+                    destBuffer = emptyStack.poll();
+                    pendingBuffers++;
+                }
+                if (destBuffer == null || destBuffer.capacity() < uncompressedLength) {
+                    destBuffer = ByteBuffer.allocate(Math.max(frameSize, uncompressedLength));
+                }
+                destBuffer.clear();
+                decompressor.uncompress(compressedBlock, destBuffer);
+                // the block is fully consumed, the next one starts with a header
+                compressedBlock.position(compressedBlock.limit());
+                synchronized (this) {
+                    fullQueue.add(destBuffer);
+                }
+                monitor.notifyDataAvailability(this, 1);
+            }
+        }
+    }
+
     private class ReadFullBufferAcceptor implements ICloseableBufferAcceptor {
         @Override
         public void accept(ByteBuffer buffer) {
-            fullQueue.add(buffer);
-            monitor.notifyDataAvailability(NetworkInputChannel.this, 1);
+            if (decompressor == null) {
+                fullQueue.add(buffer);
+                monitor.notifyDataAvailability(NetworkInputChannel.this, 1);
+                return;
+            }
+            try {
+                decompress(buffer);
+            } catch (HyracksDataException e) {
+                LOGGER.error("failed to decompress a frame of partition {}", partitionId, e);
+                monitor.notifyFailure(NetworkInputChannel.this, AbstractChannelWriteInterface.REMOTE_ERROR_CODE);
+                return;
+            }
+            buffer.clear();
+            boolean hold;
+            synchronized (NetworkInputChannel.this) {
+                hold = pendingBuffers > nBuffers;
+                if (hold) {
+                    heldBuffers.add(buffer);
+                }
+            }
+            if (!hold) {
+                ccb.getReadInterface().getEmptyBufferAcceptor().accept(buffer);
+            }
         }
 
         @Override
@@ -25,12 +25,24 @@ import java.util.Deque;
 import java.util.Objects;
 
 import org.apache.hyracks.api.comm.IBufferAcceptor;
-import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.net.protocols.muxdemux.AbstractChannelWriteInterface;
 import org.apache.hyracks.net.protocols.muxdemux.ChannelControlBlock;
 
-public class NetworkOutputChannel implements IFrameWriter {
+/**
+ * Sends the frames of a partition over the network. Frames are sent in buffers of the (initial) frame size.
+ * <pre>
+ * When a compressor is set, every buffer-sized piece of a frame is compressed into a block:
+ * [compressed length][uncompressed length][compressed bytes]
+ * and the blocks are packed into the buffers that are sent, a block may span several buffers. The unused end of a
+ * buffer that is sent before it is full, i.e. on {@link #flush()} and {@link #close()}, is marked by a compressed
+ * length of 0, or is left as it is when it is shorter than a block header. See {@link NetworkInputChannel}.
+ * </pre>
+ */
+public class NetworkOutputChannel implements IOutputChannel {
+    static final int BLOCK_HEADER_SIZE = 2 * Integer.BYTES;
+
     private final ChannelControlBlock ccb;
 
     private final int nBuffers;
@@ -43,6 +55,12 @@ public class NetworkOutputChannel implements IFrameWriter {
 
     private int allocateCounter = 0;
 
+    private ICompressorDecompressor compressor;
+
+    private ByteBuffer compressedBlock;
+
+    private ByteBuffer currentBuffer;
+
     public NetworkOutputChannel(ChannelControlBlock ccb, int nBuffers) {
         this.ccb = ccb;
         this.nBuffers = nBuffers;
@@ -50,10 +68,16 @@ public class NetworkOutputChannel implements IFrameWriter {
         ccb.getWriteInterface().setEmptyBufferAcceptor(new WriteEmptyBufferAcceptor());
     }
 
+    @Override
     public void setFrameSize(int frameSize) {
         this.frameSize = frameSize;
     }
 
+    @Override
+    public void setCompressor(ICompressorDecompressor compressor) {
+        this.compressor = compressor;
+    }
+
     @Override
     public void open() {
         // no op
@@ -61,37 +85,12 @@ public class NetworkOutputChannel implements IFrameWriter {
 
     @Override
     public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
-        ByteBuffer destBuffer;
+        if (compressor != null) {
+            nextCompressedFrame(buffer);
+            return;
+        }
         while (buffer.hasRemaining()) {
-            synchronized (this) {
-                while (true) {
-                    if (aborted) {
-                        throw new HyracksDataException("Connection has been aborted");
-                    }
-                    destBuffer = emptyStack.poll();
-                    if (destBuffer == null && allocateCounter < nBuffers) {
-                        destBuffer = ByteBuffer.allocateDirect(frameSize);
-                        allocateCounter++;
-                    }
-                    if (destBuffer != null) {
-                        break;
-                    }
-                    try {
-                        InetSocketAddress remoteAddress = ccb.getRemoteAddress();
-                        String nameBefore = Thread.currentThread().getName();
-                        try {
-                            Thread.currentThread().setName(
-                                    nameBefore + ":SendingTo(" + Objects.toString(remoteAddress) + ") over " + ccb);
-                            wait();
-                        } finally {
-                            Thread.currentThread().setName(nameBefore);
-                        }
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        throw HyracksDataException.create(e);
-                    }
-                }
-            }
+            ByteBuffer destBuffer = getEmptyBuffer();
             destBuffer.clear();
             if (destBuffer.capacity() < buffer.remaining()) {
                 destBuffer.put(buffer.array(), buffer.position(), destBuffer.capacity());
@@ -104,6 +103,87 @@ public class NetworkOutputChannel implements IFrameWriter {
         }
     }
 
+    private void nextCompressedFrame(ByteBuffer buffer) throws HyracksDataException {
+        int maxCompressedSize = compressor.computeCompressedBufferSize(frameSize);
+        if (compressedBlock == null || compressedBlock.capacity() < maxCompressedSize) {
+            compressedBlock = ByteBuffer.allocate(maxCompressedSize);
+        }
+        while (buffer.hasRemaining()) {
+            int length = Math.min(frameSize, buffer.remaining());
+            ByteBuffer piece = buffer.duplicate();
+            piece.limit(piece.position() + length);
+            compressedBlock.clear();
+            compressor.compress(piece, compressedBlock);
+            buffer.position(buffer.position() + length);
+            if (currentBuffer != null && currentBuffer.remaining() < BLOCK_HEADER_SIZE) {
+                sendCurrentBuffer();
+            }
+            if (currentBuffer == null) {
+                currentBuffer = getEmptyBuffer();
+                currentBuffer.clear();
+            }
+            currentBuffer.putInt(compressedBlock.remaining());
+            currentBuffer.putInt(length);
+            while (compressedBlock.hasRemaining()) {
+                if (currentBuffer == null) {
+                    currentBuffer = getEmptyBuffer();
+                    currentBuffer.clear();
+                }
+                int chunk = Math.min(currentBuffer.remaining(), compressedBlock.remaining());
+                int limit = compressedBlock.limit();
+                compressedBlock.limit(compressedBlock.position() + chunk);
+                currentBuffer.put(compressedBlock);
+                compressedBlock.limit(limit);
+                if (!currentBuffer.hasRemaining()) {
+                    sendCurrentBuffer();
+                }
+            }
+        }
+    }
+
+    private void sendCurrentBuffer() {
+        if (currentBuffer.remaining() >= BLOCK_HEADER_SIZE) {
+            currentBuffer.putInt(0);
+        }
+        // the receiving side only accepts whole buffers
+        currentBuffer.position(currentBuffer.limit());
+        currentBuffer.flip();
+        ccb.getWriteInterface().getFullBufferAcceptor().accept(currentBuffer);
+        currentBuffer = null;
+    }
+
+    private ByteBuffer getEmptyBuffer() throws HyracksDataException {
+        synchronized (this) {
+            while (true) {
+                if (aborted) {
+                    throw new HyracksDataException("Connection has been aborted");
+                }
+                ByteBuffer destBuffer = emptyStack.poll();
+                if (destBuffer == null && allocateCounter < nBuffers) {
+                    destBuffer = ByteBuffer.allocateDirect(frameSize);
+                    allocateCounter++;
+                }
+                if (destBuffer != null) {
+                    return destBuffer;
+                }
+                try {
+                    InetSocketAddress remoteAddress = ccb.getRemoteAddress();
+                    String nameBefore = Thread.currentThread().getName();
+                    try {
+                        Thread.currentThread().setName(
+                                nameBefore + ":SendingTo(" + Objects.toString(remoteAddress) + ") over " + ccb);
+                        wait();
+                    } finally {
+                        Thread.currentThread().setName(nameBefore);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw HyracksDataException.create(e);
+                }
+            }
+        }
+    }
+
     @Override
     public void fail() throws HyracksDataException {
         ccb.getWriteInterface().getFullBufferAcceptor().error(AbstractChannelWriteInterface.REMOTE_ERROR_CODE);
@@ -111,9 +191,13 @@ public class NetworkOutputChannel implements IFrameWriter {
 
     @Override
     public void close() throws HyracksDataException {
+        if (currentBuffer != null) {
+            sendCurrentBuffer();
+        }
         ccb.getWriteInterface().getFullBufferAcceptor().close();
     }
 
+    @Override
     public void abort(int ecode) {
         ccb.getWriteInterface().getFullBufferAcceptor().error(ecode);
         synchronized (NetworkOutputChannel.this) {
@@ -135,6 +219,9 @@ public class NetworkOutputChannel implements IFrameWriter {
     @Override
     public void flush() throws HyracksDataException {
         // At the network boundary.
-        // This frame writer always pushes its content
+        // This frame writer always pushes its content, only compressed blocks may be waiting for a full buffer
+        if (currentBuffer != null) {
+            sendCurrentBuffer();
+        }
     }
 }
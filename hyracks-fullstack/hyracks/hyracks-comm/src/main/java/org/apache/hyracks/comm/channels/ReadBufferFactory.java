@@ -51,4 +51,9 @@ public class ReadBufferFactory implements IBufferFactory {
     public int getCreatedBuffersCount() {
         return counter;
     }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.comm.compression;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.xerial.snappy.Snappy;
+
+/**
+ * Snappy compressor/decompressor for frames that are sent over the network or spilled to run files. Both buffers must
+ * be heap buffers.
+ */
+public class SnappyFrameCompressor implements ICompressorDecompressor {
+    public static final SnappyFrameCompressor INSTANCE = new SnappyFrameCompressor();
+
+    private SnappyFrameCompressor() {
+    }
+
+    @Override
+    public int computeCompressedBufferSize(int uBufferSize) {
+        return Snappy.maxCompressedLength(uBufferSize);
+    }
+
+    @Override
+    public ByteBuffer compress(ByteBuffer uBuffer, ByteBuffer cBuffer) throws HyracksDataException {
+        try {
+            int cLength = Snappy.compress(uBuffer.array(), uBuffer.arrayOffset() + uBuffer.position(),
+                    uBuffer.remaining(), cBuffer.array(), cBuffer.arrayOffset() + cBuffer.position());
+            cBuffer.limit(cBuffer.position() + cLength);
+            return cBuffer;
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    @Override
+    public ByteBuffer uncompress(ByteBuffer cBuffer, ByteBuffer uBuffer) throws HyracksDataException {
+        try {
+            int uLength = Snappy.uncompress(cBuffer.array(), cBuffer.arrayOffset() + cBuffer.position(),
+                    cBuffer.remaining(), uBuffer.array(), uBuffer.arrayOffset() + uBuffer.position());
+            uBuffer.limit(uBuffer.position() + uLength);
+            return uBuffer;
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.comm.channels;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.hyracks.api.channels.IInputChannel;
+import org.apache.hyracks.api.channels.IInputChannelMonitor;
+import org.apache.hyracks.api.comm.IBufferAcceptor;
+import org.apache.hyracks.api.comm.IChannelControlBlock;
+import org.apache.hyracks.api.comm.IChannelReadInterface;
+import org.apache.hyracks.api.comm.IChannelWriteInterface;
+import org.apache.hyracks.api.comm.ICloseableBufferAcceptor;
+import org.apache.hyracks.api.context.IHyracksCommonContext;
+import org.apache.hyracks.api.dataflow.ConnectorDescriptorId;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.partitions.PartitionId;
+import org.apache.hyracks.comm.compression.SnappyFrameCompressor;
+import org.apache.hyracks.net.protocols.muxdemux.ChannelControlBlock;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Sends frames through a compressing {@link NetworkOutputChannel} and feeds the buffers it sends to a decompressing
+ * {@link NetworkInputChannel}. The input channel hands out one buffer per buffer-sized piece of a frame.
+ */
+public class CompressedNetworkChannelTest {
+
+    private static final int FRAME_SIZE = 64;
+    private static final int N_BUFFERS = 2;
+
+    private final Random random = new Random(23);
+
+    // copies of the buffers sent by the output channel
+    private final List<ByteBuffer> sentBuffers = new ArrayList<>();
+    // the pieces decompressed by the input channel
+    private final List<byte[]> receivedPieces = new ArrayList<>();
+    private final List<byte[]> expectedPieces = new ArrayList<>();
+
+    private NetworkOutputChannel outputChannel;
+    private NetworkInputChannel inputChannel;
+    private ICloseableBufferAcceptor receiver;
+    private IBufferAcceptor outputEmptyBufferAcceptor;
+    private boolean outputClosed;
+    private int endOfStreams;
+
+    @Before
+    public void setUp() throws Exception {
+        ChannelControlBlock outputCcb = mock(ChannelControlBlock.class);
+        IChannelWriteInterface outputWriteInterface = mock(IChannelWriteInterface.class);
+        when(outputCcb.getWriteInterface()).thenReturn(outputWriteInterface);
+        when(outputWriteInterface.getFullBufferAcceptor()).thenReturn(new ICloseableBufferAcceptor() {
+            @Override
+            public void accept(ByteBuffer buffer) {
+                assertEquals(FRAME_SIZE, buffer.remaining());
+                ByteBuffer copy = ByteBuffer.allocate(buffer.remaining());
+                copy.put(buffer);
+                copy.flip();
+                sentBuffers.add(copy);
+                outputEmptyBufferAcceptor.accept(buffer);
+            }
+
+            @Override
+            public void close() {
+                outputClosed = true;
+            }
+
+            @Override
+            public void error(int ecode) {
+                throw new AssertionError("unexpected error " + ecode);
+            }
+        });
+        outputChannel = new NetworkOutputChannel(outputCcb, N_BUFFERS);
+        ArgumentCaptor<IBufferAcceptor> emptyBufferAcceptor = ArgumentCaptor.forClass(IBufferAcceptor.class);
+        verify(outputWriteInterface).setEmptyBufferAcceptor(emptyBufferAcceptor.capture());
+        outputEmptyBufferAcceptor = emptyBufferAcceptor.getValue();
+        outputChannel.setFrameSize(FRAME_SIZE);
+        outputChannel.setCompressor(SnappyFrameCompressor.INSTANCE);
+        outputChannel.open();
+
+        IChannelControlBlock inputCcb = mock(IChannelControlBlock.class);
+        IChannelReadInterface inputReadInterface = mock(IChannelReadInterface.class);
+        IChannelWriteInterface inputWriteInterface = mock(IChannelWriteInterface.class);
+        when(inputCcb.getReadInterface()).thenReturn(inputReadInterface);
+        when(inputCcb.getWriteInterface()).thenReturn(inputWriteInterface);
+        when(inputReadInterface.getEmptyBufferAcceptor()).thenReturn(mock(IBufferAcceptor.class));
+        when(inputWriteInterface.getFullBufferAcceptor()).thenReturn(mock(ICloseableBufferAcceptor.class));
+        IChannelConnectionFactory connectionFactory = mock(IChannelConnectionFactory.class);
+        when(connectionFactory.connect(any())).thenReturn(inputCcb);
+        IHyracksCommonContext ctx = mock(IHyracksCommonContext.class);
+        when(ctx.getInitialFrameSize()).thenReturn(FRAME_SIZE);
+        inputChannel = new NetworkInputChannel(connectionFactory, null,
+                new PartitionId(new JobId(1), new ConnectorDescriptorId(1), 0, 0), N_BUFFERS,
+                SnappyFrameCompressor.INSTANCE);
+        inputChannel.registerMonitor(new IInputChannelMonitor() {
+            @Override
+            public void notifyFailure(IInputChannel channel, int errorCode) {
+                throw new AssertionError("unexpected failure " + errorCode);
+            }
+
+            @Override
+            public void notifyDataAvailability(IInputChannel channel, int nFrames) {
+                // the buffers are polled after every received buffer
+            }
+
+            @Override
+            public void notifyEndOfStream(IInputChannel channel) {
+                endOfStreams++;
+            }
+        });
+        inputChannel.open(ctx);
+        ArgumentCaptor<ICloseableBufferAcceptor> fullBufferAcceptor =
+                ArgumentCaptor.forClass(ICloseableBufferAcceptor.class);
+        verify(inputReadInterface).setFullBufferAcceptor(fullBufferAcceptor.capture());
+        receiver = fullBufferAcceptor.getValue();
+    }
+
+    @Test
+    public void blocksSpanBuffers() throws Exception {
+        // incompressible frames compress to more than a buffer
+        for (int i = 0; i < 10; i++) {
+            send(randomFrame(FRAME_SIZE));
+        }
+        outputChannel.close();
+        assertTrue(sentBuffers.size() > 10);
+        receiveAll();
+    }
+
+    @Test
+    public void manyBlocksPerBuffer() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            send(compressibleFrame(FRAME_SIZE));
+        }
+        outputChannel.close();
+        assertTrue(sentBuffers.size() < 20);
+        receiveAll();
+    }
+
+    @Test
+    public void framesLargerThanBuffer() throws Exception {
+        send(randomFrame(FRAME_SIZE * 7 / 2));
+        send(compressibleFrame(FRAME_SIZE * 3));
+        send(randomFrame(FRAME_SIZE / 2));
+        send(compressibleFrame(FRAME_SIZE * 5 / 2));
+        outputChannel.close();
+        assertEquals(4 + 3 + 1 + 3, expectedPieces.size());
+        receiveAll();
+    }
+
+    @Test
+    public void headerDoesNotFit() throws Exception {
+        // a block that leaves less than a block header at the end of the first buffer
+        byte[] frame = null;
+        for (int length = 1; length < FRAME_SIZE && frame == null; length++) {
+            byte[] candidate = randomFrame(length);
+            int remaining = FRAME_SIZE - NetworkOutputChannel.BLOCK_HEADER_SIZE - compressedLength(candidate);
+            if (remaining > 0 && remaining < NetworkOutputChannel.BLOCK_HEADER_SIZE) {
+                frame = candidate;
+            }
+        }
+        assertTrue("no frame leaves a partial block header", frame != null);
+        send(frame);
+        assertEquals(0, sentBuffers.size());
+        // the header of the next block goes to the next buffer, without a 0-length marker
+        send(compressibleFrame(FRAME_SIZE));
+        assertEquals(1, sentBuffers.size());
+        send(randomFrame(FRAME_SIZE));
+        outputChannel.close();
+        receiveAll();
+    }
+
+    @Test
+    public void flushMarksUnusedEndOfBuffer() throws Exception {
+        byte[] frame = compressibleFrame(FRAME_SIZE);
+        int compressedLength = compressedLength(frame);
+        send(frame);
+        outputChannel.flush();
+        assertEquals(1, sentBuffers.size());
+        ByteBuffer buffer = sentBuffers.get(0);
+        assertEquals(compressedLength, buffer.getInt(0));
+        assertEquals(FRAME_SIZE, buffer.getInt(Integer.BYTES));
+        assertEquals(0, buffer.getInt(NetworkOutputChannel.BLOCK_HEADER_SIZE + compressedLength));
+        // nothing is pending, flushing again does not send anything
+        outputChannel.flush();
+        assertEquals(1, sentBuffers.size());
+        // partial buffers in the middle of the stream
+        send(randomFrame(FRAME_SIZE * 3 / 2));
+        outputChannel.flush();
+        send(compressibleFrame(FRAME_SIZE / 4));
+        outputChannel.flush();
+        send(compressibleFrame(FRAME_SIZE));
+        outputChannel.close();
+        receiveAll();
+    }
+
+    @Test
+    public void closeSendsPartialBuffer() throws Exception {
+        send(compressibleFrame(FRAME_SIZE / 2));
+        assertEquals(0, sentBuffers.size());
+        outputChannel.close();
+        assertTrue(outputClosed);
+        assertEquals(1, sentBuffers.size());
+        receiveAll();
+    }
+
+    private void send(byte[] frame) throws Exception {
+        outputChannel.nextFrame(ByteBuffer.wrap(frame));
+        for (int start = 0; start < frame.length; start += FRAME_SIZE) {
+            expectedPieces.add(Arrays.copyOfRange(frame, start, Math.min(frame.length, start + FRAME_SIZE)));
+        }
+    }
+
+    private void receiveAll() throws Exception {
+        for (ByteBuffer buffer : sentBuffers) {
+            receiver.accept(buffer);
+            for (ByteBuffer piece = inputChannel.getNextBuffer(); piece != null; piece =
+                    inputChannel.getNextBuffer()) {
+                byte[] bytes = new byte[piece.remaining()];
+                piece.get(bytes);
+                receivedPieces.add(bytes);
+                inputChannel.recycleBuffer(piece);
+            }
+        }
+        receiver.close();
+        assertEquals(1, endOfStreams);
+        assertEquals(expectedPieces.size(), receivedPieces.size());
+        for (int i = 0; i < expectedPieces.size(); i++) {
+            assertArrayEquals("piece " + i, expectedPieces.get(i), receivedPieces.get(i));
+        }
+    }
+
+    private static int compressedLength(byte[] frame) throws Exception {
+        ByteBuffer compressed =
+                ByteBuffer.allocate(SnappyFrameCompressor.INSTANCE.computeCompressedBufferSize(frame.length));
+        return SnappyFrameCompressor.INSTANCE.compress(ByteBuffer.wrap(frame), compressed).remaining();
+    }
+
+    private byte[] randomFrame(int length) {
+        byte[] frame = new byte[length];
+        random.nextBytes(frame);
+        return frame;
+    }
+
+    private byte[] compressibleFrame(int length) {
+        byte[] frame = new byte[length];
+        Arrays.fill(frame, (byte) random.nextInt());
+        frame[0] = (byte) length;
+        return frame;
+    }
+}
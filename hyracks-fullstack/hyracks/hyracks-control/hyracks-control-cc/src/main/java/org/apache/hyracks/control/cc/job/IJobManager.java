@@ -27,6 +27,8 @@ import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobStatus;
 import org.apache.hyracks.control.common.work.IResultCallback;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
 /**
  * This interface abstracts the job lifecycle management and job scheduling for a cluster.
  */
@@ -125,4 +127,9 @@ public interface IJobManager {
      * @return the maximum number of jobs to queue before rejecting new jobs
      */
     int getJobQueueCapacity();
+
+    /**
+     * @return the state of the job queue in JSON.
+     */
+    ObjectNode getJobQueueJSON();
 }
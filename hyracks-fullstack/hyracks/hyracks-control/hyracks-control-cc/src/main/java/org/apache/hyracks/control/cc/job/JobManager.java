@@ -71,9 +71,7 @@ public class JobManager implements IJobManager {
         this.ccs = ccs;
         this.jobCapacityController = jobCapacityController;
         try {
-            Constructor<?> jobQueueConstructor = this.getClass().getClassLoader().loadClass(ccConfig.getJobQueueClass())
-                    .getConstructor(IJobManager.class, IJobCapacityController.class);
-            jobQueue = (IJobQueue) jobQueueConstructor.newInstance(this, this.jobCapacityController);
+            jobQueue = createJobQueue(ccConfig.getJobQueueClass());
         } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | NoSuchMethodException
                 | InvocationTargetException e) {
             if (LOGGER.isWarnEnabled()) {
@@ -103,11 +101,25 @@ public class JobManager implements IJobManager {
         };
     }
 
+    private IJobQueue createJobQueue(String jobQueueClassName) throws ClassNotFoundException, InstantiationException,
+            IllegalAccessException, NoSuchMethodException, InvocationTargetException {
+        Class<?> jobQueueClass = this.getClass().getClassLoader().loadClass(jobQueueClassName);
+        try {
+            Constructor<?> jobQueueConstructor = jobQueueClass.getConstructor(IJobManager.class,
+                    IJobCapacityController.class, ClusterControllerService.class);
+            return (IJobQueue) jobQueueConstructor.newInstance(this, jobCapacityController, ccs);
+        } catch (NoSuchMethodException e) {
+            Constructor<?> jobQueueConstructor =
+                    jobQueueClass.getConstructor(IJobManager.class, IJobCapacityController.class);
+            return (IJobQueue) jobQueueConstructor.newInstance(this, jobCapacityController);
+        }
+    }
+
     @Override
     public void add(JobRun jobRun) throws HyracksException {
         checkJob(jobRun);
         JobSpecification job = jobRun.getJobSpecification();
-        IJobCapacityController.JobSubmissionStatus status = jobCapacityController.allocate(job);
+        IJobCapacityController.JobSubmissionStatus status = jobQueue.allocate(jobRun, jobCapacityController);
         CCServiceContext serviceCtx = ccs.getContext();
         serviceCtx.notifyJobCreation(jobRun.getJobId(), job);
         switch (status) {
@@ -295,6 +307,11 @@ public class JobManager implements IJobManager {
         return ccs.getCCConfig().getJobQueueCapacity();
     }
 
+    @Override
+    public ObjectNode getJobQueueJSON() {
+        return jobQueue.toJSON();
+    }
+
     private void pickJobsToRun() throws HyracksException {
         List<JobRun> selectedRuns = jobQueue.pull();
         for (JobRun run : selectedRuns) {
@@ -348,5 +365,6 @@ public class JobManager implements IJobManager {
     private void releaseJobCapacity(JobRun jobRun) {
         final JobSpecification job = jobRun.getJobSpecification();
         jobCapacityController.release(job);
+        jobQueue.release(jobRun);
     }
 }
@@ -24,13 +24,46 @@ import java.util.List;
 
 import org.apache.hyracks.api.exceptions.HyracksException;
 import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.resource.IJobCapacityController;
+import org.apache.hyracks.api.job.resource.IJobCapacityController.JobSubmissionStatus;
 import org.apache.hyracks.control.cc.job.JobRun;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
 /**
  * This interface specifies a job queue.
  */
 public interface IJobQueue {
 
+    /**
+     * Allocates the required capacity of a newly submitted job if it can be executed immediately.
+     * Implementations can make a job wait behind the queued jobs, even if the cluster has enough capacity for it.
+     *
+     * @param run,
+     *            the descriptor of a job.
+     * @param jobCapacityController,
+     *            the capacity controller of the cluster.
+     * @return EXECUTE, if the job can be executed immediately;
+     *         QUEUE, if the job has to be added to the queue
+     * @throws HyracksException
+     *             if the job's capacity requirement exceeds the maximum capacity of the cluster.
+     */
+    default JobSubmissionStatus allocate(JobRun run, IJobCapacityController jobCapacityController)
+            throws HyracksException {
+        return jobCapacityController.allocate(run.getJobSpecification());
+    }
+
+    /**
+     * Notifies the queue that a job that was allocated or pulled from the queue has completed.
+     *
+     * @param run,
+     *            the descriptor of a job.
+     */
+    default void release(JobRun run) {
+        // no bookkeeping of running jobs by default
+    }
+
     /**
      * Adds a job into the job queue.
      *
@@ -73,4 +106,13 @@ public interface IJobQueue {
      * Clears the job queue
      */
     void clear();
+
+    /**
+     * @return the state of the job queue in JSON.
+     */
+    default ObjectNode toJSON() {
+        ObjectNode json = new ObjectMapper().createObjectNode();
+        json.put("pending", jobs().size());
+        return json;
+    }
 }
@@ -0,0 +1,465 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.cc.scheduler;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksException;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.api.job.JobStatus;
+import org.apache.hyracks.api.job.resource.IClusterCapacity;
+import org.apache.hyracks.api.job.resource.IJobCapacityController;
+import org.apache.hyracks.api.job.resource.IJobCapacityController.JobSubmissionStatus;
+import org.apache.hyracks.control.cc.ClusterControllerService;
+import org.apache.hyracks.control.cc.job.IJobManager;
+import org.apache.hyracks.control.cc.job.JobRun;
+import org.apache.hyracks.control.common.controllers.CCConfig;
+import org.apache.hyracks.util.annotations.GuardedBy;
+import org.apache.hyracks.util.annotations.NotThreadSafe;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * An implementation of IJobQueue that splits the jobs into named resource pools, so that long running jobs of one
+ * pool cannot hold back the jobs of another pool. Each pool has
+ * <ul>
+ * <li>a weight: when several pools have jobs waiting, the pool with the fewest running jobs relative to its weight
+ * is served first,</li>
+ * <li>a maximum number of concurrently running jobs (0 means no limit),</li>
+ * <li>a memory share: the fraction of the cluster memory its running jobs may hold together.</li>
+ * </ul>
+ * The pools are configured by {@link CCConfig.Option#JOB_QUEUE_POOLS} as a comma separated list of
+ * {@code name:weight:maxConcurrentJobs:memoryShare}. The first pool is the default pool.
+ * <p>
+ * A job is routed to the pool named by its {@link #POOL} property. Otherwise the {@link #USER} and
+ * {@link #DATAVERSE} properties of the job are looked up in {@link CCConfig.Option#JOB_QUEUE_ROUTES}, a comma
+ * separated list of {@code user:<name>=<pool>} and {@code dataverse:<name>=<pool>} entries. Jobs that do not match
+ * any route run in the default pool.
+ * <p>
+ * Jobs that require at most {@link CCConfig.Option#JOB_QUEUE_FAST_LANE_MEMORY} bytes of memory use the fast lane
+ * of their pool: they are served before the other jobs of the pool and are not subject to the pool limits, but to
+ * {@link CCConfig.Option#JOB_QUEUE_FAST_LANE_CONCURRENCY} instead.
+ */
+@NotThreadSafe
+@GuardedBy("JobManager")
+public class MultiQueueJobQueue implements IJobQueue {
+
+    /**
+     * The job property naming the resource pool of a job.
+     */
+    public static final String POOL = "job-queue.pool";
+    /**
+     * The job property holding the user that submitted a job.
+     */
+    public static final String USER = "job-queue.user";
+    /**
+     * The job property holding the dataverse a job runs in.
+     */
+    public static final String DATAVERSE = "job-queue.dataverse";
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final String USER_ROUTE_PREFIX = "user:";
+    private static final String DATAVERSE_ROUTE_PREFIX = "dataverse:";
+
+    private final IJobManager jobManager;
+    private final IJobCapacityController jobCapacityController;
+    private final IResourceManager resourceManager;
+    private final int jobQueueCapacity;
+    private final Map<String, ResourcePool> pools = new LinkedHashMap<>();
+    private final ResourcePool defaultPool;
+    private final Map<String, ResourcePool> routes = new HashMap<>();
+    private final long fastLaneMemory;
+    private final int fastLaneConcurrency;
+    // the pools and lanes of the pending and running jobs
+    private final Map<JobId, Lane> jobLanes = new HashMap<>();
+    private int size;
+    private int runningFastLaneJobs;
+
+    public MultiQueueJobQueue(IJobManager jobManager, IJobCapacityController jobCapacityController,
+            ClusterControllerService ccs) {
+        this.jobManager = jobManager;
+        this.jobCapacityController = jobCapacityController;
+        this.resourceManager = ccs.getResourceManager();
+        this.jobQueueCapacity = jobManager.getJobQueueCapacity();
+        CCConfig ccConfig = ccs.getCCConfig();
+        for (String poolDef : split(ccConfig.getJobQueuePools())) {
+            ResourcePool pool = ResourcePool.parse(poolDef);
+            if (pools.put(pool.name, pool) != null) {
+                throw new IllegalArgumentException("duplicate resource pool " + pool.name);
+            }
+        }
+        if (pools.isEmpty()) {
+            throw new IllegalArgumentException("no resource pool is configured");
+        }
+        defaultPool = pools.values().iterator().next();
+        for (String route : split(ccConfig.getJobQueueRoutes())) {
+            int idx = route.lastIndexOf('=');
+            ResourcePool pool = idx < 0 ? null : pools.get(route.substring(idx + 1).trim());
+            String key = idx < 0 ? "" : route.substring(0, idx).trim();
+            if (pool == null || !(key.startsWith(USER_ROUTE_PREFIX) || key.startsWith(DATAVERSE_ROUTE_PREFIX))) {
+                throw new IllegalArgumentException("invalid job queue route " + route);
+            }
+            routes.put(key, pool);
+        }
+        fastLaneMemory = ccConfig.getJobQueueFastLaneMemory();
+        fastLaneConcurrency = ccConfig.getJobQueueFastLaneConcurrency();
+    }
+
+    @Override
+    public JobSubmissionStatus allocate(JobRun run, IJobCapacityController capacityController)
+            throws HyracksException {
+        Lane lane = getLane(run);
+        jobLanes.put(run.getJobId(), lane);
+        long requiredMemory = getRequiredMemory(run);
+        // jobs queue up behind the waiting jobs of their lane
+        if (!lane.jobs.isEmpty() || !canStart(lane, requiredMemory)) {
+            return JobSubmissionStatus.QUEUE;
+        }
+        JobSubmissionStatus status;
+        try {
+            status = capacityController.allocate(run.getJobSpecification());
+        } catch (HyracksException e) {
+            jobLanes.remove(run.getJobId());
+            throw e;
+        }
+        if (status == JobSubmissionStatus.EXECUTE) {
+            start(lane, run, requiredMemory);
+        }
+        return status;
+    }
+
+    @Override
+    public void add(JobRun run) throws HyracksException {
+        if (size >= jobQueueCapacity) {
+            jobLanes.remove(run.getJobId());
+            throw HyracksException.create(ErrorCode.JOB_QUEUE_FULL, jobQueueCapacity);
+        }
+        Lane lane = jobLanes.computeIfAbsent(run.getJobId(), jobId -> getLane(run));
+        lane.jobs.put(run.getJobId(), run);
+        size++;
+    }
+
+    @Override
+    public JobRun remove(JobId jobId) {
+        Lane lane = jobLanes.get(jobId);
+        JobRun run = lane == null ? null : lane.jobs.remove(jobId);
+        if (run != null) {
+            jobLanes.remove(jobId);
+            size--;
+        }
+        return run;
+    }
+
+    @Override
+    public JobRun get(JobId jobId) {
+        Lane lane = jobLanes.get(jobId);
+        return lane == null ? null : lane.jobs.get(jobId);
+    }
+
+    @Override
+    public List<JobRun> pull() {
+        List<JobRun> jobRuns = new ArrayList<>();
+        List<Lane> lanes = new ArrayList<>();
+        for (ResourcePool pool : pools.values()) {
+            if (!pool.fastLane.jobs.isEmpty()) {
+                lanes.add(pool.fastLane);
+            }
+            if (!pool.lane.jobs.isEmpty()) {
+                lanes.add(pool.lane);
+            }
+        }
+        while (!lanes.isEmpty()) {
+            // fast lanes first, then the lane whose pool has the lowest weighted load
+            Lane next = null;
+            for (Lane lane : lanes) {
+                if (next == null || (lane.fast && !next.fast)
+                        || (lane.fast == next.fast && lane.pool.getWeightedLoad() < next.pool.getWeightedLoad())) {
+                    next = lane;
+                }
+            }
+            JobRun run = pullFromLane(next);
+            if (run == null) {
+                lanes.remove(next);
+            } else {
+                jobRuns.add(run);
+                if (next.jobs.isEmpty()) {
+                    lanes.remove(next);
+                }
+            }
+        }
+        return jobRuns;
+    }
+
+    // Starts the first job of the lane that fits the lane limits and the cluster capacity.
+    private JobRun pullFromLane(Lane lane) {
+        Iterator<JobRun> runIterator = lane.jobs.values().iterator();
+        while (runIterator.hasNext()) {
+            if (isConcurrencyExhausted(lane)) {
+                return null;
+            }
+            JobRun run = runIterator.next();
+            long requiredMemory = getRequiredMemory(run);
+            if (!canStart(lane, requiredMemory)) {
+                continue;
+            }
+            JobSpecification job = run.getJobSpecification();
+            try {
+                // Cluster maximum capacity can change over time, thus we have to re-check if the job should be
+                // rejected or not.
+                if (jobCapacityController.allocate(job) == JobSubmissionStatus.EXECUTE) {
+                    runIterator.remove();
+                    size--;
+                    start(lane, run, requiredMemory);
+                    return run;
+                }
+            } catch (HyracksException exception) {
+                // The required capacity exceeds maximum capacity.
+                List<Exception> exceptions = new ArrayList<>();
+                exceptions.add(exception);
+                runIterator.remove();
+                size--;
+                jobLanes.remove(run.getJobId());
+                try {
+                    // Fails the job.
+                    jobManager.prepareComplete(run, JobStatus.FAILURE_BEFORE_EXECUTION, exceptions);
+                } catch (HyracksException e) {
+                    LOGGER.log(Level.ERROR, e.getMessage(), e);
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void release(JobRun run) {
+        Lane lane = jobLanes.remove(run.getJobId());
+        if (lane != null) {
+            lane.running--;
+            lane.pool.usedMemory -= getRequiredMemory(run);
+            if (lane.fast) {
+                runningFastLaneJobs--;
+            }
+        }
+    }
+
+    @Override
+    public Collection<JobRun> jobs() {
+        List<JobRun> jobRuns = new ArrayList<>(size);
+        for (ResourcePool pool : pools.values()) {
+            jobRuns.addAll(pool.fastLane.jobs.values());
+            jobRuns.addAll(pool.lane.jobs.values());
+        }
+        return Collections.unmodifiableCollection(jobRuns);
+    }
+
+    @Override
+    public void clear() {
+        for (ResourcePool pool : pools.values()) {
+            jobLanes.keySet().removeAll(pool.fastLane.jobs.keySet());
+            jobLanes.keySet().removeAll(pool.lane.jobs.keySet());
+            pool.fastLane.jobs.clear();
+            pool.lane.jobs.clear();
+        }
+        size = 0;
+    }
+
+    @Override
+    public ObjectNode toJSON() {
+        ObjectMapper om = new ObjectMapper();
+        ObjectNode json = om.createObjectNode();
+        json.put("pending", size);
+        json.put("fast-lane-memory", fastLaneMemory);
+        json.put("fast-lane-concurrency", fastLaneConcurrency);
+        json.put("fast-lane-running", runningFastLaneJobs);
+        ArrayNode poolsJson = json.putArray("pools");
+        for (ResourcePool pool : pools.values()) {
+            ObjectNode poolJson = poolsJson.addObject();
+            poolJson.put("name", pool.name);
+            poolJson.put("weight", pool.weight);
+            poolJson.put("max-concurrency", pool.maxConcurrency);
+            poolJson.put("memory-share", pool.memoryShare);
+            poolJson.put("used-memory", pool.usedMemory);
+            poolJson.set("lane", pool.lane.toJSON(om));
+            poolJson.set("fast-lane", pool.fastLane.toJSON(om));
+        }
+        return json;
+    }
+
+    private boolean isConcurrencyExhausted(Lane lane) {
+        if (lane.fast) {
+            return fastLaneConcurrency > 0 && runningFastLaneJobs >= fastLaneConcurrency;
+        }
+        return lane.pool.maxConcurrency > 0 && lane.running >= lane.pool.maxConcurrency;
+    }
+
+    private boolean canStart(Lane lane, long requiredMemory) {
+        if (isConcurrencyExhausted(lane)) {
+            return false;
+        }
+        if (lane.fast || lane.pool.memoryShare >= 1.0 || requiredMemory == 0) {
+            return true;
+        }
+        // a job that needs more than the share of its pool can still run when the pool is idle
+        return lane.pool.usedMemory == 0
+                || lane.pool.usedMemory + requiredMemory <= lane.pool.memoryShare * getMaxMemory();
+    }
+
+    private void start(Lane lane, JobRun run, long requiredMemory) {
+        lane.running++;
+        lane.pool.usedMemory += requiredMemory;
+        if (lane.fast) {
+            runningFastLaneJobs++;
+        }
+        long waitTime = Math.max(0, System.currentTimeMillis() - run.getCreateTime());
+        lane.started++;
+        lane.totalWaitTime += waitTime;
+        lane.maxWaitTime = Math.max(lane.maxWaitTime, waitTime);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("starting job {} in {} of pool {} after waiting {} ms", run.getJobId(),
+                    lane.fast ? "fast lane" : "lane", lane.pool.name, waitTime);
+        }
+    }
+
+    private Lane getLane(JobRun run) {
+        ResourcePool pool = getPool(run.getJobSpecification());
+        return isFastLaneJob(run) ? pool.fastLane : pool.lane;
+    }
+
+    private ResourcePool getPool(JobSpecification job) {
+        ResourcePool pool = pools.get(getProperty(job, POOL));
+        if (pool == null) {
+            pool = routes.get(USER_ROUTE_PREFIX + getProperty(job, USER));
+        }
+        if (pool == null) {
+            pool = routes.get(DATAVERSE_ROUTE_PREFIX + getProperty(job, DATAVERSE));
+        }
+        return pool == null ? defaultPool : pool;
+    }
+
+    private boolean isFastLaneJob(JobRun run) {
+        IClusterCapacity capacity = run.getJobSpecification().getRequiredClusterCapacity();
+        return fastLaneMemory > 0 && capacity != null && capacity.getAggregatedMemoryByteSize() <= fastLaneMemory;
+    }
+
+    private long getMaxMemory() {
+        return resourceManager.getMaximumCapacity().getAggregatedMemoryByteSize();
+    }
+
+    private static long getRequiredMemory(JobRun run) {
+        IClusterCapacity capacity = run.getJobSpecification().getRequiredClusterCapacity();
+        return capacity == null ? 0 : capacity.getAggregatedMemoryByteSize();
+    }
+
+    private static String getProperty(JobSpecification job, String name) {
+        Serializable value = job.getProperty(name);
+        return value == null ? null : value.toString();
+    }
+
+    private static List<String> split(String list) {
+        List<String> items = new ArrayList<>();
+        if (list != null) {
+            for (String item : list.split(",")) {
+                if (!item.trim().isEmpty()) {
+                    items.add(item.trim());
+                }
+            }
+        }
+        return items;
+    }
+
+    private static class ResourcePool {
+        private final String name;
+        private final int weight;
+        private final int maxConcurrency;
+        private final double memoryShare;
+        private final Lane lane = new Lane(this, false);
+        private final Lane fastLane = new Lane(this, true);
+        private long usedMemory;
+
+        private ResourcePool(String name, int weight, int maxConcurrency, double memoryShare) {
+            this.name = name;
+            this.weight = weight;
+            this.maxConcurrency = maxConcurrency;
+            this.memoryShare = memoryShare;
+        }
+
+        private double getWeightedLoad() {
+            return (double) (lane.running + fastLane.running) / weight;
+        }
+
+        private static ResourcePool parse(String poolDef) {
+            String[] parts = poolDef.split(":");
+            try {
+                if (parts.length == 4 && !parts[0].trim().isEmpty()) {
+                    int weight = Integer.parseInt(parts[1].trim());
+                    int maxConcurrency = Integer.parseInt(parts[2].trim());
+                    double memoryShare = Double.parseDouble(parts[3].trim());
+                    if (weight > 0 && maxConcurrency >= 0 && memoryShare > 0 && memoryShare <= 1) {
+                        return new ResourcePool(parts[0].trim(), weight, maxConcurrency, memoryShare);
+                    }
+                }
+            } catch (NumberFormatException e) {
+                // reported below
+            }
+            throw new IllegalArgumentException("invalid resource pool " + poolDef
+                    + ", expected name:weight(>0):maxConcurrentJobs(>=0):memoryShare(0..1]");
+        }
+    }
+
+    private static class Lane {
+        private final ResourcePool pool;
+        private final boolean fast;
+        private final Map<JobId, JobRun> jobs = new LinkedHashMap<>();
+        private int running;
+        // wait time metrics of the jobs started from this lane
+        private long started;
+        private long totalWaitTime;
+        private long maxWaitTime;
+
+        private Lane(ResourcePool pool, boolean fast) {
+            this.pool = pool;
+            this.fast = fast;
+        }
+
+        private ObjectNode toJSON(ObjectMapper om) {
+            ObjectNode json = om.createObjectNode();
+            json.put("pending", jobs.size());
+            json.put("running", running);
+            json.put("started", started);
+            json.put("avg-wait-time", started == 0 ? 0 : totalWaitTime / started);
+            json.put("max-wait-time", maxWaitTime);
+            return json;
+        }
+    }
+}
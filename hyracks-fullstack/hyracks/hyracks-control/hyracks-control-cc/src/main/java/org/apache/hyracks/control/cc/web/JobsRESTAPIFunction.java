@@ -26,6 +26,7 @@ import org.apache.hyracks.control.cc.ClusterControllerService;
 import org.apache.hyracks.control.cc.web.util.IJSONOutputFunction;
 import org.apache.hyracks.control.cc.web.util.JSONOutputRequestUtil;
 import org.apache.hyracks.control.cc.work.GetActivityClusterGraphJSONWork;
+import org.apache.hyracks.control.cc.work.GetJobQueueJSONWork;
 import org.apache.hyracks.control.cc.work.GetJobRunJSONWork;
 import org.apache.hyracks.control.cc.work.GetJobSummariesJSONWork;
 
@@ -49,6 +50,12 @@ public class JobsRESTAPIFunction implements IJSONOutputFunction {
         ObjectNode result = om.createObjectNode();
         switch (arguments.length) {
             case 1:
+                if ("queue".equalsIgnoreCase(arguments[0])) {
+                    GetJobQueueJSONWork gjqe = new GetJobQueueJSONWork(ccs.getJobManager());
+                    ccs.getWorkQueue().scheduleAndSync(gjqe);
+                    result.set("result", gjqe.getJSON());
+                    break;
+                }
                 if (!"".equals(arguments[0])) {
                     break;
                 }
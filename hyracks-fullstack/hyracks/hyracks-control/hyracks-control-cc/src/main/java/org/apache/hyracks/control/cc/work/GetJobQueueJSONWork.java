@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.cc.work;
+
+import org.apache.hyracks.control.cc.job.IJobManager;
+import org.apache.hyracks.control.common.work.SynchronizableWork;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+public class GetJobQueueJSONWork extends SynchronizableWork {
+    private final IJobManager jobManager;
+    private ObjectNode json;
+
+    public GetJobQueueJSONWork(IJobManager jobManager) {
+        this.jobManager = jobManager;
+    }
+
+    @Override
+    protected void doRun() throws Exception {
+        json = jobManager.getJobQueueJSON();
+    }
+
+    public ObjectNode getJSON() {
+        return json;
+    }
+}
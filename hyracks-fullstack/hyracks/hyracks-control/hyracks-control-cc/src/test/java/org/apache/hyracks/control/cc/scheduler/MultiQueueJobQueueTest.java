@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.cc.scheduler;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.hyracks.api.exceptions.HyracksException;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.api.job.JobStatus;
+import org.apache.hyracks.api.job.resource.ClusterCapacity;
+import org.apache.hyracks.api.job.resource.IJobCapacityController;
+import org.apache.hyracks.control.cc.ClusterControllerService;
+import org.apache.hyracks.control.cc.NodeControllerState;
+import org.apache.hyracks.control.cc.application.CCServiceContext;
+import org.apache.hyracks.control.cc.cluster.INodeManager;
+import org.apache.hyracks.control.cc.cluster.NodeManager;
+import org.apache.hyracks.control.cc.job.IJobManager;
+import org.apache.hyracks.control.cc.job.JobManager;
+import org.apache.hyracks.control.cc.job.JobRun;
+import org.apache.hyracks.control.common.controllers.CCConfig;
+import org.apache.hyracks.control.common.ipc.NodeControllerRemoteProxy;
+import org.apache.hyracks.control.common.logs.LogFile;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.kohsuke.args4j.CmdLineException;
+import org.mockito.Mockito;
+
+public class MultiQueueJobQueueTest {
+
+    private static final long MAX_MEMORY = 100;
+
+    private CCConfig ccConfig;
+    private IJobCapacityController jobCapacityController;
+    private long nextJobId;
+
+    @Before
+    public void setup() throws IOException, CmdLineException {
+        ccConfig = new CCConfig();
+        ccConfig.getConfigManager().processConfig();
+        ccConfig.setJobQueueClass(MultiQueueJobQueue.class.getName());
+        jobCapacityController = mock(IJobCapacityController.class);
+        when(jobCapacityController.allocate(any())).thenReturn(IJobCapacityController.JobSubmissionStatus.EXECUTE);
+    }
+
+    @Test
+    public void testPoolConcurrency() throws HyracksException {
+        ccConfig.getConfigManager().set(CCConfig.Option.JOB_QUEUE_POOLS, "interactive:4:0:1,batch:1:1:1");
+        ccConfig.getConfigManager().set(CCConfig.Option.JOB_QUEUE_ROUTES, "user:analyst=batch");
+        IJobManager jobManager = new JobManager(ccConfig, mockClusterControllerService(), jobCapacityController);
+
+        JobRun batch1 = mockJobRun(MultiQueueJobQueue.POOL, "batch", 0);
+        JobRun batch2 = mockJobRun(MultiQueueJobQueue.POOL, "batch", 0);
+        JobRun routed = mockJobRun(MultiQueueJobQueue.USER, "analyst", 0);
+        JobRun interactive = mockJobRun(null, null, 0);
+        jobManager.add(batch1);
+        jobManager.add(batch2);
+        jobManager.add(routed);
+        // the batch pool runs one job at a time, the default pool is not held back by it
+        jobManager.add(interactive);
+        Assert.assertEquals(2, jobManager.getRunningJobs().size());
+        Assert.assertEquals(2, jobManager.getPendingJobs().size());
+        Assert.assertTrue(jobManager.getRunningJobs().contains(interactive));
+
+        complete(jobManager, batch1);
+        Assert.assertTrue(jobManager.getRunningJobs().contains(batch2));
+        Assert.assertEquals(1, jobManager.getPendingJobs().size());
+        Assert.assertTrue(jobManager.getPendingJobs().contains(routed));
+        complete(jobManager, batch2);
+        Assert.assertTrue(jobManager.getRunningJobs().contains(routed));
+        Assert.assertTrue(jobManager.getPendingJobs().isEmpty());
+    }
+
+    @Test
+    public void testMemoryShare() throws HyracksException {
+        ccConfig.getConfigManager().set(CCConfig.Option.JOB_QUEUE_POOLS, "small:1:0:0.5,large:1:0:1");
+        IJobManager jobManager = new JobManager(ccConfig, mockClusterControllerService(), jobCapacityController);
+
+        JobRun run1 = mockJobRun(null, null, 40);
+        JobRun run2 = mockJobRun(null, null, 40);
+        JobRun run3 = mockJobRun(MultiQueueJobQueue.POOL, "large", 40);
+        jobManager.add(run1);
+        // exceeds the memory share of the pool
+        jobManager.add(run2);
+        jobManager.add(run3);
+        Assert.assertEquals(2, jobManager.getRunningJobs().size());
+        Assert.assertTrue(jobManager.getPendingJobs().contains(run2));
+
+        complete(jobManager, run1);
+        Assert.assertTrue(jobManager.getRunningJobs().contains(run2));
+        Assert.assertTrue(jobManager.getPendingJobs().isEmpty());
+    }
+
+    @Test
+    public void testFastLane() throws HyracksException {
+        ccConfig.getConfigManager().set(CCConfig.Option.JOB_QUEUE_POOLS, "default:1:1:1");
+        ccConfig.getConfigManager().set(CCConfig.Option.JOB_QUEUE_FAST_LANE_MEMORY, 10L);
+        IJobManager jobManager = new JobManager(ccConfig, mockClusterControllerService(), jobCapacityController);
+
+        JobRun large1 = mockJobRun(null, null, 50);
+        JobRun large2 = mockJobRun(null, null, 50);
+        JobRun small = mockJobRun(null, null, 5);
+        jobManager.add(large1);
+        jobManager.add(large2);
+        // small jobs do not wait behind the large ones
+        jobManager.add(small);
+        Assert.assertTrue(jobManager.getRunningJobs().contains(small));
+        Assert.assertTrue(jobManager.getPendingJobs().contains(large2));
+
+        complete(jobManager, small);
+        Assert.assertTrue(jobManager.getPendingJobs().contains(large2));
+        complete(jobManager, large1);
+        Assert.assertTrue(jobManager.getRunningJobs().contains(large2));
+    }
+
+    private static void complete(IJobManager jobManager, JobRun run) throws HyracksException {
+        jobManager.prepareComplete(run, JobStatus.TERMINATED, Collections.emptyList());
+        jobManager.finalComplete(run);
+    }
+
+    private JobRun mockJobRun(String property, String value, long memory) {
+        JobRun run = mock(JobRun.class, Mockito.RETURNS_DEEP_STUBS);
+        when(run.getExceptions()).thenReturn(Collections.emptyList());
+        when(run.getPendingExceptions()).thenReturn(Collections.emptyList());
+        when(run.getJobId()).thenReturn(new JobId(nextJobId++));
+        Set<String> nodes = new HashSet<>();
+        when(run.getParticipatingNodeIds()).thenReturn(nodes);
+        when(run.getCleanupPendingNodeIds()).thenReturn(nodes);
+
+        JobSpecification job = mock(JobSpecification.class);
+        when(run.getJobSpecification()).thenReturn(job);
+        if (property != null) {
+            when(job.getProperty(property)).thenReturn(value);
+        }
+        ClusterCapacity capacity = new ClusterCapacity();
+        capacity.setAggregatedMemoryByteSize(memory);
+        when(job.getRequiredClusterCapacity()).thenReturn(capacity);
+        return run;
+    }
+
+    private ClusterControllerService mockClusterControllerService() {
+        ClusterControllerService ccs = mock(ClusterControllerService.class);
+        CCServiceContext ccServiceCtx = mock(CCServiceContext.class);
+        LogFile logFile = mock(LogFile.class);
+        INodeManager nodeManager = mock(NodeManager.class);
+        NodeControllerState ncState = mock(NodeControllerState.class);
+        when(nodeManager.getNodeControllerState(any())).thenReturn(ncState);
+        when(ncState.getNodeController()).thenReturn(mock(NodeControllerRemoteProxy.class));
+        IResourceManager resourceManager = mock(IResourceManager.class);
+        ClusterCapacity maxCapacity = new ClusterCapacity();
+        maxCapacity.setAggregatedMemoryByteSize(MAX_MEMORY);
+        when(resourceManager.getMaximumCapacity()).thenReturn(maxCapacity);
+        when(ccs.getContext()).thenReturn(ccServiceCtx);
+        when(ccs.getJobLogFile()).thenReturn(logFile);
+        when(ccs.getNodeManager()).thenReturn(nodeManager);
+        when(ccs.getCCConfig()).thenReturn(ccConfig);
+        when(ccs.getResourceManager()).thenReturn(resourceManager);
+        return ccs;
+    }
+}
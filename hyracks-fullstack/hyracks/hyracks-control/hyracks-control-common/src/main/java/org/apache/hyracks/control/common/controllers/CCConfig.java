@@ -20,6 +20,7 @@ package org.apache.hyracks.control.common.controllers;
 
 import static org.apache.hyracks.control.common.config.OptionTypes.BOOLEAN;
 import static org.apache.hyracks.control.common.config.OptionTypes.LONG;
+import static org.apache.hyracks.control.common.config.OptionTypes.LONG_BYTE_UNIT;
 import static org.apache.hyracks.control.common.config.OptionTypes.POSITIVE_INTEGER;
 import static org.apache.hyracks.control.common.config.OptionTypes.SHORT;
 import static org.apache.hyracks.control.common.config.OptionTypes.STRING;
@@ -72,6 +73,10 @@ public class CCConfig extends ControllerConfig {
         CLUSTER_TOPOLOGY(STRING),
         JOB_QUEUE_CLASS(STRING, "org.apache.hyracks.control.cc.scheduler.FIFOJobQueue"),
         JOB_QUEUE_CAPACITY(POSITIVE_INTEGER, 4096),
+        JOB_QUEUE_POOLS(STRING, "default:1:0:1"),
+        JOB_QUEUE_ROUTES(STRING, ""),
+        JOB_QUEUE_FAST_LANE_MEMORY(LONG_BYTE_UNIT, 0L),
+        JOB_QUEUE_FAST_LANE_CONCURRENCY(UNSIGNED_INTEGER, 16),
         JOB_MANAGER_CLASS(STRING, "org.apache.hyracks.control.cc.job.JobManager"),
         ENFORCE_FRAME_WRITER_PROTOCOL(BOOLEAN, false),
         CORES_MULTIPLIER(POSITIVE_INTEGER, 3),
@@ -182,6 +187,20 @@ public class CCConfig extends ControllerConfig {
                     return "Specify the implementation class name for the job queue";
                 case JOB_QUEUE_CAPACITY:
                     return "The maximum number of jobs to queue before rejecting new jobs";
+                case JOB_QUEUE_POOLS:
+                    return "The resource pools of the multi-queue job queue as a comma separated list of "
+                            + "name:weight:maxConcurrentJobs:memoryShare, the first pool is the default pool. A "
+                            + "maxConcurrentJobs of 0 means no limit, the memoryShare is the fraction (0, 1] of the "
+                            + "cluster memory the running jobs of the pool may use";
+                case JOB_QUEUE_ROUTES:
+                    return "Routes the jobs of the multi-queue job queue to resource pools, as a comma separated list "
+                            + "of user:<name>=<pool> and dataverse:<name>=<pool> entries";
+                case JOB_QUEUE_FAST_LANE_MEMORY:
+                    return "Jobs of the multi-queue job queue that require at most this memory (in bytes) use the "
+                            + "fast lane of their resource pool. 0 disables the fast lanes";
+                case JOB_QUEUE_FAST_LANE_CONCURRENCY:
+                    return "The maximum number of concurrently running fast lane jobs of the multi-queue job queue. "
+                            + "0 means no limit";
                 case JOB_MANAGER_CLASS:
                     return "Specify the implementation class name for the job manager";
                 case ENFORCE_FRAME_WRITER_PROTOCOL:
@@ -428,6 +447,22 @@ public class CCConfig extends ControllerConfig {
         return getAppConfig().getInt(Option.JOB_QUEUE_CAPACITY);
     }
 
+    public String getJobQueuePools() {
+        return getAppConfig().getString(Option.JOB_QUEUE_POOLS);
+    }
+
+    public String getJobQueueRoutes() {
+        return getAppConfig().getString(Option.JOB_QUEUE_ROUTES);
+    }
+
+    public long getJobQueueFastLaneMemory() {
+        return getAppConfig().getLong(Option.JOB_QUEUE_FAST_LANE_MEMORY);
+    }
+
+    public int getJobQueueFastLaneConcurrency() {
+        return getAppConfig().getInt(Option.JOB_QUEUE_FAST_LANE_CONCURRENCY);
+    }
+
     public boolean getEnforceFrameWriterProtocol() {
         return getAppConfig().getBoolean(Option.ENFORCE_FRAME_WRITER_PROTOCOL);
     }
@@ -77,6 +77,8 @@ public class NCConfig extends ControllerConfig {
                 "<value of " + ControllerConfig.Option.DEFAULT_DIR.cmdline() + ">/iodevice"),
         NET_THREAD_COUNT(POSITIVE_INTEGER, 1),
         NET_BUFFER_COUNT(POSITIVE_INTEGER, 1),
+        NET_CONNECTION_COUNT(POSITIVE_INTEGER, 1),
+        NET_READ_WINDOW_GROWTH(POSITIVE_INTEGER, 1),
         RESULT_TTL(LONG, 86400000L),
         RESULT_SWEEP_THRESHOLD(LONG, 60000L),
         RESULT_MANAGER_MEMORY(INTEGER_BYTE_UNIT, -1),
@@ -195,6 +197,12 @@ public class NCConfig extends ControllerConfig {
                     return "Number of threads to use for Network I/O";
                 case NET_BUFFER_COUNT:
                     return "Number of network buffers per input/output channel";
+                case NET_CONNECTION_COUNT:
+                    return "Number of TCP connections to every other node that the data channels are striped over";
+                case NET_READ_WINDOW_GROWTH:
+                    return "Factor by which the read window of a network input channel may grow beyond its "
+                            + "initial number of buffers while the remote side keeps the window in flight. "
+                            + "1 disables the growth";
                 case RESULT_TTL:
                     return "Limits the amount of time results for asynchronous jobs should be retained by the system "
                             + "in milliseconds";
@@ -518,6 +526,22 @@ public class NCConfig extends ControllerConfig {
         configManager.set(nodeId, Option.NET_BUFFER_COUNT, netBufferCount);
     }
 
+    public int getNetConnectionCount() {
+        return appConfig.getInt(Option.NET_CONNECTION_COUNT);
+    }
+
+    public void setNetConnectionCount(int netConnectionCount) {
+        configManager.set(nodeId, Option.NET_CONNECTION_COUNT, netConnectionCount);
+    }
+
+    public int getNetReadWindowGrowth() {
+        return appConfig.getInt(Option.NET_READ_WINDOW_GROWTH);
+    }
+
+    public void setNetReadWindowGrowth(int netReadWindowGrowth) {
+        configManager.set(nodeId, Option.NET_READ_WINDOW_GROWTH, netReadWindowGrowth);
+    }
+
     public long getResultTTL() {
         return appConfig.getLong(Option.RESULT_TTL);
     }
@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.hyracks.api.application.INCServiceContext;
@@ -44,6 +45,7 @@ import org.apache.hyracks.api.job.IGlobalJobDataFactory;
 import org.apache.hyracks.api.job.IJobletEventListener;
 import org.apache.hyracks.api.job.IJobletEventListenerFactory;
 import org.apache.hyracks.api.job.IOperatorEnvironment;
+import org.apache.hyracks.api.job.JobFlag;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobStatus;
 import org.apache.hyracks.api.job.profiling.counters.ICounter;
@@ -107,9 +109,11 @@ public class Joblet implements IHyracksJobletContext, ICounterContext {
 
     private final long maxWarnings;
 
+    private final Set<JobFlag> jobFlags;
+
     public Joblet(NodeControllerService nodeController, DeploymentId deploymentId, JobId jobId,
             INCServiceContext serviceCtx, ActivityClusterGraph acg,
-            IJobletEventListenerFactory jobletEventListenerFactory, long jobStartTime) {
+            IJobletEventListenerFactory jobletEventListenerFactory, long jobStartTime, Set<JobFlag> jobFlags) {
         this.nodeController = nodeController;
         this.serviceCtx = serviceCtx;
         this.deploymentId = deploymentId;
@@ -137,6 +141,7 @@ public class Joblet implements IHyracksJobletContext, ICounterContext {
         globalJobData = gjdf != null ? gjdf.createGlobalJobData(this) : null;
         this.jobStartTime = jobStartTime;
         this.maxWarnings = acg.getMaxWarnings();
+        this.jobFlags = jobFlags;
     }
 
     @Override
@@ -162,6 +167,11 @@ public class Joblet implements IHyracksJobletContext, ICounterContext {
         return jobStartTime;
     }
 
+    @Override
+    public Set<JobFlag> getJobFlags() {
+        return jobFlags;
+    }
+
     public void addTask(Task task) {
         taskMap.put(task.getTaskAttemptId(), task);
     }
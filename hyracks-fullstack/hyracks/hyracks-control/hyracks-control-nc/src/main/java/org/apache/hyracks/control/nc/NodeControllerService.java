@@ -286,9 +286,9 @@ public class NodeControllerService implements IControllerService {
         ipc.start();
         partitionManager = new PartitionManager(this);
         netManager = new NetworkManager(ncConfig.getDataListenAddress(), ncConfig.getDataListenPort(), partitionManager,
-                ncConfig.getNetThreadCount(), ncConfig.getNetBufferCount(), ncConfig.getDataPublicAddress(),
-                ncConfig.getDataPublicPort(), FullFrameChannelInterfaceFactory.INSTANCE,
-                networkSecurityManager.getSocketChannelFactory());
+                ncConfig.getNetThreadCount(), ncConfig.getNetBufferCount(), ncConfig.getNetConnectionCount(),
+                ncConfig.getNetReadWindowGrowth(), ncConfig.getDataPublicAddress(), ncConfig.getDataPublicPort(),
+                FullFrameChannelInterfaceFactory.INSTANCE, networkSecurityManager.getSocketChannelFactory());
         netManager.start();
         startApplication();
         init();
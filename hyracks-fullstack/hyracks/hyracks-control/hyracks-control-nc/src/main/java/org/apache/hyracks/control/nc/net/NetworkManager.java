@@ -19,20 +19,28 @@
 package org.apache.hyracks.control.nc.net;
 
 import java.io.IOException;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
+import java.util.Set;
 
+import org.apache.hyracks.api.channels.IInputChannel;
 import org.apache.hyracks.api.comm.IChannelInterfaceFactory;
 import org.apache.hyracks.api.comm.ICloseableBufferAcceptor;
 import org.apache.hyracks.api.comm.NetworkAddress;
 import org.apache.hyracks.api.dataflow.ConnectorDescriptorId;
 import org.apache.hyracks.api.exceptions.NetException;
+import org.apache.hyracks.api.job.JobFlag;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.network.ISocketChannelFactory;
 import org.apache.hyracks.api.partitions.PartitionId;
 import org.apache.hyracks.comm.channels.IChannelConnectionFactory;
+import org.apache.hyracks.comm.channels.NetworkInputChannel;
 import org.apache.hyracks.comm.channels.NetworkOutputChannel;
+import org.apache.hyracks.comm.compression.SnappyFrameCompressor;
+import org.apache.hyracks.control.nc.partitions.LocalInputChannel;
 import org.apache.hyracks.control.nc.partitions.PartitionManager;
 import org.apache.hyracks.net.protocols.muxdemux.ChannelControlBlock;
 import org.apache.hyracks.net.protocols.muxdemux.IChannelOpenListener;
@@ -53,6 +61,8 @@ public class NetworkManager implements IChannelConnectionFactory {
 
     private final int nBuffers;
 
+    private final int readWindowGrowth;
+
     private final MuxDemux md;
 
     private NetworkAddress localNetworkAddress;
@@ -60,12 +70,13 @@ public class NetworkManager implements IChannelConnectionFactory {
     private NetworkAddress publicNetworkAddress;
 
     public NetworkManager(String inetAddress, int inetPort, PartitionManager partitionManager, int nThreads,
-            int nBuffers, String publicInetAddress, int publicInetPort,
+            int nBuffers, int nConnections, int readWindowGrowth, String publicInetAddress, int publicInetPort,
             IChannelInterfaceFactory channelInterfaceFactory, ISocketChannelFactory socketChannelFactory) {
         this.partitionManager = partitionManager;
         this.nBuffers = nBuffers;
+        this.readWindowGrowth = readWindowGrowth;
         md = new MuxDemux(new InetSocketAddress(inetAddress, inetPort), new ChannelOpenListener(), nThreads,
-                MAX_CONNECTION_ATTEMPTS, channelInterfaceFactory, socketChannelFactory);
+                MAX_CONNECTION_ATTEMPTS, nConnections, channelInterfaceFactory, socketChannelFactory);
         // Just save these values for the moment; may be reset in start()
         publicNetworkAddress = new NetworkAddress(publicInetAddress, publicInetPort);
     }
@@ -95,6 +106,21 @@ public class NetworkManager implements IChannelConnectionFactory {
         return publicNetworkAddress;
     }
 
+    /**
+     * Creates the channel to read a partition from the node at the given address. Partitions that are produced on this
+     * node are read directly from the producing task instead of over the network.
+     */
+    public IInputChannel createInputChannel(NetworkAddress address, PartitionId pid, int nBuffers,
+            Set<JobFlag> jobFlags) throws UnknownHostException {
+        if (address.equals(publicNetworkAddress) || address.equals(localNetworkAddress)) {
+            return new LocalInputChannel(partitionManager, pid, nBuffers);
+        }
+        return new NetworkInputChannel(this,
+                new InetSocketAddress(InetAddress.getByAddress(address.lookupIpAddress()), address.getPort()), pid,
+                nBuffers, nBuffers * readWindowGrowth,
+                jobFlags.contains(JobFlag.COMPRESS_FRAMES) ? SnappyFrameCompressor.INSTANCE : null);
+    }
+
     public void stop() {
 
     }
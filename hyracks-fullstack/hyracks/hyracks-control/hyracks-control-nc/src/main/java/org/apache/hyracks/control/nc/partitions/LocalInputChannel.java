@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.nc.partitions;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.hyracks.api.channels.IInputChannel;
+import org.apache.hyracks.api.channels.IInputChannelMonitor;
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.context.IHyracksCommonContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.partitions.PartitionId;
+import org.apache.hyracks.comm.channels.IOutputChannel;
+import org.apache.hyracks.net.protocols.muxdemux.AbstractChannelWriteInterface;
+import org.apache.hyracks.util.SpscQueue;
+
+/**
+ * Reads a partition that is produced by a task on the same node. Instead of going through the network stack, the
+ * producer copies its frames into buffers that are handed over to the consumer through a lock-free single producer
+ * single consumer queue. The consumer hands the buffers back through a second queue once it is done with them.
+ * Like {@link org.apache.hyracks.comm.channels.NetworkOutputChannel}, frames larger than the initial frame size are
+ * sent as several buffers of the initial frame size.
+ */
+public class LocalInputChannel implements IInputChannel {
+    private final PartitionManager manager;
+
+    private final PartitionId pid;
+
+    private final int nBuffers;
+
+    private final SpscQueue<ByteBuffer> fullQueue;
+
+    private final SpscQueue<ByteBuffer> emptyQueue;
+
+    private final LocalOutputChannel writer = new LocalOutputChannel();
+
+    private IInputChannelMonitor monitor;
+
+    private Object attachment;
+
+    public LocalInputChannel(PartitionManager manager, PartitionId pid, int nBuffers) {
+        this.manager = manager;
+        this.pid = pid;
+        this.nBuffers = nBuffers;
+        fullQueue = new SpscQueue<>(nBuffers);
+        emptyQueue = new SpscQueue<>(nBuffers);
+    }
+
+    @Override
+    public void registerMonitor(IInputChannelMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    public void setAttachment(Object attachment) {
+        this.attachment = attachment;
+    }
+
+    @Override
+    public Object getAttachment() {
+        return attachment;
+    }
+
+    @Override
+    public ByteBuffer getNextBuffer() {
+        return fullQueue.poll();
+    }
+
+    @Override
+    public void recycleBuffer(ByteBuffer buffer) {
+        buffer.clear();
+        emptyQueue.offer(buffer);
+        // offer is a volatile write, so reading the waiter cannot move before it and a producer that found the queue
+        // empty after publishing itself as waiter is always woken up
+        LockSupport.unpark(writer.waiter);
+    }
+
+    @Override
+    public void open(IHyracksCommonContext ctx) throws HyracksDataException {
+        manager.registerPartitionRequest(pid, writer);
+    }
+
+    @Override
+    public void close() throws HyracksDataException {
+
+    }
+
+    private class LocalOutputChannel implements IOutputChannel {
+        private int frameSize = 32768;
+
+        private int allocateCounter = 0;
+
+        private volatile boolean aborted;
+
+        private volatile Thread waiter;
+
+        @Override
+        public void setFrameSize(int frameSize) {
+            this.frameSize = frameSize;
+        }
+
+        @Override
+        public void setCompressor(ICompressorDecompressor compressor) {
+            // frames do not leave the node, compressing them would only cost CPU
+        }
+
+        @Override
+        public void open() throws HyracksDataException {
+            // no op
+        }
+
+        @Override
+        public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+            while (buffer.hasRemaining()) {
+                ByteBuffer destBuffer = getEmptyBuffer();
+                destBuffer.clear();
+                if (destBuffer.capacity() < buffer.remaining()) {
+                    destBuffer.put(buffer.array(), buffer.position(), destBuffer.capacity());
+                    buffer.position(buffer.position() + destBuffer.capacity());
+                } else {
+                    destBuffer.put(buffer);
+                }
+                destBuffer.flip();
+                // never fails, there are at most nBuffers buffers in flight
+                fullQueue.offer(destBuffer);
+                monitor.notifyDataAvailability(LocalInputChannel.this, 1);
+            }
+        }
+
+        private ByteBuffer getEmptyBuffer() throws HyracksDataException {
+            while (true) {
+                if (aborted) {
+                    throw new HyracksDataException("Connection has been aborted");
+                }
+                ByteBuffer buffer = emptyQueue.poll();
+                if (buffer != null) {
+                    return buffer;
+                }
+                if (allocateCounter < nBuffers) {
+                    allocateCounter++;
+                    return ByteBuffer.allocate(frameSize);
+                }
+                // publish the waiting thread before checking again so that a recycled buffer cannot be missed
+                waiter = Thread.currentThread();
+                try {
+                    buffer = emptyQueue.poll();
+                    if (buffer != null) {
+                        return buffer;
+                    }
+                    if (!aborted) {
+                        LockSupport.park(this);
+                    }
+                } finally {
+                    waiter = null;
+                }
+                if (Thread.interrupted()) {
+                    Thread.currentThread().interrupt();
+                    throw HyracksDataException.create(new InterruptedException());
+                }
+            }
+        }
+
+        @Override
+        public void fail() throws HyracksDataException {
+            monitor.notifyFailure(LocalInputChannel.this, AbstractChannelWriteInterface.REMOTE_ERROR_CODE);
+        }
+
+        @Override
+        public void close() throws HyracksDataException {
+            monitor.notifyEndOfStream(LocalInputChannel.this);
+        }
+
+        @Override
+        public void abort(int ecode) {
+            monitor.notifyFailure(LocalInputChannel.this, ecode);
+            aborted = true;
+            LockSupport.unpark(waiter);
+        }
+
+        @Override
+        public void flush() throws HyracksDataException {
+            // frames are always handed over right away
+        }
+    }
+}
@@ -26,16 +26,19 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.control.CcId;
 import org.apache.hyracks.api.dataflow.TaskAttemptId;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.IWorkspaceFileFactory;
+import org.apache.hyracks.api.job.JobFlag;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobStatus;
 import org.apache.hyracks.api.partitions.IPartition;
 import org.apache.hyracks.api.partitions.PartitionId;
 import org.apache.hyracks.api.resources.IDeallocatable;
-import org.apache.hyracks.comm.channels.NetworkOutputChannel;
+import org.apache.hyracks.comm.channels.IOutputChannel;
+import org.apache.hyracks.comm.compression.SnappyFrameCompressor;
 import org.apache.hyracks.control.common.job.PartitionDescriptor;
 import org.apache.hyracks.control.common.job.PartitionState;
 import org.apache.hyracks.control.nc.NodeControllerService;
@@ -56,7 +59,7 @@ public class PartitionManager {
 
     private final IWorkspaceFileFactory fileFactory;
 
-    private final Map<PartitionId, NetworkOutputChannel> partitionRequests = new HashMap<>();
+    private final Map<PartitionId, IOutputChannel> partitionRequests = new HashMap<>();
 
     private final Cache<JobId, JobId> failedJobsCache;
 
@@ -74,10 +77,9 @@ public class PartitionManager {
             /*
              * process pending requests
              */
-            NetworkOutputChannel writer = partitionRequests.remove(pid);
+            IOutputChannel writer = partitionRequests.remove(pid);
             if (writer != null) {
-                writer.setFrameSize(partition.getTaskContext().getInitialFrameSize());
-                partition.writeTo(writer);
+                connect(partition, writer);
                 if (!partition.isReusable()) {
                     return;
                 }
@@ -104,7 +106,7 @@ public class PartitionManager {
         return availablePartitionMap.get(pid).get(0);
     }
 
-    public synchronized void registerPartitionRequest(PartitionId partitionId, NetworkOutputChannel writer) {
+    public synchronized void registerPartitionRequest(PartitionId partitionId, IOutputChannel writer) {
         if (failedJobsCache.getIfPresent(partitionId.getJobId()) != null) {
             writer.abort(AbstractChannelWriteInterface.REMOTE_ERROR_CODE);
             return;
@@ -112,8 +114,7 @@ public class PartitionManager {
         List<IPartition> pList = availablePartitionMap.get(partitionId);
         if (pList != null && !pList.isEmpty()) {
             IPartition partition = pList.get(0);
-            writer.setFrameSize(partition.getTaskContext().getInitialFrameSize());
-            partition.writeTo(writer);
+            connect(partition, writer);
             if (!partition.isReusable()) {
                 availablePartitionMap.remove(partitionId);
             }
@@ -122,6 +123,14 @@ public class PartitionManager {
         }
     }
 
+    private static void connect(IPartition partition, IOutputChannel writer) {
+        IHyracksTaskContext ctx = partition.getTaskContext();
+        writer.setFrameSize(ctx.getInitialFrameSize());
+        writer.setCompressor(
+                ctx.getJobFlags().contains(JobFlag.COMPRESS_FRAMES) ? SnappyFrameCompressor.INSTANCE : null);
+        partition.writeTo(writer);
+    }
+
     public IWorkspaceFileFactory getFileFactory() {
         return fileFactory;
     }
@@ -135,12 +144,11 @@ public class PartitionManager {
             failedJobsCache.put(jobId, jobId);
         }
         final List<IPartition> jobPartitions = unregisterPartitions(jobId);
-        final List<NetworkOutputChannel> pendingRequests = removePendingRequests(jobId, status);
+        final List<IOutputChannel> pendingRequests = removePendingRequests(jobId, status);
         if (!jobPartitions.isEmpty() || !pendingRequests.isEmpty()) {
             ncs.getExecutor().execute(() -> {
                 jobPartitions.forEach(IDeallocatable::deallocate);
-                pendingRequests.forEach(networkOutputChannel -> networkOutputChannel
-                        .abort(AbstractChannelWriteInterface.REMOTE_ERROR_CODE));
+                pendingRequests.forEach(channel -> channel.abort(AbstractChannelWriteInterface.REMOTE_ERROR_CODE));
             });
         }
     }
@@ -174,15 +182,15 @@ public class PartitionManager {
         return unregisteredPartitions;
     }
 
-    private List<NetworkOutputChannel> removePendingRequests(JobId jobId, JobStatus status) {
+    private List<IOutputChannel> removePendingRequests(JobId jobId, JobStatus status) {
         if (status != JobStatus.FAILURE) {
             return Collections.emptyList();
         }
-        final List<NetworkOutputChannel> pendingRequests = new ArrayList<>();
-        final Iterator<Map.Entry<PartitionId, NetworkOutputChannel>> requestsIterator =
+        final List<IOutputChannel> pendingRequests = new ArrayList<>();
+        final Iterator<Map.Entry<PartitionId, IOutputChannel>> requestsIterator =
                 partitionRequests.entrySet().iterator();
         while (requestsIterator.hasNext()) {
-            final Map.Entry<PartitionId, NetworkOutputChannel> entry = requestsIterator.next();
+            final Map.Entry<PartitionId, IOutputChannel> entry = requestsIterator.next();
             final PartitionId partitionId = entry.getKey();
             if (partitionId.getJobId().equals(jobId)) {
                 pendingRequests.add(entry.getValue());
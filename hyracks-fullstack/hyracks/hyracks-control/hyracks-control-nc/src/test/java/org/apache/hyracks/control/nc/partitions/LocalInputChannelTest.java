@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.nc.partitions;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.hyracks.api.channels.IInputChannel;
+import org.apache.hyracks.api.channels.IInputChannelMonitor;
+import org.apache.hyracks.api.dataflow.ConnectorDescriptorId;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.partitions.PartitionId;
+import org.apache.hyracks.comm.channels.IOutputChannel;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+public class LocalInputChannelTest {
+
+    private static final int FRAME_SIZE = 16;
+    private static final int N_BUFFERS = 2;
+    private static final int ERROR_CODE = 42;
+    private static final long TIMEOUT_MS = 10_000;
+
+    private final AtomicInteger availableFrames = new AtomicInteger();
+    private final AtomicInteger failureCode = new AtomicInteger(-1);
+    private final AtomicInteger endOfStreams = new AtomicInteger();
+    private LocalInputChannel channel;
+    private IOutputChannel writer;
+
+    @Before
+    public void setUp() throws Exception {
+        PartitionManager manager = Mockito.mock(PartitionManager.class);
+        PartitionId pid = new PartitionId(new JobId(1), new ConnectorDescriptorId(0), 0, 0);
+        channel = new LocalInputChannel(manager, pid, N_BUFFERS);
+        channel.registerMonitor(new IInputChannelMonitor() {
+            @Override
+            public void notifyFailure(IInputChannel inputChannel, int errorCode) {
+                failureCode.set(errorCode);
+            }
+
+            @Override
+            public void notifyDataAvailability(IInputChannel inputChannel, int nFrames) {
+                availableFrames.addAndGet(nFrames);
+            }
+
+            @Override
+            public void notifyEndOfStream(IInputChannel channel) {
+                endOfStreams.incrementAndGet();
+            }
+        });
+        channel.open(null);
+        ArgumentCaptor<IOutputChannel> writerCaptor = ArgumentCaptor.forClass(IOutputChannel.class);
+        Mockito.verify(manager).registerPartitionRequest(Mockito.eq(pid), writerCaptor.capture());
+        writer = writerCaptor.getValue();
+        writer.setFrameSize(FRAME_SIZE);
+        writer.open();
+    }
+
+    @Test
+    public void framesAreHandedOverUntilEndOfStream() throws Exception {
+        writer.nextFrame(frame(FRAME_SIZE, 1));
+        Assert.assertEquals(1, availableFrames.get());
+        ByteBuffer buffer = channel.getNextBuffer();
+        assertFrame(buffer, FRAME_SIZE, 1);
+        Assert.assertNull(channel.getNextBuffer());
+        channel.recycleBuffer(buffer);
+
+        // a frame larger than a buffer is handed over as several buffers
+        writer.nextFrame(frame(FRAME_SIZE + FRAME_SIZE / 2, 2));
+        Assert.assertEquals(3, availableFrames.get());
+        ByteBuffer first = channel.getNextBuffer();
+        ByteBuffer second = channel.getNextBuffer();
+        Assert.assertEquals(FRAME_SIZE, first.remaining());
+        Assert.assertEquals(FRAME_SIZE / 2, second.remaining());
+        for (int i = 0; i < FRAME_SIZE + FRAME_SIZE / 2; i++) {
+            ByteBuffer part = i < FRAME_SIZE ? first : second;
+            Assert.assertEquals((byte) (2 + i), part.get(part.position() + i % FRAME_SIZE));
+        }
+        channel.recycleBuffer(first);
+        channel.recycleBuffer(second);
+
+        writer.close();
+        Assert.assertEquals(1, endOfStreams.get());
+        Assert.assertEquals(-1, failureCode.get());
+        Assert.assertNull(channel.getNextBuffer());
+    }
+
+    @Test
+    public void producerParksUntilBufferIsRecycled() throws Exception {
+        AtomicReference<Throwable> producerFailure = new AtomicReference<>();
+        Thread producer = startProducer(N_BUFFERS + 1, producerFailure);
+        waitUntilParked(producer);
+        Assert.assertEquals(N_BUFFERS, availableFrames.get());
+
+        List<ByteBuffer> buffers = new ArrayList<>();
+        buffers.add(channel.getNextBuffer());
+        assertFrame(buffers.get(0), FRAME_SIZE, 0);
+        channel.recycleBuffer(buffers.get(0));
+        producer.join(TIMEOUT_MS);
+        Assert.assertFalse(producer.isAlive());
+        Assert.assertNull(producerFailure.get());
+
+        // the recycled buffer is reused for the last frame
+        Assert.assertEquals(N_BUFFERS + 1, availableFrames.get());
+        for (int i = 1; i <= N_BUFFERS; i++) {
+            ByteBuffer buffer = channel.getNextBuffer();
+            assertFrame(buffer, FRAME_SIZE, i);
+            if (i == N_BUFFERS) {
+                Assert.assertSame(buffers.get(0), buffer);
+            }
+        }
+        Assert.assertNull(channel.getNextBuffer());
+    }
+
+    @Test
+    public void abortWakesUpParkedProducer() throws Exception {
+        AtomicReference<Throwable> producerFailure = new AtomicReference<>();
+        Thread producer = startProducer(N_BUFFERS + 1, producerFailure);
+        waitUntilParked(producer);
+
+        writer.abort(ERROR_CODE);
+        producer.join(TIMEOUT_MS);
+        Assert.assertFalse(producer.isAlive());
+        Assert.assertTrue(producerFailure.get() instanceof HyracksDataException);
+        Assert.assertEquals(ERROR_CODE, failureCode.get());
+        Assert.assertEquals(0, endOfStreams.get());
+        // the frames handed over before the abort are still readable
+        Assert.assertEquals(N_BUFFERS, availableFrames.get());
+    }
+
+    @Test
+    public void interruptWakesUpParkedProducer() throws Exception {
+        AtomicReference<Throwable> producerFailure = new AtomicReference<>();
+        Thread producer = startProducer(N_BUFFERS + 1, producerFailure);
+        waitUntilParked(producer);
+
+        producer.interrupt();
+        producer.join(TIMEOUT_MS);
+        Assert.assertFalse(producer.isAlive());
+        Assert.assertTrue(producerFailure.get() instanceof HyracksDataException);
+        Assert.assertTrue(producerFailure.get().getCause() instanceof InterruptedException);
+    }
+
+    @Test
+    public void producerIsNeverLeftParkedWithAllBuffersInFlight() throws Exception {
+        // the producer keeps all buffers in flight and the consumer recycles them one at a time, so nearly every
+        // frame makes the producer park and wait for exactly one recycled buffer
+        final int nFrames = 200_000;
+        AtomicReference<Throwable> producerFailure = new AtomicReference<>();
+        Thread producer = startProducer(nFrames, producerFailure);
+        long deadline = System.currentTimeMillis() + 6 * TIMEOUT_MS;
+        for (int i = 0; i < nFrames; i++) {
+            ByteBuffer buffer;
+            while ((buffer = channel.getNextBuffer()) == null) {
+                Assert.assertNull(producerFailure.get());
+                Assert.assertTrue("producer is stuck at frame " + i, System.currentTimeMillis() < deadline);
+                Thread.yield();
+            }
+            assertFrame(buffer, FRAME_SIZE, i);
+            channel.recycleBuffer(buffer);
+        }
+        producer.join(TIMEOUT_MS);
+        Assert.assertFalse(producer.isAlive());
+        Assert.assertNull(producerFailure.get());
+        Assert.assertEquals(nFrames, availableFrames.get());
+        Assert.assertNull(channel.getNextBuffer());
+    }
+
+    private Thread startProducer(int nFrames, AtomicReference<Throwable> failure) {
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < nFrames; i++) {
+                    writer.nextFrame(frame(FRAME_SIZE, i));
+                }
+            } catch (Throwable th) {
+                failure.set(th);
+            }
+        }, "producer");
+        producer.start();
+        return producer;
+    }
+
+    private static void waitUntilParked(Thread producer) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (producer.getState() != Thread.State.WAITING) {
+            Assert.assertTrue("producer did not park", producer.isAlive());
+            Assert.assertTrue("producer did not park", System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private static ByteBuffer frame(int size, int seed) {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (int i = 0; i < size; i++) {
+            buffer.put(i, (byte) (seed + i));
+        }
+        return buffer;
+    }
+
+    private static void assertFrame(ByteBuffer buffer, int size, int seed) {
+        Assert.assertNotNull(buffer);
+        Assert.assertEquals(size, buffer.remaining());
+        for (int i = 0; i < size; i++) {
+            Assert.assertEquals((byte) (seed + i), buffer.get(buffer.position() + i));
+        }
+    }
+}
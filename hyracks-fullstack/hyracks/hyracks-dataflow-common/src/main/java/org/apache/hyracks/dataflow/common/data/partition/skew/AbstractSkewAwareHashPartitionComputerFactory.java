@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.dataflow.common.data.partition.skew;
+
+import java.io.Serializable;
+
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunction;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFactory;
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+
+/**
+ * Base class of the hash partitioners that spread heavy hitter keys over several consumers. The two sides of a join
+ * must use the same {@link HeavyHitterMap}: the side using {@link SkewAwareHashPartitionComputerFactory} sends each
+ * tuple of a heavy hitter key to one of the key's partitions while the side using
+ * {@link SkewAwareHashReplicatePartitionComputerFactory} sends it to all of them. Keys that are not heavy hitters
+ * go to the same partition {@link org.apache.hyracks.dataflow.common.data.partition.FieldHashPartitionComputerFactory}
+ * would send them to.
+ */
+abstract class AbstractSkewAwareHashPartitionComputerFactory implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int[] hashFields;
+
+    private final IBinaryHashFunctionFactory[] hashFunctionFactories;
+
+    private final HeavyHitterMapSupplier heavyHitterMapSupplier;
+
+    protected final SourceLocation sourceLoc;
+
+    AbstractSkewAwareHashPartitionComputerFactory(int[] hashFields, IBinaryHashFunctionFactory[] hashFunctionFactories,
+            HeavyHitterMapSupplier heavyHitterMapSupplier, SourceLocation sourceLoc) {
+        this.hashFields = hashFields;
+        this.hashFunctionFactories = hashFunctionFactories;
+        this.heavyHitterMapSupplier = heavyHitterMapSupplier;
+        this.sourceLoc = sourceLoc;
+    }
+
+    abstract class AbstractSkewAwareHashPartitionComputer {
+
+        private final IHyracksTaskContext taskContext;
+
+        private final IBinaryHashFunction[] hashFunctions;
+
+        protected HeavyHitterMap heavyHitterMap;
+
+        AbstractSkewAwareHashPartitionComputer(IHyracksTaskContext taskContext) {
+            this.taskContext = taskContext;
+            this.hashFunctions = new IBinaryHashFunction[hashFunctionFactories.length];
+            for (int i = 0; i < hashFunctionFactories.length; ++i) {
+                hashFunctions[i] = hashFunctionFactories[i].createBinaryHashFunction();
+            }
+        }
+
+        public void initialize() throws HyracksDataException {
+            heavyHitterMap = heavyHitterMapSupplier.getHeavyHitterMap(taskContext);
+            if (heavyHitterMap == null) {
+                throw HyracksDataException.create(ErrorCode.HEAVY_HITTER_MAP_NOT_FOUND, sourceLoc);
+            }
+        }
+
+        /**
+         * @return the non-negative hash of the key fields, computed the same way as the plain field hash partitioner
+         */
+        int hash(IFrameTupleAccessor accessor, int tIndex) throws HyracksDataException {
+            return SkewAwareHashUtil.hash(accessor, tIndex, hashFields, hashFunctions);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.common.data.partition.skew;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * <pre>
+ * The heavy hitter map lists the key hashes that were found to be skewed at runtime together with the number of
+ * consumer partitions ("fan-out") each of them should be spread over. The hashes are the same hashes that
+ * {@link org.apache.hyracks.dataflow.common.data.partition.FieldHashPartitionComputerFactory} computes, so a key
+ * whose home partition is p will be spread over the partitions p, p+1, ... p+fanOut-1 (mod nParts).
+ * Keys that are not in the map have a fan-out of 1, i.e. they are hash partitioned as usual.
+ * </pre>
+ */
+public class HeavyHitterMap implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final HeavyHitterMap EMPTY = new HeavyHitterMap(new int[0], new int[0]);
+
+    // sorted ascending so that lookups can use binary search
+    private final int[] hashes;
+    private final int[] fanOuts;
+
+    public HeavyHitterMap(int[] hashes, int[] fanOuts) {
+        if (hashes.length != fanOuts.length) {
+            throw new IllegalArgumentException("hashes and fan-outs must have the same length");
+        }
+        this.hashes = hashes;
+        this.fanOuts = fanOuts;
+    }
+
+    public int size() {
+        return hashes.length;
+    }
+
+    public boolean isEmpty() {
+        return hashes.length == 0;
+    }
+
+    /**
+     * @param hash the (non-negative) hash of the partitioning key
+     * @return the number of consumer partitions the key should be spread over, 1 if the key is not skewed
+     */
+    public int getFanOut(int hash) {
+        if (hashes.length == 0) {
+            return 1;
+        }
+        int idx = Arrays.binarySearch(hashes, hash);
+        return idx < 0 ? 1 : fanOuts[idx];
+    }
+
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(hashes.length);
+        for (int i = 0; i < hashes.length; i++) {
+            out.writeInt(hashes[i]);
+            out.writeInt(fanOuts[i]);
+        }
+    }
+
+    public static HeavyHitterMap read(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size == 0) {
+            return EMPTY;
+        }
+        int[] hashes = new int[size];
+        int[] fanOuts = new int[size];
+        for (int i = 0; i < size; i++) {
+            hashes[i] = in.readInt();
+            fanOuts[i] = in.readInt();
+        }
+        return new HeavyHitterMap(hashes, fanOuts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(hashes) + 31 * Arrays.hashCode(fanOuts);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof HeavyHitterMap)) {
+            return false;
+        }
+        HeavyHitterMap other = (HeavyHitterMap) object;
+        return Arrays.equals(hashes, other.hashes) && Arrays.equals(fanOuts, other.fanOuts);
+    }
+
+    @Override
+    public String toString() {
+        return "{HEAVY_HITTERS:" + hashes.length + '}';
+    }
+}
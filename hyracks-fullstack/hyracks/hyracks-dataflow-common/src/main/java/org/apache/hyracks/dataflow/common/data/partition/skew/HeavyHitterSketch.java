@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.common.data.partition.skew;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A bounded-memory frequency sketch over key hashes based on the Space-Saving algorithm. It keeps at most
+ * {@code capacity} counters; when a new hash arrives and all counters are taken, the counter with the smallest count
+ * is reassigned to the new hash. Every hash whose true frequency is larger than {@code totalCount / capacity} is
+ * guaranteed to be kept, which is all we need to find the keys that would overload a single consumer partition.
+ * Sketches of different producers can be merged so that the decision is taken on the global key distribution.
+ */
+public class HeavyHitterSketch {
+
+    private final int capacity;
+    private final int[] hashes;
+    private final long[] counts;
+    private final Map<Integer, Integer> slots;
+    private int size;
+    private long totalCount;
+
+    public HeavyHitterSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("sketch capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.hashes = new int[capacity];
+        this.counts = new long[capacity];
+        this.slots = new HashMap<>(capacity * 2);
+    }
+
+    public void add(int hash) {
+        add(hash, 1);
+    }
+
+    public void add(int hash, long count) {
+        totalCount += count;
+        Integer slot = slots.get(hash);
+        if (slot != null) {
+            counts[slot] += count;
+        } else if (size < capacity) {
+            hashes[size] = hash;
+            counts[size] = count;
+            slots.put(hash, size);
+            size++;
+        } else {
+            int minSlot = findMinSlot();
+            slots.remove(hashes[minSlot]);
+            hashes[minSlot] = hash;
+            // the evicted count is an upper bound on how often the new hash might have been seen before
+            counts[minSlot] += count;
+            slots.put(hash, minSlot);
+        }
+    }
+
+    public void merge(HeavyHitterSketch other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.hashes[i], other.counts[i]);
+        }
+        // add() already accounted for the counts kept by the other sketch, add the ones it had evicted
+        long kept = 0;
+        for (int i = 0; i < other.size; i++) {
+            kept += other.counts[i];
+        }
+        totalCount += Math.max(0, other.totalCount - kept);
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getCount(int hash) {
+        Integer slot = slots.get(hash);
+        return slot == null ? 0 : counts[slot];
+    }
+
+    public void reset() {
+        slots.clear();
+        size = 0;
+        totalCount = 0;
+    }
+
+    /**
+     * Computes the keys that should be spread over several consumers. A key is a heavy hitter when its share of the
+     * input is at least {@code threshold} and it would receive more than one partition's fair share of the input.
+     * Its fan-out is the number of partitions needed to bring it back to a fair share.
+     *
+     * @param threshold the minimum fraction (0, 1] of the input a key needs to have to be considered skewed
+     * @param nParts the number of consumer partitions
+     * @return the heavy hitter map
+     */
+    public HeavyHitterMap computeHeavyHitterMap(double threshold, int nParts) {
+        if (totalCount == 0 || nParts <= 1) {
+            return HeavyHitterMap.EMPTY;
+        }
+        int n = 0;
+        int[] heavyHashes = new int[size];
+        int[] fanOuts = new int[size];
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(hashes[a], hashes[b]));
+        double fairShare = (double) totalCount / nParts;
+        for (int i = 0; i < size; i++) {
+            int slot = order[i];
+            long count = counts[slot];
+            if ((double) count / totalCount < threshold || count <= fairShare) {
+                continue;
+            }
+            heavyHashes[n] = hashes[slot];
+            fanOuts[n] = (int) Math.min(nParts, Math.ceil(count / fairShare));
+            n++;
+        }
+        return n == 0 ? HeavyHitterMap.EMPTY
+                : new HeavyHitterMap(Arrays.copyOf(heavyHashes, n), Arrays.copyOf(fanOuts, n));
+    }
+
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(capacity);
+        out.writeLong(totalCount);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeInt(hashes[i]);
+            out.writeLong(counts[i]);
+        }
+    }
+
+    public static HeavyHitterSketch read(DataInput in) throws IOException {
+        HeavyHitterSketch sketch = new HeavyHitterSketch(in.readInt());
+        long totalCount = in.readLong();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            sketch.add(in.readInt(), in.readLong());
+        }
+        sketch.totalCount = totalCount;
+        return sketch;
+    }
+
+    private int findMinSlot() {
+        int minSlot = 0;
+        for (int i = 1; i < size; i++) {
+            if (counts[i] < counts[minSlot]) {
+                minSlot = i;
+            }
+        }
+        return minSlot;
+    }
+}
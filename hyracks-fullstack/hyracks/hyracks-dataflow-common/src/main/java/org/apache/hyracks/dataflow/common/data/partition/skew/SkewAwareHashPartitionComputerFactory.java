@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.dataflow.common.data.partition.skew;
+
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFactory;
+import org.apache.hyracks.api.dataflow.value.ITuplePartitionComputer;
+import org.apache.hyracks.api.dataflow.value.ITuplePartitionComputerFactory;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+
+/**
+ * Partitions the "split" side of a skew-aware exchange: tuples of a heavy hitter key are sent round-robin to the
+ * partitions of the key's fan-out range so that no single consumer receives all of them.
+ */
+public final class SkewAwareHashPartitionComputerFactory extends AbstractSkewAwareHashPartitionComputerFactory
+        implements ITuplePartitionComputerFactory {
+
+    private static final long serialVersionUID = 1L;
+
+    public SkewAwareHashPartitionComputerFactory(int[] hashFields, IBinaryHashFunctionFactory[] hashFunctionFactories,
+            HeavyHitterMapSupplier heavyHitterMapSupplier, SourceLocation sourceLoc) {
+        super(hashFields, hashFunctionFactories, heavyHitterMapSupplier, sourceLoc);
+    }
+
+    @Override
+    public ITuplePartitionComputer createPartitioner(IHyracksTaskContext taskContext) {
+        return new SkewAwareHashPartitionComputer(taskContext);
+    }
+
+    private final class SkewAwareHashPartitionComputer extends AbstractSkewAwareHashPartitionComputer
+            implements ITuplePartitionComputer {
+
+        private int nextReplica;
+
+        private SkewAwareHashPartitionComputer(IHyracksTaskContext taskContext) {
+            super(taskContext);
+        }
+
+        @Override
+        public void initialize() throws HyracksDataException {
+            super.initialize();
+            nextReplica = 0;
+        }
+
+        @Override
+        public int partition(IFrameTupleAccessor accessor, int tIndex, int nParts) throws HyracksDataException {
+            if (nParts == 1) {
+                return 0;
+            }
+            int h = hash(accessor, tIndex);
+            int home = h % nParts;
+            int fanOut = heavyHitterMap.getFanOut(h);
+            if (fanOut <= 1) {
+                return home;
+            }
+            nextReplica = (nextReplica + 1) & Integer.MAX_VALUE;
+            return (home + nextReplica % Math.min(fanOut, nParts)) % nParts;
+        }
+    }
+}
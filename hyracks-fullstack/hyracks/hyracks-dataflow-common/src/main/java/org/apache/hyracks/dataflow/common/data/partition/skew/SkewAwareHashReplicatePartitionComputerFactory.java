@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.dataflow.common.data.partition.skew;
+
+import java.util.BitSet;
+
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFactory;
+import org.apache.hyracks.api.dataflow.value.ITupleMultiPartitionComputer;
+import org.apache.hyracks.api.dataflow.value.ITupleMultiPartitionComputerFactory;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+
+/**
+ * Partitions the "replicate" side of a skew-aware exchange: tuples of a heavy hitter key are sent to every partition
+ * of the key's fan-out range so that they meet all the tuples the other side spread over that range.
+ */
+public final class SkewAwareHashReplicatePartitionComputerFactory extends AbstractSkewAwareHashPartitionComputerFactory
+        implements ITupleMultiPartitionComputerFactory {
+
+    private static final long serialVersionUID = 1L;
+
+    public SkewAwareHashReplicatePartitionComputerFactory(int[] hashFields,
+            IBinaryHashFunctionFactory[] hashFunctionFactories, HeavyHitterMapSupplier heavyHitterMapSupplier,
+            SourceLocation sourceLoc) {
+        super(hashFields, hashFunctionFactories, heavyHitterMapSupplier, sourceLoc);
+    }
+
+    @Override
+    public ITupleMultiPartitionComputer createPartitioner(IHyracksTaskContext taskContext) {
+        return new SkewAwareHashReplicatePartitionComputer(taskContext);
+    }
+
+    private final class SkewAwareHashReplicatePartitionComputer extends AbstractSkewAwareHashPartitionComputer
+            implements ITupleMultiPartitionComputer {
+
+        private BitSet result;
+
+        private SkewAwareHashReplicatePartitionComputer(IHyracksTaskContext taskContext) {
+            super(taskContext);
+        }
+
+        @Override
+        public void initialize() throws HyracksDataException {
+            super.initialize();
+            if (result == null) {
+                result = new BitSet();
+            }
+        }
+
+        @Override
+        public BitSet partition(IFrameTupleAccessor accessor, int tIndex, int nParts) throws HyracksDataException {
+            result.clear();
+            if (nParts == 1) {
+                result.set(0);
+                return result;
+            }
+            int h = hash(accessor, tIndex);
+            int home = h % nParts;
+            int fanOut = Math.min(heavyHitterMap.getFanOut(h), nParts);
+            for (int i = 0; i < fanOut; i++) {
+                result.set((home + i) % nParts);
+            }
+            return result;
+        }
+    }
+}
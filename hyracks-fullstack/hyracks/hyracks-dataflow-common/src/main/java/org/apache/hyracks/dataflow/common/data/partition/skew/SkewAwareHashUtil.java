@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.dataflow.common.data.partition.skew;
+
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunction;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+public class SkewAwareHashUtil {
+
+    private SkewAwareHashUtil() {
+    }
+
+    /**
+     * Computes the non-negative hash of the key fields of a tuple. This must stay in sync with
+     * {@link org.apache.hyracks.dataflow.common.data.partition.FieldHashPartitionComputerFactory} so that the heavy
+     * hitters found by sampling map to the same home partitions the regular hash partitioner uses.
+     */
+    public static int hash(IFrameTupleAccessor accessor, int tIndex, int[] hashFields,
+            IBinaryHashFunction[] hashFunctions) throws HyracksDataException {
+        int h = 0;
+        int startOffset = accessor.getTupleStartOffset(tIndex);
+        int slotLength = accessor.getFieldSlotsLength();
+        for (int j = 0; j < hashFields.length; ++j) {
+            int fIdx = hashFields[j];
+            int fStart = accessor.getFieldStartOffset(tIndex, fIdx);
+            int fEnd = accessor.getFieldEndOffset(tIndex, fIdx);
+            int fh = hashFunctions[j].hash(accessor.getBuffer().array(), startOffset + slotLength + fStart,
+                    fEnd - fStart);
+            h = combine(h, fh);
+        }
+        return normalize(h);
+    }
+
+    /**
+     * Folds the hash of the next key field into the hash of the preceding fields.
+     */
+    public static int combine(int h, int fieldHash) {
+        return h * 31 + fieldHash;
+    }
+
+    /**
+     * @return the non-negative form of a combined key hash, the value that heavy hitters are recorded under
+     */
+    public static int normalize(int h) {
+        return h < 0 ? -(h + 1) : h;
+    }
+}
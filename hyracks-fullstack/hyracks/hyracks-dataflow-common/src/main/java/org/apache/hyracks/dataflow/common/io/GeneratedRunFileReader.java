@@ -19,15 +19,16 @@
 
 package org.apache.hyracks.dataflow.common.io;
 
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.io.IIOManager;
 
 public class GeneratedRunFileReader extends RunFileReader {
     private int maxFrameSize;
 
-    GeneratedRunFileReader(FileReference file, IIOManager ioManager, long size, boolean deleteAfterRead,
-            int maxFrameSize) {
-        super(file, ioManager, size, deleteAfterRead);
+    GeneratedRunFileReader(FileReference file, IIOManager ioManager, long size, long dataSize,
+            boolean deleteAfterRead, int maxFrameSize, ICompressorDecompressor decompressor) {
+        super(file, ioManager, size, dataSize, deleteAfterRead, decompressor);
         this.maxFrameSize = maxFrameSize;
     }
 
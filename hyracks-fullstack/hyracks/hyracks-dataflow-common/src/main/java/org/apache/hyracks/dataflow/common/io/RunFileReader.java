@@ -19,11 +19,13 @@
 package org.apache.hyracks.dataflow.common.io;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.hyracks.api.comm.FrameHelper;
 import org.apache.hyracks.api.comm.IFrame;
 import org.apache.hyracks.api.comm.IFrameReader;
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
 import org.apache.hyracks.api.exceptions.ErrorCode;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
@@ -35,14 +37,27 @@ public class RunFileReader implements IFrameReader {
     private IFileHandle handle;
     private final IIOManager ioManager;
     private final long size;
+    // the uncompressed size of the frames in the file, equal to size if the file is not compressed
+    private final long dataSize;
+    private final ICompressorDecompressor decompressor;
+    private final ByteBuffer frameHeader;
+    private ByteBuffer compressedFrame;
     private long readPtr;
     private boolean deleteAfterClose;
 
     public RunFileReader(FileReference file, IIOManager ioManager, long size, boolean deleteAfterRead) {
+        this(file, ioManager, size, size, deleteAfterRead, null);
+    }
+
+    RunFileReader(FileReference file, IIOManager ioManager, long size, long dataSize, boolean deleteAfterRead,
+            ICompressorDecompressor decompressor) {
         this.file = file;
         this.ioManager = ioManager;
         this.size = size;
+        this.dataSize = dataSize;
         this.deleteAfterClose = deleteAfterRead;
+        this.decompressor = decompressor;
+        this.frameHeader = decompressor == null ? null : ByteBuffer.allocate(RunFileWriter.FRAME_HEADER_SIZE);
     }
 
     @Override
@@ -69,6 +84,9 @@ public class RunFileReader implements IFrameReader {
         if (readPtr >= size) {
             return false;
         }
+        if (decompressor != null) {
+            return nextCompressedFrame(frame);
+        }
         frame.reset();
 
         int readLength = ioManager.syncRead(handle, readPtr, frame.getBuffer());
@@ -93,6 +111,36 @@ public class RunFileReader implements IFrameReader {
         return true;
     }
 
+    private boolean nextCompressedFrame(IFrame frame) throws HyracksDataException {
+        frameHeader.clear();
+        readFully(frameHeader);
+        int compressedLength = frameHeader.getInt(0);
+        int frameLength = frameHeader.getInt(Integer.BYTES);
+        if (compressedFrame == null || compressedFrame.capacity() < compressedLength) {
+            compressedFrame = ByteBuffer.allocate(compressedLength);
+        }
+        compressedFrame.clear();
+        compressedFrame.limit(compressedLength);
+        readFully(compressedFrame);
+        compressedFrame.flip();
+        frame.reset();
+        frame.ensureFrameSize(frameLength);
+        ByteBuffer buffer = frame.getBuffer();
+        buffer.clear();
+        decompressor.uncompress(compressedFrame, buffer);
+        return true;
+    }
+
+    private void readFully(ByteBuffer buffer) throws HyracksDataException {
+        while (buffer.hasRemaining()) {
+            int readLength = ioManager.syncRead(handle, readPtr, buffer);
+            if (readLength <= 0) {
+                throw HyracksDataException.create(ErrorCode.EOF);
+            }
+            readPtr += readLength;
+        }
+    }
+
     @Override
     public void close() throws HyracksDataException {
         if (handle == null) {
@@ -112,7 +160,7 @@ public class RunFileReader implements IFrameReader {
     }
 
     public long getFileSize() {
-        return size;
+        return dataSize;
     }
 
     public void setDeleteAfterClose(boolean deleteAfterClose) {
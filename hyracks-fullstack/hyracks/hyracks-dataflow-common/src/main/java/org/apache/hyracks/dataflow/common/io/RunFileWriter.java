@@ -19,25 +19,46 @@
 package org.apache.hyracks.dataflow.common.io;
 
 import java.nio.ByteBuffer;
+import java.util.Set;
 
 import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.io.IFileHandle;
 import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.api.job.JobFlag;
+import org.apache.hyracks.comm.compression.SnappyFrameCompressor;
 
+/**
+ * Writes frames to a run file. When the job has {@link JobFlag#COMPRESS_FRAMES} set, every frame is compressed and
+ * stored as [compressed length][uncompressed length][compressed bytes]; {@link #getFileSize()} still reports the
+ * uncompressed size since it is used to estimate the memory needed to process the run.
+ */
 public class RunFileWriter implements IFrameWriter {
+    static final int FRAME_HEADER_SIZE = 2 * Integer.BYTES;
+
     private final IIOManager ioManager;
+    private final ICompressorDecompressor compressor;
     private FileReference file;
     private boolean failed;
 
     private IFileHandle handle;
     private long size;
+    private long dataSize;
     private int maxOutputFrameSize;
+    private ByteBuffer compressedFrame;
 
     public RunFileWriter(FileReference file, IIOManager ioManager) {
         this.file = file;
         this.ioManager = ioManager;
+        this.compressor = null;
+    }
+
+    public RunFileWriter(FileReference file, IIOManager ioManager, Set<JobFlag> jobFlags) {
+        this.file = file;
+        this.ioManager = ioManager;
+        this.compressor = jobFlags.contains(JobFlag.COMPRESS_FRAMES) ? SnappyFrameCompressor.INSTANCE : null;
     }
 
     @Override
@@ -45,12 +66,14 @@ public class RunFileWriter implements IFrameWriter {
         handle = ioManager.open(file, IIOManager.FileReadWriteMode.READ_WRITE,
                 IIOManager.FileSyncMode.METADATA_ASYNC_DATA_ASYNC);
         size = 0;
+        dataSize = 0;
         failed = false;
         maxOutputFrameSize = 0;
     }
 
     public void rewind() {
         size = 0;
+        dataSize = 0;
         maxOutputFrameSize = 0;
     }
 
@@ -62,9 +85,32 @@ public class RunFileWriter implements IFrameWriter {
 
     @Override
     public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+        if (compressor != null) {
+            nextCompressedFrame(buffer);
+            return;
+        }
         int writen = ioManager.syncWrite(handle, size, buffer);
         maxOutputFrameSize = Math.max(writen, maxOutputFrameSize);
         size += writen;
+        dataSize += writen;
+    }
+
+    private void nextCompressedFrame(ByteBuffer buffer) throws HyracksDataException {
+        int frameSize = buffer.remaining();
+        int requiredSize = FRAME_HEADER_SIZE + compressor.computeCompressedBufferSize(frameSize);
+        if (compressedFrame == null || compressedFrame.capacity() < requiredSize) {
+            compressedFrame = ByteBuffer.allocate(requiredSize);
+        }
+        compressedFrame.clear();
+        compressedFrame.position(FRAME_HEADER_SIZE);
+        compressor.compress(buffer, compressedFrame);
+        buffer.position(buffer.limit());
+        compressedFrame.putInt(0, compressedFrame.limit() - FRAME_HEADER_SIZE);
+        compressedFrame.putInt(Integer.BYTES, frameSize);
+        compressedFrame.position(0);
+        size += ioManager.syncWrite(handle, size, compressedFrame);
+        maxOutputFrameSize = Math.max(frameSize, maxOutputFrameSize);
+        dataSize += frameSize;
     }
 
     @Override
@@ -88,21 +134,21 @@ public class RunFileWriter implements IFrameWriter {
     }
 
     public long getFileSize() {
-        return size;
+        return dataSize;
     }
 
     public GeneratedRunFileReader createReader() throws HyracksDataException {
         if (failed) {
             throw new HyracksDataException("createReader() called on a failed RunFileWriter");
         }
-        return new GeneratedRunFileReader(file, ioManager, size, false, maxOutputFrameSize);
+        return new GeneratedRunFileReader(file, ioManager, size, dataSize, false, maxOutputFrameSize, compressor);
     }
 
     public GeneratedRunFileReader createDeleteOnCloseReader() throws HyracksDataException {
         if (failed) {
             throw new HyracksDataException("createReader() called on a failed RunFileWriter");
         }
-        return new GeneratedRunFileReader(file, ioManager, size, true, maxOutputFrameSize);
+        return new GeneratedRunFileReader(file, ioManager, size, dataSize, true, maxOutputFrameSize, compressor);
     }
 
     @Override
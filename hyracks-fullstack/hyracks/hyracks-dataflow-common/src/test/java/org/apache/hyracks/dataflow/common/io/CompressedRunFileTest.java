@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.common.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.io.IODeviceHandle;
+import org.apache.hyracks.api.job.JobFlag;
+import org.apache.hyracks.control.nc.io.DefaultDeviceResolver;
+import org.apache.hyracks.control.nc.io.IOManager;
+import org.apache.hyracks.control.nc.resources.memory.FrameManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompressedRunFileTest {
+
+    private static final int MIN_FRAME_SIZE = 256;
+
+    // the size of the frames in number of min frames, larger frames are mixed with single min frames
+    private static final int[] FRAME_SIZES = { 1, 3, 1, 8, 2, 1, 5 };
+
+    private IOManager ioManager;
+    private FrameManager frameManager;
+    private final Random random = new Random(17);
+
+    @Before
+    public void setUp() throws Exception {
+        List<IODeviceHandle> devices = new ArrayList<>();
+        devices.add(new IODeviceHandle(new File(System.getProperty("java.io.tmpdir")), "."));
+        ioManager = new IOManager(devices, new DefaultDeviceResolver(), 2, 10);
+        frameManager = new FrameManager(MIN_FRAME_SIZE);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ioManager.close();
+    }
+
+    @Test
+    public void roundTrip() throws Exception {
+        List<byte[]> frames = createFrames();
+        RunFileWriter writer = write(frames);
+        long dataSize = frames.stream().mapToLong(frame -> frame.length).sum();
+        assertEquals(dataSize, writer.getFileSize());
+        GeneratedRunFileReader reader = writer.createDeleteOnCloseReader();
+        assertEquals(dataSize, reader.getFileSize());
+        assertEquals(8 * MIN_FRAME_SIZE, reader.getMaxFrameSize());
+        VSizeFrame frame = new VSizeFrame(frameManager);
+        reader.open();
+        try {
+            for (byte[] expected : frames) {
+                assertTrue(reader.nextFrame(frame));
+                assertArrayEquals(expected, toArray(frame.getBuffer()));
+            }
+            assertFalse(reader.nextFrame(frame));
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void compressedFileIsSmaller() throws Exception {
+        List<byte[]> frames = new ArrayList<>();
+        for (int size : FRAME_SIZES) {
+            frames.add(createCompressibleFrame(size * MIN_FRAME_SIZE));
+        }
+        RunFileWriter writer = write(frames);
+        long fileLength = writer.getFileReference().getFile().length();
+        assertTrue(fileLength + " >= " + writer.getFileSize(), fileLength < writer.getFileSize());
+        writer.getFileReference().delete();
+    }
+
+    @Test
+    public void seekToRecordedPositions() throws Exception {
+        List<byte[]> frames = createFrames();
+        RunFileWriter writer = write(frames);
+        GeneratedRunFileReader reader = writer.createDeleteOnCloseReader();
+        VSizeFrame frame = new VSizeFrame(frameManager);
+        long[] positions = new long[frames.size()];
+        reader.open();
+        try {
+            for (int i = 0; i < frames.size(); i++) {
+                positions[i] = reader.position();
+                assertTrue(reader.nextFrame(frame));
+            }
+            // positions are offsets in the compressed file, they are not derived from the frame sizes
+            assertTrue(positions[positions.length - 1] > 0);
+            // re-read the large frame and then a small one out of order
+            reader.seek(positions[3]);
+            assertTrue(reader.nextFrame(frame));
+            assertArrayEquals(frames.get(3), toArray(frame.getBuffer()));
+            assertEquals(positions[4], reader.position());
+            reader.seek(positions[2]);
+            assertTrue(reader.nextFrame(frame));
+            assertArrayEquals(frames.get(2), toArray(frame.getBuffer()));
+            // continue sequentially after a seek
+            reader.seek(positions[1]);
+            for (int i = 1; i < frames.size(); i++) {
+                assertTrue(reader.nextFrame(frame));
+                assertArrayEquals(frames.get(i), toArray(frame.getBuffer()));
+            }
+            assertFalse(reader.nextFrame(frame));
+            // rewind to the beginning
+            reader.seek(0);
+            assertTrue(reader.nextFrame(frame));
+            assertArrayEquals(frames.get(0), toArray(frame.getBuffer()));
+        } finally {
+            reader.close();
+        }
+    }
+
+    private RunFileWriter write(List<byte[]> frames) throws Exception {
+        RunFileWriter writer = new RunFileWriter(ioManager.createWorkspaceFile("compressed-run"), ioManager,
+                EnumSet.of(JobFlag.COMPRESS_FRAMES));
+        writer.open();
+        try {
+            for (byte[] frame : frames) {
+                writer.nextFrame(ByteBuffer.wrap(frame));
+            }
+        } finally {
+            writer.close();
+        }
+        return writer;
+    }
+
+    private List<byte[]> createFrames() {
+        List<byte[]> frames = new ArrayList<>();
+        for (int i = 0; i < FRAME_SIZES.length; i++) {
+            int frameSize = FRAME_SIZES[i] * MIN_FRAME_SIZE;
+            frames.add(i % 2 == 0 ? createCompressibleFrame(frameSize) : createRandomFrame(frameSize));
+        }
+        return frames;
+    }
+
+    private byte[] createRandomFrame(int frameSize) {
+        byte[] frame = new byte[frameSize];
+        random.nextBytes(frame);
+        return frame;
+    }
+
+    private byte[] createCompressibleFrame(int frameSize) {
+        byte[] frame = new byte[frameSize];
+        Arrays.fill(frame, (byte) random.nextInt());
+        for (int i = 0; i < frameSize; i += 16) {
+            frame[i] = (byte) i;
+        }
+        return frame;
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.connectors;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.api.comm.IPartitionWriterFactory;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.ITuplePartitionComputer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.profiling.counters.ICounter;
+import org.apache.hyracks.api.job.profiling.counters.ICounterContext;
+import org.apache.hyracks.data.std.accessors.MurmurHash3BinaryHash;
+
+/**
+ * A partition writer that drops tuples whose dedup fields are byte-wise equal to the ones of a tuple it has sent
+ * recently. It is meant to be used in front of an operator that eliminates duplicates anyway (e.g. DISTINCT), so
+ * that duplicates do not have to cross the network. The writer remembers the keys of recent tuples in a direct mapped
+ * cache of fixed size, a key replaces the one that occupied its slot. The elimination is therefore lossy, but it never
+ * drops a tuple that is not a duplicate. The hits are checked every {@link #SAMPLE_TUPLES} tuples; when the cache
+ * hits less than {@link #MIN_HIT_RATIO} of them, the writer stops looking up the cache and only partitions its input.
+ */
+public class DedupPartitionDataWriter extends PartitionDataWriter {
+
+    static final int CACHE_SLOTS = 1024;
+    static final int MAX_KEY_LENGTH = 128;
+    static final int SAMPLE_TUPLES = 8192;
+    static final double MIN_HIT_RATIO = 0.05;
+
+    private final int[] dedupFields;
+    private final int[] slotHashes;
+    private final int[] slotFieldLengths;
+    private final byte[] slotData;
+    private final ICounter droppedTuples;
+    private final ICounter disabled;
+    private boolean enabled;
+    private long tupleCount;
+    private long hitCount;
+
+    public DedupPartitionDataWriter(IHyracksTaskContext ctx, int consumerPartitionCount,
+            IPartitionWriterFactory pwFactory, RecordDescriptor recordDescriptor, ITuplePartitionComputer tpc,
+            int[] dedupFields, String counterPrefix) throws HyracksDataException {
+        super(ctx, consumerPartitionCount, pwFactory, recordDescriptor, tpc);
+        this.dedupFields = dedupFields;
+        slotHashes = new int[CACHE_SLOTS];
+        slotFieldLengths = new int[CACHE_SLOTS * dedupFields.length];
+        slotData = new byte[CACHE_SLOTS * MAX_KEY_LENGTH];
+        ICounterContext counters = ctx.getCounterContext();
+        droppedTuples = counters.getCounter(counterPrefix + ".dedup.droppedTuples", true);
+        disabled = counters.getCounter(counterPrefix + ".dedup.disabled", true);
+    }
+
+    @Override
+    public void open() throws HyracksDataException {
+        super.open();
+        // a slot whose first field length is -1 is empty
+        Arrays.fill(slotFieldLengths, -1);
+        enabled = true;
+        tupleCount = 0;
+        hitCount = 0;
+    }
+
+    @Override
+    protected void processTuple(int tupleIndex) throws HyracksDataException {
+        if (enabled) {
+            boolean duplicate = isRecentDuplicate(tupleIndex);
+            if (duplicate) {
+                hitCount++;
+            }
+            if (++tupleCount == SAMPLE_TUPLES) {
+                enabled = hitCount >= MIN_HIT_RATIO * SAMPLE_TUPLES;
+                if (!enabled) {
+                    disabled.update(1);
+                }
+                tupleCount = 0;
+                hitCount = 0;
+            }
+            if (duplicate) {
+                droppedTuples.update(1);
+                return;
+            }
+        }
+        super.processTuple(tupleIndex);
+    }
+
+    /**
+     * Looks the dedup fields of the tuple up in the cache and remembers them if they were not found.
+     *
+     * @return true if the cache holds a tuple with the same dedup fields
+     */
+    private boolean isRecentDuplicate(int tupleIndex) {
+        byte[] data = tupleAccessor.getBuffer().array();
+        int tupleStart = tupleAccessor.getTupleStartOffset(tupleIndex) + tupleAccessor.getFieldSlotsLength();
+        int hash = 0;
+        int keyLength = 0;
+        for (int field : dedupFields) {
+            int fieldStart = tupleStart + tupleAccessor.getFieldStartOffset(tupleIndex, field);
+            int fieldLength = tupleAccessor.getFieldLength(tupleIndex, field);
+            hash = MurmurHash3BinaryHash.hash(data, fieldStart, fieldLength, hash);
+            keyLength += fieldLength;
+        }
+        if (keyLength > MAX_KEY_LENGTH) {
+            return false;
+        }
+        int slot = hash & (CACHE_SLOTS - 1);
+        int lengthsStart = slot * dedupFields.length;
+        int slotStart = slot * MAX_KEY_LENGTH;
+        if (slotFieldLengths[lengthsStart] >= 0 && slotHashes[slot] == hash
+                && keyEquals(data, tupleStart, tupleIndex, lengthsStart, slotStart)) {
+            return true;
+        }
+        slotHashes[slot] = hash;
+        int pos = slotStart;
+        for (int i = 0; i < dedupFields.length; i++) {
+            int fieldStart = tupleStart + tupleAccessor.getFieldStartOffset(tupleIndex, dedupFields[i]);
+            int fieldLength = tupleAccessor.getFieldLength(tupleIndex, dedupFields[i]);
+            System.arraycopy(data, fieldStart, slotData, pos, fieldLength);
+            slotFieldLengths[lengthsStart + i] = fieldLength;
+            pos += fieldLength;
+        }
+        return false;
+    }
+
+    private boolean keyEquals(byte[] data, int tupleStart, int tupleIndex, int lengthsStart, int slotStart) {
+        int pos = slotStart;
+        for (int i = 0; i < dedupFields.length; i++) {
+            int fieldStart = tupleStart + tupleAccessor.getFieldStartOffset(tupleIndex, dedupFields[i]);
+            int fieldLength = tupleAccessor.getFieldLength(tupleIndex, dedupFields[i]);
+            if (slotFieldLengths[lengthsStart + i] != fieldLength) {
+                return false;
+            }
+            for (int j = 0; j < fieldLength; j++) {
+                if (data[fieldStart + j] != slotData[pos + j]) {
+                    return false;
+                }
+            }
+            pos += fieldLength;
+        }
+        return true;
+    }
+}
@@ -43,6 +43,7 @@ import org.apache.hyracks.dataflow.std.buffermanager.ITuplePointerAccessor;
 import org.apache.hyracks.dataflow.std.buffermanager.PreferToSpillFullyOccupiedFramePolicy;
 import org.apache.hyracks.dataflow.std.buffermanager.VPartitionTupleBufferManager;
 import org.apache.hyracks.dataflow.std.structures.ISerializableTable;
+import org.apache.hyracks.dataflow.std.structures.OpenAddressingHashTable;
 import org.apache.hyracks.dataflow.std.structures.SerializableHashTable;
 import org.apache.hyracks.dataflow.std.structures.TuplePointer;
 import org.apache.hyracks.dataflow.std.util.FrameTuplePairComparator;
@@ -55,13 +56,24 @@ public class HashSpillableTableFactory implements ISpillableTableFactory {
     private static final double FUDGE_FACTOR = 1.1;
     private static final long serialVersionUID = 1L;
     private final IBinaryHashFunctionFamily[] hashFunctionFamilies;
+    private final boolean openAddressing;
     private static final int MIN_DATA_TABLE_FRAME_LIMT = 1;
     private static final int MIN_HASH_TABLE_FRAME_LIMT = 2;
     private static final int OUTPUT_FRAME_LIMT = 1;
     private static final int MIN_FRAME_LIMT = MIN_DATA_TABLE_FRAME_LIMT + MIN_HASH_TABLE_FRAME_LIMT + OUTPUT_FRAME_LIMT;
 
     public HashSpillableTableFactory(IBinaryHashFunctionFamily[] hashFunctionFamilies) {
+        this(hashFunctionFamilies, false);
+    }
+
+    /**
+     * @param hashFunctionFamilies the hash function families of the group-by keys
+     * @param openAddressing whether to keep the tuple pointers in an {@link OpenAddressingHashTable} instead of a
+     *            {@link SerializableHashTable}
+     */
+    public HashSpillableTableFactory(IBinaryHashFunctionFamily[] hashFunctionFamilies, boolean openAddressing) {
         this.hashFunctionFamilies = hashFunctionFamilies;
+        this.openAddressing = openAddressing;
     }
 
     @Override
@@ -129,7 +141,8 @@ public class HashSpillableTableFactory implements ISpillableTableFactory {
                     new FramePoolBackedFrameBufferManager(framePool);
 
             private final ISerializableTable hashTableForTuplePointer =
-                    new SerializableHashTable(tableSize, ctx, bufferManagerForHashTable);
+                    openAddressing ? new OpenAddressingHashTable(tableSize, ctx, bufferManagerForHashTable)
+                            : new SerializableHashTable(tableSize, ctx, bufferManagerForHashTable);
 
             // buffer manager for data table
             final IPartitionedTupleBufferManager bufferManager = new VPartitionTupleBufferManager(
@@ -284,6 +297,11 @@ public class HashSpillableTableFactory implements ISpillableTableFactory {
                 return bufferManager.getNumPartitions();
             }
 
+            @Override
+            public int getNumGroups() {
+                return hashTableForTuplePointer.getTupleCount();
+            }
+
             @Override
             public int findVictimPartition(IFrameTupleAccessor accessor, int tIndex) throws HyracksDataException {
                 int entryInHashTable = tpc.partition(accessor, tIndex, tableSize);
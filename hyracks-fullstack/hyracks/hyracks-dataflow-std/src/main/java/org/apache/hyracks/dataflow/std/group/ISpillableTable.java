@@ -61,6 +61,11 @@ public interface ISpillableTable {
      */
     int getNumPartitions();
 
+    /**
+     * Get number of groups that are currently kept in memory
+     */
+    int getNumGroups();
+
     /**
      * When the table is full, it will return a proper partition which will be the flush() candidate.
      * The {@code accessor} and {@code tIndex} given the reference to the tuple to be inserted.
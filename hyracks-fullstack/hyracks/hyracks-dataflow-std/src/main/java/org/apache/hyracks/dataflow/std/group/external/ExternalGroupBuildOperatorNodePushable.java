@@ -28,8 +28,11 @@ import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputerFactory;
 import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.job.profiling.counters.ICounter;
+import org.apache.hyracks.api.job.profiling.counters.ICounterContext;
 import org.apache.hyracks.dataflow.common.io.RunFileWriter;
 import org.apache.hyracks.dataflow.std.base.AbstractUnaryInputSinkOperatorNodePushable;
+import org.apache.hyracks.dataflow.std.group.AggregateType;
 import org.apache.hyracks.dataflow.std.group.IAggregatorDescriptorFactory;
 import org.apache.hyracks.dataflow.std.group.ISpillableTable;
 import org.apache.hyracks.dataflow.std.group.ISpillableTableFactory;
@@ -56,6 +59,14 @@ public class ExternalGroupBuildOperatorNodePushable extends AbstractUnaryInputSi
     private ExternalHashGroupBy externalGroupBy;
     private ExternalGroupState state;
     private boolean isFailed = false;
+    private int passThroughSampleFrames;
+    private double passThroughMaxGroupRatio;
+    private String counterPrefix;
+    private int sampledFrames;
+    private boolean passThroughDecided;
+    private ExternalGroupPassThrough passThrough;
+    private RunFileWriter passThroughRun;
+    private ICounter passThroughTuples;
 
     public ExternalGroupBuildOperatorNodePushable(IHyracksTaskContext ctx, Object stateId, int tableSize, long fileSize,
             int[] keyFields, int framesLimit, IBinaryComparatorFactory[] comparatorFactories,
@@ -80,6 +91,20 @@ public class ExternalGroupBuildOperatorNodePushable extends AbstractUnaryInputSi
         this.fileSize = fileSize;
     }
 
+    /**
+     * Lets the group-by stop grouping when it does not reduce its input (see
+     * {@link ExternalGroupOperatorDescriptor#setPassThrough(int, double)}).
+     *
+     * @param sampleFrames the minimum number of input frames after which the decision is taken
+     * @param maxGroupRatio the maximum number of groups per input tuple for which grouping is worth it
+     * @param counterPrefix the prefix of the counters that report the decision
+     */
+    public void setPassThrough(int sampleFrames, double maxGroupRatio, String counterPrefix) {
+        this.passThroughSampleFrames = sampleFrames;
+        this.passThroughMaxGroupRatio = maxGroupRatio;
+        this.counterPrefix = counterPrefix;
+    }
+
     @Override
     public void open() throws HyracksDataException {
         state = new ExternalGroupState(ctx.getJobletContext().getJobId(), stateId);
@@ -96,7 +121,45 @@ public class ExternalGroupBuildOperatorNodePushable extends AbstractUnaryInputSi
 
     @Override
     public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+        if (passThrough != null) {
+            passThroughTuples.update(passThrough.insert(buffer, passThroughRun));
+            return;
+        }
         externalGroupBy.insert(buffer);
+        if (passThroughSampleFrames > 0 && !passThroughDecided) {
+            if (sampledFrames < passThroughSampleFrames) {
+                sampledFrames++;
+            }
+            // as long as the table fits in memory grouping costs less than writing the input to a run file
+            if (sampledFrames == passThroughSampleFrames && externalGroupBy.hasSpilled()) {
+                passThroughDecided = true;
+                decidePassThrough();
+            }
+        }
+    }
+
+    private void decidePassThrough() throws HyracksDataException {
+        long numInputTuples = externalGroupBy.getNumInputTuples();
+        long numGroups = externalGroupBy.getNumGroups();
+        ICounterContext counters = ctx.getCounterContext();
+        counters.getCounter(counterPrefix + ".gby.sampledTuples", true).set(numInputTuples);
+        counters.getCounter(counterPrefix + ".gby.sampledGroups", true).set(numGroups);
+        if (numGroups <= numInputTuples * passThroughMaxGroupRatio) {
+            return;
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("switching to pass-through after " + numInputTuples + " tuples formed " + numGroups
+                    + " groups");
+        }
+        counters.getCounter(counterPrefix + ".gby.passThrough", true).set(1);
+        passThroughTuples = counters.getCounter(counterPrefix + ".gby.passThroughTuples", true);
+        passThrough = new ExternalGroupPassThrough(ctx, keyFields, aggregatorFactory, inRecordDescriptor,
+                outRecordDescriptor);
+        passThroughRun = getRunFileWriter();
+        passThroughRun.open();
+        state.setPassThroughRun(passThroughRun);
+        // no more tuples go to the table, so the groups of the partitions that are still in memory are complete
+        externalGroupBy.flushInMemoryPartitions(passThroughRun, AggregateType.FINAL);
     }
 
     @Override
@@ -112,7 +175,19 @@ public class ExternalGroupBuildOperatorNodePushable extends AbstractUnaryInputSi
                     run.erase();
                 }
             }
+            if (passThroughRun != null) {
+                passThrough.close();
+                passThroughRun.erase();
+            }
         } else {
+            if (passThroughRun != null) {
+                try {
+                    passThrough.flush(passThroughRun);
+                } finally {
+                    passThrough.close();
+                    passThroughRun.close();
+                }
+            }
             externalGroupBy.flushSpilledPartitions();
             ctx.setStateObject(state);
             if (LOGGER.isDebugEnabled()) {
@@ -129,12 +204,14 @@ public class ExternalGroupBuildOperatorNodePushable extends AbstractUnaryInputSi
         }
         state = null;
         externalGroupBy = null;
+        passThrough = null;
+        passThroughRun = null;
     }
 
     @Override
     public RunFileWriter getRunFileWriter() throws HyracksDataException {
         FileReference file = ctx.getJobletContext()
                 .createManagedWorkspaceFile(ExternalGroupOperatorDescriptor.class.getSimpleName());
-        return new RunFileWriter(file, ctx.getIoManager());
+        return new RunFileWriter(file, ctx.getIoManager(), ctx.getJobFlags());
     }
 }
@@ -58,6 +58,8 @@ public class ExternalGroupOperatorDescriptor extends AbstractOperatorDescriptor
     private final RecordDescriptor outRecDesc;
     private final int tableSize;
     private final long fileSize;
+    private int passThroughSampleFrames;
+    private double passThroughMaxGroupRatio;
 
     public ExternalGroupOperatorDescriptor(IOperatorDescriptorRegistry spec, int inputSizeInTuple, long inputFileSize,
             int[] keyFields, int framesLimit, IBinaryComparatorFactory[] comparatorFactories,
@@ -93,6 +95,21 @@ public class ExternalGroupOperatorDescriptor extends AbstractOperatorDescriptor
         this.fileSize = inputFileSize;
     }
 
+    /**
+     * Lets a partial group-by stop grouping when it does not reduce its input. Once the given number of input frames
+     * has been consumed and the table has started spilling, if the input formed more than {@code maxGroupRatio} groups
+     * per tuple, the groups in memory are output and every following tuple is output as a group of its own, without
+     * going through the table. A group-by whose table fits in memory always keeps grouping.
+     * This is only correct when the output is grouped again, i.e. for the local side of a two-step aggregation.
+     *
+     * @param sampleFrames the number of input frames after which the decision is taken, 0 to always group
+     * @param maxGroupRatio the maximum number of groups per input tuple for which grouping is worth it
+     */
+    public void setPassThrough(int sampleFrames, double maxGroupRatio) {
+        this.passThroughSampleFrames = sampleFrames;
+        this.passThroughMaxGroupRatio = maxGroupRatio;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -125,10 +142,13 @@ public class ExternalGroupOperatorDescriptor extends AbstractOperatorDescriptor
         public IOperatorNodePushable createPushRuntime(final IHyracksTaskContext ctx,
                 final IRecordDescriptorProvider recordDescProvider, final int partition, int nPartitions)
                 throws HyracksDataException {
-            return new ExternalGroupBuildOperatorNodePushable(ctx, new TaskId(getActivityId(), partition), tableSize,
-                    fileSize, keyFields, framesLimit, comparatorFactories, firstNormalizerFactory,
-                    partialAggregatorFactory, recordDescProvider.getInputRecordDescriptor(getActivityId(), 0),
-                    outRecDescs[0], spillableTableFactory);
+            ExternalGroupBuildOperatorNodePushable op = new ExternalGroupBuildOperatorNodePushable(ctx,
+                    new TaskId(getActivityId(), partition), tableSize, fileSize, keyFields, framesLimit,
+                    comparatorFactories, firstNormalizerFactory, partialAggregatorFactory,
+                    recordDescProvider.getInputRecordDescriptor(getActivityId(), 0), outRecDescs[0],
+                    spillableTableFactory);
+            op.setPassThrough(passThroughSampleFrames, passThroughMaxGroupRatio, getOperatorId().toString());
+            return op;
         }
     }
 
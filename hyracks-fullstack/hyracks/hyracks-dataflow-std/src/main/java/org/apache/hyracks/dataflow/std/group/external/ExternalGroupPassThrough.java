@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.group.external;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.comm.FrameHelper;
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.std.group.AggregateState;
+import org.apache.hyracks.dataflow.std.group.IAggregatorDescriptor;
+import org.apache.hyracks.dataflow.std.group.IAggregatorDescriptorFactory;
+
+/**
+ * Turns every input tuple into the result of a group that only contains this tuple, without looking for other
+ * tuples of the same group. This is what a local (partial) group-by falls back to when it does not reduce its input,
+ * the global group-by that consumes its output does the actual grouping.
+ */
+class ExternalGroupPassThrough {
+
+    private final int[] keyFields;
+    private final FrameTupleAccessor inputAccessor;
+    private final IAggregatorDescriptor aggregator;
+    private final AggregateState aggregateState;
+    private final ArrayTupleBuilder stateTupleBuilder;
+    private final ArrayTupleBuilder outputTupleBuilder;
+    private final VSizeFrame stateFrame;
+    private final FrameTupleAppender stateAppender;
+    private final FrameTupleAccessor stateAccessor;
+    private final FrameTupleAppender outputAppender;
+
+    ExternalGroupPassThrough(IHyracksTaskContext ctx, int[] keyFields, IAggregatorDescriptorFactory aggregatorFactory,
+            RecordDescriptor inRecordDescriptor, RecordDescriptor outRecordDescriptor) throws HyracksDataException {
+        this.keyFields = keyFields;
+        int[] keyFieldsInPartialResults = new int[keyFields.length];
+        for (int i = 0; i < keyFields.length; i++) {
+            keyFieldsInPartialResults[i] = i;
+        }
+        inputAccessor = new FrameTupleAccessor(inRecordDescriptor);
+        aggregator = aggregatorFactory.createAggregator(ctx, inRecordDescriptor, outRecordDescriptor, keyFields,
+                keyFieldsInPartialResults, null, -1);
+        aggregateState = aggregator.createAggregateStates();
+        stateTupleBuilder = new ArrayTupleBuilder(outRecordDescriptor.getFields().length);
+        outputTupleBuilder = new ArrayTupleBuilder(outRecordDescriptor.getFields().length);
+        stateFrame = new VSizeFrame(ctx);
+        stateAppender = new FrameTupleAppender();
+        stateAccessor = new FrameTupleAccessor(outRecordDescriptor);
+        outputAppender = new FrameTupleAppender(new VSizeFrame(ctx));
+    }
+
+    /**
+     * @return the number of tuples in the given frame
+     */
+    int insert(ByteBuffer buffer, IFrameWriter writer) throws HyracksDataException {
+        inputAccessor.reset(buffer);
+        int tupleCount = inputAccessor.getTupleCount();
+        for (int i = 0; i < tupleCount; i++) {
+            stateTupleBuilder.reset();
+            for (int k = 0; k < keyFields.length; k++) {
+                stateTupleBuilder.addField(inputAccessor, i, keyFields[k]);
+            }
+            aggregator.init(stateTupleBuilder, inputAccessor, i, aggregateState);
+            // the aggregator reads its state from a frame, so the state of each tuple goes through the state frame
+            stateAppender.reset(stateFrame, true);
+            if (!appendState()) {
+                stateFrame.ensureFrameSize(FrameHelper.calcAlignedFrameSizeToStore(
+                        stateTupleBuilder.getFieldEndOffsets().length, stateTupleBuilder.getSize(),
+                        stateFrame.getMinSize()));
+                stateAppender.reset(stateFrame, true);
+                if (!appendState()) {
+                    throw new HyracksDataException("The aggregate state is too large to be fit into a frame.");
+                }
+            }
+            stateAccessor.reset(stateFrame.getBuffer());
+            outputTupleBuilder.reset();
+            for (int k = 0; k < keyFields.length; k++) {
+                outputTupleBuilder.addField(stateAccessor, 0, k);
+            }
+            if (aggregator.outputFinalResult(outputTupleBuilder, stateAccessor, 0, aggregateState)
+                    && !outputAppender.appendSkipEmptyField(outputTupleBuilder.getFieldEndOffsets(),
+                            outputTupleBuilder.getByteArray(), 0, outputTupleBuilder.getSize())) {
+                outputAppender.write(writer, true);
+                if (!outputAppender.appendSkipEmptyField(outputTupleBuilder.getFieldEndOffsets(),
+                        outputTupleBuilder.getByteArray(), 0, outputTupleBuilder.getSize())) {
+                    throw new HyracksDataException("The output item is too large to be fit into a frame.");
+                }
+            }
+        }
+        return tupleCount;
+    }
+
+    private boolean appendState() throws HyracksDataException {
+        return stateAppender.append(stateTupleBuilder.getFieldEndOffsets(), stateTupleBuilder.getByteArray(), 0,
+                stateTupleBuilder.getSize());
+    }
+
+    void flush(IFrameWriter writer) throws HyracksDataException {
+        outputAppender.write(writer, true);
+    }
+
+    void close() {
+        aggregator.close();
+    }
+}
@@ -32,6 +32,7 @@ public class ExternalGroupState extends AbstractStateObject {
     private RunFileWriter[] runs;
     private ISpillableTable gTable;
     private int[] spilledNumTuples;
+    private RunFileWriter passThroughRun;
 
     ExternalGroupState(JobId jobId, Object id) {
         super(jobId, id);
@@ -70,4 +71,15 @@ public class ExternalGroupState extends AbstractStateObject {
     public int[] getSpilledNumTuples() {
         return spilledNumTuples;
     }
+
+    /**
+     * @return the run that holds the results of the tuples that bypassed the table, or null if none did
+     */
+    public RunFileWriter getPassThroughRun() {
+        return passThroughRun;
+    }
+
+    public void setPassThroughRun(RunFileWriter passThroughRun) {
+        this.passThroughRun = passThroughRun;
+    }
 }
@@ -91,9 +91,16 @@ public class ExternalGroupWriteOperatorNodePushable extends AbstractUnaryOutputS
         ISpillableTable table = aggState.getSpillableTable();
         RunFileWriter[] partitionRuns = aggState.getRuns();
         int[] numberOfTuples = aggState.getSpilledNumTuples();
+        RunFileWriter passThroughRun = aggState.getPassThroughRun();
+        if (passThroughRun != null) {
+            generatedRuns.add(passThroughRun);
+        }
         try {
             writer.open();
             doPass(table, partitionRuns, numberOfTuples, writer, 1); // level 0 use used at build stage.
+            if (passThroughRun != null) {
+                writePassThroughRun(passThroughRun.createDeleteOnCloseReader(), writer);
+            }
         } catch (Exception e) {
             try {
                 for (RunFileWriter run : generatedRuns) {
@@ -169,9 +176,24 @@ public class ExternalGroupWriteOperatorNodePushable extends AbstractUnaryOutputS
         return groupBy.getSpilledNumTuples();
     }
 
+    /**
+     * The tuples that bypassed the table at the build stage are already results, they are written out as they are.
+     */
+    private void writePassThroughRun(RunFileReader reader, IFrameWriter writer) throws HyracksDataException {
+        reader.open();
+        try {
+            VSizeFrame frame = new VSizeFrame(ctx);
+            while (reader.nextFrame(frame)) {
+                writer.nextFrame(frame.getBuffer());
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
     @Override
     public RunFileWriter getRunFileWriter() throws HyracksDataException {
         FileReference newRun = ctx.createManagedWorkspaceFile(ExternalGroupOperatorDescriptor.class.getSimpleName());
-        return new RunFileWriter(newRun, ctx.getIoManager());
+        return new RunFileWriter(newRun, ctx.getIoManager(), ctx.getJobFlags());
     }
 }
@@ -21,6 +21,7 @@ package org.apache.hyracks.dataflow.std.group.external;
 
 import java.nio.ByteBuffer;
 
+import org.apache.hyracks.api.comm.IFrameWriter;
 import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
@@ -36,6 +37,7 @@ public class ExternalHashGroupBy {
     private ISpillableTable table;
     private RunFileWriter[] runWriters;
     private int[] spilledNumTuples;
+    private long numInputTuples;
 
     public ExternalHashGroupBy(IRunFileWriterGenerator runFileWriterGenerator, ISpillableTable table,
             RunFileWriter[] runWriters, RecordDescriptor inRecordDescriptor) {
@@ -49,6 +51,7 @@ public class ExternalHashGroupBy {
     public void insert(ByteBuffer buffer) throws HyracksDataException {
         accessor.reset(buffer);
         int tupleCount = accessor.getTupleCount();
+        numInputTuples += tupleCount;
         for (int i = 0; i < tupleCount; i++) {
             if (!table.insert(accessor, i)) {
                 do {
@@ -89,6 +92,19 @@ public class ExternalHashGroupBy {
         }
     }
 
+    /**
+     * Writes the groups of the partitions that have not been spilled to the given writer and clears them. The groups
+     * of the spilled partitions stay in memory until {@link #flushSpilledPartitions()} writes them to their runs.
+     */
+    public void flushInMemoryPartitions(IFrameWriter writer, AggregateType type) throws HyracksDataException {
+        for (int i = 0; i < runWriters.length; ++i) {
+            if (runWriters[i] == null) {
+                table.flushFrames(i, writer, type);
+                table.clear(i);
+            }
+        }
+    }
+
     private RunFileWriter getPartitionWriterOrCreateOneIfNotExist(int partition) throws HyracksDataException {
         if (runWriters[partition] == null) {
             runWriters[partition] = runFileWriterGenerator.getRunFileWriter();
@@ -97,7 +113,34 @@ public class ExternalHashGroupBy {
         return runWriters[partition];
     }
 
+    /**
+     * @return whether at least one partition of the table has been spilled to a run file
+     */
+    public boolean hasSpilled() {
+        for (RunFileWriter runWriter : runWriters) {
+            if (runWriter != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public int[] getSpilledNumTuples() {
         return spilledNumTuples;
     }
+
+    public long getNumInputTuples() {
+        return numInputTuples;
+    }
+
+    /**
+     * @return the number of groups created so far, including the ones that have been spilled
+     */
+    public long getNumGroups() {
+        long numGroups = table.getNumGroups();
+        for (int spilled : spilledNumTuples) {
+            numGroups += spilled;
+        }
+        return numGroups;
+    }
 }
@@ -81,7 +81,7 @@ public class ExternalSortGroupByRunGenerator extends AbstractExternalSortRunGene
     protected RunFileWriter getRunFileWriter() throws HyracksDataException {
         FileReference file = ctx.getJobletContext()
                 .createManagedWorkspaceFile(ExternalSortGroupByRunGenerator.class.getSimpleName());
-        return new RunFileWriter(file, ctx.getIoManager());
+        return new RunFileWriter(file, ctx.getIoManager(), ctx.getJobFlags());
     }
 
     @Override
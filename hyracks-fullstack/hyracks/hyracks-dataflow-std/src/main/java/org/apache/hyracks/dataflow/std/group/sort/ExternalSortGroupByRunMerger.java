@@ -96,7 +96,7 @@ public class ExternalSortGroupByRunMerger extends AbstractExternalSortRunMerger
     @Override
     protected RunFileWriter prepareIntermediateMergeRunFile() throws HyracksDataException {
         FileReference newRun = ctx.createManagedWorkspaceFile(ExternalSortGroupByRunMerger.class.getSimpleName());
-        return new RunFileWriter(newRun, ctx.getIoManager());
+        return new RunFileWriter(newRun, ctx.getIoManager(), ctx.getJobFlags());
     }
 
     @Override
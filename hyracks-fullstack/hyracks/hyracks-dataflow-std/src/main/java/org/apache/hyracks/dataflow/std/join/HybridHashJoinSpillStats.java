@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.join;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.job.profiling.counters.ICounter;
+import org.apache.hyracks.api.job.profiling.counters.ICounterContext;
+
+/**
+ * Spilling statistics of a hybrid hash join. The statistics are kept in the counters of the probe task, so they are
+ * reported with the task profile and end up in the job profile under "{operator id}.hhj.{statistic}".
+ */
+class HybridHashJoinSpillStats {
+
+    private final ICounter spilledPartitions;
+    private final ICounter bytesSpilled;
+    private final ICounter maxRecursionDepth;
+    private final ICounter roleReversals;
+    private final ICounter blockHashJoins;
+    private final ICounter nestedLoopJoins;
+
+    HybridHashJoinSpillStats(IHyracksTaskContext ctx, String prefix) {
+        ICounterContext counters = ctx.getCounterContext();
+        spilledPartitions = counters.getCounter(prefix + ".hhj.spilledPartitions", true);
+        bytesSpilled = counters.getCounter(prefix + ".hhj.bytesSpilled", true);
+        maxRecursionDepth = counters.getCounter(prefix + ".hhj.maxRecursionDepth", true);
+        roleReversals = counters.getCounter(prefix + ".hhj.roleReversals", true);
+        blockHashJoins = counters.getCounter(prefix + ".hhj.blockHashJoins", true);
+        nestedLoopJoins = counters.getCounter(prefix + ".hhj.nestedLoopJoins", true);
+    }
+
+    void partitionSpilled(long buildBytes, long probeBytes) {
+        spilledPartitions.update(1);
+        bytesSpilled.update(buildBytes + probeBytes);
+    }
+
+    void levelReached(int level) {
+        if (level > maxRecursionDepth.get()) {
+            maxRecursionDepth.set(level);
+        }
+    }
+
+    void roleReversed() {
+        roleReversals.update(1);
+    }
+
+    void blockHashJoinApplied() {
+        blockHashJoins.update(1);
+    }
+
+    void nestedLoopJoinApplied() {
+        nestedLoopJoins.update(1);
+    }
+}
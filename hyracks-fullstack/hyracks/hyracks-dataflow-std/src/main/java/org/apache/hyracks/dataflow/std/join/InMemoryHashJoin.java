@@ -63,6 +63,7 @@ public class InMemoryHashJoin {
     // To release frames
     private final ISimpleFrameBufferManager bufferManager;
     private final boolean isTableCapacityNotZero;
+    private int[] probeEntries = new int[0];
 
     private static final Logger LOGGER = LogManager.getLogger();
 
@@ -161,9 +162,12 @@ public class InMemoryHashJoin {
      * This method assumes that the accessorProbe is already set to the current probe frame.
      */
     void join(int tid, IFrameWriter writer) throws HyracksDataException {
+        join(tid, isTableCapacityNotZero ? tpcProbe.partition(accessorProbe, tid, table.getTableSize()) : -1, writer);
+    }
+
+    private void join(int tid, int entry, IFrameWriter writer) throws HyracksDataException {
         boolean matchFound = false;
         if (isTableCapacityNotZero) {
-            int entry = tpcProbe.partition(accessorProbe, tid, table.getTableSize());
             int tupleCount = table.getTupleCount(entry);
             for (int i = 0; i < tupleCount; i++) {
                 table.getTuplePointer(entry, i, storedTuplePointer);
@@ -190,8 +194,21 @@ public class InMemoryHashJoin {
     public void join(ByteBuffer buffer, IFrameWriter writer) throws HyracksDataException {
         accessorProbe.reset(buffer);
         int tupleCount0 = accessorProbe.getTupleCount();
+        if (!isTableCapacityNotZero) {
+            for (int i = 0; i < tupleCount0; ++i) {
+                join(i, -1, writer);
+            }
+            return;
+        }
+        // Hashes the whole frame before probing so that the probe loop only walks the table.
+        if (probeEntries.length < tupleCount0) {
+            probeEntries = new int[tupleCount0];
+        }
+        for (int i = 0; i < tupleCount0; ++i) {
+            probeEntries[i] = tpcProbe.partition(accessorProbe, i, table.getTableSize());
+        }
         for (int i = 0; i < tupleCount0; ++i) {
-            join(i, writer);
+            join(i, probeEntries[i], writer);
         }
     }
 
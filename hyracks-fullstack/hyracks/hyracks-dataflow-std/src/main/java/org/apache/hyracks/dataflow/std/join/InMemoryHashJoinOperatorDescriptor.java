@@ -54,6 +54,7 @@ import org.apache.hyracks.dataflow.std.buffermanager.FramePoolBackedFrameBufferM
 import org.apache.hyracks.dataflow.std.buffermanager.IDeallocatableFramePool;
 import org.apache.hyracks.dataflow.std.buffermanager.ISimpleFrameBufferManager;
 import org.apache.hyracks.dataflow.std.structures.ISerializableTable;
+import org.apache.hyracks.dataflow.std.structures.OpenAddressingHashTable;
 import org.apache.hyracks.dataflow.std.structures.SerializableHashTable;
 
 public class InMemoryHashJoinOperatorDescriptor extends AbstractOperatorDescriptor {
@@ -69,6 +70,7 @@ public class InMemoryHashJoinOperatorDescriptor extends AbstractOperatorDescript
     private final int tableSize;
     // The maximum number of in-memory frames that this hash join can use.
     private final int memSizeInFrames;
+    private boolean openAddressingTable;
 
     public InMemoryHashJoinOperatorDescriptor(IOperatorDescriptorRegistry spec, int[] keys0, int[] keys1,
             IBinaryHashFunctionFactory[] hashFunctionFactories0, IBinaryHashFunctionFactory[] hashFunctionFactories1,
@@ -97,6 +99,14 @@ public class InMemoryHashJoinOperatorDescriptor extends AbstractOperatorDescript
         this.memSizeInFrames = memSizeInFrames;
     }
 
+    /**
+     * @param openAddressingTable whether the build side is kept in an {@link OpenAddressingHashTable} instead of a
+     *            {@link SerializableHashTable}
+     */
+    public void setOpenAddressingTable(boolean openAddressingTable) {
+        this.openAddressingTable = openAddressingTable;
+    }
+
     @Override
     public void contributeActivities(IActivityGraphBuilder builder) {
         ActivityId hbaId = new ActivityId(odId, 0);
@@ -176,7 +186,9 @@ public class InMemoryHashJoinOperatorDescriptor extends AbstractOperatorDescript
                     ITuplePartitionComputer hpc1 =
                             new FieldHashPartitionComputerFactory(keys1, hashFunctionFactories1).createPartitioner(ctx);
                     state = new HashBuildTaskState(jobletCtx.getJobId(), new TaskId(getActivityId(), partition));
-                    ISerializableTable table = new SerializableHashTable(tableSize, jobletCtx, bufferManager);
+                    ISerializableTable table =
+                            openAddressingTable ? new OpenAddressingHashTable(tableSize, jobletCtx, bufferManager)
+                                    : new SerializableHashTable(tableSize, jobletCtx, bufferManager);
                     state.joiner = new InMemoryHashJoin(jobletCtx, new FrameTupleAccessor(rd0), hpc0,
                             new FrameTupleAccessor(rd1), rd1, hpc1, isLeftOuter, nullWriters1, table, predEvaluator,
                             bufferManager);
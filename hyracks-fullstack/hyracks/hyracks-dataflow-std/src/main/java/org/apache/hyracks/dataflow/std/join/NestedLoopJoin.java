@@ -91,7 +91,7 @@ public class NestedLoopJoin {
 
         FileReference file =
                 jobletContext.createManagedWorkspaceFile(this.getClass().getSimpleName() + this.toString());
-        runFileWriter = new RunFileWriter(file, jobletContext.getIoManager());
+        runFileWriter = new RunFileWriter(file, jobletContext.getIoManager(), jobletContext.getJobFlags());
         runFileWriter.open();
     }
 
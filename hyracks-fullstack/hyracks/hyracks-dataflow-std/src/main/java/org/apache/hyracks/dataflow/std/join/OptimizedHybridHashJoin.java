@@ -176,7 +176,7 @@ public class OptimizedHybridHashJoin {
         RunFileWriter writer = runFileWriters[pid];
         if (writer == null) {
             FileReference file = jobletCtx.createManagedWorkspaceFile(refName);
-            writer = new RunFileWriter(file, jobletCtx.getIoManager());
+            writer = new RunFileWriter(file, jobletCtx.getIoManager(), jobletCtx.getJobFlags());
             writer.open();
             runFileWriters[pid] = writer;
         }
@@ -22,7 +22,9 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.List;
 
 import org.apache.hyracks.api.comm.IFrame;
 import org.apache.hyracks.api.comm.VSizeFrame;
@@ -100,10 +102,15 @@ import org.apache.logging.log4j.Logger;
  *         if any of Ri or Si is smaller than M, then we simply use an in-memory hash join to join them
  *         otherwise we apply HHJ recursively:
  *         if after applying HHJ recursively, we do not gain enough size reduction (max size of the
- *         resulting partitions were more than 80% of the initial Ri,Si size) then we switch to
- *         nested loop join for joining.
+ *         resulting partitions were more than 80% of the initial Ri,Si size) the partitions are dominated by
+ *         duplicate keys and another round of hashing will not help. We then switch to a block hash join for
+ *         inner joins (the build side is loaded chunk by chunk into an in-memory hash table and the probe side is
+ *         scanned once per chunk), and to nested loop join for left outer joins.
  *         (At each step of partition-pair joining, we consider role reversal, which means if size of Si were
  *         greater than Ri, then we make sure that we switch the roles of build/probe between them)
+ *         The probe task reports the number of spilled partitions, the bytes spilled, the maximum recursion depth,
+ *         the number of role reversals and the number of fallback joins as counters in the job profile
+ *         (see {@link HybridHashJoinSpillStats}).
  */
 
 public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorDescriptor {
@@ -379,12 +386,14 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                 private FrameTupleAppender nullResultAppender = null;
                 private FrameTupleAccessor probeTupleAccessor;
                 private boolean failed = false;
+                private HybridHashJoinSpillStats stats;
 
                 @Override
                 public void open() throws HyracksDataException {
                     state = (BuildAndPartitionTaskState) ctx.getStateObject(
                             new TaskId(new ActivityId(getOperatorId(), BUILD_AND_PARTITION_ACTIVITY_ID), partition));
 
+                    stats = new HybridHashJoinSpillStats(ctx, getOperatorId().toString());
                     writer.open();
                     state.hybridHJ.initProbe(probComp);
 
@@ -429,6 +438,7 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                                 partitionStatus.nextSetBit(pid + 1)) {
                             RunFileReader bReader = state.hybridHJ.getBuildRFReader(pid);
                             RunFileReader pReader = state.hybridHJ.getProbeRFReader(pid);
+                            recordSpill(bReader, pReader);
 
                             if (bReader == null || pReader == null) {
                                 if (isLeftOuter && pReader != null) {
@@ -464,6 +474,11 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                     }
                 }
 
+                private void recordSpill(RunFileReader buildReader, RunFileReader probeReader) {
+                    stats.partitionSpilled(buildReader == null ? 0 : buildReader.getFileSize(),
+                            probeReader == null ? 0 : probeReader.getFileSize());
+                }
+
                 private void logProbeComplete() {
                     if (LOGGER.isDebugEnabled()) {
                         LOGGER.debug("OptimizedHybridHashJoin closed its probe phase");
@@ -484,6 +499,7 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                     long buildPartSize = (long) Math.ceil((double) buildSideReader.getFileSize() / (double) frameSize);
                     long probePartSize = (long) Math.ceil((double) probeSideReader.getFileSize() / (double) frameSize);
                     int beforeMax = Math.max(buildSizeInTuple, probeSizeInTuple);
+                    stats.levelReached(level);
 
                     if (LOGGER.isDebugEnabled()) {
                         LOGGER.debug("\n>>>Joining Partition Pairs (thread_id " + Thread.currentThread().getId()
@@ -523,6 +539,7 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                                 LOGGER.debug("\t>>>Case 1.2. (NoIsLeftOuter || probe<build) AND ApplyInMemHJ"
                                         + "WITH RoleReversal - [Level " + level + "]");
                             }
+                            stats.roleReversed();
                             tabSize = probeSizeInTuple;
                             if (tabSize == 0) {
                                 throw new HyracksDataException(
@@ -554,6 +571,7 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                                 LOGGER.debug(
                                         "\t\t>>>Case 2.2. - RecursiveHHJ WITH RoleReversal - [Level " + level + "]");
                             }
+                            stats.roleReversed();
 
                             applyHybridHashJoin((int) probePartSize, BUILD_REL, PROBE_REL, buildKeys, probeKeys,
                                     buildRd, probeRd, buildHpc, probeHpc, buildSideReader, probeSideReader, level,
@@ -628,6 +646,7 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                                 RunFileReader rprfw = rHHj.getProbeRFReader(rPid);
                                 int rbSizeInTuple = rHHj.getBuildPartitionSizeInTup(rPid);
                                 int rpSizeInTuple = rHHj.getProbePartitionSizeInTup(rPid);
+                                recordSpill(rbrfw, rprfw);
 
                                 if (rbrfw == null || rprfw == null) {
                                     if (isLeftOuter && rprfw != null) {
@@ -650,14 +669,15 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                                 }
                             }
 
-                        } else { //Case 2.1.2 - Switch to NLJ
+                        } else { //Case 2.1.2 - Switch to block hash join (inner) or NLJ (left outer)
                             if (LOGGER.isDebugEnabled()) {
-                                LOGGER.debug("\t\t>>>Case 2.1.2 - SWITCHED to NLJ RecursiveHHJ WITH "
-                                        + "(isLeftOuter || build<probe) - [Level " + level + "]");
+                                LOGGER.debug("\t\t>>>Case 2.1.2 - SWITCHED to " + (isLeftOuter ? "NLJ" : "BlockHJ")
+                                        + " RecursiveHHJ WITH (isLeftOuter || build<probe) - [Level " + level + "]");
                             }
                             for (int rPid = rPStatus.nextSetBit(0); rPid >= 0; rPid = rPStatus.nextSetBit(rPid + 1)) {
                                 RunFileReader rbrfw = rHHj.getBuildRFReader(rPid);
                                 RunFileReader rprfw = rHHj.getProbeRFReader(rPid);
+                                recordSpill(rbrfw, rprfw);
 
                                 if (rbrfw == null || rprfw == null) {
                                     if (isLeftOuter && rprfw != null) {
@@ -675,6 +695,17 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
 
                                 int buildSideInTups = rHHj.getBuildPartitionSizeInTup(rPid);
                                 int probeSideInTups = rHHj.getProbePartitionSizeInTup(rPid);
+                                if (!isLeftOuter && !forceNLJ) {
+                                    // the smaller side is loaded chunk by chunk, the larger one is scanned per chunk
+                                    if (buildSideInTups <= probeSideInTups) {
+                                        applyBlockHashJoin(buildKeys, probeKeys, buildRd, probeRd, rbrfw, rprfw,
+                                                buildSideInTups, level + 1);
+                                    } else {
+                                        applyBlockHashJoin(probeKeys, buildKeys, probeRd, buildRd, rprfw, rbrfw,
+                                                probeSideInTups, level + 1);
+                                    }
+                                    continue;
+                                }
                                 // NLJ order is outer + inner, the order is reversed from the other joins
                                 if (isLeftOuter || probeSideInTups < buildSideInTups) {
                                     //checked-modified
@@ -781,6 +812,130 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                     }
                 }
 
+                /**
+                 * Joins a partition pair that recursive partitioning could not shrink, which happens when a few keys
+                 * have many duplicates. The build side is loaded chunk by chunk into an in-memory hash table and the
+                 * probe side is scanned once per chunk, so the duplicates are still matched through hash lookups
+                 * instead of comparing every pair of tuples. A probe tuple may find its matches in any chunk, hence
+                 * this is only correct for inner joins.
+                 */
+                private void applyBlockHashJoin(int[] bKeys, int[] pKeys, RecordDescriptor buildRDesc,
+                        RecordDescriptor probeRDesc, RunFileReader bReader, RunFileReader pReader,
+                        int buildSizeInTuple, int level) throws HyracksDataException {
+                    boolean isReversed = pKeys == OptimizedHybridHashJoinOperatorDescriptor.this.buildKeys
+                            && bKeys == OptimizedHybridHashJoinOperatorDescriptor.this.probeKeys;
+                    assert !isLeftOuter : "Block hash join can not be used for left outer joins";
+                    ITuplePairComparator comp = isReversed ? buildComp : probComp;
+                    // a fresh seed, all the tuples of this pair already share the partition of the previous seed
+                    ITuplePartitionComputer hpcRepBuild = new FieldHashPartitionComputerFamily(bKeys,
+                            isReversed ? propHashFunctionFactories : buildHashFunctionFactories)
+                                    .createPartitioner(level);
+                    ITuplePartitionComputer hpcRepProbe = new FieldHashPartitionComputerFamily(pKeys,
+                            isReversed ? buildHashFunctionFactories : propHashFunctionFactories)
+                                    .createPartitioner(level);
+                    stats.blockHashJoinApplied();
+
+                    // leave enough room for the hash table of a chunk
+                    int frameSize = jobletCtx.getInitialFrameSize();
+                    long buildSizeInFrames = Math.max(1, (long) Math.ceil((double) bReader.getFileSize() / frameSize));
+                    double tuplesPerFrame = Math.max(1.0, (double) buildSizeInTuple / buildSizeInFrames);
+                    int chunkFrames = state.memForJoin - 1;
+                    while (chunkFrames > 1 && chunkFrames + SerializableHashTable
+                            .getExpectedTableFrameCount((long) Math.ceil(chunkFrames * tuplesPerFrame),
+                                    frameSize) >= state.memForJoin) {
+                        chunkFrames--;
+                    }
+
+                    FrameTupleAccessor chunkAccessor = new FrameTupleAccessor(buildRDesc);
+                    IFrame probeBuff = new VSizeFrame(jobletCtx);
+                    List<ByteBuffer> chunk = new ArrayList<>();
+                    boolean buildExhausted = false;
+                    boolean probeDeleted = false;
+                    boolean pending = false;
+                    // the probe side is read once per chunk, only the last read may delete its run file
+                    pReader.setDeleteAfterClose(false);
+                    try {
+                        bReader.open();
+                        rPartbuff.reset();
+                        while (!buildExhausted) {
+                            IDeallocatableFramePool framePool =
+                                    new DeallocatableFramePool(jobletCtx, state.memForJoin * frameSize);
+                            ISimpleFrameBufferManager bufferManager = new FramePoolBackedFrameBufferManager(framePool);
+                            chunk.clear();
+                            int chunkTuples = 0;
+                            int usedFrames = 0;
+                            while (true) {
+                                if (!pending && !bReader.nextFrame(rPartbuff)) {
+                                    buildExhausted = true;
+                                    break;
+                                }
+                                pending = false;
+                                int nFrames = rPartbuff.getFrameSize() / frameSize;
+                                ByteBuffer copyBuffer = chunk.isEmpty() || usedFrames + nFrames <= chunkFrames
+                                        ? bufferManager.acquireFrame(rPartbuff.getFrameSize()) : null;
+                                if (copyBuffer == null) {
+                                    if (chunk.isEmpty()) {
+                                        throw new HyracksDataException("Can't allocate one more frame. "
+                                                + "Assign more memory to InMemoryHashJoin.");
+                                    }
+                                    // keep the frame for the next chunk
+                                    pending = true;
+                                    break;
+                                }
+                                FrameUtils.copyAndFlip(rPartbuff.getBuffer(), copyBuffer);
+                                chunkAccessor.reset(copyBuffer);
+                                chunkTuples += chunkAccessor.getTupleCount();
+                                usedFrames += nFrames;
+                                chunk.add(copyBuffer);
+                            }
+                            if (chunk.isEmpty()) {
+                                break;
+                            }
+                            ISerializableTable table =
+                                    new SerializableHashTable(Math.max(1, chunkTuples), jobletCtx, bufferManager);
+                            InMemoryHashJoin joiner = new InMemoryHashJoin(jobletCtx,
+                                    new FrameTupleAccessor(probeRDesc), hpcRepProbe, new FrameTupleAccessor(buildRDesc),
+                                    buildRDesc, hpcRepBuild, false, null, table, predEvaluator, isReversed,
+                                    bufferManager);
+                            joiner.setComparator(comp);
+                            try {
+                                for (ByteBuffer buffer : chunk) {
+                                    joiner.build(buffer);
+                                }
+                                pReader.setDeleteAfterClose(buildExhausted);
+                                pReader.open();
+                                try {
+                                    while (pReader.nextFrame(probeBuff)) {
+                                        joiner.join(probeBuff.getBuffer(), writer);
+                                        probeBuff.reset();
+                                    }
+                                    joiner.completeJoin(writer);
+                                } finally {
+                                    pReader.close();
+                                    probeDeleted = buildExhausted;
+                                }
+                            } finally {
+                                try {
+                                    joiner.releaseMemory();
+                                } finally {
+                                    joiner.closeTable();
+                                }
+                            }
+                        }
+                    } finally {
+                        try {
+                            bReader.close();
+                        } finally {
+                            if (!probeDeleted) {
+                                // the last chunk was not joined, make sure the probe run file is deleted anyway
+                                pReader.setDeleteAfterClose(true);
+                                pReader.open();
+                                pReader.close();
+                            }
+                        }
+                    }
+                }
+
                 private void applyNestedLoopJoin(RecordDescriptor outerRd, RecordDescriptor innerRd, int memorySize,
                         RunFileReader outerReader, RunFileReader innerReader) throws HyracksDataException {
                     // The nested loop join result is outer + inner. All the other operator is probe + build.
@@ -792,6 +947,7 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                             new FrameTupleAccessor(innerRd), memorySize, predEvaluator, isLeftOuter, nonMatchWriter);
                     nlj.setIsReversed(isReversed);
                     nlj.setComparator(nljComptorOuterInner);
+                    stats.nestedLoopJoinApplied();
 
                     IFrame cacheBuff = new VSizeFrame(jobletCtx);
                     try {
@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.misc;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.ActivityId;
+import org.apache.hyracks.api.dataflow.IOperatorNodePushable;
+import org.apache.hyracks.api.dataflow.TaskId;
+import org.apache.hyracks.api.dataflow.value.IRecordDescriptorProvider;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.IOperatorDescriptorRegistry;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.data.std.primitive.ByteArrayPointable;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
+import org.apache.hyracks.dataflow.common.data.partition.skew.HeavyHitterMap;
+import org.apache.hyracks.dataflow.common.utils.TaskUtil;
+import org.apache.hyracks.dataflow.std.base.AbstractActivityNode;
+import org.apache.hyracks.dataflow.std.base.AbstractForwardOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.base.AbstractStateObject;
+import org.apache.hyracks.dataflow.std.base.AbstractUnaryInputSinkOperatorNodePushable;
+import org.apache.hyracks.dataflow.std.base.AbstractUnaryInputUnaryOutputOperatorNodePushable;
+
+/**
+ * Forwards its data input unchanged after depositing the {@link HeavyHitterMap} received on its side input into the
+ * task context, where the skew-aware hash partitioners of the following exchange pick it up through a
+ * {@link org.apache.hyracks.dataflow.common.data.partition.skew.DynamicHeavyHitterMapSupplier}.
+ * The side input is expected to carry a single tuple whose only field is a binary value holding the serialized map,
+ * as produced by the global heavy hitter aggregate of a skew-aware hash join plan.
+ */
+public class HashSkewForwardOperatorDescriptor extends AbstractForwardOperatorDescriptor {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param spec used to create the operator id.
+     * @param sideDataKey the unique key to store the heavy hitter map in the shared map & transfer it to partitioner.
+     * @param outputRecordDescriptor the output schema of this operator.
+     */
+    public HashSkewForwardOperatorDescriptor(IOperatorDescriptorRegistry spec, String sideDataKey,
+            RecordDescriptor outputRecordDescriptor) {
+        super(spec, sideDataKey, outputRecordDescriptor);
+    }
+
+    @Override
+    public AbstractActivityNode createForwardDataActivity() {
+        return new ForwardDataActivity(new ActivityId(odId, FORWARD_DATA_ACTIVITY_ID));
+    }
+
+    @Override
+    public AbstractActivityNode createSideDataActivity() {
+        return new HeavyHitterMapReaderActivity(new ActivityId(odId, SIDE_DATA_ACTIVITY_ID));
+    }
+
+    /**
+     * Transfers the {@link HeavyHitterMap} from {@link HeavyHitterMapReaderActivity} to {@link ForwardDataActivity}
+     * through the {@link org.apache.hyracks.api.job.IOperatorEnvironment} of the joblet.
+     */
+    private class HeavyHitterMapState extends AbstractStateObject {
+        HeavyHitterMap heavyHitterMap;
+
+        private HeavyHitterMapState(JobId jobId, TaskId stateObjectKey) {
+            super(jobId, stateObjectKey);
+        }
+    }
+
+    private class HeavyHitterMapReaderActivity extends AbstractActivityNode {
+        private static final long serialVersionUID = 1L;
+
+        private HeavyHitterMapReaderActivity(ActivityId activityId) {
+            super(activityId);
+        }
+
+        @Override
+        public IOperatorNodePushable createPushRuntime(final IHyracksTaskContext ctx,
+                IRecordDescriptorProvider recordDescProvider, final int partition, int nPartitions)
+                throws HyracksDataException {
+            RecordDescriptor inputRecordDescriptor = recordDescProvider.getInputRecordDescriptor(getActivityId(), 0);
+            return new HeavyHitterMapReaderActivityNodePushable(ctx, inputRecordDescriptor, getActivityId(),
+                    partition);
+        }
+    }
+
+    private class ForwardDataActivity extends AbstractActivityNode {
+        private static final long serialVersionUID = 1L;
+
+        private ForwardDataActivity(ActivityId activityId) {
+            super(activityId);
+        }
+
+        @Override
+        public IOperatorNodePushable createPushRuntime(final IHyracksTaskContext ctx,
+                IRecordDescriptorProvider recordDescProvider, final int partition, int nPartitions)
+                throws HyracksDataException {
+            return new ForwardDataActivityNodePushable(ctx, partition);
+        }
+    }
+
+    private class HeavyHitterMapReaderActivityNodePushable extends AbstractUnaryInputSinkOperatorNodePushable {
+        private final FrameTupleAccessor frameTupleAccessor;
+        private final FrameTupleReference frameTupleReference;
+        private final IHyracksTaskContext ctx;
+        private final ActivityId activityId;
+        private final int partition;
+        private HeavyHitterMap heavyHitterMap;
+
+        private HeavyHitterMapReaderActivityNodePushable(IHyracksTaskContext ctx,
+                RecordDescriptor inputRecordDescriptor, ActivityId activityId, int partition) {
+            this.ctx = ctx;
+            this.frameTupleAccessor = new FrameTupleAccessor(inputRecordDescriptor);
+            this.frameTupleReference = new FrameTupleReference();
+            this.activityId = activityId;
+            this.partition = partition;
+        }
+
+        @Override
+        public void open() throws HyracksDataException {
+            // this activity does not have a consumer to open (it's a sink), and nothing to initialize
+        }
+
+        @Override
+        public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+            frameTupleAccessor.reset(buffer);
+            if (frameTupleAccessor.getTupleCount() != 1 || heavyHitterMap != null) {
+                throw HyracksDataException.create(ErrorCode.ONE_TUPLE_HEAVY_HITTER_MAP_EXPECTED, sourceLoc);
+            }
+            // the field is a binary value whose content is the serialized heavy hitter map
+            frameTupleReference.reset(frameTupleAccessor, 0);
+            ByteArrayPointable pointable = new ByteArrayPointable();
+            pointable.set(frameTupleReference.getFieldData(0), frameTupleReference.getFieldStart(0) + 1,
+                    frameTupleReference.getFieldLength(0) - 1);
+            try {
+                heavyHitterMap = HeavyHitterMap.read(new DataInputStream(new ByteArrayInputStream(
+                        pointable.getByteArray(), pointable.getContentStartOffset(), pointable.getContentLength())));
+            } catch (IOException e) {
+                throw HyracksDataException.create(e);
+            }
+        }
+
+        @Override
+        public void fail() throws HyracksDataException {
+            // it's a sink node pushable, nothing to fail
+        }
+
+        @Override
+        public void close() throws HyracksDataException {
+            if (heavyHitterMap == null) {
+                throw HyracksDataException.create(ErrorCode.NO_HEAVY_HITTER_MAP_PRODUCED, sourceLoc);
+            }
+            TaskId readerTaskId = new TaskId(activityId, partition);
+            HeavyHitterMapState state = new HeavyHitterMapState(ctx.getJobletContext().getJobId(), readerTaskId);
+            state.heavyHitterMap = heavyHitterMap;
+            ctx.setStateObject(state);
+        }
+    }
+
+    private class ForwardDataActivityNodePushable extends AbstractUnaryInputUnaryOutputOperatorNodePushable {
+        private final IHyracksTaskContext ctx;
+        private final int partition;
+
+        private ForwardDataActivityNodePushable(IHyracksTaskContext ctx, int partition) {
+            this.ctx = ctx;
+            this.partition = partition;
+        }
+
+        @Override
+        public void open() throws HyracksDataException {
+            Object stateObjKey = new TaskId(new ActivityId(odId, SIDE_DATA_ACTIVITY_ID), partition);
+            HeavyHitterMapState state = (HeavyHitterMapState) ctx.getStateObject(stateObjKey);
+            TaskUtil.put(sideDataKey, state.heavyHitterMap, ctx);
+            writer.open();
+        }
+
+        @Override
+        public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+            writer.nextFrame(buffer);
+        }
+
+        @Override
+        public void fail() throws HyracksDataException {
+            writer.fail();
+        }
+
+        @Override
+        public void close() throws HyracksDataException {
+            writer.close();
+        }
+
+        @Override
+        public void flush() throws HyracksDataException {
+            writer.flush();
+        }
+    }
+}
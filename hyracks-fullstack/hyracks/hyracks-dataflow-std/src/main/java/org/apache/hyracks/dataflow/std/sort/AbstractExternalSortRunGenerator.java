@@ -57,6 +57,14 @@ public abstract class AbstractExternalSortRunGenerator extends AbstractSortRunGe
             INormalizedKeyComputerFactory[] keyNormalizerFactories, IBinaryComparatorFactory[] comparatorFactories,
             RecordDescriptor recordDesc, Algorithm alg, EnumFreeSlotPolicy policy, int framesLimit, int outputLimit)
             throws HyracksDataException {
+        this(ctx, sortFields, keyNormalizerFactories, comparatorFactories, recordDesc, alg, policy, framesLimit,
+                outputLimit, 1);
+    }
+
+    public AbstractExternalSortRunGenerator(IHyracksTaskContext ctx, int[] sortFields,
+            INormalizedKeyComputerFactory[] keyNormalizerFactories, IBinaryComparatorFactory[] comparatorFactories,
+            RecordDescriptor recordDesc, Algorithm alg, EnumFreeSlotPolicy policy, int framesLimit, int outputLimit,
+            int sortThreads) throws HyracksDataException {
         super();
         this.ctx = ctx;
         maxSortFrames = framesLimit - 1;
@@ -64,9 +72,15 @@ public abstract class AbstractExternalSortRunGenerator extends AbstractSortRunGe
         IFrameFreeSlotPolicy freeSlotPolicy = FrameFreeSlotPolicyFactory.createFreeSlotPolicy(policy, maxSortFrames);
         IFrameBufferManager bufferManager = new VariableFrameMemoryManager(
                 new VariableFramePool(ctx, maxSortFrames * ctx.getInitialFrameSize()), freeSlotPolicy);
-        if (alg == Algorithm.MERGE_SORT) {
+        if (alg == Algorithm.MERGE_SORT && sortThreads > 1) {
+            frameSorter = new FrameSorterParallelMergeSort(ctx, bufferManager, maxSortFrames, sortFields,
+                    keyNormalizerFactories, comparatorFactories, recordDesc, outputLimit, sortThreads);
+        } else if (alg == Algorithm.MERGE_SORT) {
             frameSorter = new FrameSorterMergeSort(ctx, bufferManager, maxSortFrames, sortFields,
                     keyNormalizerFactories, comparatorFactories, recordDesc, outputLimit);
+        } else if (alg == Algorithm.RADIX_SORT) {
+            frameSorter = new FrameSorterRadixSort(ctx, bufferManager, maxSortFrames, sortFields,
+                    keyNormalizerFactories, comparatorFactories, recordDesc, outputLimit);
         } else {
             frameSorter = new FrameSorterQuickSort(ctx, bufferManager, maxSortFrames, sortFields,
                     keyNormalizerFactories, comparatorFactories, recordDesc, outputLimit);
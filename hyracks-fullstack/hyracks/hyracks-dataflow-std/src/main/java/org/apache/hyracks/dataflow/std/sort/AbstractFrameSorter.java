@@ -61,6 +61,8 @@ public abstract class AbstractFrameSorter implements IFrameSorter {
     protected final int ptrSize;
 
     protected final int[] sortFields;
+    protected final IBinaryComparatorFactory[] comparatorFactories;
+    protected final RecordDescriptor recordDescriptor;
     protected final IBinaryComparator[] comparators;
     protected final INormalizedKeyComputer[] nkcs;
     protected final IFrameBufferManager bufferManager;
@@ -75,7 +77,7 @@ public abstract class AbstractFrameSorter implements IFrameSorter {
     protected final int[] tmpPointer;
     protected int tupleCount;
 
-    private final FrameTupleAccessor fta2;
+    private final TuplePointerComparator tuplePointerComparator;
     private final BufferInfo info = new BufferInfo(null, -1, -1);
 
     public AbstractFrameSorter(IHyracksTaskContext ctx, IFrameBufferManager bufferManager, int maxSortFrames,
@@ -117,6 +119,8 @@ public abstract class AbstractFrameSorter implements IFrameSorter {
         }
         this.normalizedKeyTotalLength = runningNormalizedKeyTotalLength;
         this.ptrSize = ID_NORMALIZED_KEY + normalizedKeyTotalLength;
+        this.comparatorFactories = comparatorFactories;
+        this.recordDescriptor = recordDescriptor;
         this.comparators = new IBinaryComparator[comparatorFactories.length];
         for (int i = 0; i < comparatorFactories.length; ++i) {
             comparators[i] = comparatorFactories[i].createBinaryComparator();
@@ -125,7 +129,7 @@ public abstract class AbstractFrameSorter implements IFrameSorter {
         this.outputAppender = new FrameTupleAppender();
         this.outputFrame = new VSizeFrame(ctx);
         this.outputLimit = outputLimit;
-        this.fta2 = new FrameTupleAccessor(recordDescriptor);
+        this.tuplePointerComparator = new TuplePointerComparator(comparators);
         this.tmpPointer = new int[ptrSize];
     }
 
@@ -239,43 +243,75 @@ public abstract class AbstractFrameSorter implements IFrameSorter {
     }
 
     protected final int compare(int[] tPointers1, int tp1, int[] tPointers2, int tp2) throws HyracksDataException {
-        if (nkcs != null) {
-            int cmpNormalizedKey =
-                    NormalizedKeyUtils.compareNormalizeKeys(tPointers1, tp1 * ptrSize + ID_NORMALIZED_KEY, tPointers2,
-                            tp2 * ptrSize + ID_NORMALIZED_KEY, normalizedKeyTotalLength);
-            if (cmpNormalizedKey != 0 || normalizedKeysDecisive) {
-                return cmpNormalizedKey;
-            }
+        return tuplePointerComparator.compare(tPointers1, tp1, tPointers2, tp2);
+    }
+
+    /**
+     * @return a comparator of tuple pointers with comparators of its own, to be used by a thread that sorts
+     *         concurrently with the others
+     */
+    protected TuplePointerComparator createTuplePointerComparator() {
+        IBinaryComparator[] threadComparators = new IBinaryComparator[comparatorFactories.length];
+        for (int i = 0; i < comparatorFactories.length; ++i) {
+            threadComparators[i] = comparatorFactories[i].createBinaryComparator();
+        }
+        return new TuplePointerComparator(threadComparators);
+    }
+
+    /**
+     * Compares the tuples that tuple pointers refer to. An instance is not thread-safe.
+     */
+    protected class TuplePointerComparator {
+        private final IBinaryComparator[] comparators;
+        private final FrameTupleAccessor fta1;
+        private final FrameTupleAccessor fta2;
+        private final BufferInfo info = new BufferInfo(null, -1, -1);
+
+        TuplePointerComparator(IBinaryComparator[] comparators) {
+            this.comparators = comparators;
+            this.fta1 = new FrameTupleAccessor(recordDescriptor);
+            this.fta2 = new FrameTupleAccessor(recordDescriptor);
         }
 
-        int i1 = tPointers1[tp1 * ptrSize + ID_FRAME_ID];
-        int j1 = tPointers1[tp1 * ptrSize + ID_TUPLE_START];
-        int i2 = tPointers2[tp2 * ptrSize + ID_FRAME_ID];
-        int j2 = tPointers2[tp2 * ptrSize + ID_TUPLE_START];
-
-        bufferManager.getFrame(i1, info);
-        byte[] b1 = info.getBuffer().array();
-        inputTupleAccessor.reset(info.getBuffer(), info.getStartOffset(), info.getLength());
-
-        bufferManager.getFrame(i2, info);
-        byte[] b2 = info.getBuffer().array();
-        fta2.reset(info.getBuffer(), info.getStartOffset(), info.getLength());
-        for (int f = 0; f < comparators.length; ++f) {
-            int fIdx = sortFields[f];
-            int f1Start = fIdx == 0 ? 0 : IntSerDeUtils.getInt(b1, j1 + (fIdx - 1) * 4);
-            int f1End = IntSerDeUtils.getInt(b1, j1 + fIdx * 4);
-            int s1 = j1 + inputTupleAccessor.getFieldSlotsLength() + f1Start;
-            int l1 = f1End - f1Start;
-            int f2Start = fIdx == 0 ? 0 : IntSerDeUtils.getInt(b2, j2 + (fIdx - 1) * 4);
-            int f2End = IntSerDeUtils.getInt(b2, j2 + fIdx * 4);
-            int s2 = j2 + fta2.getFieldSlotsLength() + f2Start;
-            int l2 = f2End - f2Start;
-            int c = comparators[f].compare(b1, s1, l1, b2, s2, l2);
-            if (c != 0) {
-                return c;
+        int compare(int[] tPointers1, int tp1, int[] tPointers2, int tp2) throws HyracksDataException {
+            if (nkcs != null) {
+                int cmpNormalizedKey = NormalizedKeyUtils.compareNormalizeKeys(tPointers1,
+                        tp1 * ptrSize + ID_NORMALIZED_KEY, tPointers2, tp2 * ptrSize + ID_NORMALIZED_KEY,
+                        normalizedKeyTotalLength);
+                if (cmpNormalizedKey != 0 || normalizedKeysDecisive) {
+                    return cmpNormalizedKey;
+                }
+            }
+
+            int i1 = tPointers1[tp1 * ptrSize + ID_FRAME_ID];
+            int j1 = tPointers1[tp1 * ptrSize + ID_TUPLE_START];
+            int i2 = tPointers2[tp2 * ptrSize + ID_FRAME_ID];
+            int j2 = tPointers2[tp2 * ptrSize + ID_TUPLE_START];
+
+            bufferManager.getFrame(i1, info);
+            byte[] b1 = info.getBuffer().array();
+            fta1.reset(info.getBuffer(), info.getStartOffset(), info.getLength());
+
+            bufferManager.getFrame(i2, info);
+            byte[] b2 = info.getBuffer().array();
+            fta2.reset(info.getBuffer(), info.getStartOffset(), info.getLength());
+            for (int f = 0; f < comparators.length; ++f) {
+                int fIdx = sortFields[f];
+                int f1Start = fIdx == 0 ? 0 : IntSerDeUtils.getInt(b1, j1 + (fIdx - 1) * 4);
+                int f1End = IntSerDeUtils.getInt(b1, j1 + fIdx * 4);
+                int s1 = j1 + fta1.getFieldSlotsLength() + f1Start;
+                int l1 = f1End - f1Start;
+                int f2Start = fIdx == 0 ? 0 : IntSerDeUtils.getInt(b2, j2 + (fIdx - 1) * 4);
+                int f2End = IntSerDeUtils.getInt(b2, j2 + fIdx * 4);
+                int s2 = j2 + fta2.getFieldSlotsLength() + f2Start;
+                int l2 = f2End - f2Start;
+                int c = comparators[f].compare(b1, s1, l1, b2, s2, l2);
+                if (c != 0) {
+                    return c;
+                }
             }
+            return 0;
         }
-        return 0;
     }
 
     @Override
@@ -41,6 +41,7 @@ public class ExternalSortOperatorDescriptor extends AbstractSorterOperatorDescri
     private Algorithm alg = Algorithm.MERGE_SORT;
     private EnumFreeSlotPolicy policy = EnumFreeSlotPolicy.LAST_FIT;
     private final int outputLimit;
+    private int sortThreads = 1;
 
     public ExternalSortOperatorDescriptor(IOperatorDescriptorRegistry spec, int framesLimit, int[] sortFields,
             INormalizedKeyComputerFactory[] keyNormalizerFactories, IBinaryComparatorFactory[] comparatorFactories,
@@ -81,7 +82,7 @@ public class ExternalSortOperatorDescriptor extends AbstractSorterOperatorDescri
                     IRecordDescriptorProvider recordDescProvider) throws HyracksDataException {
                 final boolean profile = ctx.getJobFlags().contains(JobFlag.PROFILE_RUNTIME);
                 IRunGenerator runGen = new ExternalSortRunGenerator(ctx, sortFields, keyNormalizerFactories,
-                        comparatorFactories, outRecDescs[0], alg, policy, framesLimit, outputLimit);
+                        comparatorFactories, outRecDescs[0], alg, policy, framesLimit, outputLimit, sortThreads);
                 return profile ? TimedRunGenerator.time(runGen, ctx, "ExternalSort(Sort)") : runGen;
             }
         };
@@ -121,4 +122,10 @@ public class ExternalSortOperatorDescriptor extends AbstractSorterOperatorDescri
         this.outputLimit = outputLimit;
     }
 
+    /**
+     * @param sortThreads the number of threads that sort the in-memory data of an instance, only used by merge sort
+     */
+    public void setSortThreads(int sortThreads) {
+        this.sortThreads = sortThreads;
+    }
 }
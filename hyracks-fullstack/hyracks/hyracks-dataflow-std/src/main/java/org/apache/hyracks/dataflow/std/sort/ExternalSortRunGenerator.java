@@ -49,15 +49,23 @@ public class ExternalSortRunGenerator extends AbstractExternalSortRunGenerator {
             INormalizedKeyComputerFactory[] keyNormalizerFactories, IBinaryComparatorFactory[] comparatorFactories,
             RecordDescriptor recordDesc, Algorithm alg, EnumFreeSlotPolicy policy, int framesLimit, int outputLimit)
             throws HyracksDataException {
+        this(ctx, sortFields, keyNormalizerFactories, comparatorFactories, recordDesc, alg, policy, framesLimit,
+                outputLimit, 1);
+    }
+
+    public ExternalSortRunGenerator(IHyracksTaskContext ctx, int[] sortFields,
+            INormalizedKeyComputerFactory[] keyNormalizerFactories, IBinaryComparatorFactory[] comparatorFactories,
+            RecordDescriptor recordDesc, Algorithm alg, EnumFreeSlotPolicy policy, int framesLimit, int outputLimit,
+            int sortThreads) throws HyracksDataException {
         super(ctx, sortFields, keyNormalizerFactories, comparatorFactories, recordDesc, alg, policy, framesLimit,
-                outputLimit);
+                outputLimit, sortThreads);
     }
 
     @Override
     protected RunFileWriter getRunFileWriter() throws HyracksDataException {
         FileReference file =
                 ctx.getJobletContext().createManagedWorkspaceFile(ExternalSortRunGenerator.class.getSimpleName());
-        return new RunFileWriter(file, ctx.getIoManager());
+        return new RunFileWriter(file, ctx.getIoManager(), ctx.getJobFlags());
     }
 
     @Override
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Phaser;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputerFactory;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.std.buffermanager.IFrameBufferManager;
+
+/**
+ * A stable merge sort of the tuple pointers that runs on the executor of the task. The pointers are split in up to
+ * nThreads ranges that are sorted concurrently, one of them by the calling thread, and the sorted ranges are merged
+ * pairwise in rounds of concurrent merges, so a sort never uses more than nThreads threads. The normalized keys are
+ * computed before by {@link #sort()}, so the workers only read the frames, and every worker compares tuples with
+ * comparators of its own. When the calling thread is interrupted, e.g. because the job is cancelled, the workers stop
+ * and the sort does not return before they are done.
+ */
+class FrameSorterParallelMergeSort extends AbstractFrameSorter {
+
+    // a range is only split for another thread if the thread gets more than this many tuples to sort
+    static final int SEQUENTIAL_THRESHOLD = 8192;
+
+    // how often (in tuples) a merge checks whether the sort was cancelled
+    private static final int CANCEL_CHECK_MASK = 0xFFF;
+
+    private final ExecutorService executor;
+    private final int nThreads;
+    private volatile boolean cancelled;
+    private int[] tPointersTemp;
+
+    FrameSorterParallelMergeSort(IHyracksTaskContext ctx, IFrameBufferManager bufferManager, int maxSortFrames,
+            int[] sortFields, INormalizedKeyComputerFactory[] keyNormalizerFactories,
+            IBinaryComparatorFactory[] comparatorFactories, RecordDescriptor recordDescriptor, int outputLimit,
+            int nThreads) throws HyracksDataException {
+        super(ctx, bufferManager, maxSortFrames, sortFields, keyNormalizerFactories, comparatorFactories,
+                recordDescriptor, outputLimit);
+        this.executor = ctx.getExecutorService();
+        this.nThreads = nThreads;
+    }
+
+    @Override
+    void sortTupleReferences() throws HyracksDataException {
+        if (tPointersTemp == null || tPointersTemp.length < tPointers.length) {
+            tPointersTemp = new int[tPointers.length];
+        }
+        cancelled = false;
+        int nRanges = executor == null ? 1
+                : Math.min(nThreads, (tupleCount + SEQUENTIAL_THRESHOLD - 1) / SEQUENTIAL_THRESHOLD);
+        if (nRanges <= 1) {
+            sort(createTuplePointerComparator(), tPointers, tPointersTemp, 0, tupleCount, false);
+            return;
+        }
+        int[] bounds = new int[nRanges + 1];
+        for (int i = 0; i <= nRanges; i++) {
+            bounds[i] = (int) ((long) tupleCount * i / nRanges);
+        }
+        runConcurrently(nRanges,
+                i -> sort(createTuplePointerComparator(), tPointers, tPointersTemp, bounds[i], bounds[i + 1], false));
+        // merge neighboring sorted ranges, going back and forth between the two arrays
+        int[] src = tPointers;
+        int[] dst = tPointersTemp;
+        for (int width = 1; width < nRanges; width *= 2) {
+            final int[] mergeSrc = src;
+            final int[] mergeDst = dst;
+            final int step = 2 * width;
+            final int half = width;
+            runConcurrently((nRanges + step - 1) / step, i -> {
+                int from = bounds[i * step];
+                int mid = bounds[Math.min(i * step + half, nRanges)];
+                int to = bounds[Math.min(i * step + step, nRanges)];
+                merge(createTuplePointerComparator(), mergeSrc, from, mid, mid, to, mergeDst, from);
+            });
+            src = mergeDst;
+            dst = mergeSrc;
+        }
+        if (src != tPointers) {
+            copy(src, 0, tPointers, 0, tupleCount);
+        }
+    }
+
+    /**
+     * Runs the action for the indexes [0, n), the index 0 on the calling thread and the others on the executor, and
+     * waits for all of them.
+     */
+    private void runConcurrently(int n, IRangeAction action) throws HyracksDataException {
+        // the calling thread is registered as well
+        Phaser workers = new Phaser(1);
+        List<Future<?>> futures = new ArrayList<>(n - 1);
+        boolean completed = false;
+        try {
+            for (int i = 1; i < n; i++) {
+                final int index = i;
+                workers.register();
+                try {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            if (!cancelled) {
+                                action.run(index);
+                            }
+                            return null;
+                        } finally {
+                            workers.arriveAndDeregister();
+                        }
+                    }));
+                } catch (RuntimeException e) {
+                    workers.arriveAndDeregister();
+                    throw e;
+                }
+            }
+            action.run(0);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            completed = true;
+        } catch (InterruptedException e) {
+            throw HyracksDataException.create(e);
+        } catch (ExecutionException e) {
+            throw HyracksDataException.create(e.getCause());
+        } finally {
+            if (!completed) {
+                // stop the workers that are still running, they must not touch the pointers after the sort returns
+                cancelled = true;
+            }
+            workers.arriveAndAwaitAdvance();
+        }
+    }
+
+    @Override
+    protected long getRequiredMemory(FrameTupleAccessor frameAccessor) {
+        return super.getRequiredMemory(frameAccessor) + ptrSize * frameAccessor.getTupleCount() * Integer.BYTES;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        tPointersTemp = null;
+    }
+
+    /**
+     * Sorts the pointers [from, to) of src and leaves the result in dst if toDst is set, in src otherwise. The other
+     * array is used as scratch space.
+     */
+    private void sort(TuplePointerComparator comparator, int[] src, int[] dst, int from, int to, boolean toDst)
+            throws HyracksDataException {
+        if (to - from == 1) {
+            if (toDst) {
+                copy(src, from, dst, from, 1);
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sort(comparator, src, dst, from, mid, !toDst);
+        sort(comparator, src, dst, mid, to, !toDst);
+        if (toDst) {
+            merge(comparator, src, from, mid, mid, to, dst, from);
+        } else {
+            merge(comparator, dst, from, mid, mid, to, src, from);
+        }
+    }
+
+    private void merge(TuplePointerComparator comparator, int[] src, int from1, int to1, int from2, int to2,
+            int[] dst, int dstPos) throws HyracksDataException {
+        int pos1 = from1;
+        int pos2 = from2;
+        while (pos1 < to1 && pos2 < to2) {
+            if ((dstPos & CANCEL_CHECK_MASK) == 0 && cancelled) {
+                throw new CancellationException();
+            }
+            if (comparator.compare(src, pos1, src, pos2) <= 0) {
+                copy(src, pos1++, dst, dstPos++, 1);
+            } else {
+                copy(src, pos2++, dst, dstPos++, 1);
+            }
+        }
+        copy(src, pos1, dst, dstPos, to1 - pos1);
+        copy(src, pos2, dst, dstPos + to1 - pos1, to2 - pos2);
+    }
+
+    private void copy(int[] src, int srcPos, int[] dest, int destPos, int n) {
+        System.arraycopy(src, srcPos * ptrSize, dest, destPos * ptrSize, n * ptrSize);
+    }
+
+    @FunctionalInterface
+    private interface IRangeAction {
+        void run(int index) throws HyracksDataException;
+    }
+}
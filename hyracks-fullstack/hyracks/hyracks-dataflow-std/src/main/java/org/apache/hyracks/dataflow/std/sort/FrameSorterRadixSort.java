@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.sort;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputerFactory;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.utils.NormalizedKeyUtils;
+import org.apache.hyracks.dataflow.std.buffermanager.IFrameBufferManager;
+
+/**
+ * A stable LSD radix sort of the tuple pointers on their normalized keys, one byte per pass. Passes on bytes that are
+ * the same for all the tuples are skipped, so small integer keys only take a few passes. If the normalized keys are
+ * not decisive, the tuples that have equal normalized keys are then sorted with the comparators. Without normalized
+ * keys, or with only a few tuples, the pointers are merge sorted.
+ */
+public class FrameSorterRadixSort extends AbstractFrameSorter {
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int RADIX_MASK = RADIX - 1;
+    // below this many tuples a comparison sort is faster than the radix passes
+    private static final int MIN_RADIX_SORT_TUPLES = 64;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private final int[] counts = new int[RADIX];
+    private int[] tPointersTemp;
+
+    public FrameSorterRadixSort(IHyracksTaskContext ctx, IFrameBufferManager bufferManager, int maxSortFrames,
+            int[] sortFields, INormalizedKeyComputerFactory[] keyNormalizerFactories,
+            IBinaryComparatorFactory[] comparatorFactories, RecordDescriptor recordDescriptor)
+            throws HyracksDataException {
+        this(ctx, bufferManager, maxSortFrames, sortFields, keyNormalizerFactories, comparatorFactories,
+                recordDescriptor, Integer.MAX_VALUE);
+    }
+
+    public FrameSorterRadixSort(IHyracksTaskContext ctx, IFrameBufferManager bufferManager, int maxSortFrames,
+            int[] sortFields, INormalizedKeyComputerFactory[] keyNormalizerFactories,
+            IBinaryComparatorFactory[] comparatorFactories, RecordDescriptor recordDescriptor, int outputLimit)
+            throws HyracksDataException {
+        super(ctx, bufferManager, maxSortFrames, sortFields, keyNormalizerFactories, comparatorFactories,
+                recordDescriptor, outputLimit);
+    }
+
+    @Override
+    void sortTupleReferences() throws HyracksDataException {
+        if (tPointersTemp == null || tPointersTemp.length < tPointers.length) {
+            tPointersTemp = new int[tPointers.length];
+        }
+        if (nkcs == null || tupleCount < MIN_RADIX_SORT_TUPLES) {
+            mergeSort(0, tupleCount);
+            return;
+        }
+        for (int key = normalizedKeyTotalLength - 1; key >= 0; key--) {
+            for (int shift = 0; shift < Integer.SIZE; shift += RADIX_BITS) {
+                radixPass(ID_NORMALIZED_KEY + key, shift);
+            }
+        }
+        if (!normalizedKeysDecisive) {
+            sortTies();
+        }
+    }
+
+    @Override
+    protected long getRequiredMemory(FrameTupleAccessor frameAccessor) {
+        return super.getRequiredMemory(frameAccessor) + ptrSize * frameAccessor.getTupleCount() * Integer.BYTES;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        tPointersTemp = null;
+    }
+
+    /**
+     * Stably distributes the pointers by the byte of the normalized key int at keyPos that starts at the given bit.
+     */
+    private void radixPass(int keyPos, int shift) {
+        Arrays.fill(counts, 0);
+        for (int ptr = 0; ptr < tupleCount; ptr++) {
+            counts[(tPointers[ptr * ptrSize + keyPos] >>> shift) & RADIX_MASK]++;
+        }
+        if (counts[(tPointers[keyPos] >>> shift) & RADIX_MASK] == tupleCount) {
+            // all the tuples have the same byte, the pass would not change the order
+            return;
+        }
+        int start = 0;
+        for (int digit = 0; digit < RADIX; digit++) {
+            int count = counts[digit];
+            counts[digit] = start;
+            start += count;
+        }
+        for (int ptr = 0; ptr < tupleCount; ptr++) {
+            int digit = (tPointers[ptr * ptrSize + keyPos] >>> shift) & RADIX_MASK;
+            copy(tPointers, ptr, tPointersTemp, counts[digit]++, 1);
+        }
+        int[] tmp = tPointersTemp;
+        tPointersTemp = tPointers;
+        tPointers = tmp;
+    }
+
+    /**
+     * Sorts the groups of pointers that have equal normalized keys with the comparators.
+     */
+    private void sortTies() throws HyracksDataException {
+        int groupStart = 0;
+        for (int ptr = 1; ptr <= tupleCount; ptr++) {
+            if (ptr < tupleCount && NormalizedKeyUtils.compareNormalizeKeys(tPointers,
+                    groupStart * ptrSize + ID_NORMALIZED_KEY, tPointers, ptr * ptrSize + ID_NORMALIZED_KEY,
+                    normalizedKeyTotalLength) == 0) {
+                continue;
+            }
+            if (ptr - groupStart > 1) {
+                mergeSort(groupStart, ptr);
+            }
+            groupStart = ptr;
+        }
+    }
+
+    /**
+     * Stably sorts the pointers [from, to) of tPointers in place, using tPointersTemp as scratch space.
+     */
+    private void mergeSort(int from, int to) throws HyracksDataException {
+        sort(tPointers, tPointersTemp, from, to, false);
+    }
+
+    /**
+     * Sorts the pointers [from, to) of src and leaves the result in dst if toDst is set, in src otherwise.
+     */
+    private void sort(int[] src, int[] dst, int from, int to, boolean toDst) throws HyracksDataException {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(src, from, to);
+            if (toDst) {
+                copy(src, from, dst, from, to - from);
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sort(src, dst, from, mid, !toDst);
+        sort(src, dst, mid, to, !toDst);
+        if (toDst) {
+            merge(src, from, mid, to, dst);
+        } else {
+            merge(dst, from, mid, to, src);
+        }
+    }
+
+    private void merge(int[] src, int from, int mid, int to, int[] dst) throws HyracksDataException {
+        int pos1 = from;
+        int pos2 = mid;
+        int dstPos = from;
+        while (pos1 < mid && pos2 < to) {
+            if (compare(src, pos1, src, pos2) <= 0) {
+                copy(src, pos1++, dst, dstPos++, 1);
+            } else {
+                copy(src, pos2++, dst, dstPos++, 1);
+            }
+        }
+        copy(src, pos1, dst, dstPos, mid - pos1);
+        copy(src, pos2, dst, dstPos + mid - pos1, to - pos2);
+    }
+
+    private void insertionSort(int[] array, int from, int to) throws HyracksDataException {
+        for (int i = from + 1; i < to; i++) {
+            copy(array, i, tmpPointer, 0, 1);
+            int j = i - 1;
+            while (j >= from && compare(array, j, tmpPointer, 0) > 0) {
+                copy(array, j, array, j + 1, 1);
+                j--;
+            }
+            copy(tmpPointer, 0, array, j + 1, 1);
+        }
+    }
+
+    private void copy(int[] src, int srcPos, int[] dest, int destPos, int n) {
+        System.arraycopy(src, srcPos * ptrSize, dest, destPos * ptrSize, n * ptrSize);
+    }
+}
@@ -46,6 +46,7 @@ public class HeapSortRunGenerator extends AbstractSortRunGenerator {
     protected final RecordDescriptor recordDescriptor;
     protected ITupleSorter tupleSorter;
     protected final IFrameTupleAccessor inAccessor;
+    protected TopKThreshold threshold;
 
     public HeapSortRunGenerator(IHyracksTaskContext ctx, int frameLimit, int topK, int[] sortFields,
             INormalizedKeyComputerFactory[] keyNormalizerFactories, IBinaryComparatorFactory[] comparatorFactories,
@@ -66,10 +67,20 @@ public class HeapSortRunGenerator extends AbstractSortRunGenerator {
         IFramePool framePool = new VariableFramePool(ctx, (frameLimit - 1) * ctx.getInitialFrameSize());
         IDeletableTupleBufferManager bufferManager =
                 new VariableDeletableTupleMemoryManager(framePool, recordDescriptor);
-        tupleSorter = new TupleSorterHeapSort(ctx, bufferManager, topK, sortFields, nmkFactories, comparatorFactories);
+        TupleSorterHeapSort heapSorter =
+                new TupleSorterHeapSort(ctx, bufferManager, topK, sortFields, nmkFactories, comparatorFactories);
+        heapSorter.setThreshold(threshold);
+        tupleSorter = heapSorter;
         super.open();
     }
 
+    /**
+     * @param threshold the top-K threshold shared with the other instances of the sort on this node, or null
+     */
+    public void setThreshold(TopKThreshold threshold) {
+        this.threshold = threshold;
+    }
+
     @Override
     public ISorter getSorter() {
         return tupleSorter;
@@ -79,7 +90,7 @@ public class HeapSortRunGenerator extends AbstractSortRunGenerator {
     protected RunFileWriter getRunFileWriter() throws HyracksDataException {
         FileReference file =
                 ctx.getJobletContext().createManagedWorkspaceFile(HeapSortRunGenerator.class.getSimpleName());
-        return new RunFileWriter(file, ctx.getIoManager());
+        return new RunFileWriter(file, ctx.getIoManager(), ctx.getJobFlags());
     }
 
     @Override
@@ -62,7 +62,7 @@ public class HybridTopKSortRunGenerator extends HeapSortRunGenerator {
     protected RunFileWriter getRunFileWriter() throws HyracksDataException {
         FileReference file =
                 ctx.getJobletContext().createManagedWorkspaceFile(HybridTopKSortRunGenerator.class.getSimpleName());
-        return new RunFileWriter(file, ctx.getIoManager());
+        return new RunFileWriter(file, ctx.getIoManager(), ctx.getJobFlags());
     }
 
     @Override
@@ -63,8 +63,10 @@ public class TopKSorterOperatorDescriptor extends AbstractSorterOperatorDescript
             protected IRunGenerator getRunGenerator(IHyracksTaskContext ctx,
                     IRecordDescriptorProvider recordDescProvider) {
                 final boolean profile = ctx.getJobFlags().contains(JobFlag.PROFILE_RUNTIME);
-                IRunGenerator runGen = new HybridTopKSortRunGenerator(ctx, framesLimit, topK, sortFields,
-                        keyNormalizerFactories, comparatorFactories, outRecDescs[0]);
+                HybridTopKSortRunGenerator topKRunGen = new HybridTopKSortRunGenerator(ctx, framesLimit, topK,
+                        sortFields, keyNormalizerFactories, comparatorFactories, outRecDescs[0]);
+                topKRunGen.setThreshold(TopKThreshold.get(ctx, getActivityId()));
+                IRunGenerator runGen = topKRunGen;
                 return profile ? TimedRunGenerator.time(runGen, ctx, "TopKSort (Sort)") : runGen;
 
             }
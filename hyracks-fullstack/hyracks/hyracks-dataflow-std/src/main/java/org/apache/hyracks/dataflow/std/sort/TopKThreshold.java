@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.sort;
+
+import java.util.Comparator;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.ActivityId;
+import org.apache.hyracks.api.dataflow.state.IStateObject;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.dataflow.std.base.AbstractStateObject;
+
+/**
+ * The K-th smallest sort key seen so far by any of the top-K sort instances of an activity that run on this node. An
+ * instance that holds K tuples whose keys are not bigger than a key proves that no tuple with a bigger key can be in
+ * the global top K, so every instance can drop those tuples without buffering them. The threshold only ever decreases.
+ */
+public class TopKThreshold extends AbstractStateObject {
+
+    /**
+     * The sort fields of a tuple, copied out of the frame it was in.
+     */
+    public static class Key {
+        final int[] normalizedKey;
+        final byte[] data;
+        final int[] fieldStarts;
+        final int[] fieldLengths;
+
+        public Key(int[] normalizedKey, byte[] data, int[] fieldStarts, int[] fieldLengths) {
+            this.normalizedKey = normalizedKey;
+            this.data = data;
+            this.fieldStarts = fieldStarts;
+            this.fieldLengths = fieldLengths;
+        }
+    }
+
+    private volatile Key key;
+
+    private TopKThreshold(JobId jobId, Object id) {
+        super(jobId, id);
+    }
+
+    /**
+     * @return the threshold shared by the instances of the given activity on the node of the task
+     */
+    public static TopKThreshold get(IHyracksTaskContext ctx, ActivityId activityId) {
+        Object id = new ThresholdId(activityId);
+        synchronized (ctx.getJobletContext()) {
+            IStateObject state = ctx.getStateObject(id);
+            if (state == null) {
+                state = new TopKThreshold(ctx.getJobletContext().getJobId(), id);
+                ctx.setStateObject(state);
+            }
+            return (TopKThreshold) state;
+        }
+    }
+
+    /**
+     * @return the current threshold, null if no instance has seen K tuples yet
+     */
+    public Key getKey() {
+        return key;
+    }
+
+    /**
+     * Lowers the threshold to the given key if it is smaller than the current one.
+     */
+    public synchronized void offer(Key candidate, Comparator<Key> comparator) {
+        if (key == null || comparator.compare(candidate, key) < 0) {
+            key = candidate;
+        }
+    }
+
+    private static class ThresholdId {
+        private final ActivityId activityId;
+
+        ThresholdId(ActivityId activityId) {
+            this.activityId = activityId;
+        }
+
+        @Override
+        public int hashCode() {
+            return activityId.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ThresholdId && activityId.equals(((ThresholdId) o).activityId);
+        }
+    }
+}
@@ -47,6 +47,8 @@ import org.apache.logging.log4j.Logger;
 public class TupleSorterHeapSort implements ITupleSorter {
 
     private static final Logger LOGGER = LogManager.getLogger();
+    // the minimum number of tuples in between two offers of the heap maximum to the shared threshold
+    private static final int THRESHOLD_OFFER_INTERVAL = 1024;
 
     class HeapEntryFactory implements IResetableComparableFactory<HeapEntry> {
         @Override
@@ -129,6 +131,11 @@ public class TupleSorterHeapSort implements ITupleSorter {
 
     private final int[] nmk;
 
+    private TopKThreshold threshold;
+    private final Comparator<TopKThreshold.Key> keyComparator = this::compareKeys;
+    private int tuplesSinceOffer;
+    private boolean maxChanged;
+
     public TupleSorterHeapSort(IHyracksTaskContext ctx, IDeletableTupleBufferManager bufferManager, int topK,
             int[] sortFields, INormalizedKeyComputerFactory[] keyNormalizerFactories,
             IBinaryComparatorFactory[] comparatorFactories) throws HyracksDataException {
@@ -177,6 +184,14 @@ public class TupleSorterHeapSort implements ITupleSorter {
         this.nmk = new int[runningNormalizedKeyTotalLength];
     }
 
+    /**
+     * Shares the K-th smallest key of this sorter with other sorters of the same top K and drops the tuples that are
+     * not smaller than the smallest K-th key of all of them.
+     */
+    public void setThreshold(TopKThreshold threshold) {
+        this.threshold = threshold;
+    }
+
     @Override
     public int getTupleCount() {
         return heap.getNumEntries();
@@ -189,6 +204,13 @@ public class TupleSorterHeapSort implements ITupleSorter {
                     "The Heap haven't be reset after sorting, the order of using this class is not correct.");
         }
         int[] nmkey = getPNK(frameTupleAccessor, index);
+        if (threshold != null && ++tuplesSinceOffer >= THRESHOLD_OFFER_INTERVAL) {
+            offerThreshold();
+        }
+        TopKThreshold.Key thresholdKey = threshold != null ? threshold.getKey() : null;
+        if (thresholdKey != null && compareTuple(frameTupleAccessor, index, nmkey, thresholdKey) >= 0) {
+            return true;
+        }
         if (heap.getNumEntries() >= topK) {
             heap.peekMax(maxEntry);
             if (compareTuple(frameTupleAccessor, index, nmkey, maxEntry) >= 0) {
@@ -206,9 +228,56 @@ public class TupleSorterHeapSort implements ITupleSorter {
             bufferManager.deleteTuple(maxEntry.tuplePointer);
             heap.replaceMax(newEntry);
         }
+        maxChanged = true;
         return true;
     }
 
+    private void offerThreshold() {
+        tuplesSinceOffer = 0;
+        if (!maxChanged || heap.getNumEntries() < topK) {
+            return;
+        }
+        maxChanged = false;
+        heap.peekMax(maxEntry);
+        bufferAccessor1.reset(maxEntry.tuplePointer);
+        int[] fieldStarts = new int[sortFields.length];
+        int[] fieldLengths = new int[sortFields.length];
+        int size = 0;
+        for (int f = 0; f < sortFields.length; f++) {
+            fieldStarts[f] = size;
+            fieldLengths[f] = bufferAccessor1.getFieldLength(sortFields[f]);
+            size += fieldLengths[f];
+        }
+        byte[] data = new byte[size];
+        byte[] buffer = bufferAccessor1.getBuffer().array();
+        for (int f = 0; f < sortFields.length; f++) {
+            System.arraycopy(buffer, bufferAccessor1.getAbsFieldStartOffset(sortFields[f]), data, fieldStarts[f],
+                    fieldLengths[f]);
+        }
+        threshold.offer(new TopKThreshold.Key(maxEntry.nmk.clone(), data, fieldStarts, fieldLengths), keyComparator);
+    }
+
+    private int compareKeys(TopKThreshold.Key key1, TopKThreshold.Key key2) {
+        int cmpNormalizedKey = NormalizedKeyUtils.compareNormalizeKeys(key1.normalizedKey, 0, key2.normalizedKey, 0,
+                normalizedKeyTotalLength);
+        if (cmpNormalizedKey != 0 || normalizedKeyDecisive) {
+            return cmpNormalizedKey;
+        }
+        for (int f = 0; f < comparators.length; ++f) {
+            int c;
+            try {
+                c = comparators[f].compare(key1.data, key1.fieldStarts[f], key1.fieldLengths[f], key2.data,
+                        key2.fieldStarts[f], key2.fieldLengths[f]);
+            } catch (HyracksDataException e) {
+                throw new IllegalStateException(e);
+            }
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
     private int[] getPNK(IFrameTupleAccessor fta, int tIx) {
         if (nkcs == null) {
             return nmk;
@@ -251,6 +320,44 @@ public class TupleSorterHeapSort implements ITupleSorter {
         return 0;
     }
 
+    private int compareTuple(ITuplePointerAccessor accessor, int[] nmkey, TopKThreshold.Key key)
+            throws HyracksDataException {
+        int cmpNormalizedKey =
+                NormalizedKeyUtils.compareNormalizeKeys(nmkey, 0, key.normalizedKey, 0, normalizedKeyTotalLength);
+        if (cmpNormalizedKey != 0 || normalizedKeyDecisive) {
+            return cmpNormalizedKey;
+        }
+        byte[] b1 = accessor.getBuffer().array();
+        for (int f = 0; f < comparators.length; ++f) {
+            int fIdx = sortFields[f];
+            int c = comparators[f].compare(b1, accessor.getAbsFieldStartOffset(fIdx), accessor.getFieldLength(fIdx),
+                    key.data, key.fieldStarts[f], key.fieldLengths[f]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    private int compareTuple(IFrameTupleAccessor frameTupleAccessor, int tid, int[] nmkey, TopKThreshold.Key key)
+            throws HyracksDataException {
+        int cmpNormalizedKey =
+                NormalizedKeyUtils.compareNormalizeKeys(nmkey, 0, key.normalizedKey, 0, normalizedKeyTotalLength);
+        if (cmpNormalizedKey != 0 || normalizedKeyDecisive) {
+            return cmpNormalizedKey;
+        }
+        byte[] b1 = frameTupleAccessor.getBuffer().array();
+        for (int f = 0; f < comparators.length; ++f) {
+            int fIdx = sortFields[f];
+            int c = comparators[f].compare(b1, frameTupleAccessor.getAbsoluteFieldStartOffset(tid, fIdx),
+                    frameTupleAccessor.getFieldLength(tid, fIdx), key.data, key.fieldStarts[f], key.fieldLengths[f]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
     @Override
     public boolean hasRemaining() {
         return getTupleCount() > 0;
@@ -261,11 +368,16 @@ public class TupleSorterHeapSort implements ITupleSorter {
         bufferManager.reset();
         heap.reset();
         isSorted = false;
+        tuplesSinceOffer = 0;
+        maxChanged = false;
     }
 
     @Override
     @SuppressWarnings("deprecation")
     public void sort() throws HyracksDataException {
+        if (threshold != null) {
+            offerThreshold();
+        }
         IResetableComparable[] entries = heap.getEntries();
         int count = heap.getNumEntries();
         Arrays.sort(entries, 0, count, entryComparator);
@@ -293,10 +405,16 @@ public class TupleSorterHeapSort implements ITupleSorter {
         int maxFrameSize = outputFrame.getFrameSize();
         int numEntries = heap.getNumEntries();
         IResetableComparable[] entries = heap.getEntries();
+        TopKThreshold.Key thresholdKey = threshold != null ? threshold.getKey() : null;
         int io = 0;
         for (int i = 0; i < numEntries; i++) {
             HeapEntry minEntry = (HeapEntry) entries[i];
             bufferAccessor1.reset(minEntry.tuplePointer);
+            if (thresholdKey != null && compareTuple(bufferAccessor1, minEntry.nmk, thresholdKey) > 0) {
+                // the entries are sorted, none of the remaining ones can make it into the global top K
+                numEntries = i;
+                break;
+            }
             int flushed = FrameUtils.appendToWriter(writer, outputAppender, bufferAccessor1.getBuffer().array(),
                     bufferAccessor1.getTupleStartOffset(), bufferAccessor1.getTupleLength());
             if (flushed > 0) {
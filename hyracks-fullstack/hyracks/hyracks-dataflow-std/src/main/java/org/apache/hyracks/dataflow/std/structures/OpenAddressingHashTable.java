@@ -0,0 +1,336 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.structures;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.hyracks.api.context.IHyracksFrameMgrContext;
+import org.apache.hyracks.api.dataflow.value.ITuplePartitionComputer;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.std.buffermanager.ISimpleFrameBufferManager;
+import org.apache.hyracks.dataflow.std.buffermanager.ITuplePointerAccessor;
+
+/**
+ * A hash table with open addressing (linear probing) over frames that are acquired from a buffer manager.
+ * Unlike {@link SerializableHashTable}, which keeps a header slot per entry that points to a growing list of
+ * tuple pointers in the content frames, this table stores every tuple pointer in its own slot of a single
+ * power-of-two sized slot array. A slot takes 16 bytes so that it never straddles a cache line:
+ * [entry], [frameIndex], [tupleIndex], [unused]
+ * The entry works as a fingerprint of the key: a probe scans the run of occupied slots that starts at the home slot
+ * of the entry and only reports the slots whose entry matches, without following any pointer. The tuple pointers
+ * of one entry are kept in insertion order. The slots of the last looked up entry are remembered so that
+ * iterating over them with {@link #getTuplePointer(int, int, TuplePointer)} does not probe again.
+ * Deleted slots are marked as such and are removed when the table is rehashed (on growth or garbage collection).
+ */
+public class OpenAddressingHashTable implements ISerializableTable {
+
+    private static final int SLOT_SIZE = 16;
+    private static final int SLOT_SIZE_SHIFT = 4;
+    private static final int ENTRY_OFFSET = 0;
+    private static final int FRAME_INDEX_OFFSET = 4;
+    private static final int TUPLE_INDEX_OFFSET = 8;
+    private static final byte EMPTY_BYTE_VALUE = (byte) 0xFF;
+    private static final int EMPTY = -1;
+    private static final int DELETED = -2;
+    private static final int MIN_CAPACITY = 2;
+    private static final double MAX_LOAD_FACTOR = 0.75;
+    private static final double DEFAULT_GARBAGE_COLLECTION_THRESHOLD = 0.1;
+
+    private final int tableSize;
+    private final int frameSize;
+    private final int slotsPerFrame;
+    private final int slotsPerFrameShift;
+    private final int initialCapacity;
+    private final ISimpleFrameBufferManager bufferManager;
+    private final double garbageCollectionThreshold;
+    private ByteBuffer[] frames = new ByteBuffer[0];
+    private int capacity;
+    private int shift;
+    private int tupleCount;
+    private int deletedCount;
+    // the slots of the last looked up entry
+    private int cachedEntry;
+    private boolean cacheValid;
+    private int[] cachedSlots = new int[8];
+    private int cachedSlotCount;
+
+    public OpenAddressingHashTable(int tableSize, final IHyracksFrameMgrContext ctx,
+            ISimpleFrameBufferManager bufferManager) throws HyracksDataException {
+        this(tableSize, ctx, bufferManager, DEFAULT_GARBAGE_COLLECTION_THRESHOLD);
+    }
+
+    public OpenAddressingHashTable(int tableSize, final IHyracksFrameMgrContext ctx,
+            ISimpleFrameBufferManager bufferManager, double garbageCollectionThreshold) throws HyracksDataException {
+        this.tableSize = tableSize;
+        this.frameSize = ctx.getInitialFrameSize();
+        // a power of two so that a slot number splits into a frame and a slot in that frame with shifts
+        this.slotsPerFrame = Integer.highestOneBit(frameSize / SLOT_SIZE);
+        this.slotsPerFrameShift = Integer.numberOfTrailingZeros(slotsPerFrame);
+        this.initialCapacity = Math.max(MIN_CAPACITY, slotsPerFrame);
+        this.bufferManager = bufferManager;
+        this.garbageCollectionThreshold = garbageCollectionThreshold;
+        if (tableSize > 0 && !rehash(initialCapacity)) {
+            throw new HyracksDataException("Can't allocate a frame for Hash Table. Please allocate more budget.");
+        }
+    }
+
+    @Override
+    public boolean insert(int entry, TuplePointer tuplePointer) throws HyracksDataException {
+        if (tupleCount + deletedCount + 1 > capacity * MAX_LOAD_FACTOR) {
+            // rehashing at the same capacity is enough when it frees at least 1/8 of the usable slots
+            int newCapacity = capacity == 0 ? initialCapacity
+                    : deletedCount >= capacity * MAX_LOAD_FACTOR / 8 ? capacity : capacity * 2;
+            if (!rehash(newCapacity)) {
+                return false;
+            }
+        }
+        int slot = findEmptySlot(entry);
+        writeSlot(slot, entry, tuplePointer.getFrameIndex(), tuplePointer.getTupleIndex());
+        tupleCount++;
+        if (cacheValid && cachedEntry == entry) {
+            // the new slot comes after the other slots of the entry
+            addCachedSlot(slot);
+        }
+        return true;
+    }
+
+    @Override
+    public void delete(int entry) {
+        if (capacity == 0) {
+            return;
+        }
+        for (int slot = getHomeSlot(entry);; slot = (slot + 1) & (capacity - 1)) {
+            ByteBuffer frame = frames[slot >>> slotsPerFrameShift];
+            int offset = getSlotOffset(slot);
+            int frameIndex = frame.getInt(offset + FRAME_INDEX_OFFSET);
+            if (frameIndex == EMPTY) {
+                break;
+            }
+            if (frameIndex != DELETED && frame.getInt(offset + ENTRY_OFFSET) == entry) {
+                frame.putInt(offset + FRAME_INDEX_OFFSET, DELETED);
+                tupleCount--;
+                deletedCount++;
+            }
+        }
+        if (cachedEntry == entry) {
+            cacheValid = false;
+        }
+    }
+
+    @Override
+    public boolean getTuplePointer(int entry, int offset, TuplePointer tuplePointer) {
+        if (!cacheValid || cachedEntry != entry) {
+            lookup(entry);
+        }
+        if (offset >= cachedSlotCount) {
+            tuplePointer.reset(EMPTY, EMPTY);
+            return false;
+        }
+        int slot = cachedSlots[offset];
+        ByteBuffer frame = frames[slot >>> slotsPerFrameShift];
+        int slotOffset = getSlotOffset(slot);
+        tuplePointer.reset(frame.getInt(slotOffset + FRAME_INDEX_OFFSET),
+                frame.getInt(slotOffset + TUPLE_INDEX_OFFSET));
+        return true;
+    }
+
+    @Override
+    public int getCurrentByteSize() {
+        return frames.length * frameSize;
+    }
+
+    @Override
+    public int getTupleCount() {
+        return tupleCount;
+    }
+
+    @Override
+    public int getTupleCount(int entry) {
+        if (!cacheValid || cachedEntry != entry) {
+            lookup(entry);
+        }
+        return cachedSlotCount;
+    }
+
+    @Override
+    public void reset() {
+        for (ByteBuffer frame : frames) {
+            Arrays.fill(frame.array(), EMPTY_BYTE_VALUE);
+        }
+        tupleCount = 0;
+        deletedCount = 0;
+        cacheValid = false;
+    }
+
+    @Override
+    public void close() {
+        releaseFrames(frames, frames.length);
+        frames = new ByteBuffer[0];
+        capacity = 0;
+        tupleCount = 0;
+        deletedCount = 0;
+        cacheValid = false;
+    }
+
+    @Override
+    public boolean isGarbageCollectionNeeded() {
+        return deletedCount > capacity * garbageCollectionThreshold;
+    }
+
+    /**
+     * Rehashes the live slots into a table that is just large enough for them. Since every slot keeps its entry,
+     * the tuples do not need to be accessed and the given accessor and partition computer are not used.
+     *
+     * @return the number of frames that are reclaimed. The value -1 is returned when no compaction was happened.
+     */
+    @Override
+    public int collectGarbage(ITuplePointerAccessor bufferAccessor, ITuplePartitionComputer tpc)
+            throws HyracksDataException {
+        // shrinks the table as long as it stays at most half as full as allowed
+        int newCapacity = initialCapacity;
+        while (newCapacity < capacity && tupleCount + 1 > newCapacity * MAX_LOAD_FACTOR / 2) {
+            newCapacity *= 2;
+        }
+        int nFrames = frames.length;
+        if (capacity == 0 || !rehash(Math.min(newCapacity, capacity))) {
+            return -1;
+        }
+        return nFrames - frames.length;
+    }
+
+    @Override
+    public String printInfo() {
+        return "capacity: " + capacity + ", tuples: " + tupleCount + ", deleted slots: " + deletedCount + ", frames: "
+                + frames.length;
+    }
+
+    @Override
+    public int getTableSize() {
+        return tableSize;
+    }
+
+    /**
+     * Scans the run of the entry once and remembers its slots.
+     */
+    private void lookup(int entry) {
+        cachedEntry = entry;
+        cachedSlotCount = 0;
+        cacheValid = true;
+        if (capacity == 0) {
+            return;
+        }
+        for (int slot = getHomeSlot(entry);; slot = (slot + 1) & (capacity - 1)) {
+            ByteBuffer frame = frames[slot >>> slotsPerFrameShift];
+            int offset = getSlotOffset(slot);
+            int frameIndex = frame.getInt(offset + FRAME_INDEX_OFFSET);
+            if (frameIndex == EMPTY) {
+                return;
+            }
+            if (frameIndex != DELETED && frame.getInt(offset + ENTRY_OFFSET) == entry) {
+                addCachedSlot(slot);
+            }
+        }
+    }
+
+    private void addCachedSlot(int slot) {
+        if (cachedSlotCount == cachedSlots.length) {
+            int[] newCachedSlots = new int[cachedSlots.length * 2];
+            System.arraycopy(cachedSlots, 0, newCachedSlots, 0, cachedSlotCount);
+            cachedSlots = newCachedSlots;
+        }
+        cachedSlots[cachedSlotCount++] = slot;
+    }
+
+    private int getHomeSlot(int entry) {
+        // Fibonacci hashing spreads consecutive entries over the whole table
+        return (entry * 0x9E3779B9) >>> shift;
+    }
+
+    private int findEmptySlot(int entry) {
+        for (int slot = getHomeSlot(entry);; slot = (slot + 1) & (capacity - 1)) {
+            if (getInt(frames, slot, FRAME_INDEX_OFFSET) == EMPTY) {
+                return slot;
+            }
+        }
+    }
+
+    private void writeSlot(int slot, int entry, int frameIndex, int tupleIndex) {
+        ByteBuffer frame = frames[slot >>> slotsPerFrameShift];
+        int offset = getSlotOffset(slot);
+        frame.putInt(offset + ENTRY_OFFSET, entry);
+        frame.putInt(offset + FRAME_INDEX_OFFSET, frameIndex);
+        frame.putInt(offset + TUPLE_INDEX_OFFSET, tupleIndex);
+    }
+
+    /**
+     * Moves the live slots to a new slot array of the given capacity and releases the old one. The old array is
+     * scanned starting from an empty slot so that no run is split and the slots of an entry keep their order.
+     *
+     * @return false if the frames of the new slot array could not be acquired, in which case nothing is changed
+     */
+    private boolean rehash(int newCapacity) throws HyracksDataException {
+        int nFrames = (newCapacity + slotsPerFrame - 1) / slotsPerFrame;
+        ByteBuffer[] newFrames = new ByteBuffer[nFrames];
+        for (int i = 0; i < nFrames; i++) {
+            ByteBuffer newFrame = bufferManager.acquireFrame(frameSize);
+            if (newFrame == null) {
+                releaseFrames(newFrames, i);
+                return false;
+            }
+            Arrays.fill(newFrame.array(), EMPTY_BYTE_VALUE);
+            newFrames[i] = newFrame;
+        }
+        ByteBuffer[] oldFrames = frames;
+        int oldCapacity = capacity;
+        frames = newFrames;
+        capacity = newCapacity;
+        shift = Integer.numberOfLeadingZeros(newCapacity) + 1;
+        deletedCount = 0;
+        cacheValid = false;
+        int start = 0;
+        while (start < oldCapacity && getInt(oldFrames, start, FRAME_INDEX_OFFSET) != EMPTY) {
+            start++;
+        }
+        for (int i = 0; i < oldCapacity; i++) {
+            int slot = (start + i) & (oldCapacity - 1);
+            int frameIndex = getInt(oldFrames, slot, FRAME_INDEX_OFFSET);
+            if (frameIndex >= 0) {
+                int entry = getInt(oldFrames, slot, ENTRY_OFFSET);
+                writeSlot(findEmptySlot(entry), entry, frameIndex, getInt(oldFrames, slot, TUPLE_INDEX_OFFSET));
+            }
+        }
+        releaseFrames(oldFrames, oldFrames.length);
+        return true;
+    }
+
+    private int getSlotOffset(int slot) {
+        return (slot & (slotsPerFrame - 1)) << SLOT_SIZE_SHIFT;
+    }
+
+    private int getInt(ByteBuffer[] slotFrames, int slot, int fieldOffset) {
+        return slotFrames[slot >>> slotsPerFrameShift].getInt(getSlotOffset(slot) + fieldOffset);
+    }
+
+    private void releaseFrames(ByteBuffer[] slotFrames, int nFrames) {
+        for (int i = 0; i < nFrames; i++) {
+            bufferManager.releaseFrame(slotFrames[i]);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.structures;
+
+import java.util.Random;
+
+import org.apache.hyracks.api.context.IHyracksFrameMgrContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.control.nc.resources.memory.FrameManager;
+import org.apache.hyracks.dataflow.std.buffermanager.DeallocatableFramePool;
+import org.apache.hyracks.dataflow.std.buffermanager.FramePoolBackedFrameBufferManager;
+import org.apache.hyracks.dataflow.std.buffermanager.ISimpleFrameBufferManager;
+
+/**
+ * Compares the build and probe times of {@link SerializableHashTable} and {@link OpenAddressingHashTable} the way
+ * the in-memory hash join and the hash group-by use them. It is not run as part of the tests, run it with:
+ * java HashTableMicroBenchmark [number of tuples] [number of probes] [rounds]
+ */
+public class HashTableMicroBenchmark {
+
+    private static final int FRAME_SIZE = 32768;
+
+    private interface TableFactory {
+        ISerializableTable create(int tableSize, IHyracksFrameMgrContext ctx, ISimpleFrameBufferManager bufferManager)
+                throws HyracksDataException;
+    }
+
+    public static void main(String[] args) throws HyracksDataException {
+        int numTuples = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int numProbes = args.length > 1 ? Integer.parseInt(args[1]) : 4_000_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        Random random = new Random(0);
+        int[] buildEntries = new int[numTuples];
+        for (int i = 0; i < numTuples; i++) {
+            buildEntries[i] = random.nextInt(numTuples);
+        }
+        int[] probeEntries = new int[numProbes];
+        for (int i = 0; i < numProbes; i++) {
+            probeEntries[i] = random.nextInt(numTuples);
+        }
+        for (int round = 0; round < rounds; round++) {
+            run("chained", SerializableHashTable::new, buildEntries, probeEntries);
+            run("open addressing", OpenAddressingHashTable::new, buildEntries, probeEntries);
+        }
+    }
+
+    private static void run(String name, TableFactory factory, int[] buildEntries, int[] probeEntries)
+            throws HyracksDataException {
+        IHyracksFrameMgrContext ctx = new FrameManager(FRAME_SIZE);
+        ISimpleFrameBufferManager bufferManager =
+                new FramePoolBackedFrameBufferManager(new DeallocatableFramePool(ctx, Integer.MAX_VALUE));
+        int tableSize = buildEntries.length;
+        ISerializableTable table = factory.create(tableSize, ctx, bufferManager);
+        TuplePointer pointer = new TuplePointer();
+        long start = System.nanoTime();
+        for (int i = 0; i < buildEntries.length; i++) {
+            pointer.reset(i / 128, i % 128);
+            if (!table.insert(buildEntries[i], pointer)) {
+                throw new IllegalStateException("Failed to insert tuple " + i);
+            }
+        }
+        long build = System.nanoTime() - start;
+        start = System.nanoTime();
+        long checksum = 0;
+        for (int entry : probeEntries) {
+            int tupleCount = table.getTupleCount(entry);
+            for (int j = 0; j < tupleCount; j++) {
+                table.getTuplePointer(entry, j, pointer);
+                checksum += pointer.getTupleIndex();
+            }
+        }
+        long probe = System.nanoTime() - start;
+        System.out.println(String.format("%-16s build: %6d ms, probe: %6d ms, memory: %6d KB, checksum: %d", name,
+                build / 1_000_000, probe / 1_000_000, table.getCurrentByteSize() / 1024, checksum));
+        table.close();
+    }
+}
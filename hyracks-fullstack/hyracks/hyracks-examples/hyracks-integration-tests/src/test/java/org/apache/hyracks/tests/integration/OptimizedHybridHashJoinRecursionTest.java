@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.integration;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.ActivityId;
+import org.apache.hyracks.api.dataflow.IActivity;
+import org.apache.hyracks.api.dataflow.IActivityGraphBuilder;
+import org.apache.hyracks.api.dataflow.IOperatorDescriptor;
+import org.apache.hyracks.api.dataflow.IOperatorNodePushable;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFamily;
+import org.apache.hyracks.api.dataflow.value.IRecordDescriptorProvider;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.api.job.profiling.counters.ICounter;
+import org.apache.hyracks.data.std.accessors.MurmurHash3BinaryHashFunctionFamily;
+import org.apache.hyracks.data.std.accessors.PointableBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.std.join.JoinComparatorFactory;
+import org.apache.hyracks.dataflow.std.join.OptimizedHybridHashJoinOperatorDescriptor;
+import org.apache.hyracks.test.support.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Runs both activities of {@link OptimizedHybridHashJoinOperatorDescriptor} in a single task context with little
+ * memory, so that the spilled partitions are joined recursively, with role reversal when the build side is the
+ * larger one, and with block hash joins for the partitions that cannot be split any further.
+ */
+public class OptimizedHybridHashJoinRecursionTest {
+    private static final int FRAME_SIZE = 1024;
+    private static final int MEM_SIZE_IN_FRAMES = 8;
+    private static final int NUM_KEYS = 2000;
+    private static final int HOT_KEY = 7;
+
+    private static final IBinaryHashFunctionFamily[] HASH_FUNCTION_FAMILIES =
+            { MurmurHash3BinaryHashFunctionFamily.INSTANCE };
+    private static final IBinaryComparatorFactory INT_COMPARATOR_FACTORY =
+            PointableBinaryComparatorFactory.of(IntegerPointable.FACTORY);
+    private static final RecordDescriptor INPUT_RD = new RecordDescriptor(new ISerializerDeserializer[] {
+            IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE });
+    private static final RecordDescriptor OUTPUT_RD = new RecordDescriptor(new ISerializerDeserializer[] {
+            IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE,
+            IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE });
+
+    @Test
+    public void deepRecursionWithRoleReversalAndBlockHashJoin() throws HyracksDataException {
+        // the build side is three times larger than the probe side and both share a heavily duplicated key
+        Map<Integer, Integer> buildCounts = new HashMap<>();
+        Map<Integer, Integer> probeCounts = new HashMap<>();
+        List<ByteBuffer> buildFrames = generate(3, 1500, buildCounts);
+        List<ByteBuffer> probeFrames = generate(1, 500, probeCounts);
+
+        IHyracksTaskContext ctx = TestUtils.create(FRAME_SIZE);
+        Map<Integer, Long> resultCounts = new HashMap<>();
+        String prefix = join(ctx, buildFrames, probeFrames, resultCounts);
+
+        long expectedTotal = 0;
+        for (Map.Entry<Integer, Integer> e : buildCounts.entrySet()) {
+            Integer probeCount = probeCounts.get(e.getKey());
+            long expected = probeCount == null ? 0 : (long) e.getValue() * probeCount;
+            Long actual = resultCounts.get(e.getKey());
+            Assert.assertEquals("key " + e.getKey(), expected, actual == null ? 0 : actual.longValue());
+            expectedTotal += expected;
+        }
+        long actualTotal = 0;
+        for (Long count : resultCounts.values()) {
+            actualTotal += count;
+        }
+        Assert.assertEquals(expectedTotal, actualTotal);
+
+        Assert.assertTrue(counter(ctx, prefix, "spilledPartitions") > 0);
+        Assert.assertTrue(counter(ctx, prefix, "bytesSpilled") > 0);
+        Assert.assertTrue(counter(ctx, prefix, "maxRecursionDepth") >= 2);
+        Assert.assertTrue(counter(ctx, prefix, "roleReversals") > 0);
+        Assert.assertTrue(counter(ctx, prefix, "blockHashJoins") > 0);
+        Assert.assertEquals(0, counter(ctx, prefix, "nestedLoopJoins"));
+    }
+
+    /**
+     * Generates {@code copies} tuples for every key and {@code hotCopies} additional tuples for the hot key. The
+     * second field numbers the tuples of a key.
+     */
+    private static List<ByteBuffer> generate(int copies, int hotCopies, Map<Integer, Integer> counts)
+            throws HyracksDataException {
+        List<Integer> keys = new ArrayList<>();
+        for (int c = 0; c < copies; c++) {
+            for (int k = 0; k < NUM_KEYS; k++) {
+                keys.add(k);
+            }
+        }
+        for (int c = 0; c < hotCopies; c++) {
+            keys.add(HOT_KEY);
+        }
+        List<ByteBuffer> frames = new ArrayList<>();
+        VSizeFrame frame = new VSizeFrame(TestUtils.create(FRAME_SIZE));
+        FrameTupleAppender appender = new FrameTupleAppender(frame, true);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(2);
+        for (Integer key : keys) {
+            int seq = counts.merge(key, 1, Integer::sum);
+            tb.reset();
+            tb.addField(IntegerSerializerDeserializer.INSTANCE, key);
+            tb.addField(IntegerSerializerDeserializer.INSTANCE, seq);
+            if (!appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize())) {
+                frames.add(copy(frame.getBuffer()));
+                appender.reset(frame, true);
+                appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize());
+            }
+        }
+        if (appender.getTupleCount() > 0) {
+            frames.add(copy(frame.getBuffer()));
+        }
+        return frames;
+    }
+
+    private static ByteBuffer copy(ByteBuffer buffer) {
+        ByteBuffer copy = ByteBuffer.allocate(buffer.capacity());
+        copy.put(buffer.array(), 0, buffer.capacity());
+        copy.flip();
+        return copy;
+    }
+
+    private static String join(IHyracksTaskContext ctx, List<ByteBuffer> buildFrames, List<ByteBuffer> probeFrames,
+            Map<Integer, Long> resultCounts) throws HyracksDataException {
+        JobSpecification spec = new JobSpecification();
+        OptimizedHybridHashJoinOperatorDescriptor join = new OptimizedHybridHashJoinOperatorDescriptor(spec,
+                MEM_SIZE_IN_FRAMES, buildFrames.size(), 1.2, new int[] { 0 }, new int[] { 0 }, HASH_FUNCTION_FAMILIES,
+                HASH_FUNCTION_FAMILIES, OUTPUT_RD, new JoinComparatorFactory(INT_COMPARATOR_FACTORY, 0, 0),
+                new JoinComparatorFactory(INT_COMPARATOR_FACTORY, 0, 0), null);
+        List<IActivity> activities = new ArrayList<>();
+        join.contributeActivities(new IActivityGraphBuilder() {
+            @Override
+            public void addActivity(IOperatorDescriptor op, IActivity task) {
+                activities.add(task);
+            }
+
+            @Override
+            public void addBlockingEdge(IActivity blocker, IActivity blocked) {
+                // the build activity is run to completion before the probe activity
+            }
+
+            @Override
+            public void addSourceEdge(int operatorInputIndex, IActivity task, int taskInputIndex) {
+                // both activities read the input frames directly
+            }
+
+            @Override
+            public void addTargetEdge(int operatorOutputIndex, IActivity task, int taskOutputIndex) {
+                // the probe activity writes to the result collector
+            }
+        });
+        IRecordDescriptorProvider rdProvider = new IRecordDescriptorProvider() {
+            @Override
+            public RecordDescriptor getInputRecordDescriptor(ActivityId aid, int inputIndex) {
+                return INPUT_RD;
+            }
+
+            @Override
+            public RecordDescriptor getOutputRecordDescriptor(ActivityId aid, int outputIndex) {
+                return OUTPUT_RD;
+            }
+        };
+
+        IOperatorNodePushable build = activities.get(0).createPushRuntime(ctx, rdProvider, 0, 1);
+        push(build.getInputFrameWriter(0), buildFrames);
+
+        IOperatorNodePushable probe = activities.get(1).createPushRuntime(ctx, rdProvider, 0, 1);
+        probe.setOutputFrameWriter(0, new ResultCollector(resultCounts), OUTPUT_RD);
+        push(probe.getInputFrameWriter(0), probeFrames);
+        return join.getOperatorId().toString();
+    }
+
+    private static void push(IFrameWriter writer, List<ByteBuffer> frames) throws HyracksDataException {
+        writer.open();
+        for (ByteBuffer frame : frames) {
+            frame.position(0);
+            writer.nextFrame(frame);
+        }
+        writer.close();
+    }
+
+    private static long counter(IHyracksTaskContext ctx, String prefix, String name) {
+        ICounter counter = ctx.getCounterContext().getCounter(prefix + ".hhj." + name, false);
+        Assert.assertNotNull(name, counter);
+        return counter.get();
+    }
+
+    /**
+     * Counts the joined tuples per key and checks that both sides of every result tuple have the same key.
+     */
+    private static class ResultCollector implements IFrameWriter {
+        private final FrameTupleAccessor accessor = new FrameTupleAccessor(OUTPUT_RD);
+        private final Map<Integer, Long> counts;
+
+        ResultCollector(Map<Integer, Long> counts) {
+            this.counts = counts;
+        }
+
+        @Override
+        public void open() throws HyracksDataException {
+        }
+
+        @Override
+        public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+            accessor.reset(buffer);
+            for (int i = 0; i < accessor.getTupleCount(); i++) {
+                int probeKey = getKey(i, 0);
+                int buildKey = getKey(i, 2);
+                Assert.assertEquals(probeKey, buildKey);
+                counts.merge(probeKey, 1L, Long::sum);
+            }
+        }
+
+        private int getKey(int tupleIndex, int fieldIndex) {
+            return IntegerPointable.getInteger(accessor.getBuffer().array(),
+                    accessor.getAbsoluteFieldStartOffset(tupleIndex, fieldIndex));
+        }
+
+        @Override
+        public void fail() throws HyracksDataException {
+        }
+
+        @Override
+        public void close() throws HyracksDataException {
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputerFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.IntegerBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.normalizers.IntegerNormalizedKeyComputerFactory;
+import org.apache.hyracks.dataflow.std.buffermanager.EnumFreeSlotPolicy;
+import org.apache.hyracks.dataflow.std.sort.Algorithm;
+import org.apache.hyracks.dataflow.std.sort.ExternalSortRunGenerator;
+import org.apache.hyracks.test.support.TestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Sorts (key, sequence number) tuples by key only, with many equal keys, once with the sequential merge sort and once
+ * with the parallel one, around the number of tuples at which the parallel sort starts to split its input.
+ */
+public class ParallelMergeSortTest {
+
+    private static final int PAGE_SIZE = 32768;
+    private static final int FRAME_LIMIT = 256;
+    private static final int SORT_THREADS = 4;
+    // the number of tuples a thread sorts on its own, see FrameSorterParallelMergeSort
+    private static final int SEQUENTIAL_THRESHOLD = 8192;
+    private static final int[] SORT_FIELDS = new int[] { 0 };
+    private static final IBinaryComparatorFactory[] COMPARATOR_FACTORIES =
+            new IBinaryComparatorFactory[] { IntegerBinaryComparatorFactory.INSTANCE };
+    private static final INormalizedKeyComputerFactory[] NORMALIZED_KEY_FACTORIES =
+            new INormalizedKeyComputerFactory[] { new IntegerNormalizedKeyComputerFactory() };
+    private static final RecordDescriptor RECORD_DESC = new RecordDescriptor(new ISerializerDeserializer[] {
+            IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE });
+
+    private final Random random = new Random(0);
+    private GatedExecutor executor;
+    private IHyracksTaskContext ctx;
+
+    @Before
+    public void setUp() {
+        executor = new GatedExecutor(SORT_THREADS);
+        ctx = Mockito.spy(TestUtils.create(PAGE_SIZE));
+        Mockito.doReturn(executor).when(ctx).getExecutorService();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void aroundSequentialThreshold() throws HyracksDataException {
+        for (int tupleCount : new int[] { SEQUENTIAL_THRESHOLD - 1, SEQUENTIAL_THRESHOLD, SEQUENTIAL_THRESHOLD + 1,
+                2 * SEQUENTIAL_THRESHOLD - 1, 2 * SEQUENTIAL_THRESHOLD + 1, 3 * SEQUENTIAL_THRESHOLD }) {
+            testSort(tupleCount, 10, null);
+            testSort(tupleCount, 10, NORMALIZED_KEY_FACTORIES);
+        }
+    }
+
+    @Test
+    public void moreRangesThanThreads() throws HyracksDataException {
+        // more tuples than the threads would sort on their own, with an odd number of ranges in the last merge
+        testSort(SORT_THREADS * SEQUENTIAL_THRESHOLD * 2 + 17, 100, null);
+        testSort(SORT_THREADS * SEQUENTIAL_THRESHOLD * 2 + 17, 100, NORMALIZED_KEY_FACTORIES);
+        testSort(5 * SEQUENTIAL_THRESHOLD / 2, 3, NORMALIZED_KEY_FACTORIES);
+    }
+
+    @Test
+    public void distinctKeys() throws HyracksDataException {
+        testSort(3 * SEQUENTIAL_THRESHOLD + 5, Integer.MAX_VALUE, NORMALIZED_KEY_FACTORIES);
+    }
+
+    @Test
+    public void interruptStopsSort() throws Exception {
+        List<int[]> tuples = generateTuples(SORT_THREADS * SEQUENTIAL_THRESHOLD, 10);
+        List<ByteBuffer> frames = toFrames(tuples);
+        executor.close();
+        ExternalSortRunGenerator runGenerator = createRunGenerator(SORT_THREADS, NORMALIZED_KEY_FACTORIES);
+        runGenerator.open();
+        for (ByteBuffer frame : frames) {
+            runGenerator.nextFrame(frame);
+        }
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicReference<Boolean> interrupted = new AtomicReference<>();
+        Thread sortingThread = new Thread(() -> {
+            try {
+                runGenerator.close();
+            } catch (Throwable th) {
+                failure.set(th);
+            }
+            interrupted.set(Thread.interrupted());
+        });
+        sortingThread.start();
+        // the workers are waiting at the gate while the sorting thread is interrupted
+        executor.awaitWorker();
+        sortingThread.interrupt();
+        executor.open();
+        sortingThread.join(TimeUnit.MINUTES.toMillis(1));
+        assertTrue(!sortingThread.isAlive());
+        assertTrue(String.valueOf(failure.get()), failure.get() instanceof HyracksDataException);
+        assertTrue(interrupted.get());
+        // the sorter can still be used after a cancelled sort
+        runGenerator.getSorter().reset();
+        runGenerator.open();
+        for (ByteBuffer frame : frames) {
+            runGenerator.nextFrame(frame);
+        }
+        runGenerator.close();
+        assertSorted(tuples, sortAndCollect(runGenerator));
+    }
+
+    private void testSort(int tupleCount, int keyDomain, INormalizedKeyComputerFactory[] normalizedKeyFactories)
+            throws HyracksDataException {
+        List<int[]> tuples = generateTuples(tupleCount, keyDomain);
+        List<ByteBuffer> frames = toFrames(tuples);
+        List<int[]> sequential = sort(frames, 1, normalizedKeyFactories);
+        List<int[]> parallel = sort(frames, SORT_THREADS, normalizedKeyFactories);
+        assertSorted(tuples, sequential);
+        assertSorted(tuples, parallel);
+    }
+
+    /**
+     * Asserts that the actual tuples are the given ones in key order, with equal keys in input order.
+     */
+    private static void assertSorted(List<int[]> tuples, List<int[]> actual) {
+        List<int[]> expected = new ArrayList<>(tuples);
+        expected.sort(Comparator.comparingInt(tuple -> tuple[0]));
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals("key of tuple " + i, expected.get(i)[0], actual.get(i)[0]);
+            assertEquals("sequence number of tuple " + i, expected.get(i)[1], actual.get(i)[1]);
+        }
+    }
+
+    private List<int[]> sort(List<ByteBuffer> frames, int sortThreads,
+            INormalizedKeyComputerFactory[] normalizedKeyFactories) throws HyracksDataException {
+        ExternalSortRunGenerator runGenerator = createRunGenerator(sortThreads, normalizedKeyFactories);
+        runGenerator.open();
+        for (ByteBuffer frame : frames) {
+            runGenerator.nextFrame(frame);
+        }
+        runGenerator.close();
+        return sortAndCollect(runGenerator);
+    }
+
+    private ExternalSortRunGenerator createRunGenerator(int sortThreads,
+            INormalizedKeyComputerFactory[] normalizedKeyFactories) throws HyracksDataException {
+        return new ExternalSortRunGenerator(ctx, SORT_FIELDS, normalizedKeyFactories, COMPARATOR_FACTORIES,
+                RECORD_DESC, Algorithm.MERGE_SORT, EnumFreeSlotPolicy.LAST_FIT, FRAME_LIMIT, Integer.MAX_VALUE,
+                sortThreads);
+    }
+
+    private static List<int[]> sortAndCollect(ExternalSortRunGenerator runGenerator) throws HyracksDataException {
+        // all the tuples fit in memory, they are sorted but not written to runs
+        assertTrue(runGenerator.getRuns().isEmpty());
+        List<int[]> result = new ArrayList<>();
+        FrameTupleAccessor accessor = new FrameTupleAccessor(RECORD_DESC);
+        runGenerator.getSorter().flush(new IFrameWriter() {
+            @Override
+            public void open() {
+            }
+
+            @Override
+            public void nextFrame(ByteBuffer buffer) {
+                accessor.reset(buffer);
+                for (int i = 0; i < accessor.getTupleCount(); i++) {
+                    int key = IntegerPointable.getInteger(buffer.array(), accessor.getAbsoluteFieldStartOffset(i, 0));
+                    int seq = IntegerPointable.getInteger(buffer.array(), accessor.getAbsoluteFieldStartOffset(i, 1));
+                    result.add(new int[] { key, seq });
+                }
+            }
+
+            @Override
+            public void fail() {
+            }
+
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public void flush() {
+            }
+        });
+        runGenerator.getSorter().close();
+        return result;
+    }
+
+    private List<int[]> generateTuples(int tupleCount, int keyDomain) {
+        List<int[]> tuples = new ArrayList<>(tupleCount);
+        for (int i = 0; i < tupleCount; i++) {
+            tuples.add(new int[] { keyDomain == Integer.MAX_VALUE ? random.nextInt() : random.nextInt(keyDomain), i });
+        }
+        return tuples;
+    }
+
+    private List<ByteBuffer> toFrames(List<int[]> tuples) throws HyracksDataException {
+        List<ByteBuffer> frames = new ArrayList<>();
+        FrameTupleAppender appender = new FrameTupleAppender();
+        VSizeFrame frame = new VSizeFrame(ctx);
+        appender.reset(frame, true);
+        for (int[] tuple : tuples) {
+            if (!appender.append(new int[] { 4, 8 }, toBytes(tuple), 0, 8)) {
+                frames.add(frame.getBuffer());
+                frame = new VSizeFrame(ctx);
+                appender.reset(frame, true);
+                assertTrue(appender.append(new int[] { 4, 8 }, toBytes(tuple), 0, 8));
+            }
+        }
+        frames.add(frame.getBuffer());
+        return frames;
+    }
+
+    private static byte[] toBytes(int[] tuple) {
+        ByteBuffer bytes = ByteBuffer.allocate(8);
+        bytes.putInt(tuple[0]);
+        bytes.putInt(tuple[1]);
+        return bytes.array();
+    }
+
+    /**
+     * Runs tasks on a fixed number of threads. While it is closed, the tasks wait before they start.
+     */
+    private static class GatedExecutor extends ThreadPoolExecutor {
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+        private final CountDownLatch waiting = new CountDownLatch(1);
+
+        GatedExecutor(int nThreads) {
+            super(nThreads, nThreads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        }
+
+        void close() {
+            gate = new CountDownLatch(1);
+        }
+
+        void open() {
+            gate.countDown();
+        }
+
+        void awaitWorker() throws InterruptedException {
+            waiting.await();
+        }
+
+        @Override
+        protected void beforeExecute(Thread t, Runnable r) {
+            CountDownLatch currentGate = gate;
+            if (currentGate.getCount() > 0) {
+                waiting.countDown();
+                try {
+                    currentGate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            super.beforeExecute(t, r);
+        }
+    }
+}
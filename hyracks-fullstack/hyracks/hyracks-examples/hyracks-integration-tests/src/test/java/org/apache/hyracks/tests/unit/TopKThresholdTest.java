@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.ActivityId;
+import org.apache.hyracks.api.dataflow.OperatorDescriptorId;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputerFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.IntegerBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.normalizers.IntegerNormalizedKeyComputerFactory;
+import org.apache.hyracks.dataflow.std.sort.HybridTopKSortRunGenerator;
+import org.apache.hyracks.dataflow.std.sort.TopKThreshold;
+import org.apache.hyracks.test.support.TestUtils;
+import org.junit.Test;
+
+/**
+ * Runs several top-K sort partitions that share a {@link TopKThreshold}, with many tuples whose key is equal to the
+ * K-th key, and checks that the merged output of the partitions still holds the global top K.
+ */
+public class TopKThresholdTest {
+
+    private static final int PAGE_SIZE = 4096;
+    private static final int FRAME_LIMIT = 64;
+    private static final int PARTITIONS = 3;
+    private static final int TUPLES_PER_PARTITION = 5000;
+    // few distinct keys, so that many tuples of every partition are tied at the K-th key
+    private static final int KEY_DOMAIN = 40;
+    private static final int[] SORT_FIELDS = new int[] { 0 };
+    private static final IBinaryComparatorFactory[] COMPARATOR_FACTORIES =
+            new IBinaryComparatorFactory[] { IntegerBinaryComparatorFactory.INSTANCE };
+    private static final INormalizedKeyComputerFactory[] NORMALIZED_KEY_FACTORIES =
+            new INormalizedKeyComputerFactory[] { new IntegerNormalizedKeyComputerFactory() };
+    // (key, partition, sequence number)
+    private static final RecordDescriptor RECORD_DESC =
+            new RecordDescriptor(new ISerializerDeserializer[] { IntegerSerializerDeserializer.INSTANCE,
+                    IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE });
+
+    private final Random random = new Random(0);
+
+    @Test
+    public void tiesAtKthKey() throws HyracksDataException {
+        for (int topK : new int[] { 1, 7, TUPLES_PER_PARTITION / KEY_DOMAIN, 250, 1000 }) {
+            testTopK(topK, KEY_DOMAIN, null);
+            testTopK(topK, KEY_DOMAIN, NORMALIZED_KEY_FACTORIES);
+        }
+    }
+
+    @Test
+    public void allKeysEqual() throws HyracksDataException {
+        testTopK(10, 1, null);
+        testTopK(10, 1, NORMALIZED_KEY_FACTORIES);
+    }
+
+    @Test
+    public void skewedPartitions() throws HyracksDataException {
+        // the smallest keys are all in one partition, the others are pruned by its threshold
+        IHyracksTaskContext ctx = TestUtils.create(PAGE_SIZE);
+        List<List<int[]>> input = new ArrayList<>();
+        for (int p = 0; p < PARTITIONS; p++) {
+            List<int[]> tuples = new ArrayList<>();
+            for (int i = 0; i < TUPLES_PER_PARTITION; i++) {
+                tuples.add(new int[] { p == 0 ? random.nextInt(3) : 3 + random.nextInt(KEY_DOMAIN), p, i });
+            }
+            input.add(tuples);
+        }
+        List<List<int[]>> output = runTopK(ctx, input, 100, NORMALIZED_KEY_FACTORIES, true);
+        assertTopK(input, output, 100);
+        for (int p = 1; p < PARTITIONS; p++) {
+            assertTrue("partition " + p + " sent " + output.get(p).size(), output.get(p).size() < 100);
+        }
+    }
+
+    private void testTopK(int topK, int keyDomain, INormalizedKeyComputerFactory[] normalizedKeyFactories)
+            throws HyracksDataException {
+        IHyracksTaskContext ctx = TestUtils.create(PAGE_SIZE);
+        List<List<int[]>> input = new ArrayList<>();
+        for (int p = 0; p < PARTITIONS; p++) {
+            List<int[]> tuples = new ArrayList<>();
+            for (int i = 0; i < TUPLES_PER_PARTITION; i++) {
+                tuples.add(new int[] { random.nextInt(keyDomain), p, i });
+            }
+            input.add(tuples);
+        }
+        List<List<int[]>> withThreshold = runTopK(ctx, input, topK, normalizedKeyFactories, true);
+        List<List<int[]>> withoutThreshold = runTopK(ctx, input, topK, normalizedKeyFactories, false);
+        assertTopK(input, withThreshold, topK);
+        assertTopK(input, withoutThreshold, topK);
+        // the global top K keys do not depend on the threshold
+        assertEquals(topKeys(withoutThreshold, topK), topKeys(withThreshold, topK));
+    }
+
+    /**
+     * Asserts that every partition sent a sorted subset of its input, and that the smallest K keys of all the
+     * partitions are the smallest K keys of the input.
+     */
+    private static void assertTopK(List<List<int[]>> input, List<List<int[]>> output, int topK) {
+        List<int[]> allInput = new ArrayList<>();
+        for (int p = 0; p < input.size(); p++) {
+            allInput.addAll(input.get(p));
+            int previousKey = Integer.MIN_VALUE;
+            for (int[] tuple : output.get(p)) {
+                assertEquals(p, tuple[1]);
+                assertEquals(input.get(p).get(tuple[2])[0], tuple[0]);
+                assertTrue(tuple[0] >= previousKey);
+                previousKey = tuple[0];
+            }
+        }
+        assertEquals(topKeys(input, topK), topKeys(output, topK));
+    }
+
+    private static List<Integer> topKeys(List<List<int[]>> partitions, int topK) {
+        List<Integer> keys = new ArrayList<>();
+        for (List<int[]> tuples : partitions) {
+            for (int[] tuple : tuples) {
+                keys.add(tuple[0]);
+            }
+        }
+        keys.sort(null);
+        assertTrue(keys.size() >= topK);
+        return keys.subList(0, topK);
+    }
+
+    private static List<List<int[]>> runTopK(IHyracksTaskContext ctx, List<List<int[]>> input, int topK,
+            INormalizedKeyComputerFactory[] normalizedKeyFactories, boolean shareThreshold)
+            throws HyracksDataException {
+        TopKThreshold threshold =
+                shareThreshold ? TopKThreshold.get(ctx, new ActivityId(new OperatorDescriptorId(0), 0)) : null;
+        List<HybridTopKSortRunGenerator> runGenerators = new ArrayList<>();
+        List<List<ByteBuffer>> frames = new ArrayList<>();
+        int maxFrames = 0;
+        for (List<int[]> tuples : input) {
+            HybridTopKSortRunGenerator runGenerator = new HybridTopKSortRunGenerator(ctx, FRAME_LIMIT, topK,
+                    SORT_FIELDS, normalizedKeyFactories, COMPARATOR_FACTORIES, RECORD_DESC);
+            runGenerator.setThreshold(threshold);
+            runGenerator.open();
+            runGenerators.add(runGenerator);
+            frames.add(toFrames(ctx, tuples));
+            maxFrames = Math.max(maxFrames, frames.get(frames.size() - 1).size());
+        }
+        // the partitions make progress at the same time
+        for (int i = 0; i < maxFrames; i++) {
+            for (int p = 0; p < input.size(); p++) {
+                if (i < frames.get(p).size()) {
+                    runGenerators.get(p).nextFrame(frames.get(p).get(i));
+                }
+            }
+        }
+        List<List<int[]>> output = new ArrayList<>();
+        for (HybridTopKSortRunGenerator runGenerator : runGenerators) {
+            runGenerator.close();
+            // the top K tuples fit in memory, they are sorted but not written to runs
+            assertTrue(runGenerator.getRuns().isEmpty());
+            output.add(flush(runGenerator));
+        }
+        return output;
+    }
+
+    private static List<int[]> flush(HybridTopKSortRunGenerator runGenerator) throws HyracksDataException {
+        List<int[]> result = new ArrayList<>();
+        FrameTupleAccessor accessor = new FrameTupleAccessor(RECORD_DESC);
+        runGenerator.getSorter().flush(new IFrameWriter() {
+            @Override
+            public void open() {
+            }
+
+            @Override
+            public void nextFrame(ByteBuffer buffer) {
+                accessor.reset(buffer);
+                for (int i = 0; i < accessor.getTupleCount(); i++) {
+                    int[] tuple = new int[RECORD_DESC.getFieldCount()];
+                    for (int f = 0; f < tuple.length; f++) {
+                        int offset = accessor.getAbsoluteFieldStartOffset(i, f);
+                        tuple[f] = IntegerPointable.getInteger(buffer.array(), offset);
+                    }
+                    result.add(tuple);
+                }
+            }
+
+            @Override
+            public void fail() {
+            }
+
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public void flush() {
+            }
+        });
+        runGenerator.getSorter().close();
+        return result;
+    }
+
+    private static List<ByteBuffer> toFrames(IHyracksTaskContext ctx, List<int[]> tuples) throws HyracksDataException {
+        List<ByteBuffer> frames = new ArrayList<>();
+        FrameTupleAppender appender = new FrameTupleAppender();
+        VSizeFrame frame = new VSizeFrame(ctx);
+        appender.reset(frame, true);
+        int[] fieldEndOffsets = new int[] { 4, 8, 12 };
+        for (int[] tuple : tuples) {
+            ByteBuffer bytes = ByteBuffer.allocate(12);
+            for (int field : tuple) {
+                bytes.putInt(field);
+            }
+            if (!appender.append(fieldEndOffsets, bytes.array(), 0, 12)) {
+                frames.add(frame.getBuffer());
+                frame = new VSizeFrame(ctx);
+                appender.reset(frame, true);
+                assertTrue(appender.append(fieldEndOffsets, bytes.array(), 0, 12));
+            }
+        }
+        frames.add(frame.getBuffer());
+        return frames;
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.hyracks.net.protocols.muxdemux;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.hyracks.api.comm.IChannelControlBlock;
@@ -41,6 +42,12 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
  * @author vinayakb
  */
 public class ChannelControlBlock implements IChannelControlBlock {
+    // weight of a new sample in the round trip time and delivery rate estimates, the same as TCP uses for its RTT
+    private static final double ESTIMATE_GAIN = 0.125;
+
+    // the delivery rate is sampled over intervals of at least this length
+    private static final long RATE_SAMPLE_INTERVAL = TimeUnit.MILLISECONDS.toNanos(1);
+
     private final ChannelSet cSet;
 
     private final int channelId;
@@ -57,6 +64,17 @@ public class ChannelControlBlock implements IChannelControlBlock {
 
     private final AtomicBoolean remoteCloseAck;
 
+    // the following are only updated by the IO thread of the connection
+    private long creditsSentTime;
+
+    private long rateSampleStart;
+
+    private long rateSampleBytes;
+
+    private volatile double rttNanos;
+
+    private volatile double bytesPerNano;
+
     ChannelControlBlock(ChannelSet cSet, int channelId, IChannelInterfaceFactory interfaceFactory) {
         this.cSet = cSet;
         this.channelId = channelId;
@@ -112,6 +130,41 @@ public class ChannelControlBlock implements IChannelControlBlock {
         wi.adjustChannelWritability();
     }
 
+    /**
+     * Called when read credits of this channel were sent to the remote side. The time until the next data arrives is
+     * taken as a round trip time sample.
+     */
+    void reportCreditsSent() {
+        if (creditsSentTime == 0) {
+            creditsSentTime = System.nanoTime();
+        }
+    }
+
+    void reportDataReceived(int size) {
+        long now = System.nanoTime();
+        if (creditsSentTime != 0) {
+            rttNanos = smooth(rttNanos, now - creditsSentTime);
+            creditsSentTime = 0;
+        }
+        if (rateSampleStart == 0) {
+            rateSampleStart = now;
+        } else if (now - rateSampleStart >= RATE_SAMPLE_INTERVAL) {
+            bytesPerNano = smooth(bytesPerNano, (double) rateSampleBytes / (now - rateSampleStart));
+            rateSampleStart = now;
+            rateSampleBytes = 0;
+        }
+        rateSampleBytes += size;
+    }
+
+    private static double smooth(double estimate, double sample) {
+        return estimate == 0 ? sample : estimate + ESTIMATE_GAIN * (sample - estimate);
+    }
+
+    @Override
+    public long getBandwidthDelayProduct() {
+        return (long) (bytesPerNano * rttNanos);
+    }
+
     synchronized void reportRemoteEOS() {
         ri.flush();
         ri.getFullBufferAcceptor().close();
@@ -185,6 +238,8 @@ public class ChannelControlBlock implements IChannelControlBlock {
         state.put("readCredits", ri.getCredits());
         state.put("writeCredits", wi.getCredits());
         state.put("completelyClosed", completelyClosed());
+        state.put("rttMicros", (long) rttNanos / 1000);
+        state.put("bandwidthDelayProduct", getBandwidthDelayProduct());
         return state;
     }
 }
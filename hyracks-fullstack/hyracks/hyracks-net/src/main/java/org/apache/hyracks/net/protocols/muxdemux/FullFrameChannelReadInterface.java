@@ -31,6 +31,11 @@ import org.apache.hyracks.util.annotations.GuardedBy;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+/**
+ * Reads full frames from a channel. The channel starts with a window of as many frames as the limit it is given in
+ * {@link #setBufferFactory(IBufferFactory, int, int)}; whenever the remote side manages to keep the whole window in
+ * flight, the window grows by a frame until it reaches the number of buffers the factory is able to create.
+ */
 public class FullFrameChannelReadInterface extends AbstractChannelReadInterface {
 
     private static final Logger LOGGER = LogManager.getLogger();
@@ -38,6 +43,8 @@ public class FullFrameChannelReadInterface extends AbstractChannelReadInterface
     private final IChannelControlBlock ccb;
     private final Object bufferRecycleLock = new Object();
     private int frameSize;
+    @GuardedBy("bufferRecycleLock")
+    private int window;
     private long recycledBuffers = 0;
     private long flushedBuffers = 0;
 
@@ -56,11 +63,24 @@ public class FullFrameChannelReadInterface extends AbstractChannelReadInterface
                 }
                 riEmptyStack.push(buffer);
                 recycledBuffers++;
-                ccb.addPendingCredits(delta);
+                ccb.addPendingCredits(delta + growWindow());
             }
         };
     }
 
+    /**
+     * @return the additional credits granted to the remote side if the window was grown
+     */
+    @GuardedBy("bufferRecycleLock")
+    private int growWindow() {
+        if (bufferFactory == null || window >= bufferFactory.getLimit()
+                || ccb.getBandwidthDelayProduct() < (long) window * frameSize) {
+            return 0;
+        }
+        window++;
+        return frameSize;
+    }
+
     @Override
     @GuardedBy("ChannelControlBlock")
     public int read(ISocketChannel sc, int size) throws IOException, NetException {
@@ -109,6 +129,9 @@ public class FullFrameChannelReadInterface extends AbstractChannelReadInterface
     @Override
     public void setBufferFactory(IBufferFactory bufferFactory, int limit, int frameSize) {
         this.frameSize = frameSize;
+        synchronized (bufferRecycleLock) {
+            window = limit;
+        }
         super.setBufferFactory(bufferFactory, limit, frameSize);
         ccb.addPendingCredits(limit * frameSize);
     }
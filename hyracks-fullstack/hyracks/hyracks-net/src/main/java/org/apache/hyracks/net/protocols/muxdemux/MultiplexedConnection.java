@@ -55,6 +55,8 @@ public class MultiplexedConnection implements ITCPConnectionEventListener {
 
     private final MuxDemux muxDemux;
 
+    private final MuxDemuxPerformanceCounters perfCounters;
+
     private final IEventCounter pendingWriteEventsCounter;
 
     private final ChannelSet cSet;
@@ -75,6 +77,7 @@ public class MultiplexedConnection implements ITCPConnectionEventListener {
 
     MultiplexedConnection(MuxDemux muxDemux) {
         this.muxDemux = muxDemux;
+        perfCounters = new MuxDemuxPerformanceCounters(muxDemux.getPerformanceCounters());
         pendingWriteEventsCounter = new EventCounter();
         cSet = new ChannelSet(this, pendingWriteEventsCounter);
         readerState = new ReaderState();
@@ -191,7 +194,7 @@ public class MultiplexedConnection implements ITCPConnectionEventListener {
             int len = cmdWriteBuffer.remaining();
             if (len > 0) {
                 int written = sc.write(cmdWriteBuffer);
-                muxDemux.getPerformanceCounters().addSignalingBytesWritten(written);
+                perfCounters.addSignalingBytesWritten(written);
                 if (written < len) {
                     return false;
                 }
@@ -203,7 +206,7 @@ public class MultiplexedConnection implements ITCPConnectionEventListener {
                     try {
                         pendingBuffer.limit(pendingWriteSize + pendingBuffer.position());
                         int written = sc.write(pendingBuffer);
-                        muxDemux.getPerformanceCounters().addPayloadBytesWritten(written);
+                        perfCounters.addPayloadBytesWritten(written);
                         pendingWriteSize -= written;
                     } finally {
                         pendingBuffer.limit(oldLimit);
@@ -281,6 +284,7 @@ public class MultiplexedConnection implements ITCPConnectionEventListener {
                     }
                     writerState.command.setData(effectiveCredits);
                     writerState.reset(null, 0, null);
+                    ccb.reportCreditsSent();
                     if (!writerState.performPendingWrite(sc)) {
                         return;
                     }
@@ -359,7 +363,7 @@ public class MultiplexedConnection implements ITCPConnectionEventListener {
                 if (read < 0) {
                     throw new NetException("Socket Closed");
                 }
-                muxDemux.getPerformanceCounters().addSignalingBytesRead(read);
+                perfCounters.addSignalingBytesRead(read);
                 if (readerState.readBuffer.remaining() > 0) {
                     return;
                 }
@@ -392,6 +396,7 @@ public class MultiplexedConnection implements ITCPConnectionEventListener {
                         ccb = readerState.getCCBInCommand();
                         readerState.pendingReadSize = readerState.command.getData();
                         readerState.ccb = ccb;
+                        ccb.reportDataReceived(readerState.pendingReadSize);
                         break;
                     }
                     case ERROR: {
@@ -416,7 +421,7 @@ public class MultiplexedConnection implements ITCPConnectionEventListener {
             if (readerState.pendingReadSize > 0) {
                 ++chunksRead;
                 int newPendingReadSize = readerState.ccb.read(sc, readerState.pendingReadSize);
-                muxDemux.getPerformanceCounters().addPayloadBytesRead(readerState.pendingReadSize - newPendingReadSize);
+                perfCounters.addPayloadBytesRead(readerState.pendingReadSize - newPendingReadSize);
                 readerState.pendingReadSize = newPendingReadSize;
                 if (readerState.pendingReadSize > 0) {
                     return;
@@ -458,6 +463,10 @@ public class MultiplexedConnection implements ITCPConnectionEventListener {
         }
     }
 
+    public MuxDemuxPerformanceCounters getPerformanceCounters() {
+        return perfCounters;
+    }
+
     public InetSocketAddress getRemoteAddress() {
         return tcpConnection == null ? null : tcpConnection.getRemoteAddress();
     }
@@ -470,6 +479,7 @@ public class MultiplexedConnection implements ITCPConnectionEventListener {
         state.put("remoteAddress", getRemoteAddress().toString());
         final ArrayNode channels = cSet.getState();
         state.set("channels", channels);
+        state.set("counters", perfCounters.getState());
         return Optional.of(state);
     }
 }
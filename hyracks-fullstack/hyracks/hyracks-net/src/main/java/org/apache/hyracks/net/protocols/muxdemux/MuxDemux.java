@@ -20,6 +20,8 @@ package org.apache.hyracks.net.protocols.muxdemux;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -39,6 +41,9 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
  * Multiplexed Connection Manager.
  * Every participant that wants to use the multiplexed connections must create and instance
  * of this class.
+ * The channels to a remote address are striped round-robin over a fixed number of TCP connections, so that a single
+ * socket does not limit the throughput between two participants and a slow channel only blocks the channels that
+ * share its connection.
  *
  * @author vinayakb
  */
@@ -49,7 +54,9 @@ public class MuxDemux {
 
     private final int maxConnectionAttempts;
 
-    private final Map<InetSocketAddress, MultiplexedConnection> outgoingConnectionMap;
+    private final int nConnectionsPerAddress;
+
+    private final Map<InetSocketAddress, ConnectionStripes> outgoingConnectionMap;
     private final Map<InetSocketAddress, MultiplexedConnection> incomingConnectionMap;
 
     private final TCPEndpoint tcpEndpoint;
@@ -77,9 +84,35 @@ public class MuxDemux {
     public MuxDemux(InetSocketAddress localAddress, IChannelOpenListener listener, int nThreads,
             int maxConnectionAttempts, IChannelInterfaceFactory channelInterfaceFactory,
             ISocketChannelFactory socketChannelFactory) {
+        this(localAddress, listener, nThreads, maxConnectionAttempts, 1, channelInterfaceFactory,
+                socketChannelFactory);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param localAddress
+     *            - TCP/IP socket address to listen on. Null for non-listening unidirectional sockets
+     * @param listener
+     *            - Callback interface to report channel events. Null for non-listening unidirectional sockets
+     * @param nThreads
+     *            - Number of threads to use for data transfer
+     * @param maxConnectionAttempts
+     *            - Maximum number of connection attempts
+     * @param nConnectionsPerAddress
+     *            - Number of TCP connections the channels to a remote address are striped over
+     * @param channelInterfaceFactory
+     *            - The channel interface factory
+     * @param socketChannelFactory
+     *            - The socket channel factory
+     */
+    public MuxDemux(InetSocketAddress localAddress, IChannelOpenListener listener, int nThreads,
+            int maxConnectionAttempts, int nConnectionsPerAddress, IChannelInterfaceFactory channelInterfaceFactory,
+            ISocketChannelFactory socketChannelFactory) {
         this.localAddress = localAddress;
         this.channelOpenListener = listener;
         this.maxConnectionAttempts = maxConnectionAttempts;
+        this.nConnectionsPerAddress = nConnectionsPerAddress;
         this.channelInterfaceFatory = channelInterfaceFactory;
         outgoingConnectionMap = new HashMap<>();
         incomingConnectionMap = new HashMap<>();
@@ -88,7 +121,7 @@ public class MuxDemux {
             public void connectionEstablished(TCPConnection connection) {
                 MultiplexedConnection mConn;
                 synchronized (MuxDemux.this) {
-                    mConn = outgoingConnectionMap.get(connection.getRemoteAddress());
+                    mConn = outgoingConnectionMap.get(connection.getRemoteAddress()).pending.poll();
                 }
                 assert mConn != null;
                 mConn.setTCPConnection(connection);
@@ -109,11 +142,13 @@ public class MuxDemux {
             public void connectionFailure(InetSocketAddress remoteAddress, IOException error) {
                 MultiplexedConnection mConn;
                 synchronized (MuxDemux.this) {
-                    mConn = outgoingConnectionMap.get(remoteAddress);
+                    ConnectionStripes stripes = outgoingConnectionMap.get(remoteAddress);
+                    mConn = stripes.pending.peek();
                     assert mConn != null;
                     int nConnectionAttempts = mConn.getConnectionAttempts();
                     if (nConnectionAttempts > MuxDemux.this.maxConnectionAttempts) {
-                        outgoingConnectionMap.remove(remoteAddress);
+                        stripes.pending.poll();
+                        removeOutgoingConnection(remoteAddress, mConn);
                         mConn.setConnectionFailure(new IOException(remoteAddress.toString() + ": " + error, error));
                     } else {
                         mConn.setConnectionAttempts(nConnectionAttempts + 1);
@@ -126,7 +161,8 @@ public class MuxDemux {
             public void connectionClosed(TCPConnection connection) {
                 synchronized (MuxDemux.this) {
                     if (connection.getType() == TCPConnection.ConnectionType.OUTGOING) {
-                        outgoingConnectionMap.remove(connection.getRemoteAddress());
+                        removeOutgoingConnection(connection.getRemoteAddress(),
+                                (MultiplexedConnection) connection.getAttachment());
                     } else if (connection.getType() == TCPConnection.ConnectionType.INCOMING) {
                         incomingConnectionMap.remove(connection.getRemoteAddress());
                     }
@@ -160,10 +196,18 @@ public class MuxDemux {
     public MultiplexedConnection connect(InetSocketAddress remoteAddress) throws InterruptedException, NetException {
         MultiplexedConnection mConn;
         synchronized (this) {
-            mConn = outgoingConnectionMap.get(remoteAddress);
+            ConnectionStripes stripes = outgoingConnectionMap.get(remoteAddress);
+            if (stripes == null) {
+                stripes = new ConnectionStripes(nConnectionsPerAddress);
+                outgoingConnectionMap.put(remoteAddress, stripes);
+            }
+            int stripe = stripes.next;
+            stripes.next = (stripe + 1) % stripes.connections.length;
+            mConn = stripes.connections[stripe];
             if (mConn == null) {
                 mConn = new MultiplexedConnection(this);
-                outgoingConnectionMap.put(remoteAddress, mConn);
+                stripes.connections[stripe] = mConn;
+                stripes.pending.add(mConn);
                 tcpEndpoint.initiateConnection(remoteAddress);
             }
         }
@@ -171,6 +215,23 @@ public class MuxDemux {
         return mConn;
     }
 
+    private synchronized void removeOutgoingConnection(InetSocketAddress remoteAddress, MultiplexedConnection mConn) {
+        ConnectionStripes stripes = outgoingConnectionMap.get(remoteAddress);
+        if (stripes == null) {
+            return;
+        }
+        boolean empty = true;
+        for (int i = 0; i < stripes.connections.length; i++) {
+            if (stripes.connections[i] == mConn) {
+                stripes.connections[i] = null;
+            }
+            empty &= stripes.connections[i] == null;
+        }
+        if (empty) {
+            outgoingConnectionMap.remove(remoteAddress);
+        }
+    }
+
     IChannelOpenListener getChannelOpenListener() {
         return channelOpenListener;
     }
@@ -206,10 +267,15 @@ public class MuxDemux {
     public synchronized JsonNode getState() {
         final ObjectNode state = JSONUtil.createObject();
         state.put("localAddress", tcpEndpoint.getLocalAddress().toString());
+        state.set("counters", perfCounters.getState());
         final ArrayNode outgoingConnections = JSONUtil.createArray();
         state.set("outgoingConnections", outgoingConnections);
-        for (MultiplexedConnection connection : outgoingConnectionMap.values()) {
-            connection.getState().ifPresent(outgoingConnections::add);
+        for (ConnectionStripes stripes : outgoingConnectionMap.values()) {
+            for (MultiplexedConnection connection : stripes.connections) {
+                if (connection != null) {
+                    connection.getState().ifPresent(outgoingConnections::add);
+                }
+            }
         }
         final ArrayNode incomingConnections = JSONUtil.createArray();
         state.set("incomingConnections", incomingConnections);
@@ -218,4 +284,20 @@ public class MuxDemux {
         }
         return state;
     }
+
+    /**
+     * The outgoing connections to a remote address.
+     */
+    private static class ConnectionStripes {
+        private final MultiplexedConnection[] connections;
+
+        // the connections that were initiated but are not established yet
+        private final Deque<MultiplexedConnection> pending = new ArrayDeque<>();
+
+        private int next;
+
+        ConnectionStripes(int nConnections) {
+            connections = new MultiplexedConnection[nConnections];
+        }
+    }
 }
@@ -20,7 +20,18 @@ package org.apache.hyracks.net.protocols.muxdemux;
 
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.hyracks.util.JSONUtil;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Byte counters of a {@link MuxDemux} or of one of its connections. The counters of a connection also update the
+ * counters of the {@link MuxDemux} it belongs to.
+ */
 public class MuxDemuxPerformanceCounters {
+    private final MuxDemuxPerformanceCounters parent;
+
     private final AtomicLong payloadBytesRead;
 
     private final AtomicLong payloadBytesWritten;
@@ -30,6 +41,11 @@ public class MuxDemuxPerformanceCounters {
     private final AtomicLong signalingBytesWritten;
 
     public MuxDemuxPerformanceCounters() {
+        this(null);
+    }
+
+    public MuxDemuxPerformanceCounters(MuxDemuxPerformanceCounters parent) {
+        this.parent = parent;
         payloadBytesRead = new AtomicLong();
         payloadBytesWritten = new AtomicLong();
         signalingBytesRead = new AtomicLong();
@@ -38,6 +54,9 @@ public class MuxDemuxPerformanceCounters {
 
     public void addPayloadBytesRead(long delta) {
         payloadBytesRead.addAndGet(delta);
+        if (parent != null) {
+            parent.addPayloadBytesRead(delta);
+        }
     }
 
     public long getPayloadBytesRead() {
@@ -46,6 +65,9 @@ public class MuxDemuxPerformanceCounters {
 
     public void addPayloadBytesWritten(long delta) {
         payloadBytesWritten.addAndGet(delta);
+        if (parent != null) {
+            parent.addPayloadBytesWritten(delta);
+        }
     }
 
     public long getPayloadBytesWritten() {
@@ -54,6 +76,9 @@ public class MuxDemuxPerformanceCounters {
 
     public void addSignalingBytesRead(long delta) {
         signalingBytesRead.addAndGet(delta);
+        if (parent != null) {
+            parent.addSignalingBytesRead(delta);
+        }
     }
 
     public long getSignalingBytesRead() {
@@ -62,9 +87,21 @@ public class MuxDemuxPerformanceCounters {
 
     public void addSignalingBytesWritten(long delta) {
         signalingBytesWritten.addAndGet(delta);
+        if (parent != null) {
+            parent.addSignalingBytesWritten(delta);
+        }
     }
 
     public long getSignalingBytesWritten() {
         return signalingBytesWritten.get();
     }
+
+    public JsonNode getState() {
+        final ObjectNode state = JSONUtil.createObject();
+        state.put("payloadBytesRead", getPayloadBytesRead());
+        state.put("payloadBytesWritten", getPayloadBytesWritten());
+        state.put("signalingBytesRead", getSignalingBytesRead());
+        state.put("signalingBytesWritten", getSignalingBytesWritten());
+        return state;
+    }
 }
@@ -23,6 +23,7 @@ import java.nio.ByteBuffer;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.hyracks.api.comm.IBufferFactory;
 import org.apache.hyracks.api.comm.IChannelControlBlock;
@@ -110,6 +111,56 @@ public class FullFrameChannelReadInterfaceTest {
         }
     }
 
+    @Test
+    public void windowGrowthTest() throws Exception {
+        final AtomicInteger channelCredit = new AtomicInteger();
+        final AtomicLong bandwidthDelayProduct = new AtomicLong();
+        final IChannelControlBlock ccb = mockChannelControlBlock(channelCredit);
+        Mockito.when(ccb.getBandwidthDelayProduct()).thenAnswer(invocation -> bandwidthDelayProduct.get());
+        final FullFrameChannelReadInterface readInterface = new FullFrameChannelReadInterface(ccb);
+        readInterface.setFullBufferAcceptor(new ReadFullBufferAcceptor(new LinkedBlockingDeque<>()));
+        readInterface.setBufferFactory(new ReadBufferFactory(4, FRAME_SIZE), 2, FRAME_SIZE);
+        Assert.assertEquals(2 * FRAME_SIZE, channelCredit.get());
+        // the remote side does not keep the window of 2 frames in flight
+        bandwidthDelayProduct.set(2L * FRAME_SIZE - 1);
+        Assert.assertEquals(FRAME_SIZE, recycle(readInterface, channelCredit));
+        // the window is in flight, it grows by a frame
+        bandwidthDelayProduct.set(2L * FRAME_SIZE);
+        Assert.assertEquals(2 * FRAME_SIZE, recycle(readInterface, channelCredit));
+        // the window of 3 frames is not in flight
+        Assert.assertEquals(FRAME_SIZE, recycle(readInterface, channelCredit));
+        bandwidthDelayProduct.set(3L * FRAME_SIZE);
+        Assert.assertEquals(2 * FRAME_SIZE, recycle(readInterface, channelCredit));
+        // the window does not grow beyond the buffers the factory creates
+        bandwidthDelayProduct.set(100L * FRAME_SIZE);
+        Assert.assertEquals(FRAME_SIZE, recycle(readInterface, channelCredit));
+        Assert.assertEquals(FRAME_SIZE, recycle(readInterface, channelCredit));
+    }
+
+    @Test
+    public void noWindowGrowthTest() throws Exception {
+        final AtomicInteger channelCredit = new AtomicInteger();
+        final IChannelControlBlock ccb = mockChannelControlBlock(channelCredit);
+        Mockito.when(ccb.getBandwidthDelayProduct()).thenReturn(100L * FRAME_SIZE);
+        final FullFrameChannelReadInterface readInterface = new FullFrameChannelReadInterface(ccb);
+        readInterface.setFullBufferAcceptor(new ReadFullBufferAcceptor(new LinkedBlockingDeque<>()));
+        // the factory creates as many buffers as the initial window
+        readInterface.setBufferFactory(new ReadBufferFactory(2, FRAME_SIZE), 2, FRAME_SIZE);
+        Assert.assertEquals(2 * FRAME_SIZE, channelCredit.get());
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals(FRAME_SIZE, recycle(readInterface, channelCredit));
+        }
+    }
+
+    /**
+     * @return the credits granted to the remote side for recycling a buffer
+     */
+    private static int recycle(FullFrameChannelReadInterface readInterface, AtomicInteger channelCredit) {
+        final int creditBefore = channelCredit.get();
+        readInterface.getEmptyBufferAcceptor().accept(ByteBuffer.allocate(FRAME_SIZE));
+        return channelCredit.get() - creditBefore;
+    }
+
     private IChannelControlBlock mockChannelControlBlock(AtomicInteger credit) {
         final ChannelControlBlock ccb = Mockito.mock(ChannelControlBlock.class);
         Mockito.when(ccb.isRemotelyClosed()).thenReturn(false);
@@ -182,5 +233,9 @@ public class FullFrameChannelReadInterfaceTest {
             return counter;
         }
 
+        @Override
+        public int getLimit() {
+            return limit;
+        }
     }
 }
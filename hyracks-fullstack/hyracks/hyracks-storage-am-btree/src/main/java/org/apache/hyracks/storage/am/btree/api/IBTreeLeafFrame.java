@@ -56,4 +56,15 @@ public interface IBTreeLeafFrame extends IBTreeFrame {
 
     void ensureCapacity(IBufferCache bufferCache, ITupleReference tuple, IExtraPageBlockHelper extraPageBlockHelper)
             throws HyracksDataException;
+
+    /**
+     * Called by the bulk loader once it is done adding tuples to this leaf and before the page is written.
+     * Frames that lay out their pages differently for reading do it here.
+     *
+     * @return true if the page was reorganized, false otherwise
+     * @throws HyracksDataException
+     */
+    default boolean seal() throws HyracksDataException {
+        return false;
+    }
 }
@@ -1049,6 +1049,7 @@ public class BTree extends AbstractTreeIndex {
                         leafFrontier.pageId = freePageManager.takePage(metaFrame);
 
                         ((IBTreeLeafFrame) leafFrame).setNextLeaf(leafFrontier.pageId);
+                        ((IBTreeLeafFrame) leafFrame).seal();
 
                         write(leafFrontier.page);
                         for (ICachedPage c : pagesToWrite) {
@@ -1159,6 +1160,8 @@ public class BTree extends AbstractTreeIndex {
                 ICachedPage lastLeaf = nodeFrontiers.get(level).page;
                 int lastLeafPage = nodeFrontiers.get(level).pageId;
                 lastLeaf.setDiskPageId(BufferedFileHandle.getDiskPageId(getFileId(), nodeFrontiers.get(level).pageId));
+                leafFrame.setPage(lastLeaf);
+                ((IBTreeLeafFrame) leafFrame).seal();
                 write(lastLeaf);
                 nodeFrontiers.get(level).page = null;
                 persistFrontiers(level + 1, lastLeafPage);
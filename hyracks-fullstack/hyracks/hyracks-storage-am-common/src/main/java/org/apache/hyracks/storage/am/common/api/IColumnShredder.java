@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.common.api;
+
+import java.io.DataOutput;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+
+/**
+ * Splits the values of a tuple field into a fixed number of columns and puts them back together. Columnar index
+ * frames store each column of the values of a page contiguously so that they can be encoded and read separately.
+ */
+public interface IColumnShredder {
+
+    /**
+     * @return the number of columns a value is split into
+     */
+    int getColumnCount();
+
+    /**
+     * Splits a value into its columns. The columns are set to point into the value bytes, a column which has no
+     * value is set to an empty range.
+     *
+     * @param bytes
+     *            the value bytes
+     * @param start
+     *            the start offset of the value
+     * @param length
+     *            the length of the value
+     * @param columns
+     *            the pointables to set, one per column
+     */
+    void shred(byte[] bytes, int start, int length, IPointable[] columns) throws HyracksDataException;
+
+    /**
+     * Writes back the value from its columns, i.e., the inverse of
+     * {@link #shred(byte[], int, int, IPointable[])}.
+     *
+     * @param columns
+     *            the column values, one per column
+     * @param out
+     *            the output to write the value to
+     */
+    void assemble(IPointable[] columns, DataOutput out) throws HyracksDataException;
+}
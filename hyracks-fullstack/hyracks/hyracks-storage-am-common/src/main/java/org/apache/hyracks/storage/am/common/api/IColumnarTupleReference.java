@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.common.api;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+
+/**
+ * A tuple whose fields may be stored in columns (see {@link IColumnShredder}), e.g. a tuple of a columnar index
+ * page. Consumers that only need some of the columns of a field, such as an {@link ITupleProjector}, can ask for a
+ * value that is assembled from these columns only, so that the other columns of the page are not decoded.
+ */
+public interface IColumnarTupleReference extends ITupleReference {
+
+    /**
+     * Sets the pointable to a value of the field that is assembled from the requested columns only. The columns that
+     * are not requested are passed to {@link IColumnShredder#assemble(IPointable[], java.io.DataOutput)} as empty
+     * values, so only the parts of the value that come from the requested columns can be read. If the field is not
+     * stored in columns, the pointable is set to the field as it is.
+     *
+     * @param fIdx
+     *            the field index
+     * @param requestedColumns
+     *            one flag per column of the field, set for the columns to read
+     * @param value
+     *            the pointable to set
+     */
+    void getFieldColumns(int fIdx, boolean[] requestedColumns, IPointable value) throws HyracksDataException;
+}
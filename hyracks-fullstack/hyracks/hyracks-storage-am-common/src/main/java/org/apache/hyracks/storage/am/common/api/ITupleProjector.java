@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.common.api;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+
+/**
+ * Writes a projection of the tuples produced by an index search, e.g. records that only contain the fields needed
+ * by the query, instead of the tuples themselves.
+ */
+public interface ITupleProjector {
+
+    /**
+     * Appends the fields of the projected tuple to the tuple builder. The number of fields written must be the same
+     * as the number of fields of the index tuple.
+     *
+     * @param tuple the index tuple
+     * @param tb the tuple builder of the output tuple
+     */
+    void project(ITupleReference tuple, ArrayTupleBuilder tb) throws HyracksDataException;
+}
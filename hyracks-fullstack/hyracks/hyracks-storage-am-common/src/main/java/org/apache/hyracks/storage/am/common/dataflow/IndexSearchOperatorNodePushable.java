@@ -46,6 +46,8 @@ import org.apache.hyracks.storage.am.common.api.ILSMIndexCursor;
 import org.apache.hyracks.storage.am.common.api.ISearchOperationCallbackFactory;
 import org.apache.hyracks.storage.am.common.api.ITupleFilter;
 import org.apache.hyracks.storage.am.common.api.ITupleFilterFactory;
+import org.apache.hyracks.storage.am.common.api.ITupleProjector;
+import org.apache.hyracks.storage.am.common.api.ITupleProjectorFactory;
 import org.apache.hyracks.storage.am.common.impls.IndexAccessParameters;
 import org.apache.hyracks.storage.am.common.impls.NoOpOperationCallback;
 import org.apache.hyracks.storage.am.common.util.ResourceReleaseUtils;
@@ -106,6 +108,9 @@ public abstract class IndexSearchOperatorNodePushable extends AbstractUnaryInput
     protected ITupleFilter tupleFilter;
     protected final long outputLimit;
     protected long outputCount = 0;
+    // writes only the parts of the index tuples needed by the downstream operators, null to write the whole tuples
+    protected final ITupleProjectorFactory tupleProjectorFactory;
+    protected ITupleProjector tupleProjector;
     protected boolean finished;
 
     // no filter and limit pushdown
@@ -126,6 +131,19 @@ public abstract class IndexSearchOperatorNodePushable extends AbstractUnaryInput
             ITupleFilterFactory tupleFactoryFactory, long outputLimit, boolean appendSearchCallbackProceedResult,
             byte[] searchCallbackProceedResultFalseValue, byte[] searchCallbackProceedResultTrueValue)
             throws HyracksDataException {
+        this(ctx, inputRecDesc, partition, minFilterFieldIndexes, maxFilterFieldIndexes, indexHelperFactory,
+                retainInput, retainMissing, missingWriterFactory, searchCallbackFactory, appendIndexFilter,
+                tupleFactoryFactory, outputLimit, null, appendSearchCallbackProceedResult,
+                searchCallbackProceedResultFalseValue, searchCallbackProceedResultTrueValue);
+    }
+
+    public IndexSearchOperatorNodePushable(IHyracksTaskContext ctx, RecordDescriptor inputRecDesc, int partition,
+            int[] minFilterFieldIndexes, int[] maxFilterFieldIndexes, IIndexDataflowHelperFactory indexHelperFactory,
+            boolean retainInput, boolean retainMissing, IMissingWriterFactory missingWriterFactory,
+            ISearchOperationCallbackFactory searchCallbackFactory, boolean appendIndexFilter,
+            ITupleFilterFactory tupleFactoryFactory, long outputLimit, ITupleProjectorFactory tupleProjectorFactory,
+            boolean appendSearchCallbackProceedResult, byte[] searchCallbackProceedResultFalseValue,
+            byte[] searchCallbackProceedResultTrueValue) throws HyracksDataException {
         this.ctx = ctx;
         this.indexHelper = indexHelperFactory.create(ctx.getJobletContext().getServiceContext(), partition);
         this.retainInput = retainInput;
@@ -151,6 +169,7 @@ public abstract class IndexSearchOperatorNodePushable extends AbstractUnaryInput
         this.searchCallbackProceedResultTrueValue = searchCallbackProceedResultTrueValue;
         this.tupleFilterFactory = tupleFactoryFactory;
         this.outputLimit = outputLimit;
+        this.tupleProjectorFactory = tupleProjectorFactory;
 
         if (ctx != null && ctx.getStatsCollector() != null) {
             stats = ctx.getStatsCollector().getOrAddOperatorStats(getDisplayName());
@@ -205,6 +224,9 @@ public abstract class IndexSearchOperatorNodePushable extends AbstractUnaryInput
             tupleFilter = tupleFilterFactory.createTupleFilter(ctx);
             referenceFilterTuple = new ReferenceFrameTupleReference();
         }
+        if (tupleProjectorFactory != null) {
+            tupleProjector = tupleProjectorFactory.createTupleProjector(ctx);
+        }
         finished = false;
         outputCount = 0;
 
@@ -245,7 +267,11 @@ public abstract class IndexSearchOperatorNodePushable extends AbstractUnaryInput
                     tb.addFieldEndOffset();
                 }
             }
-            writeTupleToOutput(tuple);
+            if (tupleProjector != null) {
+                tupleProjector.project(tuple, tb);
+            } else {
+                writeTupleToOutput(tuple);
+            }
             if (appendSearchCallbackProceedResult) {
                 writeSearchCallbackProceedResult(tb,
                         ((ILSMIndexCursor) cursor).getSearchOperationCallbackProceedResult());
@@ -312,7 +312,7 @@ public abstract class TreeIndexNSMFrame implements ITreeIndexFrame {
     }
 
     @Override
-    public boolean compress() {
+    public boolean compress() throws HyracksDataException {
         return false;
     }
 
@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.util.encoding.VarLenIntEncoderDecoder;
+
+/**
+ * Collects the values of one column of a leaf page and encodes them. The encoding is chosen per page as the smallest
+ * of:
+ * <ul>
+ * <li>{@link #PLAIN}: the lengths of all the values followed by their bytes.</li>
+ * <li>{@link #FIXED_LENGTH}: a single length followed by the bytes of all the values, used when all the values have
+ * the same length.</li>
+ * <li>{@link #RUN_LENGTH}: runs of equal consecutive values, each stored once with its repeat count.</li>
+ * <li>{@link #DICTIONARY}: the distinct values followed by the bit-packed dictionary code of every value.</li>
+ * </ul>
+ * All lengths and counts are variable-length encoded. {@link ColumnReader} decodes the result.
+ */
+class ColumnBuffer {
+    static final byte PLAIN = 0;
+    static final byte FIXED_LENGTH = 1;
+    static final byte RUN_LENGTH = 2;
+    static final byte DICTIONARY = 3;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private byte[] data = new byte[INITIAL_CAPACITY * 8];
+    private int dataSize;
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int count;
+
+    // dictionary state, computed by analyze()
+    private int[] codes = new int[INITIAL_CAPACITY];
+    private int[] dictionary = new int[INITIAL_CAPACITY];
+    private int dictionarySize;
+    private int[] hashTable = new int[INITIAL_CAPACITY * 2];
+
+    private byte encoding;
+    private int encodedSize;
+
+    void reset() {
+        dataSize = 0;
+        count = 0;
+        encodedSize = -1;
+    }
+
+    void add(byte[] bytes, int start, int length) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            lengths = Arrays.copyOf(lengths, count * 2);
+        }
+        if (dataSize + length > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, dataSize + length));
+        }
+        System.arraycopy(bytes, start, data, dataSize, length);
+        starts[count] = dataSize;
+        lengths[count] = length;
+        dataSize += length;
+        count++;
+        encodedSize = -1;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * @return the number of bytes {@link #encode(byte[], int)} will write
+     */
+    int getEncodedSize() {
+        if (encodedSize < 0) {
+            analyze();
+        }
+        return encodedSize;
+    }
+
+    /**
+     * Writes the encoded column.
+     *
+     * @return the number of bytes written
+     */
+    int encode(byte[] target, int offset) {
+        if (encodedSize < 0) {
+            analyze();
+        }
+        int pos = offset;
+        target[pos++] = encoding;
+        switch (encoding) {
+            case FIXED_LENGTH:
+                pos += VarLenIntEncoderDecoder.encode(count == 0 ? 0 : lengths[0], target, pos);
+                System.arraycopy(data, 0, target, pos, dataSize);
+                pos += dataSize;
+                break;
+            case RUN_LENGTH:
+                pos += VarLenIntEncoderDecoder.encode(countRuns(), target, pos);
+                for (int i = 0; i < count;) {
+                    int runEnd = i + 1;
+                    while (runEnd < count && isEqual(i, runEnd)) {
+                        runEnd++;
+                    }
+                    pos += VarLenIntEncoderDecoder.encode(runEnd - i, target, pos);
+                    pos = writeValue(i, target, pos);
+                    i = runEnd;
+                }
+                break;
+            case DICTIONARY:
+                pos += VarLenIntEncoderDecoder.encode(dictionarySize, target, pos);
+                for (int i = 0; i < dictionarySize; i++) {
+                    pos = writeValue(dictionary[i], target, pos);
+                }
+                int bitWidth = getBitWidth(dictionarySize);
+                target[pos++] = (byte) bitWidth;
+                pos = packCodes(bitWidth, target, pos);
+                break;
+            default:
+                for (int i = 0; i < count; i++) {
+                    pos += VarLenIntEncoderDecoder.encode(lengths[i], target, pos);
+                }
+                System.arraycopy(data, 0, target, pos, dataSize);
+                pos += dataSize;
+                break;
+        }
+        return pos - offset;
+    }
+
+    private void analyze() {
+        int plainSize = dataSize;
+        boolean fixedLength = true;
+        for (int i = 0; i < count; i++) {
+            plainSize += VarLenIntEncoderDecoder.getBytesRequired(lengths[i]);
+            fixedLength &= lengths[i] == lengths[0];
+        }
+        encoding = PLAIN;
+        encodedSize = plainSize;
+        if (fixedLength) {
+            int fixedSize = VarLenIntEncoderDecoder.getBytesRequired(count == 0 ? 0 : lengths[0]) + dataSize;
+            if (fixedSize <= encodedSize) {
+                encoding = FIXED_LENGTH;
+                encodedSize = fixedSize;
+            }
+        }
+        int runLengthSize = VarLenIntEncoderDecoder.getBytesRequired(countRuns());
+        for (int i = 0; i < count;) {
+            int runEnd = i + 1;
+            while (runEnd < count && isEqual(i, runEnd)) {
+                runEnd++;
+            }
+            runLengthSize += VarLenIntEncoderDecoder.getBytesRequired(runEnd - i) + getValueSize(i);
+            i = runEnd;
+        }
+        if (runLengthSize < encodedSize) {
+            encoding = RUN_LENGTH;
+            encodedSize = runLengthSize;
+        }
+        buildDictionary();
+        int dictionaryEncodedSize = VarLenIntEncoderDecoder.getBytesRequired(dictionarySize) + 1
+                + (int) (((long) count * getBitWidth(dictionarySize) + 7) / 8);
+        for (int i = 0; i < dictionarySize; i++) {
+            dictionaryEncodedSize += getValueSize(dictionary[i]);
+        }
+        if (dictionaryEncodedSize < encodedSize) {
+            encoding = DICTIONARY;
+            encodedSize = dictionaryEncodedSize;
+        }
+        // + 1 for the encoding byte
+        encodedSize++;
+    }
+
+    private void buildDictionary() {
+        if (codes.length < count) {
+            codes = new int[starts.length];
+            dictionary = new int[starts.length];
+        }
+        int tableSize = Integer.highestOneBit(Math.max(count, 1) * 2 - 1) << 1;
+        if (hashTable.length < tableSize) {
+            hashTable = new int[tableSize];
+        }
+        Arrays.fill(hashTable, 0, tableSize, -1);
+        int mask = tableSize - 1;
+        dictionarySize = 0;
+        for (int i = 0; i < count; i++) {
+            int slot = hash(i) & mask;
+            while (hashTable[slot] >= 0 && !isEqual(dictionary[hashTable[slot]], i)) {
+                slot = (slot + 1) & mask;
+            }
+            if (hashTable[slot] < 0) {
+                hashTable[slot] = dictionarySize;
+                dictionary[dictionarySize++] = i;
+            }
+            codes[i] = hashTable[slot];
+        }
+    }
+
+    private int packCodes(int bitWidth, byte[] target, int offset) {
+        int packedBytes = (int) (((long) count * bitWidth + 7) / 8);
+        Arrays.fill(target, offset, offset + packedBytes, (byte) 0);
+        long bitPos = 0;
+        for (int i = 0; i < count; i++) {
+            int code = codes[i];
+            for (int b = 0; b < bitWidth; b++, bitPos++) {
+                if ((code & (1 << b)) != 0) {
+                    target[offset + (int) (bitPos >>> 3)] |= (byte) (1 << (bitPos & 7));
+                }
+            }
+        }
+        return offset + packedBytes;
+    }
+
+    private int countRuns() {
+        int runs = count == 0 ? 0 : 1;
+        for (int i = 1; i < count; i++) {
+            if (!isEqual(i - 1, i)) {
+                runs++;
+            }
+        }
+        return runs;
+    }
+
+    private int writeValue(int index, byte[] target, int offset) {
+        int pos = offset + VarLenIntEncoderDecoder.encode(lengths[index], target, offset);
+        System.arraycopy(data, starts[index], target, pos, lengths[index]);
+        return pos + lengths[index];
+    }
+
+    private int getValueSize(int index) {
+        return VarLenIntEncoderDecoder.getBytesRequired(lengths[index]) + lengths[index];
+    }
+
+    private boolean isEqual(int index1, int index2) {
+        int length = lengths[index1];
+        if (length != lengths[index2]) {
+            return false;
+        }
+        int start1 = starts[index1];
+        int start2 = starts[index2];
+        for (int i = 0; i < length; i++) {
+            if (data[start1 + i] != data[start2 + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int hash(int index) {
+        int h = lengths[index];
+        int end = starts[index] + lengths[index];
+        for (int i = starts[index]; i < end; i++) {
+            h = 31 * h + data[i];
+        }
+        return h ^ (h >>> 16);
+    }
+
+    static int getBitWidth(int dictionarySize) {
+        return dictionarySize <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(dictionarySize - 1);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column;
+
+import org.apache.hyracks.util.encoding.VarLenIntEncoderDecoder;
+import org.apache.hyracks.util.encoding.VarLenIntEncoderDecoder.VarLenIntDecoder;
+
+/**
+ * Decodes a column written by {@link ColumnBuffer#encode(byte[], int)} into the positions of its values. The values
+ * are not copied, the positions point into the page.
+ */
+class ColumnReader {
+    private final VarLenIntDecoder decoder = VarLenIntEncoderDecoder.createDecoder();
+    private int[] starts = new int[0];
+    private int[] lengths = new int[0];
+    private int[] dictionaryStarts = new int[0];
+    private int[] dictionaryLengths = new int[0];
+
+    void decode(byte[] buf, int offset, int count) {
+        if (starts.length < count) {
+            starts = new int[count];
+            lengths = new int[count];
+        }
+        byte encoding = buf[offset];
+        decoder.reset(buf, offset + 1);
+        switch (encoding) {
+            case ColumnBuffer.PLAIN:
+                decodePlain(buf, count);
+                break;
+            case ColumnBuffer.FIXED_LENGTH:
+                decodeFixedLength(count);
+                break;
+            case ColumnBuffer.RUN_LENGTH:
+                decodeRunLength(buf);
+                break;
+            case ColumnBuffer.DICTIONARY:
+                decodeDictionary(buf, count);
+                break;
+            default:
+                throw new IllegalStateException("Unknown column encoding " + encoding);
+        }
+    }
+
+    int getStart(int row) {
+        return starts[row];
+    }
+
+    int getLength(int row) {
+        return lengths[row];
+    }
+
+    private void decodePlain(byte[] buf, int count) {
+        for (int i = 0; i < count; i++) {
+            lengths[i] = decoder.decode();
+        }
+        int pos = decoder.getPos();
+        for (int i = 0; i < count; i++) {
+            starts[i] = pos;
+            pos += lengths[i];
+        }
+    }
+
+    private void decodeFixedLength(int count) {
+        int length = decoder.decode();
+        int pos = decoder.getPos();
+        for (int i = 0; i < count; i++) {
+            starts[i] = pos;
+            lengths[i] = length;
+            pos += length;
+        }
+    }
+
+    private void decodeRunLength(byte[] buf) {
+        int runs = decoder.decode();
+        int row = 0;
+        for (int r = 0; r < runs; r++) {
+            int runLength = decoder.decode();
+            int length = decoder.decode();
+            int start = decoder.getPos();
+            for (int i = 0; i < runLength; i++, row++) {
+                starts[row] = start;
+                lengths[row] = length;
+            }
+            decoder.reset(buf, start + length);
+        }
+    }
+
+    private void decodeDictionary(byte[] buf, int count) {
+        int dictionarySize = decoder.decode();
+        if (dictionaryStarts.length < dictionarySize) {
+            dictionaryStarts = new int[dictionarySize];
+            dictionaryLengths = new int[dictionarySize];
+        }
+        for (int i = 0; i < dictionarySize; i++) {
+            dictionaryLengths[i] = decoder.decode();
+            dictionaryStarts[i] = decoder.getPos();
+            decoder.reset(buf, dictionaryStarts[i] + dictionaryLengths[i]);
+        }
+        int pos = decoder.getPos();
+        int bitWidth = buf[pos++];
+        long bitPos = 0;
+        for (int i = 0; i < count; i++) {
+            int code = 0;
+            for (int b = 0; b < bitWidth; b++, bitPos++) {
+                if ((buf[pos + (int) (bitPos >>> 3)] & (1 << (bitPos & 7))) != 0) {
+                    code |= 1 << b;
+                }
+            }
+            starts[i] = dictionaryStarts[code];
+            lengths[i] = dictionaryLengths[code];
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.storage.am.common.api.IColumnShredder;
+
+/**
+ * Reads the column area of a {@link LSMBTreeColumnarLeafFrame} page. Columns are decoded lazily, the first time a
+ * value of theirs is needed, and stay decoded until the frame moves to another page. Values can be assembled from a
+ * subset of the columns (see {@link #assemble(int, boolean[], ArrayBackedValueStorage)}), in which case the other
+ * columns of the page are not decoded at all.
+ */
+class ColumnarPageReader {
+    private final IColumnShredder shredder;
+    private final ColumnReader[] readers;
+    private final boolean[] decoded;
+    private final IPointable[] columns;
+
+    private LSMBTreeColumnarLeafFrame frame;
+    private int pageVersion;
+    private byte[] buf;
+    private int columnsOff;
+    private int rowCount;
+
+    ColumnarPageReader(IColumnShredder shredder) {
+        this.shredder = shredder;
+        int columnCount = shredder.getColumnCount();
+        readers = new ColumnReader[columnCount];
+        decoded = new boolean[columnCount];
+        columns = new IPointable[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            readers[i] = new ColumnReader();
+            columns[i] = new VoidPointable();
+        }
+    }
+
+    void reset(LSMBTreeColumnarLeafFrame frame) {
+        if (this.frame == frame && pageVersion == frame.getPageVersion()) {
+            return;
+        }
+        this.frame = frame;
+        ByteBuffer page = frame.getBuffer();
+        pageVersion = frame.getPageVersion();
+        buf = page.array();
+        columnsOff = frame.getColumnsOffset();
+        rowCount = frame.getColumnarTupleCount();
+        for (int i = 0; i < decoded.length; i++) {
+            decoded[i] = false;
+        }
+    }
+
+    void assemble(int row, ArrayBackedValueStorage out) throws HyracksDataException {
+        assemble(row, null, out);
+    }
+
+    /**
+     * Assembles the value of a row from the requested columns, the other columns are passed to the shredder as empty
+     * values.
+     *
+     * @param requestedColumns
+     *            one flag per column, or null to assemble the whole value
+     */
+    void assemble(int row, boolean[] requestedColumns, ArrayBackedValueStorage out) throws HyracksDataException {
+        for (int i = 0; i < columns.length; i++) {
+            if (requestedColumns != null && !requestedColumns[i]) {
+                columns[i].set(buf, 0, 0);
+                continue;
+            }
+            if (!decoded[i]) {
+                readers[i].decode(buf, columnsOff + LSMBTreeColumnarLeafFrame.getColumnStart(buf, columnsOff, i),
+                        rowCount);
+                decoded[i] = true;
+            }
+            columns[i].set(buf, readers[i].getStart(row), readers[i].getLength(row));
+        }
+        out.reset();
+        shredder.assemble(columns, out.getDataOutput());
+    }
+}
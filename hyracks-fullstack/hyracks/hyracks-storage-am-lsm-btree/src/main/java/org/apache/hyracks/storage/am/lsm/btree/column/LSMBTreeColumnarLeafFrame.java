@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column;
+
+import static org.apache.hyracks.storage.am.btree.tuples.BTreeTypeAwareTupleReference.UPDATE_BIT_OFFSET;
+import static org.apache.hyracks.storage.am.lsm.common.api.ILSMTreeTupleReference.ANTIMATTER_BIT_OFFSET;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.btree.frames.BTreeNSMLeafFrame;
+import org.apache.hyracks.storage.am.common.api.IColumnShredder;
+import org.apache.hyracks.storage.am.common.util.BitOperationUtils;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+
+/**
+ * <pre>
+ * A leaf frame for bulk loaded (disk) LSM B-Tree components that stores the first non-key field of its tuples, i.e.
+ * the record of a primary index, column-wise (PAX). Tuples are appended row-wise as in {@link BTreeNSMLeafFrame} and
+ * the page is reorganized when it gets full ({@link #compress()}) and when the bulk loader is done with it
+ * ({@link #seal()}):
+ *
+ * [header][tuples without the columnar field][column area][free space][slots]
+ *
+ * Each value of the columnar field is split into columns by an {@link IColumnShredder}. The column area starts with
+ * the number of columns and the start offset of every column relative to the column area, followed by the encoded
+ * columns (see {@link ColumnBuffer}). The first {@link #getColumnarTupleCount()} tuples of the page have their
+ * columnar field in the column area, tuples appended after the last reorganization keep it in the tuple.
+ * The frame does not support in-place modifications (see {@link #compact()}).
+ * </pre>
+ */
+public class LSMBTreeColumnarLeafFrame extends BTreeNSMLeafFrame {
+    protected static final int COLUMNS_OFFSET = NEXT_LEAF_OFFSET + 4;
+    protected static final int COLUMNAR_TUPLE_COUNT_OFFSET = COLUMNS_OFFSET + 4;
+    // reorganize a full page only if the row tuples take at least 1/8th of it
+    private static final int MIN_ROW_FRACTION = 8;
+
+    private final IColumnShredder shredder;
+    private final int columnField;
+    private final LSMBTreeColumnarTupleReference sealTuple;
+    private final ColumnarKeyTuple keyTuple;
+    private final IPointable[] columns;
+    private final ColumnBuffer[] columnBuffers;
+    private byte[] tupleBuffer = new byte[0];
+    private int[] tupleOffsets = new int[0];
+    private int pageVersion;
+
+    public LSMBTreeColumnarLeafFrame(LSMBTreeColumnarTupleWriter tupleWriter, IColumnShredder shredder) {
+        super(tupleWriter);
+        this.shredder = shredder;
+        this.columnField = tupleWriter.getColumnField();
+        this.sealTuple = tupleWriter.createTupleReference();
+        this.keyTuple = new ColumnarKeyTuple(columnField);
+        int columnCount = shredder.getColumnCount();
+        columns = new IPointable[columnCount];
+        columnBuffers = new ColumnBuffer[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = new VoidPointable();
+            columnBuffers[i] = new ColumnBuffer();
+        }
+    }
+
+    @Override
+    public int getPageHeaderSize() {
+        return COLUMNAR_TUPLE_COUNT_OFFSET + 4;
+    }
+
+    @Override
+    public void initBuffer(byte level) {
+        super.initBuffer(level);
+        buf.putInt(COLUMNS_OFFSET, -1);
+        buf.putInt(COLUMNAR_TUPLE_COUNT_OFFSET, 0);
+        pageVersion++;
+    }
+
+    @Override
+    public void setPage(ICachedPage page) {
+        super.setPage(page);
+        pageVersion++;
+    }
+
+    public int getColumnarTupleCount() {
+        return buf.getInt(COLUMNAR_TUPLE_COUNT_OFFSET);
+    }
+
+    int getColumnsOffset() {
+        return buf.getInt(COLUMNS_OFFSET);
+    }
+
+    /**
+     * @return a number that changes whenever the content of the page changes, used to invalidate decoded columns
+     */
+    int getPageVersion() {
+        return pageVersion;
+    }
+
+    IColumnShredder getShredder() {
+        return shredder;
+    }
+
+    static int getColumnStart(byte[] buf, int columnsOff, int column) {
+        int pos = columnsOff + 4 + column * 4;
+        return ((buf[pos] & 0xff) << 24) | ((buf[pos + 1] & 0xff) << 16) | ((buf[pos + 2] & 0xff) << 8)
+                | (buf[pos + 3] & 0xff);
+    }
+
+    @Override
+    public boolean compress() throws HyracksDataException {
+        int tupleCount = getTupleCount();
+        int columnarTupleCount = getColumnarTupleCount();
+        if (tupleCount == columnarTupleCount) {
+            return false;
+        }
+        int rowBytes = getFreeSpaceOff() - getTupleOffset(columnarTupleCount);
+        return rowBytes >= buf.capacity() / MIN_ROW_FRACTION && seal();
+    }
+
+    @Override
+    public boolean seal() throws HyracksDataException {
+        int tupleCount = getTupleCount();
+        if (tupleCount == 0 || tupleCount == getColumnarTupleCount() || getLargeFlag()) {
+            return false;
+        }
+        if (tupleBuffer.length < buf.capacity()) {
+            tupleBuffer = new byte[buf.capacity()];
+        }
+        if (tupleOffsets.length < tupleCount) {
+            tupleOffsets = new int[tupleCount];
+        }
+        for (ColumnBuffer columnBuffer : columnBuffers) {
+            columnBuffer.reset();
+        }
+        // strip the columnar field off the tuples and split it into the column buffers
+        int tuplesSize = 0;
+        for (int i = 0; i < tupleCount; i++) {
+            sealTuple.resetByTupleIndex(this, i);
+            if (sealTuple.getFieldCount() > columnField) {
+                shredder.shred(sealTuple.getFieldData(columnField), sealTuple.getFieldStart(columnField),
+                        sealTuple.getFieldLength(columnField), columns);
+                for (int j = 0; j < columns.length; j++) {
+                    columnBuffers[j].add(columns[j].getByteArray(), columns[j].getStartOffset(),
+                            columns[j].getLength());
+                }
+            } else {
+                // antimatter tuples do not have the field, keep the columns aligned with the tuples
+                for (ColumnBuffer columnBuffer : columnBuffers) {
+                    columnBuffer.add(tupleBuffer, 0, 0);
+                }
+            }
+            keyTuple.reset(sealTuple);
+            tupleOffsets[i] = tuplesSize;
+            int bytesWritten = tupleWriter.writeTupleFields(keyTuple, 0, keyTuple.getFieldCount(), tupleBuffer,
+                    tuplesSize);
+            if (sealTuple.isAntimatter()) {
+                BitOperationUtils.setBit(tupleBuffer, tuplesSize, ANTIMATTER_BIT_OFFSET);
+            }
+            if (sealTuple.isUpdated()) {
+                BitOperationUtils.setBit(tupleBuffer, tuplesSize, UPDATE_BIT_OFFSET);
+            }
+            tuplesSize += bytesWritten;
+        }
+        int headerSize = getPageHeaderSize();
+        int columnsOff = headerSize + tuplesSize;
+        int columnsEnd = columnsOff + 4 + columns.length * 4;
+        for (ColumnBuffer columnBuffer : columnBuffers) {
+            columnsEnd += columnBuffer.getEncodedSize();
+        }
+        int slotsSize = tupleCount * slotManager.getSlotSize();
+        if (columnsEnd + slotsSize > buf.capacity()) {
+            // the columnar layout does not fit, keep the page as it is
+            return false;
+        }
+        byte[] page = buf.array();
+        System.arraycopy(tupleBuffer, 0, page, headerSize, tuplesSize);
+        for (int i = 0; i < tupleCount; i++) {
+            slotManager.setSlot(slotManager.getSlotOff(i), headerSize + tupleOffsets[i]);
+        }
+        buf.putInt(columnsOff, columns.length);
+        int pos = columnsOff + 4 + columns.length * 4;
+        for (int j = 0; j < columns.length; j++) {
+            buf.putInt(columnsOff + 4 + j * 4, pos - columnsOff);
+            pos += columnBuffers[j].encode(page, pos);
+        }
+        buf.putInt(COLUMNS_OFFSET, columnsOff);
+        buf.putInt(COLUMNAR_TUPLE_COUNT_OFFSET, tupleCount);
+        buf.putInt(Constants.FREE_SPACE_OFFSET, pos);
+        buf.putInt(TOTAL_FREE_SPACE_OFFSET, buf.capacity() - pos - slotsSize);
+        pageVersion++;
+        return true;
+    }
+
+    /**
+     * A page with columns never has space to reclaim: the frame is only used by the disk B-Trees of
+     * {@link org.apache.hyracks.storage.am.lsm.btree.utils.LSMBTreeUtil}, which are written by their bulk loader only
+     * (their accessor rejects inserts, updates, deletes and upserts, the only operations that compact leaf pages). The
+     * bulk loader appends tuples at the free space offset and {@link #seal()} rewrites the page contiguously, so the
+     * total free space is always the contiguous free space. Pages that were not sealed yet are compacted as usual.
+     */
+    @Override
+    public boolean compact() {
+        if (getColumnarTupleCount() == 0) {
+            return super.compact();
+        }
+        assert getTotalFreeSpace() == getFreeContiguousSpace() : "columnar leaf page with fragmented free space";
+        return false;
+    }
+
+    @Override
+    public String printHeader() {
+        StringBuilder strBuilder = new StringBuilder(super.printHeader());
+        strBuilder.append("columnsOff:        " + COLUMNS_OFFSET + "\n");
+        strBuilder.append("columnarCountOff:  " + COLUMNAR_TUPLE_COUNT_OFFSET + "\n");
+        return strBuilder.toString();
+    }
+
+    /**
+     * A tuple whose columnar field is empty.
+     */
+    private static class ColumnarKeyTuple implements ITupleReference {
+        private final int columnField;
+        private ITupleReference tuple;
+
+        ColumnarKeyTuple(int columnField) {
+            this.columnField = columnField;
+        }
+
+        void reset(ITupleReference tuple) {
+            this.tuple = tuple;
+        }
+
+        @Override
+        public int getFieldCount() {
+            return tuple.getFieldCount();
+        }
+
+        @Override
+        public byte[] getFieldData(int fIdx) {
+            return tuple.getFieldData(fIdx);
+        }
+
+        @Override
+        public int getFieldStart(int fIdx) {
+            return fIdx == columnField ? 0 : tuple.getFieldStart(fIdx);
+        }
+
+        @Override
+        public int getFieldLength(int fIdx) {
+            return fIdx == columnField ? 0 : tuple.getFieldLength(fIdx);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column;
+
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.storage.am.common.api.IColumnarTupleReference;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexFrame;
+import org.apache.hyracks.storage.am.lsm.btree.tuples.LSMBTreeTupleReference;
+
+/**
+ * A tuple reference that reads the columnar field of the tuples of a {@link LSMBTreeColumnarLeafFrame} from the
+ * column area of the page. The field is only assembled when it is accessed, so comparing keys (e.g. in a binary
+ * search) does not touch the columns. Consumers that only need some of the columns of the field (e.g. a projection of
+ * the records) get a value assembled from these columns with {@link #getFieldColumns(int, boolean[], IPointable)}.
+ */
+public class LSMBTreeColumnarTupleReference extends LSMBTreeTupleReference implements IColumnarTupleReference {
+    private final int columnField;
+    private final ArrayBackedValueStorage assembled = new ArrayBackedValueStorage();
+    private ColumnarPageReader pageReader;
+    // set when the columnar field of the current tuple is in the column area
+    private boolean columnar;
+    private boolean isAssembled;
+    private int row;
+
+    public LSMBTreeColumnarTupleReference(ITypeTraits[] typeTraits, int numKeyFields, boolean updateAware) {
+        super(typeTraits, numKeyFields, updateAware);
+        this.columnField = numKeyFields;
+    }
+
+    @Override
+    public void resetByTupleOffset(byte[] buf, int tupleStartOff) {
+        super.resetByTupleOffset(buf, tupleStartOff);
+        columnar = false;
+    }
+
+    @Override
+    public void resetByTupleIndex(ITreeIndexFrame frame, int tupleIndex) {
+        super.resetByTupleIndex(frame, tupleIndex);
+        if (frame instanceof LSMBTreeColumnarLeafFrame) {
+            LSMBTreeColumnarLeafFrame columnarFrame = (LSMBTreeColumnarLeafFrame) frame;
+            if (tupleIndex < columnarFrame.getColumnarTupleCount() && !isAntimatter()) {
+                if (pageReader == null) {
+                    pageReader = new ColumnarPageReader(columnarFrame.getShredder());
+                }
+                pageReader.reset(columnarFrame);
+                row = tupleIndex;
+                columnar = true;
+                isAssembled = false;
+            }
+        }
+    }
+
+    @Override
+    public byte[] getFieldData(int fIdx) {
+        if (isColumnField(fIdx)) {
+            assemble();
+            return assembled.getByteArray();
+        }
+        return super.getFieldData(fIdx);
+    }
+
+    @Override
+    public int getFieldStart(int fIdx) {
+        if (isColumnField(fIdx)) {
+            assemble();
+            return assembled.getStartOffset();
+        }
+        return super.getFieldStart(fIdx);
+    }
+
+    @Override
+    public int getFieldLength(int fIdx) {
+        if (isColumnField(fIdx)) {
+            assemble();
+            return assembled.getLength();
+        }
+        return super.getFieldLength(fIdx);
+    }
+
+    @Override
+    public void getFieldColumns(int fIdx, boolean[] requestedColumns, IPointable value) throws HyracksDataException {
+        if (isColumnField(fIdx) && !isAssembled) {
+            // isAssembled stays unset, the buffer only holds the requested columns of the field
+            pageReader.assemble(row, requestedColumns, assembled);
+            value.set(assembled.getByteArray(), assembled.getStartOffset(), assembled.getLength());
+            return;
+        }
+        value.set(getFieldData(fIdx), getFieldStart(fIdx), getFieldLength(fIdx));
+    }
+
+    private boolean isColumnField(int fIdx) {
+        return columnar && fieldStartIndex + fIdx == columnField;
+    }
+
+    private void assemble() {
+        if (!isAssembled) {
+            try {
+                pageReader.assemble(row, assembled);
+            } catch (HyracksDataException e) {
+                // tuple accessors cannot throw checked exceptions
+                throw new IllegalStateException(e);
+            }
+            isAssembled = true;
+        }
+    }
+}
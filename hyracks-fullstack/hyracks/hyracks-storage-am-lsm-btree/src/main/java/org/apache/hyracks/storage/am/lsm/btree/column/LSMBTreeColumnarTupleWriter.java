@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column;
+
+import static org.apache.hyracks.storage.am.btree.tuples.BTreeTypeAwareTupleReference.UPDATE_BIT_OFFSET;
+import static org.apache.hyracks.storage.am.lsm.common.api.ILSMTreeTupleReference.ANTIMATTER_BIT_OFFSET;
+
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.common.util.BitOperationUtils;
+import org.apache.hyracks.storage.am.lsm.btree.tuples.LSMBTreeTupleReference;
+import org.apache.hyracks.storage.am.lsm.btree.tuples.LSMBTreeTupleWriter;
+
+/**
+ * The tuple writer of columnar disk components. Like
+ * {@link org.apache.hyracks.storage.am.lsm.btree.tuples.LSMBTreeCopyTupleWriter}, it keeps the antimatter and
+ * updated bits of LSM tuples, but it writes the tuples field by field since the source tuple may come from a
+ * {@link LSMBTreeColumnarLeafFrame} where the columnar field is not part of the tuple bytes.
+ */
+public class LSMBTreeColumnarTupleWriter extends LSMBTreeTupleWriter {
+    private final int numKeyFields;
+
+    public LSMBTreeColumnarTupleWriter(ITypeTraits[] typeTraits, int numKeyFields, boolean updateAware) {
+        super(typeTraits, numKeyFields, false, updateAware);
+        this.numKeyFields = numKeyFields;
+    }
+
+    @Override
+    public int writeTuple(ITupleReference tuple, byte[] targetBuf, int targetOff) {
+        int bytesWritten = super.writeTuple(tuple, targetBuf, targetOff);
+        if (tuple instanceof LSMBTreeTupleReference) {
+            LSMBTreeTupleReference lsmTuple = (LSMBTreeTupleReference) tuple;
+            if (lsmTuple.isAntimatter()) {
+                BitOperationUtils.setBit(targetBuf, targetOff, ANTIMATTER_BIT_OFFSET);
+            }
+            if (updateAware && lsmTuple.isUpdated()) {
+                BitOperationUtils.setBit(targetBuf, targetOff, UPDATE_BIT_OFFSET);
+            }
+        }
+        return bytesWritten;
+    }
+
+    @Override
+    public LSMBTreeColumnarTupleReference createTupleReference() {
+        return new LSMBTreeColumnarTupleReference(typeTraits, numKeyFields, updateAware);
+    }
+
+    /**
+     * @return the index of the field that is stored in columns, i.e. the first non-key field
+     */
+    public int getColumnField() {
+        return numKeyFields;
+    }
+}
@@ -232,6 +232,10 @@ public abstract class AbstractLSMDiskComponent extends AbstractLSMComponent impl
             boolean cleanupEmptyComponent, IPageWriteCallback callback) throws HyracksDataException {
         ChainedLSMDiskComponentBulkLoader chainedBulkLoader =
                 new ChainedLSMDiskComponentBulkLoader(operation, this, cleanupEmptyComponent);
+        IChainedComponentBulkLoader statisticsBulkLoader = getLsmIndex().createStatisticsBulkLoader(this);
+        if (statisticsBulkLoader != null) {
+            chainedBulkLoader.addBulkLoader(statisticsBulkLoader);
+        }
         if (withFilter && getLsmIndex().getFilterFields() != null) {
             chainedBulkLoader.addBulkLoader(createFilterBulkLoader());
         }
@@ -791,6 +791,14 @@ public abstract class AbstractLSMIndex implements ILSMIndex {
         return filterManager;
     }
 
+    /**
+     * @return a bulk loader that collects the statistics of a disk component being written, or null if the index
+     *         does not keep statistics
+     */
+    public IChainedComponentBulkLoader createStatisticsBulkLoader(ILSMDiskComponent component) {
+        return null;
+    }
+
     @Override
     public ILSMHarness getHarness() {
         return lsmHarness;
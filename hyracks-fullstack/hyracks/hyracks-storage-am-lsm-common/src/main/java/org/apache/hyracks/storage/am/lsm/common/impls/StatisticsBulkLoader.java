@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.io.IOException;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.MurmurHash3BinaryHash;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMTreeTupleReference;
+import org.apache.hyracks.storage.am.lsm.common.statistics.ComponentStatistics;
+import org.apache.hyracks.storage.am.lsm.common.statistics.EquiDepthHistogram;
+import org.apache.hyracks.storage.am.lsm.common.statistics.FieldStatistics;
+import org.apache.hyracks.storage.am.lsm.common.statistics.HyperLogLog;
+import org.apache.hyracks.storage.am.lsm.common.statistics.IStatisticsValueClassifier;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Collects the {@link ComponentStatistics} of the key fields of the tuples written to a disk component and puts them
+ * in the component's metadata when the load ends. It must see the tuples before they are permuted by a
+ * {@link FilterBulkLoader} so that antimatter tuples can be told apart.
+ */
+public class StatisticsBulkLoader implements IChainedComponentBulkLoader {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final int HASH_SEED = 0x3c074a61;
+
+    private final ILSMDiskComponent component;
+    private final IStatisticsValueClassifier classifier;
+    private final int maxSize;
+    private final HyperLogLog distinctKeys = new HyperLogLog();
+    private final FieldStatistics[] fields;
+    private final EquiDepthHistogram.Builder histogramBuilder = new EquiDepthHistogram.Builder();
+    private long tupleCount;
+    private long antimatterCount;
+
+    /**
+     * @param component
+     *            the component being written
+     * @param keyFieldCount
+     *            the number of key fields, which are the leading fields of the tuples
+     * @param classifier
+     *            tells null and missing values apart
+     * @param maxSize
+     *            the maximum number of bytes the statistics may take in the metadata page
+     */
+    public StatisticsBulkLoader(ILSMDiskComponent component, int keyFieldCount,
+            IStatisticsValueClassifier classifier, int maxSize) {
+        this.component = component;
+        this.classifier = classifier;
+        this.maxSize = maxSize;
+        fields = new FieldStatistics[keyFieldCount];
+        for (int i = 0; i < keyFieldCount; i++) {
+            fields[i] = new FieldStatistics();
+        }
+    }
+
+    @Override
+    public ITupleReference add(ITupleReference tuple) throws HyracksDataException {
+        if (tuple instanceof ILSMTreeTupleReference && ((ILSMTreeTupleReference) tuple).isAntimatter()) {
+            antimatterCount++;
+        } else {
+            collect(tuple);
+        }
+        return tuple;
+    }
+
+    @Override
+    public ITupleReference delete(ITupleReference tuple) throws HyracksDataException {
+        antimatterCount++;
+        return tuple;
+    }
+
+    private void collect(ITupleReference tuple) {
+        tupleCount++;
+        int keyHash = 0;
+        for (int i = 0; i < fields.length; i++) {
+            byte[] bytes = tuple.getFieldData(i);
+            int start = tuple.getFieldStart(i);
+            int length = tuple.getFieldLength(i);
+            int hash = MurmurHash3BinaryHash.hash(bytes, start, length, HASH_SEED);
+            keyHash = 31 * keyHash + hash;
+            if (classifier.isMissing(bytes, start, length)) {
+                fields[i].addMissing();
+            } else if (classifier.isNull(bytes, start, length)) {
+                fields[i].addNull();
+            } else {
+                fields[i].addValue(hash);
+                if (i == 0) {
+                    histogramBuilder.add(bytes, start, length);
+                }
+            }
+        }
+        distinctKeys.add(keyHash);
+    }
+
+    @Override
+    public void end() throws HyracksDataException {
+        if (tupleCount == 0 && antimatterCount == 0) {
+            return;
+        }
+        ComponentStatistics statistics = new ComponentStatistics(distinctKeys, fields, histogramBuilder.build(),
+                tupleCount, antimatterCount);
+        ArrayBackedValueStorage value = new ArrayBackedValueStorage();
+        write(statistics, value);
+        if (value.getLength() > maxSize && statistics.getHistogram() != null) {
+            statistics = new ComponentStatistics(distinctKeys, fields, null, tupleCount, antimatterCount);
+            write(statistics, value);
+        }
+        if (value.getLength() > maxSize) {
+            LOGGER.warn("Not keeping the statistics of {} since they take {} bytes", component, value.getLength());
+            return;
+        }
+        component.getMetadata().put(ComponentStatistics.STATISTICS_KEY, value);
+    }
+
+    private static void write(ComponentStatistics statistics, ArrayBackedValueStorage value)
+            throws HyracksDataException {
+        value.reset();
+        try {
+            statistics.write(value.getDataOutput());
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    @Override
+    public void abort() throws HyracksDataException {
+        //Noop
+    }
+
+    @Override
+    public void cleanupArtifacts() throws HyracksDataException {
+        //Noop
+    }
+
+    @Override
+    public void writeFailed(ICachedPage page, Throwable failure) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean hasFailed() {
+        return false;
+    }
+
+    @Override
+    public Throwable getFailure() {
+        return null;
+    }
+
+    @Override
+    public void force() throws HyracksDataException {
+        // no op
+    }
+}
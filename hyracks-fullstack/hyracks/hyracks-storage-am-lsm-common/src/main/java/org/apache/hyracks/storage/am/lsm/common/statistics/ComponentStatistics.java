@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.statistics;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.storage.am.common.freepage.MutableArrayValueReference;
+import org.apache.hyracks.storage.am.lsm.common.api.IComponentMetadata;
+
+/**
+ * The statistics of the key fields of an LSM disk component. They are collected while the component is written by a
+ * flush, merge or bulk load and kept in its metadata page under {@link #STATISTICS_KEY}. They consist of:
+ * <ul>
+ * <li>the number of tuples and of antimatter tuples,</li>
+ * <li>a sketch of the number of distinct keys,</li>
+ * <li>the {@link FieldStatistics} of every key field,</li>
+ * <li>an {@link EquiDepthHistogram} of the first key field, which is the only one the tuples are sorted on.</li>
+ * </ul>
+ * Statistics of different components of an index, or of different partitions of a dataset, are merged to get the
+ * statistics of the whole index. The values of antimatter tuples are not part of the field statistics.
+ */
+public class ComponentStatistics {
+
+    public static final MutableArrayValueReference STATISTICS_KEY =
+            new MutableArrayValueReference("Statistics".getBytes());
+    private static final byte VERSION = 1;
+
+    private final HyperLogLog distinctKeys;
+    private final FieldStatistics[] fields;
+    private EquiDepthHistogram histogram;
+    private long tupleCount;
+    private long antimatterCount;
+
+    public ComponentStatistics(HyperLogLog distinctKeys, FieldStatistics[] fields, EquiDepthHistogram histogram,
+            long tupleCount, long antimatterCount) {
+        this.distinctKeys = distinctKeys;
+        this.fields = fields;
+        this.histogram = histogram;
+        this.tupleCount = tupleCount;
+        this.antimatterCount = antimatterCount;
+    }
+
+    /**
+     * @return the number of tuples, excluding antimatter tuples
+     */
+    public long getTupleCount() {
+        return tupleCount;
+    }
+
+    public long getAntimatterCount() {
+        return antimatterCount;
+    }
+
+    public long getDistinctKeyCount() {
+        return distinctKeys.estimate();
+    }
+
+    public int getFieldCount() {
+        return fields.length;
+    }
+
+    public FieldStatistics getField(int field) {
+        return fields[field];
+    }
+
+    /**
+     * @return the histogram of the first key field or null if there is none
+     */
+    public EquiDepthHistogram getHistogram() {
+        return histogram;
+    }
+
+    /**
+     * Merges the statistics of another component or partition of the same index.
+     *
+     * @param other
+     *            the statistics to merge
+     * @param firstKeyCmp
+     *            the comparator of the first key field, used to merge the histograms
+     */
+    public void merge(ComponentStatistics other, IBinaryComparator firstKeyCmp) throws HyracksDataException {
+        if (other.fields.length != fields.length) {
+            throw new IllegalArgumentException(
+                    "cannot merge the statistics of " + other.fields.length + " fields into " + fields.length);
+        }
+        // a histogram is missing when there were no values or a value was too long, only the latter is contagious
+        if (histogram != null && other.histogram == null && other.hasFirstKeyValues()) {
+            histogram = null;
+        } else if (histogram != null || !hasFirstKeyValues()) {
+            histogram = EquiDepthHistogram.merge(histogram, other.histogram, firstKeyCmp);
+        }
+        distinctKeys.merge(other.distinctKeys);
+        for (int i = 0; i < fields.length; i++) {
+            fields[i].merge(other.fields[i]);
+        }
+        tupleCount += other.tupleCount;
+        antimatterCount += other.antimatterCount;
+    }
+
+    private boolean hasFirstKeyValues() {
+        return fields.length > 0 && tupleCount > fields[0].getNullCount() + fields[0].getMissingCount();
+    }
+
+    public void write(DataOutput out) throws IOException {
+        out.writeByte(VERSION);
+        out.writeLong(tupleCount);
+        out.writeLong(antimatterCount);
+        distinctKeys.write(out);
+        out.writeInt(fields.length);
+        for (FieldStatistics field : fields) {
+            field.write(out);
+        }
+        out.writeBoolean(histogram != null);
+        if (histogram != null) {
+            histogram.write(out);
+        }
+    }
+
+    public static ComponentStatistics read(DataInput in) throws IOException {
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported component statistics version " + version);
+        }
+        long tupleCount = in.readLong();
+        long antimatterCount = in.readLong();
+        HyperLogLog distinctKeys = HyperLogLog.read(in);
+        FieldStatistics[] fields = new FieldStatistics[in.readInt()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = FieldStatistics.read(in);
+        }
+        EquiDepthHistogram histogram = in.readBoolean() ? EquiDepthHistogram.read(in) : null;
+        return new ComponentStatistics(distinctKeys, fields, histogram, tupleCount, antimatterCount);
+    }
+
+    public static ComponentStatistics read(byte[] bytes, int offset, int length) throws HyracksDataException {
+        try {
+            return read(new DataInputStream(new ByteArrayInputStream(bytes, offset, length)));
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    /**
+     * @return the statistics kept in the metadata of a component or null if it has none
+     */
+    public static ComponentStatistics get(IComponentMetadata metadata, ArrayBackedValueStorage buffer)
+            throws HyracksDataException {
+        buffer.reset();
+        metadata.get(STATISTICS_KEY, buffer);
+        return buffer.getLength() == 0 ? null
+                : read(buffer.getByteArray(), buffer.getStartOffset(), buffer.getLength());
+    }
+}
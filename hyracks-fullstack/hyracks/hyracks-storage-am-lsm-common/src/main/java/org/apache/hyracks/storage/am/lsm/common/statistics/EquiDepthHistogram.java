@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.statistics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * An equi-depth histogram over the serialized values of a field. Bucket i holds the values in
+ * (bound[i - 1], bound[i]] and the first bucket starts at {@link #getMin()}. Bounds are kept as the serialized values
+ * so that the histogram works for any type the index can compare.
+ * <p>
+ * A histogram is built in a single pass from a sorted stream of values by a {@link Builder}, which is how the tuples
+ * of an LSM disk component are written. Histograms of different components or partitions are merged with
+ * {@link #merge(EquiDepthHistogram, EquiDepthHistogram, IBinaryComparator)}, which assumes the values of a bucket are
+ * at its upper bound.
+ */
+public class EquiDepthHistogram {
+
+    public static final int MAX_BUCKETS = 32;
+    // longer values are not worth keeping in a metadata page, the histogram is dropped if one is seen
+    public static final int MAX_BOUND_LENGTH = 64;
+
+    private final byte[] min;
+    private final byte[][] bounds;
+    private final long[] counts;
+    private final long totalCount;
+
+    private EquiDepthHistogram(byte[] min, byte[][] bounds, long[] counts) {
+        this.min = min;
+        this.bounds = bounds;
+        this.counts = counts;
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        this.totalCount = total;
+    }
+
+    public byte[] getMin() {
+        return min;
+    }
+
+    public int getBucketCount() {
+        return bounds.length;
+    }
+
+    public byte[] getBound(int bucket) {
+        return bounds[bucket];
+    }
+
+    public long getCount(int bucket) {
+        return counts[bucket];
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return the estimated number of values that are less than or equal to the given one. Half of the bucket the
+     *         value falls in is counted.
+     */
+    public long estimateLessOrEqual(byte[] value, int start, int length, IBinaryComparator cmp)
+            throws HyracksDataException {
+        if (cmp.compare(value, start, length, min, 0, min.length) < 0) {
+            return 0;
+        }
+        long count = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            int c = cmp.compare(value, start, length, bounds[i], 0, bounds[i].length);
+            if (c < 0) {
+                return count + counts[i] / 2;
+            }
+            count += counts[i];
+            if (c == 0) {
+                return count;
+            }
+        }
+        return count;
+    }
+
+    public void write(DataOutput out) throws IOException {
+        writeValue(out, min);
+        out.writeInt(bounds.length);
+        for (int i = 0; i < bounds.length; i++) {
+            writeValue(out, bounds[i]);
+            out.writeLong(counts[i]);
+        }
+    }
+
+    public static EquiDepthHistogram read(DataInput in) throws IOException {
+        byte[] min = readValue(in);
+        int size = in.readInt();
+        byte[][] bounds = new byte[size][];
+        long[] counts = new long[size];
+        for (int i = 0; i < size; i++) {
+            bounds[i] = readValue(in);
+            counts[i] = in.readLong();
+        }
+        return new EquiDepthHistogram(min, bounds, counts);
+    }
+
+    /**
+     * Merges two histograms into a new one of at most {@link #MAX_BUCKETS} + 1 buckets. Either may be null.
+     */
+    public static EquiDepthHistogram merge(EquiDepthHistogram h1, EquiDepthHistogram h2, IBinaryComparator cmp)
+            throws HyracksDataException {
+        if (h1 == null || h2 == null) {
+            return h1 == null ? h2 : h1;
+        }
+        // merge the bucket bounds of both histograms in order
+        int size = h1.bounds.length + h2.bounds.length;
+        byte[][] bounds = new byte[size][];
+        long[] counts = new long[size];
+        int i1 = 0;
+        int i2 = 0;
+        for (int i = 0; i < size; i++) {
+            if (i2 == h2.bounds.length || (i1 < h1.bounds.length && compare(cmp, h1.bounds[i1], h2.bounds[i2]) <= 0)) {
+                bounds[i] = h1.bounds[i1];
+                counts[i] = h1.counts[i1++];
+            } else {
+                bounds[i] = h2.bounds[i2];
+                counts[i] = h2.counts[i2++];
+            }
+        }
+        // and cut them again into buckets of equal depth
+        long depth = Math.max(1, (h1.totalCount + h2.totalCount + MAX_BUCKETS - 1) / MAX_BUCKETS);
+        List<byte[]> mergedBounds = new ArrayList<>(MAX_BUCKETS + 1);
+        List<Long> mergedCounts = new ArrayList<>(MAX_BUCKETS + 1);
+        long current = 0;
+        for (int i = 0; i < size; i++) {
+            current += counts[i];
+            if (current >= depth || i == size - 1) {
+                mergedBounds.add(bounds[i]);
+                mergedCounts.add(current);
+                current = 0;
+            }
+        }
+        long[] mergedCountArray = new long[mergedCounts.size()];
+        for (int i = 0; i < mergedCountArray.length; i++) {
+            mergedCountArray[i] = mergedCounts.get(i);
+        }
+        byte[] min = compare(cmp, h1.min, h2.min) <= 0 ? h1.min : h2.min;
+        return new EquiDepthHistogram(min, mergedBounds.toArray(new byte[0][]), mergedCountArray);
+    }
+
+    private static int compare(IBinaryComparator cmp, byte[] v1, byte[] v2) throws HyracksDataException {
+        return cmp.compare(v1, 0, v1.length, v2, 0, v2.length);
+    }
+
+    private static void writeValue(DataOutput out, byte[] value) throws IOException {
+        out.writeShort(value.length);
+        out.write(value);
+    }
+
+    private static byte[] readValue(DataInput in) throws IOException {
+        byte[] value = new byte[in.readShort()];
+        in.readFully(value);
+        return value;
+    }
+
+    /**
+     * Builds a histogram from values that are added in order. Buckets are closed every {@code step} values and when
+     * there are twice as many buckets as needed, adjacent buckets are merged and the step is doubled.
+     */
+    public static class Builder {
+        private final byte[][] bounds = new byte[2 * MAX_BUCKETS][];
+        private final long[] counts = new long[2 * MAX_BUCKETS];
+        private final byte[] last = new byte[MAX_BOUND_LENGTH];
+        private byte[] min;
+        private int lastLength;
+        private int size;
+        private long step = 1;
+        private long current;
+        private boolean dropped;
+
+        public void add(byte[] value, int start, int length) {
+            if (dropped) {
+                return;
+            }
+            if (length > MAX_BOUND_LENGTH) {
+                dropped = true;
+                return;
+            }
+            if (min == null) {
+                min = Arrays.copyOfRange(value, start, start + length);
+            }
+            System.arraycopy(value, start, last, 0, length);
+            lastLength = length;
+            if (++current == step) {
+                closeBucket();
+            }
+        }
+
+        private void closeBucket() {
+            bounds[size] = Arrays.copyOf(last, lastLength);
+            counts[size++] = current;
+            current = 0;
+            if (size == bounds.length) {
+                for (int i = 0; i < MAX_BUCKETS; i++) {
+                    bounds[i] = bounds[2 * i + 1];
+                    counts[i] = counts[2 * i] + counts[2 * i + 1];
+                }
+                Arrays.fill(bounds, MAX_BUCKETS, bounds.length, null);
+                size = MAX_BUCKETS;
+                step *= 2;
+            }
+        }
+
+        /**
+         * @return the histogram of the added values or null if there were none or one of them was too long
+         */
+        public EquiDepthHistogram build() {
+            if (dropped || min == null) {
+                return null;
+            }
+            if (current > 0) {
+                closeBucket();
+            }
+            return new EquiDepthHistogram(min, Arrays.copyOf(bounds, size), Arrays.copyOf(counts, size));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.statistics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The statistics of one indexed field: the number of null and missing values and a sketch of the number of distinct
+ * values.
+ */
+public class FieldStatistics {
+
+    private final HyperLogLog distinctValues;
+    private long nullCount;
+    private long missingCount;
+
+    public FieldStatistics() {
+        this(new HyperLogLog(), 0, 0);
+    }
+
+    private FieldStatistics(HyperLogLog distinctValues, long nullCount, long missingCount) {
+        this.distinctValues = distinctValues;
+        this.nullCount = nullCount;
+        this.missingCount = missingCount;
+    }
+
+    public void addValue(int hash) {
+        distinctValues.add(hash);
+    }
+
+    public void addNull() {
+        nullCount++;
+    }
+
+    public void addMissing() {
+        missingCount++;
+    }
+
+    public long getNullCount() {
+        return nullCount;
+    }
+
+    public long getMissingCount() {
+        return missingCount;
+    }
+
+    public long getDistinctCount() {
+        return distinctValues.estimate();
+    }
+
+    public void merge(FieldStatistics other) {
+        distinctValues.merge(other.distinctValues);
+        nullCount += other.nullCount;
+        missingCount += other.missingCount;
+    }
+
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(nullCount);
+        out.writeLong(missingCount);
+        distinctValues.write(out);
+    }
+
+    public static FieldStatistics read(DataInput in) throws IOException {
+        long nullCount = in.readLong();
+        long missingCount = in.readLong();
+        return new FieldStatistics(HyperLogLog.read(in), nullCount, missingCount);
+    }
+}
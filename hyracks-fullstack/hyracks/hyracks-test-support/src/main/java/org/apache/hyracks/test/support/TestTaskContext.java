@@ -54,11 +54,13 @@ public class TestTaskContext implements IHyracksTaskContext {
     private Object sharedObject;
     private final IStatsCollector statsCollector = new StatsCollector();
     private final ThreadStats threadStats = new ThreadStats();
+    private final CounterContext counterContext;
 
     public TestTaskContext(TestJobletContext jobletContext, TaskAttemptId taskId) {
         this.jobletContext = jobletContext;
         this.taskId = taskId;
         fileFactory = new WorkspaceFileFactory(this, getIoManager());
+        counterContext = new CounterContext(jobletContext.getJobId() + "." + taskId);
     }
 
     @Override
@@ -110,7 +112,7 @@ public class TestTaskContext implements IHyracksTaskContext {
 
     @Override
     public ICounterContext getCounterContext() {
-        return new CounterContext(jobletContext.getJobId() + "." + taskId);
+        return counterContext;
     }
 
     @Override
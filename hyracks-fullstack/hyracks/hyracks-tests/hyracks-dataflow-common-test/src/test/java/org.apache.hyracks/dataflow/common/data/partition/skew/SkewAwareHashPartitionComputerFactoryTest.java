@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.dataflow.common.data.partition.skew;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.hyracks.api.comm.IFrame;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunction;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.ITupleMultiPartitionComputer;
+import org.apache.hyracks.api.dataflow.value.ITuplePartitionComputer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+import org.apache.hyracks.data.std.accessors.PointableBinaryHashFunctionFactory;
+import org.apache.hyracks.data.std.primitive.LongPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.marshalling.Integer64SerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.partition.FieldHashPartitionComputerFactory;
+import org.apache.hyracks.test.support.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SkewAwareHashPartitionComputerFactoryTest {
+
+    private static final int FRAME_SIZE = 32768;
+    private static final int N_PARTS = 4;
+    private static final long HEAVY_KEY = 7L;
+    private static final int[] HASH_FIELDS = new int[] { 0 };
+    private static final IBinaryHashFunctionFactory[] HASH_FUNCTION_FACTORIES =
+            new IBinaryHashFunctionFactory[] { PointableBinaryHashFunctionFactory.of(LongPointable.FACTORY) };
+    @SuppressWarnings("rawtypes")
+    private static final RecordDescriptor RECORD_DESC =
+            new RecordDescriptor(new ISerializerDeserializer[] { Integer64SerializerDeserializer.INSTANCE });
+
+    /**
+     * Half of the tuples carry the same key, the rest are unique. The heavy key must be spread over two partitions on
+     * the split side and replicated to the same two partitions on the replicate side, all other keys must be hash
+     * partitioned exactly like the plain field hash partitioner does.
+     */
+    @Test
+    public void testHeavyHitterIsSpreadAndReplicated() throws Exception {
+        IHyracksTaskContext ctx = TestUtils.create(FRAME_SIZE);
+        FrameTupleAccessor accessor = new FrameTupleAccessor(RECORD_DESC);
+        accessor.reset(prepareData(ctx, 200));
+
+        HeavyHitterSketch sketch = new HeavyHitterSketch(16);
+        IBinaryHashFunction[] hashFunctions =
+                new IBinaryHashFunction[] { HASH_FUNCTION_FACTORIES[0].createBinaryHashFunction() };
+        for (int i = 0; i < accessor.getTupleCount(); i++) {
+            sketch.add(SkewAwareHashUtil.hash(accessor, i, HASH_FIELDS, hashFunctions));
+        }
+        HeavyHitterMap map = roundTrip(sketch.computeHeavyHitterMap(0.1, N_PARTS));
+        Assert.assertEquals(1, map.size());
+
+        HeavyHitterMapSupplier supplier = new StaticHeavyHitterMapSupplier(map);
+        SourceLocation sourceLoc = new SourceLocation(0, 0);
+        ITuplePartitionComputer split = new SkewAwareHashPartitionComputerFactory(HASH_FIELDS,
+                HASH_FUNCTION_FACTORIES, supplier, sourceLoc).createPartitioner(ctx);
+        ITupleMultiPartitionComputer replicate = new SkewAwareHashReplicatePartitionComputerFactory(HASH_FIELDS,
+                HASH_FUNCTION_FACTORIES, supplier, sourceLoc).createPartitioner(ctx);
+        ITuplePartitionComputer plain =
+                new FieldHashPartitionComputerFactory(HASH_FIELDS, HASH_FUNCTION_FACTORIES).createPartitioner(ctx);
+        split.initialize();
+        replicate.initialize();
+
+        Set<Integer> heavyPartitions = new HashSet<>();
+        for (int i = 0; i < accessor.getTupleCount(); i++) {
+            int p = split.partition(accessor, i, N_PARTS);
+            BitSet replicas = replicate.partition(accessor, i, N_PARTS);
+            Assert.assertTrue(replicas.get(p));
+            if (i % 2 == 0) {
+                heavyPartitions.add(p);
+                Assert.assertEquals(2, replicas.cardinality());
+            } else {
+                Assert.assertEquals(plain.partition(accessor, i, N_PARTS), p);
+                Assert.assertEquals(1, replicas.cardinality());
+            }
+        }
+        Assert.assertEquals(2, heavyPartitions.size());
+    }
+
+    @Test
+    public void testMergedSketchesKeepTotalCount() throws Exception {
+        HeavyHitterSketch left = new HeavyHitterSketch(2);
+        HeavyHitterSketch right = new HeavyHitterSketch(2);
+        for (int i = 0; i < 10; i++) {
+            left.add(i);
+            right.add(42);
+        }
+        HeavyHitterSketch merged = new HeavyHitterSketch(4);
+        merged.merge(roundTrip(left));
+        merged.merge(roundTrip(right));
+        Assert.assertEquals(20, merged.getTotalCount());
+        Assert.assertEquals(10, merged.getCount(42));
+        HeavyHitterMap map = merged.computeHeavyHitterMap(0.25, N_PARTS);
+        Assert.assertEquals(2, map.getFanOut(42));
+    }
+
+    private static HeavyHitterMap roundTrip(HeavyHitterMap map) throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        map.write(new DataOutputStream(bos));
+        return HeavyHitterMap.read(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+    }
+
+    private static HeavyHitterSketch roundTrip(HeavyHitterSketch sketch) throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        sketch.write(new DataOutputStream(bos));
+        return HeavyHitterSketch.read(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+    }
+
+    private static ByteBuffer prepareData(IHyracksTaskContext ctx, int nTuples) throws Exception {
+        IFrame frame = new VSizeFrame(ctx);
+        FrameTupleAppender appender = new FrameTupleAppender(frame, true);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(1);
+        for (int i = 0; i < nTuples; i++) {
+            tb.reset();
+            tb.addField(Integer64SerializerDeserializer.INSTANCE, i % 2 == 0 ? HEAVY_KEY : 1000L + i);
+            Assert.assertTrue(appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize()));
+        }
+        return frame.getBuffer();
+    }
+}
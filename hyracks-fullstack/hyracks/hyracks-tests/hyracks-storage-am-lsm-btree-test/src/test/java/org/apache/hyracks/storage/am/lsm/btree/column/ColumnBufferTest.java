@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ColumnBufferTest {
+
+    @Test
+    public void testPlain() {
+        List<byte[]> values = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            values.add(bytes("value-" + i));
+        }
+        assertRoundTrip(values, ColumnBuffer.PLAIN);
+    }
+
+    @Test
+    public void testFixedLength() {
+        List<byte[]> values = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            values.add(bytes(String.format("%08d", i)));
+        }
+        assertRoundTrip(values, ColumnBuffer.FIXED_LENGTH);
+        // the columns of antimatter tuples and absent fields are empty
+        assertRoundTrip(repeat(bytes(""), 10), ColumnBuffer.FIXED_LENGTH);
+    }
+
+    @Test
+    public void testRunLength() {
+        List<byte[]> values = new ArrayList<>();
+        values.addAll(repeat(bytes("first"), 50));
+        values.addAll(repeat(bytes("second"), 70));
+        values.addAll(repeat(bytes("first"), 30));
+        assertRoundTrip(values, ColumnBuffer.RUN_LENGTH);
+    }
+
+    @Test
+    public void testDictionary() {
+        // one distinct value per bit width, from 1 to 8 bits
+        for (int dictionarySize : new int[] { 2, 3, 5, 9, 17, 33, 65, 200 }) {
+            List<byte[]> values = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                values.add(bytes(String.format("%08d", (i * 7) % dictionarySize)));
+            }
+            assertRoundTrip(values, ColumnBuffer.DICTIONARY);
+        }
+    }
+
+    @Test
+    public void testBitWidth() {
+        assertEquals(0, ColumnBuffer.getBitWidth(0));
+        assertEquals(0, ColumnBuffer.getBitWidth(1));
+        assertEquals(1, ColumnBuffer.getBitWidth(2));
+        assertEquals(2, ColumnBuffer.getBitWidth(3));
+        assertEquals(2, ColumnBuffer.getBitWidth(4));
+        assertEquals(3, ColumnBuffer.getBitWidth(5));
+        assertEquals(8, ColumnBuffer.getBitWidth(256));
+        assertEquals(9, ColumnBuffer.getBitWidth(257));
+    }
+
+    @Test
+    public void testReset() {
+        ColumnBuffer buffer = new ColumnBuffer();
+        for (byte[] value : repeat(bytes("stale"), 20)) {
+            buffer.add(value, 0, value.length);
+        }
+        buffer.getEncodedSize();
+        buffer.reset();
+        List<byte[]> values = Arrays.asList(bytes("a"), bytes("bb"), bytes("ccc"));
+        for (byte[] value : values) {
+            buffer.add(value, 0, value.length);
+        }
+        assertEquals(values.size(), buffer.getCount());
+        assertDecoded(buffer, values, ColumnBuffer.PLAIN);
+    }
+
+    private static void assertRoundTrip(List<byte[]> values, byte expectedEncoding) {
+        ColumnBuffer buffer = new ColumnBuffer();
+        for (byte[] value : values) {
+            buffer.add(value, 0, value.length);
+        }
+        assertDecoded(buffer, values, expectedEncoding);
+    }
+
+    private static void assertDecoded(ColumnBuffer buffer, List<byte[]> values, byte expectedEncoding) {
+        // encode at an offset, the columns of a page do not start at 0
+        int offset = 13;
+        byte[] page = new byte[offset + buffer.getEncodedSize()];
+        assertEquals(buffer.getEncodedSize(), buffer.encode(page, offset));
+        assertEquals(expectedEncoding, page[offset]);
+        ColumnReader reader = new ColumnReader();
+        reader.decode(page, offset, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            int start = reader.getStart(i);
+            assertArrayEquals(values.get(i), Arrays.copyOfRange(page, start, start + reader.getLength(i)));
+        }
+    }
+
+    private static List<byte[]> repeat(byte[] value, int times) {
+        List<byte[]> values = new ArrayList<>();
+        for (int i = 0; i < times; i++) {
+            values.add(value);
+        }
+        return values;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
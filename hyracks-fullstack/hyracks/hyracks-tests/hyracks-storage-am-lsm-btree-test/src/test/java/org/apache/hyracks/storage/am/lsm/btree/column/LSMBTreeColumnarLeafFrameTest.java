@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.PointableBinaryComparatorFactory;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.data.std.primitive.VarLengthTypeTrait;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.common.api.IColumnShredder;
+import org.apache.hyracks.storage.am.common.ophelpers.FindTupleMode;
+import org.apache.hyracks.storage.am.common.ophelpers.FindTupleNoExactMatchPolicy;
+import org.apache.hyracks.storage.am.lsm.btree.tuples.LSMBTreeTupleReference;
+import org.apache.hyracks.storage.am.lsm.btree.tuples.LSMBTreeTupleWriter;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.apache.hyracks.storage.common.buffercache.VirtualPage;
+import org.junit.Test;
+
+public class LSMBTreeColumnarLeafFrameTest {
+    private static final int PAGE_SIZE = 4096;
+    private static final ITypeTraits[] TYPE_TRAITS =
+            new ITypeTraits[] { IntegerPointable.TYPE_TRAITS, VarLengthTypeTrait.INSTANCE };
+    private static final MultiComparator CMP = MultiComparator.create(
+            new IBinaryComparatorFactory[] { PointableBinaryComparatorFactory.of(IntegerPointable.FACTORY) });
+
+    @Test
+    public void testSealAndSearch() throws HyracksDataException {
+        PrefixShredder shredder = new PrefixShredder();
+        LSMBTreeColumnarLeafFrame frame = createFrame(shredder);
+        int tupleCount = 100;
+        for (int i = 0; i < tupleCount; i++) {
+            frame.insertSorted(createTuple(2 * i));
+        }
+        assertEquals(0, frame.getColumnarTupleCount());
+        assertTrue(frame.seal());
+        assertEquals(tupleCount, frame.getColumnarTupleCount());
+        // nothing was appended since
+        assertFalse(frame.seal());
+
+        LSMBTreeColumnarTupleReference frameTuple = (LSMBTreeColumnarTupleReference) frame.createTupleReference();
+        for (int i = 0; i < tupleCount; i++) {
+            int tupleIndex = frame.findTupleIndex(TupleUtils.createIntegerTuple(2 * i), frameTuple, CMP,
+                    FindTupleMode.INCLUSIVE, FindTupleNoExactMatchPolicy.HIGHER_KEY);
+            assertEquals(i, tupleIndex);
+        }
+        // comparing the keys does not assemble the records
+        assertEquals(0, shredder.assembled);
+
+        assertTuples(frame, tupleCount);
+        // each record is assembled once even though all of its accessors are called
+        assertEquals(tupleCount - tupleCount / 10, shredder.assembled);
+    }
+
+    @Test
+    public void testRequestedColumns() throws HyracksDataException {
+        LSMBTreeColumnarLeafFrame frame = createFrame(new PrefixShredder());
+        for (int i = 0; i < 10; i++) {
+            frame.insertSorted(createTuple(i));
+        }
+        assertTrue(frame.seal());
+        LSMBTreeColumnarTupleReference frameTuple = (LSMBTreeColumnarTupleReference) frame.createTupleReference();
+        IPointable value = new VoidPointable();
+        frameTuple.resetByTupleIndex(frame, 3);
+        frameTuple.getFieldColumns(1, new boolean[] { true, false }, value);
+        assertArrayEquals(new byte[] { (byte) (3 % 3) }, copy(value.getByteArray(), value.getStartOffset(),
+                value.getLength()));
+        // reading the whole record afterwards assembles all of its columns
+        assertArrayEquals(record(3), copy(frameTuple.getFieldData(1), frameTuple.getFieldStart(1),
+                frameTuple.getFieldLength(1)));
+        // the key is not stored in columns
+        frameTuple.getFieldColumns(0, new boolean[] { true, false }, value);
+        assertEquals(3, IntegerPointable.getInteger(value.getByteArray(), value.getStartOffset()));
+    }
+
+    @Test
+    public void testAppendAfterSeal() throws HyracksDataException {
+        LSMBTreeColumnarLeafFrame frame = createFrame(new PrefixShredder());
+        for (int i = 0; i < 50; i++) {
+            frame.insertSorted(createTuple(2 * i));
+        }
+        assertTrue(frame.seal());
+        for (int i = 50; i < 100; i++) {
+            frame.insertSorted(createTuple(2 * i));
+        }
+        // the first tuples are read from the columns, the others from the tuples
+        assertEquals(50, frame.getColumnarTupleCount());
+        assertTuples(frame, 100);
+        // the appended tuples take enough space to reorganize the page again
+        assertTrue(frame.compress());
+        assertEquals(100, frame.getColumnarTupleCount());
+        assertTuples(frame, 100);
+        // sealed pages have no space to reclaim
+        int freeSpace = frame.getTotalFreeSpace();
+        assertFalse(frame.compact());
+        assertEquals(freeSpace, frame.getTotalFreeSpace());
+        assertTuples(frame, 100);
+    }
+
+    private static LSMBTreeColumnarLeafFrame createFrame(IColumnShredder shredder) {
+        LSMBTreeColumnarLeafFrame frame =
+                new LSMBTreeColumnarLeafFrame(new LSMBTreeColumnarTupleWriter(TYPE_TRAITS, 1, false), shredder);
+        frame.setPage(new VirtualPage(ByteBuffer.allocate(PAGE_SIZE), PAGE_SIZE));
+        frame.initBuffer((byte) 0);
+        frame.setMultiComparator(CMP);
+        return frame;
+    }
+
+    // the key of tuple i is 2 * i, every 10th tuple is antimatter
+    private static void assertTuples(LSMBTreeColumnarLeafFrame frame, int tupleCount) {
+        LSMBTreeColumnarTupleReference frameTuple = (LSMBTreeColumnarTupleReference) frame.createTupleReference();
+        for (int i = 0; i < tupleCount; i++) {
+            frameTuple.resetByTupleIndex(frame, i);
+            int key = 2 * i;
+            assertEquals(key, IntegerPointable.getInteger(frameTuple.getFieldData(0), frameTuple.getFieldStart(0)));
+            assertEquals(isAntimatter(key), frameTuple.isAntimatter());
+            if (!isAntimatter(key)) {
+                assertArrayEquals(record(key), copy(frameTuple.getFieldData(1), frameTuple.getFieldStart(1),
+                        frameTuple.getFieldLength(1)));
+            }
+        }
+    }
+
+    private static ITupleReference createTuple(int key) throws HyracksDataException {
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(TYPE_TRAITS.length);
+        tb.addField(IntegerSerializerDeserializer.INSTANCE, key);
+        byte[] record = record(key);
+        tb.addField(record, 0, record.length);
+        ArrayTupleReference tuple = new ArrayTupleReference();
+        tuple.reset(tb.getFieldEndOffsets(), tb.getByteArray());
+        if (!isAntimatter(key)) {
+            return tuple;
+        }
+        LSMBTreeTupleWriter antimatterWriter = new LSMBTreeTupleWriter(TYPE_TRAITS, 1, true, false);
+        byte[] bytes = new byte[antimatterWriter.bytesRequired(tuple)];
+        antimatterWriter.writeTuple(tuple, bytes, 0);
+        LSMBTreeTupleReference antimatterTuple = antimatterWriter.createTupleReference();
+        antimatterTuple.resetByTupleOffset(bytes, 0);
+        return antimatterTuple;
+    }
+
+    private static boolean isAntimatter(int key) {
+        return key % 20 == 18;
+    }
+
+    // a type byte followed by a name
+    private static byte[] record(int key) {
+        byte[] name = ("name-" + key).getBytes(StandardCharsets.UTF_8);
+        byte[] record = new byte[name.length + 1];
+        record[0] = (byte) (key % 3);
+        System.arraycopy(name, 0, record, 1, name.length);
+        return record;
+    }
+
+    private static byte[] copy(byte[] bytes, int start, int length) {
+        return Arrays.copyOfRange(bytes, start, start + length);
+    }
+
+    /**
+     * Splits a value into its first byte and the rest.
+     */
+    private static class PrefixShredder implements IColumnShredder {
+        private int assembled;
+
+        @Override
+        public int getColumnCount() {
+            return 2;
+        }
+
+        @Override
+        public void shred(byte[] bytes, int start, int length, IPointable[] columns) {
+            columns[0].set(bytes, start, Math.min(length, 1));
+            columns[1].set(bytes, start + columns[0].getLength(), length - columns[0].getLength());
+        }
+
+        @Override
+        public void assemble(IPointable[] columns, DataOutput out) throws HyracksDataException {
+            assembled++;
+            try {
+                for (IPointable column : columns) {
+                    out.write(column.getByteArray(), column.getStartOffset(), column.getLength());
+                }
+            } catch (IOException e) {
+                throw HyracksDataException.create(e);
+            }
+        }
+    }
+}
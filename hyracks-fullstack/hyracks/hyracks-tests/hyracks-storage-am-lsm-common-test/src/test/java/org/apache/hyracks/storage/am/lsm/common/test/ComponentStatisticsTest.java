@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.data.std.accessors.PointableBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.storage.am.lsm.common.statistics.ComponentStatistics;
+import org.apache.hyracks.storage.am.lsm.common.statistics.EquiDepthHistogram;
+import org.apache.hyracks.storage.am.lsm.common.statistics.FieldStatistics;
+import org.apache.hyracks.storage.am.lsm.common.statistics.HyperLogLog;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ComponentStatisticsTest {
+
+    private final IBinaryComparator cmp =
+            PointableBinaryComparatorFactory.of(IntegerPointable.FACTORY).createBinaryComparator();
+
+    @Test
+    public void testHistogram() throws Exception {
+        EquiDepthHistogram h1 = buildHistogram(0, 10000, 2);
+        EquiDepthHistogram h2 = buildHistogram(1, 10000, 2);
+        Assert.assertEquals(5000, h1.getTotalCount());
+        Assert.assertTrue(h1.getBucketCount() <= 2 * EquiDepthHistogram.MAX_BUCKETS);
+        assertEstimate(2500, h1.estimateLessOrEqual(toBytes(4999), 0, 4, cmp), 5000);
+        EquiDepthHistogram merged = EquiDepthHistogram.merge(h1, h2, cmp);
+        Assert.assertEquals(10000, merged.getTotalCount());
+        Assert.assertTrue(merged.getBucketCount() <= EquiDepthHistogram.MAX_BUCKETS + 1);
+        assertEstimate(2500, merged.estimateLessOrEqual(toBytes(2499), 0, 4, cmp), 10000);
+        assertEstimate(7500, merged.estimateLessOrEqual(toBytes(7499), 0, 4, cmp), 10000);
+        Assert.assertEquals(0, merged.estimateLessOrEqual(toBytes(-1), 0, 4, cmp));
+        Assert.assertEquals(10000, merged.estimateLessOrEqual(toBytes(10000), 0, 4, cmp));
+    }
+
+    @Test
+    public void testMergeAndSerialize() throws Exception {
+        ComponentStatistics s1 = buildStatistics(0, 20000);
+        ComponentStatistics s2 = buildStatistics(10000, 30000);
+        assertEstimate(20000, s1.getDistinctKeyCount(), 20000);
+        s1.merge(read(write(s2)), cmp);
+        Assert.assertEquals(40000, s1.getTupleCount());
+        assertEstimate(30000, s1.getDistinctKeyCount(), 30000);
+        assertEstimate(30000, s1.getField(0).getDistinctCount(), 30000);
+        Assert.assertEquals(2, s1.getField(0).getNullCount());
+        ComponentStatistics copy = read(write(s1));
+        Assert.assertEquals(s1.getTupleCount(), copy.getTupleCount());
+        Assert.assertEquals(s1.getDistinctKeyCount(), copy.getDistinctKeyCount());
+        Assert.assertEquals(s1.getHistogram().getTotalCount(), copy.getHistogram().getTotalCount());
+    }
+
+    private EquiDepthHistogram buildHistogram(int from, int to, int stride) {
+        EquiDepthHistogram.Builder builder = new EquiDepthHistogram.Builder();
+        for (int i = from; i < to; i += stride) {
+            builder.add(toBytes(i), 0, 4);
+        }
+        return builder.build();
+    }
+
+    private ComponentStatistics buildStatistics(int from, int to) {
+        HyperLogLog distinctKeys = new HyperLogLog();
+        FieldStatistics field = new FieldStatistics();
+        field.addNull();
+        EquiDepthHistogram.Builder builder = new EquiDepthHistogram.Builder();
+        for (int i = from; i < to; i++) {
+            distinctKeys.add(i);
+            field.addValue(i);
+            builder.add(toBytes(i), 0, 4);
+        }
+        return new ComponentStatistics(distinctKeys, new FieldStatistics[] { field }, builder.build(), to - from, 0);
+    }
+
+    private static void assertEstimate(long expected, long actual, long total) {
+        Assert.assertTrue("expected about " + expected + " but was " + actual,
+                Math.abs(expected - actual) <= total / 10);
+    }
+
+    private static byte[] toBytes(int value) {
+        byte[] bytes = new byte[4];
+        IntegerPointable.setInteger(bytes, 0, value);
+        return bytes;
+    }
+
+    private static byte[] write(ComponentStatistics statistics) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        statistics.write(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static ComponentStatistics read(byte[] bytes) throws IOException {
+        return ComponentStatistics.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+}
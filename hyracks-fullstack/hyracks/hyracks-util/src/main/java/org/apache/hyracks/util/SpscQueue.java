@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, lock-free queue for exactly one producer thread and one consumer thread. {@link #offer(Object)} must only
+ * be called by the producer and {@link #poll()} only by the consumer. Neither of them ever blocks; callers that need to
+ * wait for room or for elements have to take care of it themselves. A successful {@link #offer(Object)} is a volatile
+ * write, so the producer can safely read a volatile "waiting" flag of the consumer right after it.
+ *
+ * @param <T> the type of the elements
+ */
+public class SpscQueue<T> {
+
+    private final Object[] elements;
+    private final int mask;
+    // the position of the next element to poll, only written by the consumer
+    private final AtomicLong head = new AtomicLong();
+    // the position of the next element to offer, only written by the producer
+    private final AtomicLong tail = new AtomicLong();
+    // the last head seen by the producer, saves reading the consumer's counter on every offer
+    private long producerHead;
+    // the last tail seen by the consumer, saves reading the producer's counter on every poll
+    private long consumerTail;
+
+    /**
+     * @param capacity the minimum number of elements the queue can hold, rounded up to a power of 2
+     */
+    public SpscQueue(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("invalid capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        elements = new Object[size];
+        mask = size - 1;
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    /**
+     * @return {@code true} if the element was added, {@code false} if the queue is full
+     */
+    public boolean offer(T element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        long t = tail.get();
+        if (t - producerHead >= elements.length) {
+            producerHead = head.get();
+            if (t - producerHead >= elements.length) {
+                return false;
+            }
+        }
+        elements[(int) t & mask] = element;
+        // publishes the element to the consumer. This has to be a volatile write rather than a lazySet: a producer that
+        // offers and then checks whether the consumer is waiting must not have the check reordered before the offer,
+        // otherwise both sides can miss each other and the consumer parks forever
+        tail.set(t + 1);
+        return true;
+    }
+
+    /**
+     * @return the oldest element of the queue or {@code null} if the queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long h = head.get();
+        if (h >= consumerTail) {
+            consumerTail = tail.get();
+            if (h >= consumerTail) {
+                return null;
+            }
+        }
+        int index = (int) h & mask;
+        T element = (T) elements[index];
+        elements[index] = null;
+        // hands the slot back to the producer
+        head.lazySet(h + 1);
+        return element;
+    }
+
+    /**
+     * @return the number of elements in the queue. The result is only a snapshot when the queue is used concurrently.
+     */
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}